@@ -0,0 +1,55 @@
+-- Payment search benchmark, offset vs keyset pagination of the id query followed by hydration.
+-- Run against a scratch database migrated with db/migration/main:
+--   psql -d collections_bench -v rows=3000000 -f benchmark/payment_search_keyset.sql
+-- Generates :rows payments spread over 10 tenants and 3 years with one payment detail and bill each.
+
+\set ON_ERROR_STOP on
+\timing on
+
+INSERT INTO egcl_payment (id, tenantid, totaldue, totalamountpaid, transactionnumber, transactiondate, paymentmode,
+        instrumentstatus, mobilenumber, paymentstatus, createdby, createdtime, lastmodifiedby, lastmodifiedtime)
+SELECT 'bench-py-' || g, 'pb.tenant' || (g % 10), 100, 100, 'TXN-' || g,
+        1546300800000 + (g::BIGINT * 94608000000 / :rows), 'CASH', 'APPROVED', '9999999999',
+        CASE WHEN g % 50 = 0 THEN 'CANCELLED' ELSE 'NEW' END, 'bench', 0, 'bench', 0
+FROM generate_series(1, :rows) g;
+
+INSERT INTO egcl_bill (id, status, tenantid, businessservice, totalamount, consumercode, billnumber, billdate,
+        createdby, createdtime, lastmodifiedby, lastmodifiedtime)
+SELECT 'bench-bill-' || g, 'PAID', 'pb.tenant' || (g % 10), 'PT', 100, 'PT-' || (g % 100000), 'BILL-' || g, 0,
+        'bench', 0, 'bench', 0
+FROM generate_series(1, :rows) g;
+
+INSERT INTO egcl_paymentdetail (id, tenantid, paymentid, due, amountpaid, receiptnumber, receiptdate, receipttype,
+        businessservice, billid, createdby, createdtime, lastmodifiedby, lastmodifiedtime)
+SELECT 'bench-pyd-' || g, 'pb.tenant' || (g % 10), 'bench-py-' || g, 100, 100, 'RCPT-' || g, 0, 'BILLBASED',
+        'PT', 'bench-bill-' || g, 'bench', 0, 'bench', 0
+FROM generate_series(1, :rows) g;
+
+INSERT INTO egcl_billdetial (id, tenantid, demandid, billid, amount, amountpaid, fromperiod, toperiod, expirydate)
+SELECT 'bench-bd-' || g, 'pb.tenant' || (g % 10), 'bench-demand-' || g, 'bench-bill-' || g, 100, 100, 0, 0, '0'
+FROM generate_series(1, :rows) g;
+
+ANALYZE egcl_payment;
+ANALYZE egcl_paymentdetail;
+ANALYZE egcl_bill;
+ANALYZE egcl_billdetial;
+
+-- Page 1000 with offset, every skipped row is read and discarded
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id FROM egcl_payment py_inner WHERE py_inner.tenantId = 'pb.tenant3'
+ORDER BY py_inner.transactiondate DESC, py_inner.id DESC OFFSET 99900 LIMIT 100;
+
+-- Same page with the keyset cursor of page 999, served from idx_egcl_payment_tenant_txndate_id
+SELECT transactiondate AS last_txn, id AS last_id FROM egcl_payment py_inner WHERE py_inner.tenantId = 'pb.tenant3'
+ORDER BY py_inner.transactiondate DESC, py_inner.id DESC OFFSET 99899 LIMIT 1 \gset
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id FROM egcl_payment py_inner WHERE py_inner.tenantId = 'pb.tenant3'
+AND (py_inner.transactiondate, py_inner.id) < (:last_txn, :'last_id')
+ORDER BY py_inner.transactiondate DESC, py_inner.id DESC LIMIT 100;
+
+-- Cleanup
+DELETE FROM egcl_billdetial WHERE id LIKE 'bench-bd-%';
+DELETE FROM egcl_paymentdetail WHERE id LIKE 'bench-pyd-%';
+DELETE FROM egcl_bill WHERE id LIKE 'bench-bill-%';
+DELETE FROM egcl_payment WHERE id LIKE 'bench-py-%';
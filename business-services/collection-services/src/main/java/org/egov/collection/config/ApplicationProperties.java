@@ -261,5 +261,19 @@ public class ApplicationProperties {
     @Value("${egov.razorpay.url}")
     private String razorPayUrl;
 
+    //Payment persistence
+
+    @Value("${collection.payment.groupcommit.enabled}")
+    private Boolean isPaymentGroupCommitEnabled;
+
+    @Value("${collection.payment.groupcommit.max.size}")
+    private Integer paymentGroupCommitMaxSize;
+
+    @Value("${collection.payment.groupcommit.max.wait.ms}")
+    private Long paymentGroupCommitMaxWaitMs;
+
+    @Value("${collection.payment.table.partitioned}")
+    private Boolean isPaymentTablePartitioned;
+
 
 }
@@ -51,8 +51,22 @@ public class PaymentSearchCriteria {
     private Integer offset;
 
     private Integer limit;
-    
+
+    /**
+     * Keyset cursor, transactionDate and id of the last payment of the previous page.
+     * When present the page is fetched by seeking past the cursor instead of using offset
+     */
+    private Long lastTransactionDate;
+
+    private String lastId;
+
     @Default
     private Boolean isCountRequest = false;
 
+    /**
+     * Returns only the summary columns of the payments and their payment details, bills are not fetched
+     */
+    @Default
+    private Boolean isSummary = false;
+
 }
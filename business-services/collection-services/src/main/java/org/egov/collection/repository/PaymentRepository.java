@@ -14,6 +14,7 @@ import org.egov.collection.model.PaymentSearchCriteria;
 import org.egov.collection.repository.querybuilder.PaymentQueryBuilder;
 import org.egov.collection.repository.rowmapper.BillRowMapper;
 import org.egov.collection.repository.rowmapper.PaymentRowMapper;
+import org.egov.collection.repository.rowmapper.PaymentSummaryRowMapper;
 import org.egov.collection.web.contract.Bill;
 import org.egov.tracer.model.CustomException;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -41,13 +42,22 @@ public class PaymentRepository {
     
     private BillRowMapper billRowMapper;
 
+    private PaymentSummaryRowMapper paymentSummaryRowMapper;
+
+    /**
+     * Same order as the id query so that the last payment of a page is the keyset cursor of the next
+     */
+    private static final Comparator<Payment> PAYMENT_ORDER = reverseOrder(
+            Comparator.comparingLong(Payment::getTransactionDate).thenComparing(Payment::getId));
+
     @Autowired
     public PaymentRepository(NamedParameterJdbcTemplate namedParameterJdbcTemplate, PaymentQueryBuilder paymentQueryBuilder, 
-    		PaymentRowMapper paymentRowMapper, BillRowMapper billRowMapper) {
+    		PaymentRowMapper paymentRowMapper, BillRowMapper billRowMapper, PaymentSummaryRowMapper paymentSummaryRowMapper) {
         this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
         this.paymentQueryBuilder = paymentQueryBuilder;
         this.paymentRowMapper = paymentRowMapper;
         this.billRowMapper = billRowMapper;
+        this.paymentSummaryRowMapper = paymentSummaryRowMapper;
     }
 
 
@@ -86,6 +96,73 @@ public class PaymentRepository {
     }
 
 
+    /**
+     * Persists a group of payments in the current transaction, rows of every
+     * table are written with multi row insert statements instead of one
+     * statement per row
+     *
+     * @param payments Payments to be persisted
+     */
+    @Transactional
+    public void savePayments(List<Payment> payments){
+        try {
+
+            List<MapSqlParameterSource> paymentSource = new ArrayList<>();
+            List<MapSqlParameterSource> paymentDetailSource = new ArrayList<>();
+            List<MapSqlParameterSource> billSource = new ArrayList<>();
+            List<MapSqlParameterSource> billDetailSource = new ArrayList<>();
+            List<MapSqlParameterSource> billAccountDetailSource = new ArrayList<>();
+
+            for (Payment payment : payments) {
+                paymentSource.add(getParametersForPaymentCreate(payment));
+                for (PaymentDetail paymentDetail : payment.getPaymentDetails()) {
+                    paymentDetailSource.add(getParametersForPaymentDetailCreate(payment.getId(), paymentDetail));
+                    billSource.add(getParamtersForBillCreate(paymentDetail.getBill()));
+                    paymentDetail.getBill().getBillDetails().forEach(billDetail -> {
+                        billDetailSource.add(getParamtersForBillDetailCreate(billDetail));
+                        billDetail.getBillAccountDetails().forEach(billAccountDetail -> {
+                            billAccountDetailSource.add(getParametersForBillAccountDetailCreate(billAccountDetail));
+                        });
+                    });
+                }
+            }
+            insertRows(INSERT_PAYMENT_SQL, paymentSource);
+            insertRows(INSERT_PAYMENTDETAIL_SQL, paymentDetailSource);
+            insertRows(INSERT_BILL_SQL, billSource);
+            insertRows(INSERT_BILLDETAIL_SQL, billDetailSource);
+            insertRows(INSERT_BILLACCOUNTDETAIL_SQL, billAccountDetailSource);
+
+        }catch (Exception e){
+            log.error("Failed to persist payment to database", e);
+            throw new CustomException("PAYMENT_CREATION_FAILED", e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the rows using as few multi row insert statements as the bind
+     * parameter limit allows
+     */
+    private void insertRows(String insertQuery, List<MapSqlParameterSource> rows) {
+        int rowsPerStatement = getMaxRowsPerInsert(insertQuery);
+        for (int from = 0; from < rows.size(); from += rowsPerStatement) {
+            MapSqlParameterSource parameterSource = new MapSqlParameterSource();
+            String query = getMultiRowInsertQuery(insertQuery,
+                    rows.subList(from, Math.min(rows.size(), from + rowsPerStatement)), parameterSource);
+            namedParameterJdbcTemplate.update(query, parameterSource);
+        }
+    }
+
+    /**
+     * Copies the current state of the given rows to the audit table in one statement
+     */
+    private void copyRows(String copyQuery, List<MapSqlParameterSource> rows) {
+        if (CollectionUtils.isEmpty(rows))
+            return;
+        Set<Object> ids = rows.stream().map(row -> row.getValue("id")).collect(Collectors.toSet());
+        namedParameterJdbcTemplate.update(copyQuery, Collections.singletonMap("ids", ids));
+    }
+
+
     public List<Payment> fetchPayments(PaymentSearchCriteria paymentSearchCriteria) {
         Map<String, Object> preparedStatementValues = new HashMap<>();
 
@@ -94,9 +171,15 @@ public class PaymentRepository {
         if(CollectionUtils.isEmpty(ids))
             return new LinkedList<>();
 
-        String query = paymentQueryBuilder.getPaymentSearchQuery(ids, preparedStatementValues);
+        String query = paymentQueryBuilder.getPaymentSearchQuery(ids, paymentSearchCriteria, preparedStatementValues);
         log.info("Query: " + query);
         log.info("preparedStatementValues: " + preparedStatementValues);
+        if (Boolean.TRUE.equals(paymentSearchCriteria.getIsSummary())) {
+            List<Payment> payments = namedParameterJdbcTemplate.query(query, preparedStatementValues, paymentSummaryRowMapper);
+            payments.sort(PAYMENT_ORDER);
+            return payments;
+        }
+
         List<Payment> payments = namedParameterJdbcTemplate.query(query, preparedStatementValues, paymentRowMapper);
         if (!CollectionUtils.isEmpty(payments)) {
             Set<String> billIds = new HashSet<>();
@@ -109,7 +192,7 @@ public class PaymentRepository {
                     detail.setBill(billMap.get(detail.getBillId()));
                 });
             }
-            payments.sort(reverseOrder(Comparator.comparingLong(Payment::getTransactionDate)));
+            payments.sort(PAYMENT_ORDER);
         }
 
         return payments;
@@ -177,9 +260,9 @@ public class PaymentRepository {
                 }
             }
 
-            namedParameterJdbcTemplate.batchUpdate(COPY_PAYMENT_SQL, paymentSource.toArray(new MapSqlParameterSource[0]));
-            namedParameterJdbcTemplate.batchUpdate(COPY_PAYMENTDETAIL_SQL, paymentDetailSource.toArray(new MapSqlParameterSource[0]));
-            namedParameterJdbcTemplate.batchUpdate(COPY_BILL_SQL, billSource.toArray(new MapSqlParameterSource[0]));
+            copyRows(BULK_COPY_PAYMENT_SQL, paymentSource);
+            copyRows(BULK_COPY_PAYMENTDETAIL_SQL, paymentDetailSource);
+            copyRows(BULK_COPY_BILL_SQL, billSource);
             namedParameterJdbcTemplate.batchUpdate(STATUS_UPDATE_PAYMENT_SQL, paymentSource.toArray(new MapSqlParameterSource[0]));
             namedParameterJdbcTemplate.batchUpdate(STATUS_UPDATE_PAYMENTDETAIL_SQL, paymentDetailSource.toArray(new MapSqlParameterSource[0]));
             namedParameterJdbcTemplate.batchUpdate(STATUS_UPDATE_BILL_SQL, billSource.toArray(new MapSqlParameterSource[0]));
@@ -215,10 +298,10 @@ public class PaymentRepository {
             namedParameterJdbcTemplate.batchUpdate(UPDATE_PAYMENTDETAIL_SQL, paymentDetailSource.toArray(new MapSqlParameterSource[0]));
             namedParameterJdbcTemplate.batchUpdate(UPDATE_BILL_SQL, billSource.toArray(new MapSqlParameterSource[0]));
             namedParameterJdbcTemplate.batchUpdate(UPDATE_BILLDETAIL_SQL, billDetailSource.toArray(new MapSqlParameterSource[0]));
-            namedParameterJdbcTemplate.batchUpdate(COPY_PAYMENT_SQL, paymentSource.toArray(new MapSqlParameterSource[0]));
-            namedParameterJdbcTemplate.batchUpdate(COPY_PAYMENTDETAIL_SQL, paymentDetailSource.toArray(new MapSqlParameterSource[0]));
-            namedParameterJdbcTemplate.batchUpdate(COPY_BILL_SQL, billSource.toArray(new MapSqlParameterSource[0]));
-            namedParameterJdbcTemplate.batchUpdate(COPY_BILLDETAIL_SQL, billDetailSource.toArray(new MapSqlParameterSource[0]));
+            copyRows(BULK_COPY_PAYMENT_SQL, paymentSource);
+            copyRows(BULK_COPY_PAYMENTDETAIL_SQL, paymentDetailSource);
+            copyRows(BULK_COPY_BILL_SQL, billSource);
+            copyRows(BULK_COPY_BILLDETAIL_SQL, billDetailSource);
         }catch (Exception e){
             log.error("Failed to update receipt to database", e);
             throw new CustomException("RECEIPT_UPDATION_FAILED", "Unable to update receipt");
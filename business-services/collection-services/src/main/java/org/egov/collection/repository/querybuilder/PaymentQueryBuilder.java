@@ -9,6 +9,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.StringUtils;
 import org.egov.collection.config.ApplicationProperties;
@@ -43,6 +45,17 @@ public class PaymentQueryBuilder {
             " FROM egcl_payment py  " +
             " INNER JOIN egcl_paymentdetail pyd ON pyd.paymentid = py.id ";
     
+    /**
+     * Columns shown on payment lists, the bill graph and the audit and additional details are not read
+     */
+    public static final String SELECT_PAYMENT_SUMMARY_SQL = "SELECT py.id as py_id, py.tenantId as py_tenantId, py.totalDue," +
+            " py.totalAmountPaid as py_totalAmountPaid, py.transactionNumber, py.transactionDate, py.paymentMode," +
+            " py.instrumentStatus, py.paidBy, py.mobileNumber, py.payerName, py.payerId, py.paymentStatus," +
+            " pyd.id as pyd_id, pyd.tenantId as pyd_tenantId, pyd.due, pyd.amountPaid, pyd.receiptNumber," +
+            " pyd.receiptDate, pyd.businessService, pyd.billId" +
+            " FROM egcl_payment py " +
+            " INNER JOIN egcl_paymentdetail pyd ON pyd.paymentid = py.id ";
+
     public static final String SELECT_COUNT_PAYMENT_SQL = "SELECT count(distinct(py.id)) FROM egcl_payment py "
     		+ "INNER JOIN egcl_paymentdetail pyd ON pyd.paymentid = py.id where pyd.businessservice= :businessservice and pyd.tenantid= :tenantid ";
 
@@ -59,6 +72,8 @@ public class PaymentQueryBuilder {
             " INNER JOIN egcl_bill bill ON bill.id = pyd.billid " +
             " INNER JOIN egcl_billdetial bd ON bd.billid = bill.id and bd.tenantid {{operator}} :tenantId; ";
 
+    public static final String SUMMARY_ID_QUERY = "select id from egcl_payment as py_inner {{WHERE_CLAUSE}}";
+
     private static final String PAGINATION_WRAPPER = "SELECT * FROM " +
             "(SELECT *, DENSE_RANK() OVER (ORDER BY py_id) offset_ FROM " +
             "({baseQuery})" +
@@ -142,6 +157,18 @@ public class PaymentQueryBuilder {
 
     public static final String COPY_BILLDETAIL_SQL = "INSERT INTO egcl_billdetial_audit SELECT * FROM egcl_billdetial WHERE id = :id;";
 
+    // Set based audit copies, one statement per table irrespective of the number of rows being audited
+
+    public static final String BULK_COPY_PAYMENT_SQL = "INSERT INTO egcl_payment_audit SELECT * FROM egcl_payment WHERE id IN (:ids);";
+
+    public static final String BULK_COPY_PAYMENTDETAIL_SQL = "INSERT INTO egcl_paymentdetail_audit SELECT id, tenantid, paymentid, due, amountpaid, receiptnumber, "
+    		+ "businessservice, billid, additionaldetails,  createdby, createdtime, lastmodifiedby, lastmodifiedtime, manualreceiptnumber, "
+    		+ "manualreceiptdate, receiptdate, receipttype FROM egcl_paymentdetail WHERE id IN (:ids) ;";
+
+    public static final String BULK_COPY_BILL_SQL = "INSERT INTO egcl_bill_audit SELECT * FROM egcl_bill WHERE id IN (:ids);";
+
+    public static final String BULK_COPY_BILLDETAIL_SQL = "INSERT INTO egcl_billdetial_audit SELECT * FROM egcl_billdetial WHERE id IN (:ids);";
+
     public static final String FILESTOREID_UPDATE_PAYMENT_SQL = "UPDATE egcl_payment SET filestoreid=:filestoreid WHERE id=:id;";
 
 
@@ -183,6 +210,55 @@ public class PaymentQueryBuilder {
 	public static final String UPDATE_PAYMENT_BANKDETAIL_EMPTYADDTL_SQL = "UPDATE egcl_payment SET additionaldetails = :additionaldetails ::jsonb WHERE (length(additionaldetails :: text) is null or length(additionaldetails :: text) = 4) and ifsccode=:ifsccode ";
 	public static final String UPDATE_PAYMENT_BANKDETAIL_ARRAYADDTL_SQL = "UPDATE egcl_payment SET additionaldetails =  additionaldetails || :additionaldetails ::jsonb WHERE length(additionaldetails :: text) is not null and length(additionaldetails :: text) > 4  and jsonb_typeof(additionaldetails ::jsonb) ='array' and ifsccode=:ifsccode ";
 	
+	/**
+	 * Postgres allows at most 32767 bind parameters in a single statement
+	 */
+	public static final int MAX_BIND_PARAMETERS = 32767;
+
+	private static final Pattern NAMED_PARAMETER = Pattern.compile(":(\\w+)");
+
+	/**
+	 * Rewrites a single row INSERT ... VALUES (...) query into one multi row
+	 * INSERT statement covering all the given rows. Every named parameter of
+	 * the values tuple is suffixed with the row index and the corresponding
+	 * values are copied into the given target parameter source
+	 *
+	 * @param insertQuery single row insert query, eg: INSERT_BILL_SQL
+	 * @param rows parameter sources, one per row to be inserted
+	 * @param target parameter source into which values of all the rows are added
+	 * @return Multi row insert query
+	 */
+	public static String getMultiRowInsertQuery(String insertQuery, List<MapSqlParameterSource> rows, MapSqlParameterSource target) {
+
+		int valuesIndex = insertQuery.indexOf("VALUES");
+		String tuple = StringUtils.removeEnd(insertQuery.substring(valuesIndex + "VALUES".length()).trim(), ";");
+		StringBuilder query = new StringBuilder(insertQuery.substring(0, valuesIndex + "VALUES".length()));
+
+		for (int i = 0; i < rows.size(); i++) {
+			MapSqlParameterSource row = rows.get(i);
+			query.append(i == 0 ? " " : ", ").append(NAMED_PARAMETER.matcher(tuple).replaceAll(":$1_" + i));
+			for (String name : row.getParameterNames())
+				target.addValue(name + "_" + i, row.getValue(name));
+		}
+
+		return query.toString();
+	}
+
+	/**
+	 * Number of rows of the given insert query that can be written in one
+	 * statement without crossing the bind parameter limit
+	 *
+	 * @param insertQuery single row insert query
+	 * @return Maximum rows per statement
+	 */
+	public static int getMaxRowsPerInsert(String insertQuery) {
+		Matcher matcher = NAMED_PARAMETER.matcher(insertQuery.substring(insertQuery.indexOf("VALUES")));
+		int parameters = 0;
+		while (matcher.find())
+			parameters++;
+		return Math.max(1, MAX_BIND_PARAMETERS / Math.max(1, parameters));
+	}
+
 	public static String getBillQuery() {
 		return BILL_BASE_QUERY;
 	}
@@ -340,6 +416,38 @@ public class PaymentQueryBuilder {
         return addOrderByClause(selectQuery);
     }
 
+    /**
+     * Search query for the given payment ids, when egcl_payment is partitioned on
+     * transactiondate the date range of the search is repeated so that only the
+     * matching partitions are scanned. Summary searches read only the summary
+     * columns of the payments and their payment details
+     *
+     * @param ids payment ids to be fetched
+     * @param searchCriteria criteria used to fetch the ids
+     * @param preparedStatementValues values of the named parameters
+     * @return Payment search query
+     */
+    public String getPaymentSearchQuery(List<String> ids, PaymentSearchCriteria searchCriteria,
+                                        Map<String, Object> preparedStatementValues) {
+        boolean isSummary = Boolean.TRUE.equals(searchCriteria.getIsSummary());
+        StringBuilder selectQuery = new StringBuilder(isSummary ? SELECT_PAYMENT_SUMMARY_SQL : SELECT_PAYMENT_SQL);
+        addClauseIfRequired(preparedStatementValues, selectQuery);
+        selectQuery.append(" py.id IN (:id)  ");
+        preparedStatementValues.put("id", ids);
+
+        if (config.getIsPaymentTablePartitioned() != null && config.getIsPaymentTablePartitioned()) {
+            if (searchCriteria.getFromDate() != null) {
+                selectQuery.append(" AND py.transactionDate >= :fromDate");
+                preparedStatementValues.put("fromDate", searchCriteria.getFromDate());
+            }
+            if (searchCriteria.getToDate() != null) {
+                selectQuery.append(" AND py.transactionDate <= :toDate");
+                preparedStatementValues.put("toDate", searchCriteria.getToDate());
+            }
+        }
+        return addOrderByClause(selectQuery);
+    }
+
 
     public static String getPaymentSearchQueryForPlainSearch(PaymentSearchCriteria searchCriteria,
                                                              Map<String, Object> preparedStatementValues) {
@@ -357,8 +465,17 @@ public class PaymentQueryBuilder {
     public String getIdQuery(PaymentSearchCriteria searchCriteria, Map<String, Object> preparedStatementValues){
         StringBuilder whereClause = new StringBuilder();
         addWhereClause(whereClause, preparedStatementValues, searchCriteria);
-        whereClause.append(" ORDER BY py_inner.transactiondate DESC ").toString();
+        if (isKeysetSearch(searchCriteria)) {
+            addClauseIfRequired(preparedStatementValues, whereClause);
+            whereClause.append(" (py_inner.transactiondate, py_inner.id) < (:lastTransactionDate, :lastId)");
+            preparedStatementValues.put("lastTransactionDate", searchCriteria.getLastTransactionDate());
+            preparedStatementValues.put("lastId", searchCriteria.getLastId());
+        }
+        whereClause.append(" ORDER BY py_inner.transactiondate DESC, py_inner.id DESC ");
         addPagination(whereClause,preparedStatementValues,searchCriteria);
+        if (Boolean.TRUE.equals(searchCriteria.getIsSummary()))
+            return SUMMARY_ID_QUERY.replace("{{WHERE_CLAUSE}}", whereClause.toString());
+
         String query = ID_QUERY.replace("{{WHERE_CLAUSE}}",whereClause.toString());
         if(searchCriteria.getTenantId().split("\\.").length > 1){
             query = query.replace("{{operator}}", "=");
@@ -369,6 +486,15 @@ public class PaymentQueryBuilder {
         return query;
     }
 
+    /**
+     * Keyset search is used when the cursor of the previous page is provided,
+     * the page is then read from the (tenantid, transactiondate, id) index
+     * without skipping over the rows of earlier pages
+     */
+    private static boolean isKeysetSearch(PaymentSearchCriteria searchCriteria) {
+        return searchCriteria.getLastTransactionDate() != null && StringUtils.isNotBlank(searchCriteria.getLastId());
+    }
+
     private StringBuilder addWrapperQuery(StringBuilder builder){
         String wrapper = "select id from ( {{PLACEHOLDER}} ) t ORDER BY date DESC";
         wrapper = wrapper.replace("{{PLACEHOLDER}}", builder.toString());
@@ -557,7 +683,8 @@ public class PaymentQueryBuilder {
     private void addPagination(StringBuilder query,Map<String, Object> preparedStatementValues,PaymentSearchCriteria criteria){
         int limit = config.getDefaultLimit();
         int offset = 0;
-        query.append(" OFFSET :offset ");
+        if (!isKeysetSearch(criteria))
+            query.append(" OFFSET :offset ");
         query.append(" LIMIT :limit ");
 
         if(criteria.getLimit()!=null && criteria.getLimit()<=config.getMaxSearchLimit())
@@ -569,7 +696,8 @@ public class PaymentQueryBuilder {
         if(criteria.getOffset()!=null)
             offset = criteria.getOffset();
 
-        preparedStatementValues.put("offset", offset);
+        if (!isKeysetSearch(criteria))
+            preparedStatementValues.put("offset", offset);
         preparedStatementValues.put("limit", limit);
 
     }
@@ -0,0 +1,69 @@
+package org.egov.collection.repository.rowmapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.egov.collection.model.Payment;
+import org.egov.collection.model.PaymentDetail;
+import org.egov.collection.model.enums.InstrumentStatusEnum;
+import org.egov.collection.model.enums.PaymentModeEnum;
+import org.egov.collection.model.enums.PaymentStatusEnum;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maps the rows of the payment summary query, one row per payment detail
+ */
+@Component
+public class PaymentSummaryRowMapper implements ResultSetExtractor<List<Payment>> {
+
+    @Override
+    public List<Payment> extractData(ResultSet rs) throws SQLException {
+
+        Map<String, Payment> idToPaymentMap = new LinkedHashMap<>();
+
+        while (rs.next()) {
+
+            String id = rs.getString("py_id");
+            Payment payment = idToPaymentMap.get(id);
+
+            if (payment == null) {
+                payment = Payment.builder()
+                        .id(id)
+                        .tenantId(rs.getString("py_tenantId"))
+                        .totalDue(rs.getBigDecimal("totalDue"))
+                        .totalAmountPaid(rs.getBigDecimal("py_totalAmountPaid"))
+                        .transactionNumber(rs.getString("transactionNumber"))
+                        .transactionDate(rs.getLong("transactionDate"))
+                        .paymentMode(PaymentModeEnum.fromValue(rs.getString("paymentMode")))
+                        .instrumentStatus(InstrumentStatusEnum.fromValue(rs.getString("instrumentStatus")))
+                        .paidBy(rs.getString("paidBy"))
+                        .mobileNumber(rs.getString("mobileNumber"))
+                        .payerName(rs.getString("payerName"))
+                        .payerId(rs.getString("payerId"))
+                        .paymentStatus(PaymentStatusEnum.fromValue(rs.getString("paymentStatus")))
+                        .build();
+                idToPaymentMap.put(id, payment);
+            }
+
+            PaymentDetail paymentDetail = PaymentDetail.builder()
+                    .id(rs.getString("pyd_id"))
+                    .tenantId(rs.getString("pyd_tenantId"))
+                    .totalDue(rs.getBigDecimal("due"))
+                    .totalAmountPaid(rs.getBigDecimal("amountPaid"))
+                    .receiptNumber(rs.getString("receiptNumber"))
+                    .receiptDate(rs.getLong("receiptDate"))
+                    .businessService(rs.getString("businessService"))
+                    .billId(rs.getString("billId"))
+                    .build();
+            payment.addpaymentDetailsItem(paymentDetail);
+        }
+
+        return new ArrayList<>(idToPaymentMap.values());
+    }
+
+}
@@ -0,0 +1,201 @@
+package org.egov.collection.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.egov.collection.config.ApplicationProperties;
+import org.egov.collection.model.PaymentRequest;
+import org.egov.collection.producer.CollectionProducer;
+import org.egov.collection.repository.PaymentRepository;
+import org.egov.tracer.model.CustomException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Persists created payments and publishes them on the create payment topic.
+ *
+ * When group commit is disabled the payment is persisted and published in the
+ * caller's transaction as before. When enabled, payments created by
+ * concurrent requests are accumulated and each group is persisted with one
+ * multi row insert per table and published in one transaction, the
+ * transaction is committed only after every payment of the group has been
+ * published. The calling request blocks till the group containing its payment
+ * is committed, so the caller still sees the outcome of its own write.
+ */
+@Slf4j
+@Component
+public class PaymentGroupCommitWriter {
+
+    private PaymentRepository paymentRepository;
+
+    private CollectionProducer producer;
+
+    private ApplicationProperties applicationProperties;
+
+    private TransactionTemplate transactionTemplate;
+
+    private BlockingQueue<PendingPayment> queue = new LinkedBlockingQueue<>();
+
+    private Thread flusher;
+
+    private volatile boolean running;
+
+    @Autowired
+    public PaymentGroupCommitWriter(PaymentRepository paymentRepository, CollectionProducer producer,
+                                    ApplicationProperties applicationProperties, PlatformTransactionManager transactionManager) {
+        this.paymentRepository = paymentRepository;
+        this.producer = producer;
+        this.applicationProperties = applicationProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!isEnabled())
+            return;
+        running = true;
+        flusher = new Thread(this::flushLoop, "payment-group-commit");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (flusher == null)
+            return;
+        running = false;
+        flusher.interrupt();
+        flusher.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * Persists and publishes the payment, returns once the payment is committed
+     *
+     * @param paymentRequest Request of the payment to be persisted
+     */
+    public void save(PaymentRequest paymentRequest) {
+        if (!running) {
+            paymentRepository.savePayment(paymentRequest.getPayment());
+            producer.producer(applicationProperties.getCreatePaymentTopicName(), paymentRequest);
+            return;
+        }
+
+        PendingPayment pending = new PendingPayment(paymentRequest);
+        queue.add(pending);
+        try {
+            pending.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CustomException("PAYMENT_CREATION_FAILED", "Interrupted while waiting for payment to be persisted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof CustomException)
+                throw (CustomException) e.getCause();
+            throw new CustomException("PAYMENT_CREATION_FAILED", e.getCause().getMessage());
+        }
+    }
+
+    private boolean isEnabled() {
+        return applicationProperties.getIsPaymentGroupCommitEnabled() != null
+                && applicationProperties.getIsPaymentGroupCommitEnabled();
+    }
+
+    private void flushLoop() {
+        int maxSize = applicationProperties.getPaymentGroupCommitMaxSize();
+        long maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(applicationProperties.getPaymentGroupCommitMaxWaitMs());
+
+        while (running || !queue.isEmpty()) {
+            List<PendingPayment> group = new ArrayList<>(maxSize);
+            try {
+                PendingPayment first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null)
+                    continue;
+                group.add(first);
+
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (group.size() < maxSize) {
+                    PendingPayment next = queue.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    if (next == null)
+                        break;
+                    group.add(next);
+                }
+            } catch (InterruptedException e) {
+                queue.drainTo(group);
+            }
+
+            if (!group.isEmpty())
+                commit(group);
+        }
+    }
+
+    /**
+     * Persists and publishes the group in one transaction, if the group fails
+     * each payment is retried in a transaction of its own so that one bad
+     * payment does not fail the others. Payments already published by the
+     * failed group are not published again.
+     */
+    private void commit(List<PendingPayment> group) {
+        try {
+            transactionTemplate.execute(status -> {
+                paymentRepository.savePayments(group.stream().map(pending -> pending.paymentRequest.getPayment())
+                        .collect(Collectors.toList()));
+                group.forEach(this::publish);
+                return null;
+            });
+            group.forEach(pending -> pending.result.complete(null));
+            return;
+        } catch (Exception e) {
+            if (group.size() == 1) {
+                group.get(0).result.completeExceptionally(e);
+                return;
+            }
+            log.error("Group commit of {} payments failed, persisting individually", group.size(), e);
+        }
+
+        for (PendingPayment pending : group) {
+            try {
+                transactionTemplate.execute(status -> {
+                    paymentRepository.savePayment(pending.paymentRequest.getPayment());
+                    publish(pending);
+                    return null;
+                });
+                pending.result.complete(null);
+            } catch (Exception e) {
+                pending.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void publish(PendingPayment pending) {
+        if (pending.published)
+            return;
+        producer.producer(applicationProperties.getCreatePaymentTopicName(), pending.paymentRequest);
+        pending.published = true;
+    }
+
+    private static class PendingPayment {
+
+        private PaymentRequest paymentRequest;
+
+        private CompletableFuture<Void> result = new CompletableFuture<>();
+
+        private boolean published;
+
+        PendingPayment(PaymentRequest paymentRequest) {
+            this.paymentRequest = paymentRequest;
+        }
+    }
+
+}
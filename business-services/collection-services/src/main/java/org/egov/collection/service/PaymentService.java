@@ -39,10 +39,13 @@ public class PaymentService {
 
     private CollectionProducer producer;
 
+    private PaymentGroupCommitWriter paymentGroupCommitWriter;
+
 
     @Autowired
     public PaymentService(ApportionerService apportionerService, PaymentEnricher paymentEnricher, ApplicationProperties applicationProperties,
-                          UserService userService, PaymentValidator paymentValidator, PaymentRepository paymentRepository, CollectionProducer producer) {
+                          UserService userService, PaymentValidator paymentValidator, PaymentRepository paymentRepository, CollectionProducer producer,
+                          PaymentGroupCommitWriter paymentGroupCommitWriter) {
         this.apportionerService = apportionerService;
         this.paymentEnricher = paymentEnricher;
         this.applicationProperties = applicationProperties;
@@ -50,6 +53,7 @@ public class PaymentService {
         this.paymentValidator = paymentValidator;
         this.paymentRepository = paymentRepository;
         this.producer = producer;
+        this.paymentGroupCommitWriter = paymentGroupCommitWriter;
     }
 
 
@@ -113,9 +117,7 @@ public class PaymentService {
         String payerId = createUser(paymentRequest);
         if(!StringUtils.isEmpty(payerId))
             payment.setPayerId(payerId);
-        paymentRepository.savePayment(payment);
-
-        producer.producer(applicationProperties.getCreatePaymentTopicName(), paymentRequest);
+        paymentGroupCommitWriter.save(paymentRequest);
 
 
         return payment;
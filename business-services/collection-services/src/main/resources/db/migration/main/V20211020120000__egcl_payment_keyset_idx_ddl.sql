@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS idx_egcl_payment_tenant_txndate_id ON egcl_payment USING btree (tenantid, transactiondate DESC, id DESC);
@@ -0,0 +1,69 @@
+-- Optional layout, applied only when classpath:db/migration/partition is added to spring.flyway.locations
+-- egcl_payment is range partitioned on transactiondate, one partition per financial year.
+-- Partition key has to be part of the primary key of a partitioned table and a foreign key can only
+-- reference a unique key of it that includes the partition key. Payment ids are therefore kept
+-- unique in egcl_payment_id, maintained by a trigger on egcl_payment, and the payment detail
+-- foreign key references it instead of the partitioned table.
+
+ALTER TABLE egcl_paymentdetail DROP CONSTRAINT IF EXISTS fk_egcl_paymentDetail;
+
+ALTER TABLE egcl_payment RENAME TO egcl_payment_unpartitioned;
+
+CREATE TABLE egcl_payment (LIKE egcl_payment_unpartitioned INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+PARTITION BY RANGE (transactiondate);
+
+ALTER TABLE egcl_payment ADD CONSTRAINT pk_egcl_payment_partitioned PRIMARY KEY (id, transactiondate);
+
+DO $$
+DECLARE
+    fy INTEGER;
+BEGIN
+    FOR fy IN 2015..2030 LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS egcl_payment_fy%s PARTITION OF egcl_payment FOR VALUES FROM (%s) TO (%s)',
+            fy,
+            (extract(epoch FROM make_timestamptz(fy, 4, 1, 0, 0, 0, 'Asia/Kolkata')) * 1000)::BIGINT,
+            (extract(epoch FROM make_timestamptz(fy + 1, 4, 1, 0, 0, 0, 'Asia/Kolkata')) * 1000)::BIGINT);
+    END LOOP;
+END $$;
+
+CREATE TABLE IF NOT EXISTS egcl_payment_default PARTITION OF egcl_payment DEFAULT;
+
+INSERT INTO egcl_payment SELECT * FROM egcl_payment_unpartitioned;
+
+DROP TABLE egcl_payment_unpartitioned;
+
+CREATE TABLE egcl_payment_id (
+    id VARCHAR(256) NOT NULL,
+    transactionDate BIGINT NOT NULL,
+
+    CONSTRAINT pk_egcl_payment_id PRIMARY KEY (id)
+);
+
+INSERT INTO egcl_payment_id (id, transactiondate) SELECT id, transactiondate FROM egcl_payment;
+
+CREATE OR REPLACE FUNCTION egcl_payment_id_sync() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO egcl_payment_id (id, transactiondate) VALUES (NEW.id, NEW.transactiondate);
+    ELSIF TG_OP = 'UPDATE' THEN
+        UPDATE egcl_payment_id SET id = NEW.id, transactiondate = NEW.transactiondate WHERE id = OLD.id;
+    ELSE
+        DELETE FROM egcl_payment_id WHERE id = OLD.id;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_egcl_payment_id_sync
+AFTER INSERT OR DELETE OR UPDATE OF id, transactiondate ON egcl_payment
+FOR EACH ROW EXECUTE PROCEDURE egcl_payment_id_sync();
+
+ALTER TABLE egcl_paymentdetail ADD CONSTRAINT fk_egcl_paymentDetail FOREIGN KEY (paymentid) REFERENCES egcl_payment_id(id);
+
+CREATE INDEX IF NOT EXISTS idx_egcl_payment_part_transactionNumber ON egcl_payment(transactionNumber);
+CREATE INDEX IF NOT EXISTS idx_egcl_payment_part_payerId ON egcl_payment(payerId);
+CREATE INDEX IF NOT EXISTS idx_egcl_payment_part_mobileNumber ON egcl_payment(mobileNumber);
+CREATE INDEX IF NOT EXISTS idx_egcl_payment_part_paymentstatus ON egcl_payment(paymentstatus);
+CREATE INDEX IF NOT EXISTS idx_egcl_payment_part_tenant_txndate ON egcl_payment(tenantid, transactiondate DESC);
+CREATE INDEX IF NOT EXISTS idx_egcl_payment_part_id ON egcl_payment(id);
+CREATE INDEX IF NOT EXISTS idx_egcl_payment_tenant_txndate_id ON egcl_payment USING btree (tenantid, transactiondate DESC, id DESC);
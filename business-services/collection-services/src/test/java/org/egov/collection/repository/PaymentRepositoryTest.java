@@ -12,6 +12,7 @@ import org.egov.collection.model.enums.PaymentStatusEnum;
 import org.egov.collection.repository.querybuilder.PaymentQueryBuilder;
 import org.egov.collection.repository.rowmapper.BillRowMapper;
 import org.egov.collection.repository.rowmapper.PaymentRowMapper;
+import org.egov.collection.repository.rowmapper.PaymentSummaryRowMapper;
 import org.egov.tracer.model.CustomException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -26,6 +27,7 @@ import java.math.BigDecimal;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalMatchers.and;
 import static org.mockito.Mockito.*;
 
 @ContextConfiguration(classes = {PaymentRepository.class})
@@ -46,6 +48,9 @@ class PaymentRepositoryTest {
     @MockBean
     private PaymentRowMapper paymentRowMapper;
 
+    @MockBean
+    private PaymentSummaryRowMapper paymentSummaryRowMapper;
+
     @Test
     void testSavePayment() {
         assertThrows(CustomException.class, () -> this.paymentRepository.savePayment(new Payment()));
@@ -135,6 +140,27 @@ class PaymentRepositoryTest {
         assertThrows(CustomException.class, () -> this.paymentRepository.savePayment(null));
     }
 
+    @Test
+    void testSavePayments() throws DataAccessException {
+        when(this.namedParameterJdbcTemplate.update((String) any(),
+                (org.springframework.jdbc.core.namedparam.SqlParameterSource) any())).thenReturn(2);
+        BigDecimal totalDue = BigDecimal.valueOf(42L);
+        BigDecimal totalAmountPaid = BigDecimal.valueOf(42L);
+        List<Payment> payments = new ArrayList<>();
+        for (String id : Arrays.asList("41", "42")) {
+            payments.add(new Payment(id, "42", totalDue, totalAmountPaid, "42", 1L, PaymentModeEnum.CASH, 1L, "42",
+                    InstrumentStatusEnum.APPROVED, "Ifsc Code", new AuditDetails(), NullNode.getInstance(),
+                    new ArrayList<>(), "Paid By", "42", "Payer Name", "42 Main St", "jane.doe@example.org", "42",
+                    PaymentStatusEnum.NEW, "42"));
+        }
+
+        this.paymentRepository.savePayments(payments);
+        verify(this.namedParameterJdbcTemplate).update(and(startsWith("INSERT INTO egcl_payment("), contains(":id_1")),
+                (org.springframework.jdbc.core.namedparam.SqlParameterSource) any());
+        verify(this.namedParameterJdbcTemplate, never()).batchUpdate((String) any(),
+                (org.springframework.jdbc.core.namedparam.SqlParameterSource[]) any());
+    }
+
     @Test
     void testFetchPayments() throws DataAccessException {
         when(this.paymentQueryBuilder.getIdQuery((PaymentSearchCriteria) any(), (Map<String, Object>) any()))
@@ -162,7 +188,7 @@ class PaymentRepositoryTest {
 
     @Test
     void testFetchPayments3() throws DataAccessException {
-        when(this.paymentQueryBuilder.getPaymentSearchQuery((List<String>) any(), (Map<String, Object>) any()))
+        when(this.paymentQueryBuilder.getPaymentSearchQuery((List<String>) any(), (PaymentSearchCriteria) any(), (Map<String, Object>) any()))
                 .thenReturn("Payment Search Query");
         when(this.paymentQueryBuilder.getIdQuery((PaymentSearchCriteria) any(), (Map<String, Object>) any()))
                 .thenReturn("Id Query");
@@ -176,7 +202,7 @@ class PaymentRepositoryTest {
                 (org.springframework.jdbc.core.RowMapper<Object>) any())).thenReturn(objectList);
         assertThrows(CustomException.class, () -> this.paymentRepository.fetchPayments(new PaymentSearchCriteria()));
         verify(this.paymentQueryBuilder).getIdQuery((PaymentSearchCriteria) any(), (Map<String, Object>) any());
-        verify(this.paymentQueryBuilder).getPaymentSearchQuery((List<String>) any(), (Map<String, Object>) any());
+        verify(this.paymentQueryBuilder).getPaymentSearchQuery((List<String>) any(), (PaymentSearchCriteria) any(), (Map<String, Object>) any());
         verify(this.namedParameterJdbcTemplate).query((String) any(), (Map<String, ?>) any(),
                 (org.springframework.jdbc.core.ResultSetExtractor<Object>) any());
         verify(this.namedParameterJdbcTemplate).query((String) any(), (Map<String, ?>) any(),
@@ -185,7 +211,7 @@ class PaymentRepositoryTest {
 
     @Test
     void testFetchPayments4() throws DataAccessException {
-        when(this.paymentQueryBuilder.getPaymentSearchQuery((List<String>) any(), (Map<String, Object>) any()))
+        when(this.paymentQueryBuilder.getPaymentSearchQuery((List<String>) any(), (PaymentSearchCriteria) any(), (Map<String, Object>) any()))
                 .thenReturn("Payment Search Query");
         when(this.paymentQueryBuilder.getIdQuery((PaymentSearchCriteria) any(), (Map<String, Object>) any()))
                 .thenReturn("Id Query");
@@ -201,13 +227,36 @@ class PaymentRepositoryTest {
         assertSame(objectList1, actualFetchPaymentsResult);
         assertTrue(actualFetchPaymentsResult.isEmpty());
         verify(this.paymentQueryBuilder).getIdQuery((PaymentSearchCriteria) any(), (Map<String, Object>) any());
-        verify(this.paymentQueryBuilder).getPaymentSearchQuery((List<String>) any(), (Map<String, Object>) any());
+        verify(this.paymentQueryBuilder).getPaymentSearchQuery((List<String>) any(), (PaymentSearchCriteria) any(), (Map<String, Object>) any());
         verify(this.namedParameterJdbcTemplate).query((String) any(), (Map<String, ?>) any(),
                 (org.springframework.jdbc.core.ResultSetExtractor<Object>) any());
         verify(this.namedParameterJdbcTemplate).query((String) any(), (Map<String, ?>) any(),
                 (org.springframework.jdbc.core.RowMapper<Object>) any());
     }
 
+    @Test
+    void testFetchPaymentsForSummary() throws DataAccessException {
+        when(this.paymentQueryBuilder.getPaymentSearchQuery((List<String>) any(), (PaymentSearchCriteria) any(), (Map<String, Object>) any()))
+                .thenReturn("Payment Summary Query");
+        when(this.paymentQueryBuilder.getIdQuery((PaymentSearchCriteria) any(), (Map<String, Object>) any()))
+                .thenReturn("Id Query");
+        when(this.namedParameterJdbcTemplate.query(eq("Id Query"), (Map<String, ?>) any(),
+                (org.springframework.jdbc.core.RowMapper<Object>) any())).thenReturn(Arrays.asList("1", "2"));
+        Payment older = Payment.builder().id("1").transactionDate(1L).build();
+        Payment newer = Payment.builder().id("2").transactionDate(2L).build();
+        when(this.namedParameterJdbcTemplate.query(eq("Payment Summary Query"), (Map<String, ?>) any(),
+                same(this.paymentSummaryRowMapper))).thenReturn(new ArrayList<>(Arrays.asList(older, newer)));
+
+        List<Payment> actualFetchPaymentsResult = this.paymentRepository
+                .fetchPayments(PaymentSearchCriteria.builder().tenantId("pb.amritsar").isSummary(true).build());
+
+        assertEquals(Arrays.asList(newer, older), actualFetchPaymentsResult);
+        verify(this.namedParameterJdbcTemplate, never()).query(anyString(), (Map<String, ?>) any(),
+                same(this.paymentRowMapper));
+        verify(this.namedParameterJdbcTemplate, never()).query(anyString(), (Map<String, ?>) any(),
+                same(this.billRowMapper));
+    }
+
     @Test
     void testGetPaymentsCount() throws DataAccessException {
         when(this.paymentQueryBuilder.getPaymentCountQuery((String) any(), (String) any(),
@@ -1,6 +1,7 @@
 package org.egov.collection.repository.querybuilder;
 
 import com.fasterxml.jackson.databind.node.*;
+import org.egov.collection.config.ApplicationProperties;
 import org.egov.collection.model.AuditDetails;
 import org.egov.collection.model.Payment;
 import org.egov.collection.model.PaymentDetail;
@@ -14,16 +15,20 @@ import org.postgresql.util.PGobject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.io.UnsupportedEncodingException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.Mockito.*;
 
@@ -1054,7 +1059,7 @@ class PaymentQueryBuilderTest {
         HashSet<String> consumerCodes = new HashSet<>();
         PaymentSearchCriteria paymentSearchCriteria = new PaymentSearchCriteria(ids, billIds, "42", tenantIds,
                 receiptNumbers, status, instrumentStatus, paymentModes, payerIds, consumerCodes, new HashSet<>(), "42", "42",
-                1L, 1L, 2, 1, true);
+                1L, 1L, 2, 1, null, null, true, false);
 
         HashMap<String, Object> stringObjectMap = new HashMap<>();
         assertEquals("SELECT py.*,pyd.*,py.id as py_id,py.tenantId as py_tenantId,py.totalAmountPaid as py_totalAmountPaid"
@@ -3333,6 +3338,106 @@ class PaymentQueryBuilderTest {
         assertEquals("\"QUFBQUFBQUE=\"", binaryNode.toPrettyString());
     }
 
+    @Test
+    void testGetIdQueryWithKeyset() {
+        ApplicationProperties config = mock(ApplicationProperties.class);
+        when(config.getDefaultLimit()).thenReturn(100);
+        when(config.getMaxSearchLimit()).thenReturn(300);
+        PaymentQueryBuilder paymentQueryBuilder = new PaymentQueryBuilder();
+        ReflectionTestUtils.setField(paymentQueryBuilder, "config", config);
+
+        PaymentSearchCriteria searchCriteria = PaymentSearchCriteria.builder().tenantId("pb.amritsar")
+                .lastTransactionDate(1L).lastId("42").limit(10).build();
+        HashMap<String, Object> stringObjectMap = new HashMap<>();
+        String query = paymentQueryBuilder.getIdQuery(searchCriteria, stringObjectMap);
+
+        assertTrue(query.contains(" (py_inner.transactiondate, py_inner.id) < (:lastTransactionDate, :lastId)"
+                + " ORDER BY py_inner.transactiondate DESC, py_inner.id DESC  LIMIT :limit "));
+        assertFalse(query.contains("OFFSET"));
+        assertEquals(10, stringObjectMap.get("limit"));
+        assertEquals("42", stringObjectMap.get("lastId"));
+    }
+
+    @Test
+    void testGetIdQueryWithOffset() {
+        ApplicationProperties config = mock(ApplicationProperties.class);
+        when(config.getDefaultLimit()).thenReturn(100);
+        when(config.getMaxSearchLimit()).thenReturn(300);
+        PaymentQueryBuilder paymentQueryBuilder = new PaymentQueryBuilder();
+        ReflectionTestUtils.setField(paymentQueryBuilder, "config", config);
+
+        PaymentSearchCriteria searchCriteria = PaymentSearchCriteria.builder().tenantId("pb.amritsar").offset(20).build();
+        HashMap<String, Object> stringObjectMap = new HashMap<>();
+        String query = paymentQueryBuilder.getIdQuery(searchCriteria, stringObjectMap);
+
+        assertTrue(query.contains(" OFFSET :offset  LIMIT :limit "));
+        assertEquals(20, stringObjectMap.get("offset"));
+        assertEquals(100, stringObjectMap.get("limit"));
+    }
+
+    @Test
+    void testGetIdQueryForSummary() {
+        ApplicationProperties config = mock(ApplicationProperties.class);
+        when(config.getDefaultLimit()).thenReturn(100);
+        when(config.getMaxSearchLimit()).thenReturn(300);
+        PaymentQueryBuilder paymentQueryBuilder = new PaymentQueryBuilder();
+        ReflectionTestUtils.setField(paymentQueryBuilder, "config", config);
+
+        PaymentSearchCriteria searchCriteria = PaymentSearchCriteria.builder().tenantId("pb.amritsar").isSummary(true)
+                .build();
+        HashMap<String, Object> stringObjectMap = new HashMap<>();
+        String query = paymentQueryBuilder.getIdQuery(searchCriteria, stringObjectMap);
+
+        assertTrue(query.startsWith("select id from egcl_payment as py_inner  WHERE  py_inner.tenantId =:tenantId"));
+        assertFalse(query.contains("egcl_paymentdetail"));
+        assertFalse(query.contains("egcl_bill"));
+        assertEquals("pb.amritsar", stringObjectMap.get("tenantId"));
+    }
+
+    @Test
+    void testGetPaymentSearchQueryForSummary() {
+        ApplicationProperties config = mock(ApplicationProperties.class);
+        PaymentQueryBuilder paymentQueryBuilder = new PaymentQueryBuilder();
+        ReflectionTestUtils.setField(paymentQueryBuilder, "config", config);
+
+        PaymentSearchCriteria searchCriteria = PaymentSearchCriteria.builder().tenantId("pb.amritsar").isSummary(true)
+                .build();
+        HashMap<String, Object> stringObjectMap = new HashMap<>();
+        String query = paymentQueryBuilder.getPaymentSearchQuery(Collections.singletonList("42"), searchCriteria,
+                stringObjectMap);
+
+        assertTrue(query.startsWith(PaymentQueryBuilder.SELECT_PAYMENT_SUMMARY_SQL));
+        assertFalse(query.contains("py.*"));
+        assertFalse(query.contains("additionalDetails"));
+        assertEquals(Collections.singletonList("42"), stringObjectMap.get("id"));
+    }
+
+    @Test
+    void testGetMultiRowInsertQuery() {
+        MapSqlParameterSource first = new MapSqlParameterSource();
+        first.addValue("id", "1");
+        first.addValue("order", 1);
+        MapSqlParameterSource second = new MapSqlParameterSource();
+        second.addValue("id", "2");
+        second.addValue("order", 2);
+        ArrayList<MapSqlParameterSource> rows = new ArrayList<>();
+        rows.add(first);
+        rows.add(second);
+
+        MapSqlParameterSource target = new MapSqlParameterSource();
+        assertEquals("INSERT INTO t(id, \"order\") VALUES (:id_0, :order_0), (:id_1, :order_1)",
+                PaymentQueryBuilder.getMultiRowInsertQuery("INSERT INTO t(id, \"order\") VALUES (:id, :order);", rows, target));
+        assertEquals(4, target.getParameterNames().length);
+        assertEquals("2", target.getValue("id_1"));
+        assertEquals(1, target.getValue("order_0"));
+    }
+
+    @Test
+    void testGetMaxRowsPerInsert() {
+        assertEquals(PaymentQueryBuilder.MAX_BIND_PARAMETERS / 10,
+                PaymentQueryBuilder.getMaxRowsPerInsert(PaymentQueryBuilder.INSERT_BILLACCOUNTDETAIL_SQL));
+    }
+
     @Test
     void testConstructor() {
         new PaymentQueryBuilder();
@@ -0,0 +1,40 @@
+package org.egov.collection.repository.rowmapper;
+
+import org.egov.collection.model.Payment;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.*;
+
+class PaymentSummaryRowMapperTest {
+
+    @Test
+    void testExtractDataGroupsPaymentDetailsByPayment() throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.next()).thenReturn(true).thenReturn(true).thenReturn(false);
+        when(resultSet.getString("py_id")).thenReturn("py-1");
+        when(resultSet.getString("pyd_id")).thenReturn("pyd-1").thenReturn("pyd-2");
+        when(resultSet.getString("receiptNumber")).thenReturn("RCPT-1").thenReturn("RCPT-2");
+        when(resultSet.getString("paymentMode")).thenReturn("CASH");
+        when(resultSet.getString("paymentStatus")).thenReturn("NEW");
+        when(resultSet.getBigDecimal("py_totalAmountPaid")).thenReturn(BigDecimal.valueOf(200L));
+        when(resultSet.getLong("transactionDate")).thenReturn(1L);
+
+        List<Payment> payments = new PaymentSummaryRowMapper().extractData(resultSet);
+
+        assertEquals(1, payments.size());
+        Payment payment = payments.get(0);
+        assertEquals(BigDecimal.valueOf(200L), payment.getTotalAmountPaid());
+        assertEquals(2, payment.getPaymentDetails().size());
+        assertEquals("RCPT-2", payment.getPaymentDetails().get(1).getReceiptNumber());
+        assertNull(payment.getPaymentDetails().get(0).getBill());
+        verify(resultSet, never()).getObject(anyString());
+    }
+
+}
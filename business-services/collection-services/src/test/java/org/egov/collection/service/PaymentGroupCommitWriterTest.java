@@ -0,0 +1,135 @@
+package org.egov.collection.service;
+
+import org.egov.collection.config.ApplicationProperties;
+import org.egov.collection.model.Payment;
+import org.egov.collection.model.PaymentRequest;
+import org.egov.collection.producer.CollectionProducer;
+import org.egov.collection.repository.PaymentRepository;
+import org.egov.tracer.model.CustomException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PaymentGroupCommitWriterTest {
+
+    private static final String CREATE_TOPIC = "egov.collection.payment-create";
+
+    private PaymentRepository paymentRepository;
+
+    private CollectionProducer producer;
+
+    private PlatformTransactionManager transactionManager;
+
+    private ApplicationProperties applicationProperties;
+
+    private PaymentGroupCommitWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        paymentRepository = mock(PaymentRepository.class);
+        producer = mock(CollectionProducer.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction((TransactionDefinition) any())).thenReturn(new SimpleTransactionStatus());
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.setCreatePaymentTopicName(CREATE_TOPIC);
+        applicationProperties.setIsPaymentGroupCommitEnabled(true);
+        applicationProperties.setPaymentGroupCommitMaxSize(2);
+        applicationProperties.setPaymentGroupCommitMaxWaitMs(TimeUnit.SECONDS.toMillis(5));
+        writer = new PaymentGroupCommitWriter(paymentRepository, producer, applicationProperties, transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        writer.stop();
+    }
+
+    @Test
+    void testSaveWithGroupCommitDisabled() {
+        applicationProperties.setIsPaymentGroupCommitEnabled(false);
+        writer.start();
+        PaymentRequest paymentRequest = paymentRequest("1");
+
+        writer.save(paymentRequest);
+
+        verify(paymentRepository).savePayment(paymentRequest.getPayment());
+        verify(producer).producer(CREATE_TOPIC, paymentRequest);
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void testSavePersistsAndPublishesGroupInOneTransaction() throws Exception {
+        writer.start();
+        PaymentRequest first = paymentRequest("1");
+        PaymentRequest second = paymentRequest("2");
+
+        CompletableFuture.allOf(CompletableFuture.runAsync(() -> writer.save(first)),
+                CompletableFuture.runAsync(() -> writer.save(second))).get(10, TimeUnit.SECONDS);
+
+        verify(paymentRepository).savePayments(argThat((List<Payment> payments) -> payments.size() == 2));
+        verify(paymentRepository, never()).savePayment(any());
+        verify(producer).producer(CREATE_TOPIC, first);
+        verify(producer).producer(CREATE_TOPIC, second);
+        verify(transactionManager).getTransaction(any());
+        verify(transactionManager).commit(any());
+        verify(transactionManager, never()).rollback(any());
+    }
+
+    @Test
+    void testFailedGroupIsRetriedIndividuallyWithoutPublishingTwice() throws Exception {
+        writer.start();
+        PaymentRequest first = paymentRequest("1");
+        PaymentRequest second = paymentRequest("2");
+        AtomicBoolean failed = new AtomicBoolean();
+        doAnswer(invocation -> {
+            if (invocation.getArgument(1) == second && failed.compareAndSet(false, true))
+                throw new CustomException("COLLECTIONS_KAFKA_PUSH_FAILED", "Kafka push failed");
+            return null;
+        }).when(producer).producer(anyString(), any());
+
+        CompletableFuture.allOf(CompletableFuture.runAsync(() -> writer.save(first)),
+                CompletableFuture.runAsync(() -> writer.save(second))).get(10, TimeUnit.SECONDS);
+
+        verify(paymentRepository).savePayments(any());
+        verify(paymentRepository).savePayment(first.getPayment());
+        verify(paymentRepository).savePayment(second.getPayment());
+        verify(producer, times(1)).producer(CREATE_TOPIC, first);
+        verify(producer, times(2)).producer(CREATE_TOPIC, second);
+        verify(transactionManager, times(1)).rollback((TransactionStatus) any());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void testSaveFailsWhenPaymentCanNotBePersisted() {
+        applicationProperties.setPaymentGroupCommitMaxSize(1);
+        writer.start();
+        doThrow(new CustomException("PAYMENT_CREATION_FAILED", "Failed to persist payment"))
+                .when(paymentRepository).savePayments(any());
+
+        CustomException exception = assertThrows(CustomException.class, () -> writer.save(paymentRequest("1")));
+
+        assertEquals("PAYMENT_CREATION_FAILED", exception.getCode());
+        verifyNoInteractions(producer);
+        verify(transactionManager).rollback(any());
+    }
+
+    private PaymentRequest paymentRequest(String id) {
+        Payment payment = new Payment();
+        payment.setId(id);
+        PaymentRequest paymentRequest = new PaymentRequest();
+        paymentRequest.setPayment(payment);
+        return paymentRequest;
+    }
+
+}
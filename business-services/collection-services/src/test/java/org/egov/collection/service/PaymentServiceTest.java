@@ -43,7 +43,8 @@ class PaymentServiceTest {
         ApplicationProperties applicationProperties = new ApplicationProperties();
         UserService userService = new UserService();
         PaymentService paymentService = new PaymentService(apportionerService, paymentEnricher, applicationProperties,
-                userService, paymentValidator, paymentRepository, new CollectionProducer());
+                userService, paymentValidator, paymentRepository, new CollectionProducer(),
+                new PaymentGroupCommitWriter(paymentRepository, new CollectionProducer(), applicationProperties, null));
         RequestInfo requestInfo = new RequestInfo();
         PaymentSearchCriteria paymentSearchCriteria = new PaymentSearchCriteria();
         List<Payment> actualPayments = paymentService.getPayments(requestInfo, paymentSearchCriteria, "Module Name");
@@ -70,7 +71,8 @@ class PaymentServiceTest {
         ApplicationProperties applicationProperties = new ApplicationProperties();
         UserService userService = new UserService();
         PaymentService paymentService = new PaymentService(apportionerService, paymentEnricher, applicationProperties,
-                userService, paymentValidator, paymentRepository, new CollectionProducer());
+                userService, paymentValidator, paymentRepository, new CollectionProducer(),
+                new PaymentGroupCommitWriter(paymentRepository, new CollectionProducer(), applicationProperties, null));
         RequestInfo requestInfo = new RequestInfo();
         assertThrows(CustomException.class,
                 () -> paymentService.getPayments(requestInfo, new PaymentSearchCriteria(), "Module Name"));
@@ -93,7 +95,8 @@ class PaymentServiceTest {
         ApplicationProperties applicationProperties = new ApplicationProperties();
         UserService userService = new UserService();
         PaymentService paymentService = new PaymentService(apportionerService, paymentEnricher, applicationProperties,
-                userService, paymentValidator, paymentRepository, new CollectionProducer());
+                userService, paymentValidator, paymentRepository, new CollectionProducer(),
+                new PaymentGroupCommitWriter(paymentRepository, new CollectionProducer(), applicationProperties, null));
         RequestInfo requestInfo = new RequestInfo();
         PaymentSearchCriteria paymentSearchCriteria = mock(PaymentSearchCriteria.class);
         doNothing().when(paymentSearchCriteria).setLimit((Integer) any());
@@ -123,7 +126,8 @@ class PaymentServiceTest {
         PaymentEnricher paymentEnricher = new PaymentEnricher();
         UserService userService = new UserService();
         PaymentService paymentService = new PaymentService(apportionerService, paymentEnricher, applicationProperties,
-                userService, paymentValidator, paymentRepository, new CollectionProducer());
+                userService, paymentValidator, paymentRepository, new CollectionProducer(),
+                new PaymentGroupCommitWriter(paymentRepository, new CollectionProducer(), applicationProperties, null));
         RequestInfo requestInfo = new RequestInfo();
         PaymentSearchCriteria paymentSearchCriteria = mock(PaymentSearchCriteria.class);
         when(paymentSearchCriteria.getLimit()).thenReturn(1);
@@ -156,7 +160,8 @@ class PaymentServiceTest {
         PaymentEnricher paymentEnricher = new PaymentEnricher();
         UserService userService = new UserService();
         PaymentService paymentService = new PaymentService(apportionerService, paymentEnricher, applicationProperties,
-                userService, paymentValidator, paymentRepository, new CollectionProducer());
+                userService, paymentValidator, paymentRepository, new CollectionProducer(),
+                new PaymentGroupCommitWriter(paymentRepository, new CollectionProducer(), applicationProperties, null));
         RequestInfo requestInfo = new RequestInfo();
         PaymentSearchCriteria paymentSearchCriteria = mock(PaymentSearchCriteria.class);
         when(paymentSearchCriteria.getLimit()).thenThrow(new CustomException("Code", "An error occurred"));
@@ -191,7 +196,8 @@ class PaymentServiceTest {
 
         assertEquals(3L,
                 (new PaymentService(apportionerService, paymentEnricher, applicationProperties, userService, paymentValidator,
-                        paymentRepository, new CollectionProducer())).getpaymentcountForBusiness("foo", "foo").longValue());
+                        paymentRepository, new CollectionProducer(),
+                new PaymentGroupCommitWriter(paymentRepository, new CollectionProducer(), applicationProperties, null))).getpaymentcountForBusiness("foo", "foo").longValue());
         verify(paymentRepository).getPaymentsCount((String) any(), (String) any());
     }
 
@@ -217,7 +223,8 @@ class PaymentServiceTest {
 
         assertThrows(CustomException.class,
                 () -> (new PaymentService(apportionerService, paymentEnricher, applicationProperties, userService,
-                        paymentValidator, paymentRepository, new CollectionProducer())).getpaymentcountForBusiness("foo", "foo"));
+                        paymentValidator, paymentRepository, new CollectionProducer(),
+                new PaymentGroupCommitWriter(paymentRepository, new CollectionProducer(), applicationProperties, null))).getpaymentcountForBusiness("foo", "foo"));
         verify(paymentRepository).getPaymentsCount((String) any(), (String) any());
     }
 
@@ -237,7 +244,8 @@ class PaymentServiceTest {
         UserService userService = new UserService();
         PaymentRepository paymentRepository = mock(PaymentRepository.class);
         PaymentService paymentService = new PaymentService(apportionerService, paymentEnricher, applicationProperties,
-                userService, paymentValidator, paymentRepository, new CollectionProducer());
+                userService, paymentValidator, paymentRepository, new CollectionProducer(),
+                new PaymentGroupCommitWriter(paymentRepository, new CollectionProducer(), applicationProperties, null));
         assertThrows(CustomException.class, () -> paymentService.createPayment(new PaymentRequest()));
         verify(apportionerService).apportionBill((PaymentRequest) any());
         verify(paymentEnricher).enrichAdvanceTaxHead((List<Bill>) any());
@@ -261,7 +269,8 @@ class PaymentServiceTest {
         UserService userService = new UserService();
         PaymentRepository paymentRepository = mock(PaymentRepository.class);
         PaymentService paymentService = new PaymentService(apportionerService, paymentEnricher, applicationProperties,
-                userService, paymentValidator, paymentRepository, new CollectionProducer());
+                userService, paymentValidator, paymentRepository, new CollectionProducer(),
+                new PaymentGroupCommitWriter(paymentRepository, new CollectionProducer(), applicationProperties, null));
 
         Payment payment = new Payment();
         payment.addpaymentDetailsItem(new PaymentDetail());
@@ -291,7 +300,8 @@ class PaymentServiceTest {
         UserService userService = new UserService();
         PaymentRepository paymentRepository = mock(PaymentRepository.class);
         PaymentService paymentService = new PaymentService(apportionerService, paymentEnricher, applicationProperties,
-                userService, paymentValidator, paymentRepository, new CollectionProducer());
+                userService, paymentValidator, paymentRepository, new CollectionProducer(),
+                new PaymentGroupCommitWriter(paymentRepository, new CollectionProducer(), applicationProperties, null));
 
         Payment payment = new Payment();
         payment.addpaymentDetailsItem(new PaymentDetail());
@@ -324,7 +334,8 @@ class PaymentServiceTest {
         doNothing().when(collectionProducer).producer((String) any(), (Object) any());
         ApplicationProperties applicationProperties = new ApplicationProperties();
         PaymentService paymentService = new PaymentService(apportionerService, paymentEnricher, applicationProperties,
-                new UserService(), paymentValidator, paymentRepository, collectionProducer);
+                new UserService(), paymentValidator, paymentRepository, collectionProducer,
+                new PaymentGroupCommitWriter(paymentRepository, collectionProducer, applicationProperties, null));
 
         RequestInfo requestInfo = new RequestInfo();
         requestInfo.setUserInfo(new User(123L, "janedoe", "CITIZEN", "CITIZEN", "42", "42", new ArrayList<>(), "42",
@@ -370,7 +381,8 @@ class PaymentServiceTest {
         doNothing().when(collectionProducer).producer((String) any(), (Object) any());
         ApplicationProperties applicationProperties = new ApplicationProperties();
         PaymentService paymentService = new PaymentService(apportionerService, paymentEnricher, applicationProperties,
-                new UserService(), paymentValidator, paymentRepository, collectionProducer);
+                new UserService(), paymentValidator, paymentRepository, collectionProducer,
+                new PaymentGroupCommitWriter(paymentRepository, collectionProducer, applicationProperties, null));
 
         RequestInfo requestInfo = new RequestInfo();
         requestInfo.setUserInfo(new User(123L, "janedoe", "CITIZEN", "CITIZEN", "42", "42", new ArrayList<>(), "42", ""));
@@ -415,7 +427,8 @@ class PaymentServiceTest {
 
         PaymentRepository paymentRepository2 = mock(PaymentRepository.class);
         PaymentService paymentService = new PaymentService(apportionerService, paymentEnricher, applicationProperties,
-                userService, paymentValidator, paymentRepository2, new CollectionProducer());
+                userService, paymentValidator, paymentRepository2, new CollectionProducer(),
+                new PaymentGroupCommitWriter(paymentRepository2, new CollectionProducer(), applicationProperties, null));
 
         RequestInfo requestInfo = new RequestInfo();
         requestInfo.setUserInfo(new User(123L, "janedoe", "CITIZEN", "CITIZEN", "42", "42", new ArrayList<>(), "42",
@@ -446,7 +459,8 @@ class PaymentServiceTest {
 
         PaymentRepository paymentRepository2 = mock(PaymentRepository.class);
         PaymentService paymentService = new PaymentService(apportionerService, paymentEnricher, applicationProperties,
-                userService, paymentValidator, paymentRepository2, new CollectionProducer());
+                userService, paymentValidator, paymentRepository2, new CollectionProducer(),
+                new PaymentGroupCommitWriter(paymentRepository2, new CollectionProducer(), applicationProperties, null));
         User user = mock(User.class);
         when(user.getType()).thenReturn("Type");
 
@@ -479,7 +493,8 @@ class PaymentServiceTest {
 
         PaymentRepository paymentRepository2 = mock(PaymentRepository.class);
         PaymentService paymentService = new PaymentService(apportionerService, paymentEnricher, applicationProperties,
-                userService, paymentValidator, paymentRepository2, new CollectionProducer());
+                userService, paymentValidator, paymentRepository2, new CollectionProducer(),
+                new PaymentGroupCommitWriter(paymentRepository2, new CollectionProducer(), applicationProperties, null));
         User user = mock(User.class);
         when(user.getUuid()).thenThrow(new CustomException("Code", "An error occurred"));
         when(user.getType()).thenReturn("CITIZEN");
@@ -508,7 +523,8 @@ class PaymentServiceTest {
         ApplicationProperties applicationProperties = new ApplicationProperties();
         UserService userService = new UserService();
         PaymentService paymentService = new PaymentService(apportionerService, paymentEnricher, applicationProperties,
-                userService, paymentValidator, paymentRepository, new CollectionProducer());
+                userService, paymentValidator, paymentRepository, new CollectionProducer(),
+                new PaymentGroupCommitWriter(paymentRepository, new CollectionProducer(), applicationProperties, null));
         assertThrows(CustomException.class, () -> paymentService.updatePayment(new PaymentRequest()));
         verify(paymentValidator).validateAndEnrichPaymentsForUpdate((List<Payment>) any(),
                 (RequestInfo) any());
@@ -530,7 +546,8 @@ class PaymentServiceTest {
         PaymentEnricher paymentEnricher = new PaymentEnricher();
         ApplicationProperties applicationProperties = new ApplicationProperties();
         PaymentService paymentService = new PaymentService(apportionerService, paymentEnricher, applicationProperties,
-                new UserService(), paymentValidator, paymentRepository, collectionProducer);
+                new UserService(), paymentValidator, paymentRepository, collectionProducer,
+                new PaymentGroupCommitWriter(paymentRepository, collectionProducer, applicationProperties, null));
         List<Payment> actualUpdatePaymentResult = paymentService.updatePayment(new PaymentRequest());
         assertSame(paymentList, actualUpdatePaymentResult);
         assertTrue(actualUpdatePaymentResult.isEmpty());
@@ -552,7 +569,8 @@ class PaymentServiceTest {
         UserService userService = new UserService();
         PaymentRepository paymentRepository = mock(PaymentRepository.class);
         PaymentService paymentService = new PaymentService(apportionerService, paymentEnricher, applicationProperties,
-                userService, paymentValidator, paymentRepository, new CollectionProducer());
+                userService, paymentValidator, paymentRepository, new CollectionProducer(),
+                new PaymentGroupCommitWriter(paymentRepository, new CollectionProducer(), applicationProperties, null));
         assertNull(paymentService.vaidateProvisonalPayment(new PaymentRequest()));
         verify(paymentEnricher).enrichPaymentPreValidate((PaymentRequest) any());
         verify(paymentValidator).validatePaymentForCreate((PaymentRequest) any());
@@ -578,7 +596,8 @@ class PaymentServiceTest {
                 new ApplicationProperties(), mock(ServiceRequestRepository.class));
 
         PaymentService paymentService = new PaymentService(apportionerService, paymentEnricher, applicationProperties,
-                userService, paymentValidator, paymentRepository, new CollectionProducer());
+                userService, paymentValidator, paymentRepository, new CollectionProducer(),
+                new PaymentGroupCommitWriter(paymentRepository, new CollectionProducer(), applicationProperties, null));
         assertTrue(paymentService.plainSearch(new PaymentSearchCriteria()).isEmpty());
         verify(paymentRepository).fetchPaymentIds((PaymentSearchCriteria) any());
     }
@@ -607,7 +626,8 @@ class PaymentServiceTest {
                 new ApplicationProperties(), mock(ServiceRequestRepository.class));
 
         PaymentService paymentService = new PaymentService(apportionerService, paymentEnricher, applicationProperties,
-                userService, paymentValidator, paymentRepository, new CollectionProducer());
+                userService, paymentValidator, paymentRepository, new CollectionProducer(),
+                new PaymentGroupCommitWriter(paymentRepository, new CollectionProducer(), applicationProperties, null));
         List<Payment> actualPlainSearchResult = paymentService.plainSearch(new PaymentSearchCriteria());
         assertSame(paymentList, actualPlainSearchResult);
         assertTrue(actualPlainSearchResult.isEmpty());
@@ -641,7 +661,8 @@ class PaymentServiceTest {
                 new ApplicationProperties(), mock(ServiceRequestRepository.class));
 
         PaymentService paymentService = new PaymentService(apportionerService, paymentEnricher, applicationProperties,
-                userService, paymentValidator, paymentRepository, new CollectionProducer());
+                userService, paymentValidator, paymentRepository, new CollectionProducer(),
+                new PaymentGroupCommitWriter(paymentRepository, new CollectionProducer(), applicationProperties, null));
         List<Payment> actualPlainSearchResult = paymentService.plainSearch(new PaymentSearchCriteria());
         assertSame(paymentList, actualPlainSearchResult);
         assertTrue(actualPlainSearchResult.isEmpty());
@@ -673,7 +694,8 @@ class PaymentServiceTest {
                 new ApplicationProperties(), mock(ServiceRequestRepository.class));
 
         PaymentService paymentService = new PaymentService(apportionerService, paymentEnricher, applicationProperties,
-                userService, paymentValidator, paymentRepository, new CollectionProducer());
+                userService, paymentValidator, paymentRepository, new CollectionProducer(),
+                new PaymentGroupCommitWriter(paymentRepository, new CollectionProducer(), applicationProperties, null));
         assertThrows(CustomException.class, () -> paymentService.plainSearch(new PaymentSearchCriteria()));
         verify(paymentRepository).fetchPaymentIds((PaymentSearchCriteria) any());
         verify(paymentRepository).fetchPaymentsForPlainSearch((PaymentSearchCriteria) any());
@@ -705,7 +727,8 @@ class PaymentServiceTest {
                 new ApplicationProperties(), mock(ServiceRequestRepository.class));
 
         PaymentService paymentService = new PaymentService(apportionerService, paymentEnricher, applicationProperties,
-                userService, paymentValidator, paymentRepository, new CollectionProducer());
+                userService, paymentValidator, paymentRepository, new CollectionProducer(),
+                new PaymentGroupCommitWriter(paymentRepository, new CollectionProducer(), applicationProperties, null));
         HashSet<String> ids = new HashSet<>();
         HashSet<String> billIds = new HashSet<>();
         HashSet<String> tenantIds = new HashSet<>();
@@ -717,7 +740,7 @@ class PaymentServiceTest {
         HashSet<String> consumerCodes = new HashSet<>();
         List<Payment> actualPlainSearchResult = paymentService
                 .plainSearch(new PaymentSearchCriteria(ids, billIds, "42", tenantIds, receiptNumbers, status, instrumentStatus,
-                        paymentModes, payerIds, consumerCodes, new HashSet<>(), "42", "42", 3L, 3L, 2, 3, true));
+                        paymentModes, payerIds, consumerCodes, new HashSet<>(), "42", "42", 3L, 3L, 2, 3, null, null, true, false));
         assertSame(paymentList, actualPlainSearchResult);
         assertTrue(actualPlainSearchResult.isEmpty());
         verify(paymentRepository).fetchPaymentIds((PaymentSearchCriteria) any());
@@ -750,7 +773,8 @@ class PaymentServiceTest {
                 new ApplicationProperties(), mock(ServiceRequestRepository.class));
 
         PaymentService paymentService = new PaymentService(apportionerService, paymentEnricher, applicationProperties,
-                userService, paymentValidator, paymentRepository, new CollectionProducer());
+                userService, paymentValidator, paymentRepository, new CollectionProducer(),
+                new PaymentGroupCommitWriter(paymentRepository, new CollectionProducer(), applicationProperties, null));
         PaymentSearchCriteria paymentSearchCriteria = mock(PaymentSearchCriteria.class);
         when(paymentSearchCriteria.getLimit()).thenReturn(1);
         when(paymentSearchCriteria.getOffset()).thenReturn(2);
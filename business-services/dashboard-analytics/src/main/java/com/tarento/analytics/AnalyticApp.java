@@ -14,7 +14,10 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
 
 import com.tarento.analytics.constant.Constants;
+import com.tarento.analytics.enums.ChartType;
+import com.tarento.analytics.service.impl.ChartResponseCache;
 
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 
@@ -31,6 +34,12 @@ public class AnalyticApp {
 		@Value("${cache.capacity}")
 		private int cacheCapacity;
 
+		@Value("#{${cache.chart.expiry.time.in.seconds}}")
+		private Map<String, Integer> chartCacheExpiry;
+
+		@Value("${cache.chart.capacity}")
+		private int chartCacheCapacity;
+
 	    @Bean
 	    public RestTemplate restTemplate() {
 	        return new RestTemplate();
@@ -50,7 +59,14 @@ public class AnalyticApp {
 		@Bean
 		@Profile("!test")
 		public CacheManager cacheManager(){
-			return new SpringCache2kCacheManager().addCaches(b->b.name("versions").expireAfterWrite(cacheExpiry, TimeUnit.MINUTES)
+			SpringCache2kCacheManager cacheManager = new SpringCache2kCacheManager().addCaches(b->b.name("versions").expireAfterWrite(cacheExpiry, TimeUnit.MINUTES)
 					.entryCapacity(cacheCapacity));
+			// One cache per chart type, each with its own expiry
+			for (ChartType chartType : ChartType.values()) {
+				long expiry = ChartResponseCache.getExpiryInSeconds(chartType, chartCacheExpiry, cacheExpiry);
+				cacheManager.addCaches(b->b.name(ChartResponseCache.CHART_CACHE_PREFIX + chartType).expireAfterWrite(expiry, TimeUnit.SECONDS)
+						.entryCapacity(chartCacheCapacity));
+			}
+			return cacheManager;
 		}
 }
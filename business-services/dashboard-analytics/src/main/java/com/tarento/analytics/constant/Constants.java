@@ -83,6 +83,8 @@ public class Constants {
 		final static String INSIGHT = "insight";
 		final static String DAYS = "days";
 		final static String TRANSLATE_CODE = "translateTenantCode";
+		final static String ERROR = "error";
+		final static String ROLLUP = "rollup";
 
 	}
 	
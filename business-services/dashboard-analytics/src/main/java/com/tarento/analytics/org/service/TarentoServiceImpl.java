@@ -1,17 +1,19 @@
 package com.tarento.analytics.org.service;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import com.fasterxml.jackson.databind.JsonNode;
@@ -21,6 +23,7 @@ import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.tarento.analytics.ConfigurationLoader;
 import com.tarento.analytics.constant.Constants;
+import com.tarento.analytics.constant.ErrorCode;
 import com.tarento.analytics.dto.AggregateDto;
 import com.tarento.analytics.dto.AggregateRequestDto;
 import com.tarento.analytics.dto.CummulativeDataRequestDto;
@@ -34,6 +37,7 @@ import com.tarento.analytics.handler.InsightsHandlerFactory;
 import com.tarento.analytics.handler.ResponseHandlerFactory;
 import com.tarento.analytics.model.InsightsConfiguration;
 import com.tarento.analytics.service.QueryService;
+import com.tarento.analytics.service.impl.ChartResponseCache;
 import com.tarento.analytics.service.impl.RestService;
 import com.tarento.analytics.utils.ResponseRecorder;
 
@@ -65,16 +69,19 @@ public class TarentoServiceImpl implements ClientService {
 	@Autowired
 	private MdmsApiMappings mdmsApiMappings;
 
+	@Autowired
+	private ChartResponseCache chartResponseCache;
+
+	@Value("${egov.services.esindexer.msearch.enabled}")
+	private boolean multiSearchEnabled;
+
 
 	@Override
-	@Cacheable(value="versions", key="#request.hashKey")
 	public AggregateDto getAggregatedData(AggregateRequestDto request, List<RoleDto> roles) throws AINException, IOException {
 		// Read visualization Code
 		String internalChartId = request.getVisualizationCode();
 		ObjectNode aggrObjectNode = JsonNodeFactory.instance.objectNode();
 		ObjectNode insightAggrObjectNode = JsonNodeFactory.instance.objectNode();
-		ObjectNode nodes = JsonNodeFactory.instance.objectNode();
-		ObjectNode insightNodes = JsonNodeFactory.instance.objectNode();
 		Boolean continueWithInsight = Boolean.FALSE; 
 
 		//TODO should be remove temporary fix for national dashboard
@@ -96,7 +103,44 @@ public class TarentoServiceImpl implements ClientService {
 		boolean isRequestContainsInterval = null == request.getRequestDate() ? false : (request.getRequestDate().getInterval()!=null && !request.getRequestDate().getInterval().isEmpty()) ;
 		String interval = isRequestContainsInterval? request.getRequestDate().getInterval(): (isDefaultPresent ? chartNode.get(Constants.JsonPaths.INTERVAL).asText():"");
 
-		executeConfiguredQueries(chartNode, aggrObjectNode, nodes, request, interval);
+		String cacheKey = chartResponseCache.getKey(request);
+		AggregateDto cachedAggregateDto = chartResponseCache.get(chartType, cacheKey);
+		if(cachedAggregateDto != null) {
+			return cachedAggregateDto;
+		}
+
+		preHandle(request, chartNode, mdmsApiMappings);
+		List<ObjectNode> queries = new ArrayList<>();
+		List<String> searchIndexNames = new ArrayList<>();
+		List<String> indexNames = new ArrayList<>();
+		buildConfiguredQueries(chartNode, request, interval, queries, searchIndexNames, indexNames);
+
+		/*
+		 * Insight queries are built upfront, with the RequestDates shifted by one insight interval
+		 * (in getInsightsDate), so that they go to Elastic search in the same multi search as the chart queries
+		 */
+		String visualizationCode = request.getVisualizationCode();
+		String startDate = null == request.getRequestDate() ? null : request.getRequestDate().getStartDate();
+		String endDate = null == request.getRequestDate() ? null : request.getRequestDate().getEndDate();
+		String insightStartDate = null;
+		String insightEndDate = null;
+		int chartQueryCount = queries.size();
+		if(insightsConfig != null && StringUtils.isNotBlank(insightsConfig.getInsightInterval())) { 
+			continueWithInsight = getInsightsDate(request, insightsConfig.getInsightInterval());
+			if(continueWithInsight) { 
+				request.setVisualizationCode(insightPrefix + visualizationCode);
+				buildConfiguredQueries(chartNode, request, interval, queries, searchIndexNames, indexNames);
+				insightStartDate = request.getRequestDate().getStartDate();
+				insightEndDate = request.getRequestDate().getEndDate();
+				request.setVisualizationCode(visualizationCode);
+				request.getRequestDate().setStartDate(startDate);
+				request.getRequestDate().setEndDate(endDate);
+			}
+		}
+
+		List<JsonNode> responses = executeQueries(searchIndexNames, queries);
+		setAggregations(aggrObjectNode, indexNames.subList(0, chartQueryCount), responses.subList(0, chartQueryCount));
+
 		request.setChartNode(chartNode);
 		ResponseRecorder responseRecorder = new ResponseRecorder();
 		request.setResponseRecorder(responseRecorder);
@@ -107,45 +151,40 @@ public class TarentoServiceImpl implements ClientService {
 			aggregateDto = responseHandler.translate(request, aggrObjectNode);
 		}
 		
-		if(insightsConfig != null && StringUtils.isNotBlank(insightsConfig.getInsightInterval())) { 
-			continueWithInsight = getInsightsDate(request, insightsConfig.getInsightInterval());
-			if(continueWithInsight) { 
-				String insightVisualizationCode = insightPrefix  + request.getVisualizationCode(); 
-				request.setVisualizationCode(insightVisualizationCode);
-				/*
-						Data is fetched with updated RequestDates (updated in getInsightsDate which subtracted one interval from the dates)
-				*
-				* */
-				executeConfiguredQueries(chartNode, insightAggrObjectNode, insightNodes, request, interval);
-
-				request.setChartNode(chartNode);
-				responseHandler = responseHandlerFactory.getInstance(chartType);
-				if(insightAggrObjectNode.fields().hasNext()){
-					responseHandler.translate(request, insightAggrObjectNode);
-				}
-				InsightsHandler insightsHandler = insightsHandlerFactory.getInstance(chartType);
-				aggregateDto = insightsHandler.getInsights(aggregateDto, request.getVisualizationCode(), request.getModuleLevel(), insightsConfig,request.getResponseRecorder());
+		if(continueWithInsight) { 
+			request.setVisualizationCode(insightPrefix + visualizationCode);
+			request.getRequestDate().setStartDate(insightStartDate);
+			request.getRequestDate().setEndDate(insightEndDate);
+			setAggregations(insightAggrObjectNode, indexNames.subList(chartQueryCount, indexNames.size()),
+					responses.subList(chartQueryCount, responses.size()));
+
+			request.setChartNode(chartNode);
+			responseHandler = responseHandlerFactory.getInstance(chartType);
+			if(insightAggrObjectNode.fields().hasNext()){
+				responseHandler.translate(request, insightAggrObjectNode);
 			}
+			InsightsHandler insightsHandler = insightsHandlerFactory.getInstance(chartType);
+			aggregateDto = insightsHandler.getInsights(aggregateDto, request.getVisualizationCode(), request.getModuleLevel(), insightsConfig,request.getResponseRecorder());
 		}
 
+		chartResponseCache.put(chartType, cacheKey, aggregateDto);
 		return aggregateDto;
 	}
 
 	/**
-	 * Executes queries and enriches the respons in aggrObjectNode
+	 * Builds the queries configured for the chart which apply to the requested module level
 	 * @param chartNode The Chart Config defined in ChartApiConfig.json
-	 * @param aggrObjectNode Object in which response is enriched
-	 * @param nodes Don't know why passed as argument should have been defined in function itself
 	 * @param request The API request
-	 * @param interval Interval ( eg: Month) defines in RequestDate in AggregateRequestDto noot needed as seperate argument as it can
-	 *                 be fetched from  AggregateRequestDto
+	 * @param interval Interval ( eg: Month) defines in RequestDate in AggregateRequestDto
+	 * @param queries Built queries are added to this list
+	 * @param searchIndexNames Index searched by every built query (the rollup index when the query is
+	 *                         answered from the rollup) is added to this list, in the same order
+	 * @param indexNames Configured index name of every built query is added to this list, in the same order
 	 */
-	private void executeConfiguredQueries(ObjectNode chartNode, ObjectNode aggrObjectNode, ObjectNode nodes, AggregateRequestDto request, String interval) {
-		preHandle(request, chartNode, mdmsApiMappings);
-
-		ArrayNode queries = (ArrayNode) chartNode.get(Constants.JsonPaths.QUERIES);
-		int randIndexCount = 1;
-		for(JsonNode query : queries) {
+	private void buildConfiguredQueries(ObjectNode chartNode, AggregateRequestDto request, String interval,
+			List<ObjectNode> queries, List<String> searchIndexNames, List<String> indexNames) {
+		ArrayNode configuredQueries = (ArrayNode) chartNode.get(Constants.JsonPaths.QUERIES);
+		for(JsonNode query : configuredQueries) {
 			String module = query.get(Constants.JsonPaths.MODULE).asText();
 			if(request.getModuleLevel().equals(Constants.Modules.HOME_REVENUE) || 
 					request.getModuleLevel().equals(Constants.Modules.HOME_SERVICES) ||
@@ -153,21 +192,70 @@ public class TarentoServiceImpl implements ClientService {
 					request.getModuleLevel().equals(module)) {
 				
 				String indexName = query.get(Constants.JsonPaths.INDEX_NAME).asText();
-				ObjectNode objectNode = queryService.getChartConfigurationQuery(request, query, indexName, interval);
-				try {
-					JsonNode aggrNode = restService.search(indexName,objectNode.toString());
-					if(nodes.has(indexName)) { 
-						indexName = indexName + "_" + randIndexCount;
-						randIndexCount += 1;
-					}
-					nodes.set(indexName,aggrNode.get(Constants.JsonPaths.AGGREGATIONS));
-				}catch (Exception e) {
-					logger.error("Encountered an Exception while Executing the Query : " + e.getMessage());
-					throw new RuntimeException(e);
+				JsonNode querySource = queryService.getQuerySource(request, query);
+				String searchIndexName = querySource.get(Constants.JsonPaths.INDEX_NAME).asText();
+				queries.add(queryService.getChartConfigurationQuery(request, querySource, searchIndexName, interval));
+				searchIndexNames.add(searchIndexName);
+				indexNames.add(indexName);
+			}
+		}
+	}
+
+	/**
+	 * Executes the queries, in a single multi search when enabled or else one search per query
+	 * @return search response of every query, in the order of the queries
+	 */
+	private List<JsonNode> executeQueries(List<String> indexNames, List<ObjectNode> queries) {
+		if(queries.isEmpty()) {
+			return new ArrayList<>();
+		}
+		try {
+			if(!multiSearchEnabled) {
+				List<JsonNode> responses = new ArrayList<>();
+				for(int i = 0; i < queries.size(); i++) {
+					responses.add(restService.search(indexNames.get(i), queries.get(i).toString()));
 				}
-				aggrObjectNode.set(Constants.JsonPaths.AGGREGATIONS, nodes);
+				return responses;
+			}
+			List<JsonNode> responses = restService.multiSearch(indexNames,
+					queries.stream().map(ObjectNode::toString).collect(Collectors.toList()));
+			if(responses.size() != queries.size()) {
+				throw new AINException(ErrorCode.ERR320, "Multi search returned " + responses.size() + " responses for " + queries.size() + " queries");
+			}
+			for(JsonNode response : responses) {
+				if(response.has(Constants.JsonPaths.ERROR)) {
+					throw new AINException(ErrorCode.ERR320, response.get(Constants.JsonPaths.ERROR).toString());
+				}
+			}
+			return responses;
+		}catch (Exception e) {
+			logger.error("Encountered an Exception while Executing the Query : " + e.getMessage());
+			throw new RuntimeException(e);
+		}
+	}
 
+	/**
+	 * Enriches the aggregations of the search responses in aggrObjectNode, keyed by index name
+	 * @param aggrObjectNode Object in which response is enriched
+	 * @param indexNames Index name of every response
+	 * @param responses Search responses
+	 */
+	private void setAggregations(ObjectNode aggrObjectNode, List<String> indexNames, List<JsonNode> responses) {
+		ObjectNode nodes = JsonNodeFactory.instance.objectNode();
+		int randIndexCount = 1;
+		for(int i = 0; i < responses.size(); i++) {
+			String indexName = indexNames.get(i);
+			JsonNode aggrNode = responses.get(i);
+			if(aggrNode == null) {
+				logger.error("Encountered an Exception while Executing the Query : no response for index " + indexName);
+				throw new RuntimeException("No response for index " + indexName);
+			}
+			if(nodes.has(indexName)) { 
+				indexName = indexName + "_" + randIndexCount;
+				randIndexCount += 1;
 			}
+			nodes.set(indexName,aggrNode.get(Constants.JsonPaths.AGGREGATIONS));
+			aggrObjectNode.set(Constants.JsonPaths.AGGREGATIONS, nodes);
 		}
 	}
 
@@ -25,6 +25,15 @@ public interface QueryService {
 	Aggregations getAggregateDataV2(AggregateRequestDtoV2 aggregateDto, String orgId) throws AINException, JsonParseException, JsonMappingException, IOException;
 	*/
 	ObjectNode getChartConfigurationQuery(AggregateRequestDto req, JsonNode query, String indexName, String interval);
+
+	/**
+	 * Returns the rollup source of the query when the request can be answered from the rollup index,
+	 * or else the query itself
+	 * @param req The API request
+	 * @param query Query configured for the chart in ChartApiConfig.json
+	 * @return Query config to build the search from
+	 */
+	JsonNode getQuerySource(AggregateRequestDto req, JsonNode query);
 	
 	
 }
@@ -0,0 +1,123 @@
+package com.tarento.analytics.service.impl;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import com.tarento.analytics.dto.AggregateDto;
+import com.tarento.analytics.dto.AggregateRequestDto;
+import com.tarento.analytics.enums.ChartType;
+
+/**
+ * Caches translated chart responses, one cache per chart type so that every chart type
+ * can have its own time to live (configured in cache.chart.expiry.time.in.seconds).
+ *
+ * The key is built from the normalized request: visualization code, module level, interval,
+ * filters with sorted keys and values (which makes the tenant set order independent) and the
+ * request dates rounded down to cache.chart.time.bucket.in.minutes, so that dashboards asking
+ * for "till now" within the same bucket share the cached response.
+ */
+@Component
+public class ChartResponseCache {
+
+	public static final String CHART_CACHE_PREFIX = "chart_";
+
+	private static final String SEPARATOR = "|";
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Value("${cache.chart.time.bucket.in.minutes}")
+	private long timeBucketInMinutes;
+
+	public AggregateDto get(ChartType chartType, String key) {
+		Cache cache = getCache(chartType);
+		if (cache == null)
+			return null;
+		return cache.get(key, AggregateDto.class);
+	}
+
+	public void put(ChartType chartType, String key, AggregateDto aggregateDto) {
+		Cache cache = getCache(chartType);
+		if (cache != null && aggregateDto != null)
+			cache.put(key, aggregateDto);
+	}
+
+	/**
+	 * Time to live of the cache of the chart type
+	 * @param chartType Chart type of the cache
+	 * @param chartCacheExpiry Expiry in seconds per chart type (cache.chart.expiry.time.in.seconds)
+	 * @param defaultExpiryInMinutes Expiry of the chart types not configured (cache.expiry.time.in.minutes)
+	 * @return Expiry in seconds
+	 */
+	public static long getExpiryInSeconds(ChartType chartType, Map<String, Integer> chartCacheExpiry, long defaultExpiryInMinutes) {
+		Integer expiry = chartCacheExpiry == null ? null : chartCacheExpiry.get(chartType.toString());
+		return expiry != null ? expiry : TimeUnit.MINUTES.toSeconds(defaultExpiryInMinutes);
+	}
+
+	/**
+	 * Builds the cache key for the request, should be called after the filters are normalized
+	 * and before the request is modified for execution
+	 * @param request The API request
+	 * @return Cache key
+	 */
+	public String getKey(AggregateRequestDto request) {
+		StringBuilder key = new StringBuilder(String.valueOf(request.getVisualizationCode()))
+				.append(SEPARATOR).append(request.getModuleLevel())
+				.append(SEPARATOR).append(request.getQueryType())
+				.append(SEPARATOR).append(normalize(request.getFilters()))
+				.append(SEPARATOR).append(normalize(request.getEsFilters()))
+				.append(SEPARATOR).append(normalize(request.getAggregationFactors()));
+
+		if (request.getRequestDate() != null) {
+			key.append(SEPARATOR).append(request.getRequestDate().getInterval())
+					.append(SEPARATOR).append(bucket(request.getRequestDate().getStartDate()))
+					.append(SEPARATOR).append(bucket(request.getRequestDate().getEndDate()));
+		}
+		return key.toString();
+	}
+
+	private Cache getCache(ChartType chartType) {
+		if (chartType == null)
+			return null;
+		return cacheManager.getCache(CHART_CACHE_PREFIX + chartType);
+	}
+
+	private String bucket(String date) {
+		if (StringUtils.isBlank(date) || !StringUtils.isNumeric(date) || timeBucketInMinutes <= 0)
+			return date;
+		return String.valueOf(Long.parseLong(date) / TimeUnit.MINUTES.toMillis(timeBucketInMinutes));
+	}
+
+	/**
+	 * Sorts map keys and collection values recursively so that semantically equal filters
+	 * produce the same string
+	 */
+	private static Object normalize(Object value) {
+		if (value instanceof Map) {
+			Map<String, Object> sorted = new TreeMap<>();
+			((Map<?, ?>) value).forEach((k, v) -> {
+				if (v != null)
+					sorted.put(String.valueOf(k), normalize(v));
+			});
+			return sorted;
+		}
+		if (value instanceof Collection) {
+			List<String> values = ((Collection<?>) value).stream().map(v -> String.valueOf(normalize(v))).sorted()
+					.collect(Collectors.toList());
+			return values;
+		}
+		return value == null ? "" : value;
+	}
+
+}
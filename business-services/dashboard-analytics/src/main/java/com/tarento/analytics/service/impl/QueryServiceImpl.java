@@ -8,6 +8,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
 
 import org.elasticsearch.action.search.MultiSearchResponse;
 import org.elasticsearch.action.search.SearchRequest;
@@ -22,6 +23,7 @@ import org.elasticsearch.search.aggregations.metrics.valuecount.ParsedValueCount
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import com.fasterxml.jackson.core.JsonParseException;
@@ -53,6 +55,12 @@ public class QueryServiceImpl implements QueryService {
 
 	@Autowired
 	private ElasticSearchDao elasticSearchDao;
+
+	@Value("${egov.dss.rollup.enabled}")
+	private boolean rollupEnabled;
+
+	@Value("${egov.dss.rollup.min.days}")
+	private long rollupMinDays;
 	
 /*
 	@Autowired
@@ -461,4 +469,39 @@ public class QueryServiceImpl implements QueryService {
 		
 	}
 
+	/**
+	 * The rollup index holds one document per day, tenant, business service and payment mode. It is used
+	 * when the requested range spans at least egov.dss.rollup.min.days (so that the day granularity of the
+	 * rollup does not matter) and every filter of the request can be applied on the rollup documents,
+	 * a filter the rollup does not carry (eg: wardId) would otherwise be dropped silently
+	 */
+	@Override
+	public JsonNode getQuerySource(AggregateRequestDto request, JsonNode query) {
+		JsonNode rollup = query.get(Constants.JsonPaths.ROLLUP);
+		if(!rollupEnabled || rollup == null || request.getRequestDate() == null)
+			return query;
+		try {
+			long startDate = Long.parseLong(request.getRequestDate().getStartDate());
+			long endDate = Long.parseLong(request.getRequestDate().getEndDate());
+			if(endDate - startDate < TimeUnit.DAYS.toMillis(rollupMinDays))
+				return query;
+
+			ObjectMapper mapper = new ObjectMapper();
+			JsonNode requestQueryMaps = mapper.readTree(query.get(Constants.JsonPaths.REQUEST_QUERY_MAP).asText());
+			JsonNode rollupQueryMaps = mapper.readTree(rollup.get(Constants.JsonPaths.REQUEST_QUERY_MAP).asText());
+			for(Entry<String, Object> entry : request.getFilters().entrySet()) {
+				if(requestQueryMaps.get(entry.getKey()) != null && rollupQueryMaps.get(entry.getKey()) == null
+						&& !String.valueOf(entry.getValue()).equals(Constants.Filters.FILTER_ALL))
+					return query;
+			}
+		} catch (Exception ex) {
+			logger.error("Encountered an Exception while resolving the rollup source, using the configured query : " + ex.getMessage());
+			return query;
+		}
+		ObjectNode source = query.deepCopy();
+		source.remove(Constants.JsonPaths.ROLLUP);
+		source.setAll((ObjectNode) rollup);
+		return source;
+	}
+
 }
@@ -25,11 +25,15 @@ import static org.springframework.http.HttpHeaders.AUTHORIZATION;
 @Component
 public class RestService {
     public static final Logger LOGGER = LoggerFactory.getLogger(RestService.class);
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String RESPONSES = "responses";
 
     @Value("${services.esindexer.host}")
     private String indexServiceHost;
     @Value("${egov.services.esindexer.host.search}")
     private String indexServiceHostSearch;
+    @Value("${egov.services.esindexer.host.msearch}")
+    private String indexServiceHostMultiSearch;
     @Value("${services.esindexer.host}")
     private String dssindexServiceHost;
     @Value("${egov.es.username}")
@@ -72,6 +76,36 @@ public class RestService {
         return responseNode;
     }
 
+    /**
+     * Executes all the search queries in one _msearch call, Elastic search runs
+     * the searches concurrently and returns the responses in request order
+     * @param indexes         index name of every search
+     * @param searchQueries   search query of every search, in the same order as indexes
+     * @return search responses in the order of the queries
+     */
+    public List<JsonNode> multiSearch(List<String> indexes, List<String> searchQueries) {
+        String url = indexServiceHost + indexServiceHostMultiSearch;
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < searchQueries.size(); i++) {
+            body.append("{\"index\":\"").append(indexes.get(i)).append("\"}\n");
+            body.append(searchQueries.get(i)).append('\n');
+        }
+        HttpHeaders headers = getHttpHeaders();
+        headers.setContentType(MediaType.valueOf(NDJSON));
+        HttpEntity<String> requestEntity = new HttpEntity<>(body.toString(), headers);
+
+        List<JsonNode> responses = new ArrayList<>();
+        try {
+            ResponseEntity<Object> response = retryTemplate.postForEntity(url, requestEntity);
+            JsonNode responseNode = new ObjectMapper().convertValue(response.getBody(), JsonNode.class);
+            responseNode.get(RESPONSES).forEach(responses::add);
+
+        } catch (HttpClientErrorException e) {
+            LOGGER.error("client error while multi searching ES : " + e.getMessage());
+        }
+        return responses;
+    }
+
     /**
      * makes a client rest api call of Http POST option
      * @param uri
@@ -0,0 +1,220 @@
+package com.tarento.analytics.org.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.tarento.analytics.ConfigurationLoader;
+import com.tarento.analytics.constant.Constants;
+import com.tarento.analytics.dto.AggregateDto;
+import com.tarento.analytics.dto.AggregateRequestDto;
+import com.tarento.analytics.dto.RequestDate;
+import com.tarento.analytics.enums.ChartType;
+import com.tarento.analytics.handler.IResponseHandler;
+import com.tarento.analytics.handler.InsightsHandler;
+import com.tarento.analytics.handler.InsightsHandlerFactory;
+import com.tarento.analytics.handler.ResponseHandlerFactory;
+import com.tarento.analytics.service.QueryService;
+import com.tarento.analytics.service.impl.ChartResponseCache;
+import com.tarento.analytics.service.impl.RestService;
+
+/**
+ * The chart and insight queries of a visualization go to Elastic search in one multi search, the responses
+ * are split back to the chart and the insight in the order of the queries
+ */
+public class TarentoServiceImplTest {
+
+	private static final String CHART_CONFIG = "{\"totalCollection\":{\"chartType\":\"metric\","
+			+ "\"insight\":{\"insightInterval\":\"month\"},\"queries\":["
+			+ "{\"module\":\"COMMON\",\"indexName\":\"collectionsindex-v1\",\"aggrQuery\":\"collected\"},"
+			+ "{\"module\":\"PT\",\"indexName\":\"collectionsindex-v1\",\"aggrQuery\":\"ptCollected\"},"
+			+ "{\"module\":\"COMMON\",\"indexName\":\"dss-target_v1\",\"aggrQuery\":\"target\"}]}}";
+
+	private static final long DAY = TimeUnit.DAYS.toMillis(1);
+
+	private ObjectMapper mapper = new ObjectMapper();
+
+	private RestService restService;
+
+	private List<ObjectNode> translated;
+
+	private TarentoServiceImpl tarentoService;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		QueryService queryService = mock(QueryService.class);
+		when(queryService.getQuerySource(any(), any())).thenAnswer(invocation -> invocation.getArgument(1));
+		when(queryService.getChartConfigurationQuery(any(), any(), anyString(), any())).thenAnswer(this::query);
+
+		ConfigurationLoader configurationLoader = mock(ConfigurationLoader.class);
+		when(configurationLoader.get(Constants.ConfigurationFiles.CHART_API_CONFIG))
+				.thenReturn((ObjectNode) mapper.readTree(CHART_CONFIG));
+
+		translated = new ArrayList<>();
+		IResponseHandler responseHandler = mock(IResponseHandler.class);
+		when(responseHandler.translate(any(), any())).thenAnswer(invocation -> {
+			translated.add(((ObjectNode) invocation.getArgument(1)).deepCopy());
+			return new AggregateDto();
+		});
+		ResponseHandlerFactory responseHandlerFactory = mock(ResponseHandlerFactory.class);
+		when(responseHandlerFactory.getInstance(ChartType.METRIC)).thenReturn(responseHandler);
+
+		InsightsHandler insightsHandler = mock(InsightsHandler.class);
+		when(insightsHandler.getInsights(any(), any(), any(), any(), any())).thenAnswer(invocation -> invocation.getArgument(0));
+		InsightsHandlerFactory insightsHandlerFactory = mock(InsightsHandlerFactory.class);
+		when(insightsHandlerFactory.getInstance(ChartType.METRIC)).thenReturn(insightsHandler);
+
+		ChartResponseCache chartResponseCache = new ChartResponseCache();
+		ReflectionTestUtils.setField(chartResponseCache, "cacheManager",
+				new ConcurrentMapCacheManager(ChartResponseCache.CHART_CACHE_PREFIX + ChartType.METRIC));
+
+		restService = mock(RestService.class);
+
+		tarentoService = new TarentoServiceImpl();
+		ReflectionTestUtils.setField(tarentoService, "queryService", queryService);
+		ReflectionTestUtils.setField(tarentoService, "restService", restService);
+		ReflectionTestUtils.setField(tarentoService, "configurationLoader", configurationLoader);
+		ReflectionTestUtils.setField(tarentoService, "responseHandlerFactory", responseHandlerFactory);
+		ReflectionTestUtils.setField(tarentoService, "insightsHandlerFactory", insightsHandlerFactory);
+		ReflectionTestUtils.setField(tarentoService, "mdmsApiMappings", mock(MdmsApiMappings.class));
+		ReflectionTestUtils.setField(tarentoService, "chartResponseCache", chartResponseCache);
+		ReflectionTestUtils.setField(tarentoService, "multiSearchEnabled", true);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testResponsesAreSplitToChartAndInsight() throws Exception {
+		when(restService.multiSearch(anyList(), anyList())).thenAnswer(invocation -> responses(invocation.getArgument(1)));
+
+		tarentoService.getAggregatedData(request(), null);
+
+		verify(restService).multiSearch(anyList(), anyList());
+		verify(restService, never()).search(anyString(), anyString());
+		assertEquals(2, translated.size());
+		assertAggregations(translated.get(0), "totalCollection");
+		assertAggregations(translated.get(1), "itotalCollection");
+	}
+
+	@Test
+	public void testSequentialSearchesAreSplitTheSameWay() throws Exception {
+		ReflectionTestUtils.setField(tarentoService, "multiSearchEnabled", false);
+		when(restService.search(anyString(), anyString())).thenAnswer(invocation -> response(invocation.getArgument(1)));
+
+		tarentoService.getAggregatedData(request(), null);
+
+		verify(restService, times(6)).search(anyString(), anyString());
+		verify(restService, never()).multiSearch(anyList(), anyList());
+		assertAggregations(translated.get(0), "totalCollection");
+		assertAggregations(translated.get(1), "itotalCollection");
+	}
+
+	@Test
+	public void testErrorInOneResponseFailsTheChart() throws Exception {
+		when(restService.multiSearch(anyList(), anyList())).thenAnswer(invocation -> {
+			List<JsonNode> responses = responses(invocation.getArgument(1));
+			responses.set(4, mapper.readTree("{\"error\":{\"type\":\"search_phase_execution_exception\"},\"status\":400}"));
+			return responses;
+		});
+
+		assertThrows(RuntimeException.class, () -> tarentoService.getAggregatedData(request(), null));
+		assertEquals(0, translated.size());
+
+		// the failed chart is not cached
+		doAnswer(invocation -> responses(invocation.getArgument(1))).when(restService).multiSearch(anyList(), anyList());
+		tarentoService.getAggregatedData(request(), null);
+		assertEquals(2, translated.size());
+	}
+
+	@Test
+	public void testMissingResponsesFailTheChart() {
+		when(restService.multiSearch(anyList(), anyList())).thenReturn(new ArrayList<>());
+
+		assertThrows(RuntimeException.class, () -> tarentoService.getAggregatedData(request(), null));
+		assertEquals(0, translated.size());
+	}
+
+	@Test
+	public void testCachedResponseIsReturnedWithoutSearch() throws Exception {
+		when(restService.multiSearch(anyList(), anyList())).thenAnswer(invocation -> responses(invocation.getArgument(1)));
+
+		AggregateDto aggregateDto = tarentoService.getAggregatedData(request(), null);
+
+		assertSame(aggregateDto, tarentoService.getAggregatedData(request(), null));
+		verify(restService).multiSearch(anyList(), anyList());
+	}
+
+	/**
+	 * Every index of the chart holds the aggregations of its own query, the second query on the same index
+	 * is suffixed as before
+	 */
+	private void assertAggregations(ObjectNode aggrObjectNode, String visualizationCode) {
+		JsonNode aggregations = aggrObjectNode.get(Constants.JsonPaths.AGGREGATIONS);
+		assertEquals(3, aggregations.size());
+		assertEquals("collected " + visualizationCode, aggregations.at("/collectionsindex-v1/query").asText());
+		assertEquals("ptCollected " + visualizationCode, aggregations.at("/collectionsindex-v1_1/query").asText());
+		assertEquals("target " + visualizationCode, aggregations.at("/dss-target_v1/query").asText());
+	}
+
+	private ObjectNode query(InvocationOnMock invocation) {
+		AggregateRequestDto request = invocation.getArgument(0);
+		JsonNode query = invocation.getArgument(1);
+		ObjectNode objectNode = JsonNodeFactory.instance.objectNode();
+		objectNode.put("query", query.get("aggrQuery").asText() + " " + request.getVisualizationCode());
+		return objectNode;
+	}
+
+	/**
+	 * Search responses holding the query they answer as aggregations
+	 */
+	private List<JsonNode> responses(List<String> queries) throws IOException {
+		List<JsonNode> responses = new ArrayList<>();
+		for (String query : queries)
+			responses.add(response(query));
+		return responses;
+	}
+
+	private JsonNode response(String query) throws IOException {
+		ObjectNode response = JsonNodeFactory.instance.objectNode();
+		response.set(Constants.JsonPaths.AGGREGATIONS, mapper.readTree(query));
+		return response;
+	}
+
+	private AggregateRequestDto request() {
+		AggregateRequestDto request = new AggregateRequestDto();
+		request.setVisualizationCode("totalCollection");
+		request.setModuleLevel(Constants.Modules.HOME_REVENUE);
+		request.setQueryType("");
+		request.setFilters(new HashMap<>());
+		RequestDate requestDate = new RequestDate();
+		requestDate.setStartDate(String.valueOf(10 * DAY));
+		requestDate.setEndDate(String.valueOf(20 * DAY));
+		request.setRequestDate(requestDate);
+		return request;
+	}
+
+}
@@ -0,0 +1,124 @@
+package com.tarento.analytics.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.tarento.analytics.dto.AggregateDto;
+import com.tarento.analytics.dto.AggregateRequestDto;
+import com.tarento.analytics.dto.RequestDate;
+import com.tarento.analytics.enums.ChartType;
+
+public class ChartResponseCacheTest {
+
+	private static final long FIVE_MINUTES = 5 * 60 * 1000L;
+
+	private ChartResponseCache chartResponseCache;
+
+	@BeforeEach
+	public void setUp() {
+		chartResponseCache = new ChartResponseCache();
+		ReflectionTestUtils.setField(chartResponseCache, "cacheManager",
+				new ConcurrentMapCacheManager(ChartResponseCache.CHART_CACHE_PREFIX + ChartType.METRIC,
+						ChartResponseCache.CHART_CACHE_PREFIX + ChartType.LINE));
+		ReflectionTestUtils.setField(chartResponseCache, "timeBucketInMinutes", 5L);
+	}
+
+	@Test
+	public void testKeyIgnoresFilterAndTenantOrder() {
+		Map<String, Object> filters = new LinkedHashMap<>();
+		filters.put("tenantId", Arrays.asList("pb.amritsar", "pb.jalandhar"));
+		filters.put("ward", "W1");
+		Map<String, Object> reorderedFilters = new LinkedHashMap<>();
+		reorderedFilters.put("ward", "W1");
+		reorderedFilters.put("tenantId", Arrays.asList("pb.jalandhar", "pb.amritsar"));
+
+		assertEquals(chartResponseCache.getKey(request("totalCollection", filters, 0L, FIVE_MINUTES - 1)),
+				chartResponseCache.getKey(request("totalCollection", reorderedFilters, 0L, FIVE_MINUTES - 1)));
+	}
+
+	@Test
+	public void testKeyDiffersByFilterValue() {
+		assertNotEquals(chartResponseCache.getKey(request("totalCollection", tenant("pb.amritsar"), 0L, 1000L)),
+				chartResponseCache.getKey(request("totalCollection", tenant("pb.jalandhar"), 0L, 1000L)));
+	}
+
+	@Test
+	public void testKeyDiffersByVisualizationAndModule() {
+		AggregateRequestDto request = request("totalCollection", tenant("pb.amritsar"), 0L, 1000L);
+		AggregateRequestDto otherChart = request("cumulativeCollection", tenant("pb.amritsar"), 0L, 1000L);
+		AggregateRequestDto otherModule = request("totalCollection", tenant("pb.amritsar"), 0L, 1000L);
+		otherModule.setModuleLevel("PT");
+
+		assertNotEquals(chartResponseCache.getKey(request), chartResponseCache.getKey(otherChart));
+		assertNotEquals(chartResponseCache.getKey(request), chartResponseCache.getKey(otherModule));
+	}
+
+	@Test
+	public void testDatesInSameBucketShareKey() {
+		String key = chartResponseCache.getKey(request("totalCollection", tenant("pb.amritsar"), 0L, FIVE_MINUTES + 1000));
+
+		assertEquals(key, chartResponseCache.getKey(request("totalCollection", tenant("pb.amritsar"), 1000L, 2 * FIVE_MINUTES - 1)));
+		assertNotEquals(key, chartResponseCache.getKey(request("totalCollection", tenant("pb.amritsar"), 0L, 2 * FIVE_MINUTES)));
+	}
+
+	@Test
+	public void testResponsesAreCachedPerChartType() {
+		AggregateDto aggregateDto = new AggregateDto();
+		chartResponseCache.put(ChartType.METRIC, "key", aggregateDto);
+
+		assertSame(aggregateDto, chartResponseCache.get(ChartType.METRIC, "key"));
+		assertNull(chartResponseCache.get(ChartType.LINE, "key"));
+		assertNull(chartResponseCache.get(ChartType.METRIC, "other"));
+	}
+
+	@Test
+	public void testChartTypeWithoutCacheIsNotCached() {
+		chartResponseCache.put(ChartType.PIE, "key", new AggregateDto());
+
+		assertNull(chartResponseCache.get(ChartType.PIE, "key"));
+		assertNull(chartResponseCache.get(null, "key"));
+	}
+
+	@Test
+	public void testExpiryPerChartType() {
+		Map<String, Integer> chartCacheExpiry = new HashMap<>();
+		chartCacheExpiry.put("metric", 300);
+		chartCacheExpiry.put("line", 900);
+
+		assertEquals(300, ChartResponseCache.getExpiryInSeconds(ChartType.METRIC, chartCacheExpiry, 10));
+		assertEquals(900, ChartResponseCache.getExpiryInSeconds(ChartType.LINE, chartCacheExpiry, 10));
+		assertEquals(600, ChartResponseCache.getExpiryInSeconds(ChartType.PIE, chartCacheExpiry, 10));
+		assertEquals(600, ChartResponseCache.getExpiryInSeconds(ChartType.METRIC, null, 10));
+	}
+
+	private AggregateRequestDto request(String visualizationCode, Map<String, Object> filters, Long startDate, Long endDate) {
+		AggregateRequestDto request = new AggregateRequestDto();
+		request.setVisualizationCode(visualizationCode);
+		request.setModuleLevel("HOME_REVENUE");
+		request.setQueryType("");
+		request.setFilters(filters);
+		RequestDate requestDate = new RequestDate();
+		requestDate.setStartDate(String.valueOf(startDate));
+		requestDate.setEndDate(String.valueOf(endDate));
+		request.setRequestDate(requestDate);
+		return request;
+	}
+
+	private Map<String, Object> tenant(String tenantId) {
+		return new HashMap<>(Collections.singletonMap("tenantId", tenantId));
+	}
+
+}
@@ -0,0 +1,88 @@
+package com.tarento.analytics.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class RestServiceTest {
+
+	private ObjectMapper mapper = new ObjectMapper();
+
+	private RetryTemplate retryTemplate;
+
+	private RestService restService;
+
+	@BeforeEach
+	public void setUp() {
+		retryTemplate = mock(RetryTemplate.class);
+		restService = new RestService();
+		ReflectionTestUtils.setField(restService, "retryTemplate", retryTemplate);
+		ReflectionTestUtils.setField(restService, "indexServiceHost", "http://es:9200/");
+		ReflectionTestUtils.setField(restService, "indexServiceHostMultiSearch", "_msearch");
+		ReflectionTestUtils.setField(restService, "userName", "");
+		ReflectionTestUtils.setField(restService, "password", "");
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testMultiSearchSendsOneHeaderAndBodyLinePerQuery() throws Exception {
+		when(retryTemplate.postForEntity(any(), any())).thenReturn(response("{\"responses\":[]}"));
+
+		restService.multiSearch(Arrays.asList("collectionsindex-v1", "dss-target_v1"),
+				Arrays.asList("{\"size\":0}", "{\"size\":1}"));
+
+		ArgumentCaptor<Object> request = ArgumentCaptor.forClass(Object.class);
+		verify(retryTemplate).postForEntity(eq("http://es:9200/_msearch"), request.capture());
+		HttpEntity<String> entity = (HttpEntity<String>) request.getValue();
+		assertEquals("{\"index\":\"collectionsindex-v1\"}\n{\"size\":0}\n{\"index\":\"dss-target_v1\"}\n{\"size\":1}\n",
+				entity.getBody());
+		assertEquals("application/x-ndjson", entity.getHeaders().getContentType().toString());
+	}
+
+	@Test
+	public void testMultiSearchReturnsResponsesInQueryOrder() throws Exception {
+		when(retryTemplate.postForEntity(any(), any())).thenReturn(response("{\"responses\":["
+				+ "{\"aggregations\":{\"total\":{\"value\":1}}},"
+				+ "{\"error\":{\"type\":\"index_not_found_exception\"},\"status\":404},"
+				+ "{\"aggregations\":{\"total\":{\"value\":3}}}]}"));
+
+		List<JsonNode> responses = restService.multiSearch(Arrays.asList("a", "b", "c"),
+				Arrays.asList("{}", "{}", "{}"));
+
+		assertEquals(3, responses.size());
+		assertEquals(1, responses.get(0).at("/aggregations/total/value").asInt());
+		assertTrue(responses.get(1).has("error"));
+		assertEquals(3, responses.get(2).at("/aggregations/total/value").asInt());
+	}
+
+	@Test
+	public void testMultiSearchClientErrorReturnsNoResponses() {
+		when(retryTemplate.postForEntity(any(), any())).thenThrow(new HttpClientErrorException(HttpStatus.BAD_REQUEST));
+
+		assertTrue(restService.multiSearch(Arrays.asList("a"), Arrays.asList("{}")).isEmpty());
+	}
+
+	private ResponseEntity<Object> response(String body) throws Exception {
+		return new ResponseEntity<>(mapper.readValue(body, Object.class), HttpStatus.OK);
+	}
+
+}
@@ -14,6 +14,7 @@ import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 
 /**
@@ -55,15 +56,22 @@ public class ConsumerConfigurations {
 
 
     public ConsumerFactory<String, Map> kafkaConsumerFactory() {
-        JsonDeserializer<Map> deserializer = new JsonDeserializer<>(Map.class);
-        //deserializer.setRemoveTypeHeaders(false);
-        deserializer.addTrustedPackages("*");
-        deserializer.setUseTypeMapperForKey(true);
+        return new DefaultKafkaConsumerFactory<>(kafkaConsumerProps(), new StringDeserializer(), jsonDeserializer());
+    }
 
+    private Map<String, Object> kafkaConsumerProps() {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, serverConfig);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
-        return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), deserializer);
+        return props;
+    }
+
+    private JsonDeserializer<Map> jsonDeserializer() {
+        JsonDeserializer<Map> deserializer = new JsonDeserializer<>(Map.class);
+        //deserializer.setRemoveTypeHeaders(false);
+        deserializer.addTrustedPackages("*");
+        deserializer.setUseTypeMapperForKey(true);
+        return deserializer;
     }
 
     @Bean
@@ -73,6 +81,22 @@ public class ConsumerConfigurations {
         return factory;
     }
 
+    /**
+     * The ingest listener receives the records of a poll together, the offsets are committed once the listener
+     * returns, after the records handed over to the fused pipeline are processed
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Map> ingestKafkaListenerContainerFactory() {
+        Map<String, Object> props = kafkaConsumerProps();
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+
+        ConcurrentKafkaListenerContainerFactory<String, Map> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), jsonDeserializer()));
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        return factory;
+    }
+
     
     
     /*@Bean
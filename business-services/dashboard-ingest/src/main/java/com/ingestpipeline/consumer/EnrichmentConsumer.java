@@ -12,6 +12,7 @@ import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Service;
 
 import com.ingestpipeline.producer.IngestProducer;
+import com.ingestpipeline.service.CollectionRollupService;
 import com.ingestpipeline.service.EnrichmentService;
 import com.ingestpipeline.service.IESService;
 import com.ingestpipeline.util.Constants;
@@ -41,6 +42,9 @@ public class EnrichmentConsumer implements KafkaConsumer {
 	@Autowired
 	private IESService elasticService;
 
+	@Autowired
+	private CollectionRollupService collectionRollupService;
+
 	@KafkaListener(id = INTENT, groupId = INTENT, topics = { Constants.KafkaTopics.TRANSFORMED_DATA}, containerFactory = Constants.BeanContainerFactory.INCOMING_KAFKA_LISTENER)
 	public void processMessage(final Map incomingData,
 			@Header(KafkaHeaders.RECEIVED_TOPIC) final String topic) {
@@ -63,10 +67,12 @@ public class EnrichmentConsumer implements KafkaConsumer {
 
 			if(esPushDirect) {
 				LOGGER.info("##esPushDirect## : "+esPushDirect);
-				elasticService.push(incomingData);
+				if (elasticService.push(incomingData))
+					collectionRollupService.markDirty(incomingData);
 			} else {
 				LOGGER.info("Pushing to:: {} :: docId:: {}" , enrichedDataTopic, " docId:: "+docId);
 				ingestProducer.pushToPipeline(incomingData, enrichedDataTopic, docId);
+				collectionRollupService.markDirty(incomingData);
 			}
 			if(updatedIncomingData == null) {
 				LOGGER.info("Incoming Data is null::");
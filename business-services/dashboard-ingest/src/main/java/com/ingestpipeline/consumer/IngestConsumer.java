@@ -1,16 +1,19 @@
 package com.ingestpipeline.consumer;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Service;
 
 import com.ingestpipeline.model.IncomingData;
+import com.ingestpipeline.service.FusedPipelineService;
 import com.ingestpipeline.service.IngestService;
 import com.ingestpipeline.util.Constants;
 
@@ -20,21 +23,37 @@ public class IngestConsumer{
 	
 	@Autowired
 	private IngestService ingestService; 
+
+	@Autowired
+	private FusedPipelineService fusedPipelineService;
 	
-	@KafkaListener(topics = { "${kafka.topics.incoming.collection}" }, containerFactory = Constants.BeanContainerFactory.INCOMING_KAFKA_LISTENER)
-	public void processMessage(Map data,
-							   @Header(KafkaHeaders.RECEIVED_TOPIC) final String topic) {
-		LOGGER.info("##KafkaMessageAlert## : key:" + topic + ":" + "value:" + data.size());
-		try {
-			LOGGER.info("IngestConsumer ## get data ## " +data +" ## TOPIC ## "+topic);
-			IncomingData incomingData = ingestService.getContextForIncomingTopic(topic);
-			// LOGGER.info("## incomingData: "+incomingData);
-			incomingData.setDataObject(data.get("Data"));
-			//incomingData.setDataObject(data);
-			ingestService.ingestToPipeline(incomingData);
-		} catch (final Exception e) {
-			LOGGER.error("Exception Encountered while processing the received message : " + e.getMessage());
+	/**
+	 * Hands the records of a poll over to the pipeline, with the fused pipeline enabled the listener waits until
+	 * they are processed so that their offsets are committed, once the listener returns, only after that
+	 * @param records
+	 */
+	@KafkaListener(topics = { "${kafka.topics.incoming.collection}" }, containerFactory = Constants.BeanContainerFactory.INGEST_KAFKA_LISTENER)
+	public void processMessages(List<ConsumerRecord<String, Map>> records) {
+		List<CompletableFuture<Void>> processed = new ArrayList<>(records.size());
+		for (ConsumerRecord<String, Map> record : records) {
+			Map data = record.value();
+			String topic = record.topic();
+			LOGGER.info("##KafkaMessageAlert## : key:" + topic + ":" + "value:" + data.size());
+			try {
+				LOGGER.info("IngestConsumer ## get data ## " +data +" ## TOPIC ## "+topic);
+				IncomingData incomingData = ingestService.getContextForIncomingTopic(topic);
+				// LOGGER.info("## incomingData: "+incomingData);
+				incomingData.setDataObject(data.get("Data"));
+				//incomingData.setDataObject(data);
+				if (fusedPipelineService.isEnabled())
+					processed.add(fusedPipelineService.submit(incomingData));
+				else
+					ingestService.ingestToPipeline(incomingData);
+			} catch (final Exception e) {
+				LOGGER.error("Exception Encountered while processing the received message : " + e.getMessage());
+			}
 		}
+		CompletableFuture.allOf(processed.toArray(new CompletableFuture[0])).join();
 	}
 	
 
@@ -0,0 +1,158 @@
+package com.ingestpipeline.repository;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Repository;
+import org.springframework.web.client.HttpClientErrorException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.ingestpipeline.service.RetryTemplate;
+
+/**
+ * Tenants and days whose collection rollup has to be recomputed, kept in an elastic search index so that they
+ * survive restarts and are shared by the instances of the service.
+ *
+ * The time a day is marked is used as the external version of its document. A day is cleared only if it was
+ * not marked again after it was read, so a collection written while the day is recomputed keeps it dirty.
+ */
+@Repository
+public class RollupDirtyDayRepository {
+
+	public static final String KEY_SEPERATOR = "|";
+
+	private static final String ID_SEPERATOR = "_";
+	private static final String NEW_LINE = "\n";
+	private static final String BULK = "_bulk";
+	private static final String NDJSON = "application/x-ndjson";
+	private static final String EXTERNAL_GTE = "external_gte";
+
+	private static final String TENANT_ID = "tenantId";
+	private static final String DATE = "date";
+	private static final String MARKED_AT = "markedAt";
+
+	private static final String SETTLED_QUERY = "{\"size\":%d,\"version\":true,\"query\":{\"range\":{\"markedAt\":{\"lt\":%d}}},"
+			+ "\"sort\":[{\"markedAt\":\"asc\"}]}";
+
+	@Value("${es.rollup.dirty.index.name}")
+	private String dirtyIndexName;
+
+	@Value("${es.rollup.index.type}")
+	private String indexType;
+
+	@Value("${services.esindexer.host}")
+	private String indexServiceHost;
+
+	@Value("${egov.services.esindexer.host.search}")
+	private String indexServiceHostSearch;
+
+	@Autowired
+	private RetryTemplate retryTemplate;
+
+	@Autowired
+	private ObjectMapper mapper;
+
+	private final AtomicLong lastMarkedAt = new AtomicLong();
+
+	/**
+	 * Marks the days dirty in one bulk request, a day already marked at a later time keeps its mark
+	 * @param keys tenant id and start of the day, joined by KEY_SEPERATOR
+	 */
+	public void mark(Collection<String> keys) throws Exception {
+		if (keys.isEmpty())
+			return;
+
+		long markedAt = nextMarkedAt();
+		StringBuilder body = new StringBuilder();
+		for (String key : keys) {
+			int seperatorIndex = key.lastIndexOf(KEY_SEPERATOR);
+			ObjectNode document = JsonNodeFactory.instance.objectNode();
+			document.put(TENANT_ID, key.substring(0, seperatorIndex));
+			document.put(DATE, Long.parseLong(key.substring(seperatorIndex + 1)));
+			document.put(MARKED_AT, markedAt);
+			body.append(getBulkAction("index", key, markedAt)).append(NEW_LINE);
+			body.append(mapper.writeValueAsString(document)).append(NEW_LINE);
+		}
+		bulk(body.toString());
+	}
+
+	/**
+	 * Days marked before the given time, the marks of the recent writes are left for the writes to be searchable
+	 * @return version of the mark by key
+	 */
+	public Map<String, Long> findMarkedBefore(long markedBefore, int size) throws Exception {
+		Map<String, Long> marks = new LinkedHashMap<>();
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_JSON);
+		try {
+			ResponseEntity<Object> response = retryTemplate.postForEntity(indexServiceHost + dirtyIndexName + indexServiceHostSearch,
+					new HttpEntity<>(String.format(SETTLED_QUERY, size, markedBefore), headers));
+			JsonNode hits = mapper.convertValue(response.getBody(), JsonNode.class).path("hits").path("hits");
+			for (JsonNode hit : hits) {
+				JsonNode source = hit.path("_source");
+				marks.put(source.path(TENANT_ID).asText() + KEY_SEPERATOR + source.path(DATE).asLong(),
+						hit.path("_version").asLong());
+			}
+		} catch (HttpClientErrorException e) {
+			// dirty index is created by the first mark
+			if (e.getStatusCode() != HttpStatus.NOT_FOUND)
+				throw e;
+		}
+		return marks;
+	}
+
+	/**
+	 * Clears the mark of the day unless it was marked again after the given version was read
+	 * @return false when the day was marked again and remains dirty
+	 */
+	public boolean clear(String key, long version) throws Exception {
+		JsonNode item = bulk(getBulkAction("delete", key, version) + NEW_LINE).path("items").path(0).path("delete");
+		return item.path("status").asInt() != HttpStatus.CONFLICT.value();
+	}
+
+	private long nextMarkedAt() {
+		long now = System.currentTimeMillis();
+		return lastMarkedAt.updateAndGet(last -> Math.max(now, last + 1));
+	}
+
+	private JsonNode bulk(String body) throws Exception {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.parseMediaType(NDJSON));
+		ResponseEntity<Object> response = retryTemplate.postForEntity(indexServiceHost + BULK,
+				new HttpEntity<>(body, headers));
+		JsonNode responseNode = mapper.convertValue(response.getBody(), JsonNode.class);
+		for (JsonNode item : responseNode.path("items")) {
+			JsonNode result = item.elements().next();
+			int status = result.path("status").asInt();
+			// a conflict is a later mark, a missing document was cleared by another instance
+			if (status >= 300 && status != HttpStatus.CONFLICT.value() && status != HttpStatus.NOT_FOUND.value())
+				throw new IllegalStateException("Bulk request to " + dirtyIndexName + " has failed items");
+		}
+		return responseNode;
+	}
+
+	private String getBulkAction(String action, String key, long version) throws Exception {
+		ObjectNode metadata = JsonNodeFactory.instance.objectNode();
+		metadata.put("_index", dirtyIndexName);
+		metadata.put("_type", indexType);
+		metadata.put("_id", key.replace(KEY_SEPERATOR, ID_SEPERATOR));
+		metadata.put("version", version);
+		metadata.put("version_type", EXTERNAL_GTE);
+		ObjectNode actionNode = JsonNodeFactory.instance.objectNode();
+		actionNode.set(action, metadata);
+		return mapper.writeValueAsString(actionNode);
+	}
+
+}
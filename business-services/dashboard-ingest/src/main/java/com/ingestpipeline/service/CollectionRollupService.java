@@ -0,0 +1,296 @@
+package com.ingestpipeline.service;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.ingestpipeline.repository.RollupDirtyDayRepository;
+import com.ingestpipeline.util.Constants;
+
+/**
+ * Maintains the daily collection rollup used by the revenue charts of dashboard-analytics. The rollup index
+ * holds one document per day, tenant, business service and payment mode with the amount collected and the
+ * number of transactions.
+ *
+ * Every collection document written to the collection index marks its tenant and day as dirty, once the write
+ * is acknowledged. The dirty days are recomputed periodically from the collection index with a single
+ * aggregation per tenant and day. Recomputing (rather than incrementing) keeps the rollup correct when a
+ * document is replayed or updated, eg: on cancellation.
+ *
+ * The dirty days are kept in elastic search by RollupDirtyDayRepository. A day is recomputed only once its
+ * latest mark is older than the settle delay, which covers the refresh interval of the collection index and
+ * the lag of the indexer when the documents are pushed through kafka. A day marked again while it is being
+ * recomputed stays dirty and is recomputed on a later run.
+ */
+@Service
+public class CollectionRollupService {
+
+	public static final Logger LOGGER = LoggerFactory.getLogger(CollectionRollupService.class);
+
+	private static final String KEY_SEPERATOR = RollupDirtyDayRepository.KEY_SEPERATOR;
+	private static final String ID_SEPERATOR = "_";
+	private static final String NEW_LINE = "\n";
+	private static final String BULK = "_bulk";
+	private static final String NDJSON = "application/x-ndjson";
+
+	private static final String TENANT_ID_PATH = "tenantId";
+	private static final String RECEIPT_DATE_PATH = "Bill.billDetails.receiptDate";
+
+	private static final String TENANT_ID = "tenantId";
+	private static final String DISTRICT = "district";
+	private static final String BUSINESS_SERVICE = "businessService";
+	private static final String PAYMENT_MODE = "paymentMode";
+	private static final String DATE = "date";
+	private static final String AMOUNT = "amount";
+	private static final String COUNT = "count";
+
+	private static final String AGGREGATION_QUERY = "{\"size\":0,\"query\":{\"bool\":{\"filter\":["
+			+ "{\"term\":{\"dataObject.tenantId.keyword\":\"%s\"}},"
+			+ "{\"range\":{\"dataObject.Bill.billDetails.receiptDate\":{\"gte\":%d,\"lt\":%d}}}],"
+			+ "\"must_not\":[{\"terms\":{\"dataObject.Bill.billDetails.status.keyword\":[\"Cancelled\"]}}]}},"
+			+ "\"aggs\":{\"district\":{\"terms\":{\"field\":\"dataObject.tenantData.cityDistrictCode.keyword\",\"size\":1}},"
+			+ "\"businessService\":{\"terms\":{\"field\":\"dataObject.Bill.billDetails.businessService.keyword\",\"size\":500},"
+			+ "\"aggs\":{\"paymentMode\":{\"terms\":{\"field\":\"dataObject.paymentMode.keyword\",\"size\":50},"
+			+ "\"aggs\":{\"amount\":{\"sum\":{\"field\":\"dataObject.Bill.billDetails.amountPaid\"}}}}}}}}";
+
+	private static final String ROLLUP_IDS_QUERY = "{\"size\":10000,\"_source\":false,\"query\":{\"bool\":{\"filter\":["
+			+ "{\"term\":{\"tenantId.keyword\":\"%s\"}},{\"term\":{\"date\":%d}}]}}}";
+
+	@Value("${es.rollup.enabled}")
+	private Boolean rollupEnabled;
+
+	@Value("${es.rollup.index.name}")
+	private String rollupIndexName;
+
+	@Value("${es.rollup.index.type}")
+	private String rollupIndexType;
+
+	@Value("${es.index.name}")
+	private String collectionIndexName;
+
+	@Value("${services.esindexer.host}")
+	private String indexServiceHost;
+
+	@Value("${egov.services.esindexer.host.search}")
+	private String indexServiceHostSearch;
+
+	@Value("${id.timezone}")
+	private String timezone;
+
+	@Value("${es.rollup.settle.ms}")
+	private Long settleMillis;
+
+	@Value("${es.rollup.flush.batch.size}")
+	private Integer flushBatchSize;
+
+	@Autowired
+	private RetryTemplate retryTemplate;
+
+	@Autowired
+	private ObjectMapper mapper;
+
+	@Autowired
+	private RollupDirtyDayRepository dirtyDayRepository;
+
+	/**
+	 * Marks the tenant and days of the collection document for recomputation, to be called once the document
+	 * is written to the collection index or handed to the indexer
+	 * @param incomingData Collection document as pushed to the collection index
+	 */
+	public void markDirty(Map incomingData) throws Exception {
+		markDirty(Collections.singletonList(incomingData));
+	}
+
+	/**
+	 * Marks the tenants and days of the collection documents for recomputation with a single request
+	 * @param documents Collection documents as pushed to the collection index
+	 */
+	public void markDirty(Collection<Map> documents) throws Exception {
+		if (!rollupEnabled)
+			return;
+
+		Set<String> keys = new HashSet<>();
+		for (Map document : documents)
+			collectDirtyKeys(document, keys);
+		dirtyDayRepository.mark(keys);
+	}
+
+	private void collectDirtyKeys(Map incomingData, Set<String> keys) {
+		if (incomingData == null || !(incomingData.get(Constants.DATA_OBJECT) instanceof Map))
+			return;
+
+		Map dataObject = (Map) incomingData.get(Constants.DATA_OBJECT);
+		Object tenantId = dataObject.get(TENANT_ID_PATH);
+		if (tenantId == null)
+			return;
+
+		List<Object> receiptDates = new ArrayList<>();
+		collectValues(dataObject, RECEIPT_DATE_PATH.split("\\."), 0, receiptDates);
+		for (Object receiptDate : receiptDates) {
+			if (receiptDate instanceof Number)
+				keys.add(tenantId + KEY_SEPERATOR + getDayStart(((Number) receiptDate).longValue()));
+		}
+	}
+
+	/**
+	 * Recomputes the rollup of the tenants and days marked dirty before the settle delay. The mark of a day is
+	 * cleared only when the day is recomputed and was not marked again meanwhile, a day failing to recompute
+	 * keeps its mark and is retried on the next run.
+	 */
+	@Scheduled(fixedDelayString = "${es.rollup.flush.interval.ms}")
+	public void flush() {
+		if (!rollupEnabled)
+			return;
+
+		Map<String, Long> marks;
+		try {
+			marks = dirtyDayRepository.findMarkedBefore(System.currentTimeMillis() - settleMillis, flushBatchSize);
+		} catch (Exception e) {
+			LOGGER.error("Encountered an exception while fetching the days to roll up : {}", e.getMessage());
+			return;
+		}
+
+		for (Map.Entry<String, Long> mark : marks.entrySet()) {
+			String key = mark.getKey();
+			int seperatorIndex = key.lastIndexOf(KEY_SEPERATOR);
+			String tenantId = key.substring(0, seperatorIndex);
+			long dayStart = Long.parseLong(key.substring(seperatorIndex + 1));
+			try {
+				recompute(tenantId, dayStart);
+				if (!dirtyDayRepository.clear(key, mark.getValue()))
+					LOGGER.info("Rollup of {} for {} was marked dirty again while being computed", tenantId, dayStart);
+			} catch (Exception e) {
+				LOGGER.error("Encountered an exception while computing the rollup of {} for {} : {}", tenantId, dayStart,
+						e.getMessage());
+			}
+		}
+	}
+
+	private void recompute(String tenantId, long dayStart) throws Exception {
+		long dayEnd = dayStart + TimeUnit.DAYS.toMillis(1);
+		JsonNode aggregations = search(collectionIndexName,
+				String.format(AGGREGATION_QUERY, tenantId, dayStart, dayEnd)).path("aggregations");
+
+		String district = null;
+		for (JsonNode bucket : aggregations.path(DISTRICT).path("buckets"))
+			district = bucket.path("key").asText();
+
+		Map<String, ObjectNode> documents = new HashMap<>();
+		for (JsonNode serviceBucket : aggregations.path(BUSINESS_SERVICE).path("buckets")) {
+			for (JsonNode modeBucket : serviceBucket.path(PAYMENT_MODE).path("buckets")) {
+				ObjectNode document = JsonNodeFactory.instance.objectNode();
+				document.put(TENANT_ID, tenantId);
+				document.put(DISTRICT, district);
+				document.put(BUSINESS_SERVICE, serviceBucket.path("key").asText());
+				document.put(PAYMENT_MODE, modeBucket.path("key").asText());
+				document.put(DATE, dayStart);
+				document.put(AMOUNT, modeBucket.path(AMOUNT).path("value").asDouble());
+				document.put(COUNT, modeBucket.path("doc_count").asLong());
+				documents.put(tenantId + ID_SEPERATOR + dayStart + ID_SEPERATOR + serviceBucket.path("key").asText()
+						+ ID_SEPERATOR + modeBucket.path("key").asText(), document);
+			}
+		}
+
+		Set<String> staleIds = new HashSet<>();
+		try {
+			for (JsonNode hit : search(rollupIndexName, String.format(ROLLUP_IDS_QUERY, tenantId, dayStart)).path("hits").path("hits")) {
+				if (!documents.containsKey(hit.path("_id").asText()))
+					staleIds.add(hit.path("_id").asText());
+			}
+		} catch (HttpClientErrorException e) {
+			// rollup index is created by the first bulk request
+			if (e.getStatusCode() != HttpStatus.NOT_FOUND)
+				throw e;
+		}
+
+		if (!documents.isEmpty() || !staleIds.isEmpty())
+			bulk(documents, staleIds);
+	}
+
+	private JsonNode search(String index, String query) throws Exception {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_JSON);
+		ResponseEntity<Object> response = retryTemplate.postForEntity(indexServiceHost + index + indexServiceHostSearch,
+				new HttpEntity<>(query, headers));
+		return mapper.convertValue(response.getBody(), JsonNode.class);
+	}
+
+	/**
+	 * Indexes the recomputed documents and deletes the ones which no longer have a collection in one bulk request
+	 */
+	private void bulk(Map<String, ObjectNode> documents, Collection<String> staleIds) throws Exception {
+		StringBuilder body = new StringBuilder();
+		for (Map.Entry<String, ObjectNode> document : documents.entrySet()) {
+			body.append(getBulkAction("index", document.getKey())).append(NEW_LINE);
+			body.append(mapper.writeValueAsString(document.getValue())).append(NEW_LINE);
+		}
+		for (String id : staleIds)
+			body.append(getBulkAction("delete", id)).append(NEW_LINE);
+
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.parseMediaType(NDJSON));
+		ResponseEntity<Object> response = retryTemplate.postForEntity(indexServiceHost + BULK,
+				new HttpEntity<>(body.toString(), headers));
+		JsonNode responseNode = mapper.convertValue(response.getBody(), JsonNode.class);
+		if (responseNode.path("errors").asBoolean())
+			throw new IllegalStateException("Bulk request to " + rollupIndexName + " has failed items");
+	}
+
+	private String getBulkAction(String action, String id) throws Exception {
+		ObjectNode metadata = JsonNodeFactory.instance.objectNode();
+		metadata.put("_index", rollupIndexName);
+		metadata.put("_type", rollupIndexType);
+		metadata.put("_id", id);
+		ObjectNode actionNode = JsonNodeFactory.instance.objectNode();
+		actionNode.set(action, metadata);
+		return mapper.writeValueAsString(actionNode);
+	}
+
+	private long getDayStart(long epochMillis) {
+		ZoneId zoneId = TimeZone.getTimeZone(timezone).toZoneId();
+		return Instant.ofEpochMilli(epochMillis).atZone(zoneId).toLocalDate().atStartOfDay(zoneId).toInstant()
+				.toEpochMilli();
+	}
+
+	/**
+	 * Collects the values at the dotted path, descending into every element of the lists on the way
+	 */
+	private static void collectValues(Object node, String[] path, int depth, List<Object> values) {
+		if (node instanceof List) {
+			for (Object element : (List) node)
+				collectValues(element, path, depth, values);
+		} else if (depth == path.length) {
+			if (node != null)
+				values.add(node);
+		} else if (node instanceof Map) {
+			collectValues(((Map) node).get(path[depth]), path, depth + 1, values);
+		}
+	}
+
+}
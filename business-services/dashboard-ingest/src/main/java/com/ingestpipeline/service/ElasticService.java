@@ -84,6 +84,10 @@ public class ElasticService implements IESService {
 	private IngestService ingestService;
 
 	private static final String SLASH_SEPERATOR  = "/";
+	private static final String NEW_LINE = "\n";
+	private static final String MULTI_SEARCH = "_msearch";
+	private static final String BULK = "_bulk";
+	private static final String NDJSON = "application/x-ndjson";
 
 	public static final Logger LOGGER = LoggerFactory.getLogger(ElasticService.class);
 
@@ -208,7 +212,8 @@ public class ElasticService implements IESService {
 		try {
 			ResponseEntity<Object> response = retryTemplate.postForEntity(url.toString(), requestEntity);
 			LOGGER.info("Status code on pushing to collection index : {}",  response.getStatusCode());
-			if (response.getStatusCode().value() == HttpStatus.CREATED.value())
+			// created, or updated when the document is replayed
+			if (response.getStatusCode().is2xxSuccessful())
 				return Boolean.TRUE;
 
 		} catch (HttpClientErrorException e) {
@@ -221,6 +226,68 @@ public class ElasticService implements IESService {
 		return Boolean.FALSE;
 	}
 
+	@Override
+	public List<Map> multiSearch(List<String> indexes, List<String> queries) throws Exception {
+		ObjectMapper mapper = new ObjectMapper();
+		StringBuilder body = new StringBuilder();
+		for (int i = 0; i < queries.size(); i++) {
+			ObjectNode header = JsonNodeFactory.instance.objectNode();
+			header.put("index", indexes.get(i));
+			body.append(header.toString()).append(NEW_LINE);
+			body.append(mapper.readTree(queries.get(i)).toString()).append(NEW_LINE);
+		}
+
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.parseMediaType(NDJSON));
+		ResponseEntity<Object> response = retryTemplate.postForEntity(indexServiceHost + MULTI_SEARCH,
+				new HttpEntity<>(body.toString(), headers));
+
+		List<Map> firstHits = new ArrayList<>();
+		Map responseNode = mapper.convertValue(response.getBody(), Map.class);
+		for (Object item : (List) responseNode.get("responses")) {
+			Map hits = (Map) ((Map) item).get("hits");
+			List hitList = hits == null ? null : (List) hits.get("hits");
+			firstHits.add(hitList == null || hitList.isEmpty() ? null : (Map) hitList.get(0));
+		}
+		return firstHits;
+	}
+
+	@Override
+	public Boolean bulkPush(List<Map> requestBodies) throws Exception {
+		ObjectMapper mapper = new ObjectMapper();
+		StringBuilder body = new StringBuilder();
+		for (Map requestBody : requestBodies) {
+			Object id = requestBody.get(Constants.IDENTIFIER);
+			String docId = id != null ? id.toString()
+					: ((Map) requestBody.get(Constants.DATA_OBJECT)).get(Constants.TRANSACTION_ID).toString();
+			ObjectNode metadata = JsonNodeFactory.instance.objectNode();
+			metadata.put("_index", collectionIndexName);
+			metadata.put("_type", DOC_PATH);
+			metadata.put("_id", docId);
+			ObjectNode action = JsonNodeFactory.instance.objectNode();
+			action.set("index", metadata);
+			body.append(action.toString()).append(NEW_LINE);
+			body.append(mapper.writeValueAsString(requestBody)).append(NEW_LINE);
+		}
+
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.parseMediaType(NDJSON));
+		LOGGER.info("Posting bulk request of {} documents to ES on :: {}", requestBodies.size(), collectionIndexName);
+		try {
+			ResponseEntity<Object> response = retryTemplate.postForEntity(indexServiceHost + BULK,
+					new HttpEntity<>(body.toString(), headers));
+			Map responseNode = mapper.convertValue(response.getBody(), Map.class);
+			if (Boolean.TRUE.equals(responseNode.get("errors"))) {
+				LOGGER.error("bulk push to ES collection index has failed items : {}", responseNode.get("items"));
+				return Boolean.FALSE;
+			}
+			return Boolean.TRUE;
+		} catch (HttpClientErrorException e) {
+			LOGGER.error("client error while bulk pushing ES collection index : {}", e.getMessage());
+		}
+		return Boolean.FALSE;
+	}
+
 	@Override
 	public Boolean push(TargetData requestBody) throws Exception {
 
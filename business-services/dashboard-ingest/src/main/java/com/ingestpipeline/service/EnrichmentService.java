@@ -4,11 +4,19 @@ import org.springframework.stereotype.Service;
 
 import com.ingestpipeline.model.IncomingData;
 
+import java.util.List;
 import java.util.Map;
 
 @Service
 public interface EnrichmentService {
 	
 	Map enrichData(Map incomingData);
+
+	/**
+	 * Enriches a batch of records, fetching the domain objects of the batch together
+	 * @param incomingDataList
+	 * @return
+	 */
+	List<Map> enrichData(List<Map> incomingDataList);
 	
 }
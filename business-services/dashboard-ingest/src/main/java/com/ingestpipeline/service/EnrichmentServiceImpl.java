@@ -2,10 +2,12 @@ package com.ingestpipeline.service;
 
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import com.ingestpipeline.model.SourceReferences;
 import com.ingestpipeline.model.TargetReferences;
@@ -102,6 +104,68 @@ public class EnrichmentServiceImpl implements EnrichmentService {
 	@Override
 	public Map enrichData(Map incomingData) {
 		
+		DomainSearch domainSearch = getDomainSearch(incomingData);
+		if(domainSearch != null) {
+			try {
+				Map domainNode = elasticService.search(domainSearch.indexName, domainSearch.query);
+				setDomainObject(incomingData, domainSearch, domainNode);
+			} catch (Exception e) {
+				LOGGER.error("Pre-processing enrichment - failed  :: {}" , e.getMessage());
+			}
+		}
+		if (incomingData.get(DATA_CONTEXT).toString().equalsIgnoreCase("target")) {
+			pushTargetData(incomingData);
+		} 
+
+		return incomingData;
+	}
+
+	/**
+	 * Fetches the domain objects of all the records in a single multi search
+	 */
+	@Override
+	public List<Map> enrichData(List<Map> incomingDataList) {
+		List<Map> searchedData = new ArrayList<>();
+		List<DomainSearch> domainSearches = new ArrayList<>();
+		for (Map incomingData : incomingDataList) {
+			try {
+				DomainSearch domainSearch = getDomainSearch(incomingData);
+				if (domainSearch != null) {
+					searchedData.add(incomingData);
+					domainSearches.add(domainSearch);
+				}
+			} catch (Exception e) {
+				LOGGER.error("Pre-processing enrichment - failed  :: {}" , e.getMessage());
+			}
+		}
+
+		if (!domainSearches.isEmpty()) {
+			try {
+				List<Map> domainNodes = elasticService.multiSearch(
+						domainSearches.stream().map(domainSearch -> domainSearch.indexName).collect(Collectors.toList()),
+						domainSearches.stream().map(domainSearch -> domainSearch.query).collect(Collectors.toList()));
+				for (int i = 0; i < searchedData.size(); i++) {
+					setDomainObject(searchedData.get(i), domainSearches.get(i), domainNodes.get(i));
+				}
+			} catch (Exception e) {
+				LOGGER.error("Pre-processing enrichment - failed  :: {}" , e.getMessage());
+			}
+		}
+
+		for (Map incomingData : incomingDataList) {
+			if (incomingData.get(DATA_CONTEXT).toString().equalsIgnoreCase("target")) {
+				pushTargetData(incomingData);
+			}
+		}
+		return incomingDataList;
+	}
+
+	/**
+	 * Prepares the search for the domain object of the record, based on the incoming data businessType
+	 * @param incomingData
+	 * @return null when the record is not enriched with a domain object
+	 */
+	private DomainSearch getDomainSearch(Map incomingData) {
 		Map<String,Object> dataObject = new ObjectMapper().convertValue(incomingData.get(DATA_OBJECT), Map.class);
 		String tenantId = dataObject.get(TENANTID).toString();
 		
@@ -110,97 +174,100 @@ public class EnrichmentServiceImpl implements EnrichmentService {
 		DomainConfig domainConfig = domainConfigFactory.getConfiguration(incomingData.get(DATA_CONTEXT).toString());
 		LOGGER.info("domainConfig ## "+domainConfig);
 
-		if(domainConfig instanceof CollectionDomainConfig) {
-			// prepare the query required based on incoming data businessType
-			ObjectNode incomingNode = new ObjectMapper().convertValue(incomingData.get(DATA_OBJECT), ObjectNode.class);
-			ObjectNode copyNode = incomingNode.deepCopy();
-			String businessTypeVal = copyNode.findValue(BUSINESS_SERVICE).asText();
-			
-			for(String category : mCollectCategories) {
-				if(category.equalsIgnoreCase(businessTypeVal)) {
-					businessTypeVal = MCOLLECT;
-					break;
-				}
+		if(!(domainConfig instanceof CollectionDomainConfig))
+			return null;
+
+		// prepare the query required based on incoming data businessType
+		ObjectNode incomingNode = new ObjectMapper().convertValue(incomingData.get(DATA_OBJECT), ObjectNode.class);
+		ObjectNode copyNode = incomingNode.deepCopy();
+		String businessTypeVal = copyNode.findValue(BUSINESS_SERVICE).asText();
+		
+		for(String category : mCollectCategories) {
+			if(category.equalsIgnoreCase(businessTypeVal)) {
+				businessTypeVal = MCOLLECT;
+				break;
 			}
+		}
 
-			DomainIndexConfig indexConfig = domainConfig.getIndexConfig(businessTypeVal.toString());
-			LOGGER.info("indexConfig ## "+indexConfig);
-			if(indexConfig != null){
-				String indexName = indexConfig.getIndexName();
+		DomainIndexConfig indexConfig = domainConfig.getIndexConfig(businessTypeVal.toString());
+		LOGGER.info("indexConfig ## "+indexConfig);
+		if(indexConfig == null){
+			LOGGER.info("No indexConfig for businessType::  {}",businessTypeVal);
+			return null;
+		}
+		String indexName = indexConfig.getIndexName();
 
-				String query = indexConfig.getQuery();					
+		String query = indexConfig.getQuery();					
 
-				try {
-					ObjectNode queryNode = new ObjectMapper().readValue(query, ObjectNode.class);
+		try {
+			ObjectNode queryNode = new ObjectMapper().readValue(query, ObjectNode.class);
 
-					Map<String, Object> expValMap = new HashMap<>();
-					// Source references to be prepare a map of fieldName & value
-					for (SourceReferences ref : indexConfig.getSourceReferences()){
-						String arg = ref.getFieldName();
-						String argVal = copyNode.findValue(arg).asText();
-						String[] values = argVal.split(ref.getSeperator());
+			Map<String, Object> expValMap = new HashMap<>();
+			// Source references to be prepare a map of fieldName & value
+			for (SourceReferences ref : indexConfig.getSourceReferences()){
+				String arg = ref.getFieldName();
+				String argVal = copyNode.findValue(arg).asText();
+				String[] values = argVal.split(ref.getSeperator());
 
-						String[] exps = ref.getExpression().split(ref.getSeperator());		
+				String[] exps = ref.getExpression().split(ref.getSeperator());		
 
-						for(int i=0; i<exps.length; i++){
-							if(values[i] != null)
-								expValMap.put(exps[i], values[i]);
-						}
-					}
+				for(int i=0; i<exps.length; i++){
+					if(values[i] != null)
+						expValMap.put(exps[i], values[i]);
+				}
+			}
 
-					// To use produce the value of fieldNames and replace the query field value
-					for (TargetReferences ref : indexConfig.getTargetReferences()) {
-						String[] exps = ref.getExpression().split(ref.getSeperator());
+			// To use produce the value of fieldNames and replace the query field value
+			for (TargetReferences ref : indexConfig.getTargetReferences()) {
+				String[] exps = ref.getExpression().split(ref.getSeperator());
 
-						StringBuffer buff = new StringBuffer();
-						for(String exp : exps){
-							buff.append(expValMap.get(exp)+ref.getSeperator());
-						}
-						ref.setValue(buff.substring(0,buff.length()-1));
-						JSONUtil.replaceFieldValue(queryNode, ref.getArgument(), ref.getValue());
+				StringBuffer buff = new StringBuffer();
+				for(String exp : exps){
+					buff.append(expValMap.get(exp)+ref.getSeperator());
+				}
+				ref.setValue(buff.substring(0,buff.length()-1));
+				JSONUtil.replaceFieldValue(queryNode, ref.getArgument(), ref.getValue());
 
-					}
-					LOGGER.info("Query node "+ queryNode);
-					Map domainNode = elasticService.search(indexName, queryNode.toString());
-					if(domainNode != null){
-						Object transDomainResponse = enrichTransform.transform(domainNode, businessTypeVal.toString());
-						incomingData.put("domainObject", transDomainResponse);
-						enhanceData(incomingData);
+			}
+			LOGGER.info("Query node "+ queryNode);
+			return new DomainSearch(indexName, queryNode.toString(), businessTypeVal);
 
-					} else {
-						LOGGER.info("Fetching record from ES for domain:: {} failed ",  businessTypeVal);
-					}
-					LOGGER.info("Data Transformed");
+		} catch (Exception e) {
+			LOGGER.error("Pre-processing enrichment - failed  :: {}" , e.getMessage());
+		}
+		return null;
+	}
 
-				} catch (Exception e) {
-					LOGGER.error("Pre-processing enrichment - failed  :: {}" , e.getMessage());
-				}
-			} else {
-				LOGGER.info("No indexConfig for businessType::  {}",businessTypeVal);
-			}
+	private void setDomainObject(Map incomingData, DomainSearch domainSearch, Map domainNode) throws Exception {
+		if(domainNode != null){
+			Object transDomainResponse = enrichTransform.transform(domainNode, domainSearch.businessType);
+			incomingData.put("domainObject", transDomainResponse);
+			enhanceData(incomingData);
 
+		} else {
+			LOGGER.info("Fetching record from ES for domain:: {} failed ",  domainSearch.businessType);
 		}
-		if (incomingData.get(DATA_CONTEXT).toString().equalsIgnoreCase("target")) {
-			ArrayNode values = new ObjectMapper().convertValue(incomingData.get(Constants.DATA_OBJECT), ArrayNode.class);
-			//System.out.println("incomingData 1209 values " + values);
-
-			values.forEach(val -> {
-				TargetData targetData = new ObjectMapper().convertValue(val, TargetData.class);
-				String hashId = targetData.getFinancialYear() + "-" + targetData.getBusinessService()+"-"+targetData.getUlbName();
-				hashId = hashId.replaceAll("(\\s)+", "");
-				String sha256hex = Hashing.sha256().hashString(hashId, StandardCharsets.UTF_8).toString();
-				targetData.setId(sha256hex.hashCode());
-				//targetData.setId(hashId);
-				try{
-					elasticService.push(targetData);
-				}catch (Exception e ){
-					LOGGER.error("Exception occurred while pushing data to ES: " + e.getMessage());
-				}
+		LOGGER.info("Data Transformed");
+	}
 
-			});
-		} 
+	private void pushTargetData(Map incomingData) {
+		ArrayNode values = new ObjectMapper().convertValue(incomingData.get(Constants.DATA_OBJECT), ArrayNode.class);
+		//System.out.println("incomingData 1209 values " + values);
+
+		values.forEach(val -> {
+			TargetData targetData = new ObjectMapper().convertValue(val, TargetData.class);
+			String hashId = targetData.getFinancialYear() + "-" + targetData.getBusinessService()+"-"+targetData.getUlbName();
+			hashId = hashId.replaceAll("(\\s)+", "");
+			String sha256hex = Hashing.sha256().hashString(hashId, StandardCharsets.UTF_8).toString();
+			targetData.setId(sha256hex.hashCode());
+			//targetData.setId(hashId);
+			try{
+				elasticService.push(targetData);
+			}catch (Exception e ){
+				LOGGER.error("Exception occurred while pushing data to ES: " + e.getMessage());
+			}
 
-		return incomingData;
+		});
 	}
 
 	private Boolean pushToElasticSearchIndex(Object object) {
@@ -320,4 +387,19 @@ public class EnrichmentServiceImpl implements EnrichmentService {
 		return incomingData;
 	}
 
+	private static class DomainSearch {
+
+		private final String indexName;
+
+		private final String query;
+
+		private final String businessType;
+
+		private DomainSearch(String indexName, String query, String businessType) {
+			this.indexName = indexName;
+			this.query = query;
+			this.businessType = businessType;
+		}
+	}
+
 }
@@ -0,0 +1,338 @@
+package com.ingestpipeline.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ingestpipeline.producer.IngestProducer;
+import com.ingestpipeline.util.ApplicationProperties;
+import com.ingestpipeline.util.Constants;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Runs validate, transform, enrich and push as stages of one in-process pipeline instead of hopping across
+ * the ingestData, validData and transformedData topics. Records are micro-batched so that the enrichment
+ * lookups of a batch go to ES in one multi search and the enriched documents are written in one bulk request.
+ *
+ * The pipeline rules decide the stages run, same as the topics the records are routed to when the fused
+ * mode is disabled. Records held in the queue are not persisted, the future returned by submit completes
+ * once the record is processed so that the consumer commits its offset only then. Submit blocks when the
+ * queue is full so that the consumers are slowed down instead of the queue growing.
+ *
+ * The records and the time spent in every stage are published to the meter registry, records per second
+ * of a stage is the rate of its records counter.
+ */
+@Service
+public class FusedPipelineService {
+
+	public static final Logger LOGGER = LoggerFactory.getLogger(FusedPipelineService.class);
+
+	private static final String VALIDATE_STAGE = "validate";
+	private static final String TRANSFORM_STAGE = "transform";
+	private static final String ENRICH_STAGE = "enrich";
+	private static final String PUSH_STAGE = "push";
+
+	private static final String RECORDS_METRIC = "ingest.pipeline.fused.records";
+	private static final String STAGE_TIME_METRIC = "ingest.pipeline.fused.stage.time";
+	private static final String QUEUED_METRIC = "ingest.pipeline.fused.queued";
+	private static final String STAGE_TAG = "stage";
+
+	@Value("${pipeline.fused.enabled}")
+	private Boolean fusedEnabled;
+
+	@Value("${pipeline.fused.batch.size}")
+	private Integer batchSize;
+
+	@Value("${pipeline.fused.batch.max.wait.ms}")
+	private Long batchMaxWait;
+
+	@Value("${pipeline.fused.queue.capacity}")
+	private Integer queueCapacity;
+
+	@Value("${es.push.direct}")
+	private Boolean esPushDirect;
+
+	@Value("${kafka.topics.enriched.data}")
+	private String enrichedDataTopic;
+
+	@Autowired
+	private ValidationService validationService;
+
+	@Autowired
+	@Qualifier(Constants.Qualifiers.TRANSFORM_COLLECTION_SERVICE)
+	private TransformService collectiontransformService;
+
+	@Autowired
+	@Qualifier(Constants.Qualifiers.TRANSFORM_SERVICE)
+	private TransformService defaulttransformService;
+
+	@Autowired
+	private EnrichmentService enrichmentService;
+
+	@Autowired
+	private IESService elasticService;
+
+	@Autowired
+	private CollectionRollupService collectionRollupService;
+
+	@Autowired
+	private IngestProducer ingestProducer;
+
+	@Autowired
+	private ApplicationProperties applicationProperties;
+
+	@Autowired
+	private ObjectMapper mapper;
+
+	@Autowired
+	private ObjectProvider<MeterRegistry> meterRegistryProvider;
+
+	private MeterRegistry meterRegistry;
+
+	private BlockingQueue<PendingRecord> queue;
+
+	private Thread worker;
+
+	private volatile boolean running;
+
+	@PostConstruct
+	public void start() {
+		if (!fusedEnabled)
+			return;
+		queue = new LinkedBlockingQueue<>(queueCapacity);
+		meterRegistry = meterRegistryProvider.getIfAvailable(() -> Metrics.globalRegistry);
+		meterRegistry.gaugeCollectionSize(QUEUED_METRIC, Collections.emptyList(), queue);
+		running = true;
+		worker = new Thread(this::processLoop, "fused-ingest-pipeline");
+		worker.setDaemon(true);
+		worker.start();
+	}
+
+	@PreDestroy
+	public void stop() throws InterruptedException {
+		if (worker == null)
+			return;
+		running = false;
+		worker.interrupt();
+		worker.join(TimeUnit.SECONDS.toMillis(10));
+	}
+
+	public boolean isEnabled() {
+		return fusedEnabled;
+	}
+
+	/**
+	 * Hands the record over to the pipeline, blocks while the queue is full
+	 * @param incomingData
+	 * @return completes once the record is pushed, or handed over to the error topic
+	 */
+	public CompletableFuture<Void> submit(Object incomingData) {
+		PendingRecord pendingRecord = new PendingRecord(mapper.convertValue(incomingData, Map.class));
+		try {
+			queue.put(pendingRecord);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			LOGGER.error("Interrupted while handing the record over to the fused pipeline");
+			pendingRecord.processed.completeExceptionally(e);
+		}
+		return pendingRecord.processed;
+	}
+
+	private void processLoop() {
+		while (running || !queue.isEmpty()) {
+			List<PendingRecord> batch = new ArrayList<>(batchSize);
+			try {
+				PendingRecord first = queue.poll(1, TimeUnit.SECONDS);
+				if (first == null)
+					continue;
+				batch.add(first);
+
+				long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(batchMaxWait);
+				while (batch.size() < batchSize) {
+					PendingRecord next = queue.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+					if (next == null)
+						break;
+					batch.add(next);
+				}
+			} catch (InterruptedException e) {
+				queue.drainTo(batch);
+			}
+
+			if (!batch.isEmpty())
+				process(batch);
+		}
+	}
+
+	/**
+	 * Processes the batch and completes the futures of its records, the records of a batch which failed
+	 * unexpectedly are handed over to the error topic
+	 */
+	private void process(List<PendingRecord> batch) {
+		List<Map> records = new ArrayList<>(batch.size());
+		for (PendingRecord pendingRecord : batch)
+			records.add(pendingRecord.record);
+
+		Exception failure = null;
+		try {
+			processBatch(records);
+		} catch (Exception e) {
+			LOGGER.error("Exception Encountered while processing the batch of {} records : {}", batch.size(), e.getMessage());
+			try {
+				for (Map record : records)
+					ingestProducer.pushToPipeline(record, Constants.KafkaTopics.ERROR_INTENT, null);
+			} catch (Exception pushException) {
+				LOGGER.error("Exception Encountered while pushing the failed batch to the error topic : {}", pushException.getMessage());
+				failure = pushException;
+			}
+		}
+		for (PendingRecord pendingRecord : batch) {
+			if (failure == null)
+				pendingRecord.processed.complete(null);
+			else
+				pendingRecord.processed.completeExceptionally(failure);
+		}
+	}
+
+	/**
+	 * Runs the stages picked by the pipeline rules, as the topics do: validated records go through transform
+	 * when TRANSFORM is set, else to enrich when ENRICH is set, and transformed records always go to enrich.
+	 * Without either rule the topic flow has no next topic for the records, they go to the error topic.
+	 */
+	private void processBatch(List<Map> records) throws Exception {
+		if (isRuleSet(Constants.PipelineRules.VALIDATE_DATA))
+			records = validate(records);
+		if (isRuleSet(Constants.PipelineRules.TRANSFORM_DATA)) {
+			records = transform(records);
+		} else if (!isRuleSet(Constants.PipelineRules.ENRICH_DATA)) {
+			for (Map record : records)
+				ingestProducer.pushToPipeline(record, Constants.KafkaTopics.ERROR_INTENT, null);
+			return;
+		}
+
+		long start = System.nanoTime();
+		List<Map> enriched = enrichmentService.enrichData(records);
+		recordStage(ENRICH_STAGE, enriched.size(), start);
+
+		start = System.nanoTime();
+		push(enriched);
+		recordStage(PUSH_STAGE, enriched.size(), start);
+	}
+
+	private boolean isRuleSet(String rule) {
+		return Boolean.TRUE.equals(applicationProperties.getPipelineRules().get(rule));
+	}
+
+	private List<Map> validate(List<Map> records) {
+		long start = System.nanoTime();
+		List<Map> valid = new ArrayList<>(records.size());
+		for (Map record : records) {
+			if (validationService.validateData(record))
+				valid.add(record);
+			else
+				ingestProducer.pushToPipeline(record, Constants.KafkaTopics.ERROR_INTENT, null);
+		}
+		recordStage(VALIDATE_STAGE, records.size(), start);
+		return valid;
+	}
+
+	/**
+	 * Transforms the records, a collection record is split into one record per bill detail
+	 */
+	private List<Map> transform(List<Map> records) {
+		long start = System.nanoTime();
+		List<Map> transformed = new ArrayList<>(records.size());
+		for (Map record : records) {
+			try {
+				if (record.get(Constants.DATA_CONTEXT).toString().equals(Constants.TransformationType.COLLECTION)) {
+					if (collectiontransformService.transformData(record)) {
+						for (Object splitRecord : record.values())
+							transformed.add((Map) splitRecord);
+					}
+				} else if (defaulttransformService.transformData(record)) {
+					transformed.add(record);
+				}
+			} catch (Exception e) {
+				LOGGER.error("Exception Encountered while transforming the record : " + e.getMessage());
+			}
+		}
+		recordStage(TRANSFORM_STAGE, records.size(), start);
+		return transformed;
+	}
+
+	/**
+	 * Pushes the records to the collection index, or to the indexer through kafka, and marks their days dirty
+	 * for the collection rollup once the writes are acknowledged
+	 */
+	private void push(List<Map> records) throws Exception {
+		List<Map> collectionRecords = new ArrayList<>(records.size());
+		List<Map> pushedRecords = new ArrayList<>(records.size());
+		for (Map record : records) {
+			if (!esPushDirect) {
+				Object docId = record.get(Constants.IDENTIFIER);
+				ingestProducer.pushToPipeline(record, enrichedDataTopic, docId == null ? null : docId.toString());
+				pushedRecords.add(record);
+			} else if (Constants.TransformationType.COLLECTION.equals(record.get(Constants.DATA_CONTEXT))) {
+				collectionRecords.add(record);
+			} else {
+				try {
+					if (elasticService.push(record))
+						pushedRecords.add(record);
+				} catch (Exception e) {
+					LOGGER.error("Exception Encountered while pushing the record : " + e.getMessage());
+				}
+			}
+		}
+		if (!collectionRecords.isEmpty()) {
+			try {
+				if (!elasticService.bulkPush(collectionRecords)) {
+					for (Map record : collectionRecords)
+						ingestProducer.pushToPipeline(record, Constants.KafkaTopics.ERROR_INTENT, null);
+				}
+			} finally {
+				// items of a failed bulk request may have been written, marking a day needlessly only recomputes it
+				pushedRecords.addAll(collectionRecords);
+			}
+		}
+		collectionRollupService.markDirty(pushedRecords);
+	}
+
+	private void recordStage(String stage, long records, long start) {
+		Counter.builder(RECORDS_METRIC).description("Records processed by the stage of the fused pipeline")
+				.tag(STAGE_TAG, stage).register(meterRegistry).increment(records);
+		Timer.builder(STAGE_TIME_METRIC).description("Time spent in the stage of the fused pipeline per batch")
+				.tag(STAGE_TAG, stage).register(meterRegistry).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+	}
+
+	private static class PendingRecord {
+
+		private final Map record;
+
+		private final CompletableFuture<Void> processed = new CompletableFuture<>();
+
+		private PendingRecord(Map record) {
+			this.record = record;
+		}
+	}
+
+}
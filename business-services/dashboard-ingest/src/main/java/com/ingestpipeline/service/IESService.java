@@ -54,6 +54,23 @@ public interface IESService {
     List searchMultiple(String index, String query) throws Exception;
     Boolean push(Map requestBody) throws Exception;
 
+    /**
+     * searches documents from ES for all the queries in a single multi search request
+     * @param indexes - index of every query
+     * @param queries - queries, in the order of the indexes
+     * @return first hit of every query or null when the query has no hit, in the order of the queries
+     * @throws Exception
+     */
+    List<Map> multiSearch(List<String> indexes, List<String> queries) throws Exception;
+
+    /**
+     * pushes the documents to the collection index in a single bulk request
+     * @param requestBodies
+     * @return false when any of the documents failed
+     * @throws Exception
+     */
+    Boolean bulkPush(List<Map> requestBodies) throws Exception;
+
 
     /**
      * Translates a string query to SearchRequest
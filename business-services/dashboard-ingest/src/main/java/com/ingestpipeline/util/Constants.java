@@ -63,6 +63,7 @@ public interface Constants {
 	
 	public interface BeanContainerFactory { 
 		public static final String INCOMING_KAFKA_LISTENER = "incomingKafkaListenerContainerFactory"; 
+		public static final String INGEST_KAFKA_LISTENER = "ingestKafkaListenerContainerFactory"; 
 	}
 	
 	public interface DomainConfigurations { 
@@ -16,6 +16,7 @@ import org.springframework.stereotype.Service;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class JSONUtil {
@@ -26,6 +27,11 @@ public class JSONUtil {
 	@Autowired
 	private ElasticSearchRepository elasticRepository;
 
+	@Value("${mdms.mcollect.cache.expiry.ms}")
+	private Long mCollectCacheExpiry;
+
+	private Map<String, CachedCategories> mCollectCategoriesCache = new ConcurrentHashMap<>();
+
 	/**
 	 * Field value to replace by new text. Replace node by given text to Parent's
 	 * hierarchy. Field will not be added if not found existing already
@@ -103,7 +109,23 @@ public class JSONUtil {
 		gson = gsonn;
 	}
 	
+	/**
+	 * Returns the mCollect categories of the tenant, cached for mdms.mcollect.cache.expiry.ms as the
+	 * categories are fetched for every record enriched
+	 * @param tenantId
+	 * @return
+	 */
 	public List<String> fetchMCollectCategories (String tenantId) {
+		CachedCategories cached = mCollectCategoriesCache.get(tenantId);
+		if (cached != null && System.currentTimeMillis() - cached.fetchedAt < mCollectCacheExpiry)
+			return cached.categories;
+
+		List<String> categories = fetchMCollectCategoriesFromMdms(tenantId);
+		mCollectCategoriesCache.put(tenantId, new CachedCategories(categories, System.currentTimeMillis()));
+		return categories;
+	}
+
+	private List<String> fetchMCollectCategoriesFromMdms (String tenantId) {
 		
 		String mdmsRequestString = Constants.MDMS_MCOLLECT_SEARCH.replace(Constants.TENANTID_PLACEHOLDER, tenantId);
 		Object mdmsRequestObject = mdmsRequestString;
@@ -122,4 +144,16 @@ public class JSONUtil {
 		return categoriesList;
 		
 	}
+
+	private static class CachedCategories {
+
+		private final List<String> categories;
+
+		private final long fetchedAt;
+
+		private CachedCategories(List<String> categories, long fetchedAt) {
+			this.categories = categories;
+			this.fetchedAt = fetchedAt;
+		}
+	}
 }
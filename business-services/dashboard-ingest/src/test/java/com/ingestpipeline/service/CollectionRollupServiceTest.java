@@ -0,0 +1,194 @@
+package com.ingestpipeline.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ingestpipeline.repository.RollupDirtyDayRepository;
+
+public class CollectionRollupServiceTest {
+
+	private static final String TENANT_ID = "pb.amritsar";
+	private static final long RECEIPT_DATE = 1634545800000L;
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	private CollectionRollupService collectionRollupService;
+	private InMemoryDirtyDayRepository dirtyDayRepository;
+	private RetryTemplate retryTemplate;
+
+	private final AtomicInteger aggregations = new AtomicInteger();
+	private Runnable onAggregation = () -> { };
+	private boolean failAggregation;
+
+	@Before
+	public void setUp() {
+		dirtyDayRepository = new InMemoryDirtyDayRepository();
+		retryTemplate = mock(RetryTemplate.class);
+		collectionRollupService = new CollectionRollupService();
+		ReflectionTestUtils.setField(collectionRollupService, "rollupEnabled", true);
+		ReflectionTestUtils.setField(collectionRollupService, "rollupIndexName", "dss-collection-rollup_v1");
+		ReflectionTestUtils.setField(collectionRollupService, "rollupIndexType", "_doc");
+		ReflectionTestUtils.setField(collectionRollupService, "collectionIndexName", "dss-collection_v2");
+		ReflectionTestUtils.setField(collectionRollupService, "indexServiceHost", "http://es/");
+		ReflectionTestUtils.setField(collectionRollupService, "indexServiceHostSearch", "/_search");
+		ReflectionTestUtils.setField(collectionRollupService, "timezone", "IST");
+		ReflectionTestUtils.setField(collectionRollupService, "settleMillis", 0L);
+		ReflectionTestUtils.setField(collectionRollupService, "flushBatchSize", 500);
+		ReflectionTestUtils.setField(collectionRollupService, "retryTemplate", retryTemplate);
+		ReflectionTestUtils.setField(collectionRollupService, "mapper", mapper);
+		ReflectionTestUtils.setField(collectionRollupService, "dirtyDayRepository", dirtyDayRepository);
+
+		when(retryTemplate.postForEntity(anyString(), any(HttpEntity.class))).thenAnswer(invocation -> {
+			String url = invocation.getArgument(0);
+			if (url.contains("dss-collection_v2")) {
+				aggregations.incrementAndGet();
+				if (failAggregation)
+					throw new IllegalStateException("search failed");
+				onAggregation.run();
+				return response("{\"aggregations\":{\"district\":{\"buckets\":[{\"key\":\"AMRITSAR\"}]},"
+						+ "\"businessService\":{\"buckets\":[{\"key\":\"PT\",\"paymentMode\":{\"buckets\":"
+						+ "[{\"key\":\"CASH\",\"doc_count\":2,\"amount\":{\"value\":500.0}}]}}]}}}");
+			}
+			if (url.endsWith("/_search"))
+				return response("{\"hits\":{\"hits\":[]}}");
+			return response("{\"errors\":false,\"items\":[]}");
+		});
+	}
+
+	@Test
+	public void testFlushRecomputesAndClearsMarkedDay() throws Exception {
+		collectionRollupService.markDirty(collection(RECEIPT_DATE));
+
+		collectionRollupService.flush();
+
+		assertEquals(1, aggregations.get());
+		assertTrue(dirtyDayRepository.marks.isEmpty());
+	}
+
+	@Test
+	public void testDayMarkedDuringFlushStaysDirty() throws Exception {
+		collectionRollupService.markDirty(collection(RECEIPT_DATE));
+		// a collection of the same day is written while the day is being aggregated
+		onAggregation = () -> {
+			onAggregation = () -> { };
+			try {
+				collectionRollupService.markDirty(collection(RECEIPT_DATE + 1000));
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		};
+
+		collectionRollupService.flush();
+
+		assertEquals(1, aggregations.get());
+		assertEquals(1, dirtyDayRepository.marks.size());
+
+		collectionRollupService.flush();
+
+		assertEquals(2, aggregations.get());
+		assertTrue(dirtyDayRepository.marks.isEmpty());
+	}
+
+	@Test
+	public void testDayFailingToRecomputeKeepsMark() throws Exception {
+		collectionRollupService.markDirty(collection(RECEIPT_DATE));
+		failAggregation = true;
+
+		collectionRollupService.flush();
+
+		assertEquals(1, dirtyDayRepository.marks.size());
+
+		failAggregation = false;
+		collectionRollupService.flush();
+
+		assertTrue(dirtyDayRepository.marks.isEmpty());
+	}
+
+	@Test
+	public void testMarkIgnoresDocumentWithoutReceiptDate() throws Exception {
+		Map<String, Object> dataObject = new HashMap<>();
+		dataObject.put("tenantId", TENANT_ID);
+
+		collectionRollupService.markDirty(Collections.singletonMap("dataObject", dataObject));
+
+		assertTrue(dirtyDayRepository.marks.isEmpty());
+	}
+
+	@Test
+	public void testMarkSkippedWhenRollupDisabled() throws Exception {
+		ReflectionTestUtils.setField(collectionRollupService, "rollupEnabled", false);
+
+		collectionRollupService.markDirty(collection(RECEIPT_DATE));
+
+		assertFalse(dirtyDayRepository.marked);
+	}
+
+	private Map<String, Object> collection(long receiptDate) {
+		Map<String, Object> billDetail = new HashMap<>();
+		billDetail.put("receiptDate", receiptDate);
+		Map<String, Object> bill = new HashMap<>();
+		bill.put("billDetails", Collections.singletonList(billDetail));
+		Map<String, Object> dataObject = new HashMap<>();
+		dataObject.put("tenantId", TENANT_ID);
+		dataObject.put("Bill", Collections.singletonList(bill));
+		return Collections.singletonMap("dataObject", dataObject);
+	}
+
+	private ResponseEntity<Object> response(String body) throws Exception {
+		return new ResponseEntity<>(mapper.readValue(body, Map.class), HttpStatus.OK);
+	}
+
+	/**
+	 * Dirty days with the semantics of the external versions of the elastic search index
+	 */
+	private static class InMemoryDirtyDayRepository extends RollupDirtyDayRepository {
+
+		private final Map<String, Long> marks = new LinkedHashMap<>();
+		private long version;
+		private boolean marked;
+
+		@Override
+		public synchronized void mark(Collection<String> keys) {
+			version++;
+			for (String key : keys) {
+				marks.put(key, version);
+				marked = true;
+			}
+		}
+
+		@Override
+		public synchronized Map<String, Long> findMarkedBefore(long markedBefore, int size) {
+			return new LinkedHashMap<>(marks);
+		}
+
+		@Override
+		public synchronized boolean clear(String key, long version) {
+			Long current = marks.get(key);
+			if (current != null && current > version)
+				return false;
+			marks.remove(key);
+			return true;
+		}
+	}
+
+}
@@ -0,0 +1,167 @@
+package com.ingestpipeline.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ingestpipeline.producer.IngestProducer;
+import com.ingestpipeline.util.ApplicationProperties;
+import com.ingestpipeline.util.Constants;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class FusedPipelineServiceTest {
+
+	private FusedPipelineService fusedPipelineService;
+	private ValidationService validationService;
+	private TransformService defaulttransformService;
+	private EnrichmentService enrichmentService;
+	private IESService elasticService;
+	private IngestProducer ingestProducer;
+	private final Map<String, Boolean> pipelineRules = new HashMap<>();
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Before
+	@SuppressWarnings("unchecked")
+	public void setUp() throws Exception {
+		validationService = mock(ValidationService.class);
+		defaulttransformService = mock(TransformService.class);
+		enrichmentService = mock(EnrichmentService.class);
+		elasticService = mock(IESService.class);
+		ingestProducer = mock(IngestProducer.class);
+		ApplicationProperties applicationProperties = mock(ApplicationProperties.class);
+		ObjectProvider<MeterRegistry> meterRegistryProvider = mock(ObjectProvider.class);
+
+		when(applicationProperties.getPipelineRules()).thenReturn(pipelineRules);
+		when(meterRegistryProvider.getIfAvailable(any())).thenReturn(meterRegistry);
+		when(validationService.validateData(anyMap())).thenReturn(true);
+		when(defaulttransformService.transformData(anyMap())).thenReturn(true);
+		when(enrichmentService.enrichData(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+		when(elasticService.push(anyMap())).thenReturn(true);
+
+		fusedPipelineService = new FusedPipelineService();
+		ReflectionTestUtils.setField(fusedPipelineService, "fusedEnabled", true);
+		ReflectionTestUtils.setField(fusedPipelineService, "batchSize", 10);
+		ReflectionTestUtils.setField(fusedPipelineService, "batchMaxWait", 10L);
+		ReflectionTestUtils.setField(fusedPipelineService, "queueCapacity", 100);
+		ReflectionTestUtils.setField(fusedPipelineService, "esPushDirect", true);
+		ReflectionTestUtils.setField(fusedPipelineService, "enrichedDataTopic", "dss-enriched-data");
+		ReflectionTestUtils.setField(fusedPipelineService, "validationService", validationService);
+		ReflectionTestUtils.setField(fusedPipelineService, "collectiontransformService", mock(TransformService.class));
+		ReflectionTestUtils.setField(fusedPipelineService, "defaulttransformService", defaulttransformService);
+		ReflectionTestUtils.setField(fusedPipelineService, "enrichmentService", enrichmentService);
+		ReflectionTestUtils.setField(fusedPipelineService, "elasticService", elasticService);
+		ReflectionTestUtils.setField(fusedPipelineService, "collectionRollupService", mock(CollectionRollupService.class));
+		ReflectionTestUtils.setField(fusedPipelineService, "ingestProducer", ingestProducer);
+		ReflectionTestUtils.setField(fusedPipelineService, "applicationProperties", applicationProperties);
+		ReflectionTestUtils.setField(fusedPipelineService, "mapper", new ObjectMapper());
+		ReflectionTestUtils.setField(fusedPipelineService, "meterRegistryProvider", meterRegistryProvider);
+	}
+
+	@After
+	public void tearDown() throws InterruptedException {
+		fusedPipelineService.stop();
+	}
+
+	@Test
+	public void testRecordIsProcessedOnlyAfterPush() throws Exception {
+		pipelineRules.put(Constants.PipelineRules.TRANSFORM_DATA, true);
+		CountDownLatch pushed = new CountDownLatch(1);
+		when(elasticService.push(anyMap())).thenAnswer(invocation -> {
+			pushed.await(10, TimeUnit.SECONDS);
+			return true;
+		});
+		fusedPipelineService.start();
+
+		CompletableFuture<Void> processed = fusedPipelineService.submit(record());
+		Thread.sleep(100);
+		assertFalse(processed.isDone());
+
+		pushed.countDown();
+		processed.get(10, TimeUnit.SECONDS);
+		verify(elasticService).push(anyMap());
+	}
+
+	@Test
+	public void testValidatedRecordsAreEnrichedWhenOnlyEnrichRuleIsSet() throws Exception {
+		pipelineRules.put(Constants.PipelineRules.VALIDATE_DATA, true);
+		pipelineRules.put(Constants.PipelineRules.ENRICH_DATA, true);
+		fusedPipelineService.start();
+
+		fusedPipelineService.submit(record()).get(10, TimeUnit.SECONDS);
+
+		verify(validationService).validateData(anyMap());
+		verify(defaulttransformService, never()).transformData(anyMap());
+		verify(enrichmentService).enrichData(anyList());
+		verify(elasticService).push(anyMap());
+	}
+
+	@Test
+	public void testRecordsGoToErrorTopicWithoutTransformOrEnrichRule() throws Exception {
+		pipelineRules.put(Constants.PipelineRules.VALIDATE_DATA, true);
+		fusedPipelineService.start();
+
+		fusedPipelineService.submit(record()).get(10, TimeUnit.SECONDS);
+
+		verify(enrichmentService, never()).enrichData(anyList());
+		verify(elasticService, never()).push(anyMap());
+		verify(ingestProducer).pushToPipeline(anyMap(), eq(Constants.KafkaTopics.ERROR_INTENT), isNull());
+	}
+
+	@Test
+	public void testFailedBatchGoesToErrorTopic() throws Exception {
+		pipelineRules.put(Constants.PipelineRules.TRANSFORM_DATA, true);
+		when(enrichmentService.enrichData(anyList())).thenThrow(new IllegalStateException("enrichment failed"));
+		fusedPipelineService.start();
+
+		fusedPipelineService.submit(record()).get(10, TimeUnit.SECONDS);
+
+		verify(elasticService, never()).push(anyMap());
+		verify(ingestProducer).pushToPipeline(anyMap(), eq(Constants.KafkaTopics.ERROR_INTENT), isNull());
+	}
+
+	@Test
+	public void testStageMetricsArePublished() throws Exception {
+		pipelineRules.put(Constants.PipelineRules.TRANSFORM_DATA, true);
+		fusedPipelineService.start();
+
+		fusedPipelineService.submit(record()).get(10, TimeUnit.SECONDS);
+		fusedPipelineService.submit(record()).get(10, TimeUnit.SECONDS);
+
+		for (String stage : new String[] { "transform", "enrich", "push" }) {
+			assertEquals(stage, 2.0, meterRegistry.get("ingest.pipeline.fused.records").tag("stage", stage).counter().count(), 0.0);
+			assertEquals(stage, 2, meterRegistry.get("ingest.pipeline.fused.stage.time").tag("stage", stage).timer().count());
+		}
+	}
+
+	private Map<String, Object> record() {
+		Map<String, Object> record = new HashMap<>();
+		record.put(Constants.DATA_CONTEXT, "property");
+		record.put("tenantId", "pb.amritsar");
+		return record;
+	}
+
+}
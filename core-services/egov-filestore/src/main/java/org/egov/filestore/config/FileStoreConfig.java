@@ -47,6 +47,18 @@ public class FileStoreConfig {
 	@Value("#{'${image.formats}'.split(',')}") 
 	private List<String> imageFormats;
 	
+	@Value("${image.thumbnail.workers}")
+	private Integer thumbnailWorkers;
+	
+	@Value("${image.thumbnail.queue.capacity}")
+	private Integer thumbnailQueueCapacity;
+	
+	@Value("${image.thumbnail.stored.cache.size}")
+	private Integer thumbnailStoredCacheSize;
+	
+	@Value("${content.sniff.prefix.bytes}")
+	private Integer contentSniffPrefixBytes;
+	
 	@PostConstruct
 	private void enrichKeysetForFormats() {
 		allowedKeySet = allowedFormatsMap.keySet();
@@ -1,16 +1,14 @@
 package org.egov.filestore.domain.service;
 
-import java.awt.image.BufferedImage;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
 import org.apache.commons.io.FilenameUtils;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.egov.common.contract.request.RequestInfo;
 import org.egov.filestore.config.FileStoreConfig;
@@ -20,15 +18,17 @@ import org.egov.filestore.domain.model.FileLocation;
 import org.egov.filestore.domain.model.Resource;
 import org.egov.filestore.persistence.repository.ArtifactRepository;
 import org.egov.filestore.repository.CloudFilesManager;
-import org.egov.filestore.repository.impl.CloudFileMgrUtils;
 import org.egov.filestore.repository.impl.minio.MinioConfig;
 import org.egov.filestore.validator.StorageValidator;
-import org.egov.tracer.model.CustomException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import lombok.extern.slf4j.Slf4j;
 
 @Service
@@ -36,16 +36,21 @@ import lombok.extern.slf4j.Slf4j;
 public class StorageService {
 
 	@Autowired
-	private CloudFileMgrUtils util;
-	
-	private FileStoreConfig configs;
+	private CloudFilesManager cloudFilesManager;
 
 	@Autowired
-	private CloudFilesManager cloudFilesManager;
+	private ThumbnailService thumbnailService;
+
+	@Autowired(required = false)
+	private MeterRegistry meterRegistry;
 
 	private static final String UPLOAD_MESSAGE = "Received upload request for "
 			+ "jurisdiction: %s, module: %s, tag: %s with file count: %s";
 
+	private static final String UPLOAD_BYTES_METRIC = "filestore.upload.bytes";
+
+	private static final String UPLOAD_RATE_METRIC = "filestore.upload.rate";
+
 	private ArtifactRepository artifactRepository;
 	private IdGeneratorService idGeneratorService;
 
@@ -70,28 +75,33 @@ public class StorageService {
 
 	@Autowired
 	public StorageService(ArtifactRepository artifactRepository, IdGeneratorService idGeneratorService,
-			FileStoreConfig fileStoreConfig, StorageValidator storageValidator, FileStoreConfig configs, MinioConfig minioConfig) {
+			FileStoreConfig fileStoreConfig, StorageValidator storageValidator, MinioConfig minioConfig) {
 		this.artifactRepository = artifactRepository;
 		this.idGeneratorService = idGeneratorService;
 		this.fileStoreConfig = fileStoreConfig;
 		this.storageValidator = storageValidator;
 		this.minioConfig = minioConfig;
-		this.configs = configs;
 	}
 
 	public List<String> save(List<MultipartFile> filesToStore, String module, String tag, String tenantId, RequestInfo requestInfo) {
 
 		log.info(UPLOAD_MESSAGE, module, tag, filesToStore.size());
+		long start = System.nanoTime();
 		List<Artifact> artifacts = mapFilesToArtifact(filesToStore, module, tag, tenantId);
-		return this.artifactRepository.save(artifacts, requestInfo);
+		List<String> fileStoreIds = this.artifactRepository.save(artifacts, requestInfo);
+		recordUpload(filesToStore, System.nanoTime() - start);
+
+		for (Artifact artifact : artifacts) {
+			if (fileStoreConfig.getImageFormats().contains(FilenameUtils.getExtension(artifact.getMultipartFile().getOriginalFilename())))
+				thumbnailService.submit(artifact);
+		}
+		return fileStoreIds;
 	}
 
 	private List<Artifact> mapFilesToArtifact(List<MultipartFile> files, String module, String tag, String tenantId) {
 
 		final String folderName = getFolderName(module, tenantId);
-		String inputStreamAsString = null;
 		List<Artifact> artifacts = new ArrayList<>();
-		Artifact artifact = null;
 		for (MultipartFile file : files) {
 			String randomString = RandomStringUtils.random(filenameLength, useLetters, useNumbers);
 			String orignalFileName = file.getOriginalFilename();
@@ -99,49 +109,26 @@ public class StorageService {
 			String fileName = folderName + System.currentTimeMillis() + randomString + "." +imagetype;
 			String id = this.idGeneratorService.getId();
 			FileLocation fileLocation = new FileLocation(id, module, tag, tenantId, fileName, null);
-			try {
-				inputStreamAsString = IOUtils.toString(file.getInputStream(), fileStoreConfig.getImageCharsetType());
-				artifact = Artifact.builder().fileContentInString(inputStreamAsString).multipartFile(file)
-						.fileLocation(fileLocation).build();
-				artifacts.add(artifact);
-
-			} catch (IOException e) {
-				// TODO Auto-generated catch block
-				log.error("IO Exception while mapping files to artifact: " + e.getMessage());
-			}
+			Artifact artifact = Artifact.builder().multipartFile(file).fileLocation(fileLocation).build();
 			storageValidator.validate(artifact);
-			
-			if (fileStoreConfig.getImageFormats().contains(FilenameUtils.getExtension(artifact.getMultipartFile().getOriginalFilename())))
-				setThumbnailImages(artifact);
+			artifacts.add(artifact);
 		}
 
 		return artifacts;
 	}
 
-	private void setThumbnailImages(Artifact artifact) {
-		
-		String completeName = artifact.getFileLocation().getFileName();
-		int index = completeName.indexOf('/');
-		String fileNameWithPath = completeName.substring(index + 1, completeName.length());
-
-		try {
-
-			String imagetype = FilenameUtils.getExtension(artifact.getMultipartFile().getOriginalFilename());
-			String inputStreamAsString = artifact.getFileContentInString();
-			if (fileStoreConfig.getImageFormats().contains(imagetype)) {
-
-				InputStream ipStreamForImg = IOUtils.toInputStream(inputStreamAsString, configs.getImageCharsetType());
-				Map<String, BufferedImage> mapOfImagesAndPaths = util.createVersionsOfImage(ipStreamForImg,
-						fileNameWithPath);
-				artifact.setThumbnailImages(mapOfImagesAndPaths);
-			}
-
-		} catch (IOException e) {
-			// TODO Auto-generated catch block
-			log.error("EG_FILESTORE_INPUT_ERROR", e);
-			throw new CustomException("EG_FILESTORE_INPUT_ERROR", "Failed to read input stream from multipart file");
-		}
-
+	/**
+	 * Records the bytes uploaded and the upload rate, the time includes the validation
+	 * and the upload of the originals to the storage
+	 */
+	private void recordUpload(List<MultipartFile> files, long nanos) {
+		long bytes = files.stream().mapToLong(MultipartFile::getSize).sum();
+		MeterRegistry registry = meterRegistry != null ? meterRegistry : Metrics.globalRegistry;
+		Counter.builder(UPLOAD_BYTES_METRIC).description("Bytes uploaded to the file store").baseUnit("bytes")
+				.register(registry).increment(bytes);
+		if (nanos > 0)
+			DistributionSummary.builder(UPLOAD_RATE_METRIC).description("Upload rate of a request")
+					.baseUnit("bytes/second").register(registry).record(bytes * 1e9 / nanos);
 	}
 
 	private String getFolderName(String module, String tenantId) {
@@ -159,11 +146,30 @@ public class StorageService {
 	}
 
 	public Map<String, String> getUrls(String tenantId, List<String> fileStoreIds) {
-		Map<String, String> urlMap = getUrlMap(
-				artifactRepository.getByTenantIdAndFileStoreIdList(tenantId, fileStoreIds));
+		List<org.egov.filestore.persistence.entity.Artifact> artifacts = artifactRepository
+				.getByTenantIdAndFileStoreIdList(tenantId, fileStoreIds);
+		Map<String, String> urlMap = getUrlMap(artifacts);
+		if (thumbnailService != null && urlMap != null) {
+			for (org.egov.filestore.persistence.entity.Artifact artifact : artifacts) {
+				String urls = urlMap.get(artifact.getFileStoreId());
+				if (urls != null && urls.indexOf(',') >= 0
+						&& !thumbnailService.hasVersions(artifact.getFileStoreId(), artifact.getFileName()))
+					urlMap.put(artifact.getFileStoreId(), getOriginalUrls(urls));
+			}
+		}
 		return urlMap;
 	}
 
+	/**
+	 * Points the urls of the image versions which are not stored to the original image, the
+	 * urls are comma separated with the original first followed by the large, medium and small versions
+	 */
+	private String getOriginalUrls(String urls) {
+		String[] urlList = urls.split(",");
+		Arrays.fill(urlList, urlList[0]);
+		return String.join(",", urlList);
+	}
+
 	private Map<String, String> getUrlMap(List<org.egov.filestore.persistence.entity.Artifact> artifactList) {
 		return cloudFilesManager.getFiles(artifactList);
 	}
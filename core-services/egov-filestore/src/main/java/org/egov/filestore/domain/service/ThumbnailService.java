@@ -0,0 +1,195 @@
+package org.egov.filestore.domain.service;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.io.FilenameUtils;
+import org.egov.filestore.config.FileStoreConfig;
+import org.egov.filestore.domain.model.Artifact;
+import org.egov.filestore.domain.model.FileLocation;
+import org.egov.filestore.repository.CloudFilesManager;
+import org.egov.filestore.repository.impl.CloudFileMgrUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Creates the small, medium and large versions of the uploaded images on a pool of background workers, the
+ * upload request returns once the original is stored. The image is copied to a temporary file before the request
+ * completes as the multipart file is cleaned up with the request. When the queue is full the version creation
+ * runs on the uploading thread.
+ *
+ * The file store ids whose versions are yet to be stored on this instance are tracked, their urls are served
+ * from the original until then. The versions of the other images are looked up in the storage, as they may be
+ * pending on another instance or may have failed, and the original is served while any of them is missing.
+ */
+@Service
+@Slf4j
+public class ThumbnailService {
+
+	private static final String RESIZE_METRIC = "filestore.thumbnail.resize";
+
+	private static final String FAILURE_METRIC = "filestore.thumbnail.failures";
+
+	private static final String QUEUE_METRIC = "filestore.thumbnail.queue.size";
+
+	private final CloudFileMgrUtils util;
+
+	private final CloudFilesManager cloudFilesManager;
+
+	private final FileStoreConfig fileStoreConfig;
+
+	private final Set<String> pendingFileStoreIds = ConcurrentHashMap.newKeySet();
+
+	private Set<String> storedFileStoreIds;
+
+	private final Timer resizeTimer;
+
+	private final Counter failures;
+
+	private final MeterRegistry registry;
+
+	private ThreadPoolExecutor executor;
+
+	@Autowired
+	public ThumbnailService(CloudFileMgrUtils util, CloudFilesManager cloudFilesManager,
+			FileStoreConfig fileStoreConfig, ObjectProvider<MeterRegistry> meterRegistry) {
+		this.util = util;
+		this.cloudFilesManager = cloudFilesManager;
+		this.fileStoreConfig = fileStoreConfig;
+		MeterRegistry registry = meterRegistry.getIfAvailable();
+		this.registry = registry != null ? registry : Metrics.globalRegistry;
+		this.resizeTimer = Timer.builder(RESIZE_METRIC).description("Time taken to create the versions of an image")
+				.register(this.registry);
+		this.failures = Counter.builder(FAILURE_METRIC)
+				.description("Images whose versions could not be created or stored").register(this.registry);
+	}
+
+	@PostConstruct
+	public void start() {
+		int storedCacheSize = fileStoreConfig.getThumbnailStoredCacheSize();
+		storedFileStoreIds = Collections.newSetFromMap(Collections.synchronizedMap(new LinkedHashMap<String, Boolean>() {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+				return size() > storedCacheSize;
+			}
+		}));
+		AtomicInteger threadCount = new AtomicInteger();
+		executor = new ThreadPoolExecutor(fileStoreConfig.getThumbnailWorkers(), fileStoreConfig.getThumbnailWorkers(),
+				0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(fileStoreConfig.getThumbnailQueueCapacity()),
+				runnable -> {
+					Thread thread = new Thread(runnable, "thumbnail-worker-" + threadCount.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}, new ThreadPoolExecutor.CallerRunsPolicy());
+		registry.gauge(QUEUE_METRIC, executor.getQueue(), queue -> queue.size());
+	}
+
+	@PreDestroy
+	public void stop() throws InterruptedException {
+		executor.shutdown();
+		if (!executor.awaitTermination(30, TimeUnit.SECONDS))
+			log.warn("Thumbnail workers did not finish in time, " + executor.getQueue().size()
+					+ " images are left without versions");
+	}
+
+	/**
+	 * Queues the creation of the versions of the stored image
+	 *
+	 * @param artifact
+	 */
+	public void submit(Artifact artifact) {
+		FileLocation fileLocation = artifact.getFileLocation();
+		String contentType = artifact.getMultipartFile().getContentType();
+		Path image;
+		try (InputStream inputStream = artifact.getMultipartFile().getInputStream()) {
+			image = Files.createTempFile("filestore-", "." + FilenameUtils.getExtension(fileLocation.getFileName()));
+			Files.copy(inputStream, image, StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			log.error("Failed to copy the image for creating its versions: ", e);
+			failures.increment();
+			return;
+		}
+		pendingFileStoreIds.add(fileLocation.getFileStoreId());
+		executor.execute(() -> createVersionsOfImage(fileLocation, contentType, image));
+	}
+
+	/**
+	 * @param fileStoreId
+	 * @return true if the versions of the image are yet to be stored
+	 */
+	public boolean isPending(String fileStoreId) {
+		return pendingFileStoreIds.contains(fileStoreId);
+	}
+
+	/**
+	 * @param fileStoreId
+	 * @param fileName stored name of the image
+	 * @return true if all the versions of the image are stored, the storage is looked up unless the versions were
+	 *         stored by this instance or found earlier
+	 */
+	public boolean hasVersions(String fileStoreId, String fileName) {
+		if (isPending(fileStoreId))
+			return false;
+		if (storedFileStoreIds.contains(fileStoreId))
+			return true;
+		String extension = fileName.substring(fileName.lastIndexOf('.'));
+		String[] versions = { fileStoreConfig.get_large(), fileStoreConfig.get_medium(), fileStoreConfig.get_small() };
+		for (String version : versions) {
+			if (!cloudFilesManager.exists(fileName.replace(extension, version + extension)))
+				return false;
+		}
+		storedFileStoreIds.add(fileStoreId);
+		return true;
+	}
+
+	private void createVersionsOfImage(FileLocation fileLocation, String contentType, Path image) {
+		String completeName = fileLocation.getFileName();
+		String fileNameWithPath = completeName.substring(completeName.indexOf('/') + 1);
+		try (InputStream inputStream = Files.newInputStream(image)) {
+			long start = System.nanoTime();
+			Map<String, BufferedImage> mapOfImagesAndPaths = util.createVersionsOfImage(inputStream, fileNameWithPath);
+			resizeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			if (mapOfImagesAndPaths.isEmpty()) {
+				failures.increment();
+				return;
+			}
+			cloudFilesManager.saveThumbnailImages(fileLocation, contentType, mapOfImagesAndPaths);
+			storedFileStoreIds.add(fileLocation.getFileStoreId());
+			mapOfImagesAndPaths.values().forEach(BufferedImage::flush);
+		} catch (Exception e) {
+			log.error("Error while storing the versions of the image " + fileNameWithPath + ": ", e);
+			failures.increment();
+		} finally {
+			pendingFileStoreIds.remove(fileLocation.getFileStoreId());
+			try {
+				Files.deleteIfExists(image);
+			} catch (IOException e) {
+				log.warn("Failed to delete the temporary image " + image, e);
+			}
+		}
+	}
+
+}
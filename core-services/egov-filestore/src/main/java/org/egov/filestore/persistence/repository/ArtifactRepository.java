@@ -11,6 +11,7 @@ import org.egov.filestore.domain.model.FileLocation;
 import org.egov.filestore.domain.model.Resource;
 import org.egov.filestore.persistence.entity.Artifact;
 import org.egov.filestore.repository.CloudFilesManager;
+import org.egov.filestore.repository.impl.disk.DiskFileStoreRepository;
 import org.egov.filestore.repository.impl.minio.MinioRepository;
 import org.egov.tracer.model.CustomException;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,6 +32,9 @@ public class ArtifactRepository {
 	@Value("${source.azure.blob}")
 	private String azureBlobSource;
 
+	@Value("${disk.source}")
+	private String diskSource;
+
 	
 
 	public ArtifactRepository(FileStoreJpaRepository fileStoreJpaRepository) {
@@ -110,6 +114,10 @@ public class ArtifactRepository {
 		// if only DiskFileStoreRepository use read else ignore
 		MinioRepository repo = (MinioRepository) cloudFilesManager;
 		resource = repo.read(artifact.getFileLocation());
+	} else if (artifact.getFileLocation().getFileSource().equals(diskSource)) {
+		// served from the disk as it is, without a local copy
+		DiskFileStoreRepository repo = (DiskFileStoreRepository) cloudFilesManager;
+		resource = repo.read(artifact.getFileLocation());
 	}
 		 
       if(null!=resource)
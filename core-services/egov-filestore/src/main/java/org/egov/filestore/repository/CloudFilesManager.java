@@ -1,9 +1,11 @@
 package org.egov.filestore.repository;
 
+import java.awt.image.BufferedImage;
 import java.util.List;
 import java.util.Map;
 
 import org.egov.filestore.domain.model.Artifact;
+import org.egov.filestore.domain.model.FileLocation;
 
 public interface CloudFilesManager {
 	
@@ -15,6 +17,17 @@ public interface CloudFilesManager {
 	 * @param artifacts
 	 */
 	public void saveFiles(List<Artifact> artifacts);
+
+	/**
+	 * Interface to save the small, medium and large versions of an image saved earlier.
+	 * Called from the thumbnail workers once the upload request has returned.
+	 * 
+	 * @param fileLocation location of the original image
+	 * @param contentType content type of the original image
+	 * @param mapOfImagesAndPaths versions of the image by their paths
+	 */
+	public void saveThumbnailImages(FileLocation fileLocation, String contentType,
+			Map<String, BufferedImage> mapOfImagesAndPaths);
 	
 	/**
 	 * Interface to fetch files from the cloud storage. 
@@ -28,4 +41,12 @@ public interface CloudFilesManager {
 	 */
 	public Map<String, String> getFiles(List<org.egov.filestore.persistence.entity.Artifact> artifacts);
 
+	/**
+	 * Interface to check whether a file is present in the cloud storage.
+	 * 
+	 * @param fileName stored name of the file, prefixed by its bucket or container
+	 * @return true if the file is stored
+	 */
+	public boolean exists(String fileName);
+
 }
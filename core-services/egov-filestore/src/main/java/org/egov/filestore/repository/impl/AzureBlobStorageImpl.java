@@ -14,6 +14,7 @@ import javax.imageio.ImageIO;
 
 import org.apache.commons.io.FilenameUtils;
 import org.egov.filestore.domain.model.Artifact;
+import org.egov.filestore.domain.model.FileLocation;
 import org.egov.filestore.repository.AzureClientFacade;
 import org.egov.filestore.repository.CloudFilesManager;
 import org.egov.tracer.model.CustomException;
@@ -28,7 +29,6 @@ import com.microsoft.azure.storage.blob.BlobRequestOptions;
 import com.microsoft.azure.storage.blob.CloudBlobClient;
 import com.microsoft.azure.storage.blob.CloudBlobContainer;
 import com.microsoft.azure.storage.blob.CloudBlockBlob;
-import com.microsoft.azure.storage.blob.ListBlobItem;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -80,39 +80,51 @@ public class AzureBlobStorageImpl implements CloudFilesManager {
 			azureBlobClient = azureFacade.getAzureClient();
 		
 		artifacts.forEach(artifact -> {
-			CloudBlobContainer container= null;
 			String completeName = artifact.getFileLocation().getFileName();
 			int index = completeName.indexOf('/');
-			String containerName = completeName.substring(0, index);
 			String fileNameWithPath = completeName.substring(index + 1, completeName.length());
-			try {
-				if(isContainerFixed)
-					container = azureBlobClient.getContainerReference(fixedContainerName);
-				else
-					container = azureBlobClient.getContainerReference(containerName);
-				container.createIfNotExists(BlobContainerPublicAccessType.CONTAINER, new BlobRequestOptions(), new OperationContext());
-				
+			try (InputStream inputStream = new BufferedInputStream(artifact.getMultipartFile().getInputStream())) {
+				CloudBlobContainer container = getContainer(completeName);
 				Long contentLength = artifact.getMultipartFile().getSize();
-				BufferedInputStream inputStream = new BufferedInputStream(artifact.getMultipartFile().getInputStream());
-				
-				if(artifact.getMultipartFile().getContentType().startsWith("image/")) {
-					String extension = FilenameUtils.getExtension(artifact.getMultipartFile().getOriginalFilename());
-					Map<String, BufferedImage> mapOfImagesAndPaths = util.createVersionsOfImage(inputStream, fileNameWithPath);
-					for(String key: mapOfImagesAndPaths.keySet()) {
-						upload(container, key, null, null, mapOfImagesAndPaths.get(key), extension);
-						mapOfImagesAndPaths.get(key).flush();
-					}
-				}
 				upload(container, fileNameWithPath, inputStream, contentLength, null, null);
-				
-				for (ListBlobItem blobItem : container.listBlobs())
-					log.info("URI of blob is: " + blobItem.getStorageUri().getPrimaryUri());
 			} catch (Exception e) {
 				log.error("Exceptione while creating the container: ", e);
 			}
 			
 		});			
 	}
+
+	/**
+	 * Uploads the versions of the image, the versions are created by the thumbnail workers
+	 * once the original is uploaded
+	 * 
+	 */
+	@Override
+	public void saveThumbnailImages(FileLocation fileLocation, String contentType,
+			Map<String, BufferedImage> mapOfImagesAndPaths) {
+		if(null == azureBlobClient)
+			azureBlobClient = azureFacade.getAzureClient();
+		
+		String extension = FilenameUtils.getExtension(fileLocation.getFileName());
+		try {
+			CloudBlobContainer container = getContainer(fileLocation.getFileName());
+			for(Map.Entry<String, BufferedImage> entry: mapOfImagesAndPaths.entrySet())
+				upload(container, entry.getKey(), null, null, entry.getValue(), extension);
+		} catch (Exception e) {
+			log.error("Exceptione while creating the container: ", e);
+			throw new CustomException("WG_WF_UPLOAD_ERROR", e.getMessage());
+		}
+	}
+
+	private CloudBlobContainer getContainer(String completeName) throws Exception {
+		CloudBlobContainer container;
+		if(isContainerFixed)
+			container = azureBlobClient.getContainerReference(fixedContainerName);
+		else
+			container = azureBlobClient.getContainerReference(completeName.substring(0, completeName.indexOf('/')));
+		container.createIfNotExists(BlobContainerPublicAccessType.CONTAINER, new BlobRequestOptions(), new OperationContext());
+		return container;
+	}
 	
 	/**
 	 * There's a problem with this implementation: In case of images, we are trying to retrieve 4 different versions of the same file namely - 
@@ -199,6 +211,20 @@ public class AzureBlobStorageImpl implements CloudFilesManager {
 		// TODO Auto-generated method stub
 		return null;
 	}
+
+	@Override
+	public boolean exists(String fileName) {
+		if(null == azureBlobClient)
+			azureBlobClient = azureFacade.getAzureClient();
+		try {
+			CloudBlobContainer container = isContainerFixed ? azureBlobClient.getContainerReference(fixedContainerName)
+					: azureBlobClient.getContainerReference(fileName.substring(0, fileName.indexOf('/')));
+			return container.getBlockBlobReference(fileName.substring(fileName.indexOf('/') + 1)).exists();
+		} catch (Exception e) {
+			log.error("Exception while looking up the blob " + fileName + ": ", e);
+			return false;
+		}
+	}
 	
 	
 }
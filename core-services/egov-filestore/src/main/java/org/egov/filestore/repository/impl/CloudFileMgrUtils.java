@@ -42,7 +42,8 @@ public class CloudFileMgrUtils {
 	/**
 	 * This method creates different versions of an image. A single image will be
 	 * stored in small, medium and large formats along with the original image. This
-	 * is to facililate fasters searches on the app
+	 * is to facililate fasters searches on the app. The versions are flushed by the
+	 * caller once they are stored, an empty map is returned if the image can not be read.
 	 * 
 	 * @param file
 	 * @param fileName
@@ -51,9 +52,6 @@ public class CloudFileMgrUtils {
 	public Map<String, BufferedImage> createVersionsOfImage(InputStream inputStream, String fileName) {
 		
 		Map<String, BufferedImage> mapOfImagesAndPaths = new HashMap<>();
-		BufferedImage largeImage = null;
-		BufferedImage mediumImg = null;
-		BufferedImage smallImg = null;
 		try {
 			
 			BufferedImage originalImage = ImageIO.read(inputStream);
@@ -65,12 +63,13 @@ public class CloudFileMgrUtils {
 				throw new CustomException(map);
 			}
 			
-			 largeImage = Scalr.resize(originalImage, Method.QUALITY, Mode.AUTOMATIC, fileStoreConfig.getLargeWidth(), null,
+			BufferedImage largeImage = Scalr.resize(originalImage, Method.QUALITY, Mode.AUTOMATIC, fileStoreConfig.getLargeWidth(), null,
 					Scalr.OP_ANTIALIAS);
-			 mediumImg = Scalr.resize(originalImage, Method.QUALITY, Mode.AUTOMATIC, fileStoreConfig.getMediumWidth(), null,
+			BufferedImage mediumImg = Scalr.resize(originalImage, Method.QUALITY, Mode.AUTOMATIC, fileStoreConfig.getMediumWidth(), null,
 					Scalr.OP_ANTIALIAS);
-			 smallImg = Scalr.resize(originalImage, Method.QUALITY, Mode.AUTOMATIC, fileStoreConfig.getSmallWidth(), null,
+			BufferedImage smallImg = Scalr.resize(originalImage, Method.QUALITY, Mode.AUTOMATIC, fileStoreConfig.getSmallWidth(), null,
 					Scalr.OP_ANTIALIAS);
+			originalImage.flush();
 
 			int lastIndex = fileName.length();
 			String replaceString = fileName.substring(fileName.lastIndexOf('.'), lastIndex);
@@ -82,10 +81,6 @@ public class CloudFileMgrUtils {
 			log.info("Different versions of the image created!");
 		} catch (Exception e) {
 			log.error("Error while creating different versions of the image: ", e);
-		} finally {
-			largeImage.flush();
-			mediumImg.flush();
-			smallImg.flush();
 		}
 
 		return mapOfImagesAndPaths;
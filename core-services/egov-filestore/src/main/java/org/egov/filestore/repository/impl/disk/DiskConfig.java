@@ -0,0 +1,33 @@
+package org.egov.filestore.repository.impl.disk;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+
+@Configuration
+@Getter
+public class DiskConfig {
+
+	@Value("${disk.storage.root}")
+	private String storageRoot;
+
+	@Value("${disk.source}")
+	private String source;
+
+	/**
+	 * Host the signed urls are served from, the gateway or the file store itself
+	 */
+	@Value("${disk.url.host}")
+	private String urlHost;
+
+	/**
+	 * Path the files are served under, the stored path of a file is appended to it
+	 */
+	@Value("${disk.url.path}")
+	private String urlPath;
+
+	@Value("${disk.url.secret}")
+	private String urlSecret;
+
+}
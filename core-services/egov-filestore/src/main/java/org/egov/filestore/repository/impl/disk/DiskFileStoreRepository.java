@@ -0,0 +1,256 @@
+package org.egov.filestore.repository.impl.disk;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.PostConstruct;
+import javax.imageio.ImageIO;
+
+import org.apache.commons.io.FilenameUtils;
+import org.egov.filestore.config.FileStoreConfig;
+import org.egov.filestore.domain.model.FileLocation;
+import org.egov.filestore.persistence.entity.Artifact;
+import org.egov.filestore.repository.CloudFilesManager;
+import org.egov.filestore.repository.impl.CloudFileMgrUtils;
+import org.egov.tracer.model.CustomException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Stores the files on a local or network mounted disk for deployments without an object storage.
+ *
+ * Files are content addressed, a file is stored under the sha-256 of its content in directories
+ * sharded on the first two bytes of the hash, uploads of the same content share the stored file.
+ * The stored path replaces the generated file name of the artifact, the image versions are stored
+ * next to the original.
+ *
+ * The urls are signed the way the nginx secure_link module checks them, so the gateway can serve
+ * the files from the disk directly. Without such a gateway the files are served by
+ * {@link org.egov.filestore.web.controller.DiskFileController}.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(value = "isDiskStorageEnabled", havingValue = "true")
+public class DiskFileStoreRepository implements CloudFilesManager {
+
+	private static final String TEMP_DIRECTORY = ".tmp";
+
+	private final DiskConfig diskConfig;
+
+	private final FileStoreConfig fileStoreConfig;
+
+	private final CloudFileMgrUtils util;
+
+	private Path root;
+
+	@Autowired
+	public DiskFileStoreRepository(DiskConfig diskConfig, FileStoreConfig fileStoreConfig, CloudFileMgrUtils util) {
+		this.diskConfig = diskConfig;
+		this.fileStoreConfig = fileStoreConfig;
+		this.util = util;
+	}
+
+	@PostConstruct
+	public void init() throws IOException {
+		root = Paths.get(diskConfig.getStorageRoot()).toAbsolutePath().normalize();
+		Files.createDirectories(root.resolve(TEMP_DIRECTORY));
+		log.info("Storing files under " + root);
+	}
+
+	@Override
+	public void saveFiles(List<org.egov.filestore.domain.model.Artifact> artifacts) {
+		artifacts.forEach(artifact -> {
+			FileLocation fileLocation = artifact.getFileLocation();
+			String completeName = fileLocation.getFileName();
+			String folderName = completeName.substring(0, completeName.indexOf('/') + 1);
+			String path = store(artifact.getMultipartFile(), FilenameUtils.getExtension(completeName));
+			fileLocation.setFileName(folderName + path);
+			fileLocation.setFileSource(diskConfig.getSource());
+		});
+	}
+
+	@Override
+	public void saveThumbnailImages(FileLocation fileLocation, String contentType,
+			Map<String, BufferedImage> mapOfImagesAndPaths) {
+		String extension = FilenameUtils.getExtension(fileLocation.getFileName());
+		for (Map.Entry<String, BufferedImage> entry : mapOfImagesAndPaths.entrySet()) {
+			Path target = resolve(entry.getKey());
+			try {
+				Path temp = createTempFile();
+				try (OutputStream os = Files.newOutputStream(temp)) {
+					ImageIO.write(entry.getValue(), extension, os);
+				}
+				Files.createDirectories(target.getParent());
+				Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (IOException e) {
+				log.error("Exception while storing the image: ", e);
+				throw new CustomException("EG_FILESTORE_DISK_ERROR", "Failed to store the image on disk");
+			}
+		}
+	}
+
+	@Override
+	public Map<String, String> getFiles(List<Artifact> artifacts) {
+		Map<String, String> mapOfIdAndSignedUrls = new HashMap<>();
+		for (Artifact artifact : artifacts) {
+			String fileLocation = artifact.getFileLocation().getFileName();
+			String fileName = fileLocation.substring(fileLocation.indexOf('/') + 1);
+			StringBuilder url = new StringBuilder(getSignedUrl(fileName));
+			if (util.isFileAnImage(artifact.getFileName())) {
+				/* the order of the versions is the one used by the other storages, the UI reads them by index */
+				String extension = fileName.substring(fileName.lastIndexOf('.'));
+				String[] imageFormats = { fileStoreConfig.get_large(), fileStoreConfig.get_medium(),
+						fileStoreConfig.get_small() };
+				for (String format : imageFormats)
+					url.append(",").append(getSignedUrl(fileName.replace(extension, format + extension)));
+			}
+			mapOfIdAndSignedUrls.put(artifact.getFileStoreId(), url.toString());
+		}
+		return mapOfIdAndSignedUrls;
+	}
+
+	@Override
+	public boolean exists(String fileName) {
+		return Files.isRegularFile(resolve(fileName.substring(fileName.indexOf('/') + 1)));
+	}
+
+	/**
+	 * @param fileLocation
+	 * @return the stored file, read from the disk as it is served
+	 */
+	public Resource read(FileLocation fileLocation) {
+		String completeName = fileLocation.getFileName();
+		return read(completeName.substring(completeName.indexOf('/') + 1));
+	}
+
+	/**
+	 * @param path stored path of the file
+	 * @return the stored file
+	 */
+	public Resource read(String path) {
+		Path file = resolve(path);
+		if (!Files.isRegularFile(file))
+			throw new CustomException("NOT_FOUND", "Invalid filestoreid or tenantid");
+		return new FileSystemResource(file);
+	}
+
+	/**
+	 * Signs the path the way the nginx secure_link module checks it with
+	 * <code>secure_link $arg_md5,$arg_expires</code> and
+	 * <code>secure_link_md5 "$secure_link_expires$uri secret"</code>
+	 *
+	 * @param path stored path of the file
+	 * @return url of the file valid for the presigned url expiry
+	 */
+	public String getSignedUrl(String path) {
+		long expires = System.currentTimeMillis() / 1000 + fileStoreConfig.getPreSignedUrlTimeOut();
+		String uri = diskConfig.getUrlPath() + "/" + path;
+		return diskConfig.getUrlHost() + uri + "?expires=" + expires + "&md5=" + sign(uri, expires);
+	}
+
+	/**
+	 * @param path stored path of the file
+	 * @param expires expiry of the url in epoch seconds
+	 * @param signature signature of the url
+	 * @return true if the url was signed by {@link #getSignedUrl(String)} and has not expired
+	 */
+	public boolean isValidSignature(String path, long expires, String signature) {
+		if (signature == null || expires < System.currentTimeMillis() / 1000)
+			return false;
+		String expected = sign(diskConfig.getUrlPath() + "/" + path, expires);
+		return MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8),
+				signature.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private String sign(String uri, long expires) {
+		byte[] digest = DigestUtils
+				.md5Digest((expires + uri + " " + diskConfig.getUrlSecret()).getBytes(StandardCharsets.UTF_8));
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+	}
+
+	/**
+	 * Streams the file to a temporary file while hashing it and moves it under its hash
+	 *
+	 * @return path of the stored file relative to the root
+	 */
+	private String store(MultipartFile multipartFile, String extension) {
+		Path temp = null;
+		try {
+			temp = createTempFile();
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			try (InputStream is = new DigestInputStream(multipartFile.getInputStream(), digest)) {
+				Files.copy(is, temp, StandardCopyOption.REPLACE_EXISTING);
+			}
+			String hash = toHex(digest.digest());
+			String path = hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash
+					+ (extension.isEmpty() ? "" : "." + extension);
+			Path target = resolve(path);
+			Files.createDirectories(target.getParent());
+			try {
+				Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+			} catch (FileAlreadyExistsException e) {
+				log.debug("File " + path + " is already stored");
+			}
+			return path;
+		} catch (IOException | NoSuchAlgorithmException e) {
+			log.error("Exception while storing the file: ", e);
+			throw new CustomException("EG_FILESTORE_DISK_ERROR", "Failed to store the file on disk");
+		} finally {
+			deleteQuietly(temp);
+		}
+	}
+
+	private Path createTempFile() throws IOException {
+		return Files.createTempFile(root.resolve(TEMP_DIRECTORY), "upload-", ".tmp");
+	}
+
+	/**
+	 * Resolves the path under the root, paths leading out of it are rejected
+	 */
+	private Path resolve(String path) {
+		Path file = root.resolve(path).normalize();
+		if (!file.startsWith(root) || file.startsWith(root.resolve(TEMP_DIRECTORY)))
+			throw new CustomException("EG_FILESTORE_INVALID_INPUT", "Invalid file path");
+		return file;
+	}
+
+	private static void deleteQuietly(Path path) {
+		if (path == null)
+			return;
+		try {
+			Files.deleteIfExists(path);
+		} catch (IOException e) {
+			log.warn("Failed to delete the temporary file " + path, e);
+		}
+	}
+
+	private static String toHex(byte[] bytes) {
+		StringBuilder hex = new StringBuilder(bytes.length * 2);
+		for (byte b : bytes)
+			hex.append(String.format("%02x", b));
+		return hex.toString();
+	}
+
+}
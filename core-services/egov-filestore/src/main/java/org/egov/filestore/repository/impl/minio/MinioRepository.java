@@ -73,9 +73,6 @@ public class MinioRepository implements CloudFilesManager {
 			String fileNameWithPath = completeName.substring(index + 1, completeName.length());
 			push(artifact.getMultipartFile(), fileNameWithPath);
 
-			if (artifact.getThumbnailImages() != null && !artifact.getThumbnailImages().isEmpty())
-				pushThumbnailImages(artifact);
-
 			fileLocation.setFileSource(minioConfig.getSource());
 			persistList.add(mapToEntity(artifact));
 
@@ -85,8 +82,7 @@ public class MinioRepository implements CloudFilesManager {
 	
 
 	private void push(MultipartFile multipartFile, String fileNameWithPath) {
-		try {
-			InputStream is = multipartFile.getInputStream();
+		try (InputStream is = multipartFile.getInputStream()) {
 			long contentLength = multipartFile.getSize();
 			PutObjectOptions putObjectOptions = new PutObjectOptions(contentLength, PutObjectOptions.MAX_PART_SIZE);
 			putObjectOptions.setContentType(multipartFile.getContentType());
@@ -115,17 +111,19 @@ public class MinioRepository implements CloudFilesManager {
 
 	}
 
-	private void pushThumbnailImages(org.egov.filestore.domain.model.Artifact artifact) {
+	@Override
+	public void saveThumbnailImages(FileLocation fileLocation, String contentType,
+			Map<String, BufferedImage> mapOfImagesAndPaths) {
 
 		try {
 
-			for (Map.Entry<String, BufferedImage> entry : artifact.getThumbnailImages().entrySet()) {
+			String extension = FilenameUtils.getExtension(fileLocation.getFileName());
+			for (Map.Entry<String, BufferedImage> entry : mapOfImagesAndPaths.entrySet()) {
 				ByteArrayOutputStream os = new ByteArrayOutputStream();
-				ImageIO.write(entry.getValue(),
-						FilenameUtils.getExtension(artifact.getMultipartFile().getOriginalFilename()), os);
+				ImageIO.write(entry.getValue(), extension, os);
 				byte[] byteArray = os.toByteArray();
 				ByteArrayInputStream is = new ByteArrayInputStream(byteArray);
-				push(is, byteArray.length, artifact.getMultipartFile().getContentType(), entry.getKey());
+				push(is, byteArray.length, contentType, entry.getKey());
 				os.flush();
 			}
 
@@ -193,6 +191,19 @@ public class MinioRepository implements CloudFilesManager {
 		return signedUrl;
 	}
 
+	@Override
+	public boolean exists(String fileName) {
+		try {
+			minioClient.statObject(minioConfig.getBucketName(), fileName.substring(fileName.indexOf('/') + 1));
+			return true;
+		} catch (ErrorResponseException e) {
+			return false;
+		} catch (Exception e) {
+			log.error("Exception while looking up the file " + fileName + ": ", e);
+			return false;
+		}
+	}
+
 	public Resource read(FileLocation fileLocation) {
 
 		Resource resource = null;
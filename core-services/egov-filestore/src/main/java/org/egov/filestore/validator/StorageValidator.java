@@ -20,6 +20,22 @@ import org.springframework.web.multipart.MultipartFile;
 public class StorageValidator {
 
     private static final long MAX_IMAGE_SIZE = 5 * 1024 * 1024; // 5MB
+
+    private static final Tika TIKA = new Tika();
+
+    private static final List<Pattern> MALICIOUS_PATTERNS = Arrays.asList(
+        Pattern.compile("(?i)<script>.*?</script>"),
+        Pattern.compile("(?i)document\\.cookie"),
+        Pattern.compile("(?i)eval\\(.*?\\)"),
+        Pattern.compile("(?i)onerror\\s*=\\s*"),
+        Pattern.compile("(?i)iframe\\s*src\\s*=\\s*"),
+        Pattern.compile("(?i)phpinfo\\s*\\("),
+        Pattern.compile("(?i)Runtime\\.getRuntime\\("),
+        Pattern.compile("(?i)ProcessBuilder\\s*\\("),
+        Pattern.compile("(?i)Class\\.forName\\("),
+        Pattern.compile("(?i)\\.(php|jsp|exe|sh|bat|cmd|py|rb|ps1|vbs)$")
+    );
+
     private FileStoreConfig fileStoreConfig;
 
     @Autowired
@@ -38,9 +54,13 @@ public class StorageValidator {
             throw new CustomException("EG_FILESTORE_INVALID_INPUT", "Multiple extensions are not allowed.");
         }
 
+        if (file.getSize() > MAX_IMAGE_SIZE) {
+            throw new CustomException("EG_FILESTORE_INVALID_SIZE", "File size exceeds 5MB.");
+        }
+
         String extension = FilenameUtils.getExtension(filename).toLowerCase();
         validateFileExtention(extension);
-        validateContentType(artifact.getFileContentInString(), extension);
+        validateContentType(file, extension);
         validateInputContentType(artifact);
         scanFileForMaliciousContent(artifact);
     }
@@ -51,10 +71,15 @@ public class StorageValidator {
         }
     }
 
-    private void validateContentType(String content, String extension) {
-        Tika tika = new Tika();
-        try (InputStream inputStream = IOUtils.toInputStream(content, fileStoreConfig.getImageCharsetType())) {
-            String detectedType = tika.detect(inputStream);
+    /**
+     * Detects the content type from the start of the file, the magic bytes of the allowed formats are
+     * found within the prefix so the file is not read in full
+     */
+    private void validateContentType(MultipartFile file, String extension) {
+        byte[] prefix = new byte[fileStoreConfig.getContentSniffPrefixBytes()];
+        try (InputStream inputStream = file.getInputStream()) {
+            int length = IOUtils.read(inputStream, prefix);
+            String detectedType = TIKA.detect(Arrays.copyOf(prefix, length));
             if (!fileStoreConfig.getAllowedFormatsMap().get(extension).contains(detectedType)) {
                 throw new CustomException("EG_FILESTORE_INVALID_INPUT", "File extension does not match format.");
             }
@@ -75,28 +100,11 @@ public class StorageValidator {
     private void scanFileForMaliciousContent(Artifact artifact) {
         MultipartFile file = artifact.getMultipartFile();
    //     validateImageIntegrity(file);
-        if (file.getSize() > MAX_IMAGE_SIZE) {
-            throw new CustomException("EG_FILESTORE_INVALID_SIZE", "File size exceeds 5MB.");
-        }
-
-		List<Pattern> maliciousPatterns = Arrays.asList(
-			Pattern.compile("(?i)<script>.*?</script>"),
-			Pattern.compile("(?i)document\\.cookie"),
-			Pattern.compile("(?i)eval\\(.*?\\)"),
-			Pattern.compile("(?i)onerror\\s*=\\s*"),
-			Pattern.compile("(?i)iframe\\s*src\\s*=\\s*"),
-			Pattern.compile("(?i)phpinfo\\s*\\("),
-			Pattern.compile("(?i)Runtime\\.getRuntime\\("),
-			Pattern.compile("(?i)ProcessBuilder\\s*\\("),
-			Pattern.compile("(?i)Class\\.forName\\("),
-			Pattern.compile("(?i)\\.(php|jsp|exe|sh|bat|cmd|py|rb|ps1|vbs)$")
-		);
-		
 
         try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream()))) {
             String line;
             while ((line = reader.readLine()) != null) {
-                for (Pattern pattern : maliciousPatterns) {
+                for (Pattern pattern : MALICIOUS_PATTERNS) {
                     if (pattern.matcher(line).find()) {
                         throw new CustomException("EG_FILESTORE_MALICIOUS_FILE", "Malicious content detected.");
                     }
@@ -0,0 +1,124 @@
+package org.egov.filestore.web.controller;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.egov.filestore.repository.impl.disk.DiskFileStoreRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Controller;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Serves the files of the disk storage on the signed urls, for deployments where the gateway does
+ * not serve them from the disk itself.
+ *
+ * A single byte range is served partially, other ranges get the whole file. The file is handed to
+ * the container to send with sendfile when it supports it, it is transferred from the file channel
+ * otherwise.
+ */
+@Controller
+@RequestMapping("/v1/files/disk")
+@ConditionalOnProperty(value = "isDiskStorageEnabled", havingValue = "true")
+public class DiskFileController {
+
+	private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+
+	private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+
+	private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+
+	private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+	private final DiskFileStoreRepository diskFileStoreRepository;
+
+	private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+	@Autowired
+	public DiskFileController(DiskFileStoreRepository diskFileStoreRepository) {
+		this.diskFileStoreRepository = diskFileStoreRepository;
+	}
+
+	@GetMapping("/**")
+	public void getFile(@RequestParam("expires") long expires, @RequestParam("md5") String signature,
+			HttpServletRequest request, HttpServletResponse response) throws IOException {
+		String path = pathMatcher.extractPathWithinPattern(
+				(String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE),
+				(String) request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE));
+		if (!diskFileStoreRepository.isValidSignature(path, expires, signature)) {
+			response.sendError(HttpServletResponse.SC_FORBIDDEN);
+			return;
+		}
+
+		File file = diskFileStoreRepository.read(path).getFile();
+		long length = file.length();
+		long start = 0;
+		long end = length - 1;
+
+		response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+		response.setContentType(
+				MediaTypeFactory.getMediaType(file.getName()).orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+		List<HttpRange> ranges = getRanges(request.getHeader(HttpHeaders.RANGE));
+		if (ranges.size() == 1) {
+			start = ranges.get(0).getRangeStart(length);
+			end = ranges.get(0).getRangeEnd(length);
+			if (start >= length || start > end) {
+				response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+				response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+				return;
+			}
+			response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+			response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+		}
+		response.setContentLengthLong(end - start + 1);
+
+		if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+			request.setAttribute(SENDFILE_FILENAME, file.getCanonicalPath());
+			request.setAttribute(SENDFILE_START, start);
+			request.setAttribute(SENDFILE_END, end + 1);
+			return;
+		}
+		transfer(file, start, end - start + 1, Channels.newChannel(response.getOutputStream()));
+	}
+
+	private static List<HttpRange> getRanges(String range) {
+		if (range == null)
+			return Collections.emptyList();
+		try {
+			return HttpRange.parseRanges(range);
+		} catch (IllegalArgumentException e) {
+			return Collections.emptyList();
+		}
+	}
+
+	private static void transfer(File file, long position, long count, WritableByteChannel target)
+			throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			while (count > 0) {
+				long transferred = channel.transferTo(position, count, target);
+				if (transferred <= 0)
+					break;
+				position += transferred;
+				count -= transferred;
+			}
+		}
+	}
+
+}
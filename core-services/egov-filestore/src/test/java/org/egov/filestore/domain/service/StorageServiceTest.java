@@ -32,9 +32,8 @@ class StorageServiceTest {
         IdGeneratorService idGeneratorService = new IdGeneratorService();
         FileStoreConfig fileStoreConfig = new FileStoreConfig();
         StorageValidator storageValidator = new StorageValidator(new FileStoreConfig());
-        FileStoreConfig configs = new FileStoreConfig();
         StorageService storageService = new StorageService(artifactRepository, idGeneratorService, fileStoreConfig,
-                storageValidator, configs, new MinioConfig());
+                storageValidator, new MinioConfig());
         ArrayList<MultipartFile> filesToStore = new ArrayList<>();
         List<String> actualSaveResult = storageService.save(filesToStore, "Module", "Tag", "42", new RequestInfo());
         assertSame(stringList, actualSaveResult);
@@ -63,8 +62,7 @@ class StorageServiceTest {
         IdGeneratorService idGeneratorService = new IdGeneratorService();
         FileStoreConfig fileStoreConfig = new FileStoreConfig();
         StorageValidator storageValidator = new StorageValidator(new FileStoreConfig());
-        FileStoreConfig configs = new FileStoreConfig();
-        assertNull((new StorageService(artifactRepository, idGeneratorService, fileStoreConfig, storageValidator, configs,
+        assertNull((new StorageService(artifactRepository, idGeneratorService, fileStoreConfig, storageValidator,
                 new MinioConfig())).retrieve("foo", "foo"));
         verify(fileStoreJpaRepository).findByFileStoreIdAndTenantId((String) any(), (String) any());
     }
@@ -104,8 +102,7 @@ class StorageServiceTest {
         IdGeneratorService idGeneratorService = new IdGeneratorService();
         FileStoreConfig fileStoreConfig = new FileStoreConfig();
         StorageValidator storageValidator = new StorageValidator(new FileStoreConfig());
-        FileStoreConfig configs = new FileStoreConfig();
-        assertNull((new StorageService(artifactRepository, idGeneratorService, fileStoreConfig, storageValidator, configs,
+        assertNull((new StorageService(artifactRepository, idGeneratorService, fileStoreConfig, storageValidator,
                 new MinioConfig())).retrieve("foo", "foo"));
         verify(fileStoreJpaRepository).findByFileStoreIdAndTenantId((String) any(), (String) any());
         verify(artifact).getFileLocation();
@@ -160,9 +157,8 @@ class StorageServiceTest {
         IdGeneratorService idGeneratorService = new IdGeneratorService();
         FileStoreConfig fileStoreConfig = new FileStoreConfig();
         StorageValidator storageValidator = new StorageValidator(new FileStoreConfig());
-        FileStoreConfig configs = new FileStoreConfig();
         assertSame(resource, (new StorageService(artifactRepository, idGeneratorService, fileStoreConfig, storageValidator,
-                configs, new MinioConfig())).retrieve("foo", "foo"));
+                new MinioConfig())).retrieve("foo", "foo"));
         verify(artifact).setContentType((String) any());
         verify(artifact).setCreatedBy((String) any());
         verify(artifact).setCreatedTime((Long) any());
@@ -186,8 +182,7 @@ class StorageServiceTest {
         IdGeneratorService idGeneratorService = new IdGeneratorService();
         FileStoreConfig fileStoreConfig = new FileStoreConfig();
         StorageValidator storageValidator = new StorageValidator(new FileStoreConfig());
-        FileStoreConfig configs = new FileStoreConfig();
-        assertTrue((new StorageService(artifactRepository, idGeneratorService, fileStoreConfig, storageValidator, configs,
+        assertTrue((new StorageService(artifactRepository, idGeneratorService, fileStoreConfig, storageValidator,
                 new MinioConfig())).retrieveByTag("foo", "foo").isEmpty());
         verify(fileStoreJpaRepository).findByTagAndTenantId((String) any(), (String) any());
     }
@@ -216,9 +211,8 @@ class StorageServiceTest {
         IdGeneratorService idGeneratorService = new IdGeneratorService();
         FileStoreConfig fileStoreConfig = new FileStoreConfig();
         StorageValidator storageValidator = new StorageValidator(new FileStoreConfig());
-        FileStoreConfig configs = new FileStoreConfig();
         List<FileInfo> actualRetrieveByTagResult = (new StorageService(artifactRepository, idGeneratorService,
-                fileStoreConfig, storageValidator, configs, new MinioConfig())).retrieveByTag("foo", "foo");
+                fileStoreConfig, storageValidator, new MinioConfig())).retrieveByTag("foo", "foo");
         assertEquals(1, actualRetrieveByTagResult.size());
         FileInfo getResult = actualRetrieveByTagResult.get(0);
         assertEquals("text/plain", getResult.getContentType());
@@ -273,9 +267,8 @@ class StorageServiceTest {
         IdGeneratorService idGeneratorService = new IdGeneratorService();
         FileStoreConfig fileStoreConfig = new FileStoreConfig();
         StorageValidator storageValidator = new StorageValidator(new FileStoreConfig());
-        FileStoreConfig configs = new FileStoreConfig();
         List<FileInfo> actualRetrieveByTagResult = (new StorageService(artifactRepository, idGeneratorService,
-                fileStoreConfig, storageValidator, configs, new MinioConfig())).retrieveByTag("foo", "foo");
+                fileStoreConfig, storageValidator, new MinioConfig())).retrieveByTag("foo", "foo");
         assertEquals(2, actualRetrieveByTagResult.size());
         FileInfo getResult = actualRetrieveByTagResult.get(0);
         assertEquals("42", getResult.getTenantId());
@@ -309,9 +302,8 @@ class StorageServiceTest {
         IdGeneratorService idGeneratorService = new IdGeneratorService();
         FileStoreConfig fileStoreConfig = new FileStoreConfig();
         StorageValidator storageValidator = new StorageValidator(new FileStoreConfig());
-        FileStoreConfig configs = new FileStoreConfig();
         List<FileInfo> actualRetrieveByTagResult = (new StorageService(artifactRepository, idGeneratorService,
-                fileStoreConfig, storageValidator, configs, new MinioConfig())).retrieveByTag("foo", "foo");
+                fileStoreConfig, storageValidator, new MinioConfig())).retrieveByTag("foo", "foo");
         assertSame(fileInfoList, actualRetrieveByTagResult);
         assertTrue(actualRetrieveByTagResult.isEmpty());
         verify(artifactRepository).findByTag((String) any(), (String) any());
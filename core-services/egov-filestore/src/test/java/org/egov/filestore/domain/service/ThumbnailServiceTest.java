@@ -0,0 +1,123 @@
+package org.egov.filestore.domain.service;
+
+import org.egov.filestore.config.FileStoreConfig;
+import org.egov.filestore.domain.model.Artifact;
+import org.egov.filestore.domain.model.FileLocation;
+import org.egov.filestore.repository.CloudFilesManager;
+import org.egov.filestore.repository.impl.CloudFileMgrUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mock.web.MockMultipartFile;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.awt.image.BufferedImage;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ThumbnailServiceTest {
+
+    private CloudFileMgrUtils util;
+
+    private CloudFilesManager cloudFilesManager;
+
+    private SimpleMeterRegistry registry;
+
+    private ThumbnailService thumbnailService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        util = mock(CloudFileMgrUtils.class);
+        cloudFilesManager = mock(CloudFilesManager.class);
+        FileStoreConfig fileStoreConfig = mock(FileStoreConfig.class);
+        when(fileStoreConfig.getThumbnailWorkers()).thenReturn(1);
+        when(fileStoreConfig.getThumbnailQueueCapacity()).thenReturn(10);
+        when(fileStoreConfig.getThumbnailStoredCacheSize()).thenReturn(10);
+        when(fileStoreConfig.get_large()).thenReturn("_large");
+        when(fileStoreConfig.get_medium()).thenReturn("_medium");
+        when(fileStoreConfig.get_small()).thenReturn("_small");
+        registry = new SimpleMeterRegistry();
+        ObjectProvider<MeterRegistry> meterRegistry = mock(ObjectProvider.class);
+        when(meterRegistry.getIfAvailable()).thenReturn(registry);
+        thumbnailService = new ThumbnailService(util, cloudFilesManager, fileStoreConfig, meterRegistry);
+        thumbnailService.start();
+    }
+
+    @Test
+    void testSubmitStoresVersionsInBackground() throws Exception {
+        CountDownLatch resizing = new CountDownLatch(1);
+        Map<String, BufferedImage> versions = new HashMap<>();
+        versions.put("pb/module/foo_small.png", new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB));
+        when(util.createVersionsOfImage(any(InputStream.class), eq("pb/module/foo.png"))).thenAnswer(invocation -> {
+            resizing.await(5, TimeUnit.SECONDS);
+            return versions;
+        });
+
+        FileLocation fileLocation = new FileLocation("42", "Module", "Tag", "pb", "bucket/pb/module/foo.png", null);
+        thumbnailService.submit(artifact(fileLocation));
+
+        assertTrue(thumbnailService.isPending("42"));
+        verify(cloudFilesManager, never()).saveThumbnailImages(any(), any(), any());
+
+        resizing.countDown();
+        thumbnailService.stop();
+
+        assertFalse(thumbnailService.isPending("42"));
+        assertTrue(thumbnailService.hasVersions("42", "bucket/pb/module/foo.png"));
+        verify(cloudFilesManager, never()).exists(anyString());
+        verify(cloudFilesManager).saveThumbnailImages(fileLocation, "image/png", versions);
+        assertEquals(1, registry.find("filestore.thumbnail.resize").timer().count());
+        assertEquals(0, registry.find("filestore.thumbnail.failures").counter().count());
+    }
+
+    @Test
+    void testSubmitUnreadableImage() throws Exception {
+        when(util.createVersionsOfImage(any(InputStream.class), anyString())).thenReturn(Collections.emptyMap());
+
+        thumbnailService.submit(artifact(new FileLocation("42", "Module", "Tag", "pb", "bucket/pb/foo.png", null)));
+        thumbnailService.stop();
+
+        assertFalse(thumbnailService.isPending("42"));
+        assertFalse(thumbnailService.hasVersions("42", "bucket/pb/foo.png"));
+        verify(cloudFilesManager, never()).saveThumbnailImages(any(), any(), any());
+        assertEquals(1, registry.find("filestore.thumbnail.failures").counter().count());
+    }
+
+    @Test
+    void testHasVersionsLooksUpStorage() {
+        when(cloudFilesManager.exists(anyString())).thenReturn(true);
+
+        assertTrue(thumbnailService.hasVersions("42", "bucket/pb/foo.png"));
+        assertTrue(thumbnailService.hasVersions("42", "bucket/pb/foo.png"));
+
+        verify(cloudFilesManager).exists("bucket/pb/foo_large.png");
+        verify(cloudFilesManager).exists("bucket/pb/foo_medium.png");
+        verify(cloudFilesManager).exists("bucket/pb/foo_small.png");
+    }
+
+    @Test
+    void testHasVersionsWhenVersionIsMissing() {
+        when(cloudFilesManager.exists(anyString())).thenReturn(true);
+        when(cloudFilesManager.exists("bucket/pb/foo_small.png")).thenReturn(false);
+
+        assertFalse(thumbnailService.hasVersions("42", "bucket/pb/foo.png"));
+        assertFalse(thumbnailService.hasVersions("42", "bucket/pb/foo.png"));
+
+        verify(cloudFilesManager, times(2)).exists("bucket/pb/foo_small.png");
+    }
+
+    private static Artifact artifact(FileLocation fileLocation) {
+        MockMultipartFile multipartFile = new MockMultipartFile("file", "foo.png", "image/png", new byte[] {1, 2, 3});
+        return Artifact.builder().multipartFile(multipartFile).fileLocation(fileLocation).build();
+    }
+}
@@ -0,0 +1,130 @@
+package org.egov.filestore.repository.impl.disk;
+
+import org.egov.filestore.config.FileStoreConfig;
+import org.egov.filestore.domain.model.Artifact;
+import org.egov.filestore.domain.model.FileLocation;
+import org.egov.filestore.repository.impl.CloudFileMgrUtils;
+import org.egov.tracer.model.CustomException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.StreamUtils;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DiskFileStoreRepositoryTest {
+
+    @TempDir
+    Path root;
+
+    private FileStoreConfig fileStoreConfig;
+
+    private CloudFileMgrUtils util;
+
+    private DiskFileStoreRepository diskFileStoreRepository;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        DiskConfig diskConfig = mock(DiskConfig.class);
+        when(diskConfig.getStorageRoot()).thenReturn(root.toString());
+        when(diskConfig.getSource()).thenReturn("disk");
+        when(diskConfig.getUrlHost()).thenReturn("https://egov.org");
+        when(diskConfig.getUrlPath()).thenReturn("/filestore/v1/files/disk");
+        when(diskConfig.getUrlSecret()).thenReturn("secret");
+        fileStoreConfig = mock(FileStoreConfig.class);
+        when(fileStoreConfig.getPreSignedUrlTimeOut()).thenReturn(3600);
+        when(fileStoreConfig.get_large()).thenReturn("_large");
+        when(fileStoreConfig.get_medium()).thenReturn("_medium");
+        when(fileStoreConfig.get_small()).thenReturn("_small");
+        util = mock(CloudFileMgrUtils.class);
+        diskFileStoreRepository = new DiskFileStoreRepository(diskConfig, fileStoreConfig, util);
+        diskFileStoreRepository.init();
+    }
+
+    @Test
+    void testSaveFilesStoresContentAddressed() throws IOException {
+        Artifact first = artifact("42", "bucket/pb/module/first.txt", "AAAAAAAA");
+        Artifact second = artifact("43", "bucket/pb/module/second.txt", "AAAAAAAA");
+
+        diskFileStoreRepository.saveFiles(Arrays.asList(first, second));
+
+        String fileName = first.getFileLocation().getFileName();
+        assertTrue(fileName.matches("bucket/[0-9a-f]{2}/[0-9a-f]{2}/[0-9a-f]{64}\\.txt"));
+        assertEquals(fileName, second.getFileLocation().getFileName());
+        assertEquals("disk", first.getFileLocation().getFileSource());
+        assertEquals("AAAAAAAA", StreamUtils.copyToString(
+                diskFileStoreRepository.read(first.getFileLocation()).getInputStream(), StandardCharsets.UTF_8));
+        assertEquals(0, Files.list(root.resolve(".tmp")).count());
+    }
+
+    @Test
+    void testSaveThumbnailImages() {
+        FileLocation fileLocation = new FileLocation("42", "Module", "Tag", "pb", "bucket/ab/cd/abcd.png", "disk");
+
+        diskFileStoreRepository.saveThumbnailImages(fileLocation, "image/png",
+                Collections.singletonMap("ab/cd/abcd_small.png", new BufferedImage(2, 2, BufferedImage.TYPE_INT_RGB)));
+
+        assertTrue(Files.isRegularFile(root.resolve("ab/cd/abcd_small.png")));
+    }
+
+    @Test
+    void testExists() {
+        FileLocation fileLocation = new FileLocation("42", "Module", "Tag", "pb", "bucket/ab/cd/abcd.png", "disk");
+        diskFileStoreRepository.saveThumbnailImages(fileLocation, "image/png",
+                Collections.singletonMap("ab/cd/abcd_small.png", new BufferedImage(2, 2, BufferedImage.TYPE_INT_RGB)));
+
+        assertTrue(diskFileStoreRepository.exists("bucket/ab/cd/abcd_small.png"));
+        assertFalse(diskFileStoreRepository.exists("bucket/ab/cd/abcd_large.png"));
+    }
+
+    @Test
+    void testReadOutsideRoot() {
+        assertThrows(CustomException.class, () -> diskFileStoreRepository.read("../outside.txt"));
+        assertThrows(CustomException.class, () -> diskFileStoreRepository.read("ab/cd/missing.txt"));
+    }
+
+    @Test
+    void testGetFilesSignsVersionsOfImages() {
+        org.egov.filestore.persistence.entity.Artifact artifact = org.egov.filestore.persistence.entity.Artifact
+                .builder().fileStoreId("42").fileName("bucket/ab/cd/abcd.png").build();
+        when(util.isFileAnImage("bucket/ab/cd/abcd.png")).thenReturn(true);
+
+        Map<String, String> urls = diskFileStoreRepository.getFiles(Collections.singletonList(artifact));
+
+        String[] versions = urls.get("42").split(",");
+        assertEquals(4, versions.length);
+        assertTrue(versions[0].startsWith("https://egov.org/filestore/v1/files/disk/ab/cd/abcd.png?expires="));
+        assertTrue(versions[1].contains("/ab/cd/abcd_large.png?"));
+        assertTrue(versions[3].contains("/ab/cd/abcd_small.png?"));
+    }
+
+    @Test
+    void testIsValidSignature() {
+        String url = diskFileStoreRepository.getSignedUrl("ab/cd/abcd.png");
+        long expires = Long.parseLong(url.substring(url.indexOf("expires=") + 8, url.indexOf("&md5=")));
+        String signature = url.substring(url.indexOf("&md5=") + 5);
+
+        assertTrue(diskFileStoreRepository.isValidSignature("ab/cd/abcd.png", expires, signature));
+        assertFalse(diskFileStoreRepository.isValidSignature("ab/cd/other.png", expires, signature));
+        assertFalse(diskFileStoreRepository.isValidSignature("ab/cd/abcd.png", expires + 1, signature));
+        assertFalse(diskFileStoreRepository.isValidSignature("ab/cd/abcd.png", 1L, signature));
+    }
+
+    private static Artifact artifact(String fileStoreId, String fileName, String content) {
+        FileLocation fileLocation = new FileLocation(fileStoreId, "Module", "Tag", "pb", fileName, null);
+        MockMultipartFile multipartFile = new MockMultipartFile("file", "foo.txt", "text/plain",
+                content.getBytes(StandardCharsets.UTF_8));
+        return Artifact.builder().multipartFile(multipartFile).fileLocation(fileLocation).build();
+    }
+}
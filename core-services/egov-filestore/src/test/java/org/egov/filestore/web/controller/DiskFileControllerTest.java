@@ -0,0 +1,91 @@
+package org.egov.filestore.web.controller;
+
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.egov.filestore.repository.impl.disk.DiskFileStoreRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+class DiskFileControllerTest {
+
+    private static final String PATH = "ab/cd/abcd.txt";
+
+    @TempDir
+    Path root;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path file = root.resolve("abcd.txt");
+        Files.write(file, "0123456789".getBytes(StandardCharsets.UTF_8));
+        DiskFileStoreRepository diskFileStoreRepository = Mockito.mock(DiskFileStoreRepository.class);
+        when(diskFileStoreRepository.isValidSignature(PATH, 100L, "signature")).thenReturn(true);
+        when(diskFileStoreRepository.read(PATH)).thenReturn(new FileSystemResource(file));
+        mockMvc = MockMvcBuilders.standaloneSetup(new DiskFileController(diskFileStoreRepository)).build();
+    }
+
+    @Test
+    void testGetFile() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/v1/files/disk/" + PATH)
+                .param("expires", "100")
+                .param("md5", "signature"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(MockMvcResultMatchers.content().contentType("text/plain"))
+                .andExpect(MockMvcResultMatchers.content().string("0123456789"));
+    }
+
+    @Test
+    void testGetFileRange() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/v1/files/disk/" + PATH)
+                .param("expires", "100")
+                .param("md5", "signature")
+                .header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(MockMvcResultMatchers.status().isPartialContent())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+                .andExpect(MockMvcResultMatchers.content().string("2345"));
+    }
+
+    @Test
+    void testGetFileUnsatisfiableRange() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/v1/files/disk/" + PATH)
+                .param("expires", "100")
+                .param("md5", "signature")
+                .header(HttpHeaders.RANGE, "bytes=20-"))
+                .andExpect(MockMvcResultMatchers.status().isRequestedRangeNotSatisfiable())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CONTENT_RANGE, "bytes */10"));
+    }
+
+    @Test
+    void testGetFileInvalidSignature() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/v1/files/disk/" + PATH)
+                .param("expires", "100")
+                .param("md5", "forged"))
+                .andExpect(MockMvcResultMatchers.status().isForbidden());
+    }
+
+    @Test
+    void testGetFileWithSendfile() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/v1/files/disk/" + PATH)
+                .param("expires", "100")
+                .param("md5", "signature")
+                .requestAttr("org.apache.tomcat.sendfile.support", Boolean.TRUE))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.request().attribute("org.apache.tomcat.sendfile.start", 0L))
+                .andExpect(MockMvcResultMatchers.request().attribute("org.apache.tomcat.sendfile.end", 10L))
+                .andExpect(MockMvcResultMatchers.content().string(""));
+    }
+}
@@ -0,0 +1,145 @@
+package org.egov.domain.model;
+
+import static org.apache.commons.lang3.StringUtils.isEmpty;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.springframework.util.CollectionUtils;
+
+/**
+ * Computed message list of a locale and tenant, indexed by module and code.
+ *
+ * Only the messages of the requested locale and tenant are kept, the search filters the computed list on both.
+ * A filtered list keeps the order of the computed list. Instances are immutable and shared by the requests
+ * served from the near cache, the serialized response bodies of searches on modules are kept along with the
+ * messages and dropped with them when the cache entry is busted.
+ */
+public class LocalizedMessages {
+
+	private static final int MAX_SERIALIZED_SEARCHES = 64;
+
+	private static final String ALL_MODULES = "";
+
+	private final List<Message> messages;
+
+	private final Map<String, int[]> modulePositions;
+
+	private final Map<String, int[]> codePositions;
+
+	private final Map<String, SerializedMessages> serializedSearches = new ConcurrentHashMap<>();
+
+	private LocalizedMessages(List<Message> messages) {
+		this.messages = Collections.unmodifiableList(messages);
+		this.modulePositions = index(messages, Message::getModule);
+		this.codePositions = index(messages, Message::getCode);
+	}
+
+	/**
+	 * @param locale Locale of the search
+	 * @param tenantId Tenant of the search
+	 * @param computedMessages Computed message list of the locale and tenant
+	 * @return the messages of the locale and tenant
+	 */
+	public static LocalizedMessages of(String locale, String tenantId, List<Message> computedMessages) {
+		List<Message> messages = new ArrayList<>();
+		for (Message message : computedMessages) {
+			if (message.getLocale().equals(locale) && message.getTenant().equals(tenantId))
+				messages.add(message);
+		}
+		return new LocalizedMessages(messages);
+	}
+
+	/**
+	 * Returns the messages of the given modules having the given codes
+	 *
+	 * @param module Comma separated module names, all modules if empty
+	 * @param codes Message codes, all codes if empty
+	 * @return the matching messages
+	 */
+	public List<Message> getMessages(String module, Set<String> codes) {
+		if (isEmpty(module)) {
+			if (CollectionUtils.isEmpty(codes))
+				return messages;
+			return toMessages(positions(codePositions, codes), null);
+		}
+		return toMessages(positions(modulePositions, Arrays.asList(module.split("[,]"))), codes);
+	}
+
+	/**
+	 * Returns the serialized messages of the modules, serialized once per module list. Searches on codes are not
+	 * kept, they are serialized on every call.
+	 *
+	 * @param module Comma separated module names, all modules if empty
+	 * @param codes Message codes, all codes if empty
+	 * @param serializer Serializes the matching messages to the response body
+	 * @return the serialized messages
+	 */
+	public SerializedMessages getSerializedMessages(String module, Set<String> codes,
+			Function<List<Message>, byte[]> serializer) {
+		if (!CollectionUtils.isEmpty(codes))
+			return new SerializedMessages(serializer.apply(getMessages(module, codes)));
+		String key = isEmpty(module) ? ALL_MODULES : String.join(",", new TreeSet<>(Arrays.asList(module.split("[,]"))));
+		SerializedMessages serialized = serializedSearches.get(key);
+		if (serialized == null) {
+			serialized = new SerializedMessages(serializer.apply(getMessages(module, null)));
+			if (serializedSearches.size() < MAX_SERIALIZED_SEARCHES)
+				serializedSearches.putIfAbsent(key, serialized);
+		}
+		return serialized;
+	}
+
+	private static Map<String, int[]> index(List<Message> messages, Function<Message, String> field) {
+		Map<String, List<Integer>> positions = new HashMap<>();
+		for (int i = 0; i < messages.size(); i++)
+			positions.computeIfAbsent(field.apply(messages.get(i)), key -> new ArrayList<>()).add(i);
+		Map<String, int[]> index = new HashMap<>(positions.size() * 2);
+		positions.forEach((key, list) -> index.put(key, list.stream().mapToInt(Integer::intValue).toArray()));
+		return index;
+	}
+
+	/**
+	 * Positions of the messages under the given keys, in the order of the computed list
+	 */
+	private static int[] positions(Map<String, int[]> index, Collection<String> keys) {
+		List<int[]> matches = new ArrayList<>();
+		int size = 0;
+		for (String key : new TreeSet<>(keys)) {
+			int[] match = index.get(key);
+			if (match != null) {
+				matches.add(match);
+				size += match.length;
+			}
+		}
+		if (matches.size() == 1)
+			return matches.get(0);
+		int[] positions = new int[size];
+		int offset = 0;
+		for (int[] match : matches) {
+			System.arraycopy(match, 0, positions, offset, match.length);
+			offset += match.length;
+		}
+		Arrays.sort(positions);
+		return positions;
+	}
+
+	private List<Message> toMessages(int[] positions, Set<String> codes) {
+		List<Message> result = new ArrayList<>(positions.length);
+		for (int position : positions) {
+			Message message = messages.get(position);
+			if (CollectionUtils.isEmpty(codes) || codes.contains(message.getCode()))
+				result.add(message);
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,40 @@
+package org.egov.domain.model;
+
+import org.springframework.util.DigestUtils;
+
+import lombok.Getter;
+
+/**
+ * Response body of a message search with its entity tag
+ */
+@Getter
+public class SerializedMessages {
+
+	private final byte[] body;
+
+	private final String eTag;
+
+	public SerializedMessages(byte[] body) {
+		this.body = body;
+		this.eTag = "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+	}
+
+	/**
+	 * @param ifNoneMatch Value of the If-None-Match header of the request
+	 * @return true if the tag of the body is one of the tags the client holds
+	 */
+	public boolean isMatchedBy(String ifNoneMatch) {
+		if (ifNoneMatch == null)
+			return false;
+		for (String tag : ifNoneMatch.split(",")) {
+			String candidate = tag.trim();
+			// a gateway compressing the body weakens the tag, the body is still the same
+			if (candidate.startsWith("W/"))
+				candidate = candidate.substring(2);
+			if (candidate.equals("*") || candidate.equals(eTag))
+				return true;
+		}
+		return false;
+	}
+
+}
@@ -1,15 +1,19 @@
 package org.egov.domain.service;
 
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.egov.domain.model.AuthenticatedUser;
+import org.egov.domain.model.LocalizedMessages;
 import org.egov.domain.model.Message;
 import org.egov.domain.model.MessageIdentity;
 import org.egov.domain.model.MessageSearchCriteria;
+import org.egov.domain.model.SerializedMessages;
 import org.egov.domain.model.Tenant;
 import org.egov.persistence.repository.MessageCacheRepository;
+import org.egov.persistence.repository.MessageNearCache;
 import org.egov.persistence.repository.MessageRepository;
 import org.egov.tracer.model.CustomException;
 import org.springframework.stereotype.Service;
@@ -40,6 +44,10 @@ import org.springframework.util.CollectionUtils;
  * c) For a create/update request to locale: <locale> and tenant: default- 1) In
  * validate all computed messages entries. 2) In validate cache entry for raw
  * messages with key <locale>:default
+ *
+ * The computed messages are also kept in process by every instance, indexed by
+ * module. The entries are busted the same way as the computed messages in Redis,
+ * the busts are broadcast to the other instances on a Redis channel.
  */
 @Service
 //@Slf4j
@@ -47,10 +55,13 @@ public class MessageService {
 	private static final String ENGLISH_INDIA = "en_IN";
 	private MessageRepository messageRepository;
 	private MessageCacheRepository messageCacheRepository;
+	private MessageNearCache messageNearCache;
 
-	public MessageService(MessageRepository messageRepository, MessageCacheRepository messageCacheRepository) {
+	public MessageService(MessageRepository messageRepository, MessageCacheRepository messageCacheRepository,
+			MessageNearCache messageNearCache) {
 		this.messageRepository = messageRepository;
 		this.messageCacheRepository = messageCacheRepository;
+		this.messageNearCache = messageNearCache;
 	}
 
 	public void upsert(Tenant tenant, List<Message> messages, AuthenticatedUser user) {
@@ -76,48 +87,25 @@ public class MessageService {
 
 	public void bustCache() {
 		messageCacheRepository.bustCache();
+		messageNearCache.evictAll();
 	}
 
 	public List<Message> getFilteredMessages(MessageSearchCriteria searchCriteria) {
-		List<Message> messages = getMessages(searchCriteria);
-		if (searchCriteria.isModuleAbsent() && !CollectionUtils.isEmpty(searchCriteria.getCodes())) {
-
-		    /*if(!CollectionUtils.isEmpty(searchCriteria.getCodes()))
-		        throw new CustomException("INVALID_SEARCH_CRITERIA","ModuleName should be provided when searching on codes");*/
-
-            Set<String> codes = searchCriteria.getCodes();
-
-			return messages.stream()
-					.filter(e -> e.getLocale().equals(searchCriteria.getLocale())
-							&& e.getTenant().equals(searchCriteria.getTenantId().getTenantId())
-                            && codes.contains(e.getCode()))
-					.collect(Collectors.toList());
-		} else if(searchCriteria.isModuleAbsent() && CollectionUtils.isEmpty(searchCriteria.getCodes())){
-            return messages.parallelStream()
-                .filter(e -> e.getLocale().equals(searchCriteria.getLocale())
-                    && e.getTenant().equals(searchCriteria.getTenantId().getTenantId()))
-                .collect(Collectors.toList());
-        } else {
-			List<String> modules = Arrays.asList(searchCriteria.getModule().split("[,]"));
-
-			if(CollectionUtils.isEmpty(searchCriteria.getCodes()))
-                messages = messages.stream()
-                    .filter(message -> modules.contains(message.getModule())
-                        && message.getLocale().equals(searchCriteria.getLocale())
-                        && message.getTenant().equals(searchCriteria.getTenantId().getTenantId()))
-                    .collect(Collectors.toList());
-			else {
-			    Set<String> codes = searchCriteria.getCodes();
-                messages = messages.stream()
-                    .filter(message -> modules.contains(message.getModule())
-                        && codes.contains(message.getCode())
-                        && message.getLocale().equals(searchCriteria.getLocale())
-                        && message.getTenant().equals(searchCriteria.getTenantId().getTenantId()))
-                    .collect(Collectors.toList());
-            }
+		return getLocalizedMessages(searchCriteria).getMessages(searchCriteria.getModule(), searchCriteria.getCodes());
+	}
 
-		}
-		return messages;
+	/**
+	 * Returns the response body of the search. The body of a search without codes is serialized once and kept
+	 * with the messages in the near cache until they are busted.
+	 *
+	 * @param searchCriteria Search criteria
+	 * @param serializer Serializes the matching messages to the response body
+	 * @return the serialized messages
+	 */
+	public SerializedMessages getSerializedMessages(MessageSearchCriteria searchCriteria,
+			Function<List<Message>, byte[]> serializer) {
+		return getLocalizedMessages(searchCriteria).getSerializedMessages(searchCriteria.getModule(),
+				searchCriteria.getCodes(), serializer);
 	}
 
 	public void delete(List<MessageIdentity> messageIdentities) {
@@ -140,6 +128,12 @@ public class MessageService {
 
 	private void bustCacheEntry(Tenant tenant, String locale) {
 		messageCacheRepository.bustCacheEntry(locale, tenant);
+		messageNearCache.evict(locale, tenant);
+	}
+
+	private LocalizedMessages getLocalizedMessages(MessageSearchCriteria searchCriteria) {
+		return messageNearCache.get(searchCriteria.getLocale(), searchCriteria.getTenantId(),
+				() -> getMessages(searchCriteria));
 	}
 
 	private List<Message> getMessages(MessageSearchCriteria searchCriteria) {
@@ -19,6 +19,8 @@ public class MessageCacheRepository {
 
 	private static final String MESSAGES_HASH_KEY = "messages";
 	private static final String COMPUTED_MESSAGES_HASH_KEY = "computedMessages";
+	public static final String CACHE_BUST_CHANNEL = "localization-cache-bust";
+	private static final String ALL_ENTRIES = "*";
 	private StringRedisTemplate stringRedisTemplate;
 	private ObjectMapper objectMapper;
     public static final Logger logger = LoggerFactory.getLogger(MessageCacheRepository.class);
@@ -47,11 +49,25 @@ public class MessageCacheRepository {
 	public void bustCache() {
 		stringRedisTemplate.delete(MESSAGES_HASH_KEY);
 		bustAllComputedMessagesCache();
+		publishCacheBust(ALL_ENTRIES);
 	}
 
 	public void bustCacheEntry(String locale, Tenant tenant) {
 		bustRawMessagesCacheEntry(locale, tenant);
 		bustComputedMessagesCache(locale, tenant);
+		publishCacheBust(getKey(locale, tenant.getTenantId()));
+	}
+
+	/*
+	 * the near caches of all the instances bust their entries on the message, sent once the redis entries are
+	 * gone so that an entry loaded after it is read from the busted cache
+	 */
+	private void publishCacheBust(String cacheKey) {
+		try {
+			stringRedisTemplate.convertAndSend(CACHE_BUST_CHANNEL, cacheKey);
+		} catch (RuntimeException e) {
+			logger.error("Failed to publish cache bust of " + cacheKey + ": " + e.getMessage());
+		}
 	}
 
 	private void bustRawMessagesCacheEntry(String locale, Tenant tenant) {
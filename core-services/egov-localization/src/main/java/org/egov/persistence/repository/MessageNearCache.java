@@ -0,0 +1,159 @@
+package org.egov.persistence.repository;
+
+import org.egov.domain.model.LocalizedMessages;
+import org.egov.domain.model.Message;
+import org.egov.domain.model.Tenant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * In process cache of the computed messages of a locale and tenant, in front of the computed messages cached in
+ * Redis. An entry is busted the same way as its Redis entry, the busts of every instance are received on the
+ * cache bust channel published to by {@link MessageCacheRepository}. A bust missed while the channel was down is
+ * caught up by the expiry of the entries.
+ */
+@Service
+public class MessageNearCache implements MessageListener {
+
+	private static final Logger logger = LoggerFactory.getLogger(MessageNearCache.class);
+
+	private final boolean enabled;
+
+	private final long expiry;
+
+	private final RedisConnectionFactory connectionFactory;
+
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+	private final Object lock = new Object();
+
+	/*
+	 * incremented on every bust, messages loaded across a bust are not kept as they may have been read before it
+	 */
+	private long generation;
+
+	private RedisMessageListenerContainer listenerContainer;
+
+	public MessageNearCache(@Value("${localization.near.cache.enabled:true}") boolean enabled,
+			@Value("${localization.near.cache.expiry.seconds:900}") long expirySeconds,
+			RedisConnectionFactory connectionFactory) {
+		this.enabled = enabled;
+		this.expiry = TimeUnit.SECONDS.toMillis(expirySeconds);
+		this.connectionFactory = connectionFactory;
+	}
+
+	@PostConstruct
+	public void subscribe() {
+		if (!enabled)
+			return;
+		listenerContainer = new RedisMessageListenerContainer();
+		listenerContainer.setConnectionFactory(connectionFactory);
+		listenerContainer.addMessageListener(this, new ChannelTopic(MessageCacheRepository.CACHE_BUST_CHANNEL));
+		listenerContainer.afterPropertiesSet();
+		listenerContainer.start();
+	}
+
+	@PreDestroy
+	public void unsubscribe() throws Exception {
+		if (listenerContainer != null)
+			listenerContainer.destroy();
+	}
+
+	/**
+	 * Returns the messages of the locale and tenant, loading them if not present
+	 *
+	 * @param locale Locale
+	 * @param tenant Tenant
+	 * @param loader Loads the computed message list of the locale and tenant
+	 * @return the messages
+	 */
+	public LocalizedMessages get(String locale, Tenant tenant, Supplier<List<Message>> loader) {
+		if (!enabled)
+			return LocalizedMessages.of(locale, tenant.getTenantId(), loader.get());
+		String key = getKey(locale, tenant.getTenantId());
+		long now = System.currentTimeMillis();
+		Entry entry = entries.get(key);
+		if (entry != null && now - entry.loadedTime < expiry)
+			return entry.messages;
+		long loadGeneration;
+		synchronized (lock) {
+			loadGeneration = generation;
+		}
+		LocalizedMessages messages = LocalizedMessages.of(locale, tenant.getTenantId(), loader.get());
+		synchronized (lock) {
+			if (loadGeneration == generation)
+				entries.put(key, new Entry(messages, now));
+		}
+		return messages;
+	}
+
+	/**
+	 * Busts the messages of the locale for the tenant and the tenants below it, all the messages if the tenant
+	 * is the default tenant
+	 *
+	 * @param locale Locale
+	 * @param tenant Tenant
+	 */
+	public void evict(String locale, Tenant tenant) {
+		synchronized (lock) {
+			generation++;
+			if (tenant.isDefaultTenant())
+				entries.clear();
+			else {
+				String parentKey = getKey(locale, tenant.getTenantId());
+				entries.keySet().removeIf(key -> key.contains(parentKey));
+			}
+		}
+	}
+
+	public void evictAll() {
+		synchronized (lock) {
+			generation++;
+			entries.clear();
+		}
+	}
+
+	@Override
+	public void onMessage(org.springframework.data.redis.connection.Message message, byte[] pattern) {
+		String cacheKey = new String(message.getBody(), StandardCharsets.UTF_8);
+		int separator = cacheKey.indexOf(':');
+		if (separator < 0) {
+			evictAll();
+			return;
+		}
+		logger.debug("Busting near cache entries for " + cacheKey);
+		evict(cacheKey.substring(0, separator), new Tenant(cacheKey.substring(separator + 1)));
+	}
+
+	private String getKey(String locale, String tenant) {
+		return String.format("%s:%s", locale, tenant);
+	}
+
+	private static class Entry {
+
+		private final LocalizedMessages messages;
+
+		private final long loadedTime;
+
+		private Entry(LocalizedMessages messages, long loadedTime) {
+			this.messages = messages;
+			this.loadedTime = loadedTime;
+		}
+	}
+
+}
@@ -1,11 +1,18 @@
 package org.egov.web.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.egov.domain.model.MessageRequest;
 import org.egov.domain.model.MessageSearchCriteria;
+import org.egov.domain.model.SerializedMessages;
 import org.egov.domain.model.Tenant;
 import org.egov.domain.service.MessageService;
 import org.egov.web.contract.*;
 import org.egov.web.exception.InvalidMessageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -23,25 +30,37 @@ public class MessageController {
 
 	private MessageService messageService;
 
-	public MessageController(MessageService messageService) {
+	private ObjectMapper objectMapper;
+
+	public MessageController(MessageService messageService, ObjectMapper objectMapper) {
 		this.messageService = messageService;
+		this.objectMapper = objectMapper;
 	}
 
 	@GetMapping()
-	public MessagesResponse getMessagesForLocale(@RequestParam("locale") String locale,
+	public ResponseEntity<byte[]> getMessagesForLocale(@RequestParam("locale") String locale,
 			@RequestParam(value = "module", required = false) String module,
-			@RequestParam("tenantId") String tenantId,@RequestParam(value = "codes",required = false) Set<String> codes) {
-		return getMessages(locale, module, tenantId, codes);
+			@RequestParam("tenantId") String tenantId,@RequestParam(value = "codes",required = false) Set<String> codes,
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+		return getMessages(locale, module, tenantId, codes, ifNoneMatch);
 	}
 
+	/**
+	 * The response carries the entity tag of the body, a request with the tag in If-None-Match gets a 304
+	 * without the body when the messages have not changed
+	 */
 	@PostMapping("/v1/_search")
-	public MessagesResponse getMessages(@RequestParam("locale") String locale,
+	public ResponseEntity<byte[]> getMessages(@RequestParam("locale") String locale,
 			@RequestParam(value = "module", required = false)  String module,
-			@RequestParam("tenantId") @Size(max = 256) String tenantId,@RequestParam(value = "codes",required = false) Set<String> codes) {
+			@RequestParam("tenantId") @Size(max = 256) String tenantId,@RequestParam(value = "codes",required = false) Set<String> codes,
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 		final MessageSearchCriteria searchCriteria = MessageSearchCriteria.builder().locale(locale)
 				.tenantId(new Tenant(tenantId)).codes(codes).module(module).build();
-		List<org.egov.domain.model.Message> domainMessages = messageService.getFilteredMessages(searchCriteria);
-		return createResponse(domainMessages);
+		SerializedMessages messages = messageService.getSerializedMessages(searchCriteria, this::serialize);
+		if (messages.isMatchedBy(ifNoneMatch))
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(messages.getETag()).build();
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON_UTF8).eTag(messages.getETag())
+				.body(messages.getBody());
 	}
 	
 	@PostMapping("/v2/_search")
@@ -85,6 +104,14 @@ public class MessageController {
 		return new MessagesResponse(domainMessages.stream().map(Message::new).collect(Collectors.toList()));
 	}
 
+	private byte[] serialize(List<org.egov.domain.model.Message> domainMessages) {
+		try {
+			return objectMapper.writeValueAsBytes(createResponse(domainMessages));
+		} catch (JsonProcessingException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
 	@PostMapping(value = "/v1/_update")
 	public MessagesResponse update(@RequestBody @Valid final UpdateMessageRequest messageRequest,
 			final BindingResult bindingResult) {
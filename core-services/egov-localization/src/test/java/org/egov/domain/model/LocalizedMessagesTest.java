@@ -0,0 +1,96 @@
+package org.egov.domain.model;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class LocalizedMessagesTest {
+
+    private static final String MR_IN = "mr_IN";
+    private static final String TENANT_ID = "a";
+
+    @Test
+    public void test_should_keep_only_messages_of_the_locale_and_tenant() {
+        final LocalizedMessages messages = LocalizedMessages.of(MR_IN, TENANT_ID, Arrays.asList(
+            message("code1", "module1", MR_IN, TENANT_ID),
+            message("code2", "module1", "en_IN", Tenant.DEFAULT_TENANT),
+            message("code3", "module1", MR_IN, "a.b")));
+
+        assertEquals(Collections.singletonList("code1"), codes(messages.getMessages(null, null)));
+    }
+
+    @Test
+    public void test_should_return_messages_of_the_modules_in_computed_order() {
+        final LocalizedMessages messages = LocalizedMessages.of(MR_IN, TENANT_ID, Arrays.asList(
+            message("code1", "module2", MR_IN, TENANT_ID),
+            message("code2", "module1", MR_IN, TENANT_ID),
+            message("code3", "module3", MR_IN, TENANT_ID),
+            message("code4", "module2", MR_IN, TENANT_ID)));
+
+        assertEquals(Arrays.asList("code1", "code2", "code4"), codes(messages.getMessages("module1,module2", null)));
+        assertEquals(Arrays.asList("code1", "code4"), codes(messages.getMessages("module2,module2", null)));
+        assertTrue(messages.getMessages("module4", null).isEmpty());
+    }
+
+    @Test
+    public void test_should_return_messages_having_the_codes() {
+        final LocalizedMessages messages = LocalizedMessages.of(MR_IN, TENANT_ID, Arrays.asList(
+            message("code1", "module1", MR_IN, TENANT_ID),
+            message("code2", "module1", MR_IN, TENANT_ID),
+            message("code2", "module2", MR_IN, TENANT_ID)));
+        final HashSet<String> codes = new HashSet<>(Arrays.asList("code2", "code5"));
+
+        assertEquals(2, messages.getMessages(null, codes).size());
+        assertEquals("module2", messages.getMessages("module2", codes).get(0).getModule());
+        assertEquals(1, messages.getMessages("module2", codes).size());
+    }
+
+    @Test
+    public void test_should_serialize_module_search_once_regardless_of_module_order() {
+        final LocalizedMessages messages = LocalizedMessages.of(MR_IN, TENANT_ID, Arrays.asList(
+            message("code1", "module1", MR_IN, TENANT_ID),
+            message("code2", "module2", MR_IN, TENANT_ID)));
+        final AtomicInteger serializations = new AtomicInteger();
+
+        final SerializedMessages first = messages.getSerializedMessages("module1,module2", null, list -> {
+            serializations.incrementAndGet();
+            return String.join(",", codes(list)).getBytes(StandardCharsets.UTF_8);
+        });
+        final SerializedMessages second = messages.getSerializedMessages("module2,module1", null, list -> {
+            serializations.incrementAndGet();
+            return new byte[0];
+        });
+
+        assertSame(first, second);
+        assertEquals(1, serializations.get());
+        assertEquals("code1,code2", new String(first.getBody(), StandardCharsets.UTF_8));
+        assertTrue(first.isMatchedBy("\"other\", W/" + first.getETag()));
+        assertFalse(first.isMatchedBy("\"other\""));
+    }
+
+    private static List<String> codes(List<Message> messages) {
+        return messages.stream().map(Message::getCode).collect(Collectors.toList());
+    }
+
+    private static Message message(String code, String module, String locale, String tenantId) {
+        final MessageIdentity messageIdentity = MessageIdentity.builder()
+            .code(code)
+            .module(module)
+            .locale(locale)
+            .tenant(new Tenant(tenantId))
+            .build();
+        return Message.builder()
+            .messageIdentity(messageIdentity)
+            .message("message for " + code)
+            .build();
+    }
+
+}
@@ -3,11 +3,13 @@ package org.egov.domain.service;
 
 import org.egov.domain.model.*;
 import org.egov.persistence.repository.MessageCacheRepository;
+import org.egov.persistence.repository.MessageNearCache;
 import org.egov.persistence.repository.MessageRepository;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import java.util.Arrays;
@@ -33,6 +35,9 @@ public class MessageServiceTest {
     @Mock
     private MessageCacheRepository messageCacheRepository;
 
+    @Spy
+    private MessageNearCache messageNearCache = new MessageNearCache(false, 0, null);
+
     @InjectMocks
     private MessageService messageService;
 
@@ -436,6 +441,8 @@ public class MessageServiceTest {
 
         verify(messageCacheRepository, times(1)).bustCacheEntry(MR_IN, tenant);
         verify(messageCacheRepository, times(1)).bustCacheEntry(ENGLISH_INDIA, tenant);
+        verify(messageNearCache, times(1)).evict(MR_IN, tenant);
+        verify(messageNearCache, times(1)).evict(ENGLISH_INDIA, tenant);
     }
 
     @Test
@@ -0,0 +1,112 @@
+package org.egov.persistence.repository;
+
+import org.egov.domain.model.LocalizedMessages;
+import org.egov.domain.model.Message;
+import org.egov.domain.model.MessageIdentity;
+import org.egov.domain.model.Tenant;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MessageNearCacheTest {
+
+    private static final String MR_IN = "mr_IN";
+
+    private MessageNearCache nearCache;
+
+    private AtomicInteger loads;
+
+    @Before
+    public void before() {
+        nearCache = new MessageNearCache(true, 900, null);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    public void test_should_load_messages_once() {
+        final LocalizedMessages first = nearCache.get(MR_IN, new Tenant("a.b"), loader("a.b"));
+        final LocalizedMessages second = nearCache.get(MR_IN, new Tenant("a.b"), loader("a.b"));
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1, first.getMessages(null, null).size());
+    }
+
+    @Test
+    public void test_should_bust_entries_of_the_tenant_and_its_derived_tenants() {
+        final LocalizedMessages derived = nearCache.get(MR_IN, new Tenant("a.b"), loader("a.b"));
+        final LocalizedMessages other = nearCache.get(MR_IN, new Tenant("c"), loader("c"));
+
+        nearCache.evict(MR_IN, new Tenant("a"));
+
+        assertNotSame(derived, nearCache.get(MR_IN, new Tenant("a.b"), loader("a.b")));
+        assertSame(other, nearCache.get(MR_IN, new Tenant("c"), loader("c")));
+    }
+
+    @Test
+    public void test_should_bust_all_entries_when_tenant_is_default() {
+        final LocalizedMessages messages = nearCache.get(MR_IN, new Tenant("c"), loader("c"));
+
+        nearCache.evict("en_IN", new Tenant(Tenant.DEFAULT_TENANT));
+
+        assertNotSame(messages, nearCache.get(MR_IN, new Tenant("c"), loader("c")));
+    }
+
+    @Test
+    public void test_should_bust_entries_on_cache_bust_message() {
+        final LocalizedMessages messages = nearCache.get(MR_IN, new Tenant("a.b"), loader("a.b"));
+        final LocalizedMessages other = nearCache.get(MR_IN, new Tenant("c"), loader("c"));
+
+        nearCache.onMessage(cacheBust("mr_IN:a.b"), null);
+        assertNotSame(messages, nearCache.get(MR_IN, new Tenant("a.b"), loader("a.b")));
+        assertSame(other, nearCache.get(MR_IN, new Tenant("c"), loader("c")));
+
+        nearCache.onMessage(cacheBust("*"), null);
+        assertNotSame(other, nearCache.get(MR_IN, new Tenant("c"), loader("c")));
+    }
+
+    @Test
+    public void test_should_not_keep_messages_loaded_across_a_bust() {
+        final LocalizedMessages messages = nearCache.get(MR_IN, new Tenant("a.b"), () -> {
+            nearCache.evict(MR_IN, new Tenant("a.b"));
+            return loader("a.b").get();
+        });
+
+        assertNotSame(messages, nearCache.get(MR_IN, new Tenant("a.b"), loader("a.b")));
+    }
+
+    private Supplier<List<Message>> loader(String tenantId) {
+        return () -> {
+            loads.incrementAndGet();
+            final MessageIdentity messageIdentity = MessageIdentity.builder()
+                .code("code1")
+                .module("module1")
+                .locale(MR_IN)
+                .tenant(new Tenant(tenantId))
+                .build();
+            return Collections.singletonList(Message.builder()
+                .messageIdentity(messageIdentity)
+                .message("message")
+                .build());
+        };
+    }
+
+    private static org.springframework.data.redis.connection.Message cacheBust(String cacheKey) {
+        final org.springframework.data.redis.connection.Message message =
+            mock(org.springframework.data.redis.connection.Message.class);
+        when(message.getBody()).thenReturn(cacheKey.getBytes(StandardCharsets.UTF_8));
+        return message;
+    }
+
+}
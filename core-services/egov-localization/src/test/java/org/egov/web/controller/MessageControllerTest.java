@@ -6,10 +6,12 @@ import org.egov.domain.model.*;
 import org.egov.domain.service.MessageService;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.stubbing.Answer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
@@ -17,8 +19,10 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Function;
 
 import static org.hamcrest.Matchers.containsString;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyList;
 import static org.mockito.Matchers.anyListOf;
 import static org.mockito.Matchers.eq;
@@ -27,6 +31,7 @@ import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @RunWith(SpringRunner.class)
@@ -51,7 +56,7 @@ public class MessageControllerTest {
             .tenantId(new Tenant(TENANT_ID))
             .module(null)
             .build();
-        when(messageService.getFilteredMessages(searchCriteria)).thenReturn(modelMessages);
+        when(messageService.getSerializedMessages(eq(searchCriteria), any())).thenAnswer(serialize(modelMessages));
         mockMvc.perform(get("/messages")
             .param("tenantId", TENANT_ID)
             .param("locale", LOCALE))
@@ -68,7 +73,7 @@ public class MessageControllerTest {
             .module("CS")
             .build();
         final List<Message> modelMessages = getModelMessages();
-        when(messageService.getFilteredMessages(searchCriteria)).thenReturn(modelMessages);
+        when(messageService.getSerializedMessages(eq(searchCriteria), any())).thenAnswer(serialize(modelMessages));
         mockMvc.perform(post("/messages/v1/_search")
             .param("tenantId", TENANT_ID)
             .param("module", "CS")
@@ -78,6 +83,32 @@ public class MessageControllerTest {
             .andExpect(content().json(getFileContents("messagesResponse.json")));
     }
 
+    @Test
+    public void test_should_return_not_modified_when_messages_match_entity_tag() throws Exception {
+        final MessageSearchCriteria searchCriteria = MessageSearchCriteria.builder()
+            .locale(LOCALE)
+            .tenantId(new Tenant(TENANT_ID))
+            .module("CS")
+            .build();
+        final List<Message> modelMessages = getModelMessages();
+        when(messageService.getSerializedMessages(eq(searchCriteria), any())).thenAnswer(serialize(modelMessages));
+        final String eTag = mockMvc.perform(post("/messages/v1/_search")
+            .param("tenantId", TENANT_ID)
+            .param("module", "CS")
+            .param("locale", LOCALE))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(post("/messages/v1/_search")
+            .param("tenantId", TENANT_ID)
+            .param("module", "CS")
+            .param("locale", LOCALE)
+            .header(HttpHeaders.IF_NONE_MATCH, "W/" + eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, eTag))
+            .andExpect(content().string(""));
+    }
+
     @Test
     public void test_should_save_new_messages() throws Exception {
         final Tenant defaultTenant = new Tenant("default");
@@ -188,6 +219,12 @@ public class MessageControllerTest {
         }
     }
 
+    @SuppressWarnings("unchecked")
+    private Answer<SerializedMessages> serialize(List<Message> messages) {
+        return invocation -> new SerializedMessages(
+            ((Function<List<Message>, byte[]>) invocation.getArgument(1)).apply(messages));
+    }
+
     private List<Message> getModelMessages() {
         final MessageIdentity messageIdentity1 = MessageIdentity.builder()
             .code("wcms.create.connection.login")
@@ -13,5 +13,7 @@ public class SMSConstants {
     public static final String SENDER_MESSAGE_IDENTIFIER = "senderMessageId";
     public static final String SENDER_MOBNO_IDENTIFIER = "senderMobileNoId";
 
+    public static final String MOBILE_NUMBER_DELIMITER = ",";
+
 
 }
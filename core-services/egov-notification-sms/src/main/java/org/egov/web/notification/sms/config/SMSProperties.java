@@ -69,6 +69,46 @@ public class SMSProperties {
     @Value("${sms.whitelist.numbers}")
     private List<String> whitelistNumbers;
 
+    @Value("${sms.dispatcher.workers:8}")
+    private int dispatcherWorkers;
+
+    @Value("${sms.dispatcher.queue.capacity:1000}")
+    private int dispatcherQueueCapacity;
+
+    @Value("${sms.dispatcher.batch.linger.ms:200}")
+    private long batchLingerMs;
+
+    @Value("${sms.dispatcher.retry.max.attempts:3}")
+    private int retryMaxAttempts;
+
+    @Value("${sms.dispatcher.retry.backoff.ms:1000}")
+    private long retryBackoffMs;
+
+    /**
+     * Requests per second allowed by the provider, 0 for no limit
+     */
+    @Value("${sms.provider.rate.limit:0}")
+    private double rateLimit;
+
+    /**
+     * Requests that can be made at once after the provider has been idle
+     */
+    @Value("${sms.provider.rate.burst:1}")
+    private int rateBurst;
+
+    /**
+     * Recipients of the same message sent in one request, used only by providers like MSDG which accept comma
+     * separated numbers
+     */
+    @Value("${sms.provider.batch.size:1}")
+    private int batchSize;
+
+    @Value("${sms.provider.connect.timeout.ms:5000}")
+    private int connectTimeoutMs;
+
+    @Value("${sms.provider.read.timeout.ms:30000}")
+    private int readTimeoutMs;
+
     @Setter(AccessLevel.PROTECTED) private List<Pattern> whitelistPatterns;
     @Setter(AccessLevel.PROTECTED) private List<Pattern> blacklistPatterns;
 
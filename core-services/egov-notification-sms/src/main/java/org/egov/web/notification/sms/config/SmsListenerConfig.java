@@ -0,0 +1,54 @@
+package org.egov.web.notification.sms.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+
+/**
+ * Container factory of the sms listener. The listener receives the records of a poll together and returns once
+ * all of them are dispatched, the offsets are committed only after that so the sms still queued in the dispatcher
+ * are consumed again after a restart.
+ *
+ * A poll is limited to <code>sms.listener.max.poll.records</code> records so the sms of a poll can be sent within
+ * <code>sms.listener.max.poll.interval.ms</code> even when the provider is slow, the listener waits at most
+ * <code>sms.listener.max.wait.ms</code> for them, which has to stay below the poll interval so the consumer is not
+ * removed from the group and the poll delivered again to another consumer.
+ */
+@Configuration
+public class SmsListenerConfig {
+
+    public static final String SMS_LISTENER_CONTAINER_FACTORY = "smsListenerContainerFactory";
+
+    @Autowired
+    private KafkaProperties kafkaProperties;
+
+    @Value("${sms.listener.max.poll.records:100}")
+    private int maxPollRecords;
+
+    @Value("${sms.listener.max.poll.interval.ms:300000}")
+    private int maxPollIntervalMs;
+
+    @Bean(SMS_LISTENER_CONTAINER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<String, Object> smsListenerContainerFactory() {
+        Map<String, Object> props = new HashMap<>(kafkaProperties.buildConsumerProperties());
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        props.put(ConsumerConfig.MAX_POLL_INTERVAL_MS_CONFIG, maxPollIntervalMs);
+
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props));
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        return factory;
+    }
+
+}
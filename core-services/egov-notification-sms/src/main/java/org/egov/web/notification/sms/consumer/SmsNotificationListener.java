@@ -2,34 +2,35 @@ package org.egov.web.notification.sms.consumer;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.kafka.clients.consumer.*;
-import org.egov.tracer.kafka.*;
+import org.egov.tracer.kafka.CustomKafkaTemplate;
+import org.egov.web.notification.sms.config.SmsListenerConfig;
 import org.egov.web.notification.sms.consumer.contract.SMSRequest;
 import org.egov.web.notification.sms.models.Category;
 import org.egov.web.notification.sms.models.RequestContext;
-import org.egov.web.notification.sms.service.SMSService;
-import org.springframework.beans.factory.annotation.*;
-import org.springframework.boot.autoconfigure.kafka.*;
+import org.egov.web.notification.sms.service.SmsDispatcher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
-import org.springframework.context.annotation.*;
-import org.springframework.kafka.annotation.*;
-import org.springframework.kafka.config.*;
-import org.springframework.kafka.core.*;
-import org.springframework.kafka.listener.*;
-import org.springframework.kafka.listener.ErrorHandler;
+import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
-import org.springframework.util.*;
+import org.springframework.util.StringUtils;
 import org.springframework.web.client.RestClientException;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Slf4j
 @Service
 public class SmsNotificationListener {
 
     private final ApplicationContext context;
-    private SMSService smsService;
+    private SmsDispatcher smsDispatcher;
     private CustomKafkaTemplate<String, SMSRequest> kafkaTemplate;
 
     @Autowired
@@ -47,43 +48,78 @@ public class SmsNotificationListener {
     @Value("${sms.enabled}")
     Boolean smsEnable;
 
+    @Value("${sms.listener.max.wait.ms:240000}")
+    long maxWaitMs;
+
 
     @Autowired
     public SmsNotificationListener(
             ApplicationContext context,
-            SMSService smsService,
+            SmsDispatcher smsDispatcher,
                                    CustomKafkaTemplate<String, SMSRequest> kafkaTemplate) {
-        this.smsService = smsService;
+        this.smsDispatcher = smsDispatcher;
         this.context = context;
         this.kafkaTemplate = kafkaTemplate;
     }
 
+    /**
+     * Dispatches the records of a poll and waits till every sms is sent or pushed to the backup, error or expiry
+     * topic, the offsets of the poll are committed after this returns. The wait is bounded by
+     * <code>sms.listener.max.wait.ms</code> so a slow provider does not hold the poll past the poll interval, the
+     * sms still pending then are left to the dispatcher
+     *
+     * @param consumerRecords
+     */
     @KafkaListener(
-            topics = "${kafka.topics.notification.sms.name}"
+            topics = "${kafka.topics.notification.sms.name}",
+            containerFactory = SmsListenerConfig.SMS_LISTENER_CONTAINER_FACTORY
     )
-    public void process(HashMap<String, Object> consumerRecord) {
+    public void process(List<HashMap<String, Object>> consumerRecords) {
+        if(!smsEnable){
+            log.info("Sms service is disable to enable the notification service set the value of sms.enable flag as true");
+            return;
+        }
+
+        List<CompletableFuture<Void>> dispatched = new ArrayList<>(consumerRecords.size());
+        for (HashMap<String, Object> consumerRecord : consumerRecords) {
+            CompletableFuture<Void> future = process(consumerRecord);
+            if (future != null)
+                dispatched.add(future);
+        }
+        await(dispatched);
+    }
+
+    private void await(List<CompletableFuture<Void>> dispatched) {
+        try {
+            CompletableFuture.allOf(dispatched.toArray(new CompletableFuture[0])).get(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            long pending = dispatched.stream().filter(future -> !future.isDone()).count();
+            log.warn("{} of {} sms not dispatched within {} ms, committing the poll and leaving them to the dispatcher",
+                    pending, dispatched.size(), maxWaitMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while dispatching sms", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Sms dispatch failed", e.getCause());
+        }
+    }
+
+    private CompletableFuture<Void> process(HashMap<String, Object> consumerRecord) {
         RequestContext.setId(UUID.randomUUID().toString());
         SMSRequest request = null;
         try {
-            if(!smsEnable){
-                log.info("Sms service is disable to enable the notification service set the value of sms.enable flag as true");
-            }
-            else{
-                request = objectMapper.convertValue(consumerRecord, SMSRequest.class);
-                if (request.getExpiryTime() != null && request.getCategory() == Category.OTP) {
-                    Long expiryTime = request.getExpiryTime();
-                    Long currentTime = System.currentTimeMillis();
-                    if (expiryTime < currentTime) {
-                        log.info("OTP Expired");
-                        if (!StringUtils.isEmpty(expiredSmsTopic))
-                            kafkaTemplate.send(expiredSmsTopic, request);
-                    } else {
-                        smsService.sendSMS(request.toDomain());
-                    }
-                } else {
-                    smsService.sendSMS(request.toDomain());
+            request = objectMapper.convertValue(consumerRecord, SMSRequest.class);
+            if (request.getExpiryTime() != null && request.getCategory() == Category.OTP) {
+                Long expiryTime = request.getExpiryTime();
+                Long currentTime = System.currentTimeMillis();
+                if (expiryTime < currentTime) {
+                    log.info("OTP Expired");
+                    if (!StringUtils.isEmpty(expiredSmsTopic))
+                        kafkaTemplate.send(expiredSmsTopic, request);
+                    return null;
                 }
             }
+            return smsDispatcher.dispatch(request);
 
         } catch (RestClientException rx) {
             log.info("Going to backup SMS Service", rx);
@@ -102,5 +138,6 @@ public class SmsNotificationListener {
                 throw ex;
             }
         }
+        return null;
     }
 }
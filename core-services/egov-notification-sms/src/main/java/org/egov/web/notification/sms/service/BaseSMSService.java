@@ -3,6 +3,7 @@ package org.egov.web.notification.sms.service;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.jayway.jsonpath.*;
 import lombok.extern.slf4j.*;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.conn.ssl.*;
 import org.apache.http.impl.client.*;
 import org.egov.web.notification.sms.config.*;
@@ -25,6 +26,7 @@ import java.lang.reflect.Type;
 import java.net.*;
 import java.security.*;
 import java.util.*;
+import java.util.stream.Collectors;
 
 @Slf4j
 abstract public class BaseSMSService implements SMSService, SMSBodyBuilder {
@@ -58,22 +60,48 @@ abstract public class BaseSMSService implements SMSService, SMSBodyBuilder {
 
     @Override
     public void sendSMS(Sms sms) {
+        if (isDeliverable(sms))
+            submitToExternalSmsService(sms);
+    }
+
+    @Override
+    public void sendSMS(List<Sms> smsList) {
+        List<Sms> deliverable = smsList.stream().filter(this::isDeliverable).collect(Collectors.toList());
+        if (deliverable.isEmpty())
+            return;
+        if (deliverable.size() == 1 || !isMultipleRecipientSupported()) {
+            deliverable.forEach(this::submitToExternalSmsService);
+            return;
+        }
+
+        Sms first = deliverable.get(0);
+        String mobileNumbers = deliverable.stream().map(Sms::getMobileNumber)
+                .collect(Collectors.joining(SMSConstants.MOBILE_NUMBER_DELIMITER));
+        submitToExternalSmsService(new Sms(mobileNumbers, first.getMessage(), first.getCategory(), first.getExpiryTime()));
+    }
+
+    @Override
+    public boolean isMultipleRecipientSupported() {
+        return false;
+    }
+
+    private boolean isDeliverable(Sms sms) {
         if (!sms.isValid()) {
             log.error(String.format("Sms %s is not valid", sms));
-            return;
+            return false;
         }
 
         if (smsProperties.isNumberBlacklisted(sms.getMobileNumber())) {
             log.error(String.format("Sms to %s is blacklisted", sms.getMobileNumber()));
-            return;
+            return false;
         }
 
         if (!smsProperties.isNumberWhitelisted(sms.getMobileNumber())) {
             log.error(String.format("Sms to %s is not in whitelist", sms.getMobileNumber()));
-            return;
+            return false;
         }
 
-        submitToExternalSmsService(sms);
+        return true;
     }
 
     protected abstract void submitToExternalSmsService(Sms sms);
@@ -131,7 +159,9 @@ abstract public class BaseSMSService implements SMSService, SMSBodyBuilder {
                         map.add(key, smsProperties.getSenderid());
                         break;
                     case "$mobileno":
-                        map.add(key, smsProperties.getMobileNumberPrefix() + sms.getMobileNumber());
+                        map.add(key, Arrays.stream(sms.getMobileNumber().split(SMSConstants.MOBILE_NUMBER_DELIMITER))
+                                .map(mobileNumber -> smsProperties.getMobileNumberPrefix() + mobileNumber)
+                                .collect(Collectors.joining(SMSConstants.MOBILE_NUMBER_DELIMITER)));
                         break;
                     case "$message":
                         map.add(key, sms.getMessage());
@@ -178,8 +208,20 @@ abstract public class BaseSMSService implements SMSService, SMSBodyBuilder {
         return headers;
     }
 
+    /**
+     * Pools the connections to the provider for the dispatcher workers and bounds the time a
+     * slow provider can hold a worker
+     */
     @PostConstruct
-    protected void setupSSL() {
+    protected void setupHttpClient() {
+        HttpClientBuilder httpClientBuilder = HttpClients.custom()
+                .setMaxConnTotal(smsProperties.getDispatcherWorkers())
+                .setMaxConnPerRoute(smsProperties.getDispatcherWorkers())
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout(smsProperties.getConnectTimeoutMs())
+                        .setSocketTimeout(smsProperties.getReadTimeoutMs())
+                        .build());
+
         if (!smsProperties.isVerifySSL()) {
 
             SSLContext ctx = null;
@@ -194,11 +236,12 @@ abstract public class BaseSMSService implements SMSService, SMSBodyBuilder {
                 e.printStackTrace();
             }
             SSLConnectionSocketFactory csf = new SSLConnectionSocketFactory(ctx, new NoopHostnameVerifier());
-            CloseableHttpClient httpClient = HttpClients.custom().setSSLSocketFactory(csf).build();
-            HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory();
-            requestFactory.setHttpClient(httpClient);
-            restTemplate.setRequestFactory(requestFactory);
+            httpClientBuilder.setSSLSocketFactory(csf);
         }
+
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory();
+        requestFactory.setHttpClient(httpClientBuilder.build());
+        restTemplate.setRequestFactory(requestFactory);
     }
 
 }
@@ -2,7 +2,20 @@ package org.egov.web.notification.sms.service;
 
 import org.egov.web.notification.sms.models.Sms;
 
+import java.util.List;
+
 public interface SMSService {
     void sendSMS(Sms sms);
-}
 
+    /**
+     * Sends the same message to all the recipients in one request to the provider
+     *
+     * @param smsList messages with the same text and category
+     */
+    void sendSMS(List<Sms> smsList);
+
+    /**
+     * Whether the provider accepts several comma separated numbers in one request
+     */
+    boolean isMultipleRecipientSupported();
+}
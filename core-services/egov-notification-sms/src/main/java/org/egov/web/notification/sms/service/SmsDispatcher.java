@@ -0,0 +1,390 @@
+package org.egov.web.notification.sms.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.egov.tracer.kafka.CustomKafkaTemplate;
+import org.egov.web.notification.sms.config.SMSProperties;
+import org.egov.web.notification.sms.consumer.contract.SMSRequest;
+import org.egov.web.notification.sms.models.Category;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.RestClientException;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Sends the sms to the provider on a pool of workers so a slow provider does not hold up the kafka consumer.
+ * When the queue is full a new sms is sent on the consuming thread, which slows the consumer down to the pace of
+ * the provider, while retries and batches flushed by the scheduler are queued again after a delay.
+ *
+ * The requests to the provider are limited to <code>sms.provider.rate.limit</code> per second. When
+ * <code>sms.provider.batch.size</code> is more than one and the provider accepts several numbers in one request,
+ * the recipients of the same message arriving within <code>sms.dispatcher.batch.linger.ms</code> are sent in one
+ * request.
+ *
+ * Failed requests are retried with an exponential backoff, the sms which could not be sent after the last
+ * attempt are pushed to the backup or the error topic.
+ */
+@Slf4j
+@Service
+public class SmsDispatcher {
+
+    private static final String REQUEST_METRIC = "sms.dispatch.requests";
+
+    private static final String SENT_METRIC = "sms.dispatch.sent";
+
+    private static final String FAILURE_METRIC = "sms.dispatch.failures";
+
+    private static final String RETRY_METRIC = "sms.dispatch.retries";
+
+    private static final String UNDELIVERED_METRIC = "sms.dispatch.undelivered";
+
+    private static final String QUEUE_METRIC = "sms.dispatch.queue.size";
+
+    private static final String RETRY_PENDING_METRIC = "sms.dispatch.retry.pending";
+
+    private static final String REQUEUE_METRIC = "sms.dispatch.requeued";
+
+    private static final String PROVIDER_TAG = "provider";
+
+    private final SMSService smsService;
+
+    private final SMSProperties smsProperties;
+
+    private final CustomKafkaTemplate<String, SMSRequest> kafkaTemplate;
+
+    private final MeterRegistry registry;
+
+    private final Timer requestTimer;
+
+    private final Counter sent;
+
+    private final Counter failures;
+
+    private final Counter retries;
+
+    private final Counter undelivered;
+
+    private final Counter requeued;
+
+    private final AtomicInteger pendingRetries = new AtomicInteger();
+
+    /* recipients waiting to be batched, keyed on the message and its category */
+    private final Map<List<Object>, List<PendingSms>> batches = new HashMap<>();
+
+    @Value("${kafka.topics.expiry.sms}")
+    private String expiredSmsTopic;
+
+    @Value("${kafka.topics.backup.sms}")
+    private String backupSmsTopic;
+
+    @Value("${kafka.topics.error.sms}")
+    private String errorSmsTopic;
+
+    private TokenBucket rateLimiter;
+
+    private ThreadPoolExecutor executor;
+
+    private ScheduledExecutorService scheduler;
+
+    @Autowired
+    public SmsDispatcher(SMSService smsService, SMSProperties smsProperties,
+                         CustomKafkaTemplate<String, SMSRequest> kafkaTemplate,
+                         ObjectProvider<MeterRegistry> meterRegistry) {
+        this.smsService = smsService;
+        this.smsProperties = smsProperties;
+        this.kafkaTemplate = kafkaTemplate;
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        this.registry = registry != null ? registry : Metrics.globalRegistry;
+        String provider = smsProperties.getGatewayToUse();
+        this.requestTimer = Timer.builder(REQUEST_METRIC).description("Time taken by the requests to the provider")
+                .tag(PROVIDER_TAG, provider).register(this.registry);
+        this.sent = Counter.builder(SENT_METRIC).description("Sms accepted by the provider")
+                .tag(PROVIDER_TAG, provider).register(this.registry);
+        this.failures = Counter.builder(FAILURE_METRIC).description("Requests to the provider which failed")
+                .tag(PROVIDER_TAG, provider).register(this.registry);
+        this.retries = Counter.builder(RETRY_METRIC).description("Requests to the provider which were retried")
+                .tag(PROVIDER_TAG, provider).register(this.registry);
+        this.undelivered = Counter.builder(UNDELIVERED_METRIC).description("Sms which could not be sent after retries")
+                .tag(PROVIDER_TAG, provider).register(this.registry);
+        this.requeued = Counter.builder(REQUEUE_METRIC).description("Retries queued again as the workers were busy")
+                .tag(PROVIDER_TAG, provider).register(this.registry);
+    }
+
+    @PostConstruct
+    public void start() {
+        rateLimiter = new TokenBucket(smsProperties.getRateLimit(), smsProperties.getRateBurst());
+
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(smsProperties.getDispatcherWorkers(), smsProperties.getDispatcherWorkers(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(smsProperties.getDispatcherQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "sms-dispatcher-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sms-dispatcher-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (isBatching())
+            scheduler.scheduleWithFixedDelay(this::flushBatches, smsProperties.getBatchLingerMs(),
+                    smsProperties.getBatchLingerMs(), TimeUnit.MILLISECONDS);
+
+        String provider = smsProperties.getGatewayToUse();
+        registry.gauge(QUEUE_METRIC, Tags.of(PROVIDER_TAG, provider), executor.getQueue(), queue -> queue.size());
+        registry.gauge(RETRY_PENDING_METRIC, Tags.of(PROVIDER_TAG, provider), pendingRetries);
+    }
+
+    /**
+     * Waits for the scheduled retries and the queued sms to be sent
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        scheduler.shutdown();
+        if (!scheduler.awaitTermination(30, TimeUnit.SECONDS))
+            log.warn("Sms dispatcher retries did not finish in time, " + pendingRetries.get() + " retries are dropped");
+        flushBatches();
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS))
+            log.warn("Sms dispatcher workers did not finish in time, " + executor.getQueue().size()
+                    + " requests are dropped");
+    }
+
+    /**
+     * Queues the sms to be sent to the provider
+     *
+     * @param request
+     * @return completes once the sms is sent or pushed to the backup, error or expiry topic
+     */
+    public CompletableFuture<Void> dispatch(SMSRequest request) {
+        PendingSms sms = new PendingSms(request);
+        if (!isBatching()) {
+            submit(Collections.singletonList(sms));
+            return sms.done;
+        }
+
+        List<PendingSms> batch = null;
+        List<Object> key = Arrays.asList(request.getMessage(), request.getCategory());
+        synchronized (batches) {
+            List<PendingSms> pending = batches.computeIfAbsent(key, k -> new ArrayList<>());
+            pending.add(sms);
+            if (pending.size() >= smsProperties.getBatchSize())
+                batch = batches.remove(key);
+        }
+        if (batch != null)
+            submit(batch);
+        return sms.done;
+    }
+
+    private boolean isBatching() {
+        return smsProperties.getBatchSize() > 1 && smsService.isMultipleRecipientSupported();
+    }
+
+    private void flushBatches() {
+        List<List<PendingSms>> pending;
+        synchronized (batches) {
+            pending = new ArrayList<>(batches.values());
+            batches.clear();
+        }
+        pending.forEach(batch -> requeue(batch, 1));
+    }
+
+    /**
+     * Sends the sms received from the consumer, on the consuming thread when all the workers are busy
+     */
+    private void submit(List<PendingSms> batch) {
+        try {
+            executor.execute(() -> send(batch, 1));
+        } catch (RejectedExecutionException e) {
+            send(batch, 1);
+        }
+    }
+
+    /**
+     * Sends the sms scheduled for a retry or flushed from the batches, when all the workers are busy they are
+     * scheduled again so that the scheduler thread never waits on the provider
+     */
+    private void requeue(List<PendingSms> batch, int attempt) {
+        try {
+            executor.execute(() -> send(batch, attempt));
+        } catch (RejectedExecutionException e) {
+            requeued.increment();
+            if (!schedule(batch, attempt, smsProperties.getRetryBackoffMs()))
+                send(batch, attempt);
+        }
+    }
+
+    private boolean schedule(List<PendingSms> batch, int attempt, long delay) {
+        try {
+            pendingRetries.incrementAndGet();
+            scheduler.schedule(() -> {
+                pendingRetries.decrementAndGet();
+                requeue(batch, attempt);
+            }, delay, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (RejectedExecutionException e) {
+            pendingRetries.decrementAndGet();
+            return false;
+        }
+    }
+
+    private void send(List<PendingSms> batch, int attempt) {
+        List<PendingSms> live = removeExpired(batch);
+        if (live.isEmpty())
+            return;
+
+        rateLimiter.acquire();
+        long start = System.nanoTime();
+        try {
+            smsService.sendSMS(live.stream().map(sms -> sms.request.toDomain()).collect(Collectors.toList()));
+            sent.increment(live.size());
+            live.forEach(sms -> sms.done.complete(null));
+        } catch (RuntimeException e) {
+            failures.increment();
+            retry(live, attempt, e);
+        } finally {
+            requestTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Retries the recipients of the failed request, the recipients sent in other requests or pushed to the
+     * expiry topic are not sent again
+     */
+    private void retry(List<PendingSms> failed, int attempt, RuntimeException cause) {
+        if (attempt >= smsProperties.getRetryMaxAttempts()) {
+            log.error("Sms to " + failed.size() + " recipients failed after " + attempt + " attempts", cause);
+            sendToFailureTopic(failed, cause);
+            return;
+        }
+
+        long delay = smsProperties.getRetryBackoffMs() << Math.min(attempt - 1, 16);
+        log.warn("Sms to " + failed.size() + " recipients failed, retrying in " + delay + " ms: " + cause.getMessage());
+        if (schedule(failed, attempt + 1, delay))
+            retries.increment();
+        else
+            sendToFailureTopic(failed, cause);
+    }
+
+    private void sendToFailureTopic(List<PendingSms> failed, RuntimeException cause) {
+        undelivered.increment(failed.size());
+        String topic = cause instanceof RestClientException && !StringUtils.isEmpty(backupSmsTopic)
+                ? backupSmsTopic : errorSmsTopic;
+        if (StringUtils.isEmpty(topic)) {
+            log.error("No backup or error topic is configured, sms to " + failed.size() + " recipients are dropped");
+            failed.forEach(sms -> sms.done.complete(null));
+            return;
+        }
+        failed.forEach(sms -> push(topic, sms));
+    }
+
+    private void push(String topic, PendingSms sms) {
+        try {
+            kafkaTemplate.send(topic, sms.request);
+            sms.done.complete(null);
+        } catch (RuntimeException e) {
+            sms.done.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * OTPs may expire while waiting for a retry, they are pushed to the expiry topic instead
+     */
+    private List<PendingSms> removeExpired(List<PendingSms> batch) {
+        long currentTime = System.currentTimeMillis();
+        List<PendingSms> live = new ArrayList<>(batch.size());
+        for (PendingSms sms : batch) {
+            SMSRequest request = sms.request;
+            if (request.getCategory() == Category.OTP && request.getExpiryTime() != null
+                    && request.getExpiryTime() < currentTime) {
+                log.info("OTP Expired");
+                if (!StringUtils.isEmpty(expiredSmsTopic))
+                    push(expiredSmsTopic, sms);
+                else
+                    sms.done.complete(null);
+            } else {
+                live.add(sms);
+            }
+        }
+        return live;
+    }
+
+    private static class PendingSms {
+
+        private final SMSRequest request;
+
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        PendingSms(SMSRequest request) {
+            this.request = request;
+        }
+    }
+
+    /**
+     * Token bucket refilled at the rate allowed by the provider. A request that finds the bucket empty reserves the
+     * next token and waits for it, so the waiting workers are spaced out at the allowed rate.
+     */
+    private static class TokenBucket {
+
+        private final double permitsPerNano;
+
+        private final double capacity;
+
+        private double tokens;
+
+        private long lastRefill = System.nanoTime();
+
+        TokenBucket(double permitsPerSecond, int burst) {
+            this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+            this.capacity = Math.max(burst, 1);
+            this.tokens = capacity;
+        }
+
+        void acquire() {
+            if (permitsPerNano <= 0)
+                return;
+            long wait = reserve();
+            if (wait <= 0)
+                return;
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private synchronized long reserve() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * permitsPerNano);
+            lastRefill = now;
+            tokens -= 1;
+            return tokens >= 0 ? 0 : (long) (-tokens / permitsPerNano);
+        }
+    }
+
+}
@@ -73,22 +73,32 @@ public class MSDGSMSServiceImpl extends BaseSMSService {
         return buf.toString();
     }
 
+    /**
+     * The mobile number of the sms can be a comma separated list of numbers, MSDG sends the message to all of them
+     *
+     * @param sms
+     */
     protected void submitToExternalSmsService(Sms sms) {
-        String finalmessage = "";
+        StringBuilder finalmessage = new StringBuilder(sms.getMessage().length() * 6);
         for (int i = 0; i < sms.getMessage().length(); i++) {
             char ch = sms.getMessage().charAt(i);
             int j = (int) ch;
-            String sss = "&#" + j + ";";
-            finalmessage = finalmessage + sss;
+            finalmessage.append("&#").append(j).append(';');
         }
-        sms.setMessage(finalmessage);
+        // the sms is sent again on retries, it is encoded on a copy
+        Sms encodedSms = new Sms(sms.getMobileNumber(), finalmessage.toString(), sms.getCategory(), sms.getExpiryTime());
         String url = smsProperties.getUrl();
-        final MultiValueMap<String, String> requestBody = bodyBuilder.getSmsRequestBody(sms);
+        final MultiValueMap<String, String> requestBody = bodyBuilder.getSmsRequestBody(encodedSms);
         postProcessor(requestBody);
         HttpEntity<MultiValueMap<String, String>> request = new HttpEntity<>(requestBody, getHttpHeaders());
         executeAPI(URI.create(url), HttpMethod.POST, request, String.class);
     }
 
+    @Override
+    public boolean isMultipleRecipientSupported() {
+        return true;
+    }
+
     /**
      * Performs post processing on the default parameters
      *
@@ -0,0 +1,226 @@
+package org.egov.web.notification.sms.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.egov.tracer.kafka.CustomKafkaTemplate;
+import org.egov.web.notification.sms.config.SMSProperties;
+import org.egov.web.notification.sms.consumer.contract.SMSRequest;
+import org.egov.web.notification.sms.models.Category;
+import org.egov.web.notification.sms.models.Sms;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestClientException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class SmsDispatcherTest {
+
+    private static final String EXPIRY_TOPIC = "egov.core.sms.expiry";
+
+    private static final String ERROR_TOPIC = "egov.core.sms.error";
+
+    private static final String MESSAGE = "Your property tax is due";
+
+    private SMSProperties smsProperties;
+
+    private CustomKafkaTemplate<String, SMSRequest> kafkaTemplate;
+
+    private StubSmsService provider;
+
+    private SmsDispatcher dispatcher;
+
+    @BeforeEach
+    public void setUp() {
+        smsProperties = new SMSProperties();
+        smsProperties.setGatewayToUse("Stub");
+        smsProperties.setDispatcherWorkers(4);
+        smsProperties.setDispatcherQueueCapacity(100);
+        smsProperties.setBatchLingerMs(50);
+        smsProperties.setRetryMaxAttempts(3);
+        smsProperties.setRetryBackoffMs(10);
+        smsProperties.setRateBurst(1);
+        smsProperties.setBatchSize(1);
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        dispatcher.stop();
+    }
+
+    @Test
+    public void testRequestsAreLimitedToProviderRate() throws Exception {
+        smsProperties.setRateLimit(20);
+        start(false);
+
+        dispatchAll(request("9999999991"), request("9999999992"), request("9999999993"), request("9999999994"),
+                request("9999999995"));
+
+        List<Long> requestTimes = new ArrayList<>(provider.requestTimes);
+        Collections.sort(requestTimes);
+        assertEquals(5, requestTimes.size());
+        long elapsed = requestTimes.get(4) - requestTimes.get(0);
+        assertTrue(elapsed >= TimeUnit.MILLISECONDS.toNanos(180), "Requests were sent " + elapsed + " ns apart");
+    }
+
+    @Test
+    public void testRecipientsOfSameMessageAreSentInOneRequest() throws Exception {
+        smsProperties.setBatchSize(3);
+        start(true);
+
+        dispatchAll(request("9999999991"), request("9999999992"), request("9999999993"),
+                new SMSRequest("9999999994", "Your OTP is 1234", Category.OTP, null, null, null, null, null));
+
+        List<Integer> sizes = provider.requests.stream().map(List::size).sorted().collect(Collectors.toList());
+        assertEquals(2, sizes.size());
+        assertEquals(1, (int) sizes.get(0));
+        assertEquals(3, (int) sizes.get(1));
+    }
+
+    @Test
+    public void testRecipientsAreSentIndividuallyWhenProviderDoesNotSupportMultipleRecipients() throws Exception {
+        smsProperties.setBatchSize(3);
+        start(false);
+
+        dispatchAll(request("9999999991"), request("9999999992"), request("9999999993"));
+
+        assertEquals(3, provider.requests.size());
+        assertTrue(provider.requests.stream().allMatch(request -> request.size() == 1));
+    }
+
+    @Test
+    public void testFailedRequestIsRetried() throws Exception {
+        start(false);
+        provider.failures.put("9999999991", 2);
+
+        dispatchAll(request("9999999991"));
+
+        assertEquals(3, provider.requests.size());
+        verify(kafkaTemplate, never()).send(anyString(), any());
+    }
+
+    @Test
+    public void testOnlyFailedRecipientsAreRetried() throws Exception {
+        start(false);
+        provider.failures.put("9999999991", 1);
+
+        dispatchAll(request("9999999991"), request("9999999992"));
+
+        assertEquals(2, provider.sentTo("9999999991"));
+        assertEquals(1, provider.sentTo("9999999992"));
+    }
+
+    @Test
+    public void testSmsIsPushedToErrorTopicAfterLastAttempt() throws Exception {
+        start(false);
+        provider.failures.put("9999999991", Integer.MAX_VALUE);
+        SMSRequest request = request("9999999991");
+
+        dispatchAll(request);
+
+        assertEquals(3, provider.requests.size());
+        verify(kafkaTemplate).send(ERROR_TOPIC, request);
+    }
+
+    @Test
+    public void testExpiredOtpIsPushedToExpiryTopic() throws Exception {
+        start(false);
+        SMSRequest request = new SMSRequest("9999999991", "Your OTP is 1234", Category.OTP,
+                System.currentTimeMillis() - 1000, null, null, null, null);
+
+        dispatchAll(request);
+
+        assertEquals(0, provider.requests.size());
+        verify(kafkaTemplate).send(EXPIRY_TOPIC, request);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void start(boolean multipleRecipientSupported) {
+        provider = new StubSmsService(multipleRecipientSupported);
+        kafkaTemplate = mock(CustomKafkaTemplate.class);
+        ObjectProvider<MeterRegistry> meterRegistry = mock(ObjectProvider.class);
+        when(meterRegistry.getIfAvailable()).thenReturn(new SimpleMeterRegistry());
+
+        dispatcher = new SmsDispatcher(provider, smsProperties, kafkaTemplate, meterRegistry);
+        ReflectionTestUtils.setField(dispatcher, "expiredSmsTopic", EXPIRY_TOPIC);
+        ReflectionTestUtils.setField(dispatcher, "backupSmsTopic", "");
+        ReflectionTestUtils.setField(dispatcher, "errorSmsTopic", ERROR_TOPIC);
+        dispatcher.start();
+    }
+
+    private void dispatchAll(SMSRequest... requests) throws Exception {
+        List<CompletableFuture<Void>> dispatched = new ArrayList<>();
+        for (SMSRequest request : requests)
+            dispatched.add(dispatcher.dispatch(request));
+        CompletableFuture.allOf(dispatched.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+    }
+
+    private SMSRequest request(String mobileNumber) {
+        return new SMSRequest(mobileNumber, MESSAGE, Category.NOTIFICATION, null, null, null, null, null);
+    }
+
+    /**
+     * Provider recording the requests made to it, the numbers in <code>failures</code> fail that many times
+     */
+    private static class StubSmsService implements SMSService {
+
+        private final boolean multipleRecipientSupported;
+
+        private final List<List<Sms>> requests = new CopyOnWriteArrayList<>();
+
+        private final List<Long> requestTimes = new CopyOnWriteArrayList<>();
+
+        private final Map<String, Integer> failures = new ConcurrentHashMap<>();
+
+        StubSmsService(boolean multipleRecipientSupported) {
+            this.multipleRecipientSupported = multipleRecipientSupported;
+        }
+
+        @Override
+        public void sendSMS(Sms sms) {
+            sendSMS(Collections.singletonList(sms));
+        }
+
+        @Override
+        public void sendSMS(List<Sms> smsList) {
+            requestTimes.add(System.nanoTime());
+            requests.add(smsList);
+            for (Sms sms : smsList) {
+                if (failures.computeIfPresent(sms.getMobileNumber(), (number, left) -> left - 1) != null
+                        && failures.get(sms.getMobileNumber()) >= 0)
+                    throw new RestClientException("Provider is not reachable");
+            }
+        }
+
+        @Override
+        public boolean isMultipleRecipientSupported() {
+            return multipleRecipientSupported;
+        }
+
+        long sentTo(String mobileNumber) {
+            return requests.stream().flatMap(List::stream).filter(sms -> sms.getMobileNumber().equals(mobileNumber))
+                    .count();
+        }
+    }
+
+}
@@ -1,11 +1,19 @@
 package org.egov.url.shortening.service;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 import lombok.extern.slf4j.Slf4j;
 import org.json.JSONArray;
@@ -59,6 +67,31 @@ public class URLConverterService {
 
     @Value("${url.shorten.indexer.topic}")
     private String kafkaTopic;
+
+    @Value("${url.cache.max.size}")
+    private int urlCacheMaxSize;
+
+    @Value("${url.click.queue.size}")
+    private int clickQueueSize;
+
+    @Value("${url.click.batch.size}")
+    private int clickBatchSize;
+
+    /*
+     * shortened urls do not change once saved, the most recently redirected ones are kept
+     */
+    private final Map<Long, String> urlCache = Collections.synchronizedMap(new LinkedHashMap<Long, String>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, String> eldest) {
+            return size() > urlCacheMaxSize;
+        }
+    });
+
+    private BlockingQueue<ClickEvent> clickEvents;
+
+    private final AtomicLong droppedClicks = new AtomicLong();
+
+    private Thread clickIndexer;
     
     private ObjectMapper objectMapper;
 
@@ -84,6 +117,25 @@ public class URLConverterService {
     		urlRepository =  urlRepositories.get(0);
     	else
     		urlRepository = urlRepositories.get(1);
+    	startClickIndexer();
+    }
+
+    /**
+     * Starts the thread indexing the queued clicks, the queue holds at most url.click.queue.size clicks
+     */
+    void startClickIndexer() {
+    	clickEvents = new LinkedBlockingQueue<>(clickQueueSize);
+    	clickIndexer = new Thread(this::indexClicks, "url-click-indexer");
+    	clickIndexer.setDaemon(true);
+    	clickIndexer.start();
+    }
+
+    @PreDestroy
+    public void destroy() throws InterruptedException {
+    	if(clickIndexer != null) {
+    		clickIndexer.interrupt();
+    		clickIndexer.join(TimeUnit.SECONDS.toMillis(5));
+    	}
     }
     
 
@@ -117,27 +169,73 @@ public class URLConverterService {
         // To support previously generated dictionary keys
         if(dictionaryKey == null)
             dictionaryKey = IDConvertor.getDictionaryKeyFromUniqueID(uniqueID);
-        String longUrl = urlRepository.getUrl(dictionaryKey);
-        LOGGER.info("Converting shortened URL back to {}", longUrl);
+        String longUrl = urlCache.get(dictionaryKey);
+        if(longUrl == null) {
+            longUrl = urlRepository.getUrl(dictionaryKey);
+            LOGGER.info("Converting shortened URL back to {}", longUrl);
+            if(!longUrl.isEmpty())
+                urlCache.put(dictionaryKey, longUrl);
+        }
         if(longUrl.isEmpty())
         	throw new CustomException("INVALID_REQUEST","Invalid Key");
         else{
             String[] queryString = longUrl.split("\\?");
             if(queryString.length > 1)
-                indexData(longUrl,uniqueID);
+                queueClick(longUrl, uniqueID);
         }
         return longUrl;
     }
 
+    /**
+     * Queues the click to be indexed off the redirect, the click is dropped if the queue is full
+     */
+    private void queueClick(String longUrl, String uniqueID) {
+        if(!clickEvents.offer(new ClickEvent(longUrl, uniqueID)))
+            droppedClicks.incrementAndGet();
+    }
+
+    /**
+     * Indexes the queued clicks in batches, a user is searched once per batch however many
+     * times the user clicked
+     */
+    private void indexClicks() {
+        List<ClickEvent> batch = new ArrayList<>(clickBatchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(clickEvents.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            clickEvents.drainTo(batch, clickBatchSize - 1);
+            Map<String, String> userUUIDs = new HashMap<>();
+            for (ClickEvent click : batch) {
+                try {
+                    indexData(click.longUrl, click.uniqueID, click.timestamp, userUUIDs);
+                } catch (Exception e) {
+                    log.error("Exception while indexing the click on " + click.uniqueID + ": ", e);
+                }
+            }
+            batch.clear();
+            long dropped = droppedClicks.getAndSet(0);
+            if (dropped > 0)
+                log.warn("Dropped {} clicks as the indexing queue was full", dropped);
+        }
+    }
+
     public void indexData(String longUrl, String uniqueID){
+        indexData(longUrl, uniqueID, System.currentTimeMillis(), new HashMap<>());
+    }
+
+    private void indexData(String longUrl, String uniqueID, long timestamp, Map<String, String> userUUIDs){
         String query = longUrl.split("\\?")[1];
         HashMap <String,String> params = new HashMap<String, String>();
         String[] strParams = query.split("&");
         for (String param : strParams)
         {
-            String name = param.split("=")[0];
-            String value = param.split("=")[1];
-            params.put(name, value);
+            String[] nameAndValue = param.split("=", 2);
+            if(nameAndValue.length == 2)
+                params.put(nameAndValue[0], nameAndValue[1]);
         }
         String channel = params.get("channel");
         if(channel !=null && (channel.equalsIgnoreCase("whatsapp") || channel.equalsIgnoreCase("sms"))){
@@ -154,7 +252,7 @@ public class URLConverterService {
             }
             shortenedUrl.append(uniqueID);
             data.put("id", UUID.randomUUID());
-            data.put("timestamp",System.currentTimeMillis());
+            data.put("timestamp",timestamp);
             data.put("shortenUrl",shortenedUrl.toString());
             data.put("actualUrl", longUrl);
 
@@ -163,12 +261,17 @@ public class URLConverterService {
                 mobileNumber = params.get("mobileNo");
             
             if(mobileNumber != null){
-                String uuid = getUserUUID(mobileNumber);
+                String uuid = userUUIDs.containsKey(mobileNumber) ? userUUIDs.get(mobileNumber)
+                        : getUserUUID(mobileNumber);
+                userUUIDs.put(mobileNumber, uuid);
                 if(uuid != null)
                     data.put("user",uuid);
             }
             String  tag = params.get("tag");
-            if(tag.equalsIgnoreCase("billPayment")){
+            if(tag == null){
+                data.put("tag", "Unidentified link");
+            }
+            else if(tag.equalsIgnoreCase("billPayment")){
                 String businessService = params.get("businessService");
                 if(businessService.equalsIgnoreCase("PT"))
                     data.put("tag", "Property Bill Payment");
@@ -223,6 +326,21 @@ public class URLConverterService {
 
 
 
+    private static class ClickEvent {
+
+        private final String longUrl;
+
+        private final String uniqueID;
+
+        private final long timestamp;
+
+        private ClickEvent(String longUrl, String uniqueID) {
+            this.longUrl = longUrl;
+            this.uniqueID = uniqueID;
+            this.timestamp = System.currentTimeMillis();
+        }
+    }
+
    /* private String formatLocalURLFromShortener(String localURL) {
         String[] addressComponents = localURL.split("/");
         // remove the endpoint (last index)
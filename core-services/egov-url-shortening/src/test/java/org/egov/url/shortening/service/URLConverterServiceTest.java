@@ -19,13 +19,20 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
 import java.net.MalformedURLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -94,6 +101,131 @@ public class URLConverterServiceTest {
         assertEquals(longUrl, actualLongUrl);
     }
 
+    @Test
+    @DisplayName("Should read the long url from the repository once")
+    public void testGetLongURLFromIDWhenRedirectedAgainThenReturnCachedUrl() throws Exception {
+
+        URLConverterService service = new URLConverterService(new ArrayList<>(), new ObjectMapper(),
+                mock(RestTemplate.class), new Producer());
+        ReflectionTestUtils.setField(service, "urlRepository", urlRepository);
+        ReflectionTestUtils.setField(service, "hashIdConverter", hashIdConverter);
+        ReflectionTestUtils.setField(service, "urlCacheMaxSize", 10);
+        when(hashIdConverter.getIdForString("abc")).thenReturn(1L);
+        when(urlRepository.getUrl(1L)).thenReturn("http://www.google.com");
+
+        assertEquals("http://www.google.com", service.getLongURLFromID("abc"));
+        assertEquals("http://www.google.com", service.getLongURLFromID("abc"));
+        verify(urlRepository, times(1)).getUrl(1L);
+    }
+
+    @Test
+    @DisplayName("Should not search the user nor push the click before redirecting")
+    public void testGetLongURLFromIDWhenChannelIsSmsThenClickIsQueued() throws Exception {
+
+        String longUrl = "http://localhost:8080/url/shorten?channel=sms&mobileNumber=1234567890&tag=billPayment&businessService=PT";
+        RestTemplate restTemplate = mock(RestTemplate.class);
+        Producer producer = mock(Producer.class);
+        URLConverterService service = new URLConverterService(new ArrayList<>(), new ObjectMapper(), restTemplate,
+                producer);
+        ReflectionTestUtils.setField(service, "urlRepository", urlRepository);
+        ReflectionTestUtils.setField(service, "hashIdConverter", hashIdConverter);
+        ReflectionTestUtils.setField(service, "clickEvents", new LinkedBlockingQueue<>(10));
+        when(hashIdConverter.getIdForString("abc")).thenReturn(1L);
+        when(urlRepository.getUrl(1L)).thenReturn(longUrl);
+
+        assertEquals(longUrl, service.getLongURLFromID("abc"));
+        verifyNoInteractions(restTemplate, producer);
+    }
+
+    @Test
+    @DisplayName("Should index the queued clicks in one batch searching the user once")
+    public void testIndexClicksWhenClicksAreQueuedThenBatchIsFlushed() throws Exception {
+
+        RestTemplate restTemplate = mock(RestTemplate.class);
+        Producer producer = mock(Producer.class);
+        CountDownLatch firstClickIndexed = new CountDownLatch(1);
+        CountDownLatch batchQueued = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            firstClickIndexed.countDown();
+            batchQueued.await(10, TimeUnit.SECONDS);
+            return null;
+        }).doNothing().when(producer).push(anyString(), any());
+        when(restTemplate.postForObject(anyString(), any(), eq(Map.class))).thenReturn(user("uuid-1"));
+        URLConverterService service = clickIndexingService(restTemplate, producer, 10, 3);
+
+        try {
+            service.getLongURLFromID("abc");
+            assertTrue(firstClickIndexed.await(10, TimeUnit.SECONDS));
+            service.getLongURLFromID("abc");
+            service.getLongURLFromID("abc");
+            service.getLongURLFromID("abc");
+            batchQueued.countDown();
+
+            verify(producer, timeout(10000).times(4)).push(eq("url-click-indexer-topic"), any());
+            verify(restTemplate, times(2)).postForObject(anyString(), any(), eq(Map.class));
+        } finally {
+            service.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Should drop the clicks which do not fit in the queue")
+    public void testGetLongURLFromIDWhenClickQueueIsFullThenClickIsDropped() throws Exception {
+
+        RestTemplate restTemplate = mock(RestTemplate.class);
+        Producer producer = mock(Producer.class);
+        CountDownLatch firstClickIndexed = new CountDownLatch(1);
+        CountDownLatch clicksQueued = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            firstClickIndexed.countDown();
+            clicksQueued.await(10, TimeUnit.SECONDS);
+            return null;
+        }).doNothing().when(producer).push(anyString(), any());
+        when(restTemplate.postForObject(anyString(), any(), eq(Map.class))).thenReturn(user("uuid-1"));
+        URLConverterService service = clickIndexingService(restTemplate, producer, 2, 10);
+
+        try {
+            service.getLongURLFromID("abc");
+            assertTrue(firstClickIndexed.await(10, TimeUnit.SECONDS));
+            service.getLongURLFromID("abc");
+            service.getLongURLFromID("abc");
+            service.getLongURLFromID("abc");
+            assertEquals(1L, ((AtomicLong) ReflectionTestUtils.getField(service, "droppedClicks")).get());
+            clicksQueued.countDown();
+
+            verify(producer, timeout(10000).times(3)).push(eq("url-click-indexer-topic"), any());
+        } finally {
+            service.destroy();
+        }
+    }
+
+    private URLConverterService clickIndexingService(RestTemplate restTemplate, Producer producer, int clickQueueSize,
+                                                     int clickBatchSize) throws Exception {
+        URLConverterService service = new URLConverterService(new ArrayList<>(), new ObjectMapper(), restTemplate,
+                producer);
+        ReflectionTestUtils.setField(service, "urlRepository", urlRepository);
+        ReflectionTestUtils.setField(service, "hashIdConverter", hashIdConverter);
+        ReflectionTestUtils.setField(service, "urlCacheMaxSize", 10);
+        ReflectionTestUtils.setField(service, "clickQueueSize", clickQueueSize);
+        ReflectionTestUtils.setField(service, "clickBatchSize", clickBatchSize);
+        ReflectionTestUtils.setField(service, "hostName", "http://localhost:8080/");
+        ReflectionTestUtils.setField(service, "serverContextPath", "/egov-url-shortening");
+        ReflectionTestUtils.setField(service, "kafkaTopic", "url-click-indexer-topic");
+        when(hashIdConverter.getIdForString("abc")).thenReturn(1L);
+        when(urlRepository.getUrl(1L))
+                .thenReturn("http://localhost:8080/url/shorten?channel=sms&mobileNumber=1234567890&tag=billPayment&businessService=PT");
+        service.startClickIndexer();
+        return service;
+    }
+
+    private Map<String, Object> user(String uuid) {
+        Map<String, Object> user = new HashMap<>();
+        user.put("uuid", uuid);
+        Map<String, Object> response = new HashMap<>();
+        response.put("user", Collections.singletonList(user));
+        return response;
+    }
+
     @Test
     @DisplayName("Should throw an exception when the unique id is invalid")
     public void testGetLongURLFromIDWhenUniqueIdIsInvalidThenThrowException() {
@@ -0,0 +1,101 @@
+package org.egov.tracer.http.filters;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Correlation id lookup on a 1 MB request body, as done by the tracer filter before, copying the cached body
+ * for every read and parsing it into a map, vs the BufferedRequestBody.
+ *
+ * Both read the body for the correlation id and once more for the controller. The RequestInfo is placed before
+ * or after the records of the body, the way the clients send it.
+ *
+ * mvn -P benchmark test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main RequestBodyBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestBodyBenchmark {
+
+    private static final int PAYLOAD_SIZE = 1024 * 1024;
+
+    private static final String REQUEST_INFO = "\"RequestInfo\":{\"apiId\":\"Rainmaker\",\"ver\":\".01\",\"ts\":1603090000000,"
+            + "\"action\":\"_create\",\"msgId\":\"20170310130900|en_IN\",\"authToken\":\"5eb36a3f-5f6e-4e4f-a2c6-8a1f2e0b1d4c\","
+            + "\"correlationId\":\"f81ac3e4-52d3-4c86-9bd5-a3f2dcbf5a1e\"}";
+
+    private static final String RECORD = "{\"tenantId\":\"pb.amritsar\",\"propertyId\":\"PB-PT-2020-10-19-000001\","
+            + "\"address\":{\"city\":\"Amritsar\",\"locality\":{\"code\":\"SUN04\",\"name\":\"Ajit Nagar\"}},"
+            + "\"owners\":[{\"name\":\"Owner\",\"mobileNumber\":\"9999999999\",\"ownerType\":\"NONE\"}],"
+            + "\"landArea\":1250.5,\"usageCategory\":\"RESIDENTIAL\",\"documents\":[]}";
+
+    @Param({ "first", "last" })
+    private String requestInfoPosition;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private byte[] payload;
+
+    @Setup
+    public void setup() {
+        StringBuilder records = new StringBuilder("\"Properties\":[");
+        while (records.length() < PAYLOAD_SIZE) {
+            if (records.charAt(records.length() - 1) != '[')
+                records.append(',');
+            records.append(RECORD);
+        }
+        records.append(']');
+
+        String body = "first".equals(requestInfoPosition)
+                ? "{" + REQUEST_INFO + "," + records + "}"
+                : "{" + records + "," + REQUEST_INFO + "}";
+        payload = body.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public void cachedCopyAndMapParse(Blackhole blackhole) throws IOException {
+        ByteArrayOutputStream cachedBytes = new ByteArrayOutputStream();
+        IOUtils.copy(new ByteArrayInputStream(payload), cachedBytes);
+
+        Map<String, Object> requestMap = objectMapper.readValue(new ByteArrayInputStream(cachedBytes.toByteArray()),
+                HashMap.class);
+        Map<String, Object> requestInfo = (Map<String, Object>) requestMap.get("RequestInfo");
+        blackhole.consume(requestInfo.get("correlationId"));
+
+        blackhole.consume(new ByteArrayInputStream(cachedBytes.toByteArray()));
+    }
+
+    @Benchmark
+    public void bufferedStreamingParse(Blackhole blackhole) throws IOException {
+        BufferedRequestBody body = BufferedRequestBody.read(new ByteArrayInputStream(payload), payload.length, Integer.MAX_VALUE);
+
+        blackhole.consume(body.getRequestInfoField("correlationId"));
+
+        blackhole.consume(body.getInputStream());
+    }
+
+}
@@ -1,8 +1,16 @@
 package org.egov.tracer.config;
 
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.spring.web.client.MetricsRestTemplateCustomizer;
 import io.opentracing.noop.NoopTracerFactory;
 import org.egov.tracer.http.RestTemplateLoggingInterceptor;
+import org.egov.tracer.http.RestTemplateMetricsTagsProvider;
 import org.egov.tracer.http.filters.TracerFilter;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
@@ -12,7 +20,11 @@ import org.springframework.http.client.BufferingClientHttpRequestFactory;
 import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+
+import static org.egov.tracer.constants.TracerConstants.*;
 
 @Configuration
 @EnableAspectJAutoProxy
@@ -22,21 +34,61 @@ import java.util.Collections;
 @Import(OpenTracingConfiguration.class)
 public class TracerConfiguration {
 
+    private static final List<String> LATENCY_METRICS = Arrays.asList(HTTP_SERVER_REQUESTS_METRIC,
+        HTTP_CLIENT_REQUESTS_METRIC, KAFKA_PRODUCER_SEND_METRIC, KAFKA_CONSUMER_LAG_METRIC,
+        KAFKA_CONSUMER_PROCESSING_METRIC);
+
     @Bean
     public ObjectMapperFactory objectMapperFactory(TracerProperties tracerProperties, Environment environment) {
         return new ObjectMapperFactory(tracerProperties, environment);
     }
 
+    /**
+     * Rest template which forwards the correlation id and logs the calls, the calls are timed by uri template
+     * and status when metrics are enabled
+     *
+     * @param tracerProperties configuration for the interceptor
+     * @param meterRegistry registry to publish the timers to
+     * @return RestTemplate
+     */
     @Bean(name = "logAwareRestTemplate")
-    public RestTemplate logAwareRestTemplate(TracerProperties tracerProperties) {
+    public RestTemplate logAwareRestTemplate(TracerProperties tracerProperties,
+                                             ObjectProvider<MeterRegistry> meterRegistry) {
         SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
         requestFactory.setOutputStreaming(false);
         RestTemplate restTemplate =
             new RestTemplate(new BufferingClientHttpRequestFactory(requestFactory));
         restTemplate.setInterceptors(Collections.singletonList(new RestTemplateLoggingInterceptor(tracerProperties)));
+        if (tracerProperties.isMetricsEnabled()) {
+            MeterRegistry registry = meterRegistry.getIfAvailable();
+            new MetricsRestTemplateCustomizer(registry != null ? registry : Metrics.globalRegistry,
+                new RestTemplateMetricsTagsProvider(), HTTP_CLIENT_REQUESTS_METRIC).customize(restTemplate);
+        }
         return restTemplate;
     }
 
+    /**
+     * Publish the http and kafka timers as histograms so that the percentiles can be aggregated across
+     * the instances of a service
+     *
+     * @return Meter filter applied to the registries of the application
+     */
+    @Bean
+    @ConditionalOnProperty(name = METRICS_ENABLED_PROPERTY, havingValue = "true")
+    public MeterFilter latencyHistogramMeterFilter() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (!LATENCY_METRICS.contains(id.getName()))
+                    return config;
+                return DistributionStatisticConfig.builder()
+                    .percentilesHistogram(true)
+                    .build()
+                    .merge(config);
+            }
+        };
+    }
+
     /**
      * Configure tracer filter with order one
      *
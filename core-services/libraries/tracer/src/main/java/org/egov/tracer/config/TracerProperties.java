@@ -4,6 +4,11 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 @Data
 @ConfigurationProperties("tracer")
 @Configuration
@@ -27,5 +32,26 @@ public class TracerProperties {
     // Exclusion list for tracer filter
     private String filterSkipPattern;
 
+    // Maximum length in bytes of a json request body, longer bodies are rejected with 413
+    private int requestBodyMaxLength = 10 * 1024 * 1024;
+
+    // Enable latency histograms of http requests and kafka records
+    private boolean metricsEnabled;
+
+    // Fraction of the calls, between 0 and 1, for which the request and response bodies are logged
+    private double bodyLoggingSampleRate = 1;
+
+    // Sampling rates by ant style path pattern, the first pattern matching the path applies
+    private Map<String, Double> bodyLoggingRouteSampleRates = new LinkedHashMap<>();
+
+    // Maximum length of a logged body, longer bodies are truncated
+    private int bodyLoggingMaxLength = 4096;
+
+    // Fields whose values are masked in the logged bodies
+    private List<String> bodyLoggingRedactedFields = new ArrayList<>();
+
+    // Log bodies as a separate field of the json log event instead of in the message
+    private boolean structuredBodyLoggingEnabled;
+
 }
 
@@ -9,6 +9,12 @@ public class TracerConstants {
     public static final String TIME_ZONE_PROPERTY = "app.timezone";
     public static final String REQUEST_INFO_FIELD_NAME_IN_JAVA_CLASS_CASE = "RequestInfo";
     public static final String REQUEST_INFO_IN_CAMEL_CASE = "requestInfo";
+    public static final String METRICS_ENABLED_PROPERTY = "tracer.metricsEnabled";
+    public static final String HTTP_SERVER_REQUESTS_METRIC = "http.server.requests";
+    public static final String HTTP_CLIENT_REQUESTS_METRIC = "http.client.requests";
+    public static final String KAFKA_PRODUCER_SEND_METRIC = "kafka.producer.send";
+    public static final String KAFKA_CONSUMER_LAG_METRIC = "kafka.consumer.lag";
+    public static final String KAFKA_CONSUMER_PROCESSING_METRIC = "kafka.consumer.processing";
 
     private TracerConstants(){}
 }
@@ -0,0 +1,121 @@
+package org.egov.tracer.http;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.egov.tracer.config.TracerProperties;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides which request and response bodies are logged and how.
+ *  - Bodies are logged for a sample of the calls, the rate can be set per route with ant style path patterns
+ *  - Values of the configured fields, at any depth of the body, are replaced with a mask
+ *  - The logged body is capped in length, the body is streamed and read only up to the cap
+ */
+public class BodyLoggingPolicy {
+
+    public static final String REQUEST_BODY_FIELD = "requestBody";
+    public static final String RESPONSE_BODY_FIELD = "responseBody";
+    static final String REDACTED_VALUE = "****";
+    static final String TRUNCATED_SUFFIX = "...<TRUNCATED>";
+    static final String NOT_JSON_BODY = "<NOT-JSON>";
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory()
+        .disable(JsonParser.Feature.AUTO_CLOSE_SOURCE)
+        .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+
+    private final double sampleRate;
+    private final Map<String, Double> routeSampleRates;
+    private final int maxLength;
+    private final Set<String> redactedFields;
+    private final boolean structured;
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    public BodyLoggingPolicy(TracerProperties tracerProperties) {
+        this.sampleRate = tracerProperties.getBodyLoggingSampleRate();
+        this.routeSampleRates = new LinkedHashMap<>(tracerProperties.getBodyLoggingRouteSampleRates());
+        this.maxLength = tracerProperties.getBodyLoggingMaxLength();
+        this.redactedFields = new HashSet<>(tracerProperties.getBodyLoggingRedactedFields());
+        this.structured = tracerProperties.isStructuredBodyLoggingEnabled();
+    }
+
+    /**
+     * Whether the body of a call to the path is to be logged, the rate of the first route pattern matching the
+     * path applies, otherwise the default rate
+     *
+     * @param path path of the request
+     * @return true for the sampled calls
+     */
+    public boolean isSampled(String path) {
+        double rate = getSampleRate(path);
+        return rate >= 1 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    double getSampleRate(String path) {
+        if (path != null) {
+            for (Map.Entry<String, Double> routeSampleRate : routeSampleRates.entrySet()) {
+                if (pathMatcher.match(routeSampleRate.getKey(), path))
+                    return routeSampleRate.getValue();
+            }
+        }
+        return sampleRate;
+    }
+
+    /**
+     * Whether the body is to be logged as a separate field of the json log event instead of in the message
+     *
+     * @return true when structured body logging is enabled
+     */
+    public boolean isStructured() {
+        return structured;
+    }
+
+    /**
+     * Body to be logged, re-written token by token with the configured fields masked and cut at the maximum
+     * length. The stream is not read beyond the point where the cap is reached.
+     *
+     * @param body json body
+     * @return body to be logged
+     */
+    public String format(InputStream body) {
+        StringWriter logged = new StringWriter();
+        boolean complete = false;
+        try (JsonParser parser = JSON_FACTORY.createParser(body);
+             JsonGenerator generator = JSON_FACTORY.createGenerator(logged)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && logged.getBuffer().length() <= maxLength) {
+                if (token == JsonToken.FIELD_NAME && redactedFields.contains(parser.getCurrentName())) {
+                    generator.writeFieldName(parser.getCurrentName());
+                    parser.nextToken();
+                    parser.skipChildren();
+                    generator.writeString(REDACTED_VALUE);
+                } else {
+                    generator.copyCurrentEvent(parser);
+                }
+                generator.flush();
+            }
+            complete = token == null;
+        } catch (IOException ignored) {
+            // Body is not json, or is only json up to some point, whatever was written before is logged
+        }
+
+        StringBuffer buffer = logged.getBuffer();
+        if (complete && buffer.length() <= maxLength)
+            return buffer.toString();
+        if (buffer.length() == 0)
+            return NOT_JSON_BODY;
+        return buffer.substring(0, Math.min(buffer.length(), maxLength)) + TRUNCATED_SUFFIX;
+    }
+
+}
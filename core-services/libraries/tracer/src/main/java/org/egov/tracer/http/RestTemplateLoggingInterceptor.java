@@ -1,7 +1,6 @@
 package org.egov.tracer.http;
 
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.io.IOUtils;
 import org.egov.tracer.config.TracerProperties;
 import org.slf4j.MDC;
 import org.springframework.http.HttpMessage;
@@ -11,12 +10,16 @@ import org.springframework.http.client.ClientHttpRequestExecution;
 import org.springframework.http.client.ClientHttpRequestInterceptor;
 import org.springframework.http.client.ClientHttpResponse;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
 
 import static org.egov.tracer.constants.TracerConstants.CORRELATION_ID_HEADER;
 import static org.egov.tracer.constants.TracerConstants.CORRELATION_ID_MDC;
+import static org.egov.tracer.http.BodyLoggingPolicy.REQUEST_BODY_FIELD;
+import static org.egov.tracer.http.BodyLoggingPolicy.RESPONSE_BODY_FIELD;
+import static net.logstash.logback.argument.StructuredArguments.keyValue;
 
 @Slf4j
 public class RestTemplateLoggingInterceptor implements ClientHttpRequestInterceptor {
@@ -24,24 +27,26 @@ public class RestTemplateLoggingInterceptor implements ClientHttpRequestIntercep
     private static final String REQUEST_MESSAGE_WITH_BODY = "Sending request to {} with verb {} with body {}";
     private static final String REQUEST_MESSAGE = "Sending request to {} with verb {}";
     private static final String RESPONSE_MESSAGE_WITH_BODY = "Received from {} response code {} and body {}: ";
+    private static final String RESPONSE_CODE_MESSAGE = "Received from {} response code {}";
     private static final String RESPONSE_MESSAGE = "Received response from {}";
     private static final String FAILED_RESPONSE_MESSAGE = "Received error response from %s";
-    private static final String UTF_8 = "UTF-8";
     private static final String RESPONSE_BODY_ERROR_MESSAGE = "Error reading response body";
     private static final String EMPTY_BODY = "<NOT-AVAILABLE>";
     private static final List<String> JSON_MEDIA_TYPES =
         Arrays.asList(MediaType.APPLICATION_JSON_UTF8_VALUE, MediaType.APPLICATION_JSON_VALUE);
 
     private TracerProperties tracerProperties;
+    private BodyLoggingPolicy bodyLoggingPolicy;
 
     public RestTemplateLoggingInterceptor(TracerProperties tracerProperties) {
         this.tracerProperties = tracerProperties;
+        this.bodyLoggingPolicy = new BodyLoggingPolicy(tracerProperties);
     }
 
     /**
      * Intercept all rest template calls
      *  - Add correlation id header from MDC
-     *  - Log request and responses based on config
+     *  - Log request and responses based on config, the bodies are logged for the sampled calls only
      *
      * @param request being made
      * @param body of the request
@@ -53,11 +58,12 @@ public class RestTemplateLoggingInterceptor implements ClientHttpRequestIntercep
     public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
         try {
             request.getHeaders().add(CORRELATION_ID_HEADER, MDC.get(CORRELATION_ID_MDC));
-            logRequest(request, body);
+            final boolean logBody = isBodyLogged(request);
+            logRequest(request, body, logBody);
 
             final ClientHttpResponse rawResponse = execution.execute(request, body);
 
-            if(tracerProperties.isRestTemplateDetailedLoggingEnabled() && isBodyCompatibleForParsing(request)){
+            if(logBody){
                 logResponse(rawResponse, request);
             } else{
                 log.info(RESPONSE_MESSAGE, request.getURI());
@@ -69,29 +75,33 @@ public class RestTemplateLoggingInterceptor implements ClientHttpRequestIntercep
         }
     }
 
-    private void logResponse(ClientHttpResponse response, HttpRequest httpRequest) throws IOException {
+    private boolean isBodyLogged(HttpRequest httpRequest) {
+        return tracerProperties.isRestTemplateDetailedLoggingEnabled() && isBodyCompatibleForParsing(httpRequest)
+            && bodyLoggingPolicy.isSampled(httpRequest.getURI().getPath());
+    }
 
-        if(tracerProperties.isRestTemplateDetailedLoggingEnabled() && isBodyCompatibleForParsing(httpRequest)){
-            String body = getBodyString(response);
+    private void logResponse(ClientHttpResponse response, HttpRequest httpRequest) throws IOException {
+        String body = getBodyString(response);
+        if (bodyLoggingPolicy.isStructured())
+            log.info(RESPONSE_CODE_MESSAGE, httpRequest.getURI(), response.getStatusCode(),
+                keyValue(RESPONSE_BODY_FIELD, body));
+        else
             log.info(RESPONSE_MESSAGE_WITH_BODY, httpRequest.getURI(), response.getStatusCode(), body);
-        } else{
-            log.info(RESPONSE_MESSAGE, httpRequest.getURI());
-        }
-
     }
 
-    private void logRequest(HttpRequest httpRequest, byte[] body) {
-        if(tracerProperties.isRestTemplateDetailedLoggingEnabled() && isBodyCompatibleForParsing(httpRequest)){
-            log.info(REQUEST_MESSAGE_WITH_BODY, httpRequest.getURI(), httpRequest.getMethod().name(), getBody(body));
-        }
-        else {
+    private void logRequest(HttpRequest httpRequest, byte[] body, boolean logBody) {
+        if(!logBody)
             log.info(REQUEST_MESSAGE, httpRequest.getURI(), httpRequest.getMethod().name());
-        }
+        else if (bodyLoggingPolicy.isStructured())
+            log.info(REQUEST_MESSAGE, httpRequest.getURI(), httpRequest.getMethod().name(),
+                keyValue(REQUEST_BODY_FIELD, getBody(body)));
+        else
+            log.info(REQUEST_MESSAGE_WITH_BODY, httpRequest.getURI(), httpRequest.getMethod().name(), getBody(body));
     }
 
 
     private String getBody(byte[] body) {
-        return body == null ? EMPTY_BODY : new String(body);
+        return body == null ? EMPTY_BODY : bodyLoggingPolicy.format(new ByteArrayInputStream(body));
     }
 
     private boolean isBodyCompatibleForParsing(HttpMessage httpMessage) {
@@ -99,10 +109,14 @@ public class RestTemplateLoggingInterceptor implements ClientHttpRequestIntercep
         return contentType != null && JSON_MEDIA_TYPES.contains(contentType.toString());
     }
 
+    /**
+     * Response body to be logged, the response is buffered by the rest template so the body can still be read
+     * by the caller. Only the part of the body that is logged is read.
+     */
     private String getBodyString(ClientHttpResponse response) {
         try {
             if (response != null && response.getBody() != null) {
-                return IOUtils.toString(response.getBody(), UTF_8);
+                return bodyLoggingPolicy.format(response.getBody());
             } else {
                 return EMPTY_BODY;
             }
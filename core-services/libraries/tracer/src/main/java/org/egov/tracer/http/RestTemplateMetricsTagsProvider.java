@@ -0,0 +1,38 @@
+package org.egov.tracer.http;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.spring.web.client.RestTemplateExchangeTags;
+import io.micrometer.spring.web.client.RestTemplateExchangeTagsProvider;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.util.Arrays;
+
+public class RestTemplateMetricsTagsProvider implements RestTemplateExchangeTagsProvider {
+
+    /**
+     * Tags the outgoing request with the method, uri template, status and host
+     *
+     * Most of the calls pass the url with the query string already appended, so the query string is dropped
+     * from the uri to keep the tag to one value per endpoint
+     *
+     * @param urlTemplate template the request was made with, null when the request was made with a URI
+     * @param request being made
+     * @param response of the rest call, null when the call failed
+     * @return tags of the timer
+     */
+    @Override
+    public Iterable<Tag> getTags(String urlTemplate, HttpRequest request, ClientHttpResponse response) {
+        String uri = urlTemplate != null ? urlTemplate : request.getURI().toString();
+        return Arrays.asList(RestTemplateExchangeTags.method(request),
+            RestTemplateExchangeTags.uri(stripQuery(uri)),
+            RestTemplateExchangeTags.status(response),
+            RestTemplateExchangeTags.clientName(request));
+    }
+
+    private String stripQuery(String uri) {
+        int queryStart = uri.indexOf('?');
+        return queryStart < 0 ? uri : uri.substring(0, queryStart);
+    }
+
+}
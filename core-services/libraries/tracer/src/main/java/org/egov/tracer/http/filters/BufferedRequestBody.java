@@ -0,0 +1,158 @@
+package org.egov.tracer.http.filters;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.egov.tracer.constants.TracerConstants.REQUEST_INFO_FIELD_NAME_IN_JAVA_CLASS_CASE;
+import static org.egov.tracer.constants.TracerConstants.REQUEST_INFO_IN_CAMEL_CASE;
+
+/**
+ * Body of a request read once into a buffer, the streams handed out for re-reading the body share the buffer
+ * instead of copying it.
+ *
+ * The fields of the RequestInfo are read lazily with a streaming parser, which skips the fields before the
+ * RequestInfo and stops at its end instead of parsing the whole body.
+ */
+public class BufferedRequestBody {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final int DEFAULT_BUFFER_SIZE = 4096;
+    static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+
+    private final byte[] buffer;
+    private final int length;
+    private Map<String, String> requestInfo;
+
+    public BufferedRequestBody(byte[] buffer, int length) {
+        this.buffer = buffer;
+        this.length = length;
+    }
+
+    /**
+     * Reads the stream into a buffer which starts at the content length of the request, up to
+     * INITIAL_BUFFER_SIZE, and grows as the bytes arrive. The content length is not trusted for the allocation
+     * as it is sent by the client.
+     *
+     * @param inputStream body of the request
+     * @param contentLength content length of the request, -1 when not known
+     * @param maxLength maximum length of the body
+     * @return the buffered body
+     * @throws RequestBodyTooLargeException when the content length or the body is longer than the maximum
+     * @throws IOException
+     */
+    public static BufferedRequestBody read(InputStream inputStream, int contentLength, int maxLength)
+        throws IOException {
+        if (contentLength > maxLength)
+            throw new RequestBodyTooLargeException(maxLength);
+
+        int initialSize = contentLength > 0 ? Math.min(contentLength, INITIAL_BUFFER_SIZE) : DEFAULT_BUFFER_SIZE;
+        byte[] buffer = new byte[Math.min(initialSize, maxLength)];
+        int length = 0;
+        int read;
+        while ((read = inputStream.read(buffer, length, buffer.length - length)) != -1) {
+            length += read;
+            if (length < buffer.length)
+                continue;
+
+            int next = inputStream.read();
+            if (next == -1)
+                break;
+            if (length >= maxLength)
+                throw new RequestBodyTooLargeException(maxLength);
+            buffer = Arrays.copyOf(buffer, (int) Math.min(buffer.length * 2L, maxLength));
+            buffer[length++] = (byte) next;
+        }
+        return new BufferedRequestBody(buffer, length);
+    }
+
+    public InputStream getInputStream() {
+        return new ByteArrayInputStream(buffer, 0, length);
+    }
+
+    /**
+     * Body as an array of its exact length, the buffer itself when it is not larger than the body
+     *
+     * @return the body
+     */
+    public byte[] toByteArray() {
+        return length == buffer.length ? buffer : Arrays.copyOf(buffer, length);
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    @Override
+    public String toString() {
+        return new String(buffer, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Value of a scalar field of the RequestInfo, or RequestInfo in camel case
+     *
+     * @param fieldName name of the field
+     * @return value of the field as text, null when the body is not json, has no RequestInfo or the field
+     * is not a scalar
+     */
+    public String getRequestInfoField(String fieldName) {
+        if (requestInfo == null)
+            requestInfo = parseRequestInfo();
+
+        return requestInfo.get(fieldName);
+    }
+
+    /**
+     * RequestInfo is preferred over requestInfo when the body has both, the body is read past a requestInfo
+     * only to look for a RequestInfo
+     */
+    private Map<String, String> parseRequestInfo() {
+        Map<String, String> camelCaseRequestInfo = null;
+        try (JsonParser parser = JSON_FACTORY.createParser(buffer, 0, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT)
+                return Collections.emptyMap();
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (REQUEST_INFO_FIELD_NAME_IN_JAVA_CLASS_CASE.equals(fieldName))
+                    return value == JsonToken.START_OBJECT ? readScalarFields(parser) : Collections.emptyMap();
+
+                if (value == JsonToken.START_OBJECT && REQUEST_INFO_IN_CAMEL_CASE.equals(fieldName)
+                    && camelCaseRequestInfo == null)
+                    camelCaseRequestInfo = readScalarFields(parser);
+                else
+                    parser.skipChildren();
+            }
+        } catch (IOException ignored) {}
+
+        return camelCaseRequestInfo == null ? Collections.emptyMap() : camelCaseRequestInfo;
+    }
+
+    private Map<String, String> readScalarFields(JsonParser parser) throws IOException {
+        Map<String, String> fields = new HashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (value.isScalarValue() && value != JsonToken.VALUE_NULL)
+                fields.put(fieldName, parser.getText());
+            else
+                parser.skipChildren();
+        }
+        return fields;
+    }
+
+}
@@ -1,7 +1,6 @@
 package org.egov.tracer.http.filters;
 
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.io.IOUtils;
 
 import javax.servlet.ReadListener;
 import javax.servlet.ServletInputStream;
@@ -12,22 +11,35 @@ import java.io.*;
 @Slf4j
 public class MultiReadRequestWrapper extends HttpServletRequestWrapper {
 
-    private ByteArrayOutputStream cachedBytes;
+    private final int maxBodyLength;
+    private BufferedRequestBody body;
 
-    MultiReadRequestWrapper(HttpServletRequest request) {
+    MultiReadRequestWrapper(HttpServletRequest request, int maxBodyLength) {
         super(request);
+        this.maxBodyLength = maxBodyLength;
     }
 
     @Override
     public ServletInputStream getInputStream() throws IOException {
-        if (cachedBytes == null)
-            cacheInputStream();
+        return new CachedServletInputStream(getBody().getInputStream());
+    }
 
-        return new CachedServletInputStream();
+    /**
+     * Body of the request, read from the wrapped request on first use
+     *
+     * @return the buffered body
+     * @throws RequestBodyTooLargeException when the body is longer than the maximum length
+     * @throws IOException
+     */
+    public BufferedRequestBody getBody() throws IOException {
+        if (body == null)
+            body = BufferedRequestBody.read(super.getInputStream(), super.getContentLength(), maxBodyLength);
+
+        return body;
     }
 
     public void update(ByteArrayOutputStream newBytes) {
-        this.cachedBytes = newBytes;
+        this.body = new BufferedRequestBody(newBytes.toByteArray(), newBytes.size());
     }
 
 //    @Override
@@ -45,21 +57,20 @@ public class MultiReadRequestWrapper extends HttpServletRequestWrapper {
         return new BufferedReader(new InputStreamReader(getInputStream()));
     }
 
-    private void cacheInputStream() throws IOException {
-        cachedBytes = new ByteArrayOutputStream();
-        IOUtils.copy(super.getInputStream(), cachedBytes);
-    }
-
     public class CachedServletInputStream extends ServletInputStream {
-        private ByteArrayInputStream input;
+        private InputStream input;
 
-        CachedServletInputStream() {
-            input = new ByteArrayInputStream(cachedBytes.toByteArray());
+        CachedServletInputStream(InputStream input) {
+            this.input = input;
         }
 
         @Override
         public boolean isFinished() {
-            return input.available() != 0;
+            try {
+                return input.available() == 0;
+            } catch (IOException e) {
+                return true;
+            }
         }
 
         @Override
@@ -76,6 +87,15 @@ public class MultiReadRequestWrapper extends HttpServletRequestWrapper {
         public int read() throws IOException {
             return input.read();
         }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return input.read(b, off, len);
+        }
+
+        @Override
+        public int available() throws IOException {
+            return input.available();
+        }
     }
 }
-
@@ -0,0 +1,22 @@
+package org.egov.tracer.http.filters;
+
+import lombok.Getter;
+
+import java.io.IOException;
+
+/**
+ * Body of a request is longer than the maximum length the request body is read up to
+ */
+@Getter
+public class RequestBodyTooLargeException extends IOException {
+
+    private static final String MESSAGE = "Request body is longer than %d bytes";
+
+    private final int maxLength;
+
+    public RequestBodyTooLargeException(int maxLength) {
+        super(String.format(MESSAGE, maxLength));
+        this.maxLength = maxLength;
+    }
+
+}
@@ -2,9 +2,9 @@ package org.egov.tracer.http.filters;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.io.IOUtils;
 import org.egov.tracer.config.ObjectMapperFactory;
 import org.egov.tracer.config.TracerProperties;
+import org.egov.tracer.http.BodyLoggingPolicy;
 import org.slf4j.MDC;
 import org.springframework.http.MediaType;
 
@@ -16,7 +16,9 @@ import java.util.*;
 import java.util.regex.Pattern;
 
 import static java.util.Objects.isNull;
+import static net.logstash.logback.argument.StructuredArguments.keyValue;
 import static org.egov.tracer.constants.TracerConstants.*;
+import static org.egov.tracer.http.BodyLoggingPolicy.REQUEST_BODY_FIELD;
 import static org.springframework.util.StringUtils.isEmpty;
 
 @Slf4j
@@ -26,19 +28,22 @@ public class TracerFilter implements Filter {
         Arrays.asList(MediaType.APPLICATION_JSON_UTF8_VALUE, MediaType.APPLICATION_JSON_VALUE);
     private static final String POST = "POST";
     private static final String REQUEST_BODY_LOG_MESSAGE = "Request body - {}";
+    private static final String STRUCTURED_REQUEST_BODY_LOG_MESSAGE = "Request body";
     private static final String FAILED_TO_LOG_REQUEST_MESSAGE = "Failed to log request body";
-    private static final String UTF_8 = "UTF-8";
     private static final String REQUEST_URI_LOG_MESSAGE = "Received request URI: {} ";
     private static final String REQUEST_PARAMS_LOG_MESSAGE = "Request Query params: {} ";
     private static final String LOG_RESPONSE_CODE_MESSAGE = "Response code sent: {}";
+    private static final String REQUEST_BODY_TOO_LARGE_MESSAGE = "Request body is longer than {} bytes, rejected";
 
     private final ObjectMapper objectMapper;
     private TracerProperties tracerProperties;
+    private BodyLoggingPolicy bodyLoggingPolicy;
     private Pattern skipPattern;
 
     public TracerFilter(TracerProperties tracerProperties, ObjectMapperFactory objectMapperFactory) {
         this.tracerProperties = tracerProperties;
         this.objectMapper = objectMapperFactory.getObjectMapper();
+        this.bodyLoggingPolicy = new BodyLoggingPolicy(tracerProperties);
         this.skipPattern = isNull(tracerProperties.getFilterSkipPattern()) ? null :
             Pattern.compile(tracerProperties.getFilterSkipPattern());
     }
@@ -50,14 +55,16 @@ public class TracerFilter implements Filter {
 
     /**
      *
-     * Cache the request for future body reads in case the body is compatible [json]
+     * Cache the request for future body reads in case the body is compatible [json], bodies longer than the
+     * configured maximum are rejected with 413
      * Retrieves correlation id
      *  - From header
      *  - if not exists, attempt to retrieve from body RequestInfo
      *  - if not exists, generate a uuid
      *
      * Set correlation id in MDC for future use, like logging etc
-     * Log Request and Response depending on configuration
+     * Log Request and Response depending on configuration, the request body is logged for the sampled
+     * requests only
      *
      * @param servletRequest HTTP request
      * @param servletResponse HTTP response
@@ -76,8 +83,17 @@ public class TracerFilter implements Filter {
         }
         else {
 
-            if (isBodyCompatibleForParsing(httpRequest)) {
-                final MultiReadRequestWrapper wrappedRequest = new MultiReadRequestWrapper(httpRequest);
+            final MultiReadRequestWrapper wrappedRequest = isBodyCompatibleForParsing(httpRequest) ?
+                new MultiReadRequestWrapper(httpRequest, tracerProperties.getRequestBodyMaxLength()) : null;
+
+            if (wrappedRequest != null && isBodyTooLarge(wrappedRequest)) {
+                correlationId = getCorrelationId(httpRequest);
+                MDC.put(CORRELATION_ID_MDC, correlationId);
+                logRequestURI(httpRequest);
+                log.warn(REQUEST_BODY_TOO_LARGE_MESSAGE, tracerProperties.getRequestBodyMaxLength());
+                ((HttpServletResponse) servletResponse).sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+
+            } else if (wrappedRequest != null) {
                 correlationId = getCorrelationId(wrappedRequest);
                 MDC.put(CORRELATION_ID_MDC, correlationId);
                 logRequestURI(httpRequest);
@@ -106,13 +122,16 @@ public class TracerFilter implements Filter {
 
     private boolean isTraced(HttpServletRequest httpServletRequest) {
         if (this.skipPattern != null) {
-            String url = httpServletRequest.getRequestURI().substring(httpServletRequest.getContextPath().length());
-            return !this.skipPattern.matcher(url).matches();
+            return !this.skipPattern.matcher(getPath(httpServletRequest)).matches();
         } else {
             return true;
         }
     }
 
+    private String getPath(HttpServletRequest httpServletRequest) {
+        return httpServletRequest.getRequestURI().substring(httpServletRequest.getContextPath().length());
+    }
+
     private void logResponse(ServletResponse servletResponse) {
         HttpServletResponse httpServletResponse = (HttpServletResponse) servletResponse;
         log.info(LOG_RESPONSE_CODE_MESSAGE, httpServletResponse.getStatus());
@@ -127,7 +146,7 @@ public class TracerFilter implements Filter {
         String correlationId = getCorrelationIdFromHeader(httpRequest);
 
         if (isNull(correlationId) && httpRequest instanceof MultiReadRequestWrapper) {
-            correlationId = getCorrelationIdFromBody(httpRequest);
+            correlationId = getCorrelationIdFromBody((MultiReadRequestWrapper) httpRequest);
         }
 
         if(isNull(correlationId))
@@ -143,16 +162,39 @@ public class TracerFilter implements Filter {
     }
 
 
-    private void logRequestBodyAndParams(HttpServletRequest requestWrapper) {
+    /**
+     * Reads the body, up to the maximum length
+     *
+     * @return true when the body is longer than the maximum length, other failures to read the body are left
+     * to the reader of the request
+     */
+    private boolean isBodyTooLarge(MultiReadRequestWrapper requestWrapper) {
+        try {
+            requestWrapper.getBody();
+            return false;
+        } catch (RequestBodyTooLargeException e) {
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void logRequestBodyAndParams(MultiReadRequestWrapper requestWrapper) {
         try {
-            final String requestBody = IOUtils.toString(requestWrapper.getInputStream(), UTF_8);
+            final BufferedRequestBody requestBody = requestWrapper.getBody();
             String requestParams = requestWrapper.getQueryString();
 
             if(!isEmpty(requestParams))
                 log.info(REQUEST_PARAMS_LOG_MESSAGE, requestParams);
 
-            if(!isEmpty(requestBody))
-                log.info(REQUEST_BODY_LOG_MESSAGE, requestBody);
+            if(requestBody.isEmpty() || !bodyLoggingPolicy.isSampled(getPath(requestWrapper)))
+                return;
+
+            final String loggedBody = bodyLoggingPolicy.format(requestBody.getInputStream());
+            if (bodyLoggingPolicy.isStructured())
+                log.info(STRUCTURED_REQUEST_BODY_LOG_MESSAGE, keyValue(REQUEST_BODY_FIELD, loggedBody));
+            else
+                log.info(REQUEST_BODY_LOG_MESSAGE, loggedBody);
 
         } catch (IOException e) {
             log.error(FAILED_TO_LOG_REQUEST_MESSAGE, e);
@@ -164,25 +206,15 @@ public class TracerFilter implements Filter {
     }
 
 
-    @SuppressWarnings("unchecked")
-    private String getCorrelationIdFromBody(HttpServletRequest httpServletRequest) {
-        String correlationId = null;
+    /**
+     * Correlation id from the RequestInfo of the body, the body is only parsed up to the end of the RequestInfo
+     */
+    private String getCorrelationIdFromBody(MultiReadRequestWrapper requestWrapper) {
         try {
-            final HashMap<String, Object> requestMap = (HashMap<String, Object>)
-                objectMapper.readValue(httpServletRequest.getInputStream(), HashMap.class);
-            Object requestInfo = requestMap.containsKey(REQUEST_INFO_FIELD_NAME_IN_JAVA_CLASS_CASE) ? requestMap.get
-                (REQUEST_INFO_FIELD_NAME_IN_JAVA_CLASS_CASE) : requestMap.get(REQUEST_INFO_IN_CAMEL_CASE);
-
-            if (isNull(requestInfo))
-                return null;
-            else {
-                if (requestInfo instanceof Map) {
-                    correlationId = (String) ((Map) requestInfo).get(CORRELATION_ID_FIELD_NAME);
-                }
-            }
-        } catch (IOException ignored){}
-
-        return correlationId;
+            return requestWrapper.getBody().getRequestInfoField(CORRELATION_ID_FIELD_NAME);
+        } catch (IOException e) {
+            return null;
+        }
     }
 
     private String getRandomCorrelationId() {
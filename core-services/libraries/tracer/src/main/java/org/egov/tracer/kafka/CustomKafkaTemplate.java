@@ -1,11 +1,24 @@
 package org.egov.tracer.kafka;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import lombok.extern.slf4j.Slf4j;
 import org.egov.tracer.model.CustomException;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.ListenableFutureCallback;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 
 @Component("customKafkaTemplate")
@@ -14,43 +27,144 @@ public class CustomKafkaTemplate<K, V> {
 
     private KafkaTemplate<K, V> kafkaTemplate;
 
-    private static final String KAFKA_SEND_ERROR_CODE = "EVENT_BUS_FAILURE";
-    private static final String KAFKA_SEND_ERROR_MSG = "Failed to push event onto the event bus";
+    static final String KAFKA_SEND_ERROR_CODE = "EVENT_BUS_FAILURE";
+    static final String KAFKA_SEND_ERROR_MSG = "Failed to push event onto the event bus";
 
-    private static final String KAFKA_ERROR_LOG = "Failed to push data to kafka queue";
+    static final String KAFKA_ERROR_LOG = "Failed to push data to kafka queue";
+
+    private static final String RECORDS_METRIC = "kafka.producer.records";
+    private static final String BATCH_SIZE_METRIC = "kafka.producer.batch.size";
+    private static final String IN_FLIGHT_METRIC = "kafka.producer.in.flight";
+
+    private final MeterRegistry registry;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final Map<String, Counter> sentCounters = new ConcurrentHashMap<>();
+
+    private final Map<String, Counter> failedCounters = new ConcurrentHashMap<>();
+
+    private final DistributionSummary batchSize;
 
-    @Autowired
     public CustomKafkaTemplate(KafkaTemplate<K, V> kafkaTemplate) {
+        this(kafkaTemplate, Metrics.globalRegistry);
+    }
+
+    @Autowired
+    public CustomKafkaTemplate(KafkaTemplate<K, V> kafkaTemplate, ObjectProvider<MeterRegistry> meterRegistry) {
+        this(kafkaTemplate, getRegistry(meterRegistry));
+    }
+
+    private CustomKafkaTemplate(KafkaTemplate<K, V> kafkaTemplate, MeterRegistry registry) {
         this.kafkaTemplate = kafkaTemplate;
+        this.registry = registry;
+        registry.gauge(IN_FLIGHT_METRIC, inFlight);
+        this.batchSize = DistributionSummary.builder(BATCH_SIZE_METRIC)
+            .description("Records published by a batch publisher")
+            .register(registry);
+    }
+
+    private static MeterRegistry getRegistry(ObjectProvider<MeterRegistry> meterRegistry) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        return registry != null ? registry : Metrics.globalRegistry;
     }
 
     public SendResult<K, V> send(String topic, V value) {
-        try {
-            final SendResult<K, V> result = kafkaTemplate.send(topic, value).get();
-            return result;
-        } catch (Exception e) {
-            log.error(KAFKA_ERROR_LOG, e);
-            throw new CustomException(KAFKA_SEND_ERROR_CODE, KAFKA_SEND_ERROR_MSG);
-        }
+        return await(sendAsync(topic, value));
     }
 
     public SendResult<K, V> send(String topic, K key, V value) {
+        return await(sendAsync(topic, key, value));
+    }
+
+    public SendResult<K, V> send(String topic, K key, int partition, V value) {
+        return await(sendAsync(topic, key, partition, value));
+    }
+
+    /**
+     * Sends the value without waiting for the broker, the record is batched by the producer with the other
+     * records sent within its linger time
+     *
+     * @param topic Topic to send to
+     * @param value Value of the record
+     * @return future completed once the broker acknowledges the record
+     */
+    public ListenableFuture<SendResult<K, V>> sendAsync(String topic, V value) {
+        return track(topic, () -> kafkaTemplate.send(topic, value));
+    }
+
+    public ListenableFuture<SendResult<K, V>> sendAsync(String topic, K key, V value) {
+        return track(topic, () -> kafkaTemplate.send(topic, key, value));
+    }
+
+    public ListenableFuture<SendResult<K, V>> sendAsync(String topic, K key, int partition, V value) {
+        return track(topic, () -> kafkaTemplate.send(topic, partition, key, value));
+    }
+
+    /**
+     * Opens a batch, the records sent on it are acknowledged together when the batch is awaited or closed
+     *
+     * <pre>
+     * try (KafkaBatchPublisher&lt;String, Object&gt; batch = customKafkaTemplate.batch()) {
+     *     records.forEach(record -&gt; batch.send(topic, record.getId(), record));
+     * }
+     * </pre>
+     *
+     * @return the batch publisher
+     */
+    public KafkaBatchPublisher<K, V> batch() {
+        return new KafkaBatchPublisher<>(this);
+    }
+
+    void recordBatch(int size) {
+        batchSize.record(size);
+    }
+
+    private ListenableFuture<SendResult<K, V>> track(String topic, Supplier<ListenableFuture<SendResult<K, V>>> sender) {
+        final ListenableFuture<SendResult<K, V>> future;
+        inFlight.incrementAndGet();
         try {
-            final SendResult<K, V> result = kafkaTemplate.send(topic, key, value).get();
-            return result;
+            future = sender.get();
         } catch (Exception e) {
+            inFlight.decrementAndGet();
+            counter(failedCounters, topic, "failure").increment();
             log.error(KAFKA_ERROR_LOG, e);
             throw new CustomException(KAFKA_SEND_ERROR_CODE, KAFKA_SEND_ERROR_MSG);
         }
+        future.addCallback(new ListenableFutureCallback<SendResult<K, V>>() {
+            @Override
+            public void onSuccess(SendResult<K, V> result) {
+                inFlight.decrementAndGet();
+                counter(sentCounters, topic, "success").increment();
+            }
+
+            @Override
+            public void onFailure(Throwable ex) {
+                inFlight.decrementAndGet();
+                counter(failedCounters, topic, "failure").increment();
+            }
+        });
+        return future;
     }
 
-    public SendResult<K, V> send(String topic, K key, int partition, V value) {
+    private Counter counter(Map<String, Counter> counters, String topic, String result) {
+        return counters.computeIfAbsent(topic, t -> Counter.builder(RECORDS_METRIC)
+            .description("Records published to kafka")
+            .tag("topic", t)
+            .tag("result", result)
+            .register(registry));
+    }
+
+    private SendResult<K, V> await(ListenableFuture<SendResult<K, V>> future) {
         try {
-            final SendResult<K, V> result = kafkaTemplate.send(topic, partition, key, value).get();
-            return result;
-        } catch (Exception e) {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             log.error(KAFKA_ERROR_LOG, e);
             throw new CustomException(KAFKA_SEND_ERROR_CODE, KAFKA_SEND_ERROR_MSG);
+        } catch (ExecutionException e) {
+            log.error(KAFKA_ERROR_LOG, e.getCause());
+            throw new CustomException(KAFKA_SEND_ERROR_CODE, KAFKA_SEND_ERROR_MSG);
         }
     }
 
@@ -0,0 +1,142 @@
+package org.egov.tracer.kafka;
+
+import lombok.extern.slf4j.Slf4j;
+import org.egov.tracer.model.CustomException;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.ListenableFutureCallback;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import static org.egov.tracer.kafka.CustomKafkaTemplate.KAFKA_ERROR_LOG;
+import static org.egov.tracer.kafka.CustomKafkaTemplate.KAFKA_SEND_ERROR_CODE;
+import static org.egov.tracer.kafka.CustomKafkaTemplate.KAFKA_SEND_ERROR_MSG;
+
+/**
+ * Publishes records without waiting for each of them, the records are acknowledged together on {@link #await()}
+ * or when the batch is closed. The first failed record fails the batch, records sent after it are rejected and
+ * the wait returns as soon as it is seen.
+ *
+ * A batch is meant to be used by the thread which opened it.
+ */
+@Slf4j
+public class KafkaBatchPublisher<K, V> implements AutoCloseable {
+
+    private final CustomKafkaTemplate<K, V> template;
+
+    private final List<ListenableFuture<SendResult<K, V>>> futures = new ArrayList<>();
+
+    private final Object lock = new Object();
+
+    private int pending;
+
+    private Throwable failure;
+
+    private boolean awaited;
+
+    KafkaBatchPublisher(CustomKafkaTemplate<K, V> template) {
+        this.template = template;
+    }
+
+    public void send(String topic, V value) {
+        checkFailure();
+        track(template.sendAsync(topic, value));
+    }
+
+    public void send(String topic, K key, V value) {
+        checkFailure();
+        track(template.sendAsync(topic, key, value));
+    }
+
+    public void send(String topic, K key, int partition, V value) {
+        checkFailure();
+        track(template.sendAsync(topic, key, partition, value));
+    }
+
+    /**
+     * @return records sent on the batch so far
+     */
+    public int size() {
+        return futures.size();
+    }
+
+    /**
+     * Waits for the records sent on the batch to be acknowledged
+     *
+     * @return results of the records in the order they were sent
+     * @throws CustomException on the first record which could not be published
+     */
+    public List<SendResult<K, V>> await() {
+        if (!awaited) {
+            awaited = true;
+            template.recordBatch(futures.size());
+        }
+        synchronized (lock) {
+            while (pending > 0 && failure == null) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    log.error(KAFKA_ERROR_LOG, e);
+                    throw new CustomException(KAFKA_SEND_ERROR_CODE, KAFKA_SEND_ERROR_MSG);
+                }
+            }
+        }
+        checkFailure();
+        List<SendResult<K, V>> results = new ArrayList<>(futures.size());
+        try {
+            // all the records are acknowledged by now, get does not block
+            for (ListenableFuture<SendResult<K, V>> future : futures)
+                results.add(future.get());
+        } catch (InterruptedException | ExecutionException e) {
+            log.error(KAFKA_ERROR_LOG, e);
+            throw new CustomException(KAFKA_SEND_ERROR_CODE, KAFKA_SEND_ERROR_MSG);
+        }
+        return results;
+    }
+
+    @Override
+    public void close() {
+        await();
+    }
+
+    private void track(ListenableFuture<SendResult<K, V>> future) {
+        futures.add(future);
+        synchronized (lock) {
+            pending++;
+        }
+        future.addCallback(new ListenableFutureCallback<SendResult<K, V>>() {
+            @Override
+            public void onSuccess(SendResult<K, V> result) {
+                synchronized (lock) {
+                    pending--;
+                    lock.notifyAll();
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable ex) {
+                synchronized (lock) {
+                    pending--;
+                    if (failure == null)
+                        failure = ex;
+                    lock.notifyAll();
+                }
+            }
+        });
+    }
+
+    private void checkFailure() {
+        Throwable cause;
+        synchronized (lock) {
+            cause = failure;
+        }
+        if (cause != null) {
+            log.error(KAFKA_ERROR_LOG, cause);
+            throw new CustomException(KAFKA_SEND_ERROR_CODE, KAFKA_SEND_ERROR_MSG);
+        }
+    }
+
+}
@@ -2,6 +2,9 @@ package org.egov.tracer.kafka;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerInterceptor;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
@@ -14,7 +17,12 @@ import org.apache.kafka.common.TopicPartition;
 import org.slf4j.MDC;
 import org.springframework.util.ObjectUtils;
 
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import static java.util.Objects.isNull;
 import static org.egov.tracer.constants.TracerConstants.*;
@@ -35,13 +43,50 @@ public class KafkaTemplateLoggingInterceptors<K,V> implements ConsumerIntercepto
     private static final String RECEIVED_MESSAGE_WITH_BODY = "Received message from topic: {}, partition: {}, body: {} with key: {}";
     private static final String RECEIVED_MESSAGE = "Received message from topic: {}, partition: {}, with key: {}";
 
+    private static final String TOPIC_TAG = "topic";
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    private final MeterRegistry registry = Metrics.globalRegistry;
+
+    private final Map<String, Timer> sendTimers = new ConcurrentHashMap<>();
+
+    private final Map<String, Timer> lagTimers = new ConcurrentHashMap<>();
+
+    private final Map<String, Timer> processingTimers = new ConcurrentHashMap<>();
+
+    private boolean metricsEnabled;
+
+    /* poll being processed by the consumer, timed until its offsets are committed */
+    private volatile long pollStartTime;
+
+    private volatile Set<String> polledTopics = Collections.emptySet();
+
     public KafkaTemplateLoggingInterceptors() {
     }
 
+    /**
+     * Log the records received and record the time each of them spent on the topic, measured from the
+     * record timestamp
+     *
+     * @param consumerRecords records returned by the poll
+     * @return the records
+     */
     @Override
     public ConsumerRecords<K, V> onConsume(ConsumerRecords<K, V> consumerRecords) {
+        if (metricsEnabled) {
+            long now = System.currentTimeMillis();
+            Set<String> topics = new HashSet<>();
+            for (ConsumerRecord<K, V> consumerRecord : consumerRecords) {
+                topics.add(consumerRecord.topic());
+                if (consumerRecord.timestamp() > 0)
+                    timer(lagTimers, KAFKA_CONSUMER_LAG_METRIC, consumerRecord.topic())
+                        .record(Math.max(0, now - consumerRecord.timestamp()), TimeUnit.MILLISECONDS);
+            }
+            polledTopics = topics;
+            pollStartTime = System.nanoTime();
+        }
+
         for (ConsumerRecord<K, V> consumerRecord : consumerRecords) {
             final String keyAsString = ObjectUtils.nullSafeToString(consumerRecord.key());
             String correlationId = getCorrelationIdFromBody(consumerRecord.value());
@@ -60,9 +105,22 @@ public class KafkaTemplateLoggingInterceptors<K,V> implements ConsumerIntercepto
         return consumerRecords;
     }
 
+    /**
+     * Record the time taken to process the last poll, the offsets are committed once the listener is done
+     * with the records of the poll
+     *
+     * @param map offsets committed
+     */
     @Override
     public void onCommit(Map<TopicPartition, OffsetAndMetadata> map) {
-
+        long startTime = pollStartTime;
+        if (!metricsEnabled || startTime == 0)
+            return;
+
+        pollStartTime = 0;
+        long elapsed = System.nanoTime() - startTime;
+        for (String topic : polledTopics)
+            timer(processingTimers, KAFKA_CONSUMER_PROCESSING_METRIC, topic).record(elapsed, TimeUnit.NANOSECONDS);
     }
 
     @Override
@@ -79,12 +137,22 @@ public class KafkaTemplateLoggingInterceptors<K,V> implements ConsumerIntercepto
         return producerRecord;
     }
 
+    /**
+     * Log the failed sends and record the time taken by the broker to acknowledge the record, measured from the
+     * record timestamp
+     *
+     * @param recordMetadata metadata of the record sent
+     * @param e exception if the send failed
+     */
     @Override
     public void onAcknowledgement(RecordMetadata recordMetadata, Exception e) {
         if (!isNull(e)) {
             final String message =
                 String.format(SEND_FAILURE_MESSAGE, recordMetadata.topic(), recordMetadata.partition());
             log.error(message, e);
+        } else if (metricsEnabled && recordMetadata.timestamp() > 0) {
+            timer(sendTimers, KAFKA_PRODUCER_SEND_METRIC, recordMetadata.topic())
+                .record(Math.max(0, System.currentTimeMillis() - recordMetadata.timestamp()), TimeUnit.MILLISECONDS);
         }
     }
 
@@ -93,9 +161,20 @@ public class KafkaTemplateLoggingInterceptors<K,V> implements ConsumerIntercepto
 
     }
 
+    /**
+     * Metrics are enabled through the tracer.metricsEnabled property passed on to the kafka clients
+     *
+     * @param map configuration of the producer or consumer
+     */
     @Override
     public void configure(Map<String, ?> map) {
+        metricsEnabled = Boolean.parseBoolean(String.valueOf(map.get(METRICS_ENABLED_PROPERTY)));
+    }
 
+    private Timer timer(Map<String, Timer> timers, String name, String topic) {
+        return timers.computeIfAbsent(topic, t -> Timer.builder(name)
+            .tag(TOPIC_TAG, t)
+            .register(registry));
     }
 
     private String getMessageBodyAsJsonString(Object value) {
@@ -0,0 +1,67 @@
+package org.egov.tracer.http;
+
+import org.egov.tracer.config.TracerProperties;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BodyLoggingPolicyTest {
+
+    @Test
+    public void test_should_redact_configured_fields_at_any_depth() {
+        TracerProperties tracerProperties = new TracerProperties();
+        tracerProperties.setBodyLoggingRedactedFields(Arrays.asList("authToken", "owners"));
+        BodyLoggingPolicy policy = new BodyLoggingPolicy(tracerProperties);
+
+        String logged = format(policy, "{\"RequestInfo\": {\"authToken\": \"token\", \"ts\": 1},"
+            + " \"Properties\": [{\"owners\": [{\"name\": \"owner\"}], \"tenantId\": \"pb\"}]}");
+
+        assertEquals("{\"RequestInfo\":{\"authToken\":\"****\",\"ts\":1},"
+            + "\"Properties\":[{\"owners\":\"****\",\"tenantId\":\"pb\"}]}", logged);
+    }
+
+    @Test
+    public void test_should_truncate_body_longer_than_max_length() {
+        TracerProperties tracerProperties = new TracerProperties();
+        tracerProperties.setBodyLoggingMaxLength(10);
+        BodyLoggingPolicy policy = new BodyLoggingPolicy(tracerProperties);
+
+        String logged = format(policy, "{\"Properties\": [\"foo\", \"bar\", \"baz\"]}");
+
+        assertEquals("{\"Properti" + BodyLoggingPolicy.TRUNCATED_SUFFIX, logged);
+    }
+
+    @Test
+    public void test_should_log_body_up_to_invalid_json() {
+        BodyLoggingPolicy policy = new BodyLoggingPolicy(new TracerProperties());
+
+        assertEquals("{\"foo\":\"bar\"" + BodyLoggingPolicy.TRUNCATED_SUFFIX,
+            format(policy, "{\"foo\": \"bar\", baz}"));
+        assertEquals(BodyLoggingPolicy.NOT_JSON_BODY, format(policy, "foobar"));
+    }
+
+    @Test
+    public void test_should_sample_by_first_matching_route() {
+        TracerProperties tracerProperties = new TracerProperties();
+        tracerProperties.setBodyLoggingSampleRate(0.5);
+        tracerProperties.getBodyLoggingRouteSampleRates().put("/pt-services-v2/property/_search", 0.0);
+        tracerProperties.getBodyLoggingRouteSampleRates().put("/pt-services-v2/**", 1.0);
+        BodyLoggingPolicy policy = new BodyLoggingPolicy(tracerProperties);
+
+        assertFalse(policy.isSampled("/pt-services-v2/property/_search"));
+        assertTrue(policy.isSampled("/pt-services-v2/property/_create"));
+        assertEquals(0.5, policy.getSampleRate("/tl-services/v1/_create"), 0);
+        assertEquals(0.5, policy.getSampleRate(null), 0);
+    }
+
+    private String format(BodyLoggingPolicy policy, String body) {
+        return policy.format(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+}
@@ -0,0 +1,64 @@
+package org.egov.tracer.http;
+
+import io.micrometer.core.instrument.Tag;
+import org.junit.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RestTemplateMetricsTagsProviderTest {
+
+    private final RestTemplateMetricsTagsProvider tagsProvider = new RestTemplateMetricsTagsProvider();
+
+    @Test
+    public void test_should_drop_query_string_from_uri_template() {
+        MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.POST,
+            URI.create("http://egov-user:8080/user/_search?tenantId=pb"));
+
+        List<Tag> tags = tags(tagsProvider.getTags("http://egov-user:8080/user/_search?tenantId=pb", request,
+            new MockClientHttpResponse(new byte[0], HttpStatus.OK)));
+
+        assertTrue(tags.contains(Tag.of("uri", "/user/_search")));
+        assertTrue(tags.contains(Tag.of("method", "POST")));
+        assertTrue(tags.contains(Tag.of("status", "200")));
+        assertTrue(tags.contains(Tag.of("clientName", "egov-user")));
+    }
+
+    @Test
+    public void test_should_keep_variables_of_uri_template() {
+        MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.GET,
+            URI.create("http://egov-mdms-service:8080/mdms/pb?code=1"));
+
+        List<Tag> tags = tags(tagsProvider.getTags("http://egov-mdms-service:8080/mdms/{tenantId}?code={code}",
+            request, new MockClientHttpResponse(new byte[0], HttpStatus.NOT_FOUND)));
+
+        assertTrue(tags.contains(Tag.of("uri", "/mdms/{tenantId}")));
+        assertTrue(tags.contains(Tag.of("status", "404")));
+    }
+
+    @Test
+    public void test_should_fall_back_to_request_uri() {
+        MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.GET,
+            URI.create("http://egov-user:8080/user/_details?access_token=secret"));
+
+        List<Tag> tags = tags(tagsProvider.getTags(null, request,
+            new MockClientHttpResponse(new byte[0], HttpStatus.OK)));
+
+        assertEquals(Tag.of("uri", "/user/_details"), tags.get(1));
+    }
+
+    private List<Tag> tags(Iterable<Tag> tags) {
+        List<Tag> list = new ArrayList<>();
+        tags.forEach(list::add);
+        return list;
+    }
+
+}
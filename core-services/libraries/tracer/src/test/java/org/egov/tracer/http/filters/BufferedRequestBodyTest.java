@@ -0,0 +1,132 @@
+package org.egov.tracer.http.filters;
+
+import org.apache.commons.io.IOUtils;
+import org.egov.Resources;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class BufferedRequestBodyTest {
+
+    private static final int MAX_LENGTH = 100 * 1024;
+
+    private final Resources resources = new Resources();
+
+    @Test
+    public void test_should_read_body_of_unknown_length() throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 10000; i++)
+            content.append(i);
+
+        BufferedRequestBody body = BufferedRequestBody.read(
+            new ByteArrayInputStream(content.toString().getBytes(StandardCharsets.UTF_8)), -1, MAX_LENGTH);
+
+        assertEquals(content.length(), body.getLength());
+        assertEquals(content.toString(), body.toString());
+    }
+
+    @Test
+    public void test_should_read_body_longer_than_content_length() throws IOException {
+        BufferedRequestBody body = BufferedRequestBody.read(
+            new ByteArrayInputStream("foobar".getBytes(StandardCharsets.UTF_8)), 3, MAX_LENGTH);
+
+        assertEquals("foobar", body.toString());
+    }
+
+    @Test
+    public void test_should_not_allocate_content_length_up_front() throws IOException {
+        BufferedRequestBody body = BufferedRequestBody.read(
+            new ByteArrayInputStream("foobar".getBytes(StandardCharsets.UTF_8)), Integer.MAX_VALUE - 1, Integer.MAX_VALUE);
+
+        assertEquals("foobar", body.toString());
+        assertEquals(6, body.toByteArray().length);
+    }
+
+    @Test
+    public void test_should_read_body_of_max_length() throws IOException {
+        byte[] content = new byte[BufferedRequestBody.INITIAL_BUFFER_SIZE * 3];
+
+        BufferedRequestBody body = BufferedRequestBody.read(new ByteArrayInputStream(content), -1, content.length);
+
+        assertEquals(content.length, body.getLength());
+    }
+
+    @Test(expected = RequestBodyTooLargeException.class)
+    public void test_should_reject_content_length_longer_than_max_length() throws IOException {
+        BufferedRequestBody.read(new ByteArrayInputStream(new byte[0]), MAX_LENGTH + 1, MAX_LENGTH);
+    }
+
+    @Test(expected = RequestBodyTooLargeException.class)
+    public void test_should_reject_body_longer_than_max_length() throws IOException {
+        BufferedRequestBody.read(new ByteArrayInputStream(new byte[MAX_LENGTH + 1]), 10, MAX_LENGTH);
+    }
+
+    @Test(expected = RequestBodyTooLargeException.class)
+    public void test_should_reject_body_of_unknown_length_longer_than_max_length() throws IOException {
+        BufferedRequestBody.read(new ByteArrayInputStream(new byte[20]), -1, 10);
+    }
+
+    @Test
+    public void test_should_read_request_info_fields() {
+        BufferedRequestBody body = body(resources.getFileContents("requestBodyWithCorrelationIdPresentInRequestInfo.json"));
+
+        assertEquals("someCorrelationId", body.getRequestInfoField("correlationId"));
+        assertNull(body.getRequestInfoField("authToken"));
+    }
+
+    @Test
+    public void test_should_skip_fields_before_request_info() {
+        BufferedRequestBody body = body("{\"Properties\":[{\"RequestInfo\":{\"correlationId\":\"nested\"}}],"
+            + "\"requestInfo\":{\"userInfo\":{\"id\":1},\"correlationId\":\"someCorrelationId\",\"ts\":123}}");
+
+        assertEquals("someCorrelationId", body.getRequestInfoField("correlationId"));
+        assertEquals("123", body.getRequestInfoField("ts"));
+        assertNull(body.getRequestInfoField("userInfo"));
+    }
+
+    @Test
+    public void test_should_prefer_pascal_case_request_info() {
+        BufferedRequestBody body = body("{\"requestInfo\":{\"correlationId\":\"camelCase\",\"ts\":1},"
+            + "\"RequestInfo\":{\"correlationId\":\"pascalCase\"}}");
+
+        assertEquals("pascalCase", body.getRequestInfoField("correlationId"));
+        assertNull(body.getRequestInfoField("ts"));
+    }
+
+    @Test
+    public void test_should_stop_at_end_of_request_info() {
+        BufferedRequestBody body = body("{\"RequestInfo\":{\"correlationId\":\"someCorrelationId\"},\"foo\": not json");
+
+        assertEquals("someCorrelationId", body.getRequestInfoField("correlationId"));
+    }
+
+    @Test
+    public void test_should_ignore_body_which_is_not_json() {
+        assertNull(body("foobar").getRequestInfoField("correlationId"));
+        assertNull(body("").getRequestInfoField("correlationId"));
+        assertNull(body(resources.getFileContents("requestBodyWithoutRequestInfoField.json"))
+            .getRequestInfoField("correlationId"));
+    }
+
+    @Test
+    public void test_wrapper_should_allow_body_to_be_read_multiple_times() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContent("foobar".getBytes(StandardCharsets.UTF_8));
+        MultiReadRequestWrapper wrapper = new MultiReadRequestWrapper(request, MAX_LENGTH);
+
+        assertEquals("foobar", IOUtils.toString(wrapper.getInputStream(), StandardCharsets.UTF_8));
+        assertEquals("foobar", IOUtils.toString(wrapper.getReader()));
+    }
+
+    private BufferedRequestBody body(String content) {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        return new BufferedRequestBody(bytes, bytes.length);
+    }
+
+}
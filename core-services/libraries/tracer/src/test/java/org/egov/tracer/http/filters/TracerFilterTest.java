@@ -0,0 +1,62 @@
+package org.egov.tracer.http.filters;
+
+import org.apache.commons.io.IOUtils;
+import org.egov.tracer.config.ObjectMapperFactory;
+import org.egov.tracer.config.TracerProperties;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class TracerFilterTest {
+
+    private TracerFilter tracerFilter;
+
+    @Before
+    public void before() {
+        TracerProperties tracerProperties = new TracerProperties();
+        tracerProperties.setRequestBodyMaxLength(10);
+        tracerFilter = new TracerFilter(tracerProperties, new ObjectMapperFactory(tracerProperties, new MockEnvironment()));
+    }
+
+    @Test
+    public void test_should_pass_body_within_max_length() throws IOException, ServletException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain filterChain = new MockFilterChain();
+
+        tracerFilter.doFilter(request("{\"a\":1}"), response, filterChain);
+
+        assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+        assertEquals("{\"a\":1}", IOUtils.toString(filterChain.getRequest().getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void test_should_reject_body_longer_than_max_length() throws IOException, ServletException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain filterChain = new MockFilterChain();
+
+        tracerFilter.doFilter(request("{\"foo\":\"bar\"}"), response, filterChain);
+
+        assertEquals(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, response.getStatus());
+        assertNull(filterChain.getRequest());
+    }
+
+    private MockHttpServletRequest request(String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/pt-services-v2/property/_create");
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+}
@@ -0,0 +1,119 @@
+package org.egov.tracer.kafka;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.egov.tracer.model.CustomException;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.util.concurrent.SettableListenableFuture;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class KafkaBatchPublisherTest {
+
+    private static final String TOPIC = "test-topic";
+
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    private SimpleMeterRegistry registry;
+
+    private CustomKafkaTemplate<String, String> customKafkaTemplate;
+
+    private List<SettableListenableFuture<SendResult<String, String>>> futures;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void before() {
+        kafkaTemplate = mock(KafkaTemplate.class);
+        registry = new SimpleMeterRegistry();
+        ObjectProvider<MeterRegistry> meterRegistry = mock(ObjectProvider.class);
+        when(meterRegistry.getIfAvailable()).thenReturn(registry);
+        customKafkaTemplate = new CustomKafkaTemplate<>(kafkaTemplate, meterRegistry);
+        futures = new ArrayList<>();
+        when(kafkaTemplate.send(anyString(), anyString(), anyString())).thenAnswer(invocation -> {
+            SettableListenableFuture<SendResult<String, String>> future = new SettableListenableFuture<>();
+            futures.add(future);
+            return future;
+        });
+    }
+
+    @Test
+    public void test_should_send_all_records_before_waiting() {
+        KafkaBatchPublisher<String, String> batch = customKafkaTemplate.batch();
+        for (int i = 0; i < 3; i++)
+            batch.send(TOPIC, "key" + i, "value" + i);
+
+        verify(kafkaTemplate, times(3)).send(anyString(), anyString(), anyString());
+        assertEquals(3, registry.find("kafka.producer.in.flight").gauge().value(), 0);
+
+        for (int i = 0; i < 3; i++)
+            futures.get(i).set(result("key" + i, "value" + i, i));
+        List<SendResult<String, String>> results = batch.await();
+
+        assertEquals(3, results.size());
+        assertEquals("value2", results.get(2).getProducerRecord().value());
+        assertEquals(0, registry.find("kafka.producer.in.flight").gauge().value(), 0);
+        assertEquals(3, registry.find("kafka.producer.records").tags("result", "success").counter().count(), 0);
+        assertEquals(1, registry.find("kafka.producer.batch.size").summary().count());
+    }
+
+    @Test
+    public void test_should_fail_on_first_error_without_waiting_for_pending_records() throws InterruptedException {
+        KafkaBatchPublisher<String, String> batch = customKafkaTemplate.batch();
+        batch.send(TOPIC, "key0", "value0");
+        batch.send(TOPIC, "key1", "value1");
+
+        AtomicReference<Exception> error = new AtomicReference<>();
+        Thread waiter = new Thread(() -> {
+            try {
+                batch.await();
+            } catch (Exception e) {
+                error.set(e);
+            }
+        });
+        waiter.start();
+        futures.get(1).setException(new RuntimeException("broker down"));
+        waiter.join(5000);
+
+        assertTrue(error.get() instanceof CustomException);
+        assertEquals("EVENT_BUS_FAILURE", ((CustomException) error.get()).getCode());
+        try {
+            batch.send(TOPIC, "key2", "value2");
+            fail("send on a failed batch should be rejected");
+        } catch (CustomException e) {
+            assertEquals(2, futures.size());
+        }
+    }
+
+    @Test
+    public void test_should_wait_on_close() {
+        try (KafkaBatchPublisher<String, String> batch = customKafkaTemplate.batch()) {
+            batch.send(TOPIC, "key0", "value0");
+            futures.get(0).set(result("key0", "value0", 0));
+        }
+        assertEquals(1, registry.find("kafka.producer.records").tags("result", "success").counter().count(), 0);
+    }
+
+    private static SendResult<String, String> result(String key, String value, long offset) {
+        return new SendResult<>(new ProducerRecord<>(TOPIC, key, value),
+            new RecordMetadata(new TopicPartition(TOPIC, 0), offset, 0, 0L, 0L, 0, 0));
+    }
+
+}
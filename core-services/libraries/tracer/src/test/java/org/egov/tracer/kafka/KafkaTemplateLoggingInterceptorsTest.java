@@ -0,0 +1,100 @@
+package org.egov.tracer.kafka;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class KafkaTemplateLoggingInterceptorsTest {
+
+    private static final String TOPIC = "test-topic";
+
+    private static final TopicPartition PARTITION = new TopicPartition(TOPIC, 0);
+
+    private SimpleMeterRegistry registry;
+
+    private KafkaTemplateLoggingInterceptors<String, String> interceptors;
+
+    @Before
+    public void before() {
+        registry = new SimpleMeterRegistry();
+        Metrics.addRegistry(registry);
+        interceptors = new KafkaTemplateLoggingInterceptors<>();
+        interceptors.configure(Collections.singletonMap("tracer.metricsEnabled", "true"));
+    }
+
+    @After
+    public void after() {
+        Metrics.removeRegistry(registry);
+    }
+
+    @Test
+    public void test_should_record_time_spent_on_topic() {
+        interceptors.onConsume(records(System.currentTimeMillis() - 5000));
+
+        Timer lag = registry.find("kafka.consumer.lag").tag("topic", TOPIC).timer();
+        assertEquals(1, lag.count());
+        assertTrue(lag.totalTime(TimeUnit.MILLISECONDS) >= 5000);
+    }
+
+    @Test
+    public void test_should_record_processing_time_of_poll_on_commit() {
+        interceptors.onConsume(records(System.currentTimeMillis()));
+        interceptors.onCommit(Collections.singletonMap(PARTITION, null));
+        interceptors.onCommit(Collections.singletonMap(PARTITION, null));
+
+        assertEquals(1, registry.find("kafka.consumer.processing").tag("topic", TOPIC).timer().count());
+    }
+
+    @Test
+    public void test_should_record_acknowledged_sends() {
+        interceptors.onAcknowledgement(metadata(System.currentTimeMillis() - 100), null);
+        interceptors.onAcknowledgement(metadata(-1), null);
+
+        Timer send = registry.find("kafka.producer.send").tag("topic", TOPIC).timer();
+        assertEquals(1, send.count());
+        assertTrue(send.totalTime(TimeUnit.MILLISECONDS) >= 100);
+    }
+
+    @Test
+    public void test_should_not_record_when_metrics_are_disabled() {
+        interceptors.configure(Collections.emptyMap());
+
+        interceptors.onConsume(records(System.currentTimeMillis()));
+        interceptors.onCommit(Collections.singletonMap(PARTITION, null));
+        interceptors.onAcknowledgement(metadata(System.currentTimeMillis()), null);
+
+        assertNull(registry.find("kafka.consumer.lag").timer());
+        assertNull(registry.find("kafka.consumer.processing").timer());
+        assertNull(registry.find("kafka.producer.send").timer());
+    }
+
+    private ConsumerRecords<String, String> records(long timestamp) {
+        ConsumerRecord<String, String> record = new ConsumerRecord<>(TOPIC, 0, 0L, timestamp,
+            TimestampType.CREATE_TIME, 0L, 0, 0, "key", "value");
+        Map<TopicPartition, List<ConsumerRecord<String, String>>> records =
+            Collections.singletonMap(PARTITION, Collections.singletonList(record));
+        return new ConsumerRecords<>(records);
+    }
+
+    private RecordMetadata metadata(long timestamp) {
+        return new RecordMetadata(PARTITION, 0L, 0L, timestamp, 0L, 0, 0);
+    }
+
+}
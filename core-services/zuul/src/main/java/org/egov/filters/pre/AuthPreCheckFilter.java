@@ -1,13 +1,9 @@
 package org.egov.filters.pre;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.netflix.zuul.ZuulFilter;
 import com.netflix.zuul.context.RequestContext;
 import org.egov.Utils.*;
 import org.egov.contract.User;
-import org.egov.model.RequestBodyInspector;
 import org.egov.wrapper.CustomRequestWrapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,8 +12,10 @@ import org.springframework.util.*;
 
 import javax.servlet.http.HttpServletRequest;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 
 import static org.egov.constants.RequestContextConstants.*;
 
@@ -42,10 +40,11 @@ public class AuthPreCheckFilter extends ZuulFilter {
     private static final String NO_REQUEST_INFO_FIELD_MESSAGE = "No request-info field in request body for: {}";
     private static final String AUTH_TOKEN_REQUEST_BODY_FIELD_NAME = "authToken";
     private static final String FAILED_TO_SERIALIZE_REQUEST_BODY_MESSAGE = "Failed to serialize requestBody";
+    private static final List<String> SANITIZED_REQUEST_INFO_FIELDS =
+        Arrays.asList(USER_INFO_FIELD_NAME, AUTH_TOKEN_REQUEST_BODY_FIELD_NAME);
     private HashSet<String> openEndpointsWhitelist;
     private HashSet<String> mixedModeEndpointsWhitelist;
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
-    private final ObjectMapper objectMapper;
     private UserUtils userUtils;
 
 
@@ -55,7 +54,6 @@ public class AuthPreCheckFilter extends ZuulFilter {
         this.openEndpointsWhitelist = openEndpointsWhitelist;
         this.mixedModeEndpointsWhitelist = mixedModeEndpointsWhitelist;
         this.userUtils = userUtils;
-        objectMapper = new ObjectMapper();
     }
 
     @Override
@@ -136,39 +134,31 @@ public class AuthPreCheckFilter extends ZuulFilter {
             return null;
 
         CustomRequestWrapper requestWrapper = new CustomRequestWrapper(getRequest());
-        HashMap<String, Object> requestBody = getRequestBody(requestWrapper);
-        final RequestBodyInspector requestBodyInspector = new RequestBodyInspector(requestBody);
-        @SuppressWarnings("unchecked")
-        HashMap<String, Object> requestInfo = requestBodyInspector.getRequestInfo();
+        HashMap<String, Object> requestInfo = requestWrapper.getRequestInfo();
         if (requestInfo == null) {
             logger.info(NO_REQUEST_INFO_FIELD_MESSAGE, getRequestURI());
             return null;
         }
         String authToken = (String) requestInfo.get(AUTH_TOKEN_REQUEST_BODY_FIELD_NAME);
-        sanitizeAndSetRequest(requestBodyInspector, requestWrapper);
+        sanitizeAndSetRequest(requestInfo, requestWrapper);
         return authToken;
     }
 
-    private HashMap<String, Object> getRequestBody(CustomRequestWrapper requestWrapper) throws IOException {
-        return objectMapper.readValue(requestWrapper.getPayload(),
-            new TypeReference<HashMap<String, Object>>() { });
-    }
-
-    private void sanitizeAndSetRequest(RequestBodyInspector requestBodyInspector, CustomRequestWrapper requestWrapper) {
-        HashMap<String, Object> requestInfo = requestBodyInspector.getRequestInfo();
+    /**
+     * Removes the auth token and user info from the RequestInfo of the body, the body is re-written only when
+     * the RequestInfo has either of them
+     */
+    private void sanitizeAndSetRequest(HashMap<String, Object> requestInfo, CustomRequestWrapper requestWrapper) {
         RequestContext ctx = RequestContext.getCurrentContext();
-        requestInfo.remove(USER_INFO_FIELD_NAME);
-        requestInfo.remove(AUTH_TOKEN_REQUEST_BODY_FIELD_NAME);
-        requestBodyInspector.updateRequestInfo(requestInfo);
-        try {
-            String requestSanitizedBody = objectMapper.writeValueAsString(requestBodyInspector.getRequestBody());
-            ctx.set(CURRENT_REQUEST_SANITIZED_BODY, requestBodyInspector.getRequestBody());
-            ctx.set(CURRENT_REQUEST_SANITIZED_BODY_STR, requestSanitizedBody);
-            requestWrapper.setPayload(requestSanitizedBody);
-        } catch (JsonProcessingException e) {
-            logger.error(FAILED_TO_SERIALIZE_REQUEST_BODY_MESSAGE, e);
-            ExceptionUtils.RaiseException(e);
+        if (requestInfo.containsKey(USER_INFO_FIELD_NAME) || requestInfo.containsKey(AUTH_TOKEN_REQUEST_BODY_FIELD_NAME)) {
+            try {
+                requestWrapper.removeRequestInfoFields(SANITIZED_REQUEST_INFO_FIELDS);
+            } catch (IOException e) {
+                logger.error(FAILED_TO_SERIALIZE_REQUEST_BODY_MESSAGE, e);
+                ExceptionUtils.RaiseException(e);
+            }
         }
+        ctx.set(CURRENT_REQUEST_SANITIZED_BODY_STR, requestWrapper.getPayload());
         ctx.setRequest(requestWrapper);
     }
 
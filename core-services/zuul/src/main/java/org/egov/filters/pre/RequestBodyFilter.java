@@ -0,0 +1,43 @@
+package org.egov.filters.pre;
+
+import com.netflix.zuul.ZuulFilter;
+import com.netflix.zuul.context.RequestContext;
+import org.egov.Utils.Utils;
+import org.egov.wrapper.CustomRequestWrapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ *  Reads the json body of the request once, up to the configured maximum length, before any other filter
+ *  parses it. The filters after it wrap the request again and share the body read here.
+ *  A body longer than the maximum length is rejected with 413.
+ */
+@Component
+public class RequestBodyFilter extends ZuulFilter {
+
+    @Value("${egov.request-body-max-bytes}")
+    private int maxBodyBytes;
+
+    @Override
+    public String filterType() {
+        return "pre";
+    }
+
+    @Override
+    public int filterOrder() {
+        return -1;
+    }
+
+    @Override
+    public boolean shouldFilter() {
+        return Utils.isRequestBodyCompatible(RequestContext.getCurrentContext().getRequest());
+    }
+
+    @Override
+    public Object run() {
+        RequestContext ctx = RequestContext.getCurrentContext();
+        ctx.setRequest(new CustomRequestWrapper(ctx.getRequest(), maxBodyBytes));
+        return null;
+    }
+
+}
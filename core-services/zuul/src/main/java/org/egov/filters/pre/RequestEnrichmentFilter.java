@@ -6,7 +6,6 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.netflix.zuul.ZuulFilter;
 import com.netflix.zuul.context.RequestContext;
-import org.apache.commons.io.IOUtils;
 import org.egov.Utils.ExceptionUtils;
 import org.egov.contract.User;
 import org.egov.model.RequestBodyInspector;
@@ -115,26 +114,21 @@ public class RequestEnrichmentFilter extends ZuulFilter {
     @SuppressWarnings("unchecked")
     private void enrichRequestBody() throws IOException {
         RequestContext ctx = RequestContext.getCurrentContext();
-        final RequestBodyInspector requestBodyInspector = getRequestBodyInspector(ctx);
-        HashMap<String, Object> requestInfo = requestBodyInspector.getRequestInfo();
-        if (requestInfo == null) {
+        CustomRequestWrapper requestWrapper = new CustomRequestWrapper(ctx.getRequest());
+        if (requestWrapper.getRequestInfo() == null) {
             logger.info(SKIPPED_BODY_ENRICHMENT_DUE_TO_NO_KNOWN_FIELD_MESSAGE);
             return;
         }
+        final RequestBodyInspector requestBodyInspector = new RequestBodyInspector(getRequestBody(requestWrapper));
+        HashMap<String, Object> requestInfo = requestBodyInspector.getRequestInfo();
         setUserInfo(requestInfo);
         setCorrelationId(requestInfo);
         requestBodyInspector.updateRequestInfo(requestInfo);
-        CustomRequestWrapper requestWrapper = new CustomRequestWrapper(ctx.getRequest());
-        requestWrapper.setPayload(objectMapper.writeValueAsString(requestBodyInspector.getRequestBody()));
+        requestWrapper.setPayload(objectMapper.writeValueAsBytes(requestBodyInspector.getRequestBody()));
         logger.info(BODY_ENRICHED_MESSAGE);
         ctx.setRequest(requestWrapper);
     }
 
-    private RequestBodyInspector getRequestBodyInspector(RequestContext ctx) throws IOException {
-        HashMap<String, Object> requestBody = getRequestBody(ctx);
-        return new RequestBodyInspector(requestBody);
-    }
-
     private void setCorrelationId(HashMap<String, Object> requestInfo) {
         requestInfo.put(CORRELATION_ID_FIELD_NAME, getCorrelationId());
     }
@@ -160,9 +154,9 @@ public class RequestEnrichmentFilter extends ZuulFilter {
         return ctx.get(USER_INFO_KEY) != null;
     }
 
-    private HashMap<String, Object> getRequestBody(RequestContext ctx) throws IOException {
-        String payload = IOUtils.toString(ctx.getRequest().getInputStream());
-        return objectMapper.readValue(payload, new TypeReference<HashMap<String, Object>>() { });
+    private HashMap<String, Object> getRequestBody(CustomRequestWrapper requestWrapper) throws IOException {
+        return objectMapper.readValue(requestWrapper.getPayloadBytes(),
+            new TypeReference<HashMap<String, Object>>() { });
     }
 
-}
+}
\ No newline at end of file
@@ -1,51 +1,288 @@
 package org.egov.wrapper;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
 import com.netflix.zuul.http.HttpServletRequestWrapper;
-import com.netflix.zuul.http.ServletInputStreamWrapper;
-import org.apache.commons.io.IOUtils;
+import org.egov.Utils.ExceptionUtils;
 import org.egov.tracer.model.CustomException;
+import org.springframework.http.HttpStatus;
 
+import javax.servlet.ReadListener;
 import javax.servlet.ServletInputStream;
 import javax.servlet.http.HttpServletRequest;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 
+import static org.egov.constants.RequestContextConstants.REQUEST_INFO_FIELD_NAME_CAMEL_CASE;
+import static org.egov.constants.RequestContextConstants.REQUEST_INFO_FIELD_NAME_PASCAL_CASE;
+
+/**
+ * Request with the body read once into a buffer. Wrapping a request which is already a CustomRequestWrapper
+ * shares its buffer, so the filters wrapping the request one after the other do not read and copy the body again.
+ * The buffer starts at the content length, up to INITIAL_BUFFER_SIZE, and grows as the bytes arrive rather than
+ * being allocated from the content length sent by the client. A body longer than the maximum length is rejected
+ * with 413.
+ *
+ * The RequestInfo is parsed lazily with a streaming parser which skips the fields before it and stops at its end.
+ */
 public class CustomRequestWrapper extends HttpServletRequestWrapper {
 
-    private String payload;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final int DEFAULT_BUFFER_SIZE = 4096;
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+    private static final String TOO_LARGE_MESSAGE = "Request body is longer than %d bytes";
+    private static final String NO_CONTENT_MESSAGE = "No content to map due to end-of-input";
+    private static final String NOT_AN_OBJECT_MESSAGE = "Request body is not a JSON object";
+
+    private byte[] payload;
+    private String payloadString;
+    private HashMap<String, Object> requestInfo;
+    private boolean requestInfoParsed;
 
     public CustomRequestWrapper(HttpServletRequest request) {
+        this(request, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param request request to be wrapped
+     * @param maxPayloadLength maximum length of the body, in bytes, when it is read from the request
+     */
+    public CustomRequestWrapper(HttpServletRequest request, int maxPayloadLength) {
         super(request);
-        convertInputStreamToString(request);
+        if (request instanceof CustomRequestWrapper)
+            shareBody((CustomRequestWrapper) request);
+        else
+            readPayload(request, maxPayloadLength);
     }
 
-    private void convertInputStreamToString(HttpServletRequest request) {
+    private void shareBody(CustomRequestWrapper request) {
+        payload = request.payload;
+        payloadString = request.payloadString;
+        requestInfo = request.requestInfo;
+        requestInfoParsed = request.requestInfoParsed;
+    }
+
+    private void readPayload(HttpServletRequest request, int maxPayloadLength) {
         try {
-            payload = IOUtils.toString(request.getInputStream());
+            payload = read(request.getInputStream(), request.getContentLength(), maxPayloadLength);
         } catch (IOException e) {
             throw new CustomException("INPUT_TO_STRING_CONVERSION_ERROR", e.getMessage());
         }
     }
 
+    private static byte[] read(InputStream inputStream, int contentLength, int maxLength) throws IOException {
+        if (contentLength > maxLength)
+            raisePayloadTooLarge(maxLength);
+
+        int initialSize = contentLength > 0 ? Math.min(contentLength, INITIAL_BUFFER_SIZE) : DEFAULT_BUFFER_SIZE;
+        byte[] buffer = new byte[Math.min(initialSize, maxLength)];
+        int length = 0;
+        int read;
+        while ((read = inputStream.read(buffer, length, buffer.length - length)) != -1) {
+            length += read;
+            if (length < buffer.length)
+                continue;
+
+            int next = inputStream.read();
+            if (next == -1)
+                break;
+            if (length >= maxLength)
+                raisePayloadTooLarge(maxLength);
+            buffer = Arrays.copyOf(buffer, (int) Math.min(buffer.length * 2L, maxLength));
+            buffer[length++] = (byte) next;
+        }
+        return length == buffer.length ? buffer : Arrays.copyOf(buffer, length);
+    }
+
+    private static void raisePayloadTooLarge(int maxLength) {
+        ExceptionUtils.raiseCustomException(HttpStatus.PAYLOAD_TOO_LARGE, String.format(TOO_LARGE_MESSAGE, maxLength));
+    }
+
     public String getPayload() {
-        return payload;
+        if (payloadString == null)
+            payloadString = new String(payload, StandardCharsets.UTF_8);
+
+        return payloadString;
     }
 
     public void setPayload(String payload){
+        this.payload = payload.getBytes(StandardCharsets.UTF_8);
+        this.payloadString = payload;
+        resetRequestInfo();
+    }
+
+    /**
+     * Body of the request, the buffer is shared with the other wrappers of the request and is not to be modified
+     *
+     * @return the body
+     */
+    public byte[] getPayloadBytes() {
+        return payload;
+    }
+
+    public void setPayload(byte[] payload) {
         this.payload = payload;
+        this.payloadString = null;
+        resetRequestInfo();
+    }
+
+    private void resetRequestInfo() {
+        requestInfo = null;
+        requestInfoParsed = false;
+    }
+
+    /**
+     * RequestInfo, or requestInfo when the body has no RequestInfo. Only the RequestInfo is parsed, the fields
+     * before it are skipped and the rest of the body is not read. The map is shared with the other wrappers of the
+     * request and is not to be modified.
+     *
+     * @return the RequestInfo, null when the body has none
+     * @throws IOException when the body is not a JSON object
+     */
+    public HashMap<String, Object> getRequestInfo() throws IOException {
+        if (!requestInfoParsed) {
+            requestInfo = parseRequestInfo();
+            requestInfoParsed = true;
+        }
+        return requestInfo;
+    }
+
+    private HashMap<String, Object> parseRequestInfo() throws IOException {
+        HashMap<String, Object> camelCaseRequestInfo = null;
+        try (JsonParser parser = OBJECT_MAPPER.getFactory().createParser(payload)) {
+            JsonToken token = parser.nextToken();
+            if (token != JsonToken.START_OBJECT)
+                throw MismatchedInputException.from(parser, HashMap.class,
+                    token == null ? NO_CONTENT_MESSAGE : NOT_AN_OBJECT_MESSAGE);
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (REQUEST_INFO_FIELD_NAME_PASCAL_CASE.equals(fieldName))
+                    return value == JsonToken.START_OBJECT ? readObject(parser) : null;
+
+                if (value == JsonToken.START_OBJECT && REQUEST_INFO_FIELD_NAME_CAMEL_CASE.equals(fieldName)
+                    && camelCaseRequestInfo == null)
+                    camelCaseRequestInfo = readObject(parser);
+                else
+                    parser.skipChildren();
+            }
+            return camelCaseRequestInfo;
+        }
+    }
+
+    private HashMap<String, Object> readObject(JsonParser parser) throws IOException {
+        return OBJECT_MAPPER.readValue(parser, new TypeReference<HashMap<String, Object>>() { });
+    }
+
+    /**
+     * Removes the fields from the RequestInfo of the body. The rest of the body is copied token by token,
+     * without building a tree of it.
+     *
+     * @param fieldNames fields to be removed
+     * @throws IOException when the body is not valid JSON
+     */
+    public void removeRequestInfoFields(Collection<String> fieldNames) throws IOException {
+        ByteArrayOutputStream sanitized = new ByteArrayOutputStream(payload.length);
+        try (JsonParser parser = OBJECT_MAPPER.getFactory().createParser(payload);
+             JsonGenerator generator = OBJECT_MAPPER.getFactory().createGenerator(sanitized)) {
+            parser.nextToken();
+            generator.writeStartObject();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                generator.writeFieldName(fieldName);
+                if (parser.nextToken() == JsonToken.START_OBJECT && isRequestInfo(fieldName))
+                    copyObjectWithoutFields(parser, generator, fieldNames);
+                else
+                    generator.copyCurrentStructure(parser);
+            }
+            generator.writeEndObject();
+        }
+        setPayload(sanitized.toByteArray());
+    }
+
+    private void copyObjectWithoutFields(JsonParser parser, JsonGenerator generator, Collection<String> fieldNames)
+        throws IOException {
+        generator.writeStartObject();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            parser.nextToken();
+            if (fieldNames.contains(fieldName)) {
+                parser.skipChildren();
+                continue;
+            }
+            generator.writeFieldName(fieldName);
+            generator.copyCurrentStructure(parser);
+        }
+        generator.writeEndObject();
+    }
+
+    private boolean isRequestInfo(String fieldName) {
+        return REQUEST_INFO_FIELD_NAME_PASCAL_CASE.equals(fieldName)
+            || REQUEST_INFO_FIELD_NAME_CAMEL_CASE.equals(fieldName);
     }
 
     @Override
     public int getContentLength() {
-        return payload.length();
+        return payload.length;
     }
 
     @Override
     public long getContentLengthLong() {
-        return payload.length();
+        return payload.length;
     }
 
     @Override
     public ServletInputStream getInputStream() {
-        return new ServletInputStreamWrapper(payload.getBytes());
+        return new PayloadInputStream(new ByteArrayInputStream(payload));
+    }
+
+    private static class PayloadInputStream extends ServletInputStream {
+
+        private final ByteArrayInputStream input;
+
+        PayloadInputStream(ByteArrayInputStream input) {
+            this.input = input;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return input.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+
+        }
+
+        @Override
+        public int read() {
+            return input.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            return input.read(b, off, len);
+        }
+
+        @Override
+        public int available() {
+            return input.available();
+        }
     }
 }
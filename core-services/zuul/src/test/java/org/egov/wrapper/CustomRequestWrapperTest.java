@@ -2,11 +2,15 @@ package org.egov.wrapper;
 
 import org.apache.commons.io.IOUtils;
 import org.egov.Resources;
+import org.egov.exceptions.CustomException;
 import org.junit.Test;
+import org.springframework.http.HttpStatus;
 import org.springframework.mock.web.MockHttpServletRequest;
 
 import java.io.IOException;
 import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 import static org.junit.Assert.*;
 
@@ -46,6 +50,112 @@ public class CustomRequestWrapperTest {
         assertEquals(6, wrapper.getContentLengthLong());
     }
 
+    @Test
+    public void test_should_share_pay_load_with_wrapped_wrapper() throws IOException {
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContent(IOUtils.toByteArray(new StringReader("{\"RequestInfo\": {\"fu\": \"bar\"}}")));
+        final CustomRequestWrapper wrapper = new CustomRequestWrapper(request);
+
+        final CustomRequestWrapper rewrapped = new CustomRequestWrapper(wrapper);
+
+        assertSame(wrapper.getPayloadBytes(), rewrapped.getPayloadBytes());
+        assertEquals("bar", rewrapped.getRequestInfo().get("fu"));
+    }
+
+    @Test
+    public void test_should_read_request_info_without_parsing_rest_of_pay_load() throws IOException {
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContent(IOUtils.toByteArray(new StringReader(
+            "{\"Properties\": [{\"RequestInfo\": {}}], \"RequestInfo\": {\"fu\": \"bar\"}, \"foo\": not json")));
+        final CustomRequestWrapper wrapper = new CustomRequestWrapper(request);
+
+        assertEquals("bar", wrapper.getRequestInfo().get("fu"));
+    }
+
+    @Test
+    public void test_should_prefer_pascal_case_request_info() throws IOException {
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContent(IOUtils.toByteArray(new StringReader(
+            "{\"requestInfo\": {\"fu\": \"camel\"}, \"RequestInfo\": {\"fu\": \"pascal\"}}")));
+        final CustomRequestWrapper wrapper = new CustomRequestWrapper(request);
+
+        assertEquals("pascal", wrapper.getRequestInfo().get("fu"));
+    }
+
+    @Test
+    public void test_should_read_camel_case_request_info_when_pascal_case_absent() throws IOException {
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContent(IOUtils.toByteArray(new StringReader(
+            "{\"requestInfo\": {\"fu\": \"camel\"}, \"Properties\": [{\"RequestInfo\": {}}]}")));
+        final CustomRequestWrapper wrapper = new CustomRequestWrapper(request);
+
+        assertEquals("camel", wrapper.getRequestInfo().get("fu"));
+    }
+
+    @Test
+    public void test_should_reject_pay_load_longer_than_max_length() {
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContent("{\"RequestInfo\": {}}".getBytes(StandardCharsets.UTF_8));
+
+        try {
+            new CustomRequestWrapper(request, 10);
+            fail();
+        } catch (RuntimeException e) {
+            assertEquals(HttpStatus.PAYLOAD_TOO_LARGE.value(), ((CustomException) e.getCause()).nStatusCode);
+        }
+    }
+
+    @Test
+    public void test_should_reject_pay_load_of_unknown_length_longer_than_max_length() {
+        final MockHttpServletRequest request = new MockHttpServletRequest() {
+            @Override
+            public int getContentLength() {
+                return -1;
+            }
+        };
+        request.setContent("{\"RequestInfo\": {}}".getBytes(StandardCharsets.UTF_8));
+
+        try {
+            new CustomRequestWrapper(request, 10);
+            fail();
+        } catch (RuntimeException e) {
+            assertEquals(HttpStatus.PAYLOAD_TOO_LARGE.value(), ((CustomException) e.getCause()).nStatusCode);
+        }
+    }
+
+    @Test
+    public void test_should_return_null_request_info_when_absent() throws IOException {
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContent(IOUtils.toByteArray(new StringReader("{\"ServiceRequest\": {\"fu\": \"bar\"}}")));
+        final CustomRequestWrapper wrapper = new CustomRequestWrapper(request);
+
+        assertNull(wrapper.getRequestInfo());
+    }
+
+    @Test
+    public void test_should_remove_request_info_fields() throws IOException {
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContent(IOUtils.toByteArray(new StringReader("{\"Properties\": [{\"authToken\": 1}], "
+            + "\"RequestInfo\": {\"authToken\": \"token\", \"fu\": \"bar\", \"userInfo\": {\"id\": 1}}}")));
+        final CustomRequestWrapper wrapper = new CustomRequestWrapper(request);
+
+        wrapper.removeRequestInfoFields(Arrays.asList("authToken", "userInfo"));
+
+        assertEquals("{\"Properties\":[{\"authToken\":1}],\"RequestInfo\":{\"fu\":\"bar\"}}",
+            IOUtils.toString(wrapper.getInputStream()));
+        assertFalse(wrapper.getRequestInfo().containsKey("authToken"));
+    }
+
+    @Test
+    public void test_should_return_pay_load_length_in_bytes() {
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContent("f\u00fcbar".getBytes(StandardCharsets.UTF_8));
+        final CustomRequestWrapper wrapper = new CustomRequestWrapper(request);
+
+        assertEquals(6, wrapper.getContentLength());
+        assertEquals("f\u00fcbar", wrapper.getPayload());
+    }
+
     private byte[] getContent(String fileName) {
         try {
             return IOUtils.toByteArray(IOUtils.toInputStream(resources.getFileContents(fileName)));
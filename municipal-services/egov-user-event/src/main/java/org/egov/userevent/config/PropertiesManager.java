@@ -94,4 +94,19 @@ public class PropertiesManager {
 	
 	@Value("${egov.localisation.is.statelevel}")
 	public Boolean isLocalizationStateLevel;
+
+	@Value("${egov.user.event.push.timeout.ms}")
+	public Long pushTimeout;
+
+	@Value("${egov.user.event.push.heartbeat.ms}")
+	public Long pushHeartbeatInterval;
+
+	@Value("${egov.user.event.count.reconcile.interval.ms}")
+	public Long countReconcileInterval;
+
+	@Value("${egov.user.event.count.reconcile.settle.ms}")
+	public Long countReconcileSettleTime;
+
+	@Value("${egov.user.event.count.reconcile.batch.size}")
+	public Integer countReconcileBatchSize;
 }
\ No newline at end of file
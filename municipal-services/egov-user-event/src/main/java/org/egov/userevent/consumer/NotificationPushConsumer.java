@@ -0,0 +1,53 @@
+package org.egov.userevent.consumer;
+
+import java.util.HashMap;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.egov.userevent.model.RecepientEvent;
+import org.egov.userevent.service.NotificationPushService;
+import org.egov.userevent.web.contract.EventRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+import org.springframework.util.CollectionUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+@ConditionalOnProperty(value = "egov.user.event.push.enabled", havingValue = "true")
+public class NotificationPushConsumer {
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private NotificationPushService pushService;
+
+	/**
+	 * Listens to the events being persisted on a group of its own, so that every instance pushes the count to the
+	 * users subscribed on it.
+	 * 
+	 * @param record
+	 */
+	@KafkaListener(topics = { "${kafka.topics.persister.save.events}" },
+			groupId = "#{'${spring.kafka.consumer.group-id}-push-' + T(java.util.UUID).randomUUID()}",
+			properties = { "auto.offset.reset=latest" })
+	public void listen(HashMap<String, Object> record) {
+		try {
+			EventRequest eventReq = objectMapper.convertValue(record, EventRequest.class);
+			Set<String> recepients = eventReq.getEvents().stream()
+					.filter(event -> !CollectionUtils.isEmpty(event.getRecepientEventMap()))
+					.flatMap(event -> event.getRecepientEventMap().stream()).map(RecepientEvent::getRecepient)
+					.collect(Collectors.toSet());
+			pushService.notifyRecepients(recepients);
+		} catch (Exception e) {
+			log.error("Exception while pushing the notification count: ", e);
+		}
+	}
+
+}
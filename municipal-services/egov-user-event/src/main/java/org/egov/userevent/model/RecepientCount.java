@@ -0,0 +1,26 @@
+package org.egov.userevent.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@AllArgsConstructor
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Setter
+@ToString
+@Builder
+public class RecepientCount {
+
+	private String recepient;
+
+	private Long eventCount;
+
+	private Long lastModifiedTime;
+
+}
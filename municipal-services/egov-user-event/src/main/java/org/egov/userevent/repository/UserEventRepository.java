@@ -1,10 +1,13 @@
 package org.egov.userevent.repository;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.egov.userevent.model.RecepientCount;
 import org.egov.userevent.repository.querybuilder.UserEventsQueryBuilder;
 import org.egov.userevent.repository.rowmappers.UserEventRowMapper;
 import org.egov.userevent.repository.rowmappers.NotificationCountRowMapper;
@@ -12,8 +15,12 @@ import org.egov.userevent.web.contract.Event;
 import org.egov.userevent.web.contract.EventSearchCriteria;
 import org.egov.userevent.web.contract.NotificationCountResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -77,6 +84,142 @@ public class UserEventRepository {
 	}
 
 
+	/**
+	 * Adds the events created for each recepient to its count.
+	 * 
+	 * @param eventCounts count of events created per recepient
+	 */
+	public void incrementRecepientCounts(Map<String, Long> eventCounts) {
+		long lastModifiedTime = new Date().getTime();
+		SqlParameterSource[] batchValues = eventCounts.entrySet().stream()
+				.map(entry -> new MapSqlParameterSource().addValue("recepient", entry.getKey())
+						.addValue("eventcount", entry.getValue()).addValue("lastmodifiedtime", lastModifiedTime))
+				.toArray(SqlParameterSource[]::new);
+		namedParameterJdbcTemplate.batchUpdate(UserEventsQueryBuilder.INCREMENT_RECEPIENT_COUNT_QUERY, batchValues);
+	}
+
+	/**
+	 * Repository method to fetch the count of events created for each of the recepients
+	 * 
+	 * @param recepients
+	 * @return
+	 */
+	public Map<String, Long> fetchRecepientCounts(Collection<String> recepients) {
+		Map<String, Object> preparedStatementValues = new HashMap<>();
+		preparedStatementValues.put("recepients", recepients);
+		return queryForCounts(UserEventsQueryBuilder.RECEPIENT_COUNT_QUERY, preparedStatementValues);
+	}
+
+	/**
+	 * Repository method to fetch the count of events of each recepient the user has already seen
+	 * 
+	 * @param userId
+	 * @param recepients
+	 * @return
+	 */
+	public Map<String, Long> fetchSeenCounts(String userId, Collection<String> recepients) {
+		Map<String, Object> preparedStatementValues = new HashMap<>();
+		preparedStatementValues.put("userid", userId);
+		preparedStatementValues.put("recepients", recepients);
+		return queryForCounts(UserEventsQueryBuilder.SEEN_COUNT_QUERY, preparedStatementValues);
+	}
+
+	/**
+	 * Repository method to count the events of each recepient created till the last access of the user
+	 * 
+	 * @param userId
+	 * @param recepients
+	 * @return
+	 */
+	public Map<String, Long> fetchCountsTillLastAccess(String userId, Collection<String> recepients) {
+		Map<String, Object> preparedStatementValues = new HashMap<>();
+		preparedStatementValues.put("userid", userId);
+		preparedStatementValues.put("recepients", recepients);
+		return queryForCounts(UserEventsQueryBuilder.COUNT_TILL_LAST_ACCESS_QUERY, preparedStatementValues);
+	}
+
+	/**
+	 * Repository method to count the events persisted for each of the recepients
+	 * 
+	 * @param recepients
+	 * @return
+	 */
+	public Map<String, Long> fetchEventCounts(Collection<String> recepients) {
+		Map<String, Object> preparedStatementValues = new HashMap<>();
+		preparedStatementValues.put("recepients", recepients);
+		return queryForCounts(UserEventsQueryBuilder.EVENT_COUNT_BY_RECEPIENT_QUERY, preparedStatementValues);
+	}
+
+	/**
+	 * Repository method to fetch the recepient counts modified since they were last reconciled
+	 * 
+	 * @param settledTime counts modified after this time are left for the next run
+	 * @param limit
+	 * @return
+	 */
+	public List<RecepientCount> fetchUnreconciledCounts(long settledTime, int limit) {
+		Map<String, Object> preparedStatementValues = new HashMap<>();
+		preparedStatementValues.put("settledtime", settledTime);
+		preparedStatementValues.put("limit", limit);
+		return namedParameterJdbcTemplate.query(UserEventsQueryBuilder.UNRECONCILED_RECEPIENT_COUNT_QUERY,
+				preparedStatementValues,
+				(rs, rowNum) -> RecepientCount.builder().recepient(rs.getString("recepient"))
+						.eventCount(rs.getLong("eventcount")).lastModifiedTime(rs.getLong("lastmodifiedtime")).build());
+	}
+
+	/**
+	 * Replaces the count of the recepient with the count of its persisted events, unless the count was modified
+	 * after it was read. When the count changed, the counts seen by the users are recounted as well.
+	 * 
+	 * @param count count as read by {@link #fetchUnreconciledCounts(long, int)}
+	 * @param eventCount count of the persisted events of the recepient
+	 * @return false if the count was modified after it was read
+	 */
+	@Transactional
+	public boolean reconcileCount(RecepientCount count, long eventCount) {
+		Map<String, Object> preparedStatementValues = new HashMap<>();
+		preparedStatementValues.put("recepient", count.getRecepient());
+		preparedStatementValues.put("eventcount", eventCount);
+		preparedStatementValues.put("lastmodifiedtime", count.getLastModifiedTime());
+		if (namedParameterJdbcTemplate.update(UserEventsQueryBuilder.RECONCILE_RECEPIENT_COUNT_QUERY, preparedStatementValues) == 0)
+			return false;
+		if (eventCount != count.getEventCount())
+			namedParameterJdbcTemplate.update(UserEventsQueryBuilder.RECONCILE_SEEN_COUNT_QUERY, preparedStatementValues);
+		return true;
+	}
+
+	/**
+	 * Stores the counts of events the user has seen for recepients not yet tracked for the user
+	 * 
+	 * @param userId
+	 * @param seenCounts
+	 */
+	public void insertSeenCounts(String userId, Map<String, Long> seenCounts) {
+		SqlParameterSource[] batchValues = seenCounts.entrySet().stream()
+				.map(entry -> new MapSqlParameterSource().addValue("userid", userId)
+						.addValue("recepient", entry.getKey()).addValue("eventcount", entry.getValue()))
+				.toArray(SqlParameterSource[]::new);
+		namedParameterJdbcTemplate.batchUpdate(UserEventsQueryBuilder.INSERT_SEEN_COUNT_QUERY, batchValues);
+	}
+
+	/**
+	 * Marks all the events of the recepients tracked for the user as seen
+	 * 
+	 * @param userId
+	 */
+	public void resetSeenCounts(String userId) {
+		Map<String, Object> preparedStatementValues = new HashMap<>();
+		preparedStatementValues.put("userid", userId);
+		namedParameterJdbcTemplate.update(UserEventsQueryBuilder.RESET_SEEN_COUNT_QUERY, preparedStatementValues);
+	}
+
+	private Map<String, Long> queryForCounts(String query, Map<String, Object> preparedStatementValues) {
+		Map<String, Long> counts = new HashMap<>();
+		namedParameterJdbcTemplate.query(query, preparedStatementValues,
+				(RowCallbackHandler) rs -> counts.put(rs.getString("recepient"), rs.getLong("eventcount")));
+		return counts;
+	}
+
 	public Integer fetchTotalEventCount(EventSearchCriteria criteria) {
 		Map<String, Object> preparedStatementValues = new HashMap<>();
 		criteria.setIsEventsCountCall(Boolean.TRUE);
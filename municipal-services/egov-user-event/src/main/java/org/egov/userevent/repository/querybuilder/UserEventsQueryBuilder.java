@@ -33,6 +33,39 @@ public class UserEventsQueryBuilder {
 			+ "AND id NOT IN (SELECT referenceid FROM eg_usrevents_events WHERE referenceid NOTNULL) AND "
 			+ "lastmodifiedtime > (SELECT lastaccesstime FROM eg_usrevents_user_lat WHERE userid IN (:userid))";
 	
+	public static final String INCREMENT_RECEPIENT_COUNT_QUERY = "INSERT INTO eg_usrevents_recepnt_count (recepient, eventcount, lastmodifiedtime) VALUES (:recepient, :eventcount, :lastmodifiedtime) "
+			+ "ON CONFLICT (recepient) DO UPDATE SET eventcount = eg_usrevents_recepnt_count.eventcount + EXCLUDED.eventcount, lastmodifiedtime = EXCLUDED.lastmodifiedtime";
+
+	public static final String RECEPIENT_COUNT_QUERY = "SELECT recepient, eventcount FROM eg_usrevents_recepnt_count WHERE recepient IN (:recepients)";
+
+	public static final String SEEN_COUNT_QUERY = "SELECT recepient, eventcount FROM eg_usrevents_user_recepnt_seen WHERE userid = :userid AND recepient IN (:recepients)";
+
+	public static final String INSERT_SEEN_COUNT_QUERY = "INSERT INTO eg_usrevents_user_recepnt_seen (userid, recepient, eventcount) VALUES (:userid, :recepient, :eventcount) ON CONFLICT DO NOTHING";
+
+	public static final String RESET_SEEN_COUNT_QUERY = "UPDATE eg_usrevents_user_recepnt_seen seen SET eventcount = total.eventcount FROM eg_usrevents_recepnt_count total "
+			+ "WHERE seen.userid = :userid AND total.recepient = seen.recepient";
+
+	public static final String COUNTABLE_EVENT_CLAUSE = "events.status = 'ACTIVE' AND events.id NOT IN (SELECT referenceid FROM eg_usrevents_events WHERE referenceid NOTNULL)";
+
+	public static final String EVENT_COUNT_BY_RECEPIENT_QUERY = "SELECT registry.recepient, COUNT(*) AS eventcount FROM eg_usrevents_recepnt_event_registry registry "
+			+ "JOIN eg_usrevents_events events ON events.id = registry.eventid WHERE registry.recepient IN (:recepients) AND " + COUNTABLE_EVENT_CLAUSE
+			+ " GROUP BY registry.recepient";
+
+	public static final String COUNT_TILL_LAST_ACCESS_QUERY = "SELECT registry.recepient, COUNT(*) AS eventcount FROM eg_usrevents_recepnt_event_registry registry "
+			+ "JOIN eg_usrevents_events events ON events.id = registry.eventid WHERE registry.recepient IN (:recepients) AND " + COUNTABLE_EVENT_CLAUSE
+			+ " AND events.createdtime <= COALESCE((SELECT lastaccesstime FROM eg_usrevents_user_lat WHERE userid = :userid), 0) GROUP BY registry.recepient";
+
+	public static final String UNRECONCILED_RECEPIENT_COUNT_QUERY = "SELECT recepient, eventcount, lastmodifiedtime FROM eg_usrevents_recepnt_count "
+			+ "WHERE lastmodifiedtime > COALESCE(reconciledtime, 0) AND lastmodifiedtime < :settledtime ORDER BY lastmodifiedtime LIMIT :limit";
+
+	public static final String RECONCILE_RECEPIENT_COUNT_QUERY = "UPDATE eg_usrevents_recepnt_count SET eventcount = :eventcount, reconciledtime = lastmodifiedtime "
+			+ "WHERE recepient = :recepient AND lastmodifiedtime = :lastmodifiedtime";
+
+	public static final String RECONCILE_SEEN_COUNT_QUERY = "UPDATE eg_usrevents_user_recepnt_seen seen SET eventcount = (SELECT COUNT(*) FROM eg_usrevents_recepnt_event_registry registry "
+			+ "JOIN eg_usrevents_events events ON events.id = registry.eventid WHERE registry.recepient = seen.recepient AND " + COUNTABLE_EVENT_CLAUSE
+			+ " AND events.createdtime <= COALESCE((SELECT lastaccesstime FROM eg_usrevents_user_lat lat WHERE lat.userid = seen.userid), 0)) "
+			+ "WHERE seen.recepient = :recepient";
+
 	/**
 	 * Returns query for search events
 	 * 
@@ -0,0 +1,135 @@
+package org.egov.userevent.service;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.egov.userevent.config.PropertiesManager;
+import org.egov.userevent.web.contract.NotificationCountResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pushes the notification count to the users subscribed on this instance as server-sent events, so that the
+ * clients need not poll for it. The count is sent on subscription and every time an event addressed to one of
+ * the recepients of the user is created on any instance.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(value = "egov.user.event.push.enabled", havingValue = "true")
+public class NotificationPushService {
+
+	private static final String COUNT_EVENT_NAME = "count";
+
+	@Autowired
+	private UnreadCountService unreadCountService;
+
+	@Autowired
+	private PropertiesManager properties;
+
+	private final Map<String, Set<Subscription>> subscriptionsByRecepient = new ConcurrentHashMap<>();
+
+	private ScheduledExecutorService heartbeat;
+
+	@PostConstruct
+	public void start() {
+		heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "notification-push-heartbeat");
+			thread.setDaemon(true);
+			return thread;
+		});
+		heartbeat.scheduleWithFixedDelay(this::sendHeartbeat, properties.getPushHeartbeatInterval(),
+				properties.getPushHeartbeatInterval(), TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	public void stop() {
+		heartbeat.shutdownNow();
+		subscriptionsByRecepient.values().stream().flatMap(Set::stream).distinct()
+				.forEach(subscription -> subscription.emitter.complete());
+	}
+
+	/**
+	 * Subscribes the user to the count of the events addressed to the recepients.
+	 *
+	 * @param userId
+	 * @param recepients
+	 * @return
+	 */
+	public SseEmitter subscribe(String userId, List<String> recepients) {
+		SseEmitter emitter = new SseEmitter(properties.getPushTimeout());
+		Subscription subscription = new Subscription(userId, recepients, emitter);
+		emitter.onCompletion(() -> unsubscribe(subscription));
+		emitter.onTimeout(() -> unsubscribe(subscription));
+		emitter.onError(e -> unsubscribe(subscription));
+		recepients.forEach(recepient -> subscriptionsByRecepient
+				.computeIfAbsent(recepient, key -> ConcurrentHashMap.newKeySet()).add(subscription));
+		sendCount(subscription);
+		return emitter;
+	}
+
+	/**
+	 * Sends the count to the users subscribed to any of the recepients.
+	 *
+	 * @param recepients recepients of the events created
+	 */
+	public void notifyRecepients(Collection<String> recepients) {
+		recepients.stream().map(subscriptionsByRecepient::get).filter(subscriptions -> null != subscriptions)
+				.flatMap(Set::stream).distinct().forEach(this::sendCount);
+	}
+
+	private void sendCount(Subscription subscription) {
+		try {
+			NotificationCountResponse count = unreadCountService.getCount(subscription.userId, subscription.recepients);
+			subscription.emitter.send(SseEmitter.event().name(COUNT_EVENT_NAME).data(count));
+		} catch (IOException | IllegalStateException e) {
+			unsubscribe(subscription);
+		} catch (Exception e) {
+			log.error("Error while pushing the notification count: ", e);
+		}
+	}
+
+	private void sendHeartbeat() {
+		subscriptionsByRecepient.values().stream().flatMap(Set::stream).distinct().forEach(subscription -> {
+			try {
+				subscription.emitter.send(SseEmitter.event().comment("heartbeat"));
+			} catch (IOException | IllegalStateException e) {
+				unsubscribe(subscription);
+			}
+		});
+	}
+
+	private void unsubscribe(Subscription subscription) {
+		subscription.recepients.forEach(recepient -> subscriptionsByRecepient.computeIfPresent(recepient,
+				(key, subscriptions) -> {
+					subscriptions.remove(subscription);
+					return subscriptions.isEmpty() ? null : subscriptions;
+				}));
+	}
+
+	@AllArgsConstructor
+	private static class Subscription {
+
+		private final String userId;
+
+		private final List<String> recepients;
+
+		private final SseEmitter emitter;
+
+	}
+
+}
@@ -0,0 +1,183 @@
+package org.egov.userevent.service;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.egov.userevent.config.PropertiesManager;
+import org.egov.userevent.model.RecepientCount;
+import org.egov.userevent.model.RecepientEvent;
+import org.egov.userevent.model.enums.Status;
+import org.egov.userevent.repository.UserEventRepository;
+import org.egov.userevent.web.contract.Event;
+import org.egov.userevent.web.contract.NotificationCountResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.util.CollectionUtils;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Maintains the unread count of notifications incrementally instead of counting the events on every poll.
+ *
+ * A count of events is kept for every recepient - a user id, a TYPE|ROLE|TENANTID combination or 'All'. Like the
+ * count query it replaces, only ACTIVE events that have not been replaced by a counter event are counted. An event
+ * addressed to a role or a tenant is counted once for the recepient and not fanned out to the users it reaches. For
+ * every user, the count of each of the user's recepients seen at the last access is kept, the unread count is the sum
+ * of the difference of the two over the recepients of the user.
+ *
+ * Created events are counted as they are accepted, before they are persisted. Updates, which may deactivate an event
+ * or replace it with a counter event, only mark the counts of their recepients as modified. Modified counts are
+ * periodically recounted from the persisted events once they have settled.
+ *
+ * The seen count of a recepient is derived lazily from the persisted events created till the last access of the user,
+ * the first time the recepient is counted for the user.
+ */
+@Slf4j
+@Service
+public class UnreadCountService {
+
+	@Autowired
+	private UserEventRepository repository;
+
+	@Autowired
+	private PropertiesManager properties;
+
+	private ScheduledExecutorService reconciler;
+
+	@PostConstruct
+	public void start() {
+		reconciler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "unread-count-reconciler");
+			thread.setDaemon(true);
+			return thread;
+		});
+		reconciler.scheduleWithFixedDelay(this::reconcile, properties.getCountReconcileInterval(),
+				properties.getCountReconcileInterval(), TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	public void stop() {
+		reconciler.shutdownNow();
+	}
+
+	/**
+	 * Counts the events being created against their recepients. Fails if the counts could not be updated, so that
+	 * the events are not created without being counted.
+	 *
+	 * @param events
+	 */
+	public void recordEvents(List<Event> events) {
+		Map<String, Long> eventCounts = new HashMap<>();
+		events.stream().filter(event -> !CollectionUtils.isEmpty(event.getRecepientEventMap())).forEach(event -> {
+			long increment = isCountable(event) ? 1L : 0L;
+			event.getRecepientEventMap().stream().map(RecepientEvent::getRecepient).distinct()
+					.forEach(recepient -> eventCounts.merge(recepient, increment, Long::sum));
+		});
+		if (!eventCounts.isEmpty())
+			repository.incrementRecepientCounts(eventCounts);
+	}
+
+	/**
+	 * Marks the counts of the recepients of the events being updated as modified, so that they are recounted once
+	 * the update is persisted.
+	 *
+	 * @param events
+	 */
+	public void recordUpdates(List<Event> events) {
+		Map<String, Long> eventCounts = events.stream().filter(event -> !CollectionUtils.isEmpty(event.getRecepientEventMap()))
+				.flatMap(event -> event.getRecepientEventMap().stream().map(RecepientEvent::getRecepient))
+				.distinct().collect(Collectors.toMap(recepient -> recepient, recepient -> 0L));
+		if (!eventCounts.isEmpty())
+			repository.incrementRecepientCounts(eventCounts);
+	}
+
+	/**
+	 * Returns the total and unread count of events addressed to the recepients of the user.
+	 *
+	 * @param userId
+	 * @param recepients
+	 * @return
+	 */
+	public NotificationCountResponse getCount(String userId, List<String> recepients) {
+		Set<String> userRecepients = new LinkedHashSet<>(recepients);
+		Map<String, Long> totalCounts = repository.fetchRecepientCounts(userRecepients);
+		Map<String, Long> seenCounts = repository.fetchSeenCounts(userId, userRecepients);
+
+		List<String> untracked = totalCounts.keySet().stream().filter(recepient -> !seenCounts.containsKey(recepient))
+				.collect(Collectors.toList());
+		if (!CollectionUtils.isEmpty(untracked)) {
+			// events not yet persisted are not counted here, they remain unread
+			Map<String, Long> countsTillLastAccess = repository.fetchCountsTillLastAccess(userId, untracked);
+			Map<String, Long> initialSeenCounts = new HashMap<>();
+			untracked.forEach(recepient -> initialSeenCounts.put(recepient,
+					Math.min(totalCounts.get(recepient), countsTillLastAccess.getOrDefault(recepient, 0L))));
+			repository.insertSeenCounts(userId, initialSeenCounts);
+			seenCounts.putAll(initialSeenCounts);
+		}
+
+		long totalCount = 0;
+		long unreadCount = 0;
+		for (Map.Entry<String, Long> entry : totalCounts.entrySet()) {
+			totalCount += entry.getValue();
+			unreadCount += Math.max(0L, entry.getValue() - seenCounts.getOrDefault(entry.getKey(), 0L));
+		}
+		return NotificationCountResponse.builder().totalCount(totalCount).unreadCount(unreadCount).build();
+	}
+
+	/**
+	 * Marks all the events addressed to the user as read.
+	 *
+	 * @param userId
+	 */
+	public void markAsRead(String userId) {
+		try {
+			repository.resetSeenCounts(userId);
+		} catch (Exception e) {
+			log.error("Error while resetting the unread count of the user: ", e);
+		}
+	}
+
+	/**
+	 * Recounts the counts modified before the settle time from the persisted events. Counts modified again while
+	 * being recounted are left for the next run.
+	 */
+	public void reconcile() {
+		try {
+			int batchSize = properties.getCountReconcileBatchSize();
+			List<RecepientCount> counts;
+			do {
+				long settledTime = new Date().getTime() - properties.getCountReconcileSettleTime();
+				counts = repository.fetchUnreconciledCounts(settledTime, batchSize);
+				if (counts.isEmpty())
+					break;
+				Map<String, Long> eventCounts = repository.fetchEventCounts(
+						counts.stream().map(RecepientCount::getRecepient).collect(Collectors.toList()));
+				int corrected = 0;
+				for (RecepientCount count : counts) {
+					long eventCount = eventCounts.getOrDefault(count.getRecepient(), 0L);
+					if (repository.reconcileCount(count, eventCount) && eventCount != count.getEventCount())
+						corrected++;
+				}
+				log.info("Reconciled {} unread counts, corrected {}", counts.size(), corrected);
+			} while (counts.size() == batchSize);
+		} catch (Exception e) {
+			log.error("Error while reconciling the unread counts: ", e);
+		}
+	}
+
+	private boolean isCountable(Event event) {
+		return Status.ACTIVE.equals(event.getStatus()) && null == event.getReferenceId();
+	}
+
+}
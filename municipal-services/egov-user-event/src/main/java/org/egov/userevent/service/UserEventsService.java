@@ -54,6 +54,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.egov.common.contract.request.RequestInfo;
 import org.egov.common.contract.request.Role;
 import org.egov.common.contract.response.ResponseInfo;
+import org.egov.tracer.model.CustomException;
 import org.egov.userevent.config.PropertiesManager;
 import org.egov.userevent.model.AuditDetails;
 import org.egov.userevent.model.LATWrapper;
@@ -62,6 +63,7 @@ import org.egov.userevent.model.RecepientEvent;
 import org.egov.userevent.model.enums.Status;
 import org.egov.userevent.producer.UserEventsProducer;
 import org.egov.userevent.repository.UserEventRepository;
+import org.egov.userevent.utils.ErrorConstants;
 import org.egov.userevent.utils.ResponseInfoFactory;
 import org.egov.userevent.utils.UserEventsConstants;
 import org.egov.userevent.utils.UserEventsUtils;
@@ -74,6 +76,7 @@ import org.egov.userevent.web.validator.UserEventsValidator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
@@ -104,6 +107,12 @@ public class UserEventsService {
 	@Autowired
 	private LocalizationService localizationService;
 
+	@Autowired
+	private UnreadCountService unreadCountService;
+
+	@Autowired(required = false)
+	private NotificationPushService pushService;
+
 	/**
 	 * Service method to create events Enriches the request and produces it on the
 	 * queue for persister to pick.
@@ -116,6 +125,7 @@ public class UserEventsService {
 			validator.validateCreateEvent(request, true);
 		log.info("enriching and storing the event......");
 		enrichCreateEvent(request);
+		unreadCountService.recordEvents(request.getEvents());
 		producer.push(properties.getSaveEventsPersisterTopic(), request);
 		request.getEvents().forEach(event -> event.setRecepientEventMap(null));
 		return EventResponse.builder()
@@ -154,6 +164,7 @@ public class UserEventsService {
 			log.info("Generating counter events.....");
 			createEvents(req, true);
 		}
+		unreadCountService.recordUpdates(request.getEvents());
 		producer.push(properties.getUpdateEventsPersisterTopic(), request);
 		request.getEvents().forEach(event -> {
 			event.setRecepientEventMap(null);
@@ -230,7 +241,7 @@ public class UserEventsService {
 		if (!isUpdate) {
 			enrichSearchCriteria(requestInfo, criteria);
 			events = repository.fetchEvents(criteria);
-			totalCount = repository.fetchTotalEventCount(criteria);
+			totalCount = getTotalCount(criteria, events);
 			searchPostProcessor(requestInfo, events);
 			if (null != criteria.getIsCitizenSearch()) {
 				if (criteria.getIsCitizenSearch())
@@ -238,7 +249,7 @@ public class UserEventsService {
 			}
 		} else {
 			events = repository.fetchEvents(criteria);
-			totalCount = repository.fetchTotalEventCount(criteria);
+			totalCount = getTotalCount(criteria, events);
 		}
 
 
@@ -252,6 +263,22 @@ public class UserEventsService {
 				.events(events).totalCount(totalCount).build();
 	}
 
+	/**
+	 * Returns the total count of events matching the criteria. The count query is skipped when the page fetched
+	 * is the last one, as the count is then known from the offset and the size of the page.
+	 * 
+	 * @param criteria
+	 * @param events events fetched for the page
+	 * @return
+	 */
+	private Integer getTotalCount(EventSearchCriteria criteria, List<Event> events) {
+		long offset = null == criteria.getOffset() ? properties.getDefaultOffset() : criteria.getOffset();
+		long limit = null == criteria.getLimit() ? properties.getDefaultLimit() : criteria.getLimit();
+		if (events.size() < limit && (offset == 0 || !events.isEmpty()))
+			return (int) offset + events.size();
+		return repository.fetchTotalEventCount(criteria);
+	}
+
 	public List<Event> getFilterEventsforOpenSearch(List<Event> events){
 		List<Event> filterEvents = new ArrayList<>();
 		for(Event event: events){
@@ -381,7 +408,9 @@ public class UserEventsService {
 	}
 
 	/**
-	 * Service method to fetch count of events as per criteria.
+	 * Service method to fetch count of events as per criteria. The count of a
+	 * CITIZEN is read from the unread counters, the events are counted only when
+	 * the count is filtered on status or dates.
 	 * 
 	 * @param requestInfo
 	 * @param criteria
@@ -389,12 +418,36 @@ public class UserEventsService {
 	 */
 	public NotificationCountResponse fetchCount(RequestInfo requestInfo, EventSearchCriteria criteria) {
 		validator.validateSearch(requestInfo, criteria);
+		Boolean isFiltered = !CollectionUtils.isEmpty(criteria.getStatus()) || null != criteria.getFromDate()
+				|| null != criteria.getToDate();
 		enrichSearchCriteria(requestInfo, criteria);
-		NotificationCountResponse response = repository.fetchCount(criteria);
+		NotificationCountResponse response = null;
+		if (criteria.getIsCitizenSearch() && !isFiltered)
+			response = unreadCountService.getCount(criteria.getUserids().get(0), criteria.getRecepients());
+		else
+			response = repository.fetchCount(criteria);
 		response.setResponseInfo(responseInfo.createResponseInfoFromRequestInfo(requestInfo, true));
 		return response;
 	}
 
+	/**
+	 * Service method to subscribe a CITIZEN to the count of events, the count is
+	 * pushed as server-sent events whenever an event is addressed to the citizen.
+	 * 
+	 * @param requestInfo
+	 * @param criteria
+	 * @return
+	 */
+	public SseEmitter subscribeToCount(RequestInfo requestInfo, EventSearchCriteria criteria) {
+		if (null == pushService)
+			throw new CustomException(ErrorConstants.PUSH_DISABLED_CODE, ErrorConstants.PUSH_DISABLED_MSG);
+		validator.validateSearch(requestInfo, criteria);
+		enrichSearchCriteria(requestInfo, criteria);
+		if (!criteria.getIsCitizenSearch())
+			throw new CustomException(ErrorConstants.PUSH_CITIZEN_ONLY_CODE, ErrorConstants.PUSH_CITIZEN_ONLY_MSG);
+		return pushService.subscribe(criteria.getUserids().get(0), criteria.getRecepients());
+	}
+
 	/**
 	 * Service method used to persist the lastaccesstime of the user.
 	 * 
@@ -406,6 +459,7 @@ public class UserEventsService {
 				.lastAccessTime(new Date().getTime()).build();
 		LATWrapper wrapper = LATWrapper.builder().lastAccessDetails(loginDetails).build();
 		producer.push(properties.getLatDetailsTopic(), wrapper);
+		unreadCountService.markAsRead(requestInfo.getUserInfo().getUuid());
 
 		return responseInfo.createResponseInfoFromRequestInfo(requestInfo, true);
 
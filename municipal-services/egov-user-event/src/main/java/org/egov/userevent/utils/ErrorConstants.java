@@ -83,5 +83,11 @@ public class ErrorConstants {
 	
 	public static final String MEN_BROADCAST_ED_FD_MANDATORY_CODE = "MEN_BROADCAST_ED_FD_MANDATORY";
 	public static final String MEN_BROADCAST_ED_FD_MANDATORY_MSG = "fromDate is mandatory for this type of event.";
-	
+
+	public static final String PUSH_DISABLED_CODE = "MEN_PUSH_DISABLED";
+	public static final String PUSH_DISABLED_MSG = "Push of the notification count is not enabled, poll the count instead.";
+
+	public static final String PUSH_CITIZEN_ONLY_CODE = "MEN_PUSH_CITIZEN_ONLY";
+	public static final String PUSH_CITIZEN_ONLY_MSG = "Push of the notification count is available only to citizens.";
+
 }
@@ -51,6 +51,7 @@ import org.egov.userevent.web.contract.EventSearchCriteria;
 import org.egov.userevent.web.contract.NotificationCountResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.ModelAttribute;
@@ -58,6 +59,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @Controller
 @RequestMapping(value = "/v1/events/")
@@ -128,6 +130,21 @@ public class UserEventsController {
 	}
 	
 	
+	/**
+	 * Endpoint to subscribe to the count of notifications for a user, the count is pushed as server-sent events
+	 * instead of being polled.
+	 * 
+	 * @param requestInfoWrapper
+	 * @param eventSearchCriteria
+	 * @return
+	 */
+	@PostMapping(value = "/notifications/_subscribe", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	@ResponseBody
+	private SseEmitter subscribe(@RequestBody @Valid RequestInfoWrapper requestInfoWrapper,
+			@ModelAttribute @Valid EventSearchCriteria eventSearchCriteria) {
+		return service.subscribeToCount(requestInfoWrapper.getRequestInfo(), eventSearchCriteria);
+	}
+	
 	/**
 	 * Endpoint to update the lastaccesstime of a user in the system. This required to fetch count of unread notifs through search.
 	 * 
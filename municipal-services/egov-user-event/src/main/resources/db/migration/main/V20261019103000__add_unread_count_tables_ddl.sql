@@ -0,0 +1,29 @@
+CREATE TABLE IF NOT EXISTS eg_usrevents_recepnt_count(
+
+  recepient character varying(500) NOT NULL,
+  eventcount bigint NOT NULL,
+  lastmodifiedtime bigint,
+  reconciledtime bigint,
+
+  CONSTRAINT pk_eg_usrevents_recepnt_count PRIMARY KEY (recepient)
+
+);
+
+
+CREATE TABLE IF NOT EXISTS eg_usrevents_user_recepnt_seen(
+
+  userid character varying(500) NOT NULL,
+  recepient character varying(500) NOT NULL,
+  eventcount bigint NOT NULL,
+
+  CONSTRAINT pk_eg_usrevents_user_recepnt_seen PRIMARY KEY (userid, recepient)
+
+);
+
+
+INSERT INTO eg_usrevents_recepnt_count (recepient, eventcount, lastmodifiedtime, reconciledtime)
+SELECT registry.recepient, COUNT(*), (extract(epoch FROM now()) * 1000)::bigint, (extract(epoch FROM now()) * 1000)::bigint
+FROM eg_usrevents_recepnt_event_registry registry JOIN eg_usrevents_events events ON events.id = registry.eventid
+WHERE events.status = 'ACTIVE' AND events.id NOT IN (SELECT referenceid FROM eg_usrevents_events WHERE referenceid NOTNULL)
+GROUP BY registry.recepient
+ON CONFLICT DO NOTHING;
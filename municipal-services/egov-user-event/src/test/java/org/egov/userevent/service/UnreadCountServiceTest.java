@@ -0,0 +1,157 @@
+package org.egov.userevent.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.egov.userevent.config.PropertiesManager;
+import org.egov.userevent.model.RecepientCount;
+import org.egov.userevent.model.RecepientEvent;
+import org.egov.userevent.model.enums.Status;
+import org.egov.userevent.repository.UserEventRepository;
+import org.egov.userevent.web.contract.Event;
+import org.egov.userevent.web.contract.NotificationCountResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+@ExtendWith(MockitoExtension.class)
+public class UnreadCountServiceTest {
+
+	private static final String USER_ID = "4d0a6f15-8a47-4b5c-9a5b-2a6c1b1a1c1e";
+
+	private static final String ROLE_RECEPIENT = "CITIZEN|CITIZEN|pb.amritsar";
+
+	@Mock
+	private UserEventRepository repository;
+
+	@Spy
+	private PropertiesManager properties = new PropertiesManager();
+
+	@InjectMocks
+	private UnreadCountService unreadCountService;
+
+	@BeforeEach
+	public void setUp() {
+		properties.setCountReconcileBatchSize(2);
+		properties.setCountReconcileSettleTime(120000L);
+	}
+
+	@Test
+	public void testRecordEventsCountsOnlyActiveEvents() {
+		Event counterEvent = event(Status.ACTIVE, USER_ID, ROLE_RECEPIENT);
+		counterEvent.setReferenceId("event-1");
+
+		unreadCountService.recordEvents(Arrays.asList(event(Status.ACTIVE, USER_ID, USER_ID, ROLE_RECEPIENT),
+				event(Status.ACTIVE, ROLE_RECEPIENT), event(Status.INACTIVE, "All"), counterEvent));
+
+		Map<String, Long> expected = new HashMap<>();
+		expected.put(USER_ID, 1L);
+		expected.put(ROLE_RECEPIENT, 2L);
+		expected.put("All", 0L);
+		verify(repository).incrementRecepientCounts(expected);
+	}
+
+	@Test
+	public void testRecordEventsFailsWhenCountsCanNotBeUpdated() {
+		doThrow(new DataAccessResourceFailureException("connection refused")).when(repository)
+				.incrementRecepientCounts(any());
+
+		assertThrows(DataAccessResourceFailureException.class,
+				() -> unreadCountService.recordEvents(Collections.singletonList(event(Status.ACTIVE, USER_ID))));
+	}
+
+	@Test
+	public void testRecordUpdatesMarksCountsAsModified() {
+		unreadCountService.recordUpdates(Arrays.asList(event(Status.INACTIVE, USER_ID, ROLE_RECEPIENT),
+				event(Status.ACTIVE, ROLE_RECEPIENT)));
+
+		Map<String, Long> expected = new HashMap<>();
+		expected.put(USER_ID, 0L);
+		expected.put(ROLE_RECEPIENT, 0L);
+		verify(repository).incrementRecepientCounts(expected);
+	}
+
+	@Test
+	public void testGetCountKeepsEventsNotYetPersistedUnread() {
+		when(repository.fetchRecepientCounts(any())).thenReturn(counts(USER_ID, 5L, ROLE_RECEPIENT, 3L));
+		when(repository.fetchSeenCounts(eq(USER_ID), any())).thenReturn(counts(ROLE_RECEPIENT, 1L));
+		// two of the five events of the user were persisted before the last access, the rest are still on the queue
+		when(repository.fetchCountsTillLastAccess(USER_ID, Collections.singletonList(USER_ID)))
+				.thenReturn(counts(USER_ID, 2L));
+
+		NotificationCountResponse response = unreadCountService.getCount(USER_ID, Arrays.asList(USER_ID, ROLE_RECEPIENT));
+
+		verify(repository).insertSeenCounts(USER_ID, counts(USER_ID, 2L));
+		assertEquals(8L, (long) response.getTotalCount());
+		assertEquals(5L, (long) response.getUnreadCount());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testReconcileRecountsSettledCounts() {
+		RecepientCount drifted = RecepientCount.builder().recepient(USER_ID).eventCount(5L).lastModifiedTime(100L).build();
+		RecepientCount accurate = RecepientCount.builder().recepient(ROLE_RECEPIENT).eventCount(3L).lastModifiedTime(100L)
+				.build();
+		RecepientCount deleted = RecepientCount.builder().recepient("All").eventCount(1L).lastModifiedTime(100L).build();
+		when(repository.fetchUnreconciledCounts(anyLong(), eq(2))).thenReturn(Arrays.asList(drifted, accurate),
+				Collections.singletonList(deleted));
+		when(repository.fetchEventCounts(anyCollection())).thenAnswer(invocation -> {
+			Map<String, Long> persisted = counts(USER_ID, 4L, ROLE_RECEPIENT, 3L);
+			return ((List<String>) invocation.getArgument(0)).stream().filter(persisted::containsKey)
+					.collect(Collectors.toMap(recepient -> recepient, persisted::get));
+		});
+
+		unreadCountService.reconcile();
+
+		verify(repository).reconcileCount(drifted, 4L);
+		verify(repository).reconcileCount(accurate, 3L);
+		verify(repository).reconcileCount(deleted, 0L);
+	}
+
+	@Test
+	public void testReconcileStopsWhenNothingIsLeft() {
+		when(repository.fetchUnreconciledCounts(anyLong(), anyInt())).thenReturn(Collections.emptyList());
+
+		unreadCountService.reconcile();
+
+		verify(repository, never()).fetchEventCounts(any());
+		verify(repository, never()).reconcileCount(any(), anyLong());
+	}
+
+	private Event event(Status status, String... recepients) {
+		Event event = new Event();
+		event.setStatus(status);
+		event.setRecepientEventMap(Arrays.stream(recepients)
+				.map(recepient -> RecepientEvent.builder().recepient(recepient).build()).collect(Collectors.toList()));
+		return event;
+	}
+
+	private Map<String, Long> counts(Object... recepientCounts) {
+		Map<String, Long> counts = new HashMap<>();
+		for (int i = 0; i < recepientCounts.length; i += 2)
+			counts.put((String) recepientCounts[i], (Long) recepientCounts[i + 1]);
+		return counts;
+	}
+
+}
@@ -1,5 +1,6 @@
 package org.egov.inbox.config;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.TimeZone;
@@ -133,5 +134,44 @@ public class InboxConfiguration {
 
 	@Value("${es.search.default.sort.order}")
 	private String defaultSortOrder;
-}
 
+	@Value("${inbox.downstream.concurrent.enabled}")
+	private Boolean isDownstreamConcurrencyEnabled;
+
+	@Value("${inbox.downstream.bulkhead.pool.size}")
+	private Integer downstreamPoolSize;
+
+	@Value("${inbox.downstream.bulkhead.queue.size}")
+	private Integer downstreamQueueSize;
+
+	@Value("${inbox.downstream.timeout.ms}")
+	private Long downstreamTimeoutMs;
+
+	@Value("${inbox.downstream.latency.header.enabled}")
+	private Boolean isDownstreamLatencyHeaderEnabled;
+
+	@Value("${inbox.projection.enabled}")
+	private Boolean isInboxProjectionEnabled;
+
+	@Value("${inbox.projection.index}")
+	private String inboxProjectionIndex;
+
+	@Value("${inbox.projection.workflow.topic}")
+	private String inboxProjectionWorkflowTopic;
+
+	@Value("#{${inbox.projection.topic.mapping}}")
+	private Map<String, Map<String, String>> inboxProjectionTopicMapping;
+
+	@Value("#{'${inbox.projection.served.modules}'.split(',')}")
+	private List<String> inboxProjectionServedModules;
+
+	/**
+	 * @return The workflow transition topic and the module topics the inbox projection is built from
+	 */
+	public List<String> getInboxProjectionTopics() {
+		List<String> topics = new ArrayList<>();
+		topics.add(inboxProjectionWorkflowTopic);
+		topics.addAll(inboxProjectionTopicMapping.keySet());
+		return topics;
+	}
+}
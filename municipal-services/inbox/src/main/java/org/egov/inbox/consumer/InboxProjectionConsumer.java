@@ -0,0 +1,29 @@
+package org.egov.inbox.consumer;
+
+import java.util.HashMap;
+
+import org.egov.inbox.service.InboxProjectionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+public class InboxProjectionConsumer {
+
+	@Autowired
+	private InboxProjectionService inboxProjectionService;
+
+	@KafkaListener(topics = "#{@inboxConfiguration.getInboxProjectionTopics()}", autoStartup = "${inbox.projection.enabled}")
+	public void listen(final HashMap<String, Object> record, @Header(KafkaHeaders.RECEIVED_TOPIC) String topic) {
+		try {
+			inboxProjectionService.project(record, topic);
+		} catch (final Exception e) {
+			log.error("Error while projecting the record on topic: " + topic + ": " + e);
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package org.egov.inbox.repository;
+
+import org.egov.inbox.config.InboxConfiguration;
+import org.egov.tracer.model.CustomException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+public class InboxProjectionRepository {
+
+    private static final String BULK_PATH = "/_bulk";
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private InboxConfiguration config;
+
+    private RestTemplate restTemplate;
+
+    @Autowired
+    public InboxProjectionRepository(InboxConfiguration config, RestTemplate restTemplate) {
+        this.config = config;
+        this.restTemplate = restTemplate;
+    }
+
+    /**
+     * Creates the projection index with the given mappings, an existing index is left as it is
+     *
+     * @param mappings Index creation request
+     */
+    public void createIndex(String mappings) {
+        try {
+            restTemplate.put(getIndexURL(), new HttpEntity<>(mappings, getHeaders(MediaType.APPLICATION_JSON)));
+        } catch (HttpClientErrorException e) {
+            if (e.getStatusCode() != HttpStatus.BAD_REQUEST || !e.getResponseBodyAsString().contains("resource_already_exists_exception"))
+                throw e;
+        }
+    }
+
+    /**
+     * Executes the bulk request on the projection index
+     *
+     * @param body Newline delimited bulk actions
+     */
+    public void bulk(String body) {
+        JsonNode response = restTemplate.postForObject(getIndexURL() + BULK_PATH,
+                new HttpEntity<>(body, getHeaders(MediaType.parseMediaType(NDJSON))), JsonNode.class);
+        if (response != null && response.path("errors").asBoolean()) {
+            for (JsonNode item : response.path("items")) {
+                JsonNode error = item.path("update").path("error");
+                if (!error.isMissingNode())
+                    log.error("Failed to update inbox projection of " + item.path("update").path("_id").asText() + " : " + error);
+            }
+        }
+    }
+
+    /**
+     * Searches the projection index
+     *
+     * @param query Search request
+     * @return Search response
+     */
+    public JsonNode search(String query) {
+        try {
+            return restTemplate.postForObject(getIndexURL() + config.getIndexServiceHostSearchEndpoint(),
+                    new HttpEntity<>(query, getHeaders(MediaType.APPLICATION_JSON)), JsonNode.class);
+        } catch (Exception e) {
+            log.error("Failed to search the inbox projection", e);
+            throw new CustomException("INBOX_PROJECTION_SEARCH_ERROR", "Failed to fetch data from the inbox projection");
+        }
+    }
+
+    private String getIndexURL() {
+        return config.getIndexServiceHost() + config.getInboxProjectionIndex();
+    }
+
+    private HttpHeaders getHeaders(MediaType mediaType) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(mediaType);
+        return headers;
+    }
+
+}
@@ -0,0 +1,202 @@
+package org.egov.inbox.service;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import javax.annotation.PreDestroy;
+
+import org.egov.inbox.config.InboxConfiguration;
+import org.egov.inbox.util.ErrorConstants;
+import org.egov.tracer.model.CustomException;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Issues the calls made by the inbox to other services concurrently. Every downstream gets its own bounded
+ * pool (bulkhead), so a slow downstream exhausts only its own threads and not the ones of the others.
+ *
+ * The time spent in every downstream is recorded in the inbox.downstream.latency timer and, for the
+ * request being tracked on the calling thread, in a per downstream breakdown which can be returned as
+ * a response header.
+ */
+@Slf4j
+@Component
+public class DownstreamExecutor {
+
+    public static final String WORKFLOW = "workflow";
+    public static final String SEARCHER = "searcher";
+    public static final String MODULE = "module";
+    public static final String VEHICLE = "vehicle";
+    public static final String ELASTICSEARCH = "elasticsearch";
+
+    private static final String LATENCY_METRIC = "inbox.downstream.latency";
+
+    private static final ThreadLocal<Map<String, Long>> LATENCIES = new ThreadLocal<>();
+
+    private InboxConfiguration config;
+
+    private MeterRegistry meterRegistry;
+
+    private Map<String, ThreadPoolExecutor> bulkheads = new ConcurrentHashMap<>();
+
+    @Autowired
+    public DownstreamExecutor(InboxConfiguration config, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.config = config;
+        this.meterRegistry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        bulkheads.values().forEach(ThreadPoolExecutor::shutdown);
+    }
+
+    /**
+     * Starts collecting the latency breakdown of the calls made for the request on the current thread
+     */
+    public void startTracking() {
+        LATENCIES.set(new ConcurrentHashMap<>());
+    }
+
+    /**
+     * @return Milliseconds spent in every downstream by the tracked request, calls made concurrently are added up
+     */
+    public Map<String, Long> getLatencies() {
+        Map<String, Long> latencies = LATENCIES.get();
+        return latencies == null ? Collections.emptyMap() : latencies;
+    }
+
+    public void stopTracking() {
+        LATENCIES.remove();
+    }
+
+    /**
+     * Submits the call to the bulkhead of the downstream, the call runs on the calling thread when
+     * concurrent calls are disabled
+     *
+     * @param downstream Name of the downstream being called
+     * @param call The call
+     * @return Handle to wait for the result of the call
+     */
+    public <T> DownstreamCall<T> submit(String downstream, Supplier<T> call) {
+        Map<String, Long> latencies = LATENCIES.get();
+        if (!config.getIsDownstreamConcurrencyEnabled())
+            return new DownstreamCall<>(downstream, CompletableFuture.completedFuture(timed(downstream, latencies, call)));
+
+        Map<String, String> context = MDC.getCopyOfContextMap();
+        try {
+            return new DownstreamCall<>(downstream, CompletableFuture.supplyAsync(() -> {
+                if (context != null)
+                    MDC.setContextMap(context);
+                try {
+                    return timed(downstream, latencies, call);
+                } finally {
+                    MDC.clear();
+                }
+            }, getBulkhead(downstream)));
+        } catch (RejectedExecutionException e) {
+            throw new CustomException(ErrorConstants.DOWNSTREAM_BUSY, "Too many concurrent calls to " + downstream);
+        }
+    }
+
+    /**
+     * Makes the call on the calling thread, recording its latency
+     */
+    public <T> T call(String downstream, Supplier<T> call) {
+        return timed(downstream, LATENCIES.get(), call);
+    }
+
+    private <T> T timed(String downstream, Map<String, Long> latencies, Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            return call.get();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            meterRegistry.timer(LATENCY_METRIC, "downstream", downstream).record(elapsed, TimeUnit.NANOSECONDS);
+            if (latencies != null)
+                latencies.merge(downstream, TimeUnit.NANOSECONDS.toMillis(elapsed), Long::sum);
+        }
+    }
+
+    private ThreadPoolExecutor getBulkhead(String downstream) {
+        return bulkheads.computeIfAbsent(downstream, name -> {
+            AtomicInteger threadCount = new AtomicInteger();
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(config.getDownstreamPoolSize(),
+                    config.getDownstreamPoolSize(), 60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(config.getDownstreamQueueSize()), runnable -> {
+                        Thread thread = new Thread(runnable, "inbox-" + name + "-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        });
+    }
+
+    /**
+     * Result of a call submitted to a downstream. The timeout is counted from the submission, a call which
+     * times out keeps running on its bulkhead till the client's own read timeout.
+     */
+    public class DownstreamCall<T> {
+
+        private String downstream;
+
+        private CompletableFuture<T> future;
+
+        private long deadline;
+
+        private DownstreamCall(String downstream, CompletableFuture<T> future) {
+            this.downstream = downstream;
+            this.future = future;
+            this.deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getDownstreamTimeoutMs());
+        }
+
+        /**
+         * Waits for the result, failures of the call are rethrown as they were thrown by the call
+         */
+        public T get() {
+            try {
+                return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                throw new CustomException(ErrorConstants.DOWNSTREAM_TIMEOUT, "Call to " + downstream + " timed out");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CustomException(ErrorConstants.DOWNSTREAM_ERROR, "Interrupted while waiting for " + downstream);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException)
+                    throw (RuntimeException) e.getCause();
+                throw new CustomException(ErrorConstants.DOWNSTREAM_ERROR, e.getCause().getMessage());
+            }
+        }
+
+        /**
+         * Waits for the result, returns the default value if the call failed or timed out so that the
+         * response can be served with the results of the other calls
+         */
+        public T getOrDefault(T defaultValue) {
+            try {
+                return get();
+            } catch (RuntimeException e) {
+                log.error("Call to " + downstream + " failed, responding without its result : " + e.getMessage());
+                return defaultValue;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,389 @@
+package org.egov.inbox.service;
+
+import static org.egov.inbox.util.BpaConstants.CITIZEN;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.PostConstruct;
+
+import org.egov.common.contract.request.RequestInfo;
+import org.egov.inbox.config.InboxConfiguration;
+import org.egov.inbox.repository.InboxProjectionRepository;
+import org.egov.inbox.util.FSMConstants;
+import org.egov.inbox.web.model.Inbox;
+import org.egov.inbox.web.model.InboxResponse;
+import org.egov.inbox.web.model.InboxSearchCriteria;
+import org.egov.inbox.web.model.workflow.ProcessInstance;
+import org.egov.inbox.web.model.workflow.ProcessInstanceSearchCriteria;
+import org.egov.tracer.model.CustomException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.ObjectUtils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Maintains the inbox projection, one ES document per tenant and business id holding the latest process
+ * instance of the application (status, assignees, SLA) together with the module object and its locality,
+ * and serves the inbox of the configured modules from it with a single query.
+ *
+ * The workflow transitions and the module save/update topics update disjoint parts of the document. Each
+ * part is overwritten only by an event at least as recent as the one it was built from, so replayed or
+ * reordered events do not move the document back.
+ */
+@Slf4j
+@Service
+public class InboxProjectionService {
+
+    private static final String PROCESS_INSTANCES = "ProcessInstances";
+
+    private static final String TENANT_ID = "tenantId";
+    private static final String BUSINESS_ID = "businessId";
+    private static final String MODULE_NAME = "moduleName";
+    private static final String BUSINESS_SERVICE = "businessService";
+    private static final String STATUS = "status";
+    private static final String APPLICATION_STATUS = "applicationStatus";
+    private static final String ASSIGNEES = "assignees";
+    private static final String STATE_SLA = "stateSla";
+    private static final String BUSINESS_SERVICE_SLA = "businessServiceSla";
+    private static final String LOCALITY = "locality";
+    private static final String PROCESS_INSTANCE = "ProcessInstance";
+    private static final String DATA = "Data";
+    private static final String PROCESS_LAST_MODIFIED_TIME = "processLastModifiedTime";
+    private static final String DATA_LAST_MODIFIED_TIME = "dataLastModifiedTime";
+
+    private static final String STATUS_ID_KEY = "statusid";
+    private static final String APPLICATION_STATUS_KEY = "applicationstatus";
+    private static final String BUSINESS_SERVICE_KEY = "businessservice";
+    private static final String COUNT_KEY = "count";
+
+    private static final String SORT_ORDER_PARAM = "sortOrder";
+    private static final String LOCALITY_PARAM = "locality";
+
+    /**
+     * Module search params the projection can answer, any other param is served by the module search
+     */
+    private static final Set<String> SUPPORTED_PARAMS = new HashSet<>(Arrays.asList("tenantId", "offset", "limit",
+            SORT_ORDER_PARAM, LOCALITY_PARAM, "applicationNumber", "applicationNo", "acknowledgementIds"));
+
+    private static final Set<String> BUSINESS_ID_PARAMS = new HashSet<>(Arrays.asList("applicationNumber", "applicationNo",
+            "acknowledgementIds"));
+
+    private static final String UPSERT_SCRIPT = "if (ctx._source[params.timeField] == null "
+            + "|| ctx._source[params.timeField] <= params.time) { ctx._source.putAll(params.doc) } else { ctx.op = 'none' }";
+
+    private static final String INDEX_MAPPINGS = "{\"mappings\":{\"properties\":{"
+            + "\"tenantId\":{\"type\":\"keyword\"},\"businessId\":{\"type\":\"keyword\"},\"moduleName\":{\"type\":\"keyword\"},"
+            + "\"businessService\":{\"type\":\"keyword\"},\"status\":{\"type\":\"keyword\"},"
+            + "\"applicationStatus\":{\"type\":\"keyword\"},\"assignees\":{\"type\":\"keyword\"},\"locality\":{\"type\":\"keyword\"},"
+            + "\"stateSla\":{\"type\":\"long\"},\"businessServiceSla\":{\"type\":\"long\"},"
+            + "\"processLastModifiedTime\":{\"type\":\"long\"},\"dataLastModifiedTime\":{\"type\":\"long\"},"
+            + "\"ProcessInstance\":{\"type\":\"object\",\"enabled\":false},\"Data\":{\"type\":\"object\",\"enabled\":false}}}}";
+
+    private InboxConfiguration config;
+
+    private InboxProjectionRepository repository;
+
+    private ObjectMapper mapper;
+
+    @Autowired
+    public InboxProjectionService(InboxConfiguration config, InboxProjectionRepository repository, ObjectMapper mapper) {
+        this.config = config;
+        this.repository = repository;
+        this.mapper = mapper;
+    }
+
+    @PostConstruct
+    public void createIndex() {
+        if (!config.getIsInboxProjectionEnabled())
+            return;
+        try {
+            repository.createIndex(INDEX_MAPPINGS);
+        } catch (Exception e) {
+            log.error("Failed to create the inbox projection index " + config.getInboxProjectionIndex(), e);
+        }
+    }
+
+    /**
+     * Updates the projection with the record consumed from the topic
+     *
+     * @param record Workflow transition or module save/update request
+     * @param topic Topic the record was consumed from
+     */
+    public void project(Map<String, Object> record, String topic) {
+        StringBuilder bulk = new StringBuilder();
+        if (topic.equals(config.getInboxProjectionWorkflowTopic())) {
+            for (Object processInstance : asList(record.get(PROCESS_INSTANCES)))
+                addProcessInstanceUpdate(bulk, (Map<String, Object>) processInstance);
+        } else {
+            Map<String, String> mapping = config.getInboxProjectionTopicMapping().get(topic);
+            if (mapping == null)
+                return;
+            for (Object moduleObject : asList(record.get(mapping.get("dataRoot"))))
+                addModuleObjectUpdate(bulk, (Map<String, Object>) moduleObject, mapping);
+        }
+
+        if (bulk.length() > 0)
+            repository.bulk(bulk.toString());
+    }
+
+    /**
+     * Citizens are served by the module search, which scopes the inbox to their own applications, and so is FSM
+     * whose inbox merges the vehicle trips in.
+     *
+     * @return true if the inbox of the requested module is served from the projection
+     */
+    public Boolean isServed(InboxSearchCriteria criteria, RequestInfo requestInfo) {
+        if (!config.getIsInboxProjectionEnabled() || criteria.getProcessSearchCriteria() == null)
+            return false;
+        if (requestInfo.getUserInfo() == null || CITIZEN.equalsIgnoreCase(requestInfo.getUserInfo().getType()))
+            return false;
+        String moduleName = criteria.getProcessSearchCriteria().getModuleName();
+        if (ObjectUtils.isEmpty(moduleName) || !config.getInboxProjectionServedModules().contains(moduleName)
+                || FSMConstants.FSM_MODULE.equalsIgnoreCase(moduleName))
+            return false;
+        return CollectionUtils.isEmpty(criteria.getModuleSearchCriteria())
+                || SUPPORTED_PARAMS.containsAll(criteria.getModuleSearchCriteria().keySet());
+    }
+
+    /**
+     * Fetches the inbox items, the total count and the status wise count in one query. Only applications in a
+     * status the user can act on are listed. As with the workflow status count, the status count ignores the
+     * status and assignee filters.
+     *
+     * @param criteria Inbox search criteria
+     * @param actionableStatuses Ids of the statuses the roles of the user can act on
+     * @return Inbox response without the nearing SLA count, the business objects are the projected ones
+     */
+    public InboxResponse search(InboxSearchCriteria criteria, Collection<String> actionableStatuses) {
+        InboxResponse inboxResponse = new InboxResponse();
+        if (CollectionUtils.isEmpty(actionableStatuses)) {
+            inboxResponse.setTotalCount(0);
+            inboxResponse.setStatusMap(new ArrayList<>());
+            inboxResponse.setItems(new ArrayList<>());
+            return inboxResponse;
+        }
+
+        JsonNode response = repository.search(getSearchQuery(criteria, actionableStatuses));
+
+        JsonNode total = response.path("hits").path("total");
+        Integer totalCount = total.isObject() ? total.path("value").asInt() : total.asInt();
+
+        List<Inbox> inboxes = new ArrayList<>();
+        for (JsonNode hit : response.path("hits").path("hits")) {
+            JsonNode source = hit.path("_source");
+            Inbox inbox = new Inbox();
+            if (source.hasNonNull(PROCESS_INSTANCE))
+                inbox.setProcessInstance(mapper.convertValue(source.get(PROCESS_INSTANCE), ProcessInstance.class));
+            if (source.hasNonNull(DATA))
+                inbox.setBusinessObject(mapper.convertValue(source.get(DATA), Map.class));
+            inboxes.add(inbox);
+        }
+
+        List<HashMap<String, Object>> statusCountMap = new ArrayList<>();
+        for (JsonNode bucket : response.path("aggregations").path(STATUS).path("buckets")) {
+            HashMap<String, Object> statusCount = new HashMap<>();
+            statusCount.put(STATUS_ID_KEY, bucket.path("key").asText());
+            statusCount.put(COUNT_KEY, bucket.path("doc_count").asInt());
+            statusCount.put(APPLICATION_STATUS_KEY, getFirstKey(bucket.path(APPLICATION_STATUS)));
+            statusCount.put(BUSINESS_SERVICE_KEY, getFirstKey(bucket.path(BUSINESS_SERVICE)));
+            statusCountMap.add(statusCount);
+        }
+
+        inboxResponse.setTotalCount(totalCount);
+        inboxResponse.setStatusMap(statusCountMap);
+        inboxResponse.setItems(inboxes);
+        return inboxResponse;
+    }
+
+    private String getSearchQuery(InboxSearchCriteria criteria, Collection<String> actionableStatuses) {
+        ProcessInstanceSearchCriteria processCriteria = criteria.getProcessSearchCriteria();
+        Map<String, Object> moduleSearchCriteria = criteria.getModuleSearchCriteria() == null ? Collections.emptyMap()
+                : criteria.getModuleSearchCriteria();
+
+        ObjectNode query = mapper.createObjectNode();
+        query.put("from", criteria.getOffset() == null ? config.getDefaultOffset().intValue() : criteria.getOffset());
+        query.put("size", criteria.getLimit() == null ? config.getDefaultLimit().intValue() : criteria.getLimit());
+        // elasticsearch 7 stops counting the hits at 10000 unless asked to track all of them
+        query.put("track_total_hits", true);
+        String sortOrder = "ASC".equalsIgnoreCase(String.valueOf(moduleSearchCriteria.get(SORT_ORDER_PARAM))) ? "asc" : "desc";
+        query.putArray("sort").addObject().putObject(PROCESS_LAST_MODIFIED_TIME).put("order", sortOrder);
+
+        ArrayNode filters = query.putObject("query").putObject("bool").putArray("filter");
+        filters.addObject().putObject("term").put(TENANT_ID, criteria.getTenantId());
+        filters.addObject().putObject("term").put(MODULE_NAME, processCriteria.getModuleName());
+        addTermsFilter(filters, BUSINESS_SERVICE, processCriteria.getBusinessService());
+        addTermsFilter(filters, STATUS, new ArrayList<>(actionableStatuses));
+        addTermsFilter(filters, LOCALITY, toList(moduleSearchCriteria.get(LOCALITY_PARAM)));
+        for (String param : BUSINESS_ID_PARAMS)
+            addTermsFilter(filters, BUSINESS_ID, toList(moduleSearchCriteria.get(param)));
+
+        // status and assignee filter the items but not the status count
+        ArrayNode postFilters = mapper.createArrayNode();
+        addTermsFilter(postFilters, STATUS, processCriteria.getStatus());
+        if (!ObjectUtils.isEmpty(processCriteria.getAssignee()))
+            postFilters.addObject().putObject("term").put(ASSIGNEES, processCriteria.getAssignee());
+        if (postFilters.size() > 0)
+            query.putObject("post_filter").putObject("bool").set("filter", postFilters);
+
+        ObjectNode statusAggregation = query.putObject("aggs").putObject(STATUS);
+        statusAggregation.putObject("terms").put("field", STATUS).put("size", 500);
+        ObjectNode subAggregations = statusAggregation.putObject("aggs");
+        subAggregations.putObject(APPLICATION_STATUS).putObject("terms").put("field", APPLICATION_STATUS).put("size", 1);
+        subAggregations.putObject(BUSINESS_SERVICE).putObject("terms").put("field", BUSINESS_SERVICE).put("size", 1);
+
+        try {
+            return mapper.writeValueAsString(query);
+        } catch (JsonProcessingException e) {
+            throw new CustomException("INBOX_PROJECTION_QUERY_ERROR", "Failed to build the inbox projection query");
+        }
+    }
+
+    private void addProcessInstanceUpdate(StringBuilder bulk, Map<String, Object> processInstance) {
+        String tenantId = (String) processInstance.get(TENANT_ID);
+        String businessId = (String) processInstance.get(BUSINESS_ID);
+        if (ObjectUtils.isEmpty(tenantId) || ObjectUtils.isEmpty(businessId))
+            return;
+
+        Map<String, Object> state = processInstance.get("state") instanceof Map ? (Map<String, Object>) processInstance.get("state")
+                : Collections.emptyMap();
+        List<Object> assignees = new ArrayList<>();
+        for (Object assignee : asList(processInstance.get("assignes")))
+            assignees.add(((Map<String, Object>) assignee).get("uuid"));
+
+        Map<String, Object> document = new HashMap<>();
+        document.put(TENANT_ID, tenantId);
+        document.put(BUSINESS_ID, businessId);
+        document.put(MODULE_NAME, processInstance.get(MODULE_NAME));
+        document.put(BUSINESS_SERVICE, processInstance.get(BUSINESS_SERVICE));
+        document.put(STATUS, state.get("uuid"));
+        document.put(APPLICATION_STATUS, state.get(APPLICATION_STATUS));
+        document.put(ASSIGNEES, assignees);
+        document.put(STATE_SLA, processInstance.get(STATE_SLA));
+        document.put(BUSINESS_SERVICE_SLA, processInstance.get("businesssServiceSla"));
+        document.put(PROCESS_INSTANCE, processInstance);
+
+        Long lastModifiedTime = getLastModifiedTime(processInstance);
+        if (lastModifiedTime == null) {
+            log.error("Skipping the process instance of " + businessId + " without the last modified time");
+            return;
+        }
+        addUpdate(bulk, tenantId, businessId, PROCESS_LAST_MODIFIED_TIME, lastModifiedTime, document);
+    }
+
+    private void addModuleObjectUpdate(StringBuilder bulk, Map<String, Object> moduleObject, Map<String, String> mapping) {
+        Object tenantId = moduleObject.get(TENANT_ID);
+        Object businessId = getValue(moduleObject, mapping.get("businessIdProperty"));
+        if (ObjectUtils.isEmpty(tenantId) || ObjectUtils.isEmpty(businessId))
+            return;
+
+        Map<String, Object> document = new HashMap<>();
+        document.put(TENANT_ID, tenantId);
+        document.put(BUSINESS_ID, businessId);
+        if (!ObjectUtils.isEmpty(mapping.get("localityProperty")))
+            document.put(LOCALITY, getValue(moduleObject, mapping.get("localityProperty")));
+        document.put(DATA, moduleObject);
+
+        Long lastModifiedTime = getLastModifiedTime(moduleObject);
+        if (lastModifiedTime == null) {
+            log.error("Skipping the module object " + businessId + " without the last modified time");
+            return;
+        }
+        addUpdate(bulk, tenantId.toString(), businessId.toString(), DATA_LAST_MODIFIED_TIME, lastModifiedTime, document);
+    }
+
+    private void addUpdate(StringBuilder bulk, String tenantId, String businessId, String timeField, Long time,
+            Map<String, Object> document) {
+        document.put(timeField, time);
+
+        ObjectNode action = mapper.createObjectNode();
+        action.putObject("update").put("_index", config.getInboxProjectionIndex())
+                .put("_id", tenantId + "_" + businessId).put("retry_on_conflict", 3);
+
+        ObjectNode update = mapper.createObjectNode();
+        update.put("scripted_upsert", true);
+        update.putObject("upsert");
+        ObjectNode script = update.putObject("script");
+        script.put("source", UPSERT_SCRIPT);
+        script.put("lang", "painless");
+        ObjectNode params = script.putObject("params");
+        params.put("timeField", timeField);
+        params.put("time", time);
+        params.set("doc", mapper.valueToTree(document));
+
+        try {
+            bulk.append(mapper.writeValueAsString(action)).append("\n");
+            bulk.append(mapper.writeValueAsString(update)).append("\n");
+        } catch (JsonProcessingException e) {
+            log.error("Failed to build the inbox projection update of " + businessId, e);
+        }
+    }
+
+    /**
+     * @return Last modified time of the object, null if absent as the order of the update can not be told then
+     */
+    private Long getLastModifiedTime(Map<String, Object> object) {
+        Object lastModifiedTime = getValue(object, "auditDetails.lastModifiedTime");
+        if (lastModifiedTime instanceof Number)
+            return ((Number) lastModifiedTime).longValue();
+        return null;
+    }
+
+    /**
+     * Reads the value at the dotted path, the first element is taken from the lists on the way
+     */
+    private static Object getValue(Object object, String path) {
+        Object value = object;
+        for (String key : path.split("\\.")) {
+            if (value instanceof List)
+                value = ((List<Object>) value).isEmpty() ? null : ((List<Object>) value).get(0);
+            if (!(value instanceof Map))
+                return null;
+            value = ((Map<String, Object>) value).get(key);
+        }
+        return value;
+    }
+
+    private static List<Object> asList(Object value) {
+        if (value instanceof List)
+            return (List<Object>) value;
+        return value == null ? Collections.emptyList() : Collections.singletonList(value);
+    }
+
+    private static List<String> toList(Object value) {
+        List<String> values = new ArrayList<>();
+        if (value instanceof Collection)
+            ((Collection<Object>) value).forEach(element -> values.add(String.valueOf(element)));
+        else if (!ObjectUtils.isEmpty(value))
+            Arrays.stream(value.toString().split(",")).map(String::trim).forEach(values::add);
+        return values;
+    }
+
+    private static void addTermsFilter(ArrayNode filters, String field, List<String> values) {
+        if (CollectionUtils.isEmpty(values))
+            return;
+        ArrayNode terms = filters.addObject().putObject("terms").putArray(field);
+        values.forEach(terms::add);
+    }
+
+    private static String getFirstKey(JsonNode aggregation) {
+        JsonNode buckets = aggregation.path("buckets");
+        return buckets.size() > 0 ? buckets.get(0).path("key").asText() : null;
+    }
+
+}
@@ -50,6 +50,7 @@ import org.egov.inbox.model.vehicle.VehicleTripDetailResponse;
 import org.egov.inbox.model.vehicle.VehicleTripSearchCriteria;
 import org.egov.inbox.repository.ElasticSearchRepository;
 import org.egov.inbox.repository.ServiceRequestRepository;
+import org.egov.inbox.service.DownstreamExecutor.DownstreamCall;
 import org.egov.inbox.util.BpaConstants;
 import org.egov.inbox.util.ErrorConstants;
 import org.egov.inbox.util.FSMConstants;
@@ -124,6 +125,12 @@ public class InboxService {
     @Autowired
     ElasticSearchRepository elasticSearchRepository;
 
+    @Autowired
+    private DownstreamExecutor downstreamExecutor;
+
+    @Autowired
+    private InboxProjectionService inboxProjectionService;
+
     @Autowired
     public InboxService(InboxConfiguration config, ServiceRequestRepository serviceRequestRepository,
             ObjectMapper mapper, WorkflowService workflowService) {
@@ -140,6 +147,10 @@ public class InboxService {
         ProcessInstanceSearchCriteria processCriteria = criteria.getProcessSearchCriteria();
         HashMap moduleSearchCriteria = criteria.getModuleSearchCriteria();
         processCriteria.setTenantId(criteria.getTenantId());
+
+        if (inboxProjectionService.isServed(criteria, requestInfo))
+            return fetchInboxDataFromProjection(criteria, requestInfo);
+
         Integer flag=0;
         if (processCriteria.getModuleName().equalsIgnoreCase(BS_WS)) {
         	flag=1;
@@ -149,15 +160,22 @@ public class InboxService {
         	processCriteria.setModuleName(BS_SW_MODULENAME);
         }
 
-        Integer totalCount = 0;
-        if(!(processCriteria.getModuleName().equals(SW) || processCriteria.getModuleName().equals(WS)))
-            totalCount = workflowService.getProcessCount(criteria.getTenantId(), requestInfo, processCriteria);
-        Integer nearingSlaProcessCount = workflowService.getNearingSlaProcessCount(criteria.getTenantId(), requestInfo, processCriteria);
+        // The counts, the DSO id and the status count do not depend on each other, they are issued concurrently
+        // each with its own copy of the criteria as the workflow calls modify the criteria they are given
+        DownstreamCall<Integer> processCountCall = null;
+        if(!(processCriteria.getModuleName().equals(SW) || processCriteria.getModuleName().equals(WS))) {
+            ProcessInstanceSearchCriteria processCountCriteria = copyOf(processCriteria);
+            processCountCall = downstreamExecutor.submit(DownstreamExecutor.WORKFLOW,
+                    () -> workflowService.getProcessCount(criteria.getTenantId(), requestInfo, processCountCriteria));
+        }
+        ProcessInstanceSearchCriteria nearingSlaCriteria = copyOf(processCriteria);
+        DownstreamCall<Integer> nearingSlaCountCall = downstreamExecutor.submit(DownstreamExecutor.WORKFLOW,
+                () -> workflowService.getNearingSlaProcessCount(criteria.getTenantId(), requestInfo, nearingSlaCriteria));
         List<String> inputStatuses = new ArrayList<>();
         if (!CollectionUtils.isEmpty(processCriteria.getStatus()))
             inputStatuses = new ArrayList<>(processCriteria.getStatus());
         StringBuilder assigneeUuid = new StringBuilder();
-        String dsoId = null;
+        DownstreamCall<String> dsoIdCall = null;
         if (requestInfo.getUserInfo().getRoles().get(0).getCode().equals(FSMConstants.FSM_DSO)) {
             Map<String, Object> searcherRequestForDSO = new HashMap<>();
             Map<String, Object> searchCriteriaForDSO = new HashMap<>();
@@ -168,9 +186,10 @@ public class InboxService {
             StringBuilder uri = new StringBuilder();
             uri.append(config.getSearcherHost()).append(config.getFsmInboxDSoIDEndpoint());
 
-            Object resultForDsoId = restTemplate.postForObject(uri.toString(), searcherRequestForDSO, Map.class);
-
-            dsoId = JsonPath.read(resultForDsoId, "$.vendor[0].id");
+            dsoIdCall = downstreamExecutor.submit(DownstreamExecutor.SEARCHER, () -> {
+                Object resultForDsoId = restTemplate.postForObject(uri.toString(), searcherRequestForDSO, Map.class);
+                return JsonPath.read(resultForDsoId, "$.vendor[0].id");
+            });
 
         }
         if (!ObjectUtils.isEmpty(processCriteria.getAssignee())) {
@@ -193,7 +212,18 @@ public class InboxService {
 			 * processCriteria.getBusinessService().contains("FSM_VEHICLE_TRIP"))){
 			 * processCriteria.setModuleName(processCriteria.getBusinessService().get(0)); }
 			 */
-        List<HashMap<String, Object>> statusCountMap = workflowService.getProcessStatusCount(requestInfo, processCriteria);
+        ProcessInstanceSearchCriteria statusCountCriteria = copyOf(processCriteria);
+        DownstreamCall<List<HashMap<String, Object>>> statusCountCall = downstreamExecutor.submit(DownstreamExecutor.WORKFLOW,
+                () -> workflowService.getProcessStatusCount(requestInfo, statusCountCriteria));
+
+        Integer totalCount = processCountCall == null ? 0 : processCountCall.get();
+        // Nearing SLA count is informative, the inbox is served without it if the call fails
+        Integer nearingSlaProcessCount = nearingSlaCountCall.getOrDefault(null);
+        String dsoId = dsoIdCall == null ? null : dsoIdCall.get();
+        List<HashMap<String, Object>> statusCountMap = statusCountCall.get();
+        // The count calls flag the criteria they are given as a count call, as the shared criteria was before
+        if (!CollectionUtils.isEmpty(processCriteria.getBusinessService()))
+            processCriteria.setIsProcessCountCall(true);
         processCriteria.setModuleName(moduleName);
         processCriteria.setStatus(inputStatuses);
         processCriteria.setAssignee(assigneeUuid.toString());
@@ -214,9 +244,13 @@ public class InboxService {
             moduleSearchCriteria.put("offset", criteria.getOffset());
             moduleSearchCriteria.put("limit", criteria.getLimit());
             List<BusinessService> bussinessSrvs = new ArrayList<BusinessService>();
+            List<DownstreamCall<BusinessService>> businessServiceCalls = new ArrayList<>();
             for (String businessSrv : businessServiceName) {
-                BusinessService businessService = workflowService.getBusinessService(criteria.getTenantId(), requestInfo,
-                        businessSrv);
+                businessServiceCalls.add(downstreamExecutor.submit(DownstreamExecutor.WORKFLOW,
+                        () -> workflowService.getBusinessService(criteria.getTenantId(), requestInfo, businessSrv)));
+            }
+            for (DownstreamCall<BusinessService> businessServiceCall : businessServiceCalls) {
+                BusinessService businessService = businessServiceCall.get();
                 bussinessSrvs.add(businessService);
                 businessServiceSlaMap.put(businessService.getBusinessService(),businessService.getBusinessServiceSla());
             }
@@ -332,10 +366,14 @@ public class InboxService {
             Boolean isSearchResultEmpty = false;
             List<String> businessKeys = new ArrayList<>();
             if (!ObjectUtils.isEmpty(processCriteria.getModuleName()) && processCriteria.getModuleName().equals(PT)) {
-                totalCount = ptInboxFilterService.fetchAcknowledgementIdsCountFromSearcher(criteria, StatusIdNameMap,
-                        requestInfo);
-                List<String> acknowledgementNumbers = ptInboxFilterService.fetchAcknowledgementIdsFromSearcher(criteria,
-                        StatusIdNameMap, requestInfo);
+                InboxSearchCriteria countCriteria = copyOf(criteria);
+                DownstreamCall<Integer> countCall = downstreamExecutor.submit(DownstreamExecutor.SEARCHER,
+                        () -> ptInboxFilterService.fetchAcknowledgementIdsCountFromSearcher(countCriteria, StatusIdNameMap, requestInfo));
+                InboxSearchCriteria idsCriteria = copyOf(criteria);
+                DownstreamCall<List<String>> idsCall = downstreamExecutor.submit(DownstreamExecutor.SEARCHER,
+                        () -> ptInboxFilterService.fetchAcknowledgementIdsFromSearcher(idsCriteria, StatusIdNameMap, requestInfo));
+                totalCount = countCall.get();
+                List<String> acknowledgementNumbers = idsCall.get();
                 if (!CollectionUtils.isEmpty(acknowledgementNumbers)) {
                     moduleSearchCriteria.put(ACKNOWLEDGEMENT_IDS_PARAM, acknowledgementNumbers);
                     businessKeys.addAll(acknowledgementNumbers);
@@ -347,9 +385,14 @@ public class InboxService {
             }
             if (!ObjectUtils.isEmpty(processCriteria.getModuleName()) && ( processCriteria.getModuleName().equals(TL)
                     || processCriteria.getModuleName().equals(BPAREG))) {
-                totalCount = tlInboxFilterService.fetchApplicationCountFromSearcher(criteria, StatusIdNameMap, requestInfo);
-                List<String> applicationNumbers = tlInboxFilterService.fetchApplicationNumbersFromSearcher(criteria,
-                        StatusIdNameMap, requestInfo);
+                InboxSearchCriteria countCriteria = copyOf(criteria);
+                DownstreamCall<Integer> countCall = downstreamExecutor.submit(DownstreamExecutor.SEARCHER,
+                        () -> tlInboxFilterService.fetchApplicationCountFromSearcher(countCriteria, StatusIdNameMap, requestInfo));
+                InboxSearchCriteria idsCriteria = copyOf(criteria);
+                DownstreamCall<List<String>> idsCall = downstreamExecutor.submit(DownstreamExecutor.SEARCHER,
+                        () -> tlInboxFilterService.fetchApplicationNumbersFromSearcher(idsCriteria, StatusIdNameMap, requestInfo));
+                totalCount = countCall.get();
+                List<String> applicationNumbers = idsCall.get();
                 if (!CollectionUtils.isEmpty(applicationNumbers)) {
                     moduleSearchCriteria.put(APPLICATION_NUMBER_PARAM, applicationNumbers);
                     businessKeys.addAll(applicationNumbers);
@@ -369,9 +412,14 @@ public class InboxService {
             }*/
             if (processCriteria != null && !ObjectUtils.isEmpty(processCriteria.getModuleName())
                     && processCriteria.getModuleName().equals(BPA)) {
-                totalCount = bpaInboxFilterService.fetchApplicationCountFromSearcher(criteria, StatusIdNameMap, requestInfo);
-                List<String> applicationNumbers = bpaInboxFilterService.fetchApplicationNumbersFromSearcher(criteria,
-                        StatusIdNameMap, requestInfo);
+                InboxSearchCriteria countCriteria = copyOf(criteria);
+                DownstreamCall<Integer> countCall = downstreamExecutor.submit(DownstreamExecutor.SEARCHER,
+                        () -> bpaInboxFilterService.fetchApplicationCountFromSearcher(countCriteria, StatusIdNameMap, requestInfo));
+                InboxSearchCriteria idsCriteria = copyOf(criteria);
+                DownstreamCall<List<String>> idsCall = downstreamExecutor.submit(DownstreamExecutor.SEARCHER,
+                        () -> bpaInboxFilterService.fetchApplicationNumbersFromSearcher(idsCriteria, StatusIdNameMap, requestInfo));
+                totalCount = countCall.get();
+                List<String> applicationNumbers = idsCall.get();
                 if (!CollectionUtils.isEmpty(applicationNumbers)) {
                     moduleSearchCriteria.put(BPA_APPLICATION_NUMBER_PARAM, applicationNumbers);
                     businessKeys.addAll(applicationNumbers);
@@ -386,8 +434,14 @@ public class InboxService {
             
             if (processCriteria != null && !ObjectUtils.isEmpty(processCriteria.getModuleName())
                     && processCriteria.getModuleName().equals(NOC)) {
-                totalCount = nocInboxFilterService.fetchApplicationCountFromSearcher(criteria, StatusIdNameMap, requestInfo);
-                List<String> applicationNumbers = nocInboxFilterService.fetchApplicationNumbersFromSearcher(criteria, StatusIdNameMap, requestInfo);
+                InboxSearchCriteria countCriteria = copyOf(criteria);
+                DownstreamCall<Integer> countCall = downstreamExecutor.submit(DownstreamExecutor.SEARCHER,
+                        () -> nocInboxFilterService.fetchApplicationCountFromSearcher(countCriteria, StatusIdNameMap, requestInfo));
+                InboxSearchCriteria idsCriteria = copyOf(criteria);
+                DownstreamCall<List<String>> idsCall = downstreamExecutor.submit(DownstreamExecutor.SEARCHER,
+                        () -> nocInboxFilterService.fetchApplicationNumbersFromSearcher(idsCriteria, StatusIdNameMap, requestInfo));
+                totalCount = countCall.get();
+                List<String> applicationNumbers = idsCall.get();
                 if (!CollectionUtils.isEmpty(applicationNumbers)) {
                     moduleSearchCriteria.put(NOC_APPLICATION_NUMBER_PARAM, applicationNumbers);
                     businessKeys.addAll(applicationNumbers);
@@ -409,7 +463,8 @@ public class InboxService {
                 Map<String, Object> finalResult = new HashMap<>();
 
                 try {
-                    responseNode = new ObjectMapper().convertValue(elasticSearchRepository.elasticSearchApplications(criteria, (List<String>) null), JsonNode.class);
+                    responseNode = new ObjectMapper().convertValue(downstreamExecutor.call(DownstreamExecutor.ELASTICSEARCH,
+                            () -> elasticSearchRepository.elasticSearchApplications(criteria, (List<String>) null)), JsonNode.class);
                     JsonNode output = responseNode.get(ELASTICSEARCH_HIT_KEY).get(ELASTICSEARCH_HIT_KEY);
                     //Throw exception for no returned result
 //                    if(output.size()==0){
@@ -438,10 +493,14 @@ public class InboxService {
             if (!ObjectUtils.isEmpty(processCriteria.getModuleName()) && processCriteria.getModuleName().equals(BS_WS_MODULENAME)
             		&& flag==1) {
             	processCriteria.setModuleName(BS_WS);
-                totalCount = billInboxFilterService.fetchApplicationCountFromSearcher(criteria, StatusIdNameMap,
-                        requestInfo);
-                Map<String, List<String>> map = billInboxFilterService.fetchConsumerNumbersFromSearcher(criteria,
-                        StatusIdNameMap, requestInfo);
+                InboxSearchCriteria countCriteria = copyOf(criteria);
+                DownstreamCall<Integer> countCall = downstreamExecutor.submit(DownstreamExecutor.SEARCHER,
+                        () -> billInboxFilterService.fetchApplicationCountFromSearcher(countCriteria, StatusIdNameMap, requestInfo));
+                InboxSearchCriteria idsCriteria = copyOf(criteria);
+                DownstreamCall<Map<String, List<String>>> consumerNumbersCall = downstreamExecutor.submit(DownstreamExecutor.SEARCHER,
+                        () -> billInboxFilterService.fetchConsumerNumbersFromSearcher(idsCriteria, StatusIdNameMap, requestInfo));
+                totalCount = countCall.get();
+                Map<String, List<String>> map = consumerNumbersCall.get();
                 List<String> consumerCodes = map.get("consumerCodes");
                 List<String> amendmentIds = map.get("amendmentIds");
                 if (!CollectionUtils.isEmpty(consumerCodes)) {
@@ -463,10 +522,14 @@ public class InboxService {
             if (!ObjectUtils.isEmpty(processCriteria.getModuleName()) && processCriteria.getModuleName().equals(BS_SW_MODULENAME)
             		&& flag==2) {
             	processCriteria.setModuleName(BS_SW);
-                totalCount = billInboxFilterService.fetchApplicationCountFromSearcher(criteria, StatusIdNameMap,
-                        requestInfo);
-                Map<String, List<String>> map = billInboxFilterService.fetchConsumerNumbersFromSearcher(criteria,
-                        StatusIdNameMap, requestInfo);
+                InboxSearchCriteria countCriteria = copyOf(criteria);
+                DownstreamCall<Integer> countCall = downstreamExecutor.submit(DownstreamExecutor.SEARCHER,
+                        () -> billInboxFilterService.fetchApplicationCountFromSearcher(countCriteria, StatusIdNameMap, requestInfo));
+                InboxSearchCriteria idsCriteria = copyOf(criteria);
+                DownstreamCall<Map<String, List<String>>> consumerNumbersCall = downstreamExecutor.submit(DownstreamExecutor.SEARCHER,
+                        () -> billInboxFilterService.fetchConsumerNumbersFromSearcher(idsCriteria, StatusIdNameMap, requestInfo));
+                totalCount = countCall.get();
+                Map<String, List<String>> map = consumerNumbersCall.get();
                 List<String> consumerCodes = map.get("consumerCodes");
                 List<String> amendmentIds = map.get("amendmentIds");
                 if (!CollectionUtils.isEmpty(consumerCodes)) {
@@ -585,7 +648,8 @@ public class InboxService {
                 for(Map.Entry<String, List<String>> appln : tenantAndApplnNoForProcessInstance.entrySet()) {
                     processCriteria.setTenantId(appln.getKey());
                     processCriteria.setBusinessIds(appln.getValue());
-                    ProcessInstanceResponse processInstance = workflowService.getProcessInstance(processCriteria, requestInfo);
+                    ProcessInstanceResponse processInstance = downstreamExecutor.call(DownstreamExecutor.WORKFLOW,
+                            () -> workflowService.getProcessInstance(processCriteria, requestInfo));
                     processInstanceRes.setResponseInfo(processInstance.getResponseInfo());
                     if(processInstanceRes.getProcessInstances() == null)
                         processInstanceRes.setProcessInstances(processInstance.getProcessInstances());
@@ -594,7 +658,8 @@ public class InboxService {
                 }
                 processInstanceResponse = processInstanceRes;
             } else {
-                processInstanceResponse = workflowService.getProcessInstance(processCriteria, requestInfo);
+                processInstanceResponse = downstreamExecutor.call(DownstreamExecutor.WORKFLOW,
+                        () -> workflowService.getProcessInstance(processCriteria, requestInfo));
             }
             
             List<ProcessInstance> processInstances = processInstanceResponse.getProcessInstances();
@@ -671,7 +736,8 @@ public class InboxService {
             processCriteria.setOffset(criteria.getOffset());
             processCriteria.setLimit(criteria.getLimit());
 
-            ProcessInstanceResponse processInstanceResponse = workflowService.getProcessInstance(processCriteria, requestInfo);
+            ProcessInstanceResponse processInstanceResponse = downstreamExecutor.call(DownstreamExecutor.WORKFLOW,
+                    () -> workflowService.getProcessInstance(processCriteria, requestInfo));
             List<ProcessInstance> processInstances = processInstanceResponse.getProcessInstances();
             HashMap<String, List<String>> businessSrvIdsMap = new HashMap<String, List<String>>();
             Map<String, ProcessInstance> processInstanceMap = processInstances.stream()
@@ -712,9 +778,12 @@ public class InboxService {
 			List<String> applicationStatus = new ArrayList<>();
 			applicationStatus.add(WAITING_FOR_DISPOSAL_STATE);
 			applicationStatus.add(DISPOSED_STATE);
-			List<Map<String, Object>> vehicleResponse = fetchVehicleTripResponse(criteria, requestInfo,applicationStatus);
-			BusinessService businessService = workflowService.getBusinessService(criteria.getTenantId(), requestInfo,
-					FSM_VEHICLE_TRIP_MODULE);
+			DownstreamCall<List<Map<String, Object>>> vehicleResponseCall = downstreamExecutor.submit(DownstreamExecutor.VEHICLE,
+					() -> fetchVehicleTripResponse(criteria, requestInfo, applicationStatus));
+			DownstreamCall<BusinessService> businessServiceCall = downstreamExecutor.submit(DownstreamExecutor.WORKFLOW,
+					() -> workflowService.getBusinessService(criteria.getTenantId(), requestInfo, FSM_VEHICLE_TRIP_MODULE));
+			List<Map<String, Object>> vehicleResponse = vehicleResponseCall.get();
+			BusinessService businessService = businessServiceCall.get();
 			//log.info("businessService :::: " + businessService);
 			populateStatusCountMap(statusCountMap, vehicleResponse, businessService);
 
@@ -760,8 +829,8 @@ public class InboxService {
 //	            moduleSearchCriteria.put("limit", criteria.getLimit());
 				processCriteria.setBusinessIds(fsmApplicationList);
 				processCriteria.setStatus(null);
-				ProcessInstanceResponse processInstanceResponse = workflowService.getProcessInstance(processCriteria,
-						requestInfo);
+				ProcessInstanceResponse processInstanceResponse = downstreamExecutor.call(DownstreamExecutor.WORKFLOW,
+						() -> workflowService.getProcessInstance(processCriteria, requestInfo));
 				//log.info("processInstanceResponse :::: " + processInstanceResponse);
 				List<ProcessInstance> vehicleProcessInstances = processInstanceResponse.getProcessInstances();
 				Map<String, ProcessInstance> vehicleProcessInstanceMap = vehicleProcessInstances.stream()
@@ -842,6 +911,60 @@ public class InboxService {
         return response;
     }
 
+    /**
+     * Serves the inbox from the inbox projection. As in the module search path, only the statuses the roles of the
+     * user can act on are listed and the business objects are the ones returned by the module search. The nearing
+     * SLA count still comes from workflow.
+     */
+    private InboxResponse fetchInboxDataFromProjection(InboxSearchCriteria criteria, RequestInfo requestInfo) {
+        ProcessInstanceSearchCriteria processCriteria = criteria.getProcessSearchCriteria();
+        List<String> businessServiceName = processCriteria.getBusinessService();
+        if (CollectionUtils.isEmpty(businessServiceName)) {
+            throw new CustomException(ErrorConstants.MODULE_SEARCH_INVLAID, "Bussiness Service is mandatory for module search");
+        }
+        Map<String, String> srvMap = fetchAppropriateServiceMap(businessServiceName, processCriteria.getModuleName());
+
+        ProcessInstanceSearchCriteria nearingSlaCriteria = copyOf(processCriteria);
+        DownstreamCall<Integer> nearingSlaCountCall = downstreamExecutor.submit(DownstreamExecutor.WORKFLOW,
+                () -> workflowService.getNearingSlaProcessCount(criteria.getTenantId(), requestInfo, nearingSlaCriteria));
+        List<DownstreamCall<BusinessService>> businessServiceCalls = new ArrayList<>();
+        for (String businessSrv : businessServiceName) {
+            businessServiceCalls.add(downstreamExecutor.submit(DownstreamExecutor.WORKFLOW,
+                    () -> workflowService.getBusinessService(criteria.getTenantId(), requestInfo, businessSrv)));
+        }
+        List<BusinessService> bussinessSrvs = new ArrayList<>();
+        for (DownstreamCall<BusinessService> businessServiceCall : businessServiceCalls)
+            bussinessSrvs.add(businessServiceCall.get());
+        Set<String> actionableStatuses = workflowService.getActionableStatusesForRole(requestInfo, bussinessSrvs,
+                processCriteria).keySet();
+
+        InboxResponse response = downstreamExecutor.call(DownstreamExecutor.ELASTICSEARCH,
+                () -> inboxProjectionService.search(criteria, actionableStatuses));
+
+        if (!CollectionUtils.isEmpty(response.getItems())) {
+            List<String> businessIds = response.getItems().stream().map(inbox -> inbox.getProcessInstance().getBusinessId())
+                    .collect(Collectors.toList());
+            HashMap<String, Object> moduleSearchCriteria = new HashMap<>();
+            moduleSearchCriteria.put(srvMap.get("applNosParam"), StringUtils.arrayToDelimitedString(businessIds.toArray(), ","));
+            moduleSearchCriteria.put("tenantId", criteria.getTenantId());
+            moduleSearchCriteria.put("limit", -1);
+            JSONArray businessObjects = fetchModuleObjects(moduleSearchCriteria, businessServiceName, criteria.getTenantId(),
+                    requestInfo, srvMap);
+            String businessIdParam = srvMap.get("businessIdProperty");
+            Map<String, Object> businessMap = StreamSupport.stream(businessObjects.spliterator(), false)
+                    .collect(Collectors.toMap(s1 -> ((JSONObject) s1).get(businessIdParam).toString(), s1 -> s1, (e1, e2) -> e1));
+            // the projected object is kept for an application the module search no longer returns
+            response.getItems().forEach(inbox -> {
+                JSONObject businessObject = (JSONObject) businessMap.get(inbox.getProcessInstance().getBusinessId());
+                if (businessObject != null)
+                    inbox.setBusinessObject(toMap(businessObject));
+            });
+        }
+
+        response.setNearingSlaCount(nearingSlaCountCall.getOrDefault(null));
+        return response;
+    }
+
     /**
      * @param businessServiceSlaMap
      * @param data -- application object
@@ -874,7 +997,8 @@ public class InboxService {
 		StringBuilder url = new StringBuilder(config.getFsmHost());
 		url.append( config.getFetchApplicationIds());
 		
-		Object result = serviceRequestRepository.fetchResult(url, vehicleTripSearchCriteria);
+		Object result = downstreamExecutor.call(DownstreamExecutor.MODULE,
+				() -> serviceRequestRepository.fetchResult(url, vehicleTripSearchCriteria));
 		VehicleCustomResponse response =null;
 		try {
 			response = mapper.convertValue(result, VehicleCustomResponse.class);
@@ -903,7 +1027,8 @@ public class InboxService {
 	public List<VehicleTripDetail> fetchVehicleTripDetailsByReferenceNo(VehicleTripSearchCriteria vehicleTripSearchCriteria, RequestInfo requestInfo) {
 		StringBuilder url = new StringBuilder(config.getVehicleHost());
 		url.append( config.getVehicleSearchTripPath());
-		Object result = serviceRequestRepository.fetchResult(url, vehicleTripSearchCriteria);
+		Object result = downstreamExecutor.call(DownstreamExecutor.VEHICLE,
+				() -> serviceRequestRepository.fetchResult(url, vehicleTripSearchCriteria));
 		VehicleTripDetailResponse response =null;
 		try {
 			response = mapper.convertValue(result, VehicleTripDetailResponse.class);
@@ -967,7 +1092,7 @@ public class InboxService {
     public VehicleCustomResponse fetchApplicationCount(VehicleSearchCriteria criteria, RequestInfo requestInfo) {
 		StringBuilder url = new StringBuilder(config.getVehicleHost());
 		url.append( config.getVehicleApplicationStatusCountPath());
-		Object result = serviceRequestRepository.fetchResult(url, criteria);
+		Object result = downstreamExecutor.call(DownstreamExecutor.VEHICLE, () -> serviceRequestRepository.fetchResult(url, criteria));
 		VehicleCustomResponse resposne =null;
 		try {
 			resposne = mapper.convertValue(result, VehicleCustomResponse.class);
@@ -988,6 +1113,42 @@ public class InboxService {
      * log.error("Exception trace: ", e); } return uuid; }
      */
 
+    /**
+     * Copies the criteria so that it can be handed over to a concurrent call
+     */
+    private ProcessInstanceSearchCriteria copyOf(ProcessInstanceSearchCriteria processCriteria) {
+        ProcessInstanceSearchCriteria copy = mapper.convertValue(processCriteria, ProcessInstanceSearchCriteria.class);
+        copy.setIsProcessCountCall(processCriteria.getIsProcessCountCall());
+        copy.setIsNearingSlaCount(processCriteria.getIsNearingSlaCount());
+        return copy;
+    }
+
+    /**
+     * Copies the criteria with its module search criteria so that it can be handed over to a concurrent call, the
+     * filter services add to the module search criteria they are given
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private InboxSearchCriteria copyOf(InboxSearchCriteria criteria) {
+        InboxSearchCriteria copy = new InboxSearchCriteria();
+        copy.setTenantId(criteria.getTenantId());
+        copy.setOffset(criteria.getOffset());
+        copy.setLimit(criteria.getLimit());
+        if (criteria.getProcessSearchCriteria() != null)
+            copy.setProcessSearchCriteria(copyOf(criteria.getProcessSearchCriteria()));
+        if (criteria.getModuleSearchCriteria() != null) {
+            HashMap<String, Object> moduleSearchCriteria = new HashMap<>();
+            criteria.getModuleSearchCriteria().forEach((key, value) -> {
+                if (value instanceof List)
+                    value = new ArrayList<>((List) value);
+                else if (value instanceof Set)
+                    value = new LinkedHashSet<>((Set) value);
+                moduleSearchCriteria.put(key, value);
+            });
+            copy.setModuleSearchCriteria(moduleSearchCriteria);
+        }
+        return copy;
+    }
+
     private Map<String, String> fetchAppropriateServiceMap(List<String> businessServiceName,String  moduleName) {
         StringBuilder appropriateKey = new StringBuilder();
         for (String businessServiceKeys : config.getServiceSearchMapping().keySet()) {
@@ -1048,7 +1209,8 @@ public class InboxService {
 		log.info("\nfetchModuleObjects URL :::: " + url.toString());
 		
         RequestInfoWrapper requestInfoWrapper = RequestInfoWrapper.builder().requestInfo(requestInfo).build();
-        Object result = serviceRequestRepository.fetchResult(url, requestInfoWrapper);
+        Object result = downstreamExecutor.call(DownstreamExecutor.MODULE,
+                () -> serviceRequestRepository.fetchResult(url, requestInfoWrapper));
         
         LinkedHashMap responseMap;
         try {
@@ -1158,7 +1320,8 @@ public class InboxService {
 		log.info("\nfetchModulSearcheObjects URL :::: " + url.toString());
 
 		RequestInfoWrapper requestInfoWrapper = RequestInfoWrapper.builder().requestInfo(requestInfo).build();
-		Object result = serviceRequestRepository.fetchResult(url, requestInfoWrapper);
+		Object result = downstreamExecutor.call(DownstreamExecutor.MODULE,
+				() -> serviceRequestRepository.fetchResult(url, requestInfoWrapper));
 
 		LinkedHashMap responseMap;
 		try {
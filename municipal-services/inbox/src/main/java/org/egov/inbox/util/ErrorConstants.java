@@ -7,5 +7,8 @@ public class ErrorConstants {
 	public static final String INVALID_MODULE_SEARCH_PATH = "INVALID_MODULE_SEARCH_PATH";
 	public static final String INVALID_MODULE = "INVALID_MODULE";
 	public static final String INVALID_MODULE_DATA = "INVALID_MODULE_DATA";
+	public static final String DOWNSTREAM_TIMEOUT = "INBOX_DOWNSTREAM_TIMEOUT";
+	public static final String DOWNSTREAM_BUSY = "INBOX_DOWNSTREAM_BUSY";
+	public static final String DOWNSTREAM_ERROR = "INBOX_DOWNSTREAM_ERROR";
 
 }
@@ -3,11 +3,14 @@ package org.egov.inbox.web.controller;
 import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import javax.validation.Valid;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import org.egov.inbox.config.InboxConfiguration;
 import org.egov.inbox.service.DSSInboxFilterService;
+import org.egov.inbox.service.DownstreamExecutor;
 import org.egov.inbox.service.ElasticSearchService;
 import org.egov.inbox.service.InboxService;
 import org.egov.inbox.web.model.InboxRequest;
@@ -16,6 +19,7 @@ import org.egov.inbox.util.ResponseInfoFactory;
 import org.egov.inbox.web.model.dss.InboxMetricCriteria;
 import org.egov.inbox.web.model.elasticsearch.InboxElasticSearchRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -29,6 +33,8 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 @RequestMapping("/v1")
 public class InboxController {
+
+	private static final String DOWNSTREAM_LATENCY_HEADER = "X-Inbox-Downstream-Latency";
 	
 	@Autowired
 	private InboxService inboxService;
@@ -42,16 +48,34 @@ public class InboxController {
 
 	@Autowired
 	private ElasticSearchService elasticSearchService;
+
+	@Autowired
+	private DownstreamExecutor downstreamExecutor;
+
+	@Autowired
+	private InboxConfiguration config;
 	
 	
 	@PostMapping(value = "/_search")
 	public ResponseEntity<InboxResponse> search(@Valid @RequestBody  InboxRequest inboxRequest) {
 		
-		InboxResponse response = inboxService.fetchInboxData(inboxRequest.getInbox(),inboxRequest.getRequestInfo());
-		
-		response.setResponseInfo(
-				responseInfoFactory.createResponseInfoFromRequestInfo(inboxRequest.getRequestInfo(), true));
-		return new ResponseEntity<>(response, HttpStatus.OK);
+		downstreamExecutor.startTracking();
+		try {
+			InboxResponse response = inboxService.fetchInboxData(inboxRequest.getInbox(),inboxRequest.getRequestInfo());
+
+			response.setResponseInfo(
+					responseInfoFactory.createResponseInfoFromRequestInfo(inboxRequest.getRequestInfo(), true));
+
+			HttpHeaders headers = new HttpHeaders();
+			if (config.getIsDownstreamLatencyHeaderEnabled()) {
+				// eg: X-Inbox-Downstream-Latency: workflow=120, searcher=85, module=240
+				headers.add(DOWNSTREAM_LATENCY_HEADER, downstreamExecutor.getLatencies().entrySet().stream()
+						.map(latency -> latency.getKey() + "=" + latency.getValue()).collect(Collectors.joining(", ")));
+			}
+			return new ResponseEntity<>(response, headers, HttpStatus.OK);
+		} finally {
+			downstreamExecutor.stopTracking();
+		}
 	}
 
 	@PostMapping(value = "/dss/_search")
@@ -0,0 +1,135 @@
+package org.egov.inbox.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.egov.inbox.config.InboxConfiguration;
+import org.egov.inbox.service.DownstreamExecutor.DownstreamCall;
+import org.egov.inbox.util.ErrorConstants;
+import org.egov.tracer.model.CustomException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.ObjectProvider;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class DownstreamExecutorTest {
+
+    private InboxConfiguration config;
+
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private DownstreamExecutor downstreamExecutor;
+
+    private CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        config = new InboxConfiguration();
+        config.setIsDownstreamConcurrencyEnabled(true);
+        config.setDownstreamPoolSize(1);
+        config.setDownstreamQueueSize(1);
+        config.setDownstreamTimeoutMs(200L);
+
+        ObjectProvider<MeterRegistry> meterRegistryProvider = mock(ObjectProvider.class);
+        when(meterRegistryProvider.getIfAvailable(any())).thenReturn(meterRegistry);
+        downstreamExecutor = new DownstreamExecutor(config, meterRegistryProvider);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        downstreamExecutor.stopTracking();
+        downstreamExecutor.shutdown();
+        MDC.clear();
+    }
+
+    @Test
+    public void testTimedOutCallLeavesTheOtherResults() {
+        DownstreamCall<List<String>> slowCall = downstreamExecutor.submit(DownstreamExecutor.SEARCHER, this::blocked);
+        DownstreamCall<Integer> countCall = downstreamExecutor.submit(DownstreamExecutor.WORKFLOW, () -> 7);
+
+        assertEquals(Collections.emptyList(), slowCall.getOrDefault(Collections.emptyList()));
+        assertEquals(7, (int) countCall.get());
+    }
+
+    @Test
+    public void testTimedOutCallFails() {
+        DownstreamCall<List<String>> slowCall = downstreamExecutor.submit(DownstreamExecutor.SEARCHER, this::blocked);
+
+        CustomException e = assertThrows(CustomException.class, slowCall::get);
+        assertEquals(ErrorConstants.DOWNSTREAM_TIMEOUT, e.getCode());
+    }
+
+    @Test
+    public void testFailureIsRethrownAsThrownByTheCall() {
+        DownstreamCall<Integer> call = downstreamExecutor.submit(DownstreamExecutor.SEARCHER, () -> {
+            throw new CustomException("EG_SEARCHER_ERROR", "searcher failed");
+        });
+
+        CustomException e = assertThrows(CustomException.class, call::get);
+        assertEquals("EG_SEARCHER_ERROR", e.getCode());
+    }
+
+    @Test
+    public void testFullBulkheadRejectsTheCall() {
+        downstreamExecutor.submit(DownstreamExecutor.SEARCHER, this::blocked);
+        downstreamExecutor.submit(DownstreamExecutor.SEARCHER, this::blocked);
+
+        CustomException e = assertThrows(CustomException.class,
+                () -> downstreamExecutor.submit(DownstreamExecutor.SEARCHER, this::blocked));
+        assertEquals(ErrorConstants.DOWNSTREAM_BUSY, e.getCode());
+
+        // the bulkhead of another downstream is not affected
+        assertEquals(7, (int) downstreamExecutor.submit(DownstreamExecutor.WORKFLOW, () -> 7).get());
+    }
+
+    @Test
+    public void testCallRunsOnBulkheadWithTheRequestContext() {
+        MDC.put("CORRELATION_ID", "corr-1");
+        Thread caller = Thread.currentThread();
+
+        Thread worker = downstreamExecutor.submit(DownstreamExecutor.SEARCHER, Thread::currentThread).get();
+        String correlationId = downstreamExecutor.submit(DownstreamExecutor.SEARCHER, () -> MDC.get("CORRELATION_ID")).get();
+
+        assertNotSame(caller, worker);
+        assertEquals("corr-1", correlationId);
+    }
+
+    @Test
+    public void testCallRunsInlineWhenConcurrencyIsDisabled() {
+        config.setIsDownstreamConcurrencyEnabled(false);
+        downstreamExecutor.startTracking();
+
+        Thread worker = downstreamExecutor.submit(DownstreamExecutor.SEARCHER, Thread::currentThread).get();
+
+        assertSame(Thread.currentThread(), worker);
+        assertTrue(downstreamExecutor.getLatencies().containsKey(DownstreamExecutor.SEARCHER));
+        assertEquals(1, meterRegistry.get("inbox.downstream.latency").tag("downstream", DownstreamExecutor.SEARCHER).timer().count());
+    }
+
+    private List<String> blocked() {
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return Collections.singletonList("PB-PT-2024-01");
+    }
+
+}
@@ -0,0 +1,307 @@
+package org.egov.inbox.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.egov.common.contract.request.RequestInfo;
+import org.egov.common.contract.request.Role;
+import org.egov.common.contract.request.User;
+import org.egov.inbox.config.InboxConfiguration;
+import org.egov.inbox.repository.InboxProjectionRepository;
+import org.egov.inbox.repository.ServiceRequestRepository;
+import org.egov.inbox.web.model.Inbox;
+import org.egov.inbox.web.model.InboxResponse;
+import org.egov.inbox.web.model.InboxSearchCriteria;
+import org.egov.inbox.web.model.workflow.BusinessService;
+import org.egov.inbox.web.model.workflow.ProcessInstance;
+import org.egov.inbox.web.model.workflow.ProcessInstanceResponse;
+import org.egov.inbox.web.model.workflow.ProcessInstanceSearchCriteria;
+import org.egov.inbox.web.model.workflow.State;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Runs the same inbox search through the module search path and through the inbox projection, with workflow,
+ * the module search and the projection holding the same applications.
+ */
+public class InboxServiceTest {
+
+    private static final String TENANT_ID = "pb.amritsar";
+    private static final String MODULE_NAME = "FIRENOC";
+    private static final String BUSINESS_SERVICE = "FIRENOC";
+    private static final String PENDING_APPROVAL = "3c5d4c1a-pending-approval";
+    private static final String FIELD_INSPECTION = "9f2b7e4d-field-inspection";
+    private static final String APPROVED = "5e8a1b2c-approved";
+
+    // as configured by spring boot
+    private ObjectMapper mapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private InboxConfiguration config;
+
+    private WorkflowService workflowService;
+
+    private ServiceRequestRepository serviceRequestRepository;
+
+    private InboxProjectionRepository projectionRepository;
+
+    private InboxService inboxService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        config = new InboxConfiguration();
+        config.setIsDownstreamConcurrencyEnabled(false);
+        config.setDownstreamTimeoutMs(10000L);
+        config.setDefaultOffset(0L);
+        config.setDefaultLimit(10L);
+        config.setIsInboxProjectionEnabled(false);
+        config.setInboxProjectionIndex("inbox-projection");
+        config.setInboxProjectionServedModules(Collections.singletonList(MODULE_NAME));
+        Map<String, String> srvMap = new HashMap<>();
+        srvMap.put("searchPath", "http://localhost:8099/firenoc-services/v1/_search");
+        srvMap.put("dataRoot", "FireNOCs");
+        srvMap.put("applNosParam", "applicationNumber");
+        srvMap.put("businessIdProperty", "applicationNumber");
+        srvMap.put("applsStatusParam", "status");
+        config.setServiceSearchMapping(Collections.singletonMap(BUSINESS_SERVICE, srvMap));
+
+        workflowService = mock(WorkflowService.class);
+        serviceRequestRepository = mock(ServiceRequestRepository.class);
+        projectionRepository = mock(InboxProjectionRepository.class);
+        ObjectProvider<MeterRegistry> meterRegistry = mock(ObjectProvider.class);
+        when(meterRegistry.getIfAvailable(any())).thenReturn(new SimpleMeterRegistry());
+
+        inboxService = new InboxService(config, serviceRequestRepository, mapper, workflowService);
+        ReflectionTestUtils.setField(inboxService, "downstreamExecutor", new DownstreamExecutor(config, meterRegistry));
+        ReflectionTestUtils.setField(inboxService, "inboxProjectionService",
+                new InboxProjectionService(config, projectionRepository, mapper));
+
+        HashMap<String, String> actionableStatuses = new HashMap<>();
+        actionableStatuses.put(PENDING_APPROVAL, "PENDINGAPPROVAL");
+        actionableStatuses.put(FIELD_INSPECTION, "FIELDINSPECTION");
+        when(workflowService.getBusinessService(eq(TENANT_ID), any(), eq(BUSINESS_SERVICE)))
+                .thenReturn(BusinessService.builder().businessService(BUSINESS_SERVICE).build());
+        when(workflowService.getActionableStatusesForRole(any(), any(), any())).thenReturn(actionableStatuses);
+        when(workflowService.getNearingSlaProcessCount(anyString(), any(), any())).thenReturn(1);
+        when(workflowService.getProcessCount(anyString(), any(), any())).thenReturn(2);
+        when(workflowService.getProcessStatusCount(any(), any()))
+                .thenReturn(Arrays.asList(statusCount(PENDING_APPROVAL, "PENDINGAPPROVAL", 1),
+                        statusCount(FIELD_INSPECTION, "FIELDINSPECTION", 1)));
+        when(workflowService.getProcessInstance(any(), any())).thenReturn(ProcessInstanceResponse.builder()
+                .processInstances(Arrays.asList(processInstance("FN-001", PENDING_APPROVAL, "PENDINGAPPROVAL"),
+                        processInstance("FN-002", FIELD_INSPECTION, "FIELDINSPECTION")))
+                .build());
+        when(serviceRequestRepository.fetchResult(any(), any())).thenReturn(moduleSearchResponse("FN-001", "FN-002"));
+        when(projectionRepository.search(anyString())).thenReturn(projectionResponse("FN-001", "FN-002"));
+    }
+
+    @Test
+    public void testProjectionServesTheInboxOfTheModuleSearch() {
+        InboxResponse moduleSearchResponse = inboxService.fetchInboxData(criteria(), requestInfo("EMPLOYEE"));
+        config.setIsInboxProjectionEnabled(true);
+        InboxResponse projectionResponse = inboxService.fetchInboxData(criteria(), requestInfo("EMPLOYEE"));
+
+        assertEquals(moduleSearchResponse.getTotalCount(), projectionResponse.getTotalCount());
+        assertEquals(moduleSearchResponse.getNearingSlaCount(), projectionResponse.getNearingSlaCount());
+        assertEquals(moduleSearchResponse.getStatusMap(), projectionResponse.getStatusMap());
+        assertEquals(businessIds(moduleSearchResponse), businessIds(projectionResponse));
+        for (int i = 0; i < moduleSearchResponse.getItems().size(); i++) {
+            Inbox expected = moduleSearchResponse.getItems().get(i);
+            Inbox actual = projectionResponse.getItems().get(i);
+            assertEquals(expected.getProcessInstance().getState().getUuid(), actual.getProcessInstance().getState().getUuid());
+            assertEquals(expected.getBusinessObject(), actual.getBusinessObject());
+        }
+    }
+
+    @Test
+    public void testProjectionListsOnlyActionableStatuses() throws Exception {
+        config.setIsInboxProjectionEnabled(true);
+        InboxSearchCriteria criteria = criteria();
+        criteria.getProcessSearchCriteria().setStatus(Collections.singletonList(APPROVED));
+
+        inboxService.fetchInboxData(criteria, requestInfo("EMPLOYEE"));
+
+        ArgumentCaptor<String> query = ArgumentCaptor.forClass(String.class);
+        verify(projectionRepository).search(query.capture());
+        JsonNode filters = mapper.readTree(query.getValue()).path("query").path("bool").path("filter");
+        List<String> statusFilter = new ArrayList<>();
+        filters.forEach(filter -> filter.path("terms").path("status").forEach(status -> statusFilter.add(status.asText())));
+        assertEquals(Arrays.asList(PENDING_APPROVAL, FIELD_INSPECTION),
+                statusFilter.stream().sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testProjectionCountsAllHits() throws Exception {
+        config.setIsInboxProjectionEnabled(true);
+        JsonNode projectionResponse = projectionResponse("FN-001", "FN-002");
+        ((ObjectNode) projectionResponse.path("hits").path("total")).put("value", 25000);
+        when(projectionRepository.search(anyString())).thenReturn(projectionResponse);
+
+        InboxResponse response = inboxService.fetchInboxData(criteria(), requestInfo("EMPLOYEE"));
+
+        assertEquals(25000, (int) response.getTotalCount());
+        ArgumentCaptor<String> query = ArgumentCaptor.forClass(String.class);
+        verify(projectionRepository).search(query.capture());
+        assertTrue(mapper.readTree(query.getValue()).path("track_total_hits").asBoolean());
+    }
+
+    @Test
+    public void testProjectionIsEmptyWithoutActionableStatuses() {
+        config.setIsInboxProjectionEnabled(true);
+        when(workflowService.getActionableStatusesForRole(any(), any(), any())).thenReturn(new HashMap<>());
+
+        InboxResponse response = inboxService.fetchInboxData(criteria(), requestInfo("EMPLOYEE"));
+
+        assertEquals(0, (int) response.getTotalCount());
+        assertTrue(response.getItems().isEmpty());
+        verify(projectionRepository, never()).search(anyString());
+    }
+
+    @Test
+    public void testCitizensAreServedByTheModuleSearch() {
+        config.setIsInboxProjectionEnabled(true);
+        InboxProjectionService projectionService = new InboxProjectionService(config, projectionRepository, mapper);
+
+        assertFalse(projectionService.isServed(criteria(), requestInfo("CITIZEN")));
+        assertTrue(projectionService.isServed(criteria(), requestInfo("EMPLOYEE")));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testProjectionSkipsRecordsWithoutLastModifiedTime() throws Exception {
+        config.setIsInboxProjectionEnabled(true);
+        config.setInboxProjectionWorkflowTopic("save-wf-transitions");
+        InboxProjectionService projectionService = new InboxProjectionService(config, projectionRepository, mapper);
+        Map<String, Object> timed = mapper.convertValue(processInstance("FN-001", PENDING_APPROVAL, "PENDINGAPPROVAL"), Map.class);
+        timed.put("auditDetails", Collections.singletonMap("lastModifiedTime", 1634000000000L));
+        Map<String, Object> untimed = mapper.convertValue(processInstance("FN-002", FIELD_INSPECTION, "FIELDINSPECTION"), Map.class);
+        untimed.remove("auditDetails");
+
+        projectionService.project(Collections.singletonMap("ProcessInstances", Arrays.asList(timed, untimed)),
+                "save-wf-transitions");
+
+        ArgumentCaptor<String> bulk = ArgumentCaptor.forClass(String.class);
+        verify(projectionRepository).bulk(bulk.capture());
+        String[] lines = bulk.getValue().split("\n");
+        assertEquals(2, lines.length);
+        JsonNode action = mapper.readTree(lines[0]).path("update");
+        assertEquals(TENANT_ID + "_FN-001", action.path("_id").asText());
+        assertTrue(action.path("_type").isMissingNode());
+    }
+
+    private InboxSearchCriteria criteria() {
+        ProcessInstanceSearchCriteria processCriteria = new ProcessInstanceSearchCriteria();
+        processCriteria.setModuleName(MODULE_NAME);
+        processCriteria.setBusinessService(new ArrayList<>(Collections.singletonList(BUSINESS_SERVICE)));
+        InboxSearchCriteria criteria = new InboxSearchCriteria();
+        criteria.setTenantId(TENANT_ID);
+        criteria.setProcessSearchCriteria(processCriteria);
+        criteria.setOffset(0);
+        criteria.setLimit(10);
+        HashMap<String, Object> moduleSearchCriteria = new HashMap<>();
+        moduleSearchCriteria.put("locality", "SUN04");
+        criteria.setModuleSearchCriteria(moduleSearchCriteria);
+        return criteria;
+    }
+
+    private RequestInfo requestInfo(String type) {
+        Role role = new Role();
+        role.setCode("EMPLOYEE".equals(type) ? "FIRE_NOC_APPROVER" : "CITIZEN");
+        role.setTenantId(TENANT_ID);
+        User user = new User();
+        user.setUuid("8b5a4d3c-user");
+        user.setType(type);
+        user.setRoles(Collections.singletonList(role));
+        RequestInfo requestInfo = new RequestInfo();
+        requestInfo.setUserInfo(user);
+        return requestInfo;
+    }
+
+    private ProcessInstance processInstance(String businessId, String status, String applicationStatus) {
+        return ProcessInstance.builder().id("pi-" + businessId).tenantId(TENANT_ID).businessService(BUSINESS_SERVICE)
+                .moduleName(MODULE_NAME).businessId(businessId)
+                .state(State.builder().uuid(status).applicationStatus(applicationStatus).build()).build();
+    }
+
+    private HashMap<String, Object> statusCount(String status, String applicationStatus, int count) {
+        HashMap<String, Object> statusCount = new HashMap<>();
+        statusCount.put("statusid", status);
+        statusCount.put("applicationstatus", applicationStatus);
+        statusCount.put("businessservice", BUSINESS_SERVICE);
+        statusCount.put("count", count);
+        return statusCount;
+    }
+
+    private Map<String, Object> moduleObject(String applicationNumber) {
+        Map<String, Object> moduleObject = new LinkedHashMap<>();
+        moduleObject.put("tenantId", TENANT_ID);
+        moduleObject.put("applicationNumber", applicationNumber);
+        moduleObject.put("ownerName", "Owner of " + applicationNumber);
+        return moduleObject;
+    }
+
+    private Map<String, Object> moduleSearchResponse(String... applicationNumbers) {
+        return Collections.singletonMap("FireNOCs",
+                Arrays.stream(applicationNumbers).map(this::moduleObject).collect(Collectors.toList()));
+    }
+
+    /**
+     * The projected module objects come from the save/update topics and lack what the module search enriches
+     */
+    private JsonNode projectionResponse(String... businessIds) {
+        ObjectNode response = mapper.createObjectNode();
+        response.putObject("hits").putObject("total").put("value", businessIds.length);
+        ArrayNode hits = ((ObjectNode) response.get("hits")).putArray("hits");
+        hits.addObject().putObject("_source")
+                .<ObjectNode>set("ProcessInstance", mapper.valueToTree(processInstance(businessIds[0], PENDING_APPROVAL, "PENDINGAPPROVAL")))
+                .putObject("Data").put("applicationNumber", businessIds[0]);
+        hits.addObject().putObject("_source")
+                .<ObjectNode>set("ProcessInstance", mapper.valueToTree(processInstance(businessIds[1], FIELD_INSPECTION, "FIELDINSPECTION")))
+                .putObject("Data").put("applicationNumber", businessIds[1]);
+        ArrayNode buckets = response.putObject("aggregations").putObject("status").putArray("buckets");
+        addBucket(buckets, PENDING_APPROVAL, "PENDINGAPPROVAL");
+        addBucket(buckets, FIELD_INSPECTION, "FIELDINSPECTION");
+        return response;
+    }
+
+    private void addBucket(ArrayNode buckets, String status, String applicationStatus) {
+        ObjectNode bucket = buckets.addObject().put("key", status).put("doc_count", 1);
+        bucket.putObject("applicationStatus").putArray("buckets").addObject().put("key", applicationStatus);
+        bucket.putObject("businessService").putArray("buckets").addObject().put("key", BUSINESS_SERVICE);
+    }
+
+    private List<String> businessIds(InboxResponse response) {
+        return response.getItems().stream().map(inbox -> inbox.getProcessInstance().getBusinessId())
+                .collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,98 @@
+-- Property search benchmark, window function pagination of the joined rows vs keyset page of ids followed by hydration.
+-- Run against a scratch database migrated with db/migration/main:
+--   psql -d pt_bench -v rows=3000000 -f benchmark/property_search_keyset.sql
+-- Generates :rows properties spread over 10 tenants with one address, two owners and two units each,
+-- one property in 20 has a second INWORKFLOW version.
+
+\set ON_ERROR_STOP on
+\timing on
+
+INSERT INTO eg_pt_property (id, propertyid, tenantid, accountid, status, propertytype, ownershipcategory, creationreason,
+        source, channel, createdby, createdtime, lastmodifiedby, lastmodifiedtime)
+SELECT 'bench-p-' || g, 'PB-PT-' || g, 'pb.tenant' || (g % 10), 'bench', 'ACTIVE', 'BUILTUP.INDEPENDENTPROPERTY',
+        'INDIVIDUAL.SINGLEOWNER', 'CREATE', 'MUNICIPAL_RECORDS', 'CFC_COUNTER', 'bench', 1546300800000 + g * 1000,
+        'bench', 1546300800000 + g * 1000
+FROM generate_series(1, :rows) g;
+
+INSERT INTO eg_pt_property (id, propertyid, tenantid, accountid, status, propertytype, ownershipcategory, creationreason,
+        source, channel, createdby, createdtime, lastmodifiedby, lastmodifiedtime)
+SELECT 'bench-pw-' || g, 'PB-PT-' || g, 'pb.tenant' || (g % 10), 'bench', 'INWORKFLOW', 'BUILTUP.INDEPENDENTPROPERTY',
+        'INDIVIDUAL.SINGLEOWNER', 'UPDATE', 'MUNICIPAL_RECORDS', 'CFC_COUNTER', 'bench', 1546300800000 + g * 1000,
+        'bench', 1546300800000 + (:rows + g) * 1000
+FROM generate_series(1, :rows) g WHERE g % 20 = 0;
+
+INSERT INTO eg_pt_address (tenantid, id, propertyid, locality, city, createdby, createdtime)
+SELECT tenantid, 'bench-a-' || id, id, 'SUN' || (random() * 100)::INT, 'bench', 'bench', 0
+FROM eg_pt_property WHERE id LIKE 'bench-p%';
+
+INSERT INTO eg_pt_owner (ownerinfouuid, tenantid, propertyid, userid, status, isprimaryowner, ownertype, createdby, createdtime)
+SELECT 'bench-o-' || o || '-' || id, tenantid, id, 'bench-user-' || o || '-' || id, 'ACTIVE', o = 1, 'NONE', 'bench', 0
+FROM eg_pt_property, generate_series(1, 2) o WHERE id LIKE 'bench-p%';
+
+INSERT INTO eg_pt_unit (id, tenantid, propertyid, floorno, unittype, usagecategory, occupancytype, active, createdby, createdtime)
+SELECT 'bench-u-' || u || '-' || id, tenantid, id, u - 1, 'ROOM', 'RESIDENTIAL', 'SELFOCCUPIED', true, 'bench', 0
+FROM eg_pt_property, generate_series(1, 2) u WHERE id LIKE 'bench-p%';
+
+ANALYZE eg_pt_property;
+ANALYZE eg_pt_address;
+ANALYZE eg_pt_owner;
+ANALYZE eg_pt_unit;
+
+-- Page 1000 with the window function, every row of the tenant is joined, ranked and discarded but the page
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM (SELECT *, DENSE_RANK() OVER (ORDER BY plastmodifiedtime DESC, pid) offset_ FROM (
+    WITH propertyresult AS (
+        SELECT property.id as pid, property.propertyid, property.lastmodifiedtime as plastmodifiedtime,
+            (CASE WHEN property.status='ACTIVE' then 0 WHEN property.status='INWORKFLOW' then 1 WHEN property.status='INACTIVE' then 2 ELSE 3 END) as statusorder,
+            address.locality, owner.userid, unit.floorno
+        FROM eg_pt_property property
+        INNER JOIN eg_pt_address address ON property.id = address.propertyid
+        LEFT OUTER JOIN eg_pt_institution institution ON property.id = institution.propertyid
+        LEFT OUTER JOIN eg_pt_document pdoc ON property.id = pdoc.entityid
+        INNER JOIN eg_pt_owner owner ON property.id = owner.propertyid
+        LEFT OUTER JOIN eg_pt_document owndoc ON owner.ownerinfouuid = owndoc.entityid
+        LEFT OUTER JOIN eg_pt_unit unit ON property.id = unit.propertyid
+        WHERE property.tenantId = 'pb.tenant3' AND property.createdTime BETWEEN 0 AND 9999999999999 AND owner.status = 'ACTIVE')
+    SELECT * FROM propertyresult INNER JOIN (SELECT propertyid, min(statusorder) as minorder FROM propertyresult GROUP BY propertyid) as minresult
+    ON minresult.propertyid = propertyresult.propertyid AND minresult.minorder = propertyresult.statusorder
+) result) result_offset WHERE offset_ > 99900 AND offset_ <= 100000;
+
+-- Same page as a keyset page of ids, served from index_eg_pt_property_tenantid_modifiedtime_id
+SELECT lastmodifiedtime AS last_time, id AS last_id FROM eg_pt_property property WHERE property.tenantId = 'pb.tenant3'
+ORDER BY property.lastmodifiedtime DESC, property.id OFFSET 99899 LIMIT 1 \gset
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT property.id FROM EG_PT_PROPERTY property INNER JOIN EG_PT_ADDRESS address ON property.id = address.propertyid
+WHERE property.tenantId = 'pb.tenant3' AND property.createdTime BETWEEN 0 AND 9999999999999
+AND EXISTS (SELECT 1 FROM EG_PT_OWNER owner WHERE owner.propertyid = property.id AND owner.status = 'ACTIVE')
+AND NOT EXISTS (SELECT 1 FROM EG_PT_PROPERTY preferred WHERE preferred.propertyid = property.propertyid
+    AND (CASE WHEN preferred.status='ACTIVE' then 0 WHEN preferred.status='INWORKFLOW' then 1 WHEN preferred.status='INACTIVE' then 2 ELSE 3 END)
+      < (CASE WHEN property.status='ACTIVE' then 0 WHEN property.status='INWORKFLOW' then 1 WHEN property.status='INACTIVE' then 2 ELSE 3 END)
+    AND preferred.id IN (SELECT property.id FROM EG_PT_PROPERTY property INNER JOIN EG_PT_ADDRESS address ON property.id = address.propertyid
+        WHERE property.tenantId = 'pb.tenant3' AND property.createdTime BETWEEN 0 AND 9999999999999
+        AND EXISTS (SELECT 1 FROM EG_PT_OWNER owner WHERE owner.propertyid = property.id AND owner.status = 'ACTIVE')))
+AND (property.lastmodifiedtime < :last_time OR (property.lastmodifiedtime = :last_time AND property.id > :'last_id'))
+ORDER BY property.lastmodifiedtime DESC, property.id LIMIT 100;
+
+-- Hydration of the page
+SELECT string_agg(quote_literal(id), ',') AS page_ids FROM (
+    SELECT id FROM eg_pt_property property WHERE property.tenantId = 'pb.tenant3'
+    ORDER BY property.lastmodifiedtime DESC, property.id OFFSET 99900 LIMIT 100) page \gset
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT property.id as pid, property.lastmodifiedtime as plastmodifiedtime, address.locality, owner.userid, unit.floorno
+FROM eg_pt_property property
+INNER JOIN eg_pt_address address ON property.id = address.propertyid
+LEFT OUTER JOIN eg_pt_institution institution ON property.id = institution.propertyid
+LEFT OUTER JOIN eg_pt_document pdoc ON property.id = pdoc.entityid
+INNER JOIN eg_pt_owner owner ON property.id = owner.propertyid
+LEFT OUTER JOIN eg_pt_document owndoc ON owner.ownerinfouuid = owndoc.entityid
+LEFT OUTER JOIN eg_pt_unit unit ON property.id = unit.propertyid
+WHERE property.id IN (:page_ids) AND owner.status = 'ACTIVE'
+ORDER BY property.lastmodifiedtime DESC, property.id;
+
+-- Cleanup
+DELETE FROM eg_pt_unit WHERE id LIKE 'bench-u-%';
+DELETE FROM eg_pt_owner WHERE ownerinfouuid LIKE 'bench-o-%';
+DELETE FROM eg_pt_address WHERE id LIKE 'bench-a-%';
+DELETE FROM eg_pt_property WHERE id LIKE 'bench-p%';
@@ -172,6 +172,26 @@ public class PropertyConfiguration {
     @Value("${pt.search.pagination.max.search.limit}")
     private Long maxSearchLimit;
 
+    @Value("${pt.search.pagination.id.page.enabled:false}")
+    private Boolean isIdPageSearchEnabled;
+
+    @Value("${pt.user.search.chunk.size}")
+    private Integer userSearchChunkSize;
+
+    @Value("${pt.user.search.pool.size}")
+    private Integer userSearchPoolSize;
+
+    // Migration pipeline
+
+    @Value("${migration.pipeline.enabled}")
+    private Boolean migrationPipelineEnabled;
+
+    @Value("${migration.pipeline.worker.count}")
+    private Integer migrationWorkerCount;
+
+    @Value("${migration.pipeline.prefetch.chunks}")
+    private Integer migrationPrefetchChunks;
+
     //Localization
     @Value("${egov.localization.host}")
     private String localizationHost;
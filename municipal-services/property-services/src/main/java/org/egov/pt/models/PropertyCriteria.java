@@ -45,6 +45,10 @@ public class PropertyCriteria {
 
 	private Long limit;
 
+	private Long lastModifiedTime;
+
+	private String lastId;
+
 	private Long fromDate;
 
 	private Long toDate;
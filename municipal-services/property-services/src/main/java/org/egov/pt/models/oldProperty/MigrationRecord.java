@@ -0,0 +1,21 @@
+package org.egov.pt.models.oldProperty;
+
+import org.egov.pt.web.contracts.AssessmentRequest;
+import org.egov.pt.web.contracts.PropertyRequest;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A property detail of a legacy property translated for the migration, the property request with the
+ * assessment request of the detail
+ */
+@Getter
+@AllArgsConstructor
+public class MigrationRecord {
+
+    private PropertyRequest propertyRequest;
+
+    private AssessmentRequest assessmentRequest;
+
+}
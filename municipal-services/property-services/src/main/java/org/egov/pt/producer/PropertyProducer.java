@@ -1,13 +1,22 @@
 
 package org.egov.pt.producer;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
 import org.egov.pt.models.Property;
 import org.egov.pt.util.EncryptionDecryptionUtil;
 import org.egov.pt.util.PTConstants;
 import org.egov.pt.web.contracts.PropertyRequest;
 import org.egov.tracer.kafka.CustomKafkaTemplate;
+import org.egov.tracer.model.CustomException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
+import org.springframework.util.concurrent.ListenableFuture;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -18,6 +27,9 @@ public class PropertyProducer {
 	@Autowired
 	private CustomKafkaTemplate<String, Object> kafkaTemplate;
 
+	@Autowired
+	private KafkaTemplate<String, Object> batchKafkaTemplate;
+
 	@Autowired
 	private EncryptionDecryptionUtil encryptionDecryptionUtil;
 	
@@ -25,6 +37,30 @@ public class PropertyProducer {
 		kafkaTemplate.send(topic, value);
 	}
 
+	/**
+	 * Pushes the values without waiting on each send, returns once all of them are acknowledged. Values with
+	 * the same key go to the same partition in the order given.
+	 *
+	 * @param topic Topic the values are pushed to
+	 * @param values Values to be pushed
+	 * @param keyMapper Key of a value
+	 */
+	public <T> void pushAll(String topic, List<T> values, Function<T, String> keyMapper) {
+		List<ListenableFuture<SendResult<String, Object>>> sends = new ArrayList<>(values.size());
+		for (T value : values)
+			sends.add(batchKafkaTemplate.send(topic, keyMapper.apply(value), value));
+		try {
+			for (ListenableFuture<SendResult<String, Object>> send : sends)
+				send.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CustomException("EVENT_BUS_FAILURE", "Interrupted while pushing events onto the event bus");
+		} catch (ExecutionException e) {
+			log.error("Failed to push data to kafka queue", e);
+			throw new CustomException("EVENT_BUS_FAILURE", "Failed to push event onto the event bus");
+		}
+	}
+
 	public void pushAfterEncrytpion(String topic, PropertyRequest request) {
 		request.setProperty(encryptionDecryptionUtil.encryptObject(request.getProperty(), PTConstants.PROPERTY_MODEL, Property.class));
 		push(topic, request);
@@ -2,14 +2,18 @@
 package org.egov.pt.repository;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 import org.egov.common.contract.request.RequestInfo;
+import org.egov.pt.config.PropertyConfiguration;
 import org.egov.pt.models.EncryptionCount;
 import org.egov.pt.models.OwnerInfo;
 import org.egov.pt.models.Property;
@@ -45,6 +49,9 @@ public class PropertyRepository {
 	@Autowired
 	private PropertyQueryBuilder queryBuilder;
 
+	@Autowired
+	private PropertyConfiguration config;
+
 	@Autowired
 	private PropertyRowMapper rowMapper;
 	
@@ -75,6 +82,17 @@ public class PropertyRepository {
 
 	public List<Property> getProperties(PropertyCriteria criteria, Boolean isApiOpen, Boolean isPlainSearch) {
 
+		if (config.getIsIdPageSearchEnabled()) {
+			/*
+			 * The page of ids is fetched first and only the properties of the page are joined with
+			 * their address, owners, documents and units
+			 */
+			List<String> ids = getPropertyPageIds(criteria, isPlainSearch);
+			if (CollectionUtils.isEmpty(ids))
+				return Collections.emptyList();
+			return getPropertiesByIds(ids, isApiOpen);
+		}
+
 		List<Object> preparedStmtList = new ArrayList<>();
 		String query = queryBuilder.getPropertySearchQuery(criteria, preparedStmtList, isPlainSearch, false);
 		if (isApiOpen)
@@ -83,6 +101,37 @@ public class PropertyRepository {
 			return jdbcTemplate.query(query, preparedStmtList.toArray(), rowMapper);
 	}
 
+	private List<String> getPropertyPageIds(PropertyCriteria criteria, Boolean isPlainSearch) {
+
+		List<Object> preparedStmtList = new ArrayList<>();
+		String query = queryBuilder.getPropertyPageIdsQuery(criteria, preparedStmtList, isPlainSearch);
+		return jdbcTemplate.query(query, preparedStmtList.toArray(), new SingleColumnRowMapper<>(String.class));
+	}
+
+	private List<Property> getPropertiesByIds(List<String> ids, Boolean isApiOpen) {
+
+		List<Object> preparedStmtList = new ArrayList<>();
+		String query = queryBuilder.getPropertyByIdsQuery(ids, preparedStmtList);
+		if (isApiOpen)
+			return jdbcTemplate.query(query, preparedStmtList.toArray(), openRowMapper);
+		else
+			return jdbcTemplate.query(query, preparedStmtList.toArray(), rowMapper);
+	}
+
+	/**
+	 * Returns the user uuids of the owners of the given properties
+	 * 
+	 * @param ids ids of the properties
+	 * @param onlyActive whether only the active owners are to be returned
+	 * @return
+	 */
+	public Set<String> getOwnerUserIds(Collection<String> ids, Boolean onlyActive) {
+
+		List<Object> preparedStmtList = new ArrayList<>();
+		String query = queryBuilder.getOwnerUserIdsQuery(new HashSet<>(ids), onlyActive, preparedStmtList);
+		return new HashSet<>(jdbcTemplate.query(query, preparedStmtList.toArray(), new SingleColumnRowMapper<>(String.class)));
+	}
+
 	public List<String> getPropertyIds(PropertyCriteria criteria) {
 
 		List<Object> preparedStmtList = new ArrayList<>();
@@ -151,6 +200,21 @@ public class PropertyRepository {
 
 		if (criteria.isAudit() && !isOpenSearch) {
 			properties = getPropertyAudit(criteria);
+		} else if (config.getIsIdPageSearchEnabled()) {
+
+			List<String> ids = getPropertyPageIds(criteria, false);
+			if (CollectionUtils.isEmpty(ids))
+				return Collections.emptyList();
+
+			// owners of the page are searched in user service while the page is being fetched
+			CompletableFuture<UserDetailResponse> owners = userService.getUsersByUuidsAsync(criteria.getTenantId(),
+					requestInfo, () -> getOwnerUserIds(ids, true));
+			properties = getPropertiesByIds(ids, isOpenSearch);
+			UserDetailResponse userDetailResponse = getOwners(owners);
+			if (CollectionUtils.isEmpty(properties))
+				return Collections.emptyList();
+			util.enrichOwner(userDetailResponse, properties, isOpenSearch);
+			return properties;
 		} else {
 
 			properties = getProperties(criteria, isOpenSearch, false);
@@ -161,14 +225,24 @@ public class PropertyRepository {
 		Set<String> ownerIds = properties.stream().map(Property::getOwners).flatMap(List::stream)
 				.map(OwnerInfo::getUuid).collect(Collectors.toSet());
 
-		UserSearchRequest userSearchRequest = userService.getBaseUserSearchRequest(criteria.getTenantId(), requestInfo);
-		userSearchRequest.setUuid(ownerIds);
-
-		UserDetailResponse userDetailResponse = userService.getUser(userSearchRequest);
+		UserDetailResponse userDetailResponse = userService.getUsersByUuids(criteria.getTenantId(), requestInfo, ownerIds);
 		util.enrichOwner(userDetailResponse, properties, isOpenSearch);
 		return properties;
 	}
 	
+	/**
+	 * Waits for the owner search, failures of the search are rethrown as they were thrown by user search
+	 */
+	public UserDetailResponse getOwners(CompletableFuture<UserDetailResponse> owners) {
+		try {
+			return owners.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw e;
+		}
+	}
+
 	private List<Property> getPropertyAudit(PropertyCriteria criteria) {
 
 		String query = queryBuilder.getpropertyAuditQuery();
@@ -202,12 +276,16 @@ public class PropertyRepository {
 		if(criteria.getTenantId() == null)
 			userTenant = requestInfo.getUserInfo().getTenantId();
 
-		UserSearchRequest userSearchRequest = userService.getBaseUserSearchRequest(userTenant, requestInfo);
-		userSearchRequest.setMobileNumber(criteria.getMobileNumber());
-		userSearchRequest.setName(criteria.getName());
-		userSearchRequest.setUuid(ownerIds);
-
-		UserDetailResponse userDetailResponse = userService.getUser(userSearchRequest);
+		UserDetailResponse userDetailResponse;
+		if (criteria.getMobileNumber() == null && criteria.getName() == null && !ownerIds.isEmpty()) {
+			userDetailResponse = userService.getUsersByUuids(userTenant, requestInfo, ownerIds);
+		} else {
+			UserSearchRequest userSearchRequest = userService.getBaseUserSearchRequest(userTenant, requestInfo);
+			userSearchRequest.setMobileNumber(criteria.getMobileNumber());
+			userSearchRequest.setName(criteria.getName());
+			userSearchRequest.setUuid(ownerIds);
+			userDetailResponse = userService.getUser(userSearchRequest);
+		}
 		if (CollectionUtils.isEmpty(userDetailResponse.getUser()))
 			return true;
 
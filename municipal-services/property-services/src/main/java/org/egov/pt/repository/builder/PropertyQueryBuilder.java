@@ -1,5 +1,6 @@
 package org.egov.pt.repository.builder;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -29,6 +30,8 @@ public class PropertyQueryBuilder {
 
 	private static String PROEPRTY_ID_QUERY = "select propertyid from eg_pt_property where id in (select propertyid from eg_pt_owner where userid IN {replace} AND status='ACTIVE') ";
 
+	private static String OWNER_USER_ID_QUERY = "select distinct userid from eg_pt_owner where propertyid IN ({replace})";
+
 	private static String REPLACE_STRING = "{replace}";
 	
 	private static String WITH_CLAUSE_QUERY = " WITH propertyresult AS ({replace}) SELECT * FROM propertyresult "
@@ -119,6 +122,26 @@ public class PropertyQueryBuilder {
 			+	LEFT_JOIN  +  " EG_PT_UNIT unit		          ON property.id =  unit.propertyid ";
 	
 
+	private static final String PAGE_ID_QUERY = SELECT
+
+			+   " property.id FROM EG_PT_PROPERTY property "
+
+			+   INNER_JOIN +  " EG_PT_ADDRESS address         ON property.id = address.propertyid ";
+
+	private static final String ACTIVE_OWNER_EXISTS_CLAUSE = " EXISTS (SELECT 1 FROM EG_PT_OWNER owner WHERE owner.propertyid = property.id AND owner.status = ?)";
+
+	private static final String STATUS_ORDER = "(CASE WHEN {alias}.status='ACTIVE' then 0 WHEN {alias}.status='INWORKFLOW' then 1 WHEN {alias}.status='INACTIVE' then 2 ELSE 3 END)";
+
+	/*
+	 * a version with a lower status order hides the property only when it matches the search as well, the ids
+	 * query of the search is nested as is, its aliases hide the ones of the outer query
+	 */
+	private static final String PREFERRED_VERSION_NOT_EXISTS_CLAUSE = " NOT EXISTS (SELECT 1 FROM EG_PT_PROPERTY preferred WHERE preferred.propertyid = property.propertyid"
+			+ " AND " + STATUS_ORDER.replace("{alias}", "preferred") + " < " + STATUS_ORDER.replace("{alias}", "property")
+			+ " AND preferred.id IN ({replace}))";
+
+	private static final String PAGE_ORDER_BY = " ORDER BY property.lastmodifiedtime DESC, property.id";
+
 	private final String paginationWrapper = "SELECT * FROM "
 			+ "(SELECT *, DENSE_RANK() OVER (ORDER BY plastmodifiedtime DESC, pid) offset_ FROM " + "({})" + " result) result_offset "
 			+ "WHERE offset_ > ? AND offset_ <= ?";
@@ -155,6 +178,123 @@ public class PropertyQueryBuilder {
 	 */
 	public String getPropertySearchQuery(PropertyCriteria criteria, List<Object> preparedStmtList,Boolean isPlainSearch, Boolean onlyIds) {
 
+		validateSearchCriteria(criteria);
+
+		StringBuilder builder;
+
+		if (onlyIds)
+			builder = new StringBuilder(ID_QUERY);
+		
+		else if (criteria.getIsRequestForCount()) {
+			builder = new StringBuilder(COUNT_QUERY);
+			
+		} else
+			builder = new StringBuilder(QUERY);
+
+		addPropertyFilters(criteria, preparedStmtList, builder, isPlainSearch);
+		
+		/* 
+		 * Condition to evaluate if owner is active.
+		 * Inactive owners should never be shown in results
+		*/
+		
+		addClauseIfRequired(preparedStmtList,builder);
+		builder.append("owner.status = ?");
+		preparedStmtList.add(Status.ACTIVE.toString());
+		
+
+		String withClauseQuery = WITH_CLAUSE_QUERY.replace(REPLACE_STRING, builder);
+		if (onlyIds || criteria.getIsRequestForCount())
+			return builder.toString();
+		else 
+			return addPaginationWrapper(withClauseQuery, preparedStmtList, criteria);
+	}
+
+
+	/**
+	 * Returns the query fetching one page of property ids, the page is ordered by lastmodifiedtime and id
+	 * and is read from the tenant/lastmodifiedtime index without building the joined rows of the skipped
+	 * pages. When the last lastmodifiedtime and id of the previous page are given the page starts right
+	 * after them (keyset), else the offset is applied on the ids.
+	 * 
+	 * Owner and status filters are applied as sub-queries instead of joins so that every property is
+	 * returned once, of the versions of a property matching the search the one with the lowest status order
+	 * is returned, same as the search query.
+	 * 
+	 * @param criteria
+	 * @param preparedStmtList
+	 * @param isPlainSearch
+	 * @return
+	 */
+	public String getPropertyPageIdsQuery(PropertyCriteria criteria, List<Object> preparedStmtList, Boolean isPlainSearch) {
+
+		validateSearchCriteria(criteria);
+
+		StringBuilder builder = new StringBuilder(getMatchingIdsQuery(criteria, preparedStmtList, isPlainSearch));
+
+		List<Object> preferredStmtList = new ArrayList<>();
+		String preferredIdsQuery = getMatchingIdsQuery(criteria, preferredStmtList, isPlainSearch);
+		addClauseIfRequired(preparedStmtList, builder);
+		builder.append(PREFERRED_VERSION_NOT_EXISTS_CLAUSE.replace(REPLACE_STRING, preferredIdsQuery));
+		preparedStmtList.addAll(preferredStmtList);
+
+		Long limit = config.getDefaultLimit();
+		if (criteria.getLimit() != null)
+			limit = Math.min(criteria.getLimit(), config.getMaxSearchLimit());
+
+		if (criteria.getLastModifiedTime() != null && criteria.getLastId() != null) {
+			addClauseIfRequired(preparedStmtList, builder);
+			builder.append(" (property.lastmodifiedtime < ? OR (property.lastmodifiedtime = ? AND property.id > ?))");
+			preparedStmtList.add(criteria.getLastModifiedTime());
+			preparedStmtList.add(criteria.getLastModifiedTime());
+			preparedStmtList.add(criteria.getLastId());
+			builder.append(PAGE_ORDER_BY).append(" LIMIT ?");
+			preparedStmtList.add(limit);
+		} else {
+			builder.append(PAGE_ORDER_BY).append(" OFFSET ? LIMIT ?");
+			preparedStmtList.add(criteria.getOffset() != null ? criteria.getOffset() : config.getDefaultOffset());
+			preparedStmtList.add(limit);
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Ids of the properties matching the search filters with an active owner, all the versions of a property
+	 * are matched
+	 */
+	private String getMatchingIdsQuery(PropertyCriteria criteria, List<Object> preparedStmtList, Boolean isPlainSearch) {
+
+		StringBuilder builder = new StringBuilder(PAGE_ID_QUERY);
+		addPropertyFilters(criteria, preparedStmtList, builder, isPlainSearch);
+
+		addClauseIfRequired(preparedStmtList, builder);
+		builder.append(ACTIVE_OWNER_EXISTS_CLAUSE);
+		preparedStmtList.add(Status.ACTIVE.toString());
+		return builder.toString();
+	}
+
+	/**
+	 * Returns the query fetching the properties with the given ids along with their address, owners,
+	 * documents and units, in the order of the page
+	 * 
+	 * @param ids ids of the properties in the page
+	 * @param preparedStmtList
+	 * @return
+	 */
+	public String getPropertyByIdsQuery(List<String> ids, List<Object> preparedStmtList) {
+
+		Set<String> idSet = new HashSet<>(ids);
+		StringBuilder builder = new StringBuilder(QUERY);
+		builder.append(" WHERE property.id IN (").append(createQuery(idSet)).append(")");
+		addToPreparedStatement(preparedStmtList, idSet);
+		builder.append(" AND owner.status = ?");
+		preparedStmtList.add(Status.ACTIVE.toString());
+		builder.append(" ORDER BY property.lastmodifiedtime DESC, property.id");
+		return builder.toString();
+	}
+
+	private void validateSearchCriteria(PropertyCriteria criteria) {
+
 		Boolean isEmpty = CollectionUtils.isEmpty(criteria.getPropertyIds())
 					&& CollectionUtils.isEmpty(criteria.getAcknowledgementIds())
 					&& CollectionUtils.isEmpty(criteria.getOldpropertyids())
@@ -169,16 +309,9 @@ public class PropertyQueryBuilder {
 		if(isEmpty)
 			throw new CustomException("EG_PT_SEARCH_ERROR"," No criteria given for the property search");
 		
-		StringBuilder builder;
+	}
 
-		if (onlyIds)
-			builder = new StringBuilder(ID_QUERY);
-		
-		else if (criteria.getIsRequestForCount()) {
-			builder = new StringBuilder(COUNT_QUERY);
-			
-		} else
-			builder = new StringBuilder(QUERY);
+	private void addPropertyFilters(PropertyCriteria criteria, List<Object> preparedStmtList, StringBuilder builder, Boolean isPlainSearch) {
 
 		if(isPlainSearch)
 		{
@@ -284,24 +417,8 @@ public class PropertyQueryBuilder {
 			addToPreparedStatement(preparedStmtList, oldpropertyids);
 		}
 		
-		/* 
-		 * Condition to evaluate if owner is active.
-		 * Inactive owners should never be shown in results
-		*/
-		
-		addClauseIfRequired(preparedStmtList,builder);
-		builder.append("owner.status = ?");
-		preparedStmtList.add(Status.ACTIVE.toString());
-		
-
-		String withClauseQuery = WITH_CLAUSE_QUERY.replace(REPLACE_STRING, builder);
-		if (onlyIds || criteria.getIsRequestForCount())
-			return builder.toString();
-		else 
-			return addPaginationWrapper(withClauseQuery, preparedStmtList, criteria);
 	}
 
-
 	public String getPropertyQueryForBulkSearch(PropertyCriteria criteria, List<Object> preparedStmtList,Boolean isPlainSearch) {
 
 		Boolean isEmpty = CollectionUtils.isEmpty(criteria.getPropertyIds())
@@ -397,6 +514,17 @@ public class PropertyQueryBuilder {
 		return propertyIdQuery.toString();
 	}
 
+	public String getOwnerUserIdsQuery(Set<String> ids, Boolean onlyActive, List<Object> preparedStmtList) {
+
+		StringBuilder query = new StringBuilder(OWNER_USER_ID_QUERY.replace(REPLACE_STRING, createQuery(ids)));
+		addToPreparedStatement(preparedStmtList, ids);
+		if (onlyActive) {
+			query.append(" AND status = ?");
+			preparedStmtList.add(Status.ACTIVE.toString());
+		}
+		return query.toString();
+	}
+
 	private String createQuery(Set<String> ids) {
 		StringBuilder builder = new StringBuilder();
 		int length = ids.size();
@@ -454,129 +454,152 @@ public class MigrationService {
         List<Property> properties = new ArrayList<>();
         for(OldProperty oldProperty : oldProperties){
 
-            String Id = UUID.randomUUID().toString();
-            String propertyId = oldProperty.getPropertyId();
-            String tenantId= oldProperty.getTenantId();
-            String accountId = requestInfo.getUserInfo().getUuid();
-            String oldPropertyId = oldProperty.getOldPropertyId();
-            Status status = Status.fromValue(oldProperty.getStatus().toString());
-
-            Collections.sort(oldProperty.getPropertyDetails(), new Comparator<PropertyDetail>() {
-                @Override
-                public int compare(PropertyDetail pd1, PropertyDetail pd2) {
-                    return pd1.getAuditDetails().getCreatedTime().compareTo(pd2.getAuditDetails().getCreatedTime());
-                }
-            });
-
-            for(int i=0;i< oldProperty.getPropertyDetails().size();i++){
-                Property property = new Property();
-                property.setId(Id);
-                property.setPropertyId(propertyId);
-                property.setTenantId(tenantId);
-                property.setAccountId(accountId);
-                property.setOldPropertyId(oldPropertyId);
-                property.setStatus(status);
-
-                if(oldProperty.getAddress()!=null)
-                    property.setAddress(migrateAddress(oldProperty.getAddress()));
-                else
-                    property.setAddress(null);
-                property.setAcknowldgementNumber(oldProperty.getAcknowldgementNumber());
+            for(MigrationRecord record : translateProperty(requestInfo, oldProperty, masters, errorMap)){
+                producer.push(config.getSavePropertyTopic(), record.getPropertyRequest());
+                properties.add(record.getPropertyRequest().getProperty());
 
-                if(oldProperty.getPropertyDetails().get(i) != null){
-                    property.setPropertyType(migratePropertyType(oldProperty.getPropertyDetails().get(i)));
-                    property.setOwnershipCategory(migrateOwnwershipCategory(oldProperty.getPropertyDetails().get(i)));
-                    property.setUsageCategory(migrateUsageCategory(oldProperty.getPropertyDetails().get(i)));
-                }
-                else{
-                    property.setPropertyType(null);
-                    property.setOwnershipCategory(null);
-                    property.setUsageCategory(null);
-                }
+                if(record.getAssessmentRequest() != null)
+                    producer.push(config.getCreateAssessmentTopic(), record.getAssessmentRequest());
+            }
+            count2++;
+        }
 
+        return properties;
+    }
 
-                if(oldProperty.getPropertyDetails().get(i).getInstitution() == null)
-                    property.setInstitution(null);
-                else
-                    property.setInstitution(migrateInstitution(oldProperty.getPropertyDetails().get(i).getInstitution()));
+    /**
+     * Translates the legacy property into a property request per property detail, oldest detail first, each
+     * with the assessment of the detail. The requests are validated, validation errors are added to the
+     * errorMap, nothing is pushed.
+     *
+     * @param requestInfo RequestInfo of the migration request
+     * @param oldProperty Legacy property
+     * @param masters Master data codes used for validation
+     * @param errorMap Map the validation errors are added to
+     * @return the translated records
+     */
+    public List<MigrationRecord> translateProperty(RequestInfo requestInfo, OldProperty oldProperty,Map<String, List<String>> masters,Map<String, String> errorMap) {
+        List<MigrationRecord> records = new ArrayList<>();
+
+        String Id = UUID.randomUUID().toString();
+        String propertyId = oldProperty.getPropertyId();
+        String tenantId= oldProperty.getTenantId();
+        String accountId = requestInfo.getUserInfo().getUuid();
+        String oldPropertyId = oldProperty.getOldPropertyId();
+        Status status = Status.fromValue(oldProperty.getStatus().toString());
+
+        Collections.sort(oldProperty.getPropertyDetails(), new Comparator<PropertyDetail>() {
+            @Override
+            public int compare(PropertyDetail pd1, PropertyDetail pd2) {
+                return pd1.getAuditDetails().getCreatedTime().compareTo(pd2.getAuditDetails().getCreatedTime());
+            }
+        });
 
-                if(!StringUtils.isEmpty(oldProperty.getCreationReason()))
-                    property.setCreationReason(CreationReason.fromValue(String.valueOf(oldProperty.getCreationReason())));
+        for(int i=0;i< oldProperty.getPropertyDetails().size();i++){
+            Property property = new Property();
+            property.setId(Id);
+            property.setPropertyId(propertyId);
+            property.setTenantId(tenantId);
+            property.setAccountId(accountId);
+            property.setOldPropertyId(oldPropertyId);
+            property.setStatus(status);
+
+            if(oldProperty.getAddress()!=null)
+                property.setAddress(migrateAddress(oldProperty.getAddress()));
+            else
+                property.setAddress(null);
+            property.setAcknowldgementNumber(oldProperty.getAcknowldgementNumber());
 
+            if(oldProperty.getPropertyDetails().get(i) != null){
+                property.setPropertyType(migratePropertyType(oldProperty.getPropertyDetails().get(i)));
+                property.setOwnershipCategory(migrateOwnwershipCategory(oldProperty.getPropertyDetails().get(i)));
+                property.setUsageCategory(migrateUsageCategory(oldProperty.getPropertyDetails().get(i)));
+            }
+            else{
+                property.setPropertyType(null);
+                property.setOwnershipCategory(null);
+                property.setUsageCategory(null);
+            }
 
-                property.setNoOfFloors(oldProperty.getPropertyDetails().get(i).getNoOfFloors());
 
-                if(!StringUtils.isEmpty(oldProperty.getPropertyDetails().get(i).getBuildUpArea()))
-                    property.setSuperBuiltUpArea(BigDecimal.valueOf(oldProperty.getPropertyDetails().get(i).getBuildUpArea()));
+            if(oldProperty.getPropertyDetails().get(i).getInstitution() == null)
+                property.setInstitution(null);
+            else
+                property.setInstitution(migrateInstitution(oldProperty.getPropertyDetails().get(i).getInstitution()));
 
-                if(!StringUtils.isEmpty(oldProperty.getPropertyDetails().get(i).getLandArea()))
-                    property.setLandArea(Double.valueOf(oldProperty.getPropertyDetails().get(i).getLandArea()));
+            if(!StringUtils.isEmpty(oldProperty.getCreationReason()))
+                property.setCreationReason(CreationReason.fromValue(String.valueOf(oldProperty.getCreationReason())));
 
-                if(!StringUtils.isEmpty(Source.fromValue(String.valueOf(oldProperty.getPropertyDetails().get(i).getSource()))))
-                    property.setSource(Source.fromValue(String.valueOf(oldProperty.getPropertyDetails().get(i).getSource())));
-                else
-                    property.setSource(Source.fromValue("MUNICIPAL_RECORDS"));
 
-                if(!StringUtils.isEmpty(Channel.fromValue(String.valueOf(oldProperty.getPropertyDetails().get(i).getChannel()))))
-                    property.setChannel(Channel.fromValue(String.valueOf(oldProperty.getPropertyDetails().get(i).getChannel())));
-                else
-                    property.setChannel(Channel.fromValue("MIGRATION"));
+            property.setNoOfFloors(oldProperty.getPropertyDetails().get(i).getNoOfFloors());
 
-                if(oldProperty.getPropertyDetails().get(i).getDocuments() == null)
-                    property.setDocuments(null);
-                else
-                    property.setDocuments(migrateDocument(oldProperty.getPropertyDetails().get(i).getDocuments()));
+            if(!StringUtils.isEmpty(oldProperty.getPropertyDetails().get(i).getBuildUpArea()))
+                property.setSuperBuiltUpArea(BigDecimal.valueOf(oldProperty.getPropertyDetails().get(i).getBuildUpArea()));
 
-                List<Unit> units = new ArrayList<>();
-                if(oldProperty.getPropertyDetails().get(i).getUnits() == null)
-                    property.setUnits(null);
-                else{
-                    units=migrateUnit(oldProperty.getPropertyDetails().get(i).getUnits());
-                    property.setUnits(units);
+            if(!StringUtils.isEmpty(oldProperty.getPropertyDetails().get(i).getLandArea()))
+                property.setLandArea(Double.valueOf(oldProperty.getPropertyDetails().get(i).getLandArea()));
 
-                }
+            if(!StringUtils.isEmpty(Source.fromValue(String.valueOf(oldProperty.getPropertyDetails().get(i).getSource()))))
+                property.setSource(Source.fromValue(String.valueOf(oldProperty.getPropertyDetails().get(i).getSource())));
+            else
+                property.setSource(Source.fromValue("MUNICIPAL_RECORDS"));
 
+            if(!StringUtils.isEmpty(Channel.fromValue(String.valueOf(oldProperty.getPropertyDetails().get(i).getChannel()))))
+                property.setChannel(Channel.fromValue(String.valueOf(oldProperty.getPropertyDetails().get(i).getChannel())));
+            else
+                property.setChannel(Channel.fromValue("MIGRATION"));
 
-                if(oldProperty.getPropertyDetails().get(i).getAdditionalDetails() == null)
-                    property.setAdditionalDetails(null);
-                else{
-                    JsonNode additionalDetails = mapper.convertValue(oldProperty.getPropertyDetails().get(i).getAdditionalDetails(),JsonNode.class);
-                    property.setAdditionalDetails(additionalDetails);
-                }
+            if(oldProperty.getPropertyDetails().get(i).getDocuments() == null)
+                property.setDocuments(null);
+            else
+                property.setDocuments(migrateDocument(oldProperty.getPropertyDetails().get(i).getDocuments()));
 
+            List<Unit> units = new ArrayList<>();
+            if(oldProperty.getPropertyDetails().get(i).getUnits() == null)
+                property.setUnits(null);
+            else{
+                units=migrateUnit(oldProperty.getPropertyDetails().get(i).getUnits());
+                property.setUnits(units);
 
-                if( oldProperty.getPropertyDetails().get(i).getAuditDetails() == null)
-                    property.setAuditDetails(null);
-                else
-                    property.setAuditDetails(migrateAuditDetails(oldProperty.getPropertyDetails().get(i).getAuditDetails()));
+            }
 
 
-                if(oldProperty.getPropertyDetails().get(i).getOwners()!=null){
-                    List<OwnerInfo> ownerInfos = migrateOwnerInfo(oldProperty.getPropertyDetails().get(i).getOwners());
-                    property.setOwners(ownerInfos);
-                }
-                else
-                    property.setOwners(null);
+            if(oldProperty.getPropertyDetails().get(i).getAdditionalDetails() == null)
+                property.setAdditionalDetails(null);
+            else{
+                JsonNode additionalDetails = mapper.convertValue(oldProperty.getPropertyDetails().get(i).getAdditionalDetails(),JsonNode.class);
+                property.setAdditionalDetails(additionalDetails);
+            }
 
-                PropertyRequest request = PropertyRequest.builder().requestInfo(requestInfo).property(property).build();
-                try{
-                    propertyMigrationValidator.validatePropertyCreateRequest(request,masters,errorMap);
-                } catch (Exception e) {
-                    log.error("Error while migrating prperty data of " + property.getPropertyId(), e);
-                }
 
-                producer.push(config.getSavePropertyTopic(), request);
-                properties.add(property);
+            if( oldProperty.getPropertyDetails().get(i).getAuditDetails() == null)
+                property.setAuditDetails(null);
+            else
+                property.setAuditDetails(migrateAuditDetails(oldProperty.getPropertyDetails().get(i).getAuditDetails()));
 
 
-                if(oldProperty.getPropertyDetails().get(i)!=null)
-                    migrateAssesment(oldProperty.getPropertyDetails().get(i),property,requestInfo,errorMap,masters,units);
+            if(oldProperty.getPropertyDetails().get(i).getOwners()!=null){
+                List<OwnerInfo> ownerInfos = migrateOwnerInfo(oldProperty.getPropertyDetails().get(i).getOwners());
+                property.setOwners(ownerInfos);
+            }
+            else
+                property.setOwners(null);
 
+            PropertyRequest request = PropertyRequest.builder().requestInfo(requestInfo).property(property).build();
+            try{
+                propertyMigrationValidator.validatePropertyCreateRequest(request,masters,errorMap);
+            } catch (Exception e) {
+                log.error("Error while migrating prperty data of " + property.getPropertyId(), e);
             }
-            count2++;
+
+            AssessmentRequest assessmentRequest = null;
+            if(oldProperty.getPropertyDetails().get(i)!=null)
+                assessmentRequest = translateAssessment(oldProperty.getPropertyDetails().get(i),property,requestInfo,errorMap,masters,units);
+
+            records.add(new MigrationRecord(request, assessmentRequest));
         }
 
-        return properties;
+        return records;
     }
 
     public Address migrateAddress(org.egov.pt.models.oldProperty.Address oldAddress){
@@ -843,6 +866,13 @@ public class MigrationService {
 
 
     public void migrateAssesment(PropertyDetail propertyDetail, Property property, RequestInfo requestInfo,Map<String,String> errorMap,Map<String, List<String>> masters, List<Unit> units){
+        producer.push(config.getCreateAssessmentTopic(), translateAssessment(propertyDetail, property, requestInfo, errorMap, masters, units));
+    }
+
+    /**
+     * Translates the legacy property detail into the assessment of the migrated property and validates it
+     */
+    public AssessmentRequest translateAssessment(PropertyDetail propertyDetail, Property property, RequestInfo requestInfo,Map<String,String> errorMap,Map<String, List<String>> masters, List<Unit> units){
         Assessment assessment = new Assessment();
         assessment.setId(String.valueOf(UUID.randomUUID()));
         assessment.setTenantId(propertyDetail.getTenantId());
@@ -920,8 +950,7 @@ public class MigrationService {
             log.error("Error while migrating assessment data of " + assessment.getAssessmentNumber(), e);
             errorMap.put(assessment.getAssessmentNumber(), String.valueOf(e));
         }
-        //assessmentRequestList.add(request);
-        producer.push(config.getCreateAssessmentTopic(), request);
+        return request;
     }
 
     public Map<String,String> addAssessmentPenaltyandRebate(Map<String,String> assessmentAdditionalDetail,PropertyDetail propertyDetail){
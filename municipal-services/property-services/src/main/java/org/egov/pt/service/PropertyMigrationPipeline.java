@@ -0,0 +1,421 @@
+package org.egov.pt.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.egov.common.contract.request.RequestInfo;
+import org.egov.pt.config.PropertyConfiguration;
+import org.egov.pt.models.oldProperty.MigrationCount;
+import org.egov.pt.models.oldProperty.MigrationRecord;
+import org.egov.pt.models.oldProperty.OldProperty;
+import org.egov.pt.models.oldProperty.OldPropertyCriteria;
+import org.egov.pt.producer.PropertyProducer;
+import org.egov.pt.web.contracts.AssessmentRequest;
+import org.egov.pt.web.contracts.PropertyMigrationCountRequest;
+import org.egov.pt.web.contracts.PropertyRequest;
+import org.egov.pt.web.contracts.RequestInfoWrapper;
+import org.egov.tracer.model.CustomException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.ObjectUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Migration of the legacy properties in stages.
+ *
+ * A reader thread fetches the batches of a tenant from the legacy property search ahead of the migration, the
+ * properties of a batch are translated and validated in parallel, the property and assessment requests of
+ * the batch are then pushed together and the batch count is checkpointed. A batch with a property failing
+ * translation is neither pushed nor checkpointed and stops the migration of the tenant. A rerun resumes every
+ * tenant after its last checkpointed batch, same as the sequential migration.
+ *
+ * Records and errors of each stage are counted in the pt.migration.records and pt.migration.errors metrics
+ * and returned with the rate of the stage by getProgress.
+ */
+@Slf4j
+@Service
+public class PropertyMigrationPipeline {
+
+    private static final String RECORDS_METRIC = "pt.migration.records";
+
+    private static final String ERRORS_METRIC = "pt.migration.errors";
+
+    private static final String STAGE_READ = "read";
+
+    private static final String STAGE_TRANSFORM = "transform";
+
+    private static final String STAGE_VALIDATE = "validate";
+
+    private static final String STAGE_PUBLISH = "publish";
+
+    private static final String STAGE_CHECKPOINT = "checkpoint";
+
+    private static final String[] STAGES = { STAGE_READ, STAGE_TRANSFORM, STAGE_VALIDATE, STAGE_PUBLISH, STAGE_CHECKPOINT };
+
+    private static final Batch END = new Batch(-1, null, null);
+
+    @Autowired
+    private MigrationService migrationService;
+
+    @Autowired
+    private PropertyProducer producer;
+
+    @Autowired
+    private PropertyConfiguration config;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Value("${migration.batch.value}")
+    private Integer batchSize;
+
+    @Value("${migration.offset.value}")
+    private Integer batchOffset;
+
+    private ExecutorService readExecutor;
+
+    private ExecutorService transformExecutor;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final Map<String, StageStats> stages = new LinkedHashMap<>();
+
+    private volatile long startTime;
+
+    private volatile long endTime;
+
+    private volatile String currentTenant;
+
+    private volatile long currentOffset;
+
+    @PostConstruct
+    public void init() {
+        if (meterRegistry == null)
+            meterRegistry = Metrics.globalRegistry;
+        for (String stage : STAGES)
+            stages.put(stage, new StageStats(stage));
+        readExecutor = Executors.newCachedThreadPool(daemonThreads("pt-migration-read"));
+        transformExecutor = Executors.newFixedThreadPool(config.getMigrationWorkerCount(), daemonThreads("pt-migration-transform"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        readExecutor.shutdownNow();
+        transformExecutor.shutdownNow();
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Migrates the properties of all the tenants, each tenant resumes after its last checkpointed batch
+     *
+     * @param requestInfoWrapper Request of the migration
+     * @param propertyCriteria Batch size (limit) and the offset to start from for tenants not migrated yet
+     * @param errorMap Map the validation errors are added to
+     * @return status of the migrated properties, the failed batch of a tenant if any
+     */
+    public Map<String, String> migrate(RequestInfoWrapper requestInfoWrapper, OldPropertyCriteria propertyCriteria, Map<String, String> errorMap) {
+
+        if (!running.compareAndSet(false, true))
+            throw new CustomException("EG_PT_MIGRATION_RUNNING", "A property migration is already running on this instance");
+
+        try {
+            stages.values().forEach(StageStats::reset);
+            startTime = System.nanoTime();
+
+            RequestInfo requestInfo = requestInfoWrapper.getRequestInfo();
+            Map<String, List<String>> masters = migrationService.getMDMSData(requestInfo, config.getStateLevelTenantId());
+            long limit = propertyCriteria.getLimit() != null ? propertyCriteria.getLimit() : batchSize;
+            long startOffset = propertyCriteria.getOffset() != null ? propertyCriteria.getOffset() : batchOffset;
+            Map<String, String> responseMap = new LinkedHashMap<>();
+
+            for (String tenantId : migrationService.getTenantList()) {
+
+                long count = migrationService.getTenantCount(tenantId);
+                MigrationCount migrationCount = migrationService.getMigrationCountForTenant(tenantId);
+                long offset = startOffset;
+                if (!ObjectUtils.isEmpty(migrationCount) && migrationCount.getId() != null) {
+                    if (migrationCount.getRecordCount() >= count)
+                        continue;
+                    offset = migrationCount.getOffset() + migrationCount.getLimit();
+                }
+                migrateTenant(requestInfoWrapper, tenantId, offset, limit, count, masters, responseMap, errorMap);
+            }
+            return responseMap;
+        } finally {
+            currentTenant = null;
+            endTime = System.nanoTime();
+            running.set(false);
+        }
+    }
+
+    /**
+     * Progress of the running or last migration
+     *
+     * @return records, errors and records per second of each stage with the tenant and batch being migrated
+     */
+    public Map<String, Object> getProgress() {
+        boolean isRunning = running.get();
+        double elapsedSeconds = Math.max((isRunning ? System.nanoTime() : endTime) - startTime, 1) / 1e9;
+        Map<String, Object> progress = new LinkedHashMap<>();
+        progress.put("running", isRunning);
+        progress.put("tenantId", currentTenant);
+        progress.put("offset", currentOffset);
+        Map<String, Object> stageProgress = new LinkedHashMap<>();
+        stages.forEach((name, stats) -> {
+            Map<String, Object> values = new LinkedHashMap<>();
+            long records = stats.records.sum();
+            values.put("records", records);
+            values.put("errors", stats.errors.sum());
+            values.put("recordsPerSecond", startTime == 0 ? 0 : Math.round(records / elapsedSeconds));
+            stageProgress.put(name, values);
+        });
+        progress.put("stages", stageProgress);
+        return progress;
+    }
+
+    private void migrateTenant(RequestInfoWrapper requestInfoWrapper, String tenantId, long offset, long limit, long count,
+                               Map<String, List<String>> masters, Map<String, String> responseMap, Map<String, String> errorMap) {
+
+        log.info("Migrating properties of tenant: " + tenantId + " from: " + offset + " of: " + count);
+        currentTenant = tenantId;
+        RequestInfo requestInfo = requestInfoWrapper.getRequestInfo();
+
+        BlockingQueue<Batch> batches = new ArrayBlockingQueue<>(Math.max(config.getMigrationPrefetchChunks(), 1));
+        Future<?> reader = readExecutor.submit(() -> read(requestInfoWrapper, tenantId, offset, limit, count, batches));
+
+        try {
+            while (true) {
+                Batch batch = batches.take();
+                if (batch == END)
+                    return;
+                currentOffset = batch.offset;
+                if (batch.error != null) {
+                    log.error("Migration failed at batch count of : " + batch.offset, batch.error);
+                    responseMap.put("Migration failed at batch count : " + batch.offset, batch.error.getMessage());
+                    return;
+                }
+
+                Translations translations = transform(requestInfo, batch.properties, masters, responseMap, errorMap);
+                if (translations.failed > 0) {
+                    // the batch is retried by the next run, same as a batch failing in the sequential migration
+                    log.error("Migration failed at batch count of : " + batch.offset + ", properties failed: " + translations.failed);
+                    responseMap.put("Migration failed at batch count : " + batch.offset, translations.failed + " properties failed translation");
+                    return;
+                }
+                List<MigrationRecord> records = translations.records;
+
+                try {
+                    publish(records);
+                } catch (Exception e) {
+                    stages.get(STAGE_PUBLISH).error();
+                    log.error("Migration failed at batch count of : " + batch.offset, e);
+                    responseMap.put("Migration failed at batch count : " + batch.offset, e.getMessage());
+                    return;
+                }
+                records.forEach(record -> responseMap.put(record.getPropertyRequest().getProperty().getPropertyId(), "SUCCESS"));
+
+                checkpoint(requestInfo, tenantId, batch.offset, limit);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CustomException("EG_PT_MIGRATION_INTERRUPTED", "Property migration of " + tenantId + " was interrupted");
+        } finally {
+            reader.cancel(true);
+        }
+    }
+
+    /**
+     * Reads the batches of the tenant ahead of the migration, the queue bounds how far ahead
+     */
+    private void read(RequestInfoWrapper requestInfoWrapper, String tenantId, long offset, long limit, long count,
+                      BlockingQueue<Batch> batches) {
+        StageStats stats = stages.get(STAGE_READ);
+        try {
+            for (long batchOffset = offset; batchOffset < count; batchOffset += limit) {
+                OldPropertyCriteria criteria = OldPropertyCriteria.builder().tenantId(tenantId)
+                        .offset(batchOffset).limit(limit).build();
+                Batch batch;
+                try {
+                    List<OldProperty> properties = migrationService.searchOldPropertyFromURL(requestInfoWrapper, criteria);
+                    batch = new Batch(batchOffset, properties == null ? new ArrayList<>() : properties, null);
+                    stats.record(batch.properties.size());
+                } catch (Exception e) {
+                    stats.error();
+                    batches.put(new Batch(batchOffset, null, e));
+                    return;
+                }
+                batches.put(batch);
+            }
+            batches.put(END);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Translates and validates the properties of the batch in parallel, a property failing translation is
+     * reported against its property id and counted as failed
+     */
+    private Translations transform(RequestInfo requestInfo, List<OldProperty> oldProperties, Map<String, List<String>> masters,
+                                            Map<String, String> responseMap, Map<String, String> errorMap) throws InterruptedException {
+
+        List<Callable<Translation>> tasks = new ArrayList<>(oldProperties.size());
+        for (OldProperty oldProperty : oldProperties) {
+            tasks.add(() -> {
+                Map<String, String> validationErrors = new HashMap<>();
+                List<MigrationRecord> records = migrationService.translateProperty(requestInfo, oldProperty, masters, validationErrors);
+                return new Translation(records, validationErrors);
+            });
+        }
+
+        Translations result = new Translations();
+        List<Future<Translation>> translations = transformExecutor.invokeAll(tasks);
+        for (int i = 0; i < translations.size(); i++) {
+            String propertyId = oldProperties.get(i).getPropertyId();
+            Translation translation;
+            try {
+                translation = translations.get(i).get();
+            } catch (ExecutionException e) {
+                stages.get(STAGE_TRANSFORM).error();
+                log.error("Error while migrating property data of " + propertyId, e.getCause());
+                responseMap.put(propertyId, "FAILED");
+                errorMap.put(propertyId, String.valueOf(e.getCause()));
+                result.failed++;
+                continue;
+            }
+            stages.get(STAGE_TRANSFORM).record(1);
+            stages.get(STAGE_VALIDATE).record(translation.records.size());
+            if (!CollectionUtils.isEmpty(translation.validationErrors)) {
+                stages.get(STAGE_VALIDATE).error();
+                errorMap.putAll(translation.validationErrors);
+            }
+            result.records.addAll(translation.records);
+        }
+        return result;
+    }
+
+    /**
+     * Pushes the properties then the assessments of the batch, keyed on the property id so that the details
+     * of a property are persisted in order
+     */
+    private void publish(List<MigrationRecord> records) {
+        List<PropertyRequest> propertyRequests = new ArrayList<>(records.size());
+        List<AssessmentRequest> assessmentRequests = new ArrayList<>(records.size());
+        for (MigrationRecord record : records) {
+            propertyRequests.add(record.getPropertyRequest());
+            if (record.getAssessmentRequest() != null)
+                assessmentRequests.add(record.getAssessmentRequest());
+        }
+        producer.pushAll(config.getSavePropertyTopic(), propertyRequests, request -> request.getProperty().getPropertyId());
+        producer.pushAll(config.getCreateAssessmentTopic(), assessmentRequests, request -> request.getAssessment().getPropertyId());
+        stages.get(STAGE_PUBLISH).record(propertyRequests.size() + assessmentRequests.size());
+    }
+
+    private void checkpoint(RequestInfo requestInfo, String tenantId, long offset, long limit) {
+        MigrationCount migrationCount = new MigrationCount();
+        migrationCount.setId(UUID.randomUUID().toString());
+        migrationCount.setOffset(offset);
+        migrationCount.setLimit(limit);
+        migrationCount.setCreatedTime(System.currentTimeMillis());
+        migrationCount.setTenantid(tenantId);
+        migrationCount.setRecordCount(offset + limit);
+        PropertyMigrationCountRequest request = PropertyMigrationCountRequest.builder().requestInfo(requestInfo).migrationCount(migrationCount).build();
+        producer.push(config.getMigartionBatchCountTopic(), request);
+        stages.get(STAGE_CHECKPOINT).record(1);
+        log.info(" count completed for batch : " + offset);
+    }
+
+    private static class Batch {
+
+        private final long offset;
+
+        private final List<OldProperty> properties;
+
+        private final Exception error;
+
+        private Batch(long offset, List<OldProperty> properties, Exception error) {
+            this.offset = offset;
+            this.properties = properties;
+            this.error = error;
+        }
+    }
+
+    private static class Translation {
+
+        private final List<MigrationRecord> records;
+
+        private final Map<String, String> validationErrors;
+
+        private Translation(List<MigrationRecord> records, Map<String, String> validationErrors) {
+            this.records = records;
+            this.validationErrors = validationErrors;
+        }
+    }
+
+    private static class Translations {
+
+        private final List<MigrationRecord> records = new ArrayList<>();
+
+        private int failed;
+    }
+
+    private class StageStats {
+
+        private final String stage;
+
+        private final LongAdder records = new LongAdder();
+
+        private final LongAdder errors = new LongAdder();
+
+        private StageStats(String stage) {
+            this.stage = stage;
+        }
+
+        private void record(long count) {
+            records.add(count);
+            meterRegistry.counter(RECORDS_METRIC, "stage", stage).increment(count);
+        }
+
+        private void error() {
+            errors.increment();
+            meterRegistry.counter(ERRORS_METRIC, "stage", stage).increment();
+        }
+
+        private void reset() {
+            records.reset();
+            errors.reset();
+        }
+    }
+
+}
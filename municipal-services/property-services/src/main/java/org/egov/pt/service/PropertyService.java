@@ -7,6 +7,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import javax.validation.Valid;
@@ -19,7 +20,6 @@ import org.egov.pt.models.PropertyCriteria;
 import org.egov.pt.models.enums.CreationReason;
 import org.egov.pt.models.enums.Status;
 import org.egov.pt.models.user.UserDetailResponse;
-import org.egov.pt.models.user.UserSearchRequest;
 import org.egov.pt.models.workflow.State;
 import org.egov.pt.producer.PropertyProducer;
 import org.egov.pt.repository.PropertyRepository;
@@ -488,15 +488,29 @@ public class PropertyService {
 			propertyCriteria.setUuids(new HashSet<>(uuids));
 		}
 		propertyCriteria.setLimit(criteria.getLimit());
+
+		/*
+		 * When the ids of the properties are known the owners are searched in user service while the
+		 * properties are being fetched
+		 */
+		CompletableFuture<UserDetailResponse> owners = null;
+		if (!CollectionUtils.isEmpty(propertyCriteria.getUuids())) {
+			Set<String> ids = propertyCriteria.getUuids();
+			owners = userService.getUsersByUuidsAsync(criteria.getTenantId(), requestInfo,
+					() -> repository.getOwnerUserIds(ids, false));
+		}
 		List<Property> properties = repository.getPropertiesForBulkSearch(propertyCriteria, true);
 		if(properties.isEmpty())
 			return Collections.emptyList();
-		Set<String> ownerIds = properties.stream().map(Property::getOwners).flatMap(List::stream)
-				.map(OwnerInfo::getUuid).collect(Collectors.toSet());
 
-		UserSearchRequest userSearchRequest = userService.getBaseUserSearchRequest(criteria.getTenantId(), requestInfo);
-		userSearchRequest.setUuid(ownerIds);
-		UserDetailResponse userDetailResponse = userService.getUser(userSearchRequest);
+		UserDetailResponse userDetailResponse;
+		if (owners != null)
+			userDetailResponse = repository.getOwners(owners);
+		else {
+			Set<String> ownerIds = properties.stream().map(Property::getOwners).flatMap(List::stream)
+					.map(OwnerInfo::getUuid).collect(Collectors.toSet());
+			userDetailResponse = userService.getUsersByUuids(criteria.getTenantId(), requestInfo, ownerIds);
+		}
 		util.enrichOwner(userDetailResponse, properties, false);
 		return properties;
 	}
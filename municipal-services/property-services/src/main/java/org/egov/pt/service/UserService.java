@@ -2,6 +2,7 @@ package org.egov.pt.service;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
@@ -11,11 +12,23 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
 import org.egov.common.contract.request.RequestInfo;
 import org.egov.common.contract.request.Role;
+import org.egov.pt.config.PropertyConfiguration;
 import org.egov.pt.models.OwnerInfo;
 import org.egov.pt.models.Property;
 import org.egov.pt.models.enums.Status;
@@ -26,6 +39,7 @@ import org.egov.pt.models.user.UserSearchRequest;
 import org.egov.pt.repository.ServiceRequestRepository;
 import org.egov.pt.web.contracts.PropertyRequest;
 import org.egov.tracer.model.CustomException;
+import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -33,6 +47,10 @@ import org.springframework.util.CollectionUtils;
 import org.springframework.util.ObjectUtils;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Lists;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 
 @Service
 public class UserService {
@@ -58,6 +76,47 @@ public class UserService {
     @Value("${egov.user.update.path}")
     private String userUpdateEndpoint;
 
+    @Autowired
+    private PropertyConfiguration config;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private static final String USER_SEARCH_METRIC = "pt.user.search.latency";
+
+    private ExecutorService userSearchExecutor;
+
+    private ExecutorService ownerLookupExecutor;
+
+    @PostConstruct
+    public void init() {
+        if (meterRegistry == null)
+            meterRegistry = Metrics.globalRegistry;
+        userSearchExecutor = newPool("pt-user-search", config.getUserSearchPoolSize());
+        ownerLookupExecutor = newPool("pt-owner-lookup", config.getUserSearchPoolSize());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        userSearchExecutor.shutdown();
+        ownerLookupExecutor.shutdown();
+    }
+
+    /**
+     * Bounded pool, a task rejected when the pool is busy runs on the submitting thread
+     */
+    private ExecutorService newPool(String name, int size) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(size * 10), runnable -> {
+                    Thread thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     /**
      * Creates user of the owners of property if it is not created already
      * @param request PropertyRequest received for creating properties
@@ -288,6 +347,77 @@ public class UserService {
 		return userDetailResponse;
 	}
 
+	/**
+	 * Returns the active citizens with the given uuids. The uuids are searched in chunks which are sent to
+	 * user service concurrently. Users are not cached across calls, owners are always read as user service
+	 * has them so that updates and unmasking never work on stale owners.
+	 * 
+	 * @param tenantId tenantId of the search
+	 * @param requestInfo RequestInfo of the search, decides the fields decrypted by user service
+	 * @param uuids uuids of the users
+	 * @return UserDetailResponse containing the users found
+	 */
+	public UserDetailResponse getUsersByUuids(String tenantId, RequestInfo requestInfo, Set<String> uuids) {
+
+		List<OwnerInfo> users = new ArrayList<>();
+		if (CollectionUtils.isEmpty(uuids))
+			return new UserDetailResponse(null, users);
+
+		long start = System.nanoTime();
+		try {
+			Map<String, String> context = MDC.getCopyOfContextMap();
+			List<CompletableFuture<UserDetailResponse>> chunks = new ArrayList<>();
+			for (List<String> chunk : Lists.partition(new ArrayList<>(uuids), config.getUserSearchChunkSize())) {
+				UserSearchRequest userSearchRequest = getBaseUserSearchRequest(tenantId, requestInfo);
+				userSearchRequest.setUuid(new HashSet<>(chunk));
+				chunks.add(CompletableFuture.supplyAsync(() -> {
+					if (context != null)
+						MDC.setContextMap(context);
+					try {
+						return getUser(userSearchRequest);
+					} finally {
+						MDC.clear();
+					}
+				}, userSearchExecutor));
+			}
+
+			for (CompletableFuture<UserDetailResponse> chunk : chunks) {
+				UserDetailResponse userDetailResponse = chunk.join();
+				if (!CollectionUtils.isEmpty(userDetailResponse.getUser()))
+					users.addAll(userDetailResponse.getUser());
+			}
+			return new UserDetailResponse(null, users);
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw e;
+		} finally {
+			meterRegistry.timer(USER_SEARCH_METRIC).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	/**
+	 * Resolves the uuids and searches the users on the owner lookup pool so that the caller can run the
+	 * property query meanwhile
+	 * 
+	 * @param tenantId tenantId of the search
+	 * @param requestInfo RequestInfo of the search
+	 * @param uuids Supplies the uuids of the users
+	 * @return Future of the UserDetailResponse
+	 */
+	public CompletableFuture<UserDetailResponse> getUsersByUuidsAsync(String tenantId, RequestInfo requestInfo, Supplier<Set<String>> uuids) {
+		Map<String, String> context = MDC.getCopyOfContextMap();
+		return CompletableFuture.supplyAsync(() -> {
+			if (context != null)
+				MDC.setContextMap(context);
+			try {
+				return getUsersByUuids(tenantId, requestInfo, uuids.get());
+			} finally {
+				MDC.clear();
+			}
+		}, ownerLookupExecutor);
+	}
+
     /**
      * Returns UserDetailResponse by calling user service with given uri and object
      * @param userRequest Request object for user service
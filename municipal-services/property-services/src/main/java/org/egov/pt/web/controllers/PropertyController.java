@@ -16,6 +16,7 @@ import org.egov.pt.models.oldProperty.OldPropertyCriteria;
 import org.egov.pt.service.FuzzySearchService;
 import org.egov.pt.service.MigrationService;
 import org.egov.pt.service.PropertyEncryptionService;
+import org.egov.pt.service.PropertyMigrationPipeline;
 import org.egov.pt.service.PropertyService;
 import org.egov.pt.util.ResponseInfoFactory;
 import org.egov.pt.validator.PropertyValidator;
@@ -46,6 +47,9 @@ public class PropertyController {
     @Autowired
     private MigrationService migrationService;
 
+    @Autowired
+    private PropertyMigrationPipeline migrationPipeline;
+
     @Autowired
     private PropertyValidator propertyValidator;
 
@@ -120,7 +124,10 @@ public class PropertyController {
         Map<String, String> resultMap = null;
         Map<String, String> errorMap = new HashMap<>();
 
-        resultMap = migrationService.initiateProcess(requestInfoWrapper,propertyCriteria,errorMap);
+        if (configs.getMigrationPipelineEnabled())
+            resultMap = migrationPipeline.migrate(requestInfoWrapper, propertyCriteria, errorMap);
+        else
+            resultMap = migrationService.initiateProcess(requestInfoWrapper,propertyCriteria,errorMap);
 
         long endtime = System.nanoTime();
         long elapsetime = endtime - startTime;
@@ -129,6 +136,11 @@ public class PropertyController {
         return new ResponseEntity<>(resultMap, HttpStatus.OK);
     }
 
+    @PostMapping("/_migration/_progress")
+    public ResponseEntity<?> propertyMigrationProgress(@Valid @RequestBody RequestInfoWrapper requestInfoWrapper) {
+        return new ResponseEntity<>(migrationPipeline.getProgress(), HttpStatus.OK);
+    }
+
     @RequestMapping(value = "/_plainsearch", method = RequestMethod.POST)
     public ResponseEntity<PropertyResponse> plainsearch(@Valid @RequestBody RequestInfoWrapper requestInfoWrapper,
                                                         @Valid @ModelAttribute PropertyCriteria propertyCriteria) {
@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS index_eg_pt_property_tenantid_modifiedtime_id ON eg_pt_property (tenantid, lastmodifiedtime DESC, id);
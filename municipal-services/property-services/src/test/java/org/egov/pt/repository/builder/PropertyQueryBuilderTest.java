@@ -0,0 +1,149 @@
+package org.egov.pt.repository.builder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.egov.pt.config.PropertyConfiguration;
+import org.egov.pt.models.PropertyCriteria;
+import org.egov.pt.models.enums.Status;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Compares the id page query with the search query, both must apply the same filters. The id page query applies
+ * them on the page and again on the versions preferred over a property, the search query on the rows it picks the
+ * lowest status order from.
+ */
+public class PropertyQueryBuilderTest {
+
+	private static final String OWNER_STATUS_CLAUSE = "owner.status = ?";
+
+	private static final String PREFERRED_IDS = "preferred.id IN (";
+
+	private PropertyQueryBuilder queryBuilder;
+
+	@BeforeEach
+	public void setUp() {
+		PropertyConfiguration config = PropertyConfiguration.builder().defaultLimit(10L).defaultOffset(0L)
+				.maxSearchLimit(50L).stateLevelTenantId("pb").build();
+
+		queryBuilder = new PropertyQueryBuilder();
+		ReflectionTestUtils.setField(queryBuilder, "config", config);
+	}
+
+	@Test
+	public void testLocalitySearchAppliesSameFilters() {
+		PropertyCriteria criteria = PropertyCriteria.builder().tenantId("pb.amritsar").locality("SUN04")
+				.fromDate(1000L).toDate(2000L).build();
+
+		assertSameFilters(criteria, false);
+	}
+
+	@Test
+	public void testStatusSearchAppliesStatusToPreferredVersion() {
+		PropertyCriteria criteria = PropertyCriteria.builder().tenantId("pb.amritsar")
+				.propertyIds(new HashSet<>(Arrays.asList("pt-107-1", "pt-107-2")))
+				.status(new HashSet<>(Arrays.asList(Status.INWORKFLOW, Status.INACTIVE))).build();
+
+		assertSameFilters(criteria, false);
+
+		List<Object> preparedStmtList = new ArrayList<>();
+		String preferredIdsQuery = preferredIdsQuery(queryBuilder.getPropertyPageIdsQuery(criteria, preparedStmtList, false));
+		assertTrue(preferredIdsQuery.contains("property.status IN"));
+		assertTrue(preferredIdsQuery.contains("property.propertyid IN"));
+	}
+
+	@Test
+	public void testStateLevelSearchAppliesSameFilters() {
+		PropertyCriteria criteria = PropertyCriteria.builder().tenantId("pb")
+				.uuids(new HashSet<>(Arrays.asList("a1", "b2", "c3")))
+				.creationReason(Collections.singleton("CREATE")).build();
+
+		assertSameFilters(criteria, false);
+	}
+
+	@Test
+	public void testPlainSearchAppliesSameFilters() {
+		PropertyCriteria criteria = PropertyCriteria.builder()
+				.tenantIds(new HashSet<>(Arrays.asList("pb.amritsar", "pb.jalandhar")))
+				.oldpropertyids(Collections.singleton("OLD-1"))
+				.acknowledgementIds(Collections.singleton("ack-1")).build();
+
+		assertSameFilters(criteria, true);
+	}
+
+	@Test
+	public void testOffsetPage() {
+		PropertyCriteria criteria = PropertyCriteria.builder().tenantId("pb.amritsar").locality("SUN04")
+				.fromDate(1000L).toDate(2000L).offset(20L).limit(100L).build();
+
+		List<Object> preparedStmtList = new ArrayList<>();
+		String query = queryBuilder.getPropertyPageIdsQuery(criteria, preparedStmtList, false);
+
+		assertTrue(query.endsWith(" ORDER BY property.lastmodifiedtime DESC, property.id OFFSET ? LIMIT ?"));
+		assertEquals(placeholders(query), preparedStmtList.size());
+		assertEquals(Arrays.asList(20L, 50L), preparedStmtList.subList(preparedStmtList.size() - 2, preparedStmtList.size()));
+	}
+
+	@Test
+	public void testKeysetPage() {
+		PropertyCriteria criteria = PropertyCriteria.builder().tenantId("pb.amritsar").locality("SUN04")
+				.fromDate(1000L).toDate(2000L).lastModifiedTime(1500L).lastId("a1").offset(20L).build();
+
+		List<Object> preparedStmtList = new ArrayList<>();
+		String query = queryBuilder.getPropertyPageIdsQuery(criteria, preparedStmtList, false);
+
+		assertFalse(query.contains("OFFSET"));
+		assertTrue(query.endsWith(" (property.lastmodifiedtime < ? OR (property.lastmodifiedtime = ? AND property.id > ?))"
+				+ " ORDER BY property.lastmodifiedtime DESC, property.id LIMIT ?"));
+		assertEquals(placeholders(query), preparedStmtList.size());
+		assertEquals(Arrays.asList(1500L, 1500L, "a1", 10L),
+				preparedStmtList.subList(preparedStmtList.size() - 4, preparedStmtList.size()));
+	}
+
+	/**
+	 * The filters of the search query, its where clause up to the owner status, must be applied by the id page
+	 * query on the page and on the preferred versions with the same values
+	 */
+	private void assertSameFilters(PropertyCriteria criteria, Boolean isPlainSearch) {
+
+		List<Object> searchStmtList = new ArrayList<>();
+		String searchQuery = queryBuilder.getPropertySearchQuery(criteria, searchStmtList, isPlainSearch, false);
+		assertEquals(placeholders(searchQuery), searchStmtList.size());
+
+		String filters = searchQuery.substring(searchQuery.indexOf(" WHERE "), searchQuery.indexOf(OWNER_STATUS_CLAUSE));
+		// the search query ends with the owner status and the offset and limit of the page
+		List<Object> filterValues = searchStmtList.subList(0, searchStmtList.size() - 3);
+
+		List<Object> pageStmtList = new ArrayList<>();
+		String pageQuery = queryBuilder.getPropertyPageIdsQuery(criteria, pageStmtList, isPlainSearch);
+		assertEquals(placeholders(pageQuery), pageStmtList.size());
+
+		String preferredIdsQuery = preferredIdsQuery(pageQuery);
+		assertTrue(pageQuery.substring(0, pageQuery.indexOf(PREFERRED_IDS)).contains(filters), pageQuery);
+		assertTrue(preferredIdsQuery.contains(filters), preferredIdsQuery);
+
+		List<Object> expected = new ArrayList<>(filterValues);
+		expected.add(Status.ACTIVE.toString());
+		expected.addAll(filterValues);
+		expected.add(Status.ACTIVE.toString());
+		assertEquals(expected, pageStmtList.subList(0, expected.size()));
+	}
+
+	private String preferredIdsQuery(String pageQuery) {
+		return pageQuery.substring(pageQuery.indexOf(PREFERRED_IDS) + PREFERRED_IDS.length());
+	}
+
+	private long placeholders(String query) {
+		return query.chars().filter(c -> c == '?').count();
+	}
+
+}
@@ -0,0 +1,222 @@
+package org.egov.pt.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.egov.common.contract.request.RequestInfo;
+import org.egov.pt.config.PropertyConfiguration;
+import org.egov.pt.models.Assessment;
+import org.egov.pt.models.Property;
+import org.egov.pt.models.oldProperty.MigrationCount;
+import org.egov.pt.models.oldProperty.MigrationRecord;
+import org.egov.pt.models.oldProperty.OldProperty;
+import org.egov.pt.models.oldProperty.OldPropertyCriteria;
+import org.egov.pt.producer.PropertyProducer;
+import org.egov.pt.web.contracts.AssessmentRequest;
+import org.egov.pt.web.contracts.PropertyMigrationCountRequest;
+import org.egov.pt.web.contracts.PropertyRequest;
+import org.egov.pt.web.contracts.RequestInfoWrapper;
+import org.egov.tracer.model.CustomException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class PropertyMigrationPipelineTest {
+
+	private static final String TENANT_ID = "pb.amritsar";
+
+	private static final String PROPERTY_TOPIC = "save-property-registry";
+
+	private static final String ASSESSMENT_TOPIC = "save-pt-assessment";
+
+	private static final String CHECKPOINT_TOPIC = "migartion-batch-count";
+
+	private PropertyMigrationPipeline pipeline;
+
+	private MigrationService migrationService;
+
+	private PropertyProducer producer;
+
+	private String failingPropertyId;
+
+	private final RequestInfoWrapper requestInfoWrapper = RequestInfoWrapper.builder().requestInfo(new RequestInfo()).build();
+
+	@BeforeEach
+	public void setUp() {
+		migrationService = mock(MigrationService.class);
+		producer = mock(PropertyProducer.class);
+
+		when(migrationService.getTenantList()).thenReturn(Collections.singletonList(TENANT_ID));
+		when(migrationService.getMigrationCountForTenant(TENANT_ID)).thenReturn(new MigrationCount());
+		when(migrationService.searchOldPropertyFromURL(any(), any())).thenAnswer(invocation -> {
+			OldPropertyCriteria criteria = invocation.getArgument(1);
+			List<OldProperty> properties = new ArrayList<>();
+			for (long i = criteria.getOffset(); i < criteria.getOffset() + criteria.getLimit(); i++)
+				properties.add(oldProperty("PT-" + i));
+			return properties;
+		});
+		when(migrationService.translateProperty(any(), any(), anyMap(), anyMap())).thenAnswer(invocation -> {
+			String propertyId = ((OldProperty) invocation.getArgument(1)).getPropertyId();
+			if (propertyId.equals(failingPropertyId))
+				throw new CustomException("INVALID_USAGE", "Usage category of " + propertyId + " is not valid");
+			return Collections.singletonList(record(propertyId));
+		});
+
+		PropertyConfiguration config = PropertyConfiguration.builder().migrationWorkerCount(2).migrationPrefetchChunks(2)
+				.savePropertyTopic(PROPERTY_TOPIC).createAssessmentTopic(ASSESSMENT_TOPIC)
+				.migartionBatchCountTopic(CHECKPOINT_TOPIC).stateLevelTenantId("pb").build();
+
+		pipeline = new PropertyMigrationPipeline();
+		ReflectionTestUtils.setField(pipeline, "migrationService", migrationService);
+		ReflectionTestUtils.setField(pipeline, "producer", producer);
+		ReflectionTestUtils.setField(pipeline, "config", config);
+		ReflectionTestUtils.setField(pipeline, "meterRegistry", new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(pipeline, "batchSize", 2);
+		ReflectionTestUtils.setField(pipeline, "batchOffset", 0);
+		pipeline.init();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		pipeline.shutdown();
+	}
+
+	@Test
+	public void testBatchesArePublishedThenCheckpointedInOrder() {
+		when(migrationService.getTenantCount(TENANT_ID)).thenReturn(4L);
+
+		Map<String, String> response = pipeline.migrate(requestInfoWrapper, criteria(null), new HashMap<>());
+
+		assertEquals("SUCCESS", response.get("PT-0"));
+		assertEquals("SUCCESS", response.get("PT-3"));
+		InOrder order = inOrder(producer);
+		order.verify(producer).pushAll(eq(PROPERTY_TOPIC), properties("PT-0", "PT-1"), any());
+		order.verify(producer).pushAll(eq(ASSESSMENT_TOPIC), anyList(), any());
+		order.verify(producer).push(eq(CHECKPOINT_TOPIC), any());
+		order.verify(producer).pushAll(eq(PROPERTY_TOPIC), properties("PT-2", "PT-3"), any());
+		order.verify(producer).pushAll(eq(ASSESSMENT_TOPIC), anyList(), any());
+		order.verify(producer).push(eq(CHECKPOINT_TOPIC), any());
+		assertEquals(Arrays.asList(0L, 2L), checkpoints().stream().map(MigrationCount::getOffset).collect(Collectors.toList()));
+	}
+
+	@Test
+	public void testBatchWithFailedPropertyIsNotCheckpointed() {
+		when(migrationService.getTenantCount(TENANT_ID)).thenReturn(6L);
+		failingPropertyId = "PT-3";
+		Map<String, String> errorMap = new HashMap<>();
+
+		Map<String, String> response = pipeline.migrate(requestInfoWrapper, criteria(null), errorMap);
+
+		assertEquals("FAILED", response.get("PT-3"));
+		assertTrue(errorMap.containsKey("PT-3"));
+		assertTrue(response.containsKey("Migration failed at batch count : 2"));
+		assertFalse(response.containsKey("PT-2"));
+		assertFalse(response.containsKey("PT-4"));
+		// the batch of PT-3 is neither pushed nor checkpointed so that the next run migrates it again
+		verify(producer, never()).pushAll(eq(PROPERTY_TOPIC), properties("PT-2"), any());
+		assertEquals(Collections.singletonList(0L), checkpoints().stream().map(MigrationCount::getOffset).collect(Collectors.toList()));
+	}
+
+	@Test
+	public void testRunResumesAfterLastCheckpoint() {
+		when(migrationService.getTenantCount(TENANT_ID)).thenReturn(6L);
+		when(migrationService.getMigrationCountForTenant(TENANT_ID))
+				.thenReturn(MigrationCount.builder().id("checkpoint-1").offset(2L).limit(2L).recordCount(4L).build());
+
+		Map<String, String> response = pipeline.migrate(requestInfoWrapper, criteria(null), new HashMap<>());
+
+		ArgumentCaptor<OldPropertyCriteria> reads = ArgumentCaptor.forClass(OldPropertyCriteria.class);
+		verify(migrationService).searchOldPropertyFromURL(any(), reads.capture());
+		assertEquals(4L, (long) reads.getValue().getOffset());
+		assertEquals("SUCCESS", response.get("PT-4"));
+		assertEquals("SUCCESS", response.get("PT-5"));
+		assertEquals(Collections.singletonList(6L), checkpoints().stream().map(MigrationCount::getRecordCount).collect(Collectors.toList()));
+	}
+
+	@Test
+	public void testMigratedTenantIsSkipped() {
+		when(migrationService.getTenantCount(TENANT_ID)).thenReturn(4L);
+		when(migrationService.getMigrationCountForTenant(TENANT_ID))
+				.thenReturn(MigrationCount.builder().id("checkpoint-1").offset(2L).limit(2L).recordCount(4L).build());
+
+		pipeline.migrate(requestInfoWrapper, criteria(null), new HashMap<>());
+
+		verify(migrationService, never()).searchOldPropertyFromURL(any(), any());
+		verify(producer, never()).push(anyString(), any());
+	}
+
+	@Test
+	public void testFailedReadStopsTheTenant() {
+		when(migrationService.getTenantCount(TENANT_ID)).thenReturn(4L);
+		doThrow(new CustomException("EG_PT_SEARCH_ERROR", "legacy search failed")).when(migrationService)
+				.searchOldPropertyFromURL(any(), any());
+
+		Map<String, String> response = pipeline.migrate(requestInfoWrapper, criteria(null), new HashMap<>());
+
+		assertEquals("legacy search failed", response.get("Migration failed at batch count : 0"));
+		verify(producer, never()).pushAll(anyString(), anyList(), any());
+		verify(producer, never()).push(anyString(), any());
+	}
+
+	private OldPropertyCriteria criteria(Long offset) {
+		return OldPropertyCriteria.builder().offset(offset).build();
+	}
+
+	private List<PropertyRequest> properties(String... propertyIds) {
+		return argThat(requests -> requests.stream().map(request -> request.getProperty().getPropertyId())
+				.collect(Collectors.toList()).equals(Arrays.asList(propertyIds)));
+	}
+
+	private List<MigrationCount> checkpoints() {
+		ArgumentCaptor<Object> requests = ArgumentCaptor.forClass(Object.class);
+		verify(producer, atLeast(0)).push(eq(CHECKPOINT_TOPIC), requests.capture());
+		return requests.getAllValues().stream().map(request -> ((PropertyMigrationCountRequest) request).getMigrationCount())
+				.collect(Collectors.toList());
+	}
+
+	private OldProperty oldProperty(String propertyId) {
+		OldProperty oldProperty = new OldProperty();
+		oldProperty.setPropertyId(propertyId);
+		oldProperty.setTenantId(TENANT_ID);
+		return oldProperty;
+	}
+
+	private MigrationRecord record(String propertyId) {
+		return new MigrationRecord(propertyRequest(propertyId),
+				AssessmentRequest.builder().assessment(Assessment.builder().propertyId(propertyId).build()).build());
+	}
+
+	private PropertyRequest propertyRequest(String propertyId) {
+		Property property = new Property();
+		property.setPropertyId(propertyId);
+		return PropertyRequest.builder().property(property).build();
+	}
+
+}
@@ -0,0 +1,167 @@
+package org.egov.pt.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import org.egov.common.contract.request.RequestInfo;
+import org.egov.common.contract.request.User;
+import org.egov.pt.config.PropertyConfiguration;
+import org.egov.pt.models.OwnerInfo;
+import org.egov.pt.models.user.UserDetailResponse;
+import org.egov.pt.models.user.UserSearchRequest;
+import org.egov.pt.repository.ServiceRequestRepository;
+import org.egov.tracer.model.CustomException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.slf4j.MDC;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class UserServiceTest {
+
+	private static final String TENANT_ID = "pb.amritsar";
+
+	private UserService userService;
+
+	private ServiceRequestRepository serviceRequestRepository;
+
+	private final Map<String, String> mobileNumbers = new LinkedHashMap<>();
+
+	@BeforeEach
+	public void setUp() {
+		serviceRequestRepository = mock(ServiceRequestRepository.class);
+		when(serviceRequestRepository.fetchResult(any(StringBuilder.class), any()))
+				.thenAnswer(invocation -> Optional.of(userResponse(invocation.getArgument(1))));
+
+		PropertyConfiguration config = PropertyConfiguration.builder().userSearchChunkSize(2).userSearchPoolSize(2)
+				.build();
+
+		userService = new UserService();
+		ReflectionTestUtils.setField(userService, "mapper", new ObjectMapper());
+		ReflectionTestUtils.setField(userService, "serviceRequestRepository", serviceRequestRepository);
+		ReflectionTestUtils.setField(userService, "config", config);
+		ReflectionTestUtils.setField(userService, "meterRegistry", new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(userService, "userHost", "http://egov-user");
+		ReflectionTestUtils.setField(userService, "userSearchEndpoint", "/user/_search");
+		ReflectionTestUtils.setField(userService, "userCreateEndpoint", "/user/users/_createnovalidate");
+		ReflectionTestUtils.setField(userService, "userUpdateEndpoint", "/user/users/_updatenovalidate");
+		userService.init();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		userService.shutdown();
+		MDC.clear();
+	}
+
+	@Test
+	public void testUuidsAreSearchedInChunks() {
+		Set<String> uuids = new HashSet<>(Arrays.asList("u1", "u2", "u3", "u4", "u5"));
+
+		UserDetailResponse response = userService.getUsersByUuids(TENANT_ID, requestInfo("requester-1"), uuids);
+
+		ArgumentCaptor<Object> requests = ArgumentCaptor.forClass(Object.class);
+		verify(serviceRequestRepository, times(3)).fetchResult(any(StringBuilder.class), requests.capture());
+		Set<String> searched = new HashSet<>();
+		for (Object request : requests.getAllValues()) {
+			Set<String> chunk = ((UserSearchRequest) request).getUuid();
+			assertTrue(chunk.size() <= 2);
+			searched.addAll(chunk);
+		}
+		assertEquals(uuids, searched);
+		assertEquals(uuids, response.getUser().stream().map(OwnerInfo::getUuid).collect(Collectors.toSet()));
+	}
+
+	@Test
+	public void testOwnersAreNotCachedAcrossSearches() {
+		Set<String> uuids = Collections.singleton("u1");
+		mobileNumbers.put("u1", "9999999999");
+		assertEquals("9999999999", userService.getUsersByUuids(TENANT_ID, requestInfo("requester-1"), uuids)
+				.getUser().get(0).getMobileNumber());
+
+		// the owner is updated, the next search of the same requester must not see the old number
+		mobileNumbers.put("u1", "8888888888");
+		assertEquals("8888888888", userService.getUsersByUuids(TENANT_ID, requestInfo("requester-1"), uuids)
+				.getUser().get(0).getMobileNumber());
+
+		verify(serviceRequestRepository, times(2)).fetchResult(any(StringBuilder.class), any());
+	}
+
+	@Test
+	public void testChunkSearchesKeepTheRequestContext() {
+		List<String> correlationIds = new CopyOnWriteArrayList<>();
+		when(serviceRequestRepository.fetchResult(any(StringBuilder.class), any())).thenAnswer(invocation -> {
+			correlationIds.add(MDC.get("CORRELATION_ID"));
+			return Optional.of(userResponse(invocation.getArgument(1)));
+		});
+		MDC.put("CORRELATION_ID", "corr-1");
+
+		userService.getUsersByUuids(TENANT_ID, requestInfo("requester-1"),
+				new HashSet<>(Arrays.asList("u1", "u2", "u3", "u4", "u5")));
+
+		assertEquals(Arrays.asList("corr-1", "corr-1", "corr-1"), correlationIds);
+	}
+
+	@Test
+	public void testFailedChunkRethrowsUserServiceError() {
+		when(serviceRequestRepository.fetchResult(any(StringBuilder.class), any()))
+				.thenThrow(new CustomException("EG_PT_USER_SEARCH_ERROR", "user search failed"));
+
+		CustomException e = assertThrows(CustomException.class, () -> userService.getUsersByUuids(TENANT_ID,
+				requestInfo("requester-1"), new HashSet<>(Arrays.asList("u1", "u2", "u3"))));
+		assertEquals("EG_PT_USER_SEARCH_ERROR", e.getCode());
+	}
+
+	@Test
+	public void testNoSearchWithoutUuids() {
+		UserDetailResponse response = userService.getUsersByUuids(TENANT_ID, requestInfo("requester-1"),
+				Collections.emptySet());
+
+		assertTrue(response.getUser().isEmpty());
+		verify(serviceRequestRepository, never()).fetchResult(any(StringBuilder.class), any());
+	}
+
+	private RequestInfo requestInfo(String requester) {
+		return RequestInfo.builder().userInfo(User.builder().uuid(requester).tenantId(TENANT_ID).build()).build();
+	}
+
+	private LinkedHashMap<String, Object> userResponse(Object request) {
+		List<Map<String, Object>> users = new ArrayList<>();
+		for (String uuid : ((UserSearchRequest) request).getUuid()) {
+			Map<String, Object> user = new LinkedHashMap<>();
+			user.put("uuid", uuid);
+			user.put("tenantId", TENANT_ID);
+			user.put("createdDate", "01-04-2024 10:00:00");
+			user.put("mobileNumber", mobileNumbers.getOrDefault(uuid, "9000000000"));
+			users.add(user);
+		}
+		LinkedHashMap<String, Object> response = new LinkedHashMap<>();
+		response.put("user", users);
+		return response;
+	}
+
+}
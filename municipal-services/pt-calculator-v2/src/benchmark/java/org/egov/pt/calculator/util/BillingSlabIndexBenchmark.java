@@ -0,0 +1,136 @@
+package org.egov.pt.calculator.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.egov.pt.calculator.web.models.BillingSlab;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Slab resolution of a property with its units, linear filtering of the slab list as done by the estimation
+ * before vs the lookup on BillingSlabIndex.
+ *
+ * The slab table is generated the way the tenants configure it, a slab per usage and occupancy for every
+ * property type, ownership, area type and plot range with the all value used for the fields which do not
+ * change the rate. slabsPerUsage multiplies the floor ranges to scale the table.
+ *
+ * mvn -P benchmark test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main BillingSlabIndexBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BillingSlabIndexBenchmark {
+
+	private static final String ALL = "ALL";
+
+	private static final String[] PROPERTY_SUB_TYPES = { "SHAREDPROPERTY", "INDEPENDENTPROPERTY" };
+	private static final String[] OWNERSHIPS = { "INDIVIDUAL", "INSTITUTIONALPRIVATE", "INSTITUTIONALGOVERNMENT" };
+	private static final String[] AREA_TYPES = { "A", "B", "C", "D" };
+	private static final double[][] PLOT_RANGES = { { 0, 100 }, { 100, 500 }, { 500, 2000 }, { 2000, Double.POSITIVE_INFINITY } };
+	private static final String[][] USAGES = {
+			{ "RESIDENTIAL", ALL, ALL, ALL },
+			{ "NONRESIDENTIAL", "COMMERCIAL", "RETAIL", ALL },
+			{ "NONRESIDENTIAL", "COMMERCIAL", "OFFICESPACE", ALL },
+			{ "NONRESIDENTIAL", "COMMERCIAL", "HOTELS", "STARHOTELS" },
+			{ "NONRESIDENTIAL", "COMMERCIAL", "HOTELS", "NONSTARHOTELS" },
+			{ "NONRESIDENTIAL", "INDUSTRIAL", "MANUFACTURINGFACILITY", ALL },
+			{ "NONRESIDENTIAL", "INSTITUTIONAL", "EDUCATIONAL", ALL },
+			{ "NONRESIDENTIAL", "OTHERS", ALL, ALL },
+			{ "MIXED", ALL, ALL, ALL } };
+	private static final String[] OCCUPANCIES = { "SELFOCCUPIED", "RENTED", "UNOCCUPIED" };
+
+	@Param({ "1", "4" })
+	private int slabsPerUsage;
+
+	private List<BillingSlab> slabs;
+
+	private BillingSlabIndex index;
+
+	private String[][] units;
+
+	@Setup
+	public void setup() {
+		slabs = new ArrayList<>();
+		int id = 0;
+		for (String subType : PROPERTY_SUB_TYPES)
+			for (String ownership : OWNERSHIPS)
+				for (String areaType : AREA_TYPES)
+					for (boolean multiFloored : new boolean[] { true, false })
+						for (double[] plot : PLOT_RANGES)
+							for (String[] usage : USAGES)
+								for (String occupancy : OCCUPANCIES)
+									for (int floor = 0; floor < slabsPerUsage; floor++) {
+										double fromFloor = floor == 0 ? Double.NEGATIVE_INFINITY : floor * 3;
+										double toFloor = floor == slabsPerUsage - 1 ? Double.POSITIVE_INFINITY : floor * 3 + 2;
+										slabs.add(BillingSlab.builder().id(String.valueOf(id++)).tenantId("pb.amritsar")
+												.propertyType("BUILTUP").propertySubType(subType).ownerShipCategory(ownership)
+												.subOwnerShipCategory(ALL).areaType(areaType).isPropertyMultiFloored(multiFloored)
+												.fromPlotSize(plot[0]).toPlotSize(plot[1]).usageCategoryMajor(usage[0])
+												.usageCategoryMinor(usage[1]).usageCategorySubMinor(usage[2])
+												.usageCategoryDetail(usage[3]).occupancyType(occupancy)
+												.fromFloor(fromFloor).toFloor(toFloor).unitRate(10.0).build());
+									}
+		index = BillingSlabIndex.build(slabs, ALL);
+
+		Random random = new Random(42);
+		units = new String[5][];
+		for (int i = 0; i < units.length; i++) {
+			String[] usage = USAGES[random.nextInt(USAGES.length)];
+			units[i] = new String[] { usage[0], usage[1], usage[2], usage[3].equals(ALL) ? "NONE" : usage[3],
+					OCCUPANCIES[random.nextInt(OCCUPANCIES.length)], String.valueOf(random.nextInt(6)) };
+		}
+	}
+
+	@Benchmark
+	public void linearScan(Blackhole blackhole) {
+		List<BillingSlab> filtered = slabs.stream().filter(slab -> slab.getPropertyType().equalsIgnoreCase("BUILTUP")
+				&& (slab.getPropertySubType().equalsIgnoreCase("INDEPENDENTPROPERTY") || ALL.equalsIgnoreCase(slab.getPropertySubType()))
+				&& (slab.getOwnerShipCategory().equalsIgnoreCase("INDIVIDUAL") || ALL.equalsIgnoreCase(slab.getOwnerShipCategory()))
+				&& (slab.getSubOwnerShipCategory().equalsIgnoreCase("SINGLEOWNER") || ALL.equalsIgnoreCase(slab.getSubOwnerShipCategory()))
+				&& (slab.getAreaType().equalsIgnoreCase("B") || ALL.equalsIgnoreCase(slab.getAreaType()))
+				&& slab.getIsPropertyMultiFloored().equals(true)
+				&& slab.getFromPlotSize() < 350.0 && slab.getToPlotSize() >= 350.0).collect(Collectors.toList());
+
+		for (String[] unit : units) {
+			double floorNo = Double.parseDouble(unit[5]);
+			List<BillingSlab> matching = new ArrayList<>();
+			for (BillingSlab slab : filtered) {
+				if ((slab.getUsageCategoryMajor().equalsIgnoreCase(unit[0]) || slab.getUsageCategoryMajor().equalsIgnoreCase(ALL))
+						&& (slab.getUsageCategoryMinor().equalsIgnoreCase(unit[1]) || slab.getUsageCategoryMinor().equalsIgnoreCase(ALL))
+						&& (slab.getUsageCategorySubMinor().equalsIgnoreCase(unit[2]) || slab.getUsageCategorySubMinor().equalsIgnoreCase(ALL))
+						&& (slab.getUsageCategoryDetail().equalsIgnoreCase(unit[3]) || slab.getUsageCategoryDetail().equalsIgnoreCase(ALL))
+						&& slab.getFromFloor() <= floorNo && slab.getToFloor() >= floorNo
+						&& (slab.getOccupancyType().equalsIgnoreCase(unit[4]) || slab.getOccupancyType().equalsIgnoreCase(ALL)))
+					matching.add(slab);
+			}
+			blackhole.consume(matching);
+		}
+	}
+
+	@Benchmark
+	public void indexLookup(Blackhole blackhole) {
+		BillingSlabIndex.SlabGroup group = index.getPropertySlabs("BUILTUP", "INDEPENDENTPROPERTY", "INDIVIDUAL",
+				"SINGLEOWNER", "B", true, 350.0);
+		for (String[] unit : units)
+			blackhole.consume(group.getUnitSlabs(unit[0], unit[1], unit[2], unit[3], unit[4], Double.parseDouble(unit[5])));
+	}
+
+}
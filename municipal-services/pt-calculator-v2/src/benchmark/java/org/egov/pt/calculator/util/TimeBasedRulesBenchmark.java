@@ -0,0 +1,197 @@
+package org.egov.pt.calculator.util;
+
+import java.math.BigDecimal;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import net.minidev.json.JSONArray;
+import net.minidev.json.JSONObject;
+
+/**
+ * Rebate, penalty and interest of the bill of a property with demands for several assessment years, the
+ * applicable entry picked by iterating the master list and parsing the starting days as done by
+ * MasterDataService.getApplicableMaster before vs the lookup on TimeBasedRules.
+ *
+ * The two are checked to give the same entry and amount by TimeBasedRulesTest.
+ *
+ * mvn -P benchmark test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main TimeBasedRulesBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TimeBasedRulesBenchmark {
+
+	private static final String[] ASSESSMENT_YEARS = { "2013-14", "2014-15", "2015-16", "2016-17", "2017-18",
+			"2018-19", "2019-20", "2020-21", "2021-22", "2022-23" };
+
+	private static final BigDecimal TAX = BigDecimal.valueOf(12345.67);
+
+	private JSONArray rebateMaster;
+
+	private JSONArray penaltyMaster;
+
+	private JSONArray interestMaster;
+
+	private TimeBasedRules rebateRules;
+
+	private TimeBasedRules penaltyRules;
+
+	private TimeBasedRules interestRules;
+
+	@Setup
+	public void setup() {
+		rebateMaster = new JSONArray();
+		penaltyMaster = new JSONArray();
+		interestMaster = new JSONArray();
+		for (int year = 2014; year <= 2021; year++) {
+			String fromFY = year + "-" + String.valueOf(year + 1).substring(2);
+			rebateMaster.add(entry(fromFY, null, "31/07", 10.0, 2500.0, null, null));
+			penaltyMaster.add(entry(fromFY, "01/01/" + (year + 1), null, 10.0, null, null, null));
+			interestMaster.add(entry(fromFY, "01/04/" + (year + 1), null, 18.0, null, 10.0, null));
+		}
+		rebateMaster.add(entry("2016-17", null, "31/07", null, null, null, 500.0));
+
+		rebateRules = TimeBasedRules.compile(rebateMaster);
+		penaltyRules = TimeBasedRules.compile(penaltyMaster);
+		interestRules = TimeBasedRules.compile(interestMaster);
+	}
+
+	private static JSONObject entry(String fromFY, String startingDay, String endingDay, Double rate, Double maxAmount,
+			Double minAmount, Double flatAmount) {
+		JSONObject entry = new JSONObject();
+		entry.put(CalculatorConstants.FROMFY_FIELD_NAME, fromFY);
+		if (startingDay != null)
+			entry.put(CalculatorConstants.STARTING_DATE_APPLICABLES, startingDay);
+		if (endingDay != null)
+			entry.put(CalculatorConstants.ENDING_DATE_APPLICABLES, endingDay);
+		if (rate != null)
+			entry.put(CalculatorConstants.RATE_FIELD_NAME, rate);
+		if (maxAmount != null)
+			entry.put(CalculatorConstants.MAX_AMOUNT_FIELD_NAME, maxAmount);
+		if (minAmount != null)
+			entry.put(CalculatorConstants.MIN_AMOUNT_FIELD_NAME, minAmount);
+		if (flatAmount != null)
+			entry.put(CalculatorConstants.FLAT_AMOUNT_FIELD_NAME, flatAmount);
+		return entry;
+	}
+
+	@Benchmark
+	public void listScan(Blackhole blackhole) {
+		long now = System.currentTimeMillis();
+		for (String assessmentYear : ASSESSMENT_YEARS) {
+			blackhole.consume(calculateApplicables(TAX, getApplicableMaster(assessmentYear, rebateMaster, now)));
+			blackhole.consume(calculateApplicables(TAX, getApplicableMaster(assessmentYear, penaltyMaster, now)));
+			blackhole.consume(calculateApplicables(TAX, getApplicableMaster(assessmentYear, interestMaster, now)));
+		}
+	}
+
+	@Benchmark
+	public void compiledLookup(Blackhole blackhole) {
+		long now = System.currentTimeMillis();
+		for (String assessmentYear : ASSESSMENT_YEARS) {
+			blackhole.consume(calculate(rebateRules.getApplicable(assessmentYear, now)));
+			blackhole.consume(calculate(penaltyRules.getApplicable(assessmentYear, now)));
+			blackhole.consume(calculate(interestRules.getApplicable(assessmentYear, now)));
+		}
+	}
+
+	private static BigDecimal calculate(TimeBasedRules.Rule rule) {
+		return rule == null ? BigDecimal.ZERO : rule.calculate(TAX);
+	}
+
+	/*
+	 * selection and amount calculation on the master list as done by MasterDataService before the rules were
+	 * compiled
+	 */
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> getApplicableMaster(String assessmentYear, List<Object> masterList, long currentTime) {
+
+		Map<String, Object> objToBeReturned = null;
+		String maxYearFromTheList = "0";
+		Long maxStartTime = 0l;
+
+		for (Object object : masterList) {
+
+			Map<String, Object> objMap = (Map<String, Object>) object;
+			String objFinYear = ((String) objMap.get(CalculatorConstants.FROMFY_FIELD_NAME)).split("-")[0];
+			if (!objMap.containsKey(CalculatorConstants.STARTING_DATE_APPLICABLES)) {
+				if (objFinYear.compareTo(assessmentYear.split("-")[0]) == 0)
+					return objMap;
+
+				else if (assessmentYear.split("-")[0].compareTo(objFinYear) > 0 && maxYearFromTheList.compareTo(objFinYear) <= 0) {
+					maxYearFromTheList = objFinYear;
+					objToBeReturned = objMap;
+				}
+			} else {
+				String objStartDay = ((String) objMap.get(CalculatorConstants.STARTING_DATE_APPLICABLES));
+				if (assessmentYear.split("-")[0].compareTo(objFinYear) >= 0 && maxYearFromTheList.compareTo(objFinYear) <= 0) {
+					maxYearFromTheList = objFinYear;
+					Long startTime;
+					try {
+						Date date = new SimpleDateFormat("dd/MM/yyyy").parse(objStartDay);
+						startTime = date.getTime();
+					} catch (ParseException e) {
+						throw new IllegalStateException(e);
+					}
+					if (startTime < currentTime && maxStartTime < startTime) {
+						objToBeReturned = objMap;
+						maxStartTime = startTime;
+					}
+				}
+			}
+		}
+		return objToBeReturned;
+	}
+
+	private static BigDecimal calculateApplicables(BigDecimal applicableAmount, Map<String, Object> configMap) {
+
+		if (null == configMap)
+			return BigDecimal.ZERO;
+
+		BigDecimal rate = null != configMap.get(CalculatorConstants.RATE_FIELD_NAME)
+				? BigDecimal.valueOf(((Number) configMap.get(CalculatorConstants.RATE_FIELD_NAME)).doubleValue())
+				: null;
+		BigDecimal maxAmt = null != configMap.get(CalculatorConstants.MAX_AMOUNT_FIELD_NAME)
+				? BigDecimal.valueOf(((Number) configMap.get(CalculatorConstants.MAX_AMOUNT_FIELD_NAME)).doubleValue())
+				: null;
+		BigDecimal minAmt = null != configMap.get(CalculatorConstants.MIN_AMOUNT_FIELD_NAME)
+				? BigDecimal.valueOf(((Number) configMap.get(CalculatorConstants.MIN_AMOUNT_FIELD_NAME)).doubleValue())
+				: null;
+		BigDecimal flatAmt = null != configMap.get(CalculatorConstants.FLAT_AMOUNT_FIELD_NAME)
+				? BigDecimal.valueOf(((Number) configMap.get(CalculatorConstants.FLAT_AMOUNT_FIELD_NAME)).doubleValue())
+				: BigDecimal.ZERO;
+
+		BigDecimal currentApplicable;
+		if (null == rate)
+			currentApplicable = flatAmt.compareTo(applicableAmount) > 0 ? applicableAmount : flatAmt;
+		else {
+			currentApplicable = applicableAmount.multiply(rate.divide(CalculatorConstants.HUNDRED));
+			if (null != maxAmt && BigDecimal.ZERO.compareTo(maxAmt) < 0 && currentApplicable.compareTo(maxAmt) > 0)
+				currentApplicable = maxAmt;
+			else if (null != minAmt && currentApplicable.compareTo(minAmt) < 0)
+				currentApplicable = minAmt;
+		}
+		return currentApplicable;
+	}
+
+}
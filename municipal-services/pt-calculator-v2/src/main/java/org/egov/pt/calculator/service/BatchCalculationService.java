@@ -0,0 +1,470 @@
+package org.egov.pt.calculator.service;
+
+import static org.egov.pt.calculator.util.CalculatorConstants.BILLINGSLAB_KEY;
+import static org.egov.pt.calculator.util.CalculatorConstants.EG_PT_BATCH_CALCULATION_ERROR;
+import static org.egov.pt.calculator.util.CalculatorConstants.EG_PT_BATCH_DEMAND_RESTORE_ERROR;
+import static org.egov.pt.calculator.util.CalculatorConstants.EG_PT_DEPRECIATING_ASSESSMENT_ERROR;
+import static org.egov.pt.calculator.util.CalculatorConstants.PT_ADVANCE_CARRYFORWARD;
+import static org.egov.pt.calculator.util.CalculatorConstants.PT_TAX;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.egov.common.contract.request.RequestInfo;
+import org.egov.pt.calculator.util.CalculatorUtils;
+import org.egov.pt.calculator.util.Configurations;
+import org.egov.pt.calculator.util.ResponseInfoFactory;
+import org.egov.pt.calculator.web.models.BatchCalculationReq;
+import org.egov.pt.calculator.web.models.BatchCalculationRes;
+import org.egov.pt.calculator.web.models.BatchCalculationResult;
+import org.egov.pt.calculator.web.models.BatchCalculationResult.StatusEnum;
+import org.egov.pt.calculator.web.models.Calculation;
+import org.egov.pt.calculator.web.models.CalculationCriteria;
+import org.egov.pt.calculator.web.models.CalculationReq;
+import org.egov.pt.calculator.web.models.TaxHeadEstimate;
+import org.egov.pt.calculator.web.models.demand.Demand;
+import org.egov.pt.calculator.web.models.demand.DemandDetail;
+import org.egov.pt.calculator.web.models.property.Property;
+import org.egov.pt.calculator.web.models.property.PropertyDetail;
+import org.egov.tracer.model.CustomException;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.util.CollectionUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import net.minidev.json.JSONArray;
+
+/**
+ * Calculates the properties of a tenant in bulk, used for the reassessment of a whole ULB.
+ *
+ * The masters and the billing slabs are loaded once for the batch, the latest demands are searched for a
+ * chunk of properties at a time and the properties are calculated in parallel. The demands of a chunk are
+ * cancelled and created in billing service with one call each.
+ *
+ * The time taken per property is recorded in the pt.batch.calculation.latency timer and the billing
+ * calls in the pt.batch.demand.latency timer.
+ */
+@Slf4j
+@Service
+public class BatchCalculationService {
+
+	private static final String CALCULATION_METRIC = "pt.batch.calculation.latency";
+
+	private static final String DEMAND_METRIC = "pt.batch.demand.latency";
+
+	private EstimationService estimationService;
+
+	private DemandService demandService;
+
+	private MasterDataService mDataService;
+
+	private BillingSlabService billingSlabService;
+
+	private EnrichmentService enrichmentService;
+
+	private CalculatorUtils utils;
+
+	private Configurations configs;
+
+	private ResponseInfoFactory factory;
+
+	private MeterRegistry meterRegistry;
+
+	private ThreadPoolExecutor executor;
+
+	@Autowired
+	public BatchCalculationService(EstimationService estimationService, DemandService demandService,
+			MasterDataService mDataService, BillingSlabService billingSlabService, EnrichmentService enrichmentService,
+			CalculatorUtils utils, Configurations configs, ResponseInfoFactory factory,
+			ObjectProvider<MeterRegistry> meterRegistry) {
+		this.estimationService = estimationService;
+		this.demandService = demandService;
+		this.mDataService = mDataService;
+		this.billingSlabService = billingSlabService;
+		this.enrichmentService = enrichmentService;
+		this.utils = utils;
+		this.configs = configs;
+		this.factory = factory;
+		this.meterRegistry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+	}
+
+	@PostConstruct
+	public void init() {
+		AtomicInteger threadCount = new AtomicInteger();
+		int poolSize = configs.getBatchCalculationPoolSize();
+		// the calling thread runs the task when the queue is full, which throttles the submission
+		executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(poolSize * 10),
+				runnable -> {
+					Thread thread = new Thread(runnable, "pt-batch-calculation-" + threadCount.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}, new ThreadPoolExecutor.CallerRunsPolicy());
+		executor.allowCoreThreadTimeOut(true);
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	/**
+	 * Calculates the properties of the tenant and replaces their demands for the assessment year, on dry run
+	 * only the report of the difference with the current demands is returned
+	 *
+	 * @param request The batch calculation request
+	 * @return Report of the batch
+	 */
+	public BatchCalculationRes calculate(BatchCalculationReq request) {
+
+		long start = System.nanoTime();
+		RequestInfo requestInfo = request.getRequestInfo();
+		String tenantId = request.getTenantId();
+		boolean dryRun = Boolean.TRUE.equals(request.getDryRun());
+		List<CalculationCriteria> criterias = request.getCalculationCriteria();
+		validate(tenantId, criterias);
+
+		// masters and slabs are loaded once for the whole batch
+		Map<String, Object> masterMap = mDataService.getMasterMap(CalculationReq.builder().requestInfo(requestInfo)
+				.calculationCriteria(criterias).build());
+		Map<String, Map<String, List<Object>>> propertyBasedExemptionMasterMap = new HashMap<>();
+		Map<String, JSONArray> timeBasedExemptionMasterMap = new HashMap<>();
+		mDataService.setPropertyMasterValues(requestInfo, tenantId, propertyBasedExemptionMasterMap,
+				timeBasedExemptionMasterMap);
+		billingSlabService.getBillingSlabIndex(tenantId);
+
+		List<BatchCalculationResult> results = new ArrayList<>(criterias.size());
+		int demandsCreated = 0;
+		int chunkSize = configs.getBatchDemandChunkSize();
+
+		for (int from = 0; from < criterias.size(); from += chunkSize) {
+
+			List<CalculationCriteria> chunk = criterias.subList(from, Math.min(from + chunkSize, criterias.size()));
+			List<CalculationCriteria> enriched = new ArrayList<>(chunk.size());
+			for (CalculationCriteria criteria : chunk) {
+				try {
+					if (criteria.getFromDate() == null || criteria.getToDate() == null)
+						enrichmentService.enrichDemandPeriod(criteria,
+								criteria.getProperty().getPropertyDetails().get(0).getFinancialYear(), masterMap);
+					enriched.add(criteria);
+				} catch (RuntimeException e) {
+					results.add(getFailedResult(criteria, e));
+				}
+			}
+
+			Map<String, Demand> oldDemands = getOldDemands(requestInfo, tenantId, enriched);
+
+			List<CompletableFuture<PropertyCalculation>> futures = enriched.stream()
+					.map(criteria -> submit(() -> calculate(requestInfo, criteria, masterMap, propertyBasedExemptionMasterMap,
+							timeBasedExemptionMasterMap, oldDemands.get(criteria.getProperty().getPropertyId()))))
+					.collect(Collectors.toList());
+
+			List<PropertyCalculation> calculations = futures.stream().map(CompletableFuture::join)
+					.collect(Collectors.toList());
+			calculations.forEach(calculation -> results.add(calculation.result));
+
+			if (!dryRun)
+				demandsCreated += replaceDemands(requestInfo, calculations);
+		}
+
+		long timeTaken = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		Map<StatusEnum, Integer> statusCount = new EnumMap<>(StatusEnum.class);
+		results.forEach(result -> statusCount.merge(result.getStatus(), 1, Integer::sum));
+		double propertiesPerSecond = timeTaken == 0 ? results.size() : results.size() * 1000.0 / timeTaken;
+
+		log.info("Batch calculation of " + results.size() + " properties of " + tenantId + (dryRun ? " (dry run)" : "")
+				+ " took " + timeTaken + " ms, " + String.format("%.1f", propertiesPerSecond) + " properties/s, "
+				+ demandsCreated + " demands created, " + statusCount);
+
+		return BatchCalculationRes.builder()
+				.responseInfo(factory.createResponseInfoFromRequestInfo(requestInfo, true))
+				.tenantId(tenantId)
+				.dryRun(dryRun)
+				.totalCount(results.size())
+				.demandsCreated(demandsCreated)
+				.statusCount(statusCount)
+				.timeTakenInMillis(timeTaken)
+				.propertiesPerSecond(propertiesPerSecond)
+				.results(results)
+				.build();
+	}
+
+	private void validate(String tenantId, List<CalculationCriteria> criterias) {
+
+		if (CollectionUtils.isEmpty(criterias))
+			throw new CustomException(EG_PT_BATCH_CALCULATION_ERROR, "No properties are given for the calculation");
+
+		for (CalculationCriteria criteria : criterias) {
+			Property property = criteria == null ? null : criteria.getProperty();
+			if (property == null)
+				throw new CustomException(EG_PT_BATCH_CALCULATION_ERROR,
+						"Property is not given for one of the calculation criteria");
+			if (CollectionUtils.isEmpty(property.getPropertyDetails()))
+				throw new CustomException(EG_PT_BATCH_CALCULATION_ERROR,
+						"Property details are not given for the property " + property.getPropertyId());
+			if (!tenantId.equals(property.getTenantId()))
+				throw new CustomException(EG_PT_BATCH_CALCULATION_ERROR,
+						"The property " + property.getPropertyId() + " does not belong to the tenant " + tenantId);
+			criteria.setTenantId(tenantId);
+		}
+	}
+
+	/**
+	 * Searches the latest demands of the properties, grouped by the demand period and searched in parallel
+	 */
+	private Map<String, Demand> getOldDemands(RequestInfo requestInfo, String tenantId, List<CalculationCriteria> criterias) {
+
+		Map<List<Long>, List<String>> periodPropertyIds = new LinkedHashMap<>();
+		for (CalculationCriteria criteria : criterias) {
+			String propertyId = criteria.getProperty().getPropertyId();
+			if (propertyId != null)
+				periodPropertyIds.computeIfAbsent(Arrays.asList(criteria.getFromDate(), criteria.getToDate()),
+						period -> new ArrayList<>()).add(propertyId);
+		}
+
+		int searchChunkSize = configs.getBatchDemandSearchChunkSize();
+		List<CompletableFuture<Map<String, Demand>>> searches = new ArrayList<>();
+		periodPropertyIds.forEach((period, propertyIds) -> {
+			for (int from = 0; from < propertyIds.size(); from += searchChunkSize) {
+				List<String> ids = propertyIds.subList(from, Math.min(from + searchChunkSize, propertyIds.size()));
+				searches.add(submit(() -> timed(DEMAND_METRIC, "search", () -> utils
+						.getLatestDemandsForCurrentFinancialYear(requestInfo, tenantId, period.get(0), period.get(1), ids))));
+			}
+		});
+
+		// a failed search fails the batch, the properties can not be told apart from the ones without demand
+		Map<String, Demand> demands = new HashMap<>();
+		try {
+			searches.forEach(search -> demands.putAll(search.join()));
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw e;
+		}
+		return demands;
+	}
+
+	private PropertyCalculation calculate(RequestInfo requestInfo, CalculationCriteria criteria,
+			Map<String, Object> masterMap, Map<String, Map<String, List<Object>>> propertyBasedExemptionMasterMap,
+			Map<String, JSONArray> timeBasedExemptionMasterMap, Demand oldDemand) {
+
+		long start = System.nanoTime();
+		Property property = criteria.getProperty();
+		PropertyDetail detail = property.getPropertyDetails().get(0);
+		BatchCalculationResult result = BatchCalculationResult.builder().propertyId(property.getPropertyId())
+				.assessmentNumber(detail.getAssessmentNumber()).build();
+		PropertyCalculation propertyCalculation = new PropertyCalculation(result);
+
+		try {
+			Calculation calculation = estimationService.getCalculation(requestInfo, criteria, masterMap,
+					propertyBasedExemptionMasterMap, timeBasedExemptionMasterMap, oldDemand);
+			setDifference(result, calculation, oldDemand);
+
+			Demand demand = demandService.prepareDemand(property, calculation, oldDemand);
+			demand.setAdditionalDetails(Collections.singletonMap(BILLINGSLAB_KEY, calculation.getBillingSlabIds()));
+			propertyCalculation.demand = demand;
+			propertyCalculation.oldDemand = oldDemand;
+		} catch (CustomException e) {
+			result.setStatus(EG_PT_DEPRECIATING_ASSESSMENT_ERROR.equals(e.getCode()) ? StatusEnum.DEPRECIATING : StatusEnum.FAILED);
+			result.setErrorCode(e.getCode());
+			result.setErrorMessage(e.getMessage());
+		} catch (RuntimeException e) {
+			log.error("Calculation of the property " + property.getPropertyId() + " failed", e);
+			result.setStatus(StatusEnum.FAILED);
+			result.setErrorCode(EG_PT_BATCH_CALCULATION_ERROR);
+			result.setErrorMessage(e.toString());
+		} finally {
+			meterRegistry.timer(CALCULATION_METRIC, "status", String.valueOf(result.getStatus()))
+					.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		}
+		return propertyCalculation;
+	}
+
+	/**
+	 * Sets the tax of the current demand and of the calculation, the advance carried forward is not counted
+	 * in the new total as it is not a part of the new demand
+	 */
+	private void setDifference(BatchCalculationResult result, Calculation calculation, Demand oldDemand) {
+
+		BigDecimal newTax = BigDecimal.ZERO;
+		BigDecimal newTotal = BigDecimal.ZERO;
+		for (TaxHeadEstimate estimate : calculation.getTaxHeadEstimates()) {
+			if (PT_ADVANCE_CARRYFORWARD.equalsIgnoreCase(estimate.getTaxHeadCode()))
+				continue;
+			if (PT_TAX.equalsIgnoreCase(estimate.getTaxHeadCode()))
+				newTax = newTax.add(estimate.getEstimateAmount());
+			newTotal = newTotal.add(estimate.getEstimateAmount());
+		}
+		result.setNewTaxAmount(newTax);
+		result.setNewTotalAmount(newTotal);
+		result.setBillingSlabIds(calculation.getBillingSlabIds());
+
+		if (oldDemand == null) {
+			result.setStatus(StatusEnum.NEW);
+			result.setDifference(newTotal);
+			return;
+		}
+
+		BigDecimal oldTax = BigDecimal.ZERO;
+		BigDecimal oldTotal = BigDecimal.ZERO;
+		for (DemandDetail detail : oldDemand.getDemandDetails()) {
+			if (PT_ADVANCE_CARRYFORWARD.equalsIgnoreCase(detail.getTaxHeadMasterCode()))
+				continue;
+			if (PT_TAX.equalsIgnoreCase(detail.getTaxHeadMasterCode()))
+				oldTax = oldTax.add(detail.getTaxAmount());
+			oldTotal = oldTotal.add(detail.getTaxAmount());
+		}
+		result.setOldTaxAmount(oldTax);
+		result.setOldTotalAmount(oldTotal);
+		result.setDifference(newTotal.subtract(oldTotal));
+		result.setStatus(newTotal.compareTo(oldTotal) == 0 ? StatusEnum.UNCHANGED : StatusEnum.CHANGED);
+	}
+
+	/**
+	 * Cancels the current demands of the chunk and creates the new ones. Billing service does not allow two
+	 * active demands for the same period, so the new demands can only be created once the current ones are
+	 * cancelled. If the creation fails the cancelled demands are activated again, so that a property is never
+	 * left without a demand.
+	 *
+	 * @return Count of the demands created
+	 */
+	private int replaceDemands(RequestInfo requestInfo, List<PropertyCalculation> calculations) {
+
+		List<PropertyCalculation> toBeReplaced = calculations.stream()
+				.filter(calculation -> calculation.demand != null).collect(Collectors.toList());
+		if (toBeReplaced.isEmpty())
+			return 0;
+
+		List<Demand> oldDemands = toBeReplaced.stream().filter(calculation -> calculation.oldDemand != null)
+				.map(calculation -> calculation.oldDemand).collect(Collectors.toList());
+		List<Demand> demands = toBeReplaced.stream().map(calculation -> calculation.demand).collect(Collectors.toList());
+
+		try {
+			if (!oldDemands.isEmpty())
+				timed(DEMAND_METRIC, "cancel", () -> {
+					demandService.cancelDemands(oldDemands, requestInfo);
+					return null;
+				});
+		} catch (RuntimeException e) {
+			log.error("Failed to cancel the demands of " + oldDemands.size() + " properties", e);
+			setFailed(toBeReplaced, getErrorCode(e), e.getMessage());
+			return 0;
+		}
+
+		try {
+			timed(DEMAND_METRIC, "create", () -> demandService.createDemands(demands, requestInfo));
+			return demands.size();
+		} catch (RuntimeException e) {
+			log.error("Failed to create the demands of " + demands.size() + " properties", e);
+			setFailed(toBeReplaced, getErrorCode(e), e.getMessage());
+			restoreDemands(requestInfo, toBeReplaced, oldDemands);
+			return 0;
+		}
+	}
+
+	/**
+	 * Activates the cancelled demands of a chunk whose new demands could not be created, the properties whose
+	 * demand could not be activated are reported with their own error code for them to be corrected manually
+	 */
+	private void restoreDemands(RequestInfo requestInfo, List<PropertyCalculation> toBeReplaced, List<Demand> oldDemands) {
+
+		if (oldDemands.isEmpty())
+			return;
+		try {
+			timed(DEMAND_METRIC, "restore", () -> {
+				demandService.activateDemands(oldDemands, requestInfo);
+				return null;
+			});
+		} catch (RuntimeException e) {
+			List<PropertyCalculation> cancelled = toBeReplaced.stream().filter(calculation -> calculation.oldDemand != null)
+					.collect(Collectors.toList());
+			log.error("Failed to activate the cancelled demands of the properties "
+					+ cancelled.stream().map(calculation -> calculation.result.getPropertyId()).collect(Collectors.toList()), e);
+			setFailed(cancelled, EG_PT_BATCH_DEMAND_RESTORE_ERROR,
+					"The current demand was cancelled but neither the new demand could be created nor the current one"
+							+ " activated again : " + e.getMessage());
+		}
+	}
+
+	private void setFailed(List<PropertyCalculation> calculations, String code, String message) {
+		calculations.forEach(calculation -> {
+			calculation.result.setStatus(StatusEnum.FAILED);
+			calculation.result.setErrorCode(code);
+			calculation.result.setErrorMessage(message);
+		});
+	}
+
+	private String getErrorCode(RuntimeException e) {
+		return e instanceof CustomException ? ((CustomException) e).getCode() : EG_PT_BATCH_CALCULATION_ERROR;
+	}
+
+	private BatchCalculationResult getFailedResult(CalculationCriteria criteria, RuntimeException e) {
+		Property property = criteria.getProperty();
+		return BatchCalculationResult.builder().propertyId(property.getPropertyId())
+				.assessmentNumber(property.getPropertyDetails().get(0).getAssessmentNumber())
+				.status(StatusEnum.FAILED).errorCode(EG_PT_BATCH_CALCULATION_ERROR)
+				.errorMessage("Demand period could not be set : " + e).build();
+	}
+
+	private <T> T timed(String metric, String operation, Supplier<T> call) {
+		long start = System.nanoTime();
+		try {
+			return call.get();
+		} finally {
+			meterRegistry.timer(metric, "operation", operation).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	private <T> CompletableFuture<T> submit(Supplier<T> task) {
+		Map<String, String> context = MDC.getCopyOfContextMap();
+		return CompletableFuture.supplyAsync(() -> {
+			// the task may run on the calling thread, whose context is put back after the task
+			Map<String, String> previous = MDC.getCopyOfContextMap();
+			if (context != null)
+				MDC.setContextMap(context);
+			try {
+				return task.get();
+			} finally {
+				if (previous != null)
+					MDC.setContextMap(previous);
+				else
+					MDC.clear();
+			}
+		}, executor);
+	}
+
+	private static class PropertyCalculation {
+
+		private final BatchCalculationResult result;
+
+		private Demand demand;
+
+		private Demand oldDemand;
+
+		private PropertyCalculation(BatchCalculationResult result) {
+			this.result = result;
+		}
+	}
+
+}
@@ -1,12 +1,17 @@
 package org.egov.pt.calculator.service;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 import org.egov.common.contract.request.RequestInfo;
 import org.egov.pt.calculator.producer.Producer;
 import org.egov.pt.calculator.repository.PTCalculatorDBRepository;
+import org.egov.pt.calculator.util.BillingSlabIndex;
 import org.egov.pt.calculator.util.BillingSlabUtils;
 import org.egov.pt.calculator.util.Configurations;
 import org.egov.pt.calculator.util.ResponseInfoFactory;
@@ -48,15 +53,22 @@ public class BillingSlabService {
 	@Value("${billingslab.max.toPLotSize}")
 	private Double maxToPlotSize;
 
+	@Value("${billingslab.index.ttl.ms}")
+	private Long indexTtl;
+
+	private Map<String, TenantIndex> indexes = new ConcurrentHashMap<>();
+
 	public BillingSlabRes createBillingSlab(BillingSlabReq billingSlabReq) {
 		enrichBillingSlabForCreate(billingSlabReq);
 		producer.push(configurations.getBillingSlabSavePersisterTopic(), billingSlabReq);
+		refreshIndex(billingSlabReq.getBillingSlab());
 		return billingSlabUtils.getBillingSlabResponse(billingSlabReq);
 	}
 	
 	public BillingSlabRes updateBillingSlab(BillingSlabReq billingSlabReq) {
 		enrichBillingSlabForUpdate(billingSlabReq);
 		producer.push(configurations.getBillingSlabUpdatePersisterTopic(), billingSlabReq);
+		refreshIndex(billingSlabReq.getBillingSlab());
 		return billingSlabUtils.getBillingSlabResponse(billingSlabReq);
 	}
 	
@@ -102,5 +114,57 @@ public class BillingSlabService {
 		return BillingSlabRes.builder().responseInfo(factory.createResponseInfoFromRequestInfo(requestInfo, true))
 				.billingSlab(billingSlabs).build();
 	}
+
+	/**
+	 * Returns the index over the billing slabs of the tenant, the slabs are loaded from db on the first use
+	 * and reloaded once the index is older than the configured ttl so that the slabs created through the
+	 * other instances are picked up
+	 *
+	 * @param tenantId tenantId of the slabs
+	 * @return BillingSlabIndex
+	 */
+	public BillingSlabIndex getBillingSlabIndex(String tenantId) {
+		TenantIndex tenantIndex = indexes.get(tenantId);
+		if (tenantIndex != null && System.currentTimeMillis() - tenantIndex.loadedAt < indexTtl)
+			return tenantIndex.index;
+
+		List<BillingSlab> billingSlabs;
+		try {
+			billingSlabs = dbRepository.searchBillingSlab(BillingSlabSearchCriteria.builder().tenantId(tenantId).build());
+		} catch (Exception e) {
+			log.error("Exception while fetching billing slabs from db: " + e);
+			return BillingSlabIndex.build(new ArrayList<>(), configurations.getSlabValueAll());
+		}
+		BillingSlabIndex index = BillingSlabIndex.build(billingSlabs, configurations.getSlabValueAll());
+		indexes.put(tenantId, new TenantIndex(index, System.currentTimeMillis()));
+		return index;
+	}
+
+	/**
+	 * Rebuilds the indexes loaded for the tenants of the slabs with the slabs created or updated, the slabs
+	 * are persisted asynchronously so they are merged into the index instead of reloading it from db
+	 */
+	private void refreshIndex(List<BillingSlab> billingSlabs) {
+		Map<String, List<BillingSlab>> slabsByTenant = billingSlabs.stream()
+				.collect(Collectors.groupingBy(BillingSlab::getTenantId));
+		slabsByTenant.forEach((tenantId, changedSlabs) -> indexes.computeIfPresent(tenantId, (key, tenantIndex) -> {
+			Map<String, BillingSlab> slabs = new LinkedHashMap<>();
+			tenantIndex.index.getSlabs().forEach(slab -> slabs.put(slab.getId(), slab));
+			changedSlabs.forEach(slab -> slabs.put(slab.getId(), slab));
+			return new TenantIndex(BillingSlabIndex.build(new ArrayList<>(slabs.values()), configurations.getSlabValueAll()),
+					tenantIndex.loadedAt);
+		}));
+	}
+
+	private static class TenantIndex {
+
+		private final BillingSlabIndex index;
+
+		private final long loadedAt;
+
+		private TenantIndex(BillingSlabIndex index, long loadedAt) {
+			this.index = index;
+			this.loadedAt = loadedAt;
+		}
+	}
 }
- 
@@ -162,20 +162,62 @@ public class DemandService {
 					CalculatorConstants.EG_PT_DEPRECIATING_ASSESSMENT_ERROR_MSG + lesserAssessments);
 		}
 		
-		DemandRequest dmReq = DemandRequest.builder().demands(demands).requestInfo(request.getRequestInfo()).build();
+		DemandResponse res = createDemands(demands, request.getRequestInfo());
+		log.info(" The demand Response is : " + res);
+	//	assessmentService.saveAssessments(res.getDemands(), consumerCodeFinYearMap, request.getRequestInfo());
+		return propertyCalculationMap;
+	}
+
+	/**
+	 * Creates the demands in billing service in one call
+	 * 
+	 * @param demands The demands to be created
+	 * @param requestInfo The incoming requestInfo
+	 * @return Response of billing service
+	 */
+	public DemandResponse createDemands(List<Demand> demands, RequestInfo requestInfo) {
+
+		DemandRequest dmReq = DemandRequest.builder().demands(demands).requestInfo(requestInfo).build();
 		String url = new StringBuilder().append(configs.getBillingServiceHost())
 				.append(configs.getDemandCreateEndPoint()).toString();
-		DemandResponse res = new DemandResponse();
 
 		try {
-			res = restTemplate.postForObject(url, dmReq, DemandResponse.class);
+			return restTemplate.postForObject(url, dmReq, DemandResponse.class);
+		} catch (HttpClientErrorException e) {
+			throw new ServiceCallException(e.getResponseBodyAsString());
+		}
+	}
+
+	/**
+	 * Cancels the demands in billing service in one call
+	 * 
+	 * @param demands The demands to be cancelled
+	 * @param requestInfo The incoming requestInfo
+	 */
+	public void cancelDemands(List<Demand> demands, RequestInfo requestInfo) {
+		updateDemandStatus(demands, Demand.DemandStatusEnum.CANCELLED, requestInfo);
+	}
+
+	/**
+	 * Activates the cancelled demands again in billing service in one call, used when the demands replacing
+	 * them could not be created
+	 * 
+	 * @param demands The demands to be activated
+	 * @param requestInfo The incoming requestInfo
+	 */
+	public void activateDemands(List<Demand> demands, RequestInfo requestInfo) {
+		updateDemandStatus(demands, Demand.DemandStatusEnum.ACTIVE, requestInfo);
+	}
 
+	private void updateDemandStatus(List<Demand> demands, Demand.DemandStatusEnum status, RequestInfo requestInfo) {
+
+		demands.forEach(demand -> demand.setStatus(status));
+		DemandRequest request = DemandRequest.builder().demands(demands).requestInfo(requestInfo).build();
+		try {
+			restTemplate.postForObject(utils.getUpdateDemandUrl().toString(), request, DemandResponse.class);
 		} catch (HttpClientErrorException e) {
 			throw new ServiceCallException(e.getResponseBodyAsString());
 		}
-		log.info(" The demand Response is : " + res);
-	//	assessmentService.saveAssessments(res.getDemands(), consumerCodeFinYearMap, request.getRequestInfo());
-		return propertyCalculationMap;
 	}
 
 	/**
@@ -400,7 +442,7 @@ public class DemandService {
 	 * @param calculation
 	 * @return
 	 */
-	private Demand prepareDemand(Property property, Calculation calculation,Demand demand) {
+	protected Demand prepareDemand(Property property, Calculation calculation,Demand demand) {
 
 		String tenantId = property.getTenantId();
 		PropertyDetail detail = property.getPropertyDetails().get(0);
@@ -483,7 +525,7 @@ public class DemandService {
 
 
 		Map<String, BigDecimal> rebatePenaltyEstimates = payService.applyPenaltyRebateAndInterest(taxAmt,collectedPtTax,
-                taxPeriod.getFinancialYear(), timeBasedExmeptionMasterMap,payments,taxPeriod);
+                taxPeriod.getFinancialYear(), tenantId, timeBasedExmeptionMasterMap,payments,taxPeriod);
 		
 		if(null == rebatePenaltyEstimates) return isCurrentDemand;
 		
@@ -12,13 +12,15 @@ import org.egov.common.contract.request.RequestInfo;
 import org.egov.common.contract.request.User;
 import org.egov.common.contract.response.ResponseInfo;
 import org.egov.pt.calculator.repository.Repository;
+import org.egov.pt.calculator.util.BillingSlabIndex;
+import org.egov.pt.calculator.util.BillingSlabIndex.SlabGroup;
 import org.egov.pt.calculator.util.CalculatorConstants;
 import org.egov.pt.calculator.util.CalculatorUtils;
 import org.egov.pt.calculator.util.Configurations;
 import org.egov.pt.calculator.util.PBFirecessUtils;
+import org.egov.pt.calculator.util.TimeBasedRules;
 import org.egov.pt.calculator.validator.CalculationValidator;
 import org.egov.pt.calculator.web.models.*;
-import org.egov.pt.calculator.web.models.BillingSlabSearchCriteria;
 import org.egov.pt.calculator.web.models.collections.Payment;
 import org.egov.pt.calculator.web.models.demand.*;
 import org.egov.pt.calculator.web.models.Calculation;
@@ -163,24 +165,20 @@ public class EstimationService {
      * @param requestInfo request info from incoming request.
 	 * @return Map<String, Double>
 	 */
-	private Map<String,List> getEstimationMap(CalculationCriteria criteria, RequestInfo requestInfo, Map<String, Object> masterMap) {
+	private Map<String,List> getEstimationMap(CalculationCriteria criteria, RequestInfo requestInfo, Map<String, Object> masterMap,
+			Map<String, Map<String, List<Object>>> propertyBasedExemptionMasterMap, Map<String, JSONArray> timeBasedExemptionMasterMap) {
 
 		BigDecimal taxAmt = BigDecimal.ZERO;
 		BigDecimal usageExemption = BigDecimal.ZERO;
 		Property property = criteria.getProperty();
 		PropertyDetail detail = property.getPropertyDetails().get(0);
 		String assessmentYear = detail.getFinancialYear();
-		String tenantId = property.getTenantId();
 
 		if(criteria.getFromDate()==null || criteria.getToDate()==null)
             enrichmentService.enrichDemandPeriod(criteria,assessmentYear,masterMap);
 
-        List<BillingSlab> filteredBillingSlabs = getSlabsFiltered(property, requestInfo);
-
-		Map<String, Map<String, List<Object>>> propertyBasedExemptionMasterMap = new HashMap<>();
-		Map<String, JSONArray> timeBasedExemptionMasterMap = new HashMap<>();
-		mDataService.setPropertyMasterValues(requestInfo, tenantId, propertyBasedExemptionMasterMap,
-				timeBasedExemptionMasterMap);
+        SlabGroup slabGroup = getSlabsFiltered(property, requestInfo);
+        List<BillingSlab> filteredBillingSlabs = slabGroup.getSlabs();
 
 		List<String> billingSlabIds = new LinkedList<>();
 
@@ -202,7 +200,7 @@ public class EstimationService {
 
 			for (Unit unit : detail.getUnits()) {
 
-				BillingSlab slab = getSlabForCalc(filteredBillingSlabs, unit);
+				BillingSlab slab = getSlabForCalc(slabGroup, unit);
 				BigDecimal currentUnitTax = getTaxForUnit(slab, unit);
 				billingSlabIds.add(slab.getId()+"|"+i);
 
@@ -218,7 +216,8 @@ public class EstimationService {
 				}
 				taxAmt = taxAmt.add(currentUnitTax);
 				usageExemption = usageExemption
-						.add(getExemption(unit, currentUnitTax, assessmentYear, propertyBasedExemptionMasterMap));
+						.add(getExemption(unit, currentUnitTax, assessmentYear, property.getTenantId(),
+								propertyBasedExemptionMasterMap));
 				i++;
 			}
 			/*
@@ -230,7 +229,7 @@ public class EstimationService {
 			 * special case to handle property with one unit
 			 */
 			if (detail.getUnits().size() == 1)
-				usageExemption = getExemption(detail.getUnits().get(0), taxAmt, assessmentYear,
+				usageExemption = getExemption(detail.getUnits().get(0), taxAmt, assessmentYear, property.getTenantId(),
 						propertyBasedExemptionMasterMap);
 		}
 
@@ -363,7 +362,7 @@ public class EstimationService {
 		payableTax = payableTax.add(usageExemption);
 
 		// owner exemption
-		BigDecimal userExemption = getExemption(detail.getOwners(), payableTax, assessmentYear,
+		BigDecimal userExemption = getExemption(detail.getOwners(), payableTax, assessmentYear, property.getTenantId(),
 				propertyBasedExemptionMasterMap).setScale(2, 2).negate();
 		estimates.add(TaxHeadEstimate.builder().taxHeadCode(PT_OWNER_EXEMPTION).estimateAmount(userExemption).build());
 		payableTax = payableTax.add(userExemption);
@@ -373,11 +372,13 @@ public class EstimationService {
 		BigDecimal fireCess;
 
 		if (usePBFirecessLogic) {
-			fireCess = firecessUtils.getPBFireCess(payableTax, assessmentYear, fireCessMasterList, detail);
+			fireCess = firecessUtils.getPBFireCess(payableTax, assessmentYear, property.getTenantId(),
+					fireCessMasterList, detail);
 			estimates.add(
 					TaxHeadEstimate.builder().taxHeadCode(PT_FIRE_CESS).estimateAmount(fireCess.setScale(2, 2)).build());
 		} else {
-			fireCess = mDataService.getCess(payableTax, assessmentYear, fireCessMasterList);
+			fireCess = mDataService.getCess(payableTax, assessmentYear, property.getTenantId(),
+					CalculatorConstants.FIRE_CESS_MASTER, fireCessMasterList);
 			estimates.add(
 					TaxHeadEstimate.builder().taxHeadCode(PT_FIRE_CESS).estimateAmount(fireCess.setScale(2, 2)).build());
 
@@ -385,7 +386,8 @@ public class EstimationService {
 
 		// Cancer cess
 		List<Object> cancerCessMasterList = timeBasedExemeptionMasterMap.get(CalculatorConstants.CANCER_CESS_MASTER);
-		BigDecimal cancerCess = mDataService.getCess(payableTax, assessmentYear, cancerCessMasterList);
+		BigDecimal cancerCess = mDataService.getCess(payableTax, assessmentYear, property.getTenantId(),
+				CalculatorConstants.CANCER_CESS_MASTER, cancerCessMasterList);
 		estimates.add(
 				TaxHeadEstimate.builder().taxHeadCode(PT_CANCER_CESS).estimateAmount(cancerCess.setScale(2, 2)).build());
 
@@ -407,7 +409,7 @@ public class EstimationService {
 
 		// get applicable rebate and penalty
 		Map<String, BigDecimal> rebatePenaltyMap = payService.applyPenaltyRebateAndInterest(payableTax, BigDecimal.ZERO,
-				 assessmentYear, timeBasedExemeptionMasterMap,payments,taxPeriod);
+				 assessmentYear, property.getTenantId(), timeBasedExemeptionMasterMap,payments,taxPeriod);
 
 		if (null != rebatePenaltyMap) {
 
@@ -446,7 +448,48 @@ public class EstimationService {
 	 */
     private Calculation getCalculation(RequestInfo requestInfo, CalculationCriteria criteria,Map<String,Object> masterMap) {
 
-        Map<String,List> estimatesAndBillingSlabs = getEstimationMap(criteria, requestInfo,masterMap);
+		Map<String, Map<String, List<Object>>> propertyBasedExemptionMasterMap = new HashMap<>();
+		Map<String, JSONArray> timeBasedExemptionMasterMap = new HashMap<>();
+		mDataService.setPropertyMasterValues(requestInfo, criteria.getProperty().getTenantId(), propertyBasedExemptionMasterMap,
+				timeBasedExemptionMasterMap);
+
+		Map<String,List> estimatesAndBillingSlabs = getEstimationMap(criteria, requestInfo, masterMap,
+				propertyBasedExemptionMasterMap, timeBasedExemptionMasterMap);
+
+		// false in the argument represents that the demand shouldn't be updated from this call
+		Demand oldDemand = utils.getLatestDemandForCurrentFinancialYear(requestInfo,criteria);
+		return getCalculation(requestInfo, criteria, masterMap, estimatesAndBillingSlabs, oldDemand);
+	}
+
+	/**
+	 * Calculates the tax of a property of a batch, the masters and the latest demand of the property for the
+	 * assessment year are loaded once for the whole batch by the caller.
+	 *
+	 * The demand period of the criteria should be set before the old demand is searched.
+	 *
+	 * @param requestInfo request info from incoming request.
+	 * @param criteria criteria based on which calculation will be done.
+	 * @param masterMap masters of the tenant fetched with getMasterMap
+	 * @param propertyBasedExemptionMasterMap property masters fetched with setPropertyMasterValues
+	 * @param timeBasedExemptionMasterMap time based masters fetched with setPropertyMasterValues
+	 * @param oldDemand latest active demand of the property for the demand period, null if there is none
+	 * @return Calculation of the property
+	 */
+	public Calculation getCalculation(RequestInfo requestInfo, CalculationCriteria criteria, Map<String, Object> masterMap,
+			Map<String, Map<String, List<Object>>> propertyBasedExemptionMasterMap,
+			Map<String, JSONArray> timeBasedExemptionMasterMap, Demand oldDemand) {
+
+		Property property = criteria.getProperty();
+		calcValidator.validatePropertyForCalculation(property.getPropertyDetails().get(0));
+		Map<String,List> estimatesAndBillingSlabs = getEstimationMap(criteria, requestInfo, masterMap,
+				propertyBasedExemptionMasterMap, timeBasedExemptionMasterMap);
+		Calculation calculation = getCalculation(requestInfo, criteria, masterMap, estimatesAndBillingSlabs, oldDemand);
+		calculation.setServiceNumber(property.getPropertyId());
+		return calculation;
+	}
+
+	private Calculation getCalculation(RequestInfo requestInfo, CalculationCriteria criteria, Map<String,Object> masterMap,
+			Map<String,List> estimatesAndBillingSlabs, Demand oldDemand) {
 
 		List<TaxHeadEstimate> estimates = estimatesAndBillingSlabs.get("estimates");
 		List<String> billingSlabIds = estimatesAndBillingSlabs.get("billingSlabIds");
@@ -508,8 +551,6 @@ public class EstimationService {
         }
 
 		BigDecimal totalAmount = taxAmt.add(penalty).add(rebate).add(exemption);
-		// false in the argument represents that the demand shouldn't be updated from this call
-		Demand oldDemand = utils.getLatestDemandForCurrentFinancialYear(requestInfo,criteria);
 		BigDecimal collectedAmtForOldDemand = demandService.getCarryForwardAndCancelOldDemand(ptTax, criteria, requestInfo,oldDemand, false);
 
 		if(collectedAmtForOldDemand.compareTo(BigDecimal.ZERO) > 0)
@@ -537,63 +578,19 @@ public class EstimationService {
 	/**
 	 * method to do a first level filtering on the slabs based on the values present in Property detail
 	 */
-	private List<BillingSlab> getSlabsFiltered(Property property, RequestInfo requestInfo) {
+	private SlabGroup getSlabsFiltered(Property property, RequestInfo requestInfo) {
 
 		PropertyDetail detail = property.getPropertyDetails().get(0);
 		String tenantId = property.getTenantId();
-		BillingSlabSearchCriteria slabSearchCriteria = BillingSlabSearchCriteria.builder().tenantId(tenantId).build();
-		List<BillingSlab> billingSlabs = billingSlabService.searchBillingSlabs(requestInfo, slabSearchCriteria)
-				.getBillingSlab();
+		BillingSlabIndex slabIndex = billingSlabService.getBillingSlabIndex(tenantId);
 
-		log.debug(" the slabs count : " + billingSlabs.size());
-		final String all = configs.getSlabValueAll();
+		log.debug(" the slabs count : " + slabIndex.getSlabs().size());
 
 		Double plotSize = null != detail.getLandArea() ? detail.getLandArea() : detail.getBuildUpArea();
 
-		final String dtlPtType = detail.getPropertyType();
-		final String dtlPtSubType = detail.getPropertySubType();
-		final String dtlOwnerShipCat = detail.getOwnershipCategory();
-		final String dtlSubOwnerShipCat = detail.getSubOwnershipCategory();
-		final String dtlAreaType = property.getAddress().getLocality().getArea();
-		final Boolean dtlIsMultiFloored = detail.getNoOfFloors() > 1;
-
-		return billingSlabs.stream().filter(slab -> {
-
-			Boolean slabMultiFloored = slab.getIsPropertyMultiFloored();
-			String  slabAreaType = slab.getAreaType();
-			String  slabPropertyType = slab.getPropertyType();
-			String  slabPropertySubType = slab.getPropertySubType();
-			String  slabOwnerShipCat = slab.getOwnerShipCategory();
-			String  slabSubOwnerShipCat = slab.getSubOwnerShipCategory();
-			Double  slabAreaFrom = slab.getFromPlotSize();
-			Double  slabAreaTo = slab.getToPlotSize();
-
-			boolean isPropertyMultiFloored = slabMultiFloored.equals(dtlIsMultiFloored);
-
-			boolean isAreaMatching = slabAreaType.equalsIgnoreCase(dtlAreaType) || all.equalsIgnoreCase(slab.getAreaType());
-
-			boolean isPtTypeMatching = slabPropertyType.equalsIgnoreCase(dtlPtType);
-
-			boolean isPtSubTypeMatching = slabPropertySubType.equalsIgnoreCase(dtlPtSubType)
-					|| all.equalsIgnoreCase(slabPropertySubType);
-
-			boolean isOwnerShipMatching = slabOwnerShipCat.equalsIgnoreCase(dtlOwnerShipCat)
-					|| all.equalsIgnoreCase(slabOwnerShipCat);
-
-			boolean isSubOwnerShipMatching = slabSubOwnerShipCat.equalsIgnoreCase(dtlSubOwnerShipCat)
-					|| all.equalsIgnoreCase(slabSubOwnerShipCat);
-
-			boolean isPlotMatching = false;
-
-			if (plotSize == 0.0)
-				isPlotMatching = slabAreaFrom <= plotSize && slabAreaTo >= plotSize;
-			else
-				isPlotMatching = slabAreaFrom < plotSize && slabAreaTo >= plotSize;
-
-			return isPtTypeMatching && isPtSubTypeMatching && isOwnerShipMatching && isSubOwnerShipMatching
-					&& isPlotMatching && isAreaMatching && isPropertyMultiFloored;
-
-		}).collect(Collectors.toList());
+		return slabIndex.getPropertySlabs(detail.getPropertyType(), detail.getPropertySubType(),
+				detail.getOwnershipCategory(), detail.getSubOwnershipCategory(),
+				property.getAddress().getLocality().getArea(), detail.getNoOfFloors() > 1, plotSize);
 	}
 
 	/**
@@ -603,40 +600,15 @@ public class EstimationService {
 	 * @param billingSlabs slabs filtered with property detail related values
 	 * @param unit unit of the property for which the tax has be calculated
 	 */
-	private BillingSlab getSlabForCalc(List<BillingSlab> billingSlabs, Unit unit) {
-
-		final String all = configs.getSlabValueAll();
-
-		List<BillingSlab> matchingList = new ArrayList<>();
-
-		for (BillingSlab billSlb : billingSlabs) {
-
-			Double floorNo = Double.parseDouble(unit.getFloorNo());
-
-			boolean isMajorMatching = billSlb.getUsageCategoryMajor().equalsIgnoreCase(unit.getUsageCategoryMajor())
-					|| (billSlb.getUsageCategoryMajor().equalsIgnoreCase(all));
+	private BillingSlab getSlabForCalc(SlabGroup billingSlabs, Unit unit) {
 
-			boolean isMinorMatching = billSlb.getUsageCategoryMinor().equalsIgnoreCase(unit.getUsageCategoryMinor())
-					|| (billSlb.getUsageCategoryMinor().equalsIgnoreCase(all));
+		Double floorNo = Double.parseDouble(unit.getFloorNo());
 
-			boolean isSubMinorMatching = billSlb.getUsageCategorySubMinor().equalsIgnoreCase(
-					unit.getUsageCategorySubMinor()) || (billSlb.getUsageCategorySubMinor().equalsIgnoreCase(all));
+		List<BillingSlab> matchingList = billingSlabs.getUnitSlabs(unit.getUsageCategoryMajor(),
+				unit.getUsageCategoryMinor(), unit.getUsageCategorySubMinor(), unit.getUsageCategoryDetail(),
+				unit.getOccupancyType(), floorNo);
+		matchingList.forEach(billSlb -> log.debug(" The Id of the matching slab : " + billSlb.getId()));
 
-			boolean isDetailsMatching = billSlb.getUsageCategoryDetail().equalsIgnoreCase(unit.getUsageCategoryDetail())
-					|| (billSlb.getUsageCategoryDetail().equalsIgnoreCase(all));
-
-			boolean isFloorMatching = billSlb.getFromFloor() <= floorNo && billSlb.getToFloor() >= floorNo;
-
-			boolean isOccupancyTypeMatching = billSlb.getOccupancyType().equalsIgnoreCase(unit.getOccupancyType())
-					|| (billSlb.getOccupancyType().equalsIgnoreCase(all));
-
-			if (isMajorMatching && isMinorMatching && isSubMinorMatching && isDetailsMatching && isFloorMatching
-					&& isOccupancyTypeMatching) {
-
-				matchingList.add(billSlb);
-				log.debug(" The Id of the matching slab : " + billSlb.getId());
-			}
-		}
 		if (matchingList.size() == 1)
 			return matchingList.get(0);
 		else if (matchingList.size() == 0)
@@ -651,17 +623,17 @@ public class EstimationService {
 	 * The exemption discount will be applied based on the exemption rate of the
 	 * usage master types.
 	 */
-	private BigDecimal getExemption(Unit unit, BigDecimal currentUnitTax, String financialYear,
+	private BigDecimal getExemption(Unit unit, BigDecimal currentUnitTax, String financialYear, String tenantId,
 			Map<String, Map<String, List<Object>>> propertyMasterMap) {
 
-		Map<String, Object> exemption = getExemptionFromUsage(unit, financialYear, propertyMasterMap);
+		Map<String, Object> exemption = getExemptionFromUsage(unit, financialYear, tenantId, propertyMasterMap);
 		return mDataService.calculateApplicables(currentUnitTax, exemption);
 	}
 
 	/**
 	 * Applies discount on Total tax amount OwnerType based on exemptions.
 	 */
-	private BigDecimal getExemption(Set<OwnerInfo> owners, BigDecimal taxAmt, String financialYear,
+	private BigDecimal getExemption(Set<OwnerInfo> owners, BigDecimal taxAmt, String financialYear, String tenantId,
 			Map<String, Map<String, List<Object>>> propertyMasterMap) {
 
 		Map<String, List<Object>> ownerTypeMap = propertyMasterMap.get(OWNER_TYPE_MASTER);
@@ -674,8 +646,8 @@ public class EstimationService {
 			if (null == ownerTypeMap.get(owner.getOwnerType()))
 				continue;
 
-			Map<String, Object> applicableOwnerType = mDataService.getApplicableMaster(financialYear,
-					ownerTypeMap.get(owner.getOwnerType()));
+			Map<String, Object> applicableOwnerType = mDataService.getApplicableMaster(tenantId,
+					OWNER_TYPE_MASTER + "|" + owner.getOwnerType(), financialYear, ownerTypeMap.get(owner.getOwnerType()));
 
 			if (null != applicableOwnerType) {
 
@@ -701,9 +673,10 @@ public class EstimationService {
 	 *
 	 * @param unit unit for which usage exemption will be applied
 	 * @param financialYear year for which calculation is being done
+	 * @param tenantId tenant of the property
 	 */
 	@SuppressWarnings("unchecked")
-	private Map<String, Object> getExemptionFromUsage(Unit unit, String financialYear,
+	private Map<String, Object> getExemptionFromUsage(Unit unit, String financialYear, String tenantId,
 			Map<String, Map<String, List<Object>>> propertyBasedExemptionMasterMap) {
 
 		Map<String, List<Object>> usageDetails = propertyBasedExemptionMasterMap.get(USAGE_DETAIL_MASTER);
@@ -714,20 +687,24 @@ public class EstimationService {
 		Map<String, Object> applicableUsageMasterExemption = null;
 
 		if (null != usageDetails.get(unit.getUsageCategoryDetail()))
-			applicableUsageMasterExemption = mDataService.getApplicableMaster(financialYear,
+			applicableUsageMasterExemption = mDataService.getApplicableMaster(tenantId,
+					USAGE_DETAIL_MASTER + "|" + unit.getUsageCategoryDetail(), financialYear,
 					usageDetails.get(unit.getUsageCategoryDetail()));
 
 		if (isExemptionNull(applicableUsageMasterExemption)
 				&& null != usageSubMinors.get(unit.getUsageCategorySubMinor()))
-			applicableUsageMasterExemption = mDataService.getApplicableMaster(financialYear,
+			applicableUsageMasterExemption = mDataService.getApplicableMaster(tenantId,
+					USAGE_SUB_MINOR_MASTER + "|" + unit.getUsageCategorySubMinor(), financialYear,
 					usageSubMinors.get(unit.getUsageCategorySubMinor()));
 
 		if (isExemptionNull(applicableUsageMasterExemption) && null != usageMinors.get(unit.getUsageCategoryMinor()))
-			applicableUsageMasterExemption = mDataService.getApplicableMaster(financialYear,
+			applicableUsageMasterExemption = mDataService.getApplicableMaster(tenantId,
+					USAGE_MINOR_MASTER + "|" + unit.getUsageCategoryMinor(), financialYear,
 					usageMinors.get(unit.getUsageCategoryMinor()));
 
 		if (isExemptionNull(applicableUsageMasterExemption) && null != usageMajors.get(unit.getUsageCategoryMajor()))
-			applicableUsageMasterExemption = mDataService.getApplicableMaster(financialYear,
+			applicableUsageMasterExemption = mDataService.getApplicableMaster(tenantId,
+					USAGE_MAJOR_MASTER + "|" + unit.getUsageCategoryMajor(), financialYear,
 					usageMajors.get(unit.getUsageCategoryMajor()));
 
 		if (null != applicableUsageMasterExemption)
@@ -846,10 +823,12 @@ public class EstimationService {
 
 		Long docDate =  Long.valueOf(String.valueOf(additionalDetails.get(DOCUMENT_DATE)));
 		BigDecimal taxAmt = calculation.getTaxAmount();
-		BigDecimal rebate = getRebate(taxAmt, timeBasedExemptionMasterMap.get(CalculatorConstants.REBATE_MASTER), docDate);
+		BigDecimal rebate = getRebate(taxAmt, property.getTenantId(),
+				timeBasedExemptionMasterMap.get(CalculatorConstants.REBATE_MASTER), docDate);
 		BigDecimal penalty = BigDecimal.ZERO;
 		if (rebate.equals(BigDecimal.ZERO)) {
-			penalty = getPenalty(taxAmt,timeBasedExemptionMasterMap.get(CalculatorConstants.PENANLTY_MASTER),docDate);
+			penalty = getPenalty(taxAmt, property.getTenantId(),
+					timeBasedExemptionMasterMap.get(CalculatorConstants.PENANLTY_MASTER), docDate);
 		}
 
 		calculation.setRebate(rebate.setScale(2, 2).negate());
@@ -1003,23 +982,25 @@ public class EstimationService {
 	/**
 	 * Returns the Amount of rebate that has to be applied on the given tax amount for the given period
 	 * @param taxAmt
+	 * @param tenantId
 	 * @param rebateMasterList
 	 * @param docDate
 	 *
 	 * @return
 	 */
 
-	public BigDecimal getRebate(BigDecimal taxAmt, JSONArray rebateMasterList, Long docDate) {
+	public BigDecimal getRebate(BigDecimal taxAmt, String tenantId, JSONArray rebateMasterList, Long docDate) {
 
 		BigDecimal rebateAmt = BigDecimal.ZERO;
-		Map<String, Object> rebate = getApplicableMaster(rebateMasterList);
+		TimeBasedRules.Rule rebate = mDataService.getTimeBasedRules(tenantId, CalculatorConstants.REBATE_MASTER,
+				rebateMasterList).getApplicable(System.currentTimeMillis());
 
 		if (null == rebate) return rebateAmt;
-		Integer mutationPaymentPeriodInMonth = Integer.parseInt(String.valueOf(rebate.get(MUTATION_PAYMENT_PERIOD_IN_MONTH)));
+		Integer mutationPaymentPeriodInMonth = Integer.parseInt(String.valueOf(rebate.getMaster().get(MUTATION_PAYMENT_PERIOD_IN_MONTH)));
 		Long deadlineDate = getDeadlineDate(docDate,mutationPaymentPeriodInMonth);
 
 		if (deadlineDate > System.currentTimeMillis())
-			rebateAmt = mDataService.calculateApplicables(taxAmt, rebate);
+			rebateAmt = rebate.calculate(taxAmt);
 		return rebateAmt;
 	}
 
@@ -1027,21 +1008,23 @@ public class EstimationService {
 	 * Returns the Amount of penalty that has to be applied on the given tax amount for the given period
 	 *
 	 * @param taxAmt
+	 * @param tenantId
 	 * @param penaltyMasterList
 	 * @param docDate
 	 * @return
 	 */
-	public BigDecimal getPenalty(BigDecimal taxAmt, JSONArray penaltyMasterList, Long docDate) {
+	public BigDecimal getPenalty(BigDecimal taxAmt, String tenantId, JSONArray penaltyMasterList, Long docDate) {
 
 		BigDecimal penaltyAmt = BigDecimal.ZERO;
-		Map<String, Object> penalty = getApplicableMaster(penaltyMasterList);
+		TimeBasedRules.Rule penalty = mDataService.getTimeBasedRules(tenantId, CalculatorConstants.PENANLTY_MASTER,
+				penaltyMasterList).getApplicable(System.currentTimeMillis());
 
 		if (null == penalty) return penaltyAmt;
-		Integer mutationPaymentPeriodInMonth = Integer.parseInt(String.valueOf(penalty.get(MUTATION_PAYMENT_PERIOD_IN_MONTH)));
+		Integer mutationPaymentPeriodInMonth = Integer.parseInt(String.valueOf(penalty.getMaster().get(MUTATION_PAYMENT_PERIOD_IN_MONTH)));
 		Long deadlineDate = getDeadlineDate(docDate,mutationPaymentPeriodInMonth);
 
 		if (deadlineDate < System.currentTimeMillis())
-			penaltyAmt = mDataService.calculateApplicables(taxAmt, penalty);
+			penaltyAmt = penalty.calculate(taxAmt);
 
 		return penaltyAmt;
 	}
@@ -1053,30 +1036,8 @@ public class EstimationService {
 	 */
 
 	public Map<String, Object> getApplicableMaster(List<Object> masterList) {
-
-		Map<String, Object> objToBeReturned = null;
-
-		for (Object object : masterList) {
-
-			Map<String, Object> objMap = (Map<String, Object>) object;
-			String objFinYear = ((String) objMap.get(CalculatorConstants.FROMFY_FIELD_NAME)).split("-")[0];
-			String dateFiledName = null;
-			if(!objMap.containsKey(CalculatorConstants.STARTING_DATE_APPLICABLES)){
-				dateFiledName = CalculatorConstants.ENDING_DATE_APPLICABLES;
-			}
-			else
-				dateFiledName = CalculatorConstants.STARTING_DATE_APPLICABLES;
-
-			String[] time = ((String) objMap.get(dateFiledName)).split("/");
-			Calendar cal = Calendar.getInstance();
-			Long startDate = setDateToCalendar(objFinYear, time, cal,0);
-			Long endDate = setDateToCalendar(objFinYear, time, cal,1);
-			if(System.currentTimeMillis()>=startDate && System.currentTimeMillis()<=endDate )
-				objToBeReturned = objMap;
-
-		}
-
-		return objToBeReturned;
+		TimeBasedRules.Rule rule = TimeBasedRules.compile(masterList).getApplicable(System.currentTimeMillis());
+		return null == rule ? null : rule.getMaster();
 	}
 
 	/**
@@ -1108,28 +1069,6 @@ public class EstimationService {
 		return  deadlineDate;
 	}
 
-	/**
-	 * Sets the date in to calendar based on the month and date value present in the time array
-	 *  @param assessmentYear
-	 * @param time
-	 * @param cal
-	 * @return
-	 */
-	private Long setDateToCalendar(String assessmentYear, String[] time, Calendar cal,int flag) {
-
-		cal.clear();
-		Long date = null;
-		Integer day = Integer.valueOf(time[0]);
-		Integer month = Integer.valueOf(time[1])-1;
-		Integer year = Integer.valueOf(assessmentYear);
-		if(flag==1)
-			year=year+1;
-		cal.set(year, month, day);
-		date = cal.getTimeInMillis();
-
-		return date;
-	}
-
 	/**
 	 * Sets the search criteria for mutation billing slab
 	 *  @param billingSlabSearchCriteria
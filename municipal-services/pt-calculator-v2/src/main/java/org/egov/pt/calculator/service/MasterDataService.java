@@ -1,10 +1,9 @@
 package org.egov.pt.calculator.service;
 
 import java.math.BigDecimal;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import com.jayway.jsonpath.JsonPath;
@@ -15,6 +14,7 @@ import org.egov.pt.calculator.repository.Repository;
 import org.egov.pt.calculator.util.CalculatorConstants;
 import org.egov.pt.calculator.util.CalculatorUtils;
 import org.egov.pt.calculator.util.Configurations;
+import org.egov.pt.calculator.util.TimeBasedRules;
 import org.egov.pt.calculator.web.models.CalculationCriteria;
 import org.egov.pt.calculator.web.models.CalculationReq;
 import org.egov.pt.calculator.web.models.demand.TaxHeadMaster;
@@ -46,6 +46,8 @@ public class MasterDataService {
 
 	@Autowired
 	private Configurations config;
+
+	private final Map<String, CompiledMaster> timeBasedRules = new ConcurrentHashMap<>();
 	
 	/**
 	 * Fetches Financial Year from Mdms Api
@@ -187,64 +189,72 @@ public class MasterDataService {
 	 *
 	 * NOTE : applicable points to single object  out of all the entries for a given master which fits the period of the property being assessed
 	 *
+	 * @param tenantId tenant the master is loaded for
+	 * @param masterName name of the master, with the code for the masters parsed on their code
 	 * @param assessmentYear
 	 * @param masterList
 	 */
-	@SuppressWarnings("unchecked")
-	public Map<String, Object> getApplicableMaster(String assessmentYear, List<Object> masterList) {
-
-		Map<String, Object> objToBeReturned = null;
-		String maxYearFromTheList = "0";
-		Long maxStartTime = 0l;
-
-		for (Object object : masterList) {
+	public Map<String, Object> getApplicableMaster(String tenantId, String masterName, String assessmentYear,
+			List<Object> masterList) {
+		TimeBasedRules.Rule rule = getApplicableRule(tenantId, masterName, assessmentYear, masterList);
+		return null == rule ? null : rule.getMaster();
+	}
 
-			Map<String, Object> objMap = (Map<String, Object>) object;
-			String objFinYear = ((String) objMap.get(CalculatorConstants.FROMFY_FIELD_NAME)).split("-")[0];
-			if(!objMap.containsKey(CalculatorConstants.STARTING_DATE_APPLICABLES)){
-				if (objFinYear.compareTo(assessmentYear.split("-")[0]) == 0)
-					return  objMap;
+	/**
+	 * Returns the compiled rule of the 'APPLICABLE' master object, see getApplicableMaster
+	 *
+	 * @param tenantId
+	 * @param masterName
+	 * @param assessmentYear
+	 * @param masterList
+	 */
+	public TimeBasedRules.Rule getApplicableRule(String tenantId, String masterName, String assessmentYear,
+			List<Object> masterList) {
+		return getTimeBasedRules(tenantId, masterName, masterList).getApplicable(assessmentYear, System.currentTimeMillis());
+	}
 
-				else if (assessmentYear.split("-")[0].compareTo(objFinYear) > 0 && maxYearFromTheList.compareTo(objFinYear) <= 0) {
-					maxYearFromTheList = objFinYear;
-					objToBeReturned = objMap;
-				}
-			}
-			else{
-				String objStartDay = ((String) objMap.get(CalculatorConstants.STARTING_DATE_APPLICABLES));
-				if (assessmentYear.split("-")[0].compareTo(objFinYear) >= 0 && maxYearFromTheList.compareTo(objFinYear) <= 0) {
-					maxYearFromTheList = objFinYear;
-					Long startTime = getStartDayInMillis(objStartDay);
-					Long currentTime = System.currentTimeMillis();
-					if(startTime < currentTime && maxStartTime < startTime){
-						objToBeReturned = objMap;
-						maxStartTime = startTime;
-					}
-				}
-			}
-		}
-		return objToBeReturned;
+	/**
+	 * Returns the compiled rules of the master list
+	 *
+	 * The rules are kept per tenant and master. The masters are loaded again on every request, so the hash of
+	 * the list is taken as its version and the rules are compiled again only when it changes. The list the
+	 * rules were last looked up with is kept, further lookups with the same list skip the hash.
+	 *
+	 * @param tenantId tenant the master is loaded for
+	 * @param masterName name of the master
+	 * @param masterList entries of a time based master
+	 * @return the compiled rules
+	 */
+	public TimeBasedRules getTimeBasedRules(String tenantId, String masterName, List<Object> masterList) {
+		String key = tenantId + "|" + masterName;
+		CompiledMaster compiled = timeBasedRules.get(key);
+		if (null != compiled && compiled.masterList == masterList)
+			return compiled.rules;
+		int version = masterList.hashCode();
+		TimeBasedRules rules = null != compiled && compiled.version == version ? compiled.rules
+				: TimeBasedRules.compile(masterList);
+		timeBasedRules.put(key, new CompiledMaster(masterList, version, rules));
+		return rules;
 	}
 
 	/**
-	 * Converts startDay to epoch
-	 * @param startDay StartDay of applicable
-	 * @return
+	 * Rules compiled from a master list and the version of the list
 	 */
-	private Long getStartDayInMillis(String startDay){
+	private static class CompiledMaster {
 
-		Long startTime = null;
-		try{
-			SimpleDateFormat df = new SimpleDateFormat("dd/MM/yyyy");
-			Date date = df.parse(startDay);
-			startTime = date.getTime();
-		}
-		catch (ParseException e) {
-			throw new CustomException("INVALID STARTDAY","The startDate of the penalty cannot be parsed");
-		}
+		private final List<Object> masterList;
+
+		private final int version;
+
+		private final TimeBasedRules rules;
 
-		return startTime;
+		private CompiledMaster(List<Object> masterList, int version, TimeBasedRules rules) {
+			this.masterList = masterList;
+			this.version = version;
+			this.rules = rules;
+		}
 	}
+
 	/**
 	 * Estimates the fire cess that needs to be paid for the given tax amount
 	 * 
@@ -252,17 +262,20 @@ public class MasterDataService {
 	 * 
 	 * @param payableTax
 	 * @param assessmentYear
+	 * @param tenantId
+	 * @param masterName
 	 * @return
 	 */
-	public BigDecimal getCess(BigDecimal payableTax, String assessmentYear,List<Object> masterList) {
+	public BigDecimal getCess(BigDecimal payableTax, String assessmentYear, String tenantId, String masterName,
+			List<Object> masterList) {
 		BigDecimal fireCess = BigDecimal.ZERO;
 
 		if (payableTax.doubleValue() == 0.0)
 			return fireCess;
 
-		Map<String, Object> CessMap = getApplicableMaster(assessmentYear,masterList);
+		TimeBasedRules.Rule cess = getApplicableRule(tenantId, masterName, assessmentYear, masterList);
 
-		return calculateApplicables(payableTax, CessMap);
+		return null == cess ? fireCess : cess.calculate(payableTax);
 	}
 	
 	/**
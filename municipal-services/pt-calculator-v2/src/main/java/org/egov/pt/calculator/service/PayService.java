@@ -7,6 +7,7 @@ import java.util.stream.Collectors;
 
 import org.egov.pt.calculator.util.CalculatorConstants;
 import org.egov.pt.calculator.util.CalculatorUtils;
+import org.egov.pt.calculator.util.TimeBasedRules;
 import org.egov.pt.calculator.web.models.TaxHeadEstimate;
 import org.egov.pt.calculator.web.models.collections.Payment;
 import org.egov.pt.calculator.web.models.collections.PaymentDetail;
@@ -45,25 +46,26 @@ public class PayService {
 	 * If the demand details are not already present then new demand details will be added
 	 * 
 	 * @param assessmentYear
+	 * @param tenantId
 	 * @return
 	 */
 	public Map<String, BigDecimal> applyPenaltyRebateAndInterest(BigDecimal taxAmt,BigDecimal collectedPtTax,
-			 String assessmentYear, Map<String, JSONArray> timeBasedExmeptionMasterMap,List<Payment> payments,TaxPeriod taxPeriod) {
+			 String assessmentYear, String tenantId, Map<String, JSONArray> timeBasedExmeptionMasterMap,List<Payment> payments,TaxPeriod taxPeriod) {
 
 		if (BigDecimal.ZERO.compareTo(taxAmt) >= 0)
 			return null;
 
 		Map<String, BigDecimal> estimates = new HashMap<>();
 
-		BigDecimal rebate = getRebate(taxAmt, assessmentYear,
+		BigDecimal rebate = getRebate(taxAmt, assessmentYear, tenantId,
 				timeBasedExmeptionMasterMap.get(CalculatorConstants.REBATE_MASTER));
 
 		BigDecimal penalty = BigDecimal.ZERO;
 		BigDecimal interest = BigDecimal.ZERO;
 
 		if (rebate.equals(BigDecimal.ZERO)) {
-			penalty = getPenalty(taxAmt, assessmentYear, timeBasedExmeptionMasterMap.get(CalculatorConstants.PENANLTY_MASTER));
-			interest = getInterest(taxAmt, assessmentYear, timeBasedExmeptionMasterMap.get(CalculatorConstants.INTEREST_MASTER),
+			penalty = getPenalty(taxAmt, assessmentYear, tenantId, timeBasedExmeptionMasterMap.get(CalculatorConstants.PENANLTY_MASTER));
+			interest = getInterest(taxAmt, assessmentYear, tenantId, timeBasedExmeptionMasterMap.get(CalculatorConstants.INTEREST_MASTER),
 					payments,taxPeriod);
 		}
 
@@ -81,21 +83,23 @@ public class PayService {
 	 * 
 	 * @param taxAmt
 	 * @param assessmentYear
+	 * @param tenantId
 	 * @return
 	 */
-	public BigDecimal getRebate(BigDecimal taxAmt, String assessmentYear, JSONArray rebateMasterList) {
+	public BigDecimal getRebate(BigDecimal taxAmt, String assessmentYear, String tenantId, JSONArray rebateMasterList) {
 
 		BigDecimal rebateAmt = BigDecimal.ZERO;
-		Map<String, Object> rebate = mDService.getApplicableMaster(assessmentYear, rebateMasterList);
+		TimeBasedRules.Rule rebate = mDService.getApplicableRule(tenantId, CalculatorConstants.REBATE_MASTER, assessmentYear,
+				rebateMasterList);
 
 		if (null == rebate) return rebateAmt;
 
-		String[] time = ((String) rebate.get(CalculatorConstants.ENDING_DATE_APPLICABLES)).split("/");
+		String[] time = ((String) rebate.getMaster().get(CalculatorConstants.ENDING_DATE_APPLICABLES)).split("/");
 		Calendar cal = Calendar.getInstance();
 		setDateToCalendar(assessmentYear, time, cal);
 
 		if (cal.getTimeInMillis() > System.currentTimeMillis())
-			rebateAmt = mDService.calculateApplicables(taxAmt, rebate);
+			rebateAmt = rebate.calculate(taxAmt);
 
 		return rebateAmt;
 	}
@@ -105,21 +109,23 @@ public class PayService {
 	 * 
 	 * @param taxAmt
 	 * @param assessmentYear
+	 * @param tenantId
 	 * @return
 	 */
-	public BigDecimal getPenalty(BigDecimal taxAmt, String assessmentYear, JSONArray penaltyMasterList) {
+	public BigDecimal getPenalty(BigDecimal taxAmt, String assessmentYear, String tenantId, JSONArray penaltyMasterList) {
 
 		BigDecimal penaltyAmt = BigDecimal.ZERO;
-		Map<String, Object> penalty = mDService.getApplicableMaster(assessmentYear, penaltyMasterList);
+		TimeBasedRules.Rule penalty = mDService.getApplicableRule(tenantId, CalculatorConstants.PENANLTY_MASTER, assessmentYear,
+				penaltyMasterList);
 		if (null == penalty) return penaltyAmt;
 
-		String[] time = getStartTime(assessmentYear,penalty);
+		String[] time = getStartTime(assessmentYear,penalty.getMaster());
 		Calendar cal = Calendar.getInstance();
 		setDateToCalendar(time, cal);
 		Long currentIST = System.currentTimeMillis()+TIMEZONE_OFFSET;
 
 		if (cal.getTimeInMillis() < currentIST)
-			penaltyAmt = mDService.calculateApplicables(taxAmt, penalty);
+			penaltyAmt = penalty.calculate(taxAmt);
 
 		return penaltyAmt;
 	}
@@ -130,17 +136,19 @@ public class PayService {
 	 *
 	 * @param taxAmt
 	 * @param assessmentYear
+	 * @param tenantId
 	 * @return
 	 */
-	public BigDecimal getInterest(BigDecimal taxAmt, String assessmentYear, JSONArray interestMasterList,
+	public BigDecimal getInterest(BigDecimal taxAmt, String assessmentYear, String tenantId, JSONArray interestMasterList,
 								  List<Payment> payments, TaxPeriod taxPeriod) {
 
 		BigDecimal interestAmt = BigDecimal.ZERO;
-		Map<String, Object> interestMap = mDService.getApplicableMaster(assessmentYear, interestMasterList);
-		if (null == interestMap)
+		TimeBasedRules.Rule interest = mDService.getApplicableRule(tenantId, CalculatorConstants.INTEREST_MASTER, assessmentYear,
+				interestMasterList);
+		if (null == interest)
 			return interestAmt;
 
-		String[] time = getStartTime(assessmentYear, interestMap);
+		String[] time = getStartTime(assessmentYear, interest.getMaster());
 
 		Calendar cal = Calendar.getInstance();
 		setDateToCalendar(time, cal);
@@ -159,7 +167,7 @@ public class PayService {
 			if (CollectionUtils.isEmpty(payments)) {
 
 				long numberOfDaysInMillies = getEODEpoch(currentUTC) - interestStart;
-				return calculateInterest(numberOfDaysInMillies, taxAmt, interestMap);
+				return calculateInterest(numberOfDaysInMillies, taxAmt, interest);
 			} else {
 
 				Integer indexOfLastPaymentBeforeIntersetStart = null;
@@ -199,7 +207,7 @@ public class PayService {
 				if (CollectionUtils.isEmpty(filteredPaymentsAfterIntersetDate)) {
 					applicableAmount = firstApplicableAmount;
 					numberOfDaysInMillies = getEODEpoch(currentUTC) - interestStart;
-					interestCalculated = calculateInterest(numberOfDaysInMillies, applicableAmount, interestMap);
+					interestCalculated = calculateInterest(numberOfDaysInMillies, applicableAmount, interest);
 					interestAmt = interestAmt.add(interestCalculated);
 				} else {
 
@@ -236,7 +244,7 @@ public class PayService {
 
 							numberOfDaysInMillies = getEODEpoch(payment.getTransactionDate()) - interestStart;
 							interestCalculated = calculateInterest(numberOfDaysInMillies, applicableAmount,
-									interestMap);
+									interest);
 						} else if (i == numberOfPeriods - 1) {
 							if (currentFinanicalPayment == null) {
 								currentFinanicalPayment = payment;
@@ -248,7 +256,7 @@ public class PayService {
 									.getTaxAmtFromPaymentForApplicablesGeneration(currentFinanicalPayment, taxPeriod);
 							numberOfDaysInMillies = getEODEpoch(currentUTC) - getEODEpoch(payment.getTransactionDate());
 							interestCalculated = calculateInterest(numberOfDaysInMillies, applicableAmount,
-									interestMap);
+									interest);
 						} else {
 
 							Payment paymentPrev = filteredPaymentsAfterIntersetDate.get(i - 1);
@@ -257,7 +265,7 @@ public class PayService {
 							numberOfDaysInMillies = getEODEpoch(payment.getTransactionDate())
 									- getEODEpoch(paymentPrev.getTransactionDate());
 							interestCalculated = calculateInterest(numberOfDaysInMillies, applicableAmount,
-									interestMap);
+									interest);
 						}
 						interestAmt = interestAmt.add(interestCalculated);
 					}
@@ -448,10 +456,10 @@ public class PayService {
 	 * Calculates the interest based on the given parameters
 	 * @param numberOfDaysInMillies Time for which interest has to be calculated
 	 * @param applicableAmount The amount on which interest is applicable
-	 * @param interestMap The interest master data
+	 * @param interest The applicable interest rule
 	 * @return interest calculated
 	 */
-	private BigDecimal calculateInterest(long numberOfDaysInMillies,BigDecimal applicableAmount,Map<String, Object> interestMap){
+	private BigDecimal calculateInterest(long numberOfDaysInMillies,BigDecimal applicableAmount,TimeBasedRules.Rule interest){
 
 		if(numberOfDaysInMillies<0) {
 			return new BigDecimal(0);
@@ -460,7 +468,7 @@ public class PayService {
 		BigDecimal interestAmt;
 		BigDecimal noOfDays = BigDecimal.valueOf((TimeUnit.MILLISECONDS.toDays(Math.abs(numberOfDaysInMillies))));
 		if(BigDecimal.ONE.compareTo(noOfDays) <= 0) noOfDays = noOfDays.add(BigDecimal.ONE);
-		interestAmt = mDService.calculateApplicables(applicableAmount, interestMap);
+		interestAmt = interest.calculate(applicableAmount);
 		return interestAmt.multiply(noOfDays.divide(BigDecimal.valueOf(365), 6, 5));
 	}
 
@@ -0,0 +1,311 @@
+package org.egov.pt.calculator.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.egov.pt.calculator.web.models.BillingSlab;
+
+/**
+ * Immutable lookup structure over the billing slabs of a tenant.
+ *
+ * Slabs are grouped by property type, multi floor flag, sub type, ownership, sub ownership and area type, a
+ * slab with the all value in a field is grouped under the all value. The slabs of a group are laid on the
+ * plot size axis as elementary segments, each segment holding the slabs covering it, so a property resolves
+ * to its slabs with a hash probe per wildcard pattern present in the table and a binary search.
+ *
+ * The slabs matched for the property are indexed again on the usage categories and occupancy type, the
+ * slab of a unit is resolved the same way with the floor range checked on the few slabs probed.
+ */
+public final class BillingSlabIndex {
+
+	private static final String KEY_SEPERATOR = "|";
+
+	private final String all;
+
+	private final Map<String, PlotSegments> groups;
+
+	/*
+	 * patterns of the property fields (sub type, ownership, sub ownership, area type) holding the all value
+	 * in atleast one slab, bit set means the field is the all value
+	 */
+	private final int[] propertyPatterns;
+
+	private final List<BillingSlab> slabs;
+
+	private BillingSlabIndex(String all, Map<String, PlotSegments> groups, int[] propertyPatterns, List<BillingSlab> slabs) {
+		this.all = all;
+		this.groups = groups;
+		this.propertyPatterns = propertyPatterns;
+		this.slabs = slabs;
+	}
+
+	/**
+	 * Builds the index over the given slabs
+	 *
+	 * @param slabs billing slabs of the tenant
+	 * @param all the value matching any value of a field
+	 * @return the index
+	 */
+	public static BillingSlabIndex build(List<BillingSlab> slabs, String all) {
+
+		Map<String, List<BillingSlab>> grouped = new HashMap<>();
+		Set<Integer> patterns = new TreeSet<>();
+
+		for (BillingSlab slab : slabs) {
+			String[] fields = { slab.getPropertySubType(), slab.getOwnerShipCategory(), slab.getSubOwnerShipCategory(),
+					slab.getAreaType() };
+			patterns.add(getPattern(fields, all));
+			grouped.computeIfAbsent(getPropertyKey(slab.getPropertyType(), slab.getIsPropertyMultiFloored(), fields),
+					key -> new ArrayList<>()).add(slab);
+		}
+
+		Map<String, PlotSegments> groups = new HashMap<>();
+		grouped.forEach((key, groupSlabs) -> groups.put(key, new PlotSegments(groupSlabs, all)));
+
+		return new BillingSlabIndex(all, groups, patterns.stream().mapToInt(Integer::intValue).toArray(),
+				Collections.unmodifiableList(new ArrayList<>(slabs)));
+	}
+
+	/**
+	 * @return the slabs indexed
+	 */
+	public List<BillingSlab> getSlabs() {
+		return slabs;
+	}
+
+	/**
+	 * Returns the slabs matching the property detail, same as the first level filtering of the estimation
+	 *
+	 * @return slabs matching the property with the lookup of the slab per unit
+	 */
+	public SlabGroup getPropertySlabs(String propertyType, String propertySubType, String ownershipCategory,
+			String subOwnershipCategory, String areaType, Boolean isMultiFloored, Double plotSize) {
+
+		String[] values = { propertySubType, ownershipCategory, subOwnershipCategory, areaType };
+		List<SlabGroup> matches = new ArrayList<>(1);
+
+		for (int pattern : propertyPatterns) {
+			String[] fields = getProbe(values, pattern);
+			if (fields == null)
+				continue;
+			PlotSegments segments = groups.get(getPropertyKey(propertyType, isMultiFloored, fields));
+			if (segments == null)
+				continue;
+			SlabGroup group = segments.get(plotSize);
+			if (group != null)
+				matches.add(group);
+		}
+
+		if (matches.isEmpty())
+			return SlabGroup.EMPTY;
+		if (matches.size() == 1)
+			return matches.get(0);
+		List<BillingSlab> merged = new ArrayList<>();
+		matches.forEach(group -> merged.addAll(group.getSlabs()));
+		return new SlabGroup(merged, all);
+	}
+
+	/**
+	 * Replaces the value of the fields set in the pattern with the all value, null if a field outside the
+	 * pattern has no value or is the all value itself (in which case the probe is the same as the one of the
+	 * pattern with the field set)
+	 */
+	private String[] getProbe(String[] values, int pattern) {
+		String[] probe = new String[values.length];
+		for (int i = 0; i < values.length; i++) {
+			if ((pattern & (1 << i)) != 0)
+				probe[i] = all;
+			else if (values[i] == null || all.equalsIgnoreCase(values[i]))
+				return null;
+			else
+				probe[i] = values[i];
+		}
+		return probe;
+	}
+
+	private static int getPattern(String[] fields, String all) {
+		int pattern = 0;
+		for (int i = 0; i < fields.length; i++) {
+			if (all.equalsIgnoreCase(fields[i]))
+				pattern |= 1 << i;
+		}
+		return pattern;
+	}
+
+	private static String getPropertyKey(String propertyType, Boolean isMultiFloored, String[] fields) {
+		StringBuilder key = new StringBuilder(String.valueOf(propertyType).toUpperCase()).append(KEY_SEPERATOR)
+				.append(isMultiFloored);
+		for (String field : fields)
+			key.append(KEY_SEPERATOR).append(String.valueOf(field).toUpperCase());
+		return key.toString();
+	}
+
+	/**
+	 * Slabs of a property group laid on the plot size axis. A plot size of zero matches the slabs whose range
+	 * includes zero, any other size matches the slabs with fromPlotSize < size <= toPlotSize.
+	 */
+	private static class PlotSegments {
+
+		private final double[] bounds;
+
+		// segment i is (bounds[i], bounds[i + 1]]
+		private final SlabGroup[] segments;
+
+		private final SlabGroup zeroPlot;
+
+		private PlotSegments(List<BillingSlab> slabs, String all) {
+
+			TreeSet<Double> points = new TreeSet<>();
+			List<BillingSlab> zeroPlotSlabs = new ArrayList<>();
+			for (BillingSlab slab : slabs) {
+				points.add(slab.getFromPlotSize());
+				points.add(slab.getToPlotSize());
+				if (slab.getFromPlotSize() <= 0.0 && slab.getToPlotSize() >= 0.0)
+					zeroPlotSlabs.add(slab);
+			}
+			bounds = points.stream().mapToDouble(Double::doubleValue).toArray();
+			segments = new SlabGroup[Math.max(0, bounds.length - 1)];
+
+			// segments covered by the same slabs share the group
+			Map<List<BillingSlab>, SlabGroup> distinct = new HashMap<>();
+			for (int i = 0; i < segments.length; i++) {
+				List<BillingSlab> covering = new ArrayList<>();
+				for (BillingSlab slab : slabs) {
+					if (slab.getFromPlotSize() <= bounds[i] && slab.getToPlotSize() >= bounds[i + 1])
+						covering.add(slab);
+				}
+				if (!covering.isEmpty())
+					segments[i] = distinct.computeIfAbsent(new IdentityList(covering), list -> new SlabGroup(covering, all));
+			}
+			zeroPlot = zeroPlotSlabs.isEmpty() ? null : new SlabGroup(zeroPlotSlabs, all);
+		}
+
+		private SlabGroup get(Double plotSize) {
+			if (plotSize == 0.0)
+				return zeroPlot;
+			// first bound greater than or equal to the plot size is the upper bound of its segment
+			int index = Arrays.binarySearch(bounds, plotSize);
+			int upper = index >= 0 ? index : -index - 1;
+			if (upper == 0 || upper >= bounds.length)
+				return null;
+			return segments[upper - 1];
+		}
+	}
+
+	/**
+	 * Slabs matched for a property with the lookup of the slabs matching a unit
+	 */
+	public static class SlabGroup {
+
+		private static final SlabGroup EMPTY = new SlabGroup(Collections.emptyList(), null);
+
+		private final String all;
+
+		private final List<BillingSlab> slabs;
+
+		private final Map<String, List<BillingSlab>> usageSlabs = new HashMap<>();
+
+		// patterns of the usage fields (major, minor, sub minor, detail, occupancy) holding the all value
+		private final int[] usagePatterns;
+
+		private SlabGroup(List<BillingSlab> slabs, String all) {
+			this.all = all;
+			this.slabs = Collections.unmodifiableList(slabs);
+			Set<Integer> patterns = new TreeSet<>();
+			for (BillingSlab slab : slabs) {
+				String[] fields = getUsageFields(slab);
+				patterns.add(getPattern(fields, all));
+				usageSlabs.computeIfAbsent(getUsageKey(fields), key -> new ArrayList<>()).add(slab);
+			}
+			usagePatterns = patterns.stream().mapToInt(Integer::intValue).toArray();
+		}
+
+		public List<BillingSlab> getSlabs() {
+			return slabs;
+		}
+
+		/**
+		 * Returns the slabs matching the usage, occupancy and floor of the unit
+		 */
+		public List<BillingSlab> getUnitSlabs(String usageCategoryMajor, String usageCategoryMinor,
+				String usageCategorySubMinor, String usageCategoryDetail, String occupancyType, Double floorNo) {
+
+			String[] values = { usageCategoryMajor, usageCategoryMinor, usageCategorySubMinor, usageCategoryDetail,
+					occupancyType };
+			// every slab is under one key and every pattern probes a different key, so no slab is matched twice
+			List<BillingSlab> matches = new ArrayList<>();
+			for (int pattern : usagePatterns) {
+				String[] fields = new String[values.length];
+				boolean skip = false;
+				for (int i = 0; i < values.length && !skip; i++) {
+					if ((pattern & (1 << i)) != 0)
+						fields[i] = all;
+					else if (values[i] == null || all.equalsIgnoreCase(values[i]))
+						skip = true;
+					else
+						fields[i] = values[i];
+				}
+				if (skip)
+					continue;
+				List<BillingSlab> probed = usageSlabs.get(getUsageKey(fields));
+				if (probed == null)
+					continue;
+				for (BillingSlab slab : probed) {
+					if (slab.getFromFloor() <= floorNo && slab.getToFloor() >= floorNo)
+						matches.add(slab);
+				}
+			}
+			return matches;
+		}
+
+		private static String[] getUsageFields(BillingSlab slab) {
+			return new String[] { slab.getUsageCategoryMajor(), slab.getUsageCategoryMinor(),
+					slab.getUsageCategorySubMinor(), slab.getUsageCategoryDetail(), slab.getOccupancyType() };
+		}
+
+		private static String getUsageKey(String[] fields) {
+			StringBuilder key = new StringBuilder();
+			for (String field : fields)
+				key.append(String.valueOf(field).toUpperCase()).append(KEY_SEPERATOR);
+			return key.toString();
+		}
+	}
+
+	/**
+	 * List compared by the identity of its elements, BillingSlab equality ignores the rates
+	 */
+	private static class IdentityList extends ArrayList<BillingSlab> {
+
+		private static final long serialVersionUID = 1L;
+
+		private IdentityList(List<BillingSlab> slabs) {
+			super(slabs);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof IdentityList) || ((IdentityList) o).size() != size())
+				return false;
+			for (int i = 0; i < size(); i++) {
+				if (get(i) != ((IdentityList) o).get(i))
+					return false;
+			}
+			return true;
+		}
+
+		@Override
+		public int hashCode() {
+			int hash = 1;
+			for (BillingSlab slab : this)
+				hash = 31 * hash + System.identityHashCode(slab);
+			return hash;
+		}
+	}
+
+}
@@ -250,6 +250,12 @@ public class CalculatorConstants {
 	public static final String EG_PT_DEPRECIATING_ASSESSMENT_ERROR_MSG_ESTIMATE = "Depreciating assessments are not allowed for the same assessment year,"
 			+ "please kindly update the values for the property ";
 
+	public static final String EG_PT_DEMAND_SEARCH_ERROR = "EG_PT_DEMAND_SEARCH_ERROR";
+
+	public static final String EG_PT_BATCH_CALCULATION_ERROR = "EG_PT_BATCH_CALCULATION_ERROR";
+
+	public static final String EG_PT_BATCH_DEMAND_RESTORE_ERROR = "EG_PT_BATCH_DEMAND_RESTORE_ERROR";
+
 	public static final String EMPTY_DEMAND_ERROR_CODE = "EMPTY_DEMANDS";
 	public static final String EMPTY_DEMAND_ERROR_MESSAGE = "No demands found for the given bill generate criteria";
 	
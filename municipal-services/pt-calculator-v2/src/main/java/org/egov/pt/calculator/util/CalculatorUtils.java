@@ -29,6 +29,7 @@ import java.time.LocalTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.LinkedList;
@@ -666,6 +667,39 @@ public class CalculatorUtils {
         return res.getDemands().get(0);
     }
 
+    /**
+     * Searches the latest active demands of the properties for the demand period in one call
+     *
+     * @param requestInfo The incoming requestInfo
+     * @param tenantId TenantId of the properties
+     * @param fromDate Start of the demand period
+     * @param toDate End of the demand period
+     * @param propertyIds Ids of the properties
+     * @return Map of propertyId to its latest demand, properties without a demand are not present
+     */
+    public Map<String, Demand> getLatestDemandsForCurrentFinancialYear(RequestInfo requestInfo, String tenantId, Long fromDate,
+                                                                        Long toDate, Collection<String> propertyIds) {
+
+        DemandSearchCriteria criteria = new DemandSearchCriteria();
+        criteria.setFromDate(fromDate);
+        criteria.setToDate(toDate);
+        criteria.setTenantId(tenantId);
+        criteria.setPropertyId(StringUtils.join(propertyIds, ","));
+
+        DemandResponse res = mapper.convertValue(
+                repository.fetchResult(getDemandSearchUrl(criteria), new RequestInfoWrapper(requestInfo)),
+                DemandResponse.class);
+
+        // a failed search would otherwise be taken as properties without demand
+        if (res == null)
+            throw new CustomException(CalculatorConstants.EG_PT_DEMAND_SEARCH_ERROR, "Failed to search the demands of " + propertyIds);
+
+        Map<String, Demand> demands = new HashMap<>();
+        if (!CollectionUtils.isEmpty(res.getDemands()))
+            res.getDemands().forEach(demand -> demands.putIfAbsent(demand.getConsumerCode(), demand));
+        return demands;
+    }
+
 
     /**
      * Creates search query for PT based on tenantId and list of assessment numbers
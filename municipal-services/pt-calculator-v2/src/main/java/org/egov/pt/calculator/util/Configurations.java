@@ -136,6 +136,16 @@ public class Configurations {
 	
 	@Value("${pt.mutation.minpayable.amount}")
 	private BigDecimal ptMutationMinPayable;
+
+	//Batch calculation
+	@Value("${pt.batch.calculation.pool.size}")
+	private Integer batchCalculationPoolSize;
+
+	@Value("${pt.batch.demand.chunk.size}")
+	private Integer batchDemandChunkSize;
+
+	@Value("${pt.batch.demand.search.chunk.size}")
+	private Integer batchDemandSearchChunkSize;
 	
 
 
@@ -61,15 +61,17 @@ public class PBFirecessUtils {
      *
      * @param payableTax
      * @param assessmentYear
+     * @param tenantId
      * @return
      */
-    public BigDecimal getPBFireCess(BigDecimal payableTax, String assessmentYear,List<Object> masterList, PropertyDetail propertyDetail) {
+    public BigDecimal getPBFireCess(BigDecimal payableTax, String assessmentYear, String tenantId, List<Object> masterList,
+            PropertyDetail propertyDetail) {
         BigDecimal fireCess = BigDecimal.ZERO;
 
         if (payableTax.doubleValue() == 0.0)
             return fireCess;
 
-        Map<String, Object> CessMap = mDataService.getApplicableMaster(assessmentYear,masterList);
+        Map<String, Object> CessMap = mDataService.getApplicableMaster(tenantId, CalculatorConstants.FIRE_CESS_MASTER, assessmentYear, masterList);
 
         BigDecimal firecessRate;
 
@@ -0,0 +1,319 @@
+package org.egov.pt.calculator.util;
+
+import java.math.BigDecimal;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.egov.tracer.model.CustomException;
+
+/**
+ * Compiled form of a time based master list (rebate, penalty, interest, cess and the exemptions).
+ *
+ * The entries are parsed once, the effective year, the starting day and the amount fields of an entry are
+ * kept on its rule. The rule applicable for an assessment year only changes when the current time passes the
+ * starting day of an entry, so the selection done by MasterDataService.getApplicableMaster is evaluated once
+ * for each interval between the sorted starting days and the intervals of the year are kept. Resolving the
+ * rule of a year is then a hash probe and a binary search on the current time.
+ *
+ * The mutation rebate and penalty are applicable within a year from their day in the effective year, those
+ * windows are laid out on the time axis the same way.
+ */
+public final class TimeBasedRules {
+
+	private final List<Rule> rules;
+
+	private final Map<String, Periods> yearPeriods = new ConcurrentHashMap<>();
+
+	private volatile Periods windowPeriods;
+
+	private TimeBasedRules(List<Rule> rules) {
+		this.rules = rules;
+	}
+
+	/**
+	 * Compiles the entries of the master
+	 *
+	 * @param masterList entries of the master as loaded from MDMS
+	 * @return the compiled rules
+	 */
+	@SuppressWarnings("unchecked")
+	public static TimeBasedRules compile(List<Object> masterList) {
+		List<Rule> rules = new ArrayList<>(masterList.size());
+		for (Object object : masterList)
+			rules.add(new Rule((Map<String, Object>) object));
+		return new TimeBasedRules(Collections.unmodifiableList(rules));
+	}
+
+	public List<Rule> getRules() {
+		return rules;
+	}
+
+	/**
+	 * Returns the rule applicable for the assessment year at the given time, same as the applicable master
+	 * returned by MasterDataService.getApplicableMaster
+	 *
+	 * @param assessmentYear Assessment year
+	 * @param time Epoch time the rule is resolved at
+	 * @return the applicable rule, null if none is applicable
+	 */
+	public Rule getApplicable(String assessmentYear, long time) {
+		Periods periods = yearPeriods.get(assessmentYear);
+		if (periods == null) {
+			// an entry which cannot be parsed fails the selection at any time, nothing is kept for the year then
+			String year = assessmentYear.split("-")[0];
+			TreeSet<Long> points = new TreeSet<>();
+			for (Rule rule : rules) {
+				if (rule.startTimeError == null && rule.hasStartingDay)
+					points.add(rule.startTime + 1);
+			}
+			long[] bounds = points.stream().mapToLong(Long::longValue).toArray();
+			Rule[] selected = new Rule[bounds.length + 1];
+			selected[0] = select(year, Long.MIN_VALUE);
+			for (int i = 0; i < bounds.length; i++)
+				selected[i + 1] = select(year, bounds[i]);
+			periods = new Periods(bounds, selected);
+			yearPeriods.put(assessmentYear, periods);
+		}
+		return periods.get(time);
+	}
+
+	/**
+	 * Returns the last rule whose window, from its day in the effective year to the same day of the next
+	 * year, holds the given time. Used for the rebate and penalty of the mutation.
+	 *
+	 * @param time Epoch time the rule is resolved at
+	 * @return the applicable rule, null if none is applicable
+	 */
+	public Rule getApplicable(long time) {
+		Periods periods = windowPeriods;
+		if (periods == null) {
+			TreeSet<Long> points = new TreeSet<>();
+			for (Rule rule : rules) {
+				points.add(rule.getWindowStart());
+				points.add(rule.getWindowEnd() + 1);
+			}
+			long[] bounds = points.stream().mapToLong(Long::longValue).toArray();
+			Rule[] selected = new Rule[bounds.length + 1];
+			selected[0] = selectWindow(Long.MIN_VALUE);
+			for (int i = 0; i < bounds.length; i++)
+				selected[i + 1] = selectWindow(bounds[i]);
+			periods = new Periods(bounds, selected);
+			windowPeriods = periods;
+		}
+		return periods.get(time);
+	}
+
+	/**
+	 * Selection of the applicable entry as done on the master list, an exact match on the effective year
+	 * without a starting day is returned right away else the latest year not after the assessment year wins,
+	 * for entries with a starting day the latest starting day before the time
+	 */
+	private Rule select(String year, long time) {
+
+		Rule selected = null;
+		String maxYear = "0";
+		long maxStartTime = 0L;
+
+		for (Rule rule : rules) {
+			String fromYear = rule.getFromYear();
+			if (!rule.hasStartingDay) {
+				if (fromYear.compareTo(year) == 0)
+					return rule;
+				else if (year.compareTo(fromYear) > 0 && maxYear.compareTo(fromYear) <= 0) {
+					maxYear = fromYear;
+					selected = rule;
+				}
+			} else if (year.compareTo(fromYear) >= 0 && maxYear.compareTo(fromYear) <= 0) {
+				maxYear = fromYear;
+				long startTime = rule.getStartTime();
+				if (startTime < time && maxStartTime < startTime) {
+					selected = rule;
+					maxStartTime = startTime;
+				}
+			}
+		}
+		return selected;
+	}
+
+	private Rule selectWindow(long time) {
+		Rule selected = null;
+		for (Rule rule : rules) {
+			if (time >= rule.windowStart && time <= rule.windowEnd)
+				selected = rule;
+		}
+		return selected;
+	}
+
+	/**
+	 * Rules selected on the time axis, interval i is [bounds[i - 1], bounds[i])
+	 */
+	private static class Periods {
+
+		private final long[] bounds;
+
+		private final Rule[] selected;
+
+		private Periods(long[] bounds, Rule[] selected) {
+			this.bounds = bounds;
+			this.selected = selected;
+		}
+
+		private Rule get(long time) {
+			int index = Arrays.binarySearch(bounds, time);
+			return selected[index >= 0 ? index + 1 : -index - 1];
+		}
+	}
+
+	/**
+	 * An entry of the master with its fields parsed. A field which cannot be parsed fails the use of the
+	 * field with the error the master list would have failed with.
+	 */
+	public static final class Rule {
+
+		private final Map<String, Object> master;
+
+		private String fromYear;
+
+		private RuntimeException fromYearError;
+
+		private final boolean hasStartingDay;
+
+		private long startTime;
+
+		private RuntimeException startTimeError;
+
+		private long windowStart;
+
+		private long windowEnd;
+
+		private RuntimeException windowError;
+
+		private BigDecimal rate;
+
+		private BigDecimal maxAmount;
+
+		private BigDecimal minAmount;
+
+		private BigDecimal flatAmount;
+
+		private RuntimeException amountError;
+
+		private Rule(Map<String, Object> master) {
+
+			this.master = master;
+			this.hasStartingDay = master.containsKey(CalculatorConstants.STARTING_DATE_APPLICABLES);
+
+			try {
+				fromYear = ((String) master.get(CalculatorConstants.FROMFY_FIELD_NAME)).split("-")[0];
+			} catch (RuntimeException e) {
+				fromYearError = e;
+			}
+
+			if (hasStartingDay) {
+				try {
+					SimpleDateFormat df = new SimpleDateFormat("dd/MM/yyyy");
+					startTime = df.parse((String) master.get(CalculatorConstants.STARTING_DATE_APPLICABLES)).getTime();
+				} catch (ParseException e) {
+					startTimeError = new CustomException("INVALID STARTDAY", "The startDate of the penalty cannot be parsed");
+				} catch (RuntimeException e) {
+					startTimeError = e;
+				}
+			}
+
+			try {
+				String dateField = hasStartingDay ? CalculatorConstants.STARTING_DATE_APPLICABLES
+						: CalculatorConstants.ENDING_DATE_APPLICABLES;
+				String[] time = ((String) master.get(dateField)).split("/");
+				Calendar cal = Calendar.getInstance();
+				cal.clear();
+				cal.set(Integer.valueOf(getFromYear()), Integer.valueOf(time[1]) - 1, Integer.valueOf(time[0]));
+				windowStart = cal.getTimeInMillis();
+				cal.clear();
+				cal.set(Integer.valueOf(getFromYear()) + 1, Integer.valueOf(time[1]) - 1, Integer.valueOf(time[0]));
+				windowEnd = cal.getTimeInMillis();
+			} catch (RuntimeException e) {
+				windowError = e;
+			}
+
+			try {
+				rate = getAmount(CalculatorConstants.RATE_FIELD_NAME);
+				if (rate != null)
+					rate = rate.divide(CalculatorConstants.HUNDRED);
+				maxAmount = getAmount(CalculatorConstants.MAX_AMOUNT_FIELD_NAME);
+				minAmount = getAmount(CalculatorConstants.MIN_AMOUNT_FIELD_NAME);
+				flatAmount = getAmount(CalculatorConstants.FLAT_AMOUNT_FIELD_NAME);
+				if (flatAmount == null)
+					flatAmount = BigDecimal.ZERO;
+			} catch (RuntimeException e) {
+				amountError = e;
+			}
+		}
+
+		private BigDecimal getAmount(String field) {
+			Object value = master.get(field);
+			return null != value ? BigDecimal.valueOf(((Number) value).doubleValue()) : null;
+		}
+
+		/**
+		 * @return the entry of the master
+		 */
+		public Map<String, Object> getMaster() {
+			return master;
+		}
+
+		public String getFromYear() {
+			if (fromYearError != null)
+				throw fromYearError;
+			return fromYear;
+		}
+
+		public long getStartTime() {
+			if (startTimeError != null)
+				throw startTimeError;
+			return startTime;
+		}
+
+		private long getWindowStart() {
+			if (windowError != null)
+				throw windowError;
+			return windowStart;
+		}
+
+		private long getWindowEnd() {
+			if (windowError != null)
+				throw windowError;
+			return windowEnd;
+		}
+
+		/**
+		 * Applies the rule on the amount, same as MasterDataService.calculateApplicables on the entry
+		 *
+		 * @param applicableAmount The amount the rule is applied on
+		 * @return the rebate, penalty, interest or exemption amount
+		 */
+		public BigDecimal calculate(BigDecimal applicableAmount) {
+
+			if (amountError != null)
+				throw amountError;
+
+			if (null == rate)
+				return flatAmount.compareTo(applicableAmount) > 0 ? applicableAmount : flatAmount;
+
+			BigDecimal currentApplicable = applicableAmount.multiply(rate);
+			if (null != maxAmount && BigDecimal.ZERO.compareTo(maxAmount) < 0 && currentApplicable.compareTo(maxAmount) > 0)
+				currentApplicable = maxAmount;
+			else if (null != minAmount && currentApplicable.compareTo(minAmount) < 0)
+				currentApplicable = minAmount;
+			return currentApplicable;
+		}
+	}
+
+}
@@ -4,9 +4,12 @@ import java.util.Map;
 
 import javax.validation.Valid;
 
+import org.egov.pt.calculator.service.BatchCalculationService;
 import org.egov.pt.calculator.service.DemandService;
 import org.egov.pt.calculator.service.EstimationService;
 import org.egov.pt.calculator.service.PayService;
+import org.egov.pt.calculator.web.models.BatchCalculationReq;
+import org.egov.pt.calculator.web.models.BatchCalculationRes;
 import org.egov.pt.calculator.web.models.Calculation;
 import org.egov.pt.calculator.web.models.CalculationReq;
 import org.egov.pt.calculator.web.models.CalculationRes;
@@ -38,6 +41,9 @@ public class CalculatorController {
 	@Autowired
 	private PayService payService;
 
+	@Autowired
+	private BatchCalculationService batchCalculationService;
+
 	@PostMapping("/_estimate")
 	public ResponseEntity<CalculationRes> getTaxEstimation(@RequestBody @Valid CalculationReq calculationReq) {
 		return new ResponseEntity<>(calculatorService.getTaxCalculation(calculationReq), HttpStatus.OK);
@@ -48,6 +54,11 @@ public class CalculatorController {
 		return new ResponseEntity<>(calculatorService.calculateAndCreateDemand(calculationReq), HttpStatus.OK);
 	}
 	
+	@PostMapping("/_batchcalculate")
+	public ResponseEntity<BatchCalculationRes> batchCalculate(@RequestBody @Valid BatchCalculationReq batchCalculationReq) {
+		return new ResponseEntity<>(batchCalculationService.calculate(batchCalculationReq), HttpStatus.OK);
+	}
+	
 	@PostMapping("/_getbill")
 	public ResponseEntity<BillResponse> getBill(@RequestBody @Valid RequestInfoWrapper requestInfoWrapper,
 			@ModelAttribute @Valid GetBillCriteria getBillCriteria) {
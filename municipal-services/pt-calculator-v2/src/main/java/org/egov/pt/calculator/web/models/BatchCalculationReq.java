@@ -0,0 +1,50 @@
+package org.egov.pt.calculator.web.models;
+
+import java.util.List;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+
+import org.egov.common.contract.request.RequestInfo;
+import org.springframework.validation.annotation.Validated;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Calculation request for the properties of a tenant, dry run calculates the properties and returns the
+ * difference with their current demands without creating or cancelling any demand
+ */
+@Validated
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@ToString
+public class BatchCalculationReq {
+
+	@JsonProperty("RequestInfo")
+	@NotNull
+	private RequestInfo requestInfo;
+
+	@NotNull
+	@JsonProperty("tenantId")
+	private String tenantId;
+
+	@Builder.Default
+	@JsonProperty("dryRun")
+	private Boolean dryRun = false;
+
+	@Valid
+	@NotNull
+	@JsonProperty("CalculationCriteria")
+	private List<CalculationCriteria> calculationCriteria;
+
+}
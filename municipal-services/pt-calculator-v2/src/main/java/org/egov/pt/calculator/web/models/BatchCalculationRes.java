@@ -0,0 +1,54 @@
+package org.egov.pt.calculator.web.models;
+
+import java.util.List;
+import java.util.Map;
+
+import org.egov.common.contract.response.ResponseInfo;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Report of a batch calculation, count of the properties by status with the throughput and the result of
+ * every property
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BatchCalculationRes {
+
+	@JsonProperty("ResponseInfo")
+	private ResponseInfo responseInfo;
+
+	@JsonProperty("tenantId")
+	private String tenantId;
+
+	@JsonProperty("dryRun")
+	private Boolean dryRun;
+
+	@JsonProperty("totalCount")
+	private Integer totalCount;
+
+	@JsonProperty("demandsCreated")
+	private Integer demandsCreated;
+
+	@JsonProperty("statusCount")
+	private Map<BatchCalculationResult.StatusEnum, Integer> statusCount;
+
+	@JsonProperty("timeTakenInMillis")
+	private Long timeTakenInMillis;
+
+	@JsonProperty("propertiesPerSecond")
+	private Double propertiesPerSecond;
+
+	@JsonProperty("results")
+	private List<BatchCalculationResult> results;
+
+}
@@ -0,0 +1,70 @@
+package org.egov.pt.calculator.web.models;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Outcome of the calculation of a property of a batch with the difference between the tax of its current
+ * demand and the new calculation
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@ToString
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchCalculationResult {
+
+	@JsonProperty("propertyId")
+	private String propertyId;
+
+	@JsonProperty("assessmentNumber")
+	private String assessmentNumber;
+
+	@JsonProperty("status")
+	private StatusEnum status;
+
+	@JsonProperty("oldTaxAmount")
+	private BigDecimal oldTaxAmount;
+
+	@JsonProperty("newTaxAmount")
+	private BigDecimal newTaxAmount;
+
+	@JsonProperty("oldTotalAmount")
+	private BigDecimal oldTotalAmount;
+
+	@JsonProperty("newTotalAmount")
+	private BigDecimal newTotalAmount;
+
+	@JsonProperty("difference")
+	private BigDecimal difference;
+
+	@JsonProperty("billingSlabIds")
+	private List<String> billingSlabIds;
+
+	@JsonProperty("errorCode")
+	private String errorCode;
+
+	@JsonProperty("errorMessage")
+	private String errorMessage;
+
+	/**
+	 * NEW - no demand exists for the period, CHANGED / UNCHANGED - the current demand is replaced, its tax
+	 * differs or not, DEPRECIATING - lesser assessment not allowed, FAILED - the calculation failed
+	 */
+	public enum StatusEnum {
+		NEW, CHANGED, UNCHANGED, DEPRECIATING, FAILED
+	}
+
+}
@@ -0,0 +1,205 @@
+package org.egov.pt.calculator.service;
+
+import static org.egov.pt.calculator.util.CalculatorConstants.EG_PT_BATCH_CALCULATION_ERROR;
+import static org.egov.pt.calculator.util.CalculatorConstants.EG_PT_BATCH_DEMAND_RESTORE_ERROR;
+import static org.egov.pt.calculator.util.CalculatorConstants.PT_TAX;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.egov.common.contract.request.RequestInfo;
+import org.egov.pt.calculator.util.CalculatorUtils;
+import org.egov.pt.calculator.util.Configurations;
+import org.egov.pt.calculator.util.ResponseInfoFactory;
+import org.egov.pt.calculator.web.models.BatchCalculationReq;
+import org.egov.pt.calculator.web.models.BatchCalculationRes;
+import org.egov.pt.calculator.web.models.BatchCalculationResult;
+import org.egov.pt.calculator.web.models.BatchCalculationResult.StatusEnum;
+import org.egov.pt.calculator.web.models.Calculation;
+import org.egov.pt.calculator.web.models.CalculationCriteria;
+import org.egov.pt.calculator.web.models.TaxHeadEstimate;
+import org.egov.pt.calculator.web.models.demand.Demand;
+import org.egov.pt.calculator.web.models.demand.DemandDetail;
+import org.egov.pt.calculator.web.models.property.Property;
+import org.egov.pt.calculator.web.models.property.PropertyDetail;
+import org.egov.tracer.model.CustomException;
+import org.egov.tracer.model.ServiceCallException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.beans.factory.ObjectProvider;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class BatchCalculationServiceTest {
+
+	private static final String TENANT_ID = "pb.amritsar";
+
+	private static final String WITH_DEMAND = "PT-107-001";
+
+	private static final String WITHOUT_DEMAND = "PT-107-002";
+
+	private DemandService demandService;
+
+	private CalculatorUtils utils;
+
+	private BatchCalculationService batchCalculationService;
+
+	private Demand oldDemand;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	public void setUp() {
+		EstimationService estimationService = mock(EstimationService.class);
+		demandService = mock(DemandService.class);
+		utils = mock(CalculatorUtils.class);
+		Configurations configs = mock(Configurations.class);
+		when(configs.getBatchCalculationPoolSize()).thenReturn(2);
+		when(configs.getBatchDemandChunkSize()).thenReturn(10);
+		when(configs.getBatchDemandSearchChunkSize()).thenReturn(10);
+		ObjectProvider<MeterRegistry> meterRegistry = mock(ObjectProvider.class);
+		when(meterRegistry.getIfAvailable(any())).thenReturn(new SimpleMeterRegistry());
+
+		batchCalculationService = new BatchCalculationService(estimationService, demandService,
+				mock(MasterDataService.class), mock(BillingSlabService.class), mock(EnrichmentService.class), utils,
+				configs, mock(ResponseInfoFactory.class), meterRegistry);
+		batchCalculationService.init();
+
+		oldDemand = Demand.builder().consumerCode(WITH_DEMAND).status(Demand.DemandStatusEnum.ACTIVE)
+				.demandDetails(Collections.singletonList(DemandDetail.builder().taxHeadMasterCode(PT_TAX)
+						.taxAmount(BigDecimal.valueOf(100)).collectionAmount(BigDecimal.ZERO).build()))
+				.build();
+		when(utils.getLatestDemandsForCurrentFinancialYear(any(), eq(TENANT_ID), anyLong(), anyLong(), anyCollection()))
+				.thenReturn(Collections.singletonMap(WITH_DEMAND, oldDemand));
+		when(estimationService.getCalculation(any(), any(), any(), any(), any(), any()))
+				.thenReturn(Calculation.builder().billingSlabIds(Collections.singletonList("slab"))
+						.taxHeadEstimates(Collections.singletonList(TaxHeadEstimate.builder().taxHeadCode(PT_TAX)
+								.estimateAmount(BigDecimal.valueOf(150)).build()))
+						.build());
+		when(demandService.prepareDemand(any(), any(), any()))
+				.thenAnswer(invocation -> Demand.builder().consumerCode(((Property) invocation.getArgument(0)).getPropertyId())
+						.status(Demand.DemandStatusEnum.ACTIVE).build());
+	}
+
+	@AfterEach
+	public void tearDown() {
+		batchCalculationService.shutdown();
+	}
+
+	@Test
+	public void testCalculateCancelsCurrentDemandsBeforeCreatingNewOnes() {
+		BatchCalculationRes response = batchCalculationService.calculate(request(false));
+
+		InOrder billing = inOrder(demandService);
+		billing.verify(demandService).cancelDemands(eq(Collections.singletonList(oldDemand)), any());
+		billing.verify(demandService).createDemands(any(), any());
+		verify(demandService, never()).activateDemands(any(), any());
+		assertEquals(2, (int) response.getDemandsCreated());
+		assertEquals(StatusEnum.CHANGED, result(response, WITH_DEMAND).getStatus());
+		assertEquals(StatusEnum.NEW, result(response, WITHOUT_DEMAND).getStatus());
+	}
+
+	@Test
+	public void testCalculateActivatesCancelledDemandsWhenCreationFails() {
+		doThrow(new ServiceCallException("{\"Errors\":[]}")).when(demandService).createDemands(any(), any());
+
+		BatchCalculationRes response = batchCalculationService.calculate(request(false));
+
+		verify(demandService).activateDemands(eq(Collections.singletonList(oldDemand)), any());
+		assertEquals(0, (int) response.getDemandsCreated());
+		assertEquals(StatusEnum.FAILED, result(response, WITH_DEMAND).getStatus());
+		assertEquals(EG_PT_BATCH_CALCULATION_ERROR, result(response, WITH_DEMAND).getErrorCode());
+		assertEquals(StatusEnum.FAILED, result(response, WITHOUT_DEMAND).getStatus());
+	}
+
+	@Test
+	public void testCalculateReportsDemandsThatCouldNotBeActivatedAgain() {
+		doThrow(new ServiceCallException("{\"Errors\":[]}")).when(demandService).createDemands(any(), any());
+		doThrow(new ServiceCallException("{\"Errors\":[]}")).when(demandService).activateDemands(any(), any());
+
+		BatchCalculationRes response = batchCalculationService.calculate(request(false));
+
+		assertEquals(EG_PT_BATCH_DEMAND_RESTORE_ERROR, result(response, WITH_DEMAND).getErrorCode());
+		assertEquals(EG_PT_BATCH_CALCULATION_ERROR, result(response, WITHOUT_DEMAND).getErrorCode());
+	}
+
+	@Test
+	public void testCalculateDoesNotCreateDemandsWhenCancellationFails() {
+		doThrow(new CustomException("EG_BS_DEMAND_UPDATE_ERROR", "update failed")).when(demandService)
+				.cancelDemands(any(), any());
+
+		BatchCalculationRes response = batchCalculationService.calculate(request(false));
+
+		verify(demandService, never()).createDemands(any(), any());
+		verify(demandService, never()).activateDemands(any(), any());
+		assertEquals("EG_BS_DEMAND_UPDATE_ERROR", result(response, WITH_DEMAND).getErrorCode());
+		assertEquals("EG_BS_DEMAND_UPDATE_ERROR", result(response, WITHOUT_DEMAND).getErrorCode());
+	}
+
+	@Test
+	public void testDryRunDoesNotWriteDemands() {
+		BatchCalculationRes response = batchCalculationService.calculate(request(true));
+
+		verify(demandService, never()).cancelDemands(any(), any());
+		verify(demandService, never()).createDemands(any(), any());
+		assertEquals(BigDecimal.valueOf(50), result(response, WITH_DEMAND).getDifference());
+		assertNull(result(response, WITHOUT_DEMAND).getErrorCode());
+	}
+
+	@Test
+	public void testCalculateRejectsCriteriaWithoutProperty() {
+		BatchCalculationReq request = request(false);
+		request.getCalculationCriteria().get(1).setProperty(null);
+
+		CustomException exception = assertThrows(CustomException.class, () -> batchCalculationService.calculate(request));
+
+		assertEquals(EG_PT_BATCH_CALCULATION_ERROR, exception.getCode());
+		verify(utils, never()).getLatestDemandsForCurrentFinancialYear(any(), anyString(), anyLong(), anyLong(),
+				anyCollection());
+	}
+
+	private BatchCalculationReq request(boolean dryRun) {
+		List<CalculationCriteria> criterias = Arrays.asList(criteria(WITH_DEMAND), criteria(WITHOUT_DEMAND));
+		return BatchCalculationReq.builder().requestInfo(new RequestInfo()).tenantId(TENANT_ID).dryRun(dryRun)
+				.calculationCriteria(criterias).build();
+	}
+
+	private CalculationCriteria criteria(String propertyId) {
+		PropertyDetail detail = new PropertyDetail();
+		detail.setAssessmentNumber("AS-" + propertyId);
+		detail.setFinancialYear("2021-22");
+		Property property = new Property();
+		property.setPropertyId(propertyId);
+		property.setTenantId(TENANT_ID);
+		property.setPropertyDetails(Collections.singletonList(detail));
+		return CalculationCriteria.builder().property(property).tenantId(TENANT_ID).fromDate(1617215400000L)
+				.toDate(1648751399000L).build();
+	}
+
+	private BatchCalculationResult result(BatchCalculationRes response, String propertyId) {
+		Map<String, BatchCalculationResult> results = new HashMap<>();
+		response.getResults().forEach(result -> results.put(result.getPropertyId(), result));
+		return results.get(propertyId);
+	}
+
+}
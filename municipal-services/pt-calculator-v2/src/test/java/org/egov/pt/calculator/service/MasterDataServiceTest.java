@@ -0,0 +1,74 @@
+package org.egov.pt.calculator.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.math.BigDecimal;
+
+import org.egov.pt.calculator.util.CalculatorConstants;
+import org.egov.pt.calculator.util.TimeBasedRules;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import net.minidev.json.JSONArray;
+import net.minidev.json.JSONObject;
+
+public class MasterDataServiceTest {
+
+	private static final String TENANT_ID = "pb.amritsar";
+
+	private MasterDataService masterDataService;
+
+	@BeforeEach
+	public void setUp() {
+		masterDataService = new MasterDataService();
+	}
+
+	@Test
+	public void testRulesAreReusedForReloadedMaster() {
+		TimeBasedRules rules = masterDataService.getTimeBasedRules(TENANT_ID, CalculatorConstants.REBATE_MASTER,
+				rebateMaster(10.0));
+
+		assertSame(rules, masterDataService.getTimeBasedRules(TENANT_ID, CalculatorConstants.REBATE_MASTER,
+				rebateMaster(10.0)));
+	}
+
+	@Test
+	public void testRulesAreCompiledAgainWhenMasterChanges() {
+		TimeBasedRules rules = masterDataService.getTimeBasedRules(TENANT_ID, CalculatorConstants.REBATE_MASTER,
+				rebateMaster(10.0));
+
+		TimeBasedRules changed = masterDataService.getTimeBasedRules(TENANT_ID, CalculatorConstants.REBATE_MASTER,
+				rebateMaster(20.0));
+
+		assertNotSame(rules, changed);
+		assertEquals(0, BigDecimal.valueOf(20).compareTo(
+				changed.getApplicable("2019-20", System.currentTimeMillis()).calculate(BigDecimal.valueOf(100))));
+	}
+
+	@Test
+	public void testRulesAreKeptPerTenantAndMaster() {
+		JSONArray master = rebateMaster(10.0);
+		TimeBasedRules rules = masterDataService.getTimeBasedRules(TENANT_ID, CalculatorConstants.REBATE_MASTER, master);
+		TimeBasedRules otherMaster = masterDataService.getTimeBasedRules(TENANT_ID, CalculatorConstants.PENANLTY_MASTER,
+				rebateMaster(20.0));
+		TimeBasedRules otherTenant = masterDataService.getTimeBasedRules("pb.jalandhar",
+				CalculatorConstants.REBATE_MASTER, rebateMaster(20.0));
+
+		assertNotSame(rules, otherMaster);
+		assertNotSame(rules, otherTenant);
+		assertSame(rules, masterDataService.getTimeBasedRules(TENANT_ID, CalculatorConstants.REBATE_MASTER, master));
+	}
+
+	private JSONArray rebateMaster(double rate) {
+		JSONObject entry = new JSONObject();
+		entry.put(CalculatorConstants.FROMFY_FIELD_NAME, "2019-20");
+		entry.put(CalculatorConstants.ENDING_DATE_APPLICABLES, "31/07");
+		entry.put(CalculatorConstants.RATE_FIELD_NAME, rate);
+		JSONArray master = new JSONArray();
+		master.add(entry);
+		return master;
+	}
+
+}
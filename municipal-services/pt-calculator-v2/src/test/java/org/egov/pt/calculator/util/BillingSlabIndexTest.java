@@ -0,0 +1,223 @@
+package org.egov.pt.calculator.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.egov.pt.calculator.util.BillingSlabIndex.SlabGroup;
+import org.egov.pt.calculator.web.models.BillingSlab;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the lookups on the index with the linear filtering of the slab list done by the estimation before the
+ * index, for the same slabs and properties both must return the same slabs.
+ */
+public class BillingSlabIndexTest {
+
+	private static final String ALL = "ALL";
+
+	private static final String[] PROPERTY_TYPES = { "BUILTUP", "VACANT" };
+	private static final String[] PROPERTY_SUB_TYPES = { "SHAREDPROPERTY", "INDEPENDENTPROPERTY", ALL, "all" };
+	private static final String[] OWNERSHIPS = { "INDIVIDUAL", "INSTITUTIONALPRIVATE", ALL };
+	private static final String[] SUB_OWNERSHIPS = { "SINGLEOWNER", "MULTIPLEOWNERS", ALL };
+	private static final String[] AREA_TYPES = { "A", "B", "C", ALL };
+	private static final double[] PLOT_BOUNDS = { Double.NEGATIVE_INFINITY, 0, 100, 250, 500, 2000,
+			Double.POSITIVE_INFINITY };
+	private static final String[] USAGE_MAJORS = { "RESIDENTIAL", "NONRESIDENTIAL", ALL };
+	private static final String[] USAGE_MINORS = { "COMMERCIAL", "INDUSTRIAL", ALL };
+	private static final String[] USAGE_SUB_MINORS = { "RETAIL", "HOTELS", ALL };
+	private static final String[] USAGE_DETAILS = { "STARHOTELS", "NONSTARHOTELS", ALL, "All" };
+	private static final String[] OCCUPANCIES = { "SELFOCCUPIED", "RENTED", ALL };
+	private static final double[] FLOOR_BOUNDS = { Double.NEGATIVE_INFINITY, -1, 0, 2, 5, Double.POSITIVE_INFINITY };
+
+	// plot sizes on and around every bound, zero and outside the ranges of the table
+	private static final double[] PLOT_SIZES = { -50, 0, 0.5, 99.99, 100, 100.01, 250, 300, 500, 1999, 2000, 2001,
+			1e9 };
+	private static final double[] FLOORS = { -2, -1, 0, 1, 2, 3, 5, 6, 100 };
+
+	private Random random;
+
+	@BeforeEach
+	public void setUp() {
+		random = new Random(35);
+	}
+
+	@Test
+	public void testPropertyAndUnitSlabsMatchLinearFilter() {
+		List<BillingSlab> slabs = randomSlabs(3000);
+		BillingSlabIndex index = BillingSlabIndex.build(slabs, ALL);
+
+		int propertyMatches = 0;
+		int unitMatches = 0;
+		for (int i = 0; i < 2000; i++) {
+			String[] property = { pick(PROPERTY_TYPES), value(PROPERTY_SUB_TYPES), value(OWNERSHIPS),
+					value(SUB_OWNERSHIPS), value(AREA_TYPES) };
+			boolean multiFloored = random.nextBoolean();
+			double plotSize = PLOT_SIZES[random.nextInt(PLOT_SIZES.length)];
+
+			List<BillingSlab> expected = linearPropertySlabs(slabs, property, multiFloored, plotSize);
+			SlabGroup group = index.getPropertySlabs(property[0], property[1], property[2], property[3], property[4],
+					multiFloored, plotSize);
+			assertSameSlabs(expected, group.getSlabs());
+			propertyMatches += expected.isEmpty() ? 0 : 1;
+
+			for (int j = 0; j < 5; j++) {
+				String[] unit = { value(USAGE_MAJORS), value(USAGE_MINORS), value(USAGE_SUB_MINORS),
+						value(USAGE_DETAILS), value(OCCUPANCIES) };
+				double floorNo = FLOORS[random.nextInt(FLOORS.length)];
+				List<BillingSlab> expectedUnit = linearUnitSlabs(expected, unit, floorNo);
+				assertSameSlabs(expectedUnit, group.getUnitSlabs(unit[0], unit[1], unit[2], unit[3], unit[4], floorNo));
+				unitMatches += expectedUnit.isEmpty() ? 0 : 1;
+			}
+		}
+		// the generated table must exercise the matching paths, not only the empty results
+		assertTrue(propertyMatches > 200, "Only " + propertyMatches + " properties matched");
+		assertTrue(unitMatches > 200, "Only " + unitMatches + " units matched");
+	}
+
+	@Test
+	public void testPlotSizeBoundaries() {
+		List<BillingSlab> slabs = Arrays.asList(slab("1", 0, 100), slab("2", 100, 500),
+				slab("3", 500, Double.POSITIVE_INFINITY), slab("4", Double.NEGATIVE_INFINITY, 0));
+		BillingSlabIndex index = BillingSlabIndex.build(slabs, ALL);
+
+		for (double plotSize : new double[] { -1, 0, 50, 100, 100.5, 500, 501, Double.MAX_VALUE }) {
+			String[] property = { "BUILTUP", "SHAREDPROPERTY", "INDIVIDUAL", "SINGLEOWNER", "A" };
+			assertSameSlabs(linearPropertySlabs(slabs, property, false, plotSize), index
+					.getPropertySlabs("BUILTUP", "SHAREDPROPERTY", "INDIVIDUAL", "SINGLEOWNER", "A", false, plotSize)
+					.getSlabs());
+		}
+		assertEquals(Arrays.asList("1", "4"), ids(index
+				.getPropertySlabs("BUILTUP", "SHAREDPROPERTY", "INDIVIDUAL", "SINGLEOWNER", "A", false, 0.0).getSlabs()));
+		assertEquals(Arrays.asList("1"), ids(index
+				.getPropertySlabs("BUILTUP", "SHAREDPROPERTY", "INDIVIDUAL", "SINGLEOWNER", "A", false, 100.0).getSlabs()));
+		assertEquals(Arrays.asList("3"), ids(index
+				.getPropertySlabs("BUILTUP", "SHAREDPROPERTY", "INDIVIDUAL", "SINGLEOWNER", "A", false, 1e12).getSlabs()));
+	}
+
+	@Test
+	public void testMissingAttributesMatchOnlyAllSlabs() {
+		BillingSlab specific = slab("1", 0, 100);
+		BillingSlab any = slab("2", 0, 100);
+		any.setSubOwnerShipCategory(ALL);
+		any.setUsageCategoryDetail(ALL);
+		List<BillingSlab> slabs = Arrays.asList(specific, any);
+		BillingSlabIndex index = BillingSlabIndex.build(slabs, ALL);
+
+		String[] property = { "BUILTUP", "SHAREDPROPERTY", "INDIVIDUAL", null, "A" };
+		List<BillingSlab> expected = linearPropertySlabs(slabs, property, false, 50.0);
+		SlabGroup group = index.getPropertySlabs("BUILTUP", "SHAREDPROPERTY", "INDIVIDUAL", null, "A", false, 50.0);
+		assertSameSlabs(expected, group.getSlabs());
+		assertEquals(Arrays.asList("2"), ids(group.getSlabs()));
+
+		String[] unit = { "RESIDENTIAL", "COMMERCIAL", "RETAIL", null, "RENTED" };
+		assertSameSlabs(linearUnitSlabs(group.getSlabs(), unit, 0.0),
+				group.getUnitSlabs("RESIDENTIAL", "COMMERCIAL", "RETAIL", null, "RENTED", 0.0));
+		assertEquals(Arrays.asList("2"), ids(group.getUnitSlabs("residential", "commercial", "retail", null, "rented", 0.0)));
+	}
+
+	private List<BillingSlab> randomSlabs(int count) {
+		List<BillingSlab> slabs = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			int from = random.nextInt(PLOT_BOUNDS.length - 1);
+			int to = from + 1 + random.nextInt(Math.min(2, PLOT_BOUNDS.length - 1 - from));
+			int fromFloor = random.nextInt(FLOOR_BOUNDS.length - 1);
+			int toFloor = fromFloor + 1 + random.nextInt(FLOOR_BOUNDS.length - 1 - fromFloor);
+			slabs.add(BillingSlab.builder().id(String.valueOf(i)).tenantId("pb.amritsar")
+					.propertyType(pick(PROPERTY_TYPES)).propertySubType(pick(PROPERTY_SUB_TYPES))
+					.ownerShipCategory(pick(OWNERSHIPS)).subOwnerShipCategory(pick(SUB_OWNERSHIPS))
+					.areaType(pick(AREA_TYPES)).isPropertyMultiFloored(random.nextBoolean())
+					.fromPlotSize(PLOT_BOUNDS[from]).toPlotSize(PLOT_BOUNDS[to])
+					.usageCategoryMajor(pick(USAGE_MAJORS)).usageCategoryMinor(pick(USAGE_MINORS))
+					.usageCategorySubMinor(pick(USAGE_SUB_MINORS)).usageCategoryDetail(pick(USAGE_DETAILS))
+					.occupancyType(pick(OCCUPANCIES)).fromFloor(FLOOR_BOUNDS[fromFloor]).toFloor(FLOOR_BOUNDS[toFloor])
+					.unitRate(10.0).build());
+		}
+		return slabs;
+	}
+
+	private static BillingSlab slab(String id, double fromPlotSize, double toPlotSize) {
+		return BillingSlab.builder().id(id).tenantId("pb.amritsar").propertyType("BUILTUP")
+				.propertySubType("SHAREDPROPERTY").ownerShipCategory("INDIVIDUAL").subOwnerShipCategory("SINGLEOWNER")
+				.areaType("A").isPropertyMultiFloored(false).fromPlotSize(fromPlotSize).toPlotSize(toPlotSize)
+				.usageCategoryMajor("RESIDENTIAL").usageCategoryMinor("COMMERCIAL").usageCategorySubMinor("RETAIL")
+				.usageCategoryDetail("STARHOTELS").occupancyType("RENTED").fromFloor(Double.NEGATIVE_INFINITY)
+				.toFloor(Double.POSITIVE_INFINITY).unitRate(10.0).build();
+	}
+
+	private String pick(String[] values) {
+		return values[random.nextInt(values.length)];
+	}
+
+	/**
+	 * Value of a property or unit field, missing or in another case at times
+	 */
+	private String value(String[] values) {
+		int chance = random.nextInt(10);
+		if (chance == 0)
+			return null;
+		String value = pick(values);
+		return chance == 1 ? value.toLowerCase() : value;
+	}
+
+	/**
+	 * First level filtering of the estimation before the index
+	 */
+	private static List<BillingSlab> linearPropertySlabs(List<BillingSlab> billingSlabs, String[] property,
+			Boolean dtlIsMultiFloored, Double plotSize) {
+		return billingSlabs.stream().filter(slab -> {
+			boolean isPropertyMultiFloored = slab.getIsPropertyMultiFloored().equals(dtlIsMultiFloored);
+			boolean isAreaMatching = slab.getAreaType().equalsIgnoreCase(property[4])
+					|| ALL.equalsIgnoreCase(slab.getAreaType());
+			boolean isPtTypeMatching = slab.getPropertyType().equalsIgnoreCase(property[0]);
+			boolean isPtSubTypeMatching = slab.getPropertySubType().equalsIgnoreCase(property[1])
+					|| ALL.equalsIgnoreCase(slab.getPropertySubType());
+			boolean isOwnerShipMatching = slab.getOwnerShipCategory().equalsIgnoreCase(property[2])
+					|| ALL.equalsIgnoreCase(slab.getOwnerShipCategory());
+			boolean isSubOwnerShipMatching = slab.getSubOwnerShipCategory().equalsIgnoreCase(property[3])
+					|| ALL.equalsIgnoreCase(slab.getSubOwnerShipCategory());
+			boolean isPlotMatching;
+			if (plotSize == 0.0)
+				isPlotMatching = slab.getFromPlotSize() <= plotSize && slab.getToPlotSize() >= plotSize;
+			else
+				isPlotMatching = slab.getFromPlotSize() < plotSize && slab.getToPlotSize() >= plotSize;
+			return isPtTypeMatching && isPtSubTypeMatching && isOwnerShipMatching && isSubOwnerShipMatching
+					&& isPlotMatching && isAreaMatching && isPropertyMultiFloored;
+		}).collect(Collectors.toList());
+	}
+
+	/**
+	 * Unit level filtering of the estimation before the index
+	 */
+	private static List<BillingSlab> linearUnitSlabs(List<BillingSlab> billingSlabs, String[] unit, Double floorNo) {
+		return billingSlabs.stream().filter(slab -> (slab.getUsageCategoryMajor().equalsIgnoreCase(unit[0])
+				|| slab.getUsageCategoryMajor().equalsIgnoreCase(ALL))
+				&& (slab.getUsageCategoryMinor().equalsIgnoreCase(unit[1]) || slab.getUsageCategoryMinor().equalsIgnoreCase(ALL))
+				&& (slab.getUsageCategorySubMinor().equalsIgnoreCase(unit[2])
+						|| slab.getUsageCategorySubMinor().equalsIgnoreCase(ALL))
+				&& (slab.getUsageCategoryDetail().equalsIgnoreCase(unit[3]) || slab.getUsageCategoryDetail().equalsIgnoreCase(ALL))
+				&& slab.getFromFloor() <= floorNo && slab.getToFloor() >= floorNo
+				&& (slab.getOccupancyType().equalsIgnoreCase(unit[4]) || slab.getOccupancyType().equalsIgnoreCase(ALL)))
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * The index does not keep the order of the slab list, the slabs are compared by id and must not repeat
+	 */
+	private static void assertSameSlabs(List<BillingSlab> expected, List<BillingSlab> actual) {
+		assertEquals(ids(expected), ids(actual));
+	}
+
+	private static List<String> ids(List<BillingSlab> slabs) {
+		return slabs.stream().map(BillingSlab::getId).sorted(Comparator.comparing(Integer::valueOf))
+				.collect(Collectors.toList());
+	}
+
+}
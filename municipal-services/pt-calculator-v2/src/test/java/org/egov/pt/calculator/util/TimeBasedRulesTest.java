@@ -0,0 +1,217 @@
+package org.egov.pt.calculator.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.egov.tracer.model.CustomException;
+import org.junit.jupiter.api.Test;
+
+import net.minidev.json.JSONArray;
+import net.minidev.json.JSONObject;
+
+/**
+ * Compares the rules with the walk over the master list done by MasterDataService.getApplicableMaster before the
+ * rules were compiled, for the same masters, assessment year and time both must select the same entry and amount.
+ */
+public class TimeBasedRulesTest {
+
+	private static final String[] ASSESSMENT_YEARS = { "2013-14", "2014-15", "2015-16", "2016-17", "2017-18",
+			"2018-19", "2019-20", "2020-21", "2021-22", "2022-23" };
+
+	private static final BigDecimal TAX = BigDecimal.valueOf(12345.67);
+
+	private static final long DAY = 86400000L;
+
+	@Test
+	public void testRulesWithStartingDayMatchListWalk() throws ParseException {
+		JSONArray penaltyMaster = new JSONArray();
+		JSONArray interestMaster = new JSONArray();
+		for (int year = 2014; year <= 2021; year++) {
+			String fromFY = year + "-" + String.valueOf(year + 1).substring(2);
+			penaltyMaster.add(entry(fromFY, "01/01/" + (year + 1), null, 10.0, null, null, null));
+			interestMaster.add(entry(fromFY, "01/04/" + (year + 1), null, 18.0, null, 10.0, null));
+		}
+		// a second starting day within the same effective year
+		penaltyMaster.add(entry("2018-19", "01/10/2019", null, 15.0, 2000.0, null, null));
+
+		assertEquals(9 * 4 * ASSESSMENT_YEARS.length, checkAroundStartingDays(penaltyMaster));
+		assertEquals(8 * 4 * ASSESSMENT_YEARS.length, checkAroundStartingDays(interestMaster));
+	}
+
+	@Test
+	public void testRulesWithoutStartingDayMatchListWalk() throws ParseException {
+		JSONArray rebateMaster = new JSONArray();
+		for (int year = 2014; year <= 2021; year += 2) {
+			String fromFY = year + "-" + String.valueOf(year + 1).substring(2);
+			rebateMaster.add(entry(fromFY, null, "31/07", 10.0, 2500.0, null, null));
+		}
+		rebateMaster.add(entry("2016-17", null, "31/07", null, null, null, 500.0));
+		TimeBasedRules rules = TimeBasedRules.compile(rebateMaster);
+
+		long now = System.currentTimeMillis();
+		for (String assessmentYear : ASSESSMENT_YEARS)
+			for (long time : new long[] { 0L, now, now + 400 * DAY })
+				checkParity(rules, rebateMaster, assessmentYear, time);
+
+		// an exact match on the effective year is returned right away, else the last entry of the latest earlier year
+		assertSame(rebateMaster.get(1), rules.getApplicable("2016-17", now).getMaster());
+		assertSame(rebateMaster.get(4), rules.getApplicable("2017-18", now).getMaster());
+		assertNull(rules.getApplicable("2013-14", now));
+	}
+
+	@Test
+	public void testUnparsableStartingDayRaisesError() {
+		JSONArray penaltyMaster = new JSONArray();
+		penaltyMaster.add(entry("2018-19", "01/01/2019", null, 10.0, null, null, null));
+		penaltyMaster.add(entry("2019-20", "first of january", null, 10.0, null, null, null));
+		TimeBasedRules rules = TimeBasedRules.compile(penaltyMaster);
+		long now = System.currentTimeMillis();
+
+		// the entry is not looked at for the years before its effective year
+		checkParity(rules, penaltyMaster, "2018-19", now);
+
+		for (String assessmentYear : new String[] { "2019-20", "2020-21" }) {
+			CustomException expected = assertThrows(CustomException.class,
+					() -> getApplicableMaster(assessmentYear, penaltyMaster, now));
+			CustomException actual = assertThrows(CustomException.class,
+					() -> rules.getApplicable(assessmentYear, now));
+			assertEquals(expected.getCode(), actual.getCode());
+			assertEquals(expected.getMessage(), actual.getMessage());
+		}
+	}
+
+	/**
+	 * Checks every assessment year at, just before, just after and within a day after each starting day
+	 *
+	 * @return the number of comparisons
+	 */
+	private int checkAroundStartingDays(JSONArray master) throws ParseException {
+		TimeBasedRules rules = TimeBasedRules.compile(master);
+		SimpleDateFormat df = new SimpleDateFormat("dd/MM/yyyy");
+		int compared = 0;
+		for (Object object : master) {
+			long start = df.parse((String) ((JSONObject) object).get(CalculatorConstants.STARTING_DATE_APPLICABLES))
+					.getTime();
+			for (long time : new long[] { start - 1, start, start + 1, start + DAY / 2 }) {
+				for (String assessmentYear : ASSESSMENT_YEARS) {
+					checkParity(rules, master, assessmentYear, time);
+					compared++;
+				}
+			}
+		}
+		return compared;
+	}
+
+	private static void checkParity(TimeBasedRules rules, List<Object> master, String assessmentYear, long time) {
+		Map<String, Object> expected = getApplicableMaster(assessmentYear, master, time);
+		TimeBasedRules.Rule rule = rules.getApplicable(assessmentYear, time);
+		String description = assessmentYear + " at " + time;
+		assertSame(expected, rule == null ? null : rule.getMaster(), description);
+		if (rule != null)
+			assertEquals(0, calculateApplicables(TAX, expected).compareTo(rule.calculate(TAX)), description);
+	}
+
+	private static JSONObject entry(String fromFY, String startingDay, String endingDay, Double rate, Double maxAmount,
+			Double minAmount, Double flatAmount) {
+		JSONObject entry = new JSONObject();
+		entry.put(CalculatorConstants.FROMFY_FIELD_NAME, fromFY);
+		if (startingDay != null)
+			entry.put(CalculatorConstants.STARTING_DATE_APPLICABLES, startingDay);
+		if (endingDay != null)
+			entry.put(CalculatorConstants.ENDING_DATE_APPLICABLES, endingDay);
+		if (rate != null)
+			entry.put(CalculatorConstants.RATE_FIELD_NAME, rate);
+		if (maxAmount != null)
+			entry.put(CalculatorConstants.MAX_AMOUNT_FIELD_NAME, maxAmount);
+		if (minAmount != null)
+			entry.put(CalculatorConstants.MIN_AMOUNT_FIELD_NAME, minAmount);
+		if (flatAmount != null)
+			entry.put(CalculatorConstants.FLAT_AMOUNT_FIELD_NAME, flatAmount);
+		return entry;
+	}
+
+	/*
+	 * selection and amount calculation on the master list as done by MasterDataService before the rules were
+	 * compiled, with the current time passed in
+	 */
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> getApplicableMaster(String assessmentYear, List<Object> masterList, long currentTime) {
+
+		Map<String, Object> objToBeReturned = null;
+		String maxYearFromTheList = "0";
+		Long maxStartTime = 0l;
+
+		for (Object object : masterList) {
+
+			Map<String, Object> objMap = (Map<String, Object>) object;
+			String objFinYear = ((String) objMap.get(CalculatorConstants.FROMFY_FIELD_NAME)).split("-")[0];
+			if (!objMap.containsKey(CalculatorConstants.STARTING_DATE_APPLICABLES)) {
+				if (objFinYear.compareTo(assessmentYear.split("-")[0]) == 0)
+					return objMap;
+
+				else if (assessmentYear.split("-")[0].compareTo(objFinYear) > 0 && maxYearFromTheList.compareTo(objFinYear) <= 0) {
+					maxYearFromTheList = objFinYear;
+					objToBeReturned = objMap;
+				}
+			} else {
+				String objStartDay = ((String) objMap.get(CalculatorConstants.STARTING_DATE_APPLICABLES));
+				if (assessmentYear.split("-")[0].compareTo(objFinYear) >= 0 && maxYearFromTheList.compareTo(objFinYear) <= 0) {
+					maxYearFromTheList = objFinYear;
+					Long startTime;
+					try {
+						Date date = new SimpleDateFormat("dd/MM/yyyy").parse(objStartDay);
+						startTime = date.getTime();
+					} catch (ParseException e) {
+						throw new CustomException("INVALID STARTDAY", "The startDate of the penalty cannot be parsed");
+					}
+					if (startTime < currentTime && maxStartTime < startTime) {
+						objToBeReturned = objMap;
+						maxStartTime = startTime;
+					}
+				}
+			}
+		}
+		return objToBeReturned;
+	}
+
+	private static BigDecimal calculateApplicables(BigDecimal applicableAmount, Map<String, Object> configMap) {
+
+		if (null == configMap)
+			return BigDecimal.ZERO;
+
+		BigDecimal rate = null != configMap.get(CalculatorConstants.RATE_FIELD_NAME)
+				? BigDecimal.valueOf(((Number) configMap.get(CalculatorConstants.RATE_FIELD_NAME)).doubleValue())
+				: null;
+		BigDecimal maxAmt = null != configMap.get(CalculatorConstants.MAX_AMOUNT_FIELD_NAME)
+				? BigDecimal.valueOf(((Number) configMap.get(CalculatorConstants.MAX_AMOUNT_FIELD_NAME)).doubleValue())
+				: null;
+		BigDecimal minAmt = null != configMap.get(CalculatorConstants.MIN_AMOUNT_FIELD_NAME)
+				? BigDecimal.valueOf(((Number) configMap.get(CalculatorConstants.MIN_AMOUNT_FIELD_NAME)).doubleValue())
+				: null;
+		BigDecimal flatAmt = null != configMap.get(CalculatorConstants.FLAT_AMOUNT_FIELD_NAME)
+				? BigDecimal.valueOf(((Number) configMap.get(CalculatorConstants.FLAT_AMOUNT_FIELD_NAME)).doubleValue())
+				: BigDecimal.ZERO;
+
+		BigDecimal currentApplicable;
+		if (null == rate)
+			currentApplicable = flatAmt.compareTo(applicableAmount) > 0 ? applicableAmount : flatAmt;
+		else {
+			currentApplicable = applicableAmount.multiply(rate.divide(CalculatorConstants.HUNDRED));
+			if (null != maxAmt && BigDecimal.ZERO.compareTo(maxAmt) < 0 && currentApplicable.compareTo(maxAmt) > 0)
+				currentApplicable = maxAmt;
+			else if (null != minAmt && currentApplicable.compareTo(minAmt) < 0)
+				currentApplicable = minAmt;
+		}
+		return currentApplicable;
+	}
+
+}
@@ -185,6 +185,12 @@ public class SWCalculationConfiguration {
 	@Value("${bulk.demand.offset.value}")
 	private Integer batchOffset;
 
+	@Value("${sw.master.data.snapshot.enabled}")
+	private Boolean masterDataSnapshotEnabled;
+
+	@Value("${sw.master.data.snapshot.refresh.interval.ms}")
+	private Long masterDataSnapshotRefreshInterval;
+
 	@Value("${egov.internal.microservice.user.uuid}")
 	private String egovInternalMicroserviceUserUuid;
 
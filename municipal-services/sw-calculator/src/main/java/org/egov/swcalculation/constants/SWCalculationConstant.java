@@ -320,6 +320,10 @@ public class SWCalculationConstant {
 
 	public static final String MDMS_CACHE_KEY = "WSMasterData";
 
+	public static final String EXEMPTION_MASTER_CACHE_KEY = "SWExemptionMasterData";
+
+	public static final String MASTER_DATA_SNAPSHOT_KEY = "MasterDataSnapshot";
+
 	//Notification
 	public static final String CHANNEL_NAME_SMS = "SMS";
 
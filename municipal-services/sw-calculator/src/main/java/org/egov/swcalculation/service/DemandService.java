@@ -17,6 +17,7 @@ import org.egov.swcalculation.repository.DemandRepository;
 import org.egov.swcalculation.repository.ServiceRequestRepository;
 import org.egov.swcalculation.repository.SewerageCalculatorDao;
 import org.egov.swcalculation.util.CalculatorUtils;
+import org.egov.swcalculation.util.MasterDataSnapshot;
 import org.egov.swcalculation.util.SWCalculationUtil;
 import org.egov.swcalculation.validator.SWCalculationWorkflowValidator;
 import org.egov.swcalculation.web.models.*;
@@ -585,11 +586,9 @@ public class DemandService {
 		if (getBillCriteria.getAmountExpected() == null)
 			getBillCriteria.setAmountExpected(BigDecimal.ZERO);
 		RequestInfo requestInfo = requestInfoWrapper.getRequestInfo();
-		Map<String, JSONArray> billingSlabMaster = new HashMap<>();
-
-		Map<String, JSONArray> timeBasedExemptionMasterMap = new HashMap<>();
-		masterDataService.setSewerageConnectionMasterValues(requestInfoWrapper.getRequestInfo(), getBillCriteria.getTenantId(), billingSlabMaster,
-				timeBasedExemptionMasterMap);
+		MasterDataSnapshot masterDataSnapshot = masterDataService.getMasterDataSnapshot(requestInfo,
+				getBillCriteria.getTenantId());
+		Map<String, JSONArray> timeBasedExemptionMasterMap = masterDataSnapshot.getTimeBasedExemptions();
 
 		if (CollectionUtils.isEmpty(getBillCriteria.getConsumerCodes()))
 			getBillCriteria.setConsumerCodes(Collections.singletonList(getBillCriteria.getConnectionNumber()));
@@ -607,7 +606,7 @@ public class DemandService {
 				.collect(Collectors.toMap(Demand::getId, Function.identity()));
 		String tenantId = getBillCriteria.getTenantId();
 		List<Demand> demandsToBeUpdated = new LinkedList<>();
-		List<TaxPeriod> taxPeriods = masterDataService.getTaxPeriodList(requestInfoWrapper.getRequestInfo(), getBillCriteria.getTenantId(), SWCalculationConstant.SERVICE_FIELD_VALUE_SW);
+		List<TaxPeriod> taxPeriods = masterDataSnapshot.getTaxPeriods();
 		consumerCodeToDemandMap.forEach((id, demand) ->{
 			if (demand.getStatus() != null
 					&& SWCalculationConstant.DEMAND_CANCELLED_STATUS.equalsIgnoreCase(demand.getStatus().toString()))
@@ -694,7 +693,8 @@ public class DemandService {
 		boolean isInterestUpdated = false;
 		
 		Map<String, BigDecimal> interestPenaltyEstimates = payService.applyPenaltyRebateAndInterest(
-				sewerageChargeApplicable, taxPeriod.getFinancialYear(), timeBasedExemptionMasterMap, demand.getBillExpiryTime());
+				sewerageChargeApplicable, taxPeriod.getFinancialYear(), demand.getTenantId(), timeBasedExemptionMasterMap,
+				demand.getBillExpiryTime());
 		if (null == interestPenaltyEstimates)
 			return isCurrentDemand;
 
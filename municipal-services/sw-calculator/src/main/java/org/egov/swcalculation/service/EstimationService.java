@@ -16,6 +16,7 @@ import org.egov.common.contract.request.RequestInfo;
 import org.egov.swcalculation.constants.SWCalculationConstant;
 import org.egov.swcalculation.web.models.*;
 import org.egov.swcalculation.util.CalculatorUtils;
+import org.egov.swcalculation.util.MasterDataSnapshot;
 import org.egov.swcalculation.util.SWCalculationUtil;
 import org.egov.swcalculation.util.SewerageCessUtil;
 import org.egov.tracer.model.CustomException;
@@ -73,6 +74,18 @@ public class EstimationService {
 					.append(" connection no");
 			throw new CustomException("INVALID_CONNECTION_ID", builder.toString());
 		}
+		MasterDataSnapshot snapshot = MasterDataSnapshot.from(masterData);
+		if (snapshot != null) {
+			ArrayList<String> billingSlabIds = new ArrayList<>();
+			BigDecimal sewerageCharge = getSewerageEstimationCharge(criteria.getSewerageConnection(), criteria,
+					snapshot, billingSlabIds, requestInfo);
+			List<TaxHeadEstimate> taxHeadEstimates = getEstimatesForTax(sewerageCharge, criteria.getSewerageConnection(),
+					snapshot.getTimeBasedExemptions(), RequestInfoWrapper.builder().requestInfo(requestInfo).build());
+			Map<String, List> estimatesAndBillingSlabs = new HashMap<>();
+			estimatesAndBillingSlabs.put("estimates", taxHeadEstimates);
+			estimatesAndBillingSlabs.put("billingSlabIds", billingSlabIds);
+			return estimatesAndBillingSlabs;
+		}
 		Map<String, JSONArray> billingSlabMaster = new HashMap<>();
 		Map<String, JSONArray> timeBasedExemptionMasterMap = new HashMap<>();
 		ArrayList<String> billingSlabIds = new ArrayList<>();
@@ -106,7 +119,8 @@ public class EstimationService {
 		if (timeBasedExemptionMasterMap.get(SWCalculationConstant.SW_SEWERAGE_CESS_MASTER) != null) {
 			List<Object> sewerageCessMasterList = timeBasedExemptionMasterMap
 					.get(SWCalculationConstant.SW_SEWERAGE_CESS_MASTER);
-			BigDecimal sewerageCess = sewerageCessUtil.getSewerageCess(sewerageCharge, SWCalculationConstant.Assesment_Year, sewerageCessMasterList);
+			BigDecimal sewerageCess = sewerageCessUtil.getSewerageCess(sewerageCharge, SWCalculationConstant.Assesment_Year,
+					connection.getTenantId(), sewerageCessMasterList);
 			estimates.add(TaxHeadEstimate.builder().taxHeadCode(SWCalculationConstant.SW_WATER_CESS)
 					.estimateAmount(sewerageCess.setScale(2, 2)).build());
 		}
@@ -120,7 +134,6 @@ public class EstimationService {
 
 	public BigDecimal getSewerageEstimationCharge(SewerageConnection sewerageConnection, CalculationCriteria criteria,
 			Map<String, JSONArray> billingSlabMaster, ArrayList<String> billingSlabIds, RequestInfo requestInfo) {
-		BigDecimal sewerageCharge = BigDecimal.ZERO;
 		if (billingSlabMaster.get(SWCalculationConstant.SW_BILLING_SLAB_MASTER) == null)
 			throw new CustomException("INVALID_BILLING_SLAB", "Billing Slab are Empty");
 		List<BillingSlab> mappingBillingSlab;
@@ -138,7 +151,29 @@ public class EstimationService {
 				sewerageConnection.getConnectionType());
 		List<BillingSlab> billingSlabs = getSlabsFiltered(sewerageConnection, mappingBillingSlab, calculationAttribute,
 				requestInfo);
+		return getSewerageCharge(sewerageConnection, criteria, billingSlabs, calculationAttribute, billingSlabIds);
+	}
+
+	/**
+	 * Same as the estimation on the raw masters with the slabs and the calculation attribute looked up on the
+	 * snapshot of the masters
+	 */
+	public BigDecimal getSewerageEstimationCharge(SewerageConnection sewerageConnection, CalculationCriteria criteria,
+			MasterDataSnapshot snapshot, ArrayList<String> billingSlabIds, RequestInfo requestInfo) {
+		if (!snapshot.hasBillingSlabs())
+			throw new CustomException("INVALID_BILLING_SLAB", "Billing Slab are Empty");
+		String calculationAttribute = snapshot.getCalculationAttribute(sewerageConnection.getConnectionType());
+		if (calculationAttribute == null)
+			throw new CustomException("CALCULATION_ATTRIBUTE_MASTER_NOT_FOUND",
+					"Calculation attribute master not found the connection type :" + sewerageConnection.getConnectionType());
+		List<BillingSlab> billingSlabs = snapshot.getBillingSlabs(getBuildingType(sewerageConnection, requestInfo),
+				sewerageConnection.getConnectionType(), calculationAttribute);
+		return getSewerageCharge(sewerageConnection, criteria, billingSlabs, calculationAttribute, billingSlabIds);
+	}
 
+	private BigDecimal getSewerageCharge(SewerageConnection sewerageConnection, CalculationCriteria criteria,
+			List<BillingSlab> billingSlabs, String calculationAttribute, ArrayList<String> billingSlabIds) {
+		BigDecimal sewerageCharge = BigDecimal.ZERO;
 		if (billingSlabs == null || billingSlabs.isEmpty())
 			throw new CustomException("INVALID_BILLING_SLAB", "Billing Slab are Empty");
 		if (billingSlabs.size() > 1)
@@ -225,13 +260,9 @@ public class EstimationService {
 	private List<BillingSlab> getSlabsFiltered(SewerageConnection sewerageConnection, List<BillingSlab> billingSlabs,
 			String calculationAttribute, RequestInfo requestInfo) {
 		
-		SewerageConnectionRequest sewerageConnectionRequest = SewerageConnectionRequest.builder()
-				.sewerageConnection(sewerageConnection).requestInfo(requestInfo).build();
-		Property property = sWCalculationUtil.getProperty(sewerageConnectionRequest);
-		
 		// get billing Slab
 		log.debug(" the slabs count : " + billingSlabs.size());
-		final String buildingType = (property.getUsageCategory() != null) ? property.getUsageCategory().split("\\.")[0] : "";
+		final String buildingType = getBuildingType(sewerageConnection, requestInfo);
 		final String connectionType = sewerageConnection.getConnectionType();
 
 		return billingSlabs.stream().filter(slab -> {
@@ -242,6 +273,13 @@ public class EstimationService {
 		}).collect(Collectors.toList());
 	}
 
+	private String getBuildingType(SewerageConnection sewerageConnection, RequestInfo requestInfo) {
+		SewerageConnectionRequest sewerageConnectionRequest = SewerageConnectionRequest.builder()
+				.sewerageConnection(sewerageConnection).requestInfo(requestInfo).build();
+		Property property = sWCalculationUtil.getProperty(sewerageConnectionRequest);
+		return (property.getUsageCategory() != null) ? property.getUsageCategory().split("\\.")[0] : "";
+	}
+
 	private Double getCalculationUnit(SewerageConnection sewerageConnection, String calculationAttribute,
 			CalculationCriteria criteria) {
 		Double totalUnite = 0.0;
@@ -0,0 +1,155 @@
+package org.egov.swcalculation.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.egov.common.contract.request.RequestInfo;
+import org.egov.swcalculation.config.SWCalculationConfiguration;
+import org.egov.swcalculation.util.MasterDataSnapshot;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In process snapshots of the masters per tenant. A snapshot is loaded on its first use and reloaded in the
+ * background every refresh interval, a failed reload keeps serving the previous snapshot. With the cache
+ * disabled the masters are loaded on every call as before.
+ */
+@Slf4j
+@Component
+public class MasterDataCache {
+
+	private static final String MASTER_LOAD_TIMER = "sw.calculation.master.load";
+
+	private final Map<String, Entry> snapshots = new ConcurrentHashMap<>();
+
+	private final Map<String, Object> locks = new ConcurrentHashMap<>();
+
+	@Autowired
+	private SWCalculationConfiguration config;
+
+	@Autowired
+	private ObjectMapper mapper;
+
+	@Autowired
+	private ObjectProvider<MeterRegistry> meterRegistry;
+
+	private MeterRegistry registry;
+
+	private ScheduledExecutorService refresher;
+
+	@PostConstruct
+	public void start() {
+		registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+		if (!Boolean.TRUE.equals(config.getMasterDataSnapshotEnabled()))
+			return;
+		refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "sw-master-data-refresh");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long interval = config.getMasterDataSnapshotRefreshInterval();
+		refresher.scheduleWithFixedDelay(this::refresh, interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	public void stop() {
+		if (refresher != null)
+			refresher.shutdownNow();
+	}
+
+	/**
+	 * Returns the snapshot of the masters of the tenant, loading it if not present
+	 *
+	 * @param requestInfo Request info the masters are loaded with
+	 * @param tenantId Tenant Id
+	 * @param kind Kind of the masters, snapshots of different kinds are kept apart
+	 * @param loader Loads the master map of the kind for the tenant
+	 * @return the snapshot
+	 */
+	public MasterDataSnapshot get(RequestInfo requestInfo, String tenantId, String kind,
+			BiFunction<RequestInfo, String, Map<String, Object>> loader) {
+		long start = System.nanoTime();
+		String source = "cache";
+		try {
+			if (!Boolean.TRUE.equals(config.getMasterDataSnapshotEnabled())) {
+				source = "mdms";
+				return MasterDataSnapshot.build(tenantId, loader.apply(requestInfo, tenantId), mapper);
+			}
+			String key = tenantId + "|" + kind;
+			Entry entry = snapshots.get(key);
+			if (entry == null) {
+				synchronized (locks.computeIfAbsent(key, k -> new Object())) {
+					entry = snapshots.get(key);
+					if (entry == null) {
+						source = "mdms";
+						entry = new Entry(tenantId, getRefreshRequestInfo(requestInfo), loader);
+						entry.snapshot = MasterDataSnapshot.build(tenantId, loader.apply(requestInfo, tenantId), mapper);
+						snapshots.put(key, entry);
+					}
+				}
+			}
+			return entry.snapshot;
+		} finally {
+			Timer.builder(MASTER_LOAD_TIMER).description("Time taken to get the masters of a calculation")
+					.tag("kind", kind).tag("source", source).register(registry)
+					.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	private void refresh() {
+		for (Map.Entry<String, Entry> cached : snapshots.entrySet()) {
+			Entry entry = cached.getValue();
+			try {
+				entry.snapshot = MasterDataSnapshot.build(entry.tenantId,
+						entry.loader.apply(entry.requestInfo, entry.tenantId), mapper);
+			} catch (Exception e) {
+				log.error("Failed to refresh the masters of " + cached.getKey() + ", snapshot loaded at "
+						+ entry.snapshot.getLoadedTime() + " is kept", e);
+			}
+		}
+	}
+
+	/**
+	 * The masters are refreshed long after the request which loaded them, the token of the caller is not kept
+	 */
+	private RequestInfo getRefreshRequestInfo(RequestInfo requestInfo) {
+		if (requestInfo == null)
+			return new RequestInfo();
+		return RequestInfo.builder().apiId(requestInfo.getApiId()).ver(requestInfo.getVer())
+				.action(requestInfo.getAction()).did(requestInfo.getDid()).key(requestInfo.getKey())
+				.userInfo(requestInfo.getUserInfo()).build();
+	}
+
+	private static class Entry {
+
+		private final String tenantId;
+
+		private final RequestInfo requestInfo;
+
+		private final BiFunction<RequestInfo, String, Map<String, Object>> loader;
+
+		private volatile MasterDataSnapshot snapshot;
+
+		private Entry(String tenantId, RequestInfo requestInfo, BiFunction<RequestInfo, String, Map<String, Object>> loader) {
+			this.tenantId = tenantId;
+			this.requestInfo = requestInfo;
+			this.loader = loader;
+		}
+	}
+
+}
@@ -3,17 +3,15 @@ package org.egov.swcalculation.service;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.sql.Timestamp;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.egov.common.contract.request.RequestInfo;
 import org.egov.mdms.model.*;
@@ -26,10 +24,11 @@ import org.egov.swcalculation.web.models.TaxPeriod;
 import org.egov.swcalculation.web.models.TaxPeriodResponse;
 import org.egov.swcalculation.repository.Repository;
 import org.egov.swcalculation.util.CalculatorUtils;
+import org.egov.swcalculation.util.MasterDataSnapshot;
+import org.egov.swcalculation.util.TimeBasedRules;
 import org.egov.swcalculation.util.SWCalculationUtil;
 import org.egov.tracer.model.CustomException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -56,6 +55,11 @@ public class MasterDataService {
 	
 	@Autowired
 	private EstimationService estimationService;
+
+	@Autowired
+	private MasterDataCache masterDataCache;
+
+	private final Map<String, CompiledMaster> timeBasedRules = new ConcurrentHashMap<>();
 	
 	/**
 	 * Fetches and creates map of all required masters
@@ -177,64 +181,55 @@ public class MasterDataService {
 	 * NOTE : applicable points to single object out of all the entries for a
 	 * given master which fits the period of the property being assessed
 	 *
+	 * @param tenantId - Tenant Id
+	 * @param masterName - Name of the master
 	 * @param assessmentYear - Assessment Year
 	 * @param masterList - List of MDMS Master data
 	 */
-	@SuppressWarnings("unchecked")
-	public Map<String, Object> getApplicableMaster(String assessmentYear, List<Object> masterList) {
-
-		Map<String, Object> objToBeReturned = null;
-		String maxYearFromTheList = "0";
-		long maxStartTime = 0L;
-
-		for (Object object : masterList) {
-
-			Map<String, Object> objMap = (Map<String, Object>) object;
-			String objFinYear = ((String) objMap.get(SWCalculationConstant.FROMFY_FIELD_NAME)).split("-")[0];
-			if (!objMap.containsKey(SWCalculationConstant.STARTING_DATE_APPLICABLES)) {
-				if (objFinYear.compareTo(assessmentYear.split("-")[0]) == 0)
-					return objMap;
-
-				else if (assessmentYear.split("-")[0].compareTo(objFinYear) > 0
-						&& maxYearFromTheList.compareTo(objFinYear) <= 0) {
-					maxYearFromTheList = objFinYear;
-					objToBeReturned = objMap;
-				}
-			} else {
-				String objStartDay = ((String) objMap.get(SWCalculationConstant.STARTING_DATE_APPLICABLES));
-				if (assessmentYear.split("-")[0].compareTo(objFinYear) >= 0
-						&& maxYearFromTheList.compareTo(objFinYear) <= 0) {
-					maxYearFromTheList = objFinYear;
-					long startTime = getStartDayInMillis(objStartDay);
-					long currentTime = System.currentTimeMillis();
-					if (startTime < currentTime && maxStartTime < startTime) {
-						objToBeReturned = objMap;
-						maxStartTime = startTime;
-					}
-				}
-			}
-		}
-		return objToBeReturned;
+	public Map<String, Object> getApplicableMaster(String tenantId, String masterName, String assessmentYear,
+			List<Object> masterList) {
+		TimeBasedRules.Rule rule = getApplicableRule(tenantId, masterName, assessmentYear, masterList);
+		return null == rule ? null : rule.getMaster();
 	}
-	
-	
+
 	/**
-	 * Converts startDay to epoch
-	 * 
-	 * @param startDay
-	 *            StartDay of applicable
-	 * @return Returns start day in milli seconds
+	 * Returns the compiled rule of the 'APPLICABLE' master object, see getApplicableMaster
+	 *
+	 * @param tenantId - Tenant Id
+	 * @param masterName - Name of the master
+	 * @param assessmentYear - Assessment Year
+	 * @param masterList - List of MDMS Master data
 	 */
-	private Long getStartDayInMillis(String startDay) {
-		try {
-			SimpleDateFormat df = new SimpleDateFormat("dd/MM/yyyy");
-			Date date = df.parse(startDay);
-			return date.getTime();
-		} catch (ParseException e) {
-			throw new CustomException("INVALID_START_DAY", "The startDate of the penalty cannot be parsed");
-		}
+	public TimeBasedRules.Rule getApplicableRule(String tenantId, String masterName, String assessmentYear,
+			List<Object> masterList) {
+		return getTimeBasedRules(tenantId, masterName, masterList).getApplicable(assessmentYear,
+				System.currentTimeMillis());
 	}
-	
+
+	/**
+	 * Returns the compiled rules of the master list
+	 *
+	 * The rules are kept per tenant and master. The masters may be loaded again on every request, so the hash of
+	 * the list is taken as its version and the rules are compiled again only when it changes. The list the
+	 * rules were last looked up with is kept, further lookups with the same list skip the hash.
+	 *
+	 * @param tenantId - Tenant Id
+	 * @param masterName - Name of the master
+	 * @param masterList - Entries of a time based master
+	 * @return the compiled rules
+	 */
+	public TimeBasedRules getTimeBasedRules(String tenantId, String masterName, List<Object> masterList) {
+		String key = tenantId + "|" + masterName;
+		CompiledMaster compiled = timeBasedRules.get(key);
+		if (null != compiled && compiled.masterList == masterList)
+			return compiled.rules;
+		int version = masterList.hashCode();
+		TimeBasedRules rules = null != compiled && compiled.version == version ? compiled.rules
+				: TimeBasedRules.compile(masterList);
+		timeBasedRules.put(key, new CompiledMaster(masterList, version, rules));
+		return rules;
+	}
+
 	/**
 	 * Method to calculate exemption based on the Amount and exemption map
 	 * 
@@ -375,8 +370,21 @@ public class MasterDataService {
 	 * @param tenantId - Tenant Id
 	 * @return all masters that is needed for calculation and demand generation.
 	 */
-	@Cacheable(value = SWCalculationConstant.MDMS_CACHE_KEY , sync = true)
 	public Map<String, Object> loadMasterData(RequestInfo requestInfo, String tenantId) {
+		return getMasterDataSnapshot(requestInfo, tenantId).getMasterMap();
+	}
+
+	/**
+	 * 
+	 * @param requestInfo - Request Info Object
+	 * @param tenantId - Tenant Id
+	 * @return snapshot of the masters needed for calculation and demand generation
+	 */
+	public MasterDataSnapshot getMasterDataSnapshot(RequestInfo requestInfo, String tenantId) {
+		return masterDataCache.get(requestInfo, tenantId, SWCalculationConstant.MDMS_CACHE_KEY, this::fetchMasterData);
+	}
+
+	private Map<String, Object> fetchMasterData(RequestInfo requestInfo, String tenantId) {
 		Map<String, Object> master = getMasterMap(requestInfo, tenantId,SWCalculationConstant.SERVICE_FIELD_VALUE_SW);
 		loadBillingSlabsAndTimeBasedExemptions(requestInfo, tenantId, master);
 		loadBillingFrequencyMasterData(requestInfo, tenantId, master);
@@ -408,6 +416,11 @@ public class MasterDataService {
 	 * @return Returns master data with exemption master data
 	 */
 	public Map<String, Object> loadExemptionMaster(RequestInfo requestInfo, String tenantId) {
+		return masterDataCache.get(requestInfo, tenantId, SWCalculationConstant.EXEMPTION_MASTER_CACHE_KEY,
+				this::fetchExemptionMaster).getMasterMap();
+	}
+
+	private Map<String, Object> fetchExemptionMaster(RequestInfo requestInfo, String tenantId) {
 		Map<String, Object> master = getMasterMap(requestInfo, tenantId, SWCalculationConstant.ONE_TIME_FEE_SERVICE_FIELD);
 		MdmsResponse response = mapper.convertValue(repository.fetchResult(calculatorUtils.getMdmsSearchUrl(),
 				calculatorUtils.getEstimationMasterCriteria(requestInfo, tenantId)), MdmsResponse.class);
@@ -458,5 +471,23 @@ public class MasterDataService {
 		MdmsCriteria mdmsCriteria = MdmsCriteria.builder().tenantId(tenantId).moduleDetails(moduleDetails).build();
 		return MdmsCriteriaReq.builder().requestInfo(requestInfo).mdmsCriteria(mdmsCriteria).build();
 	}
-}
 
+	/**
+	 * Rules compiled from a master list and the version of the list
+	 */
+	private static class CompiledMaster {
+
+		private final List<Object> masterList;
+
+		private final int version;
+
+		private final TimeBasedRules rules;
+
+		private CompiledMaster(List<Object> masterList, int version, TimeBasedRules rules) {
+			this.masterList = masterList;
+			this.version = version;
+			this.rules = rules;
+		}
+	}
+
+}
@@ -56,12 +56,13 @@ public class PayService {
 	 * 
 	 * @param sewerageCharge - Sewerage Charge
 	 * @param assessmentYear - Assessment Year
+	 * @param tenantId - Tenant Id
 	 * @param timeBasedExemptionMasterMap - List of time based exemption map
 	 * @param billingExpiryDate - Bill Expiry date
 	 * @return estimation of time based exemption
 	 */
 	public Map<String, BigDecimal> applyPenaltyRebateAndInterest(BigDecimal sewerageCharge,
-			String assessmentYear, Map<String, JSONArray> timeBasedExemptionMasterMap, Long billingExpiryDate) {
+			String assessmentYear, String tenantId, Map<String, JSONArray> timeBasedExemptionMasterMap, Long billingExpiryDate) {
 
 		if (BigDecimal.ZERO.compareTo(sewerageCharge) >= 0)
 			return Collections.emptyMap();
@@ -70,8 +71,8 @@ public class PayService {
 		long numberOfDaysInMillis = billingExpiryDate - currentUTC;
 		BigDecimal noOfDays = BigDecimal.valueOf((TimeUnit.MILLISECONDS.toDays(Math.abs(numberOfDaysInMillis))));
 		if(BigDecimal.ONE.compareTo(noOfDays) <= 0) noOfDays = noOfDays.add(BigDecimal.ONE);
-		BigDecimal penalty = getApplicablePenalty(sewerageCharge, noOfDays, timeBasedExemptionMasterMap.get(SWCalculationConstant.SW_PENANLTY_MASTER));
-		BigDecimal interest = getApplicableInterest(sewerageCharge, noOfDays, timeBasedExemptionMasterMap.get(SWCalculationConstant.SW_INTEREST_MASTER));
+		BigDecimal penalty = getApplicablePenalty(sewerageCharge, noOfDays, tenantId, timeBasedExemptionMasterMap.get(SWCalculationConstant.SW_PENANLTY_MASTER));
+		BigDecimal interest = getApplicableInterest(sewerageCharge, noOfDays, tenantId, timeBasedExemptionMasterMap.get(SWCalculationConstant.SW_INTEREST_MASTER));
 		estimates.put(SWCalculationConstant.SW_TIME_PENALTY, penalty.setScale(2, 2));
 		estimates.put(SWCalculationConstant.SW_TIME_INTEREST, interest.setScale(2, 2));
 		return estimates;
@@ -82,12 +83,15 @@ public class PayService {
 	 * 
 	 * @param sewerageCharge - Sewerage Charge
 	 * @param noOfDays - No of Days
+	 * @param tenantId - Tenant Id
 	 * @param config - Config object
 	 * @return - Returns Penalty details
 	 */
-	public BigDecimal getApplicablePenalty(BigDecimal sewerageCharge, BigDecimal noOfDays, JSONArray config) {
+	public BigDecimal getApplicablePenalty(BigDecimal sewerageCharge, BigDecimal noOfDays, String tenantId,
+			JSONArray config) {
 		BigDecimal applicablePenalty = BigDecimal.ZERO;
-		Map<String, Object> penaltyMaster = mDService.getApplicableMaster(estimationService.getAssessmentYear(), config);
+		Map<String, Object> penaltyMaster = mDService.getApplicableMaster(tenantId, SWCalculationConstant.SW_PENANLTY_MASTER,
+				estimationService.getAssessmentYear(), config);
 		if (null == penaltyMaster) return applicablePenalty;
 		BigDecimal daysApplicable = null != penaltyMaster.get(SWCalculationConstant.DAYA_APPLICABLE_NAME)
 				? BigDecimal.valueOf(((Number) penaltyMaster.get(SWCalculationConstant.DAYA_APPLICABLE_NAME)).intValue())
@@ -119,12 +123,15 @@ public class PayService {
 	 * 
 	 * @param sewerageCharge - Sewerage Charge
 	 * @param noOfDays - No of Days
+	 * @param tenantId - Tenant Id
 	 * @param config - Config object
 	 * @return - Returns applicable interest details
 	 */
-	public BigDecimal getApplicableInterest(BigDecimal sewerageCharge, BigDecimal noOfDays, JSONArray config) {
+	public BigDecimal getApplicableInterest(BigDecimal sewerageCharge, BigDecimal noOfDays, String tenantId,
+			JSONArray config) {
 		BigDecimal applicableInterest = BigDecimal.ZERO;
-		Map<String, Object> interestMaster = mDService.getApplicableMaster(estimationService.getAssessmentYear(), config);
+		Map<String, Object> interestMaster = mDService.getApplicableMaster(tenantId, SWCalculationConstant.SW_INTEREST_MASTER,
+				estimationService.getAssessmentYear(), config);
 		if (null == interestMaster) return applicableInterest;
 		BigDecimal daysApplicable = null != interestMaster.get(SWCalculationConstant.DAYA_APPLICABLE_NAME)
 				? BigDecimal.valueOf(((Number) interestMaster.get(SWCalculationConstant.DAYA_APPLICABLE_NAME)).intValue())
@@ -11,6 +11,7 @@ import net.minidev.json.JSONArray;
 import org.egov.common.contract.request.RequestInfo;
 import org.egov.swcalculation.constants.SWCalculationConstant;
 import org.egov.swcalculation.util.CalculatorUtils;
+import org.egov.swcalculation.util.MasterDataSnapshot;
 import org.egov.swcalculation.util.SewerageCessUtil;
 import org.egov.swcalculation.web.models.*;
 import org.egov.swcalculation.repository.SewerageCalculatorDao;
@@ -117,9 +118,10 @@ public class SWCalculationServiceImpl implements SWCalculationService {
 
 		String tenantId = null != property.getTenantId() ? property.getTenantId() : criteria.getTenantId();
 
+		MasterDataSnapshot snapshot = MasterDataSnapshot.from(masterMap);
 		@SuppressWarnings("unchecked")
-		Map<String, TaxHeadCategory> taxHeadCategoryMap = ((List<TaxHeadMaster>) masterMap
-				.get(SWCalculationConstant.TAXHEADMASTER_MASTER_KEY)).stream()
+		Map<String, TaxHeadCategory> taxHeadCategoryMap = snapshot != null ? snapshot.getTaxHeadCategories()
+				: ((List<TaxHeadMaster>) masterMap.get(SWCalculationConstant.TAXHEADMASTER_MASTER_KEY)).stream()
 						.collect(Collectors.toMap(TaxHeadMaster::getCode, TaxHeadMaster::getCategory, (OldValue, NewValue) -> NewValue));
 
 		BigDecimal taxAmt = BigDecimal.ZERO;
@@ -361,9 +363,11 @@ public class SWCalculationServiceImpl implements SWCalculationService {
 	 * Calculate SewerageCess during Disconnection Application final Sewerage charge calculation
 	 *
 	 * @param masterMap
+	 * @param tenantId
 	 * @return sewerageCess - SewerageCess amount
 	 */
-	private BigDecimal getSewerageCessForDisconnection(Map<String, Object> masterMap, BigDecimal finalSewerageCharge) {
+	private BigDecimal getSewerageCessForDisconnection(Map<String, Object> masterMap, String tenantId,
+			BigDecimal finalSewerageCharge) {
 		BigDecimal sewerageCess = BigDecimal.ZERO;
 		Map<String, JSONArray> timeBasedExemptionMasterMap = new HashMap<>();
 		timeBasedExemptionMasterMap.put(SW_SEWERAGE_CESS_MASTER,
@@ -373,7 +377,8 @@ public class SWCalculationServiceImpl implements SWCalculationService {
 			List<Object> sewerageCessMasterList = timeBasedExemptionMasterMap
 					.get(SWCalculationConstant.SW_SEWERAGE_CESS_MASTER);
 
-			Map<String, Object> CessMap = mDataService.getApplicableMaster(Assesment_Year, sewerageCessMasterList);
+			Map<String, Object> CessMap = mDataService.getApplicableMaster(tenantId, SW_SEWERAGE_CESS_MASTER, Assesment_Year,
+					sewerageCessMasterList);
 			sewerageCess = sewerageCessUtil.calculateSewerageCess(finalSewerageCharge, CessMap);
 
 		}
@@ -15,11 +15,13 @@ public class SewerageCessUtil {
 	@Autowired
 	MasterDataService mDataService;
 
-	public BigDecimal getSewerageCess(BigDecimal sewerageCharge, String assessmentYear, List<Object> masterList) {
+	public BigDecimal getSewerageCess(BigDecimal sewerageCharge, String assessmentYear, String tenantId,
+			List<Object> masterList) {
 		BigDecimal waterCess = BigDecimal.ZERO;
 		if (sewerageCharge.doubleValue() == 0.0)
 			return waterCess;
-		Map<String, Object> CessMap = mDataService.getApplicableMaster(assessmentYear, masterList);
+		Map<String, Object> CessMap = mDataService.getApplicableMaster(tenantId,
+				SWCalculationConstant.SW_SEWERAGE_CESS_MASTER, assessmentYear, masterList);
 		return calculateSewerageCess(sewerageCharge, CessMap);
 	}
 
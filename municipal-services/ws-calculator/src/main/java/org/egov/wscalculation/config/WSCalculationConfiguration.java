@@ -204,6 +204,27 @@ public class WSCalculationConfiguration {
 	@Value("${bulk.demand.offset.value}")
 	private Integer batchOffset;
 
+	@Value("${bulk.demand.range.enabled}")
+	private Boolean bulkRangeEnabled;
+
+	@Value("${bulk.demand.range.worker.count}")
+	private Integer bulkRangeWorkerCount;
+
+	@Value("${bulk.demand.range.poll.interval.ms}")
+	private Long bulkRangePollInterval;
+
+	@Value("${bulk.demand.range.lease.ms}")
+	private Long bulkRangeLeaseTime;
+
+	@Value("${bulk.demand.range.max.attempts}")
+	private Integer bulkRangeMaxAttempts;
+
+	@Value("${ws.master.data.snapshot.enabled}")
+	private Boolean masterDataSnapshotEnabled;
+
+	@Value("${ws.master.data.snapshot.refresh.interval.ms}")
+	private Long masterDataSnapshotRefreshInterval;
+
 	@Value("${egov.internal.microservice.user.uuid}")
 	private String egovInternalMicroserviceUserUuid;
 
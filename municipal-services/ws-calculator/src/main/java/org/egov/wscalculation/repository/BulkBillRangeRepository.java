@@ -0,0 +1,161 @@
+package org.egov.wscalculation.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.egov.common.contract.request.RequestInfo;
+import org.egov.tracer.model.CustomException;
+import org.egov.wscalculation.repository.builder.BulkBillRangeQueryBuilder;
+import org.egov.wscalculation.repository.rowmapper.BulkBillProgressRowMapper;
+import org.egov.wscalculation.repository.rowmapper.BulkBillRangeRowMapper;
+import org.egov.wscalculation.web.models.BulkBillProgress;
+import org.egov.wscalculation.web.models.BulkBillRange;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Jobs of the bulk bill generation split into ranges of connection numbers. The ranges are leased to the
+ * workers of all the pods through the table, a range whose worker died is leased again once its lease
+ * expires. The tables are keyed by business service so that any calculator can share them.
+ */
+@Slf4j
+@Repository
+public class BulkBillRangeRepository {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private BulkBillRangeQueryBuilder queryBuilder;
+
+	@Autowired
+	private BulkBillRangeRowMapper rangeRowMapper;
+
+	@Autowired
+	private BulkBillProgressRowMapper progressRowMapper;
+
+	@Autowired
+	private ObjectMapper mapper;
+
+	/**
+	 * Creates a run of the billing period with its ranges, the job and its ranges are created together. A new run
+	 * is created only when the latest run of the period has no range left to process, so that a period can be
+	 * billed again for the connections created since or the ranges that failed.
+	 * 
+	 * @param requestInfo Request info the ranges are processed with
+	 * @param rangeStarts First connection number of every range, in order
+	 * @return Number of the run created, null if a run of the billing period is in progress
+	 */
+	public Integer createJob(String tenantId, String businessService, Long billingPeriodFrom, Long billingPeriodTo,
+			RequestInfo requestInfo, List<String> rangeStarts) {
+		String jobId = UUID.randomUUID().toString();
+		long now = System.currentTimeMillis();
+		String requestInfoJson;
+		try {
+			requestInfoJson = mapper.writeValueAsString(requestInfo);
+		} catch (JsonProcessingException e) {
+			throw new CustomException("EG_WS_BULKBILL_PARSING_ERROR", "Failed to serialize the request info of the bulk bill job");
+		}
+
+		return transactionTemplate.execute(status -> {
+			int runNumber = 1;
+			List<Map<String, Object>> latestJobs = jdbcTemplate.queryForList(queryBuilder.getLatestJobQuery(), tenantId,
+					businessService, billingPeriodFrom, billingPeriodTo);
+			if (!latestJobs.isEmpty()) {
+				Map<String, Object> latestJob = latestJobs.get(0);
+				Integer activeRanges = jdbcTemplate.queryForObject(queryBuilder.getActiveRangeCountQuery(),
+						new Object[] { latestJob.get("id") }, Integer.class);
+				if (activeRanges != null && activeRanges > 0)
+					return null;
+				runNumber = ((Number) latestJob.get("runnumber")).intValue() + 1;
+			}
+
+			int inserted = jdbcTemplate.update(queryBuilder.getInsertJobQuery(), jobId, tenantId, businessService,
+					billingPeriodFrom, billingPeriodTo, runNumber, requestInfoJson, now);
+			if (inserted == 0)
+				return null;
+
+			List<Object[]> ranges = new ArrayList<>(rangeStarts.size());
+			for (int i = 0; i < rangeStarts.size(); i++) {
+				String end = i + 1 < rangeStarts.size() ? rangeStarts.get(i + 1) : null;
+				ranges.add(new Object[] { UUID.randomUUID().toString(), jobId, i, rangeStarts.get(i), end, now });
+			}
+			jdbcTemplate.batchUpdate(queryBuilder.getInsertRangeQuery(), ranges);
+			log.info("Bulk bill job " + jobId + " of " + tenantId + ", run " + runNumber + ", split into "
+					+ ranges.size() + " ranges");
+			return runNumber;
+		});
+	}
+
+	/**
+	 * Leases the next range to be processed
+	 * 
+	 * @param owner Id of the worker
+	 * @param leaseTime Time in ms the range is leased for
+	 * @param maxAttempts Attempts after which a range is not leased again
+	 * @return The leased range, null if no range is left
+	 */
+	public BulkBillRange leaseRange(String businessService, String owner, long leaseTime, int maxAttempts) {
+		long now = System.currentTimeMillis();
+		List<BulkBillRange> ranges = jdbcTemplate.query(queryBuilder.getLeaseRangeQuery(),
+				new Object[] { owner, now + leaseTime, now, now, businessService, maxAttempts, now }, rangeRowMapper);
+		return ranges.isEmpty() ? null : ranges.get(0);
+	}
+
+	/**
+	 * Extends the lease of the range held by the worker
+	 * 
+	 * @param leaseTime Time in ms from now the range is leased for
+	 * @return false if the worker no longer holds the lease
+	 */
+	public boolean renewLease(BulkBillRange range, long leaseTime) {
+		long now = System.currentTimeMillis();
+		return jdbcTemplate.update(queryBuilder.getRenewLeaseQuery(), now + leaseTime, now, range.getId(),
+				range.getLeaseOwner()) == 1;
+	}
+
+	/**
+	 * Fails the ranges whose lease has expired on their last attempt
+	 * 
+	 * @param maxAttempts Attempts after which a range is not leased again
+	 * @return Number of ranges failed
+	 */
+	public int expireLeases(String businessService, int maxAttempts) {
+		long now = System.currentTimeMillis();
+		return jdbcTemplate.update(queryBuilder.getExpireLeasesQuery(), "Lease expired on the last attempt", now, now,
+				businessService, now, maxAttempts);
+	}
+
+	/**
+	 * Records the outcome of the range, ignored if the lease of the worker has expired and the range has been
+	 * leased again
+	 * 
+	 * @param status COMPLETED, FAILED or PENDING to be retried
+	 * @return false if the worker no longer holds the lease
+	 */
+	public boolean completeRange(BulkBillRange range, BulkBillRange.StatusEnum status, Long recordCount, String message) {
+		long now = System.currentTimeMillis();
+		if (message != null && message.length() > 2048)
+			message = message.substring(0, 2048);
+		return jdbcTemplate.update(queryBuilder.getCompleteRangeQuery(), status.name(), recordCount, message, now, now,
+				range.getId(), range.getLeaseOwner()) == 1;
+	}
+
+	public List<BulkBillProgress> getProgress(String businessService, List<String> tenantIds, Integer limit) {
+		List<Object> preparedStatement = new ArrayList<>();
+		String query = queryBuilder.getProgressQuery(businessService, tenantIds, limit, preparedStatement);
+		return jdbcTemplate.query(query, preparedStatement.toArray(), progressRowMapper);
+	}
+}
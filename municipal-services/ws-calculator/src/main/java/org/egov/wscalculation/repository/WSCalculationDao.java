@@ -30,4 +30,9 @@ public interface WSCalculationDao {
 
 	long getConnectionCount(String tenantid, Long fromDate, Long toDate);
 
+	List<String> getConnectionRangeStarts(String tenantId, Integer rangeSize);
+
+	List<WaterConnection> getConnectionsInRange(String tenantId, String connectionType, String startConnectionNo,
+			String endConnectionNo, Long fromDate, Long toDate);
+
 }
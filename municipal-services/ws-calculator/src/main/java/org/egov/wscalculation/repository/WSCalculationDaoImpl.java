@@ -163,4 +163,27 @@ public class WSCalculationDaoImpl implements WSCalculationDao {
 		long count = jdbcTemplate.queryForObject(query, Integer.class);
 		return count;
 	}
+
+	/**
+	 * Splits the connection numbers of the tenant into ranges of rangeSize connection numbers
+	 * 
+	 * @return First connection number of every range in the order of connection number
+	 */
+	@Override
+	public List<String> getConnectionRangeStarts(String tenantId, Integer rangeSize) {
+		List<Object> preparedStatement = new ArrayList<>();
+		String query = queryBuilder.getConnectionRangeStartQuery(tenantId, rangeSize, preparedStatement);
+		log.info("Connection range query : " + query);
+		return jdbcTemplate.queryForList(query, preparedStatement.toArray(), String.class);
+	}
+
+	@Override
+	public List<WaterConnection> getConnectionsInRange(String tenantId, String connectionType, String startConnectionNo,
+			String endConnectionNo, Long fromDate, Long toDate) {
+		List<Object> preparedStatement = new ArrayList<>();
+		String query = queryBuilder.getConnectionsInRange(tenantId, connectionType, preparedStatement, startConnectionNo,
+				endConnectionNo, fromDate, toDate);
+		log.debug("water " + connectionType + " connections in range : " + query);
+		return jdbcTemplate.query(query, preparedStatement.toArray(), waterRowMapper);
+	}
 }
@@ -0,0 +1,114 @@
+package org.egov.wscalculation.repository.builder;
+
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+@Component
+public class BulkBillRangeQueryBuilder {
+
+	private static final String INSERT_JOB_QUERY = "INSERT INTO eg_ws_bulkbill_job (id, tenantid, businessservice, billingperiodfrom, billingperiodto, runnumber, requestinfo, createdtime)"
+			+ " VALUES (?, ?, ?, ?, ?, ?, CAST(? AS JSONB), ?) ON CONFLICT (tenantid, businessservice, billingperiodfrom, billingperiodto, runnumber) DO NOTHING";
+
+	// latest run of the billing period, locked so that concurrent requests for the period start one run only
+	private static final String LATEST_JOB_QUERY = "SELECT id, runnumber FROM eg_ws_bulkbill_job WHERE tenantid = ? AND businessservice = ?"
+			+ " AND billingperiodfrom = ? AND billingperiodto = ? ORDER BY runnumber DESC LIMIT 1 FOR UPDATE";
+
+	private static final String ACTIVE_RANGE_COUNT_QUERY = "SELECT count(*) FROM eg_ws_bulkbill_range WHERE jobid = ? AND status IN ('PENDING', 'LEASED')";
+
+	private static final String INSERT_RANGE_QUERY = "INSERT INTO eg_ws_bulkbill_range (id, jobid, rangeindex, startconnectionno, endconnectionno, status, attempts, lastmodifiedtime)"
+			+ " VALUES (?, ?, ?, ?, ?, 'PENDING', 0, ?)";
+
+	/*
+	 * leases the first range of the oldest job which is pending or whose lease has expired, the ranges locked by
+	 * the other workers are skipped so that concurrent workers never wait on each other
+	 */
+	private static final String LEASE_RANGE_QUERY = "UPDATE eg_ws_bulkbill_range rng SET status = 'LEASED', leaseowner = ?, leaseexpiry = ?,"
+			+ " attempts = rng.attempts + 1, starttime = COALESCE(rng.starttime, ?), lastmodifiedtime = ?"
+			+ " FROM eg_ws_bulkbill_job job WHERE job.id = rng.jobid AND rng.id = ("
+			+ " SELECT leasable.id FROM eg_ws_bulkbill_range leasable INNER JOIN eg_ws_bulkbill_job leasablejob ON leasablejob.id = leasable.jobid"
+			+ " WHERE leasablejob.businessservice = ? AND leasable.attempts < ?"
+			+ " AND (leasable.status = 'PENDING' OR (leasable.status = 'LEASED' AND leasable.leaseexpiry < ?))"
+			+ " ORDER BY leasablejob.createdtime, leasable.rangeindex LIMIT 1 FOR UPDATE OF leasable SKIP LOCKED)"
+			+ " RETURNING rng.id, rng.jobid, rng.rangeindex, rng.startconnectionno, rng.endconnectionno, rng.status, rng.leaseowner,"
+			+ " rng.attempts, rng.recordcount, job.tenantid, job.businessservice, job.billingperiodfrom, job.billingperiodto, job.requestinfo";
+
+	private static final String RENEW_LEASE_QUERY = "UPDATE eg_ws_bulkbill_range SET leaseexpiry = ?, lastmodifiedtime = ? WHERE id = ? AND leaseowner = ? AND status = 'LEASED'";
+
+	// ranges whose lease expired on their last attempt are not leased again
+	private static final String EXPIRE_LEASES_QUERY = "UPDATE eg_ws_bulkbill_range rng SET status = 'FAILED', message = ?, leaseowner = NULL, leaseexpiry = NULL,"
+			+ " endtime = ?, lastmodifiedtime = ? FROM eg_ws_bulkbill_job job WHERE job.id = rng.jobid AND job.businessservice = ?"
+			+ " AND rng.status = 'LEASED' AND rng.leaseexpiry < ? AND rng.attempts >= ?";
+
+	private static final String COMPLETE_RANGE_QUERY = "UPDATE eg_ws_bulkbill_range SET status = ?, recordcount = ?, message = ?, endtime = ?,"
+			+ " leaseowner = NULL, leaseexpiry = NULL, lastmodifiedtime = ? WHERE id = ? AND leaseowner = ?";
+
+	private static final String PROGRESS_QUERY = "SELECT job.id, job.tenantid, job.businessservice, job.billingperiodfrom, job.billingperiodto, job.runnumber, job.createdtime,"
+			+ " count(*) AS totalranges,"
+			+ " count(*) FILTER (WHERE rng.status = 'PENDING') AS pendingranges,"
+			+ " count(*) FILTER (WHERE rng.status = 'LEASED') AS leasedranges,"
+			+ " count(*) FILTER (WHERE rng.status = 'COMPLETED') AS completedranges,"
+			+ " count(*) FILTER (WHERE rng.status = 'FAILED') AS failedranges,"
+			+ " COALESCE(sum(rng.recordcount), 0) AS recordcount, min(rng.starttime) AS starttime, max(rng.endtime) AS endtime"
+			+ " FROM eg_ws_bulkbill_job job INNER JOIN eg_ws_bulkbill_range rng ON rng.jobid = job.id"
+			+ " WHERE job.businessservice = ?";
+
+	private static final String PROGRESS_GROUP_BY = " GROUP BY job.id ORDER BY job.createdtime DESC LIMIT ?";
+
+	public String getInsertJobQuery() {
+		return INSERT_JOB_QUERY;
+	}
+
+	public String getLatestJobQuery() {
+		return LATEST_JOB_QUERY;
+	}
+
+	public String getActiveRangeCountQuery() {
+		return ACTIVE_RANGE_COUNT_QUERY;
+	}
+
+	public String getInsertRangeQuery() {
+		return INSERT_RANGE_QUERY;
+	}
+
+	public String getLeaseRangeQuery() {
+		return LEASE_RANGE_QUERY;
+	}
+
+	public String getRenewLeaseQuery() {
+		return RENEW_LEASE_QUERY;
+	}
+
+	public String getExpireLeasesQuery() {
+		return EXPIRE_LEASES_QUERY;
+	}
+
+	public String getCompleteRangeQuery() {
+		return COMPLETE_RANGE_QUERY;
+	}
+
+	/**
+	 * 
+	 * @param businessService Business service of the jobs
+	 * @param tenantIds Tenants of the jobs, all tenants if empty
+	 * @param limit Maximum number of jobs, latest first
+	 * @param preparedStatement Prepared SQL Statement
+	 * @return Query for the progress of the jobs
+	 */
+	public String getProgressQuery(String businessService, List<String> tenantIds, Integer limit,
+			List<Object> preparedStatement) {
+		StringBuilder query = new StringBuilder(PROGRESS_QUERY);
+		preparedStatement.add(businessService);
+		if (tenantIds != null && !tenantIds.isEmpty()) {
+			query.append(" AND job.tenantid IN (");
+			for (int i = 0; i < tenantIds.size(); i++) {
+				query.append(i == 0 ? "?" : ", ?");
+				preparedStatement.add(tenantIds.get(i));
+			}
+			query.append(")");
+		}
+		query.append(PROGRESS_GROUP_BY);
+		preparedStatement.add(limit);
+		return query.toString();
+	}
+}
@@ -35,6 +35,11 @@ public class WSCalculatorQueryBuilder {
 
 	private  static final String countQuery = "select count(*) from eg_ws_connection";
 
+	// first connection number of every range of rangeSize connection numbers in the order of connection number
+	private static final String connectionRangeStartQuery = "SELECT connectionno FROM (SELECT connectionno, row_number() OVER (ORDER BY connectionno) AS rn"
+			+ " FROM (SELECT DISTINCT connectionno FROM eg_ws_connection WHERE tenantid = ? AND connectionno IS NOT NULL) conn) numbered"
+			+ " WHERE (rn - 1) % ? = 0 ORDER BY connectionno";
+
 	private static String holderSelectValues = "connectionholder.tenantid as holdertenantid, connectionholder.connectionid as holderapplicationId, userid, connectionholder.status as holderstatus, isprimaryholder, connectionholdertype, holdershippercentage, connectionholder.relationship as holderrelationship, connectionholder.createdby as holdercreatedby, connectionholder.createdtime as holdercreatedtime, connectionholder.lastmodifiedby as holderlastmodifiedby, connectionholder.lastmodifiedtime as holderlastmodifiedtime";
 
 	private static final String INNER_JOIN_STRING = "INNER JOIN";
@@ -198,6 +203,48 @@ public class WSCalculatorQueryBuilder {
 	public String getConnectionNumberList(String tenantId, String connectionType, List<Object> preparedStatement, Integer batchOffset, Integer batchsize, Long fromDate, Long toDate) {
 		//StringBuilder query = new StringBuilder(connectionNoListQuery);
 		//StringBuilder query = new StringBuilder(connectionNoListQuery);
+		StringBuilder query = getUnbilledConnectionQuery(tenantId, connectionType, preparedStatement, fromDate, toDate);
+		
+		addClauseIfRequired(preparedStatement, query);
+		String orderbyClause = " conn.connectionno IN (select connectionno FROM eg_ws_connection where tenantid=? and connectionno is not null ORDER BY connectionno OFFSET ? LIMIT ?)";
+		preparedStatement.add(tenantId);
+		preparedStatement.add(batchOffset);
+		preparedStatement.add(batchsize);
+		query.append(orderbyClause);
+
+		return query.toString();
+		
+	}
+	
+	/**
+	 * Query for the connections with connection number in the range which have no demand for the billing period
+	 * 
+	 * @param startConnectionNo First connection number of the range
+	 * @param endConnectionNo Connection number after the range, null for the last range
+	 */
+	public String getConnectionsInRange(String tenantId, String connectionType, List<Object> preparedStatement,
+			String startConnectionNo, String endConnectionNo, Long fromDate, Long toDate) {
+		StringBuilder query = getUnbilledConnectionQuery(tenantId, connectionType, preparedStatement, fromDate, toDate);
+
+		addClauseIfRequired(preparedStatement, query);
+		query.append(" conn.connectionno >= ?");
+		preparedStatement.add(startConnectionNo);
+		if (endConnectionNo != null) {
+			addClauseIfRequired(preparedStatement, query);
+			query.append(" conn.connectionno < ?");
+			preparedStatement.add(endConnectionNo);
+		}
+		return query.toString();
+	}
+
+	public String getConnectionRangeStartQuery(String tenantId, Integer rangeSize, List<Object> preparedStatement) {
+		preparedStatement.add(tenantId);
+		preparedStatement.add(rangeSize);
+		return connectionRangeStartQuery;
+	}
+
+	private StringBuilder getUnbilledConnectionQuery(String tenantId, String connectionType, List<Object> preparedStatement,
+			Long fromDate, Long toDate) {
 		StringBuilder query = new StringBuilder(WATER_SEARCH_QUERY);
 		// Add connection type
 		addClauseIfRequired(preparedStatement, query);
@@ -215,16 +262,7 @@ public class WSCalculatorQueryBuilder {
 		preparedStatement.add(fromDate);
 		preparedStatement.add(toDate);
 		preparedStatement.add(tenantId);
-		
-		addClauseIfRequired(preparedStatement, query);
-		String orderbyClause = " conn.connectionno IN (select connectionno FROM eg_ws_connection where tenantid=? and connectionno is not null ORDER BY connectionno OFFSET ? LIMIT ?)";
-		preparedStatement.add(tenantId);
-		preparedStatement.add(batchOffset);
-		preparedStatement.add(batchsize);
-		query.append(orderbyClause);
-
-		return query.toString();
-		
+		return query;
 	}
 	
 	public String isBillingPeriodExists(String connectionNo, String billingPeriod, List<Object> preparedStatement) {
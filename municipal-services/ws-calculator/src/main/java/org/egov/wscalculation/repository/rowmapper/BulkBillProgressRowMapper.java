@@ -0,0 +1,38 @@
+package org.egov.wscalculation.repository.rowmapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.egov.wscalculation.web.models.BulkBillProgress;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+@Component
+public class BulkBillProgressRowMapper implements RowMapper<BulkBillProgress> {
+
+	@Override
+	public BulkBillProgress mapRow(ResultSet rs, int rowNum) throws SQLException {
+		BulkBillProgress progress = BulkBillProgress.builder()
+				.jobId(rs.getString("id"))
+				.tenantId(rs.getString("tenantid"))
+				.businessService(rs.getString("businessservice"))
+				.billingPeriodFrom(rs.getLong("billingperiodfrom"))
+				.billingPeriodTo(rs.getLong("billingperiodto"))
+				.runNumber(rs.getInt("runnumber"))
+				.createdTime(rs.getLong("createdtime"))
+				.totalRanges(rs.getInt("totalranges"))
+				.pendingRanges(rs.getInt("pendingranges"))
+				.leasedRanges(rs.getInt("leasedranges"))
+				.completedRanges(rs.getInt("completedranges"))
+				.failedRanges(rs.getInt("failedranges"))
+				.recordCount(rs.getLong("recordcount"))
+				.build();
+		long startTime = rs.getLong("starttime");
+		if (!rs.wasNull())
+			progress.setStartTime(startTime);
+		long endTime = rs.getLong("endtime");
+		if (!rs.wasNull())
+			progress.setEndTime(endTime);
+		return progress;
+	}
+}
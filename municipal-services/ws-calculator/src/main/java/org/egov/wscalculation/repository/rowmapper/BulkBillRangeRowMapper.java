@@ -0,0 +1,52 @@
+package org.egov.wscalculation.repository.rowmapper;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.egov.common.contract.request.RequestInfo;
+import org.egov.tracer.model.CustomException;
+import org.egov.wscalculation.web.models.BulkBillRange;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@Component
+public class BulkBillRangeRowMapper implements RowMapper<BulkBillRange> {
+
+	@Autowired
+	private ObjectMapper mapper;
+
+	@Override
+	public BulkBillRange mapRow(ResultSet rs, int rowNum) throws SQLException {
+		BulkBillRange range = BulkBillRange.builder()
+				.id(rs.getString("id"))
+				.jobId(rs.getString("jobid"))
+				.rangeIndex(rs.getInt("rangeindex"))
+				.tenantId(rs.getString("tenantid"))
+				.businessService(rs.getString("businessservice"))
+				.billingPeriodFrom(rs.getLong("billingperiodfrom"))
+				.billingPeriodTo(rs.getLong("billingperiodto"))
+				.startConnectionNo(rs.getString("startconnectionno"))
+				.endConnectionNo(rs.getString("endconnectionno"))
+				.status(BulkBillRange.StatusEnum.valueOf(rs.getString("status")))
+				.leaseOwner(rs.getString("leaseowner"))
+				.attempts(rs.getInt("attempts"))
+				.build();
+		long recordCount = rs.getLong("recordcount");
+		if (!rs.wasNull())
+			range.setRecordCount(recordCount);
+
+		String requestInfo = rs.getString("requestinfo");
+		if (requestInfo != null) {
+			try {
+				range.setRequestInfo(mapper.readValue(requestInfo, RequestInfo.class));
+			} catch (IOException e) {
+				throw new CustomException("EG_WS_BULKBILL_PARSING_ERROR", "Failed to parse the request info of the bulk bill job " + range.getJobId());
+			}
+		}
+		return range;
+	}
+}
@@ -0,0 +1,60 @@
+package org.egov.wscalculation.service;
+
+import java.util.List;
+
+import org.egov.common.contract.request.RequestInfo;
+import org.egov.wscalculation.config.WSCalculationConfiguration;
+import org.egov.wscalculation.constants.WSCalculationConstant;
+import org.egov.wscalculation.repository.BulkBillRangeRepository;
+import org.egov.wscalculation.repository.WSCalculationDao;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Plans the bulk bill generation of a tenant as ranges of connection numbers, the ranges are picked up by the
+ * workers of BulkBillRangeService on every pod
+ */
+@Slf4j
+@Service
+public class BulkBillRangePlanner {
+
+	@Autowired
+	private BulkBillRangeRepository bulkBillRangeRepository;
+
+	@Autowired
+	private WSCalculationDao waterCalculatorDao;
+
+	@Autowired
+	private WSCalculationConfiguration configs;
+
+	/**
+	 * Plans a run of the tenant for the billing period over the connections existing now. Nothing is planned while
+	 * the previous run of the period has ranges left to process, a later run bills the connections created since
+	 * and the connections of the failed ranges, the connections already billed are skipped.
+	 * 
+	 * @param requestInfo Request info the demands are generated with
+	 * @param tenantId Tenant Id
+	 * @param fromDate Start of the billing period
+	 * @param toDate End of the billing period
+	 */
+	public void schedule(RequestInfo requestInfo, String tenantId, Long fromDate, Long toDate) {
+		bulkBillRangeRepository.expireLeases(WSCalculationConstant.WATER_TAX_SERVICE_CODE,
+				configs.getBulkRangeMaxAttempts());
+		List<String> rangeStarts = waterCalculatorDao.getConnectionRangeStarts(tenantId, configs.getBulkbatchSize());
+
+		// the ranges may be processed by any pod long after the request, the token of the caller is not kept
+		RequestInfo jobRequestInfo = RequestInfo.builder().apiId(requestInfo.getApiId()).ver(requestInfo.getVer())
+				.ts(requestInfo.getTs()).action(requestInfo.getAction()).did(requestInfo.getDid())
+				.key(requestInfo.getKey()).msgId(requestInfo.getMsgId()).userInfo(requestInfo.getUserInfo()).build();
+
+		Integer runNumber = bulkBillRangeRepository.createJob(tenantId, WSCalculationConstant.WATER_TAX_SERVICE_CODE,
+				fromDate, toDate, jobRequestInfo, rangeStarts);
+		if (runNumber == null)
+			log.info("Bulk bill job of " + tenantId + " for " + fromDate + " - " + toDate + " is in progress already");
+		else
+			log.info("Bulk bill job of " + tenantId + " for " + fromDate + " - " + toDate + " planned, run " + runNumber);
+	}
+
+}
@@ -0,0 +1,224 @@
+package org.egov.wscalculation.service;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.egov.wscalculation.config.WSCalculationConfiguration;
+import org.egov.wscalculation.constants.WSCalculationConstant;
+import org.egov.wscalculation.producer.WSCalculationProducer;
+import org.egov.wscalculation.repository.BulkBillRangeRepository;
+import org.egov.wscalculation.repository.WSCalculationDao;
+import org.egov.wscalculation.web.models.BulkBillProgress;
+import org.egov.wscalculation.web.models.BulkBillRange;
+import org.egov.wscalculation.web.models.CalculationReq;
+import org.egov.wscalculation.web.models.MigrationCount;
+import org.egov.wscalculation.web.models.WaterConnection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bulk bill generation of a tenant split into ranges of connection numbers. The ranges planned by
+ * BulkBillRangePlanner are leased to the workers of every pod through the database, the workers poll for the
+ * ranges every poll interval. A worker renews the lease of its range while processing it and checkpoints the
+ * range once its demands are generated and handed over for the bill generation. A range whose worker died is
+ * leased again after its lease expires, and is failed once its lease expires on the last attempt. The
+ * connections already having a demand for the period are not picked again.
+ */
+@Slf4j
+@Service
+public class BulkBillRangeService {
+
+	@Autowired
+	private BulkBillRangeRepository bulkBillRangeRepository;
+
+	@Autowired
+	private WSCalculationDao waterCalculatorDao;
+
+	@Autowired
+	private EnrichmentService enrichmentService;
+
+	@Autowired
+	private DemandService demandService;
+
+	@Autowired
+	private BulkDemandAndBillGenService bulkDemandAndBillGenService;
+
+	@Autowired
+	private WSCalculationProducer producer;
+
+	@Autowired
+	private WSCalculationConfiguration configs;
+
+	@Value("${kafka.topics.bulk.bill.generation.audit}")
+	private String bulkBillGenAuditTopic;
+
+	private final String instanceId = UUID.randomUUID().toString();
+
+	private ScheduledExecutorService workers;
+
+	private ScheduledExecutorService leaseRenewer;
+
+	@PostConstruct
+	public void start() {
+		if (!Boolean.TRUE.equals(configs.getBulkRangeEnabled()))
+			return;
+		AtomicInteger threadCount = new AtomicInteger();
+		workers = Executors.newScheduledThreadPool(configs.getBulkRangeWorkerCount(), runnable -> {
+			Thread thread = new Thread(runnable, "bulk-bill-range-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		for (int i = 0; i < configs.getBulkRangeWorkerCount(); i++)
+			workers.scheduleWithFixedDelay(this::processRanges, configs.getBulkRangePollInterval(),
+					configs.getBulkRangePollInterval(), TimeUnit.MILLISECONDS);
+		leaseRenewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "bulk-bill-range-lease");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	@PreDestroy
+	public void stop() {
+		if (workers != null)
+			workers.shutdownNow();
+		if (leaseRenewer != null)
+			leaseRenewer.shutdownNow();
+	}
+
+	/**
+	 * Progress of the latest jobs
+	 * 
+	 * @param tenantIds Tenants of the jobs, all tenants if empty
+	 * @param limit Maximum number of jobs
+	 */
+	public List<BulkBillProgress> getProgress(List<String> tenantIds, Integer limit) {
+		List<BulkBillProgress> progress = bulkBillRangeRepository.getProgress(WSCalculationConstant.WATER_TAX_SERVICE_CODE,
+				tenantIds, limit);
+		long now = System.currentTimeMillis();
+		for (BulkBillProgress job : progress) {
+			if (job.getStartTime() == null)
+				continue;
+			boolean finished = job.getPendingRanges() == 0 && job.getLeasedRanges() == 0;
+			long elapsed = (finished && job.getEndTime() != null ? job.getEndTime() : now) - job.getStartTime();
+			if (elapsed > 0)
+				job.setRecordsPerSecond(job.getRecordCount() * 1000.0 / elapsed);
+		}
+		return progress;
+	}
+
+	/**
+	 * Leases and processes ranges till no range is left
+	 */
+	private void processRanges() {
+		String owner = instanceId + ":" + Thread.currentThread().getName();
+		try {
+			int expired = bulkBillRangeRepository.expireLeases(WSCalculationConstant.WATER_TAX_SERVICE_CODE,
+					configs.getBulkRangeMaxAttempts());
+			if (expired > 0)
+				log.info(expired + " bulk bill ranges failed as their lease expired on the last attempt");
+
+			BulkBillRange range;
+			while (!Thread.currentThread().isInterrupted()
+					&& (range = bulkBillRangeRepository.leaseRange(WSCalculationConstant.WATER_TAX_SERVICE_CODE, owner,
+							configs.getBulkRangeLeaseTime(), configs.getBulkRangeMaxAttempts())) != null) {
+				processRangeWithLease(range);
+			}
+		} catch (Exception e) {
+			log.error("Failed to lease the bulk bill ranges", e);
+		}
+	}
+
+	/**
+	 * Processes the range, renewing its lease every third of the lease time till the range is processed. Once the
+	 * lease is lost the range belongs to the worker leasing it next, its demands are not generated nor is it
+	 * completed by this worker.
+	 */
+	private void processRangeWithLease(BulkBillRange range) {
+		AtomicBoolean leaseLost = new AtomicBoolean();
+		long renewInterval = Math.max(1, configs.getBulkRangeLeaseTime() / 3);
+		ScheduledFuture<?> renewal = leaseRenewer.scheduleWithFixedDelay(() -> renewLease(range, leaseLost),
+				renewInterval, renewInterval, TimeUnit.MILLISECONDS);
+		try {
+			processRange(range, leaseLost);
+		} finally {
+			renewal.cancel(false);
+		}
+	}
+
+	private void renewLease(BulkBillRange range, AtomicBoolean leaseLost) {
+		if (leaseLost.get())
+			return;
+		try {
+			if (!bulkBillRangeRepository.renewLease(range, configs.getBulkRangeLeaseTime())) {
+				leaseLost.set(true);
+				log.info("Lease of range " + range.getRangeIndex() + " of job " + range.getJobId() + " was lost");
+			}
+		} catch (Exception e) {
+			log.error("Failed to renew the lease of range " + range.getRangeIndex() + " of job " + range.getJobId(), e);
+		}
+	}
+
+	private void processRange(BulkBillRange range, AtomicBoolean leaseLost) {
+		MigrationCount migrationCount = MigrationCount.builder()
+				.tenantid(range.getTenantId())
+				.businessService("WS")
+				.limit(Long.valueOf(configs.getBulkbatchSize()))
+				.id(UUID.randomUUID().toString())
+				.offset(Long.valueOf(range.getRangeIndex()))
+				.createdTime(System.currentTimeMillis())
+				.auditTopic(bulkBillGenAuditTopic)
+				.build();
+		try {
+			List<WaterConnection> connections = waterCalculatorDao.getConnectionsInRange(range.getTenantId(),
+					WSCalculationConstant.nonMeterdConnection, range.getStartConnectionNo(), range.getEndConnectionNo(),
+					range.getBillingPeriodFrom(), range.getBillingPeriodTo());
+			connections = enrichmentService.filterConnections(connections);
+			migrationCount.setRecordCount(Long.valueOf(connections.size()));
+			log.info("Size of the connection list for range : " + range.getRangeIndex() + " of job " + range.getJobId()
+					+ " is " + connections.size());
+
+			if (isLeaseLost(range, leaseLost))
+				return;
+			if (!connections.isEmpty()) {
+				CalculationReq calculationReq = demandService.getBulkCalculationReq(range.getRequestInfo(),
+						range.getTenantId(), connections, migrationCount);
+				migrationCount.setAuditTime(System.currentTimeMillis());
+				bulkDemandAndBillGenService.bulkDemandGeneration(calculationReq);
+			}
+			if (!isLeaseLost(range, leaseLost) && !bulkBillRangeRepository.completeRange(range, BulkBillRange.StatusEnum.COMPLETED,
+					migrationCount.getRecordCount(), null))
+				log.info("Lease of range " + range.getRangeIndex() + " of job " + range.getJobId() + " expired before completion");
+		} catch (Exception e) {
+			log.error("Bulk bill generation failed for range " + range.getRangeIndex() + " of job " + range.getJobId(), e);
+			migrationCount.setAuditTime(System.currentTimeMillis());
+			migrationCount.setMessage("Failed in BulkBillRangeService with error : " + e.getMessage());
+			producer.push(bulkBillGenAuditTopic, migrationCount);
+
+			BulkBillRange.StatusEnum status = range.getAttempts() < configs.getBulkRangeMaxAttempts()
+					? BulkBillRange.StatusEnum.PENDING
+					: BulkBillRange.StatusEnum.FAILED;
+			if (!isLeaseLost(range, leaseLost))
+				bulkBillRangeRepository.completeRange(range, status, null, migrationCount.getMessage());
+		}
+	}
+
+	private boolean isLeaseLost(BulkBillRange range, AtomicBoolean leaseLost) {
+		if (leaseLost.get())
+			log.info("Range " + range.getRangeIndex() + " of job " + range.getJobId() + " is left to the worker leasing it next");
+		return leaseLost.get();
+	}
+
+}
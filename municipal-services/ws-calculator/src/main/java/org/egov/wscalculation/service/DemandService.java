@@ -18,6 +18,7 @@ import org.egov.wscalculation.repository.DemandRepository;
 import org.egov.wscalculation.repository.ServiceRequestRepository;
 import org.egov.wscalculation.repository.WSCalculationDao;
 import org.egov.wscalculation.util.CalculatorUtil;
+import org.egov.wscalculation.util.MasterDataSnapshot;
 import org.egov.wscalculation.util.NotificationUtil;
 import org.egov.wscalculation.util.WSCalculationUtil;
 import org.egov.wscalculation.validator.WSCalculationWorkflowValidator;
@@ -89,6 +90,9 @@ public class DemandService {
 	@Autowired
 	private EnrichmentService enrichmentService;
 
+	@Autowired
+	private BulkBillRangePlanner bulkBillRangePlanner;
+
 	@Autowired
 	private NotificationUtil notificationUtil;
 
@@ -534,11 +538,9 @@ public class DemandService {
 		if (getBillCriteria.getAmountExpected() == null)
 			getBillCriteria.setAmountExpected(BigDecimal.ZERO);
 		RequestInfo requestInfo = requestInfoWrapper.getRequestInfo();
-		Map<String, JSONArray> billingSlabMaster = new HashMap<>();
-
-		Map<String, JSONArray> timeBasedExemptionMasterMap = new HashMap<>();
-		mstrDataService.setWaterConnectionMasterValues(requestInfo, getBillCriteria.getTenantId(), billingSlabMaster,
-				timeBasedExemptionMasterMap);
+		MasterDataSnapshot masterDataSnapshot = mstrDataService.getMasterDataSnapshot(requestInfo,
+				getBillCriteria.getTenantId());
+		Map<String, JSONArray> timeBasedExemptionMasterMap = masterDataSnapshot.getTimeBasedExemptions();
 
 		if (CollectionUtils.isEmpty(getBillCriteria.getConsumerCodes()))
 			getBillCriteria.setConsumerCodes(Collections.singletonList(getBillCriteria.getConnectionNumber()));
@@ -558,7 +560,7 @@ public class DemandService {
 
 		String tenantId = getBillCriteria.getTenantId();
 
-		List<TaxPeriod> taxPeriods = mstrDataService.getTaxPeriodList(requestInfoWrapper.getRequestInfo(), tenantId, SERVICE_FIELD_VALUE_WS);
+		List<TaxPeriod> taxPeriods = masterDataSnapshot.getTaxPeriods();
 		
 		consumerCodeToDemandMap.forEach((id, demand) ->{
 			if (demand.getStatus() != null
@@ -702,7 +704,8 @@ public class DemandService {
 		List<DemandDetail> details = demand.getDemandDetails();
 
 		Map<String, BigDecimal> interestPenaltyEstimates = payService.applyPenaltyRebateAndInterest(
-				waterChargeApplicable, taxPeriod.getFinancialYear(), timeBasedExemptionMasterMap, expiryDate);
+				waterChargeApplicable, taxPeriod.getFinancialYear(), demand.getTenantId(), timeBasedExemptionMasterMap,
+				expiryDate);
 		if (null == interestPenaltyEstimates)
 			return isCurrentDemand;
 
@@ -813,23 +816,20 @@ public class DemandService {
 			log.info("Connection Count: " + count);
 			log.info("fromDate: " + fromDate + " toDate :" + toDate);
 
+			if (Boolean.TRUE.equals(configs.getBulkRangeEnabled())) {
+				bulkBillRangePlanner.schedule(requestInfo, tenantId, fromDate, toDate);
+				return;
+			}
+
 			if(count>0) {
 				while (batchOffset < count) {
 					List<WaterConnection> connections = waterCalculatorDao.getConnectionsNoList(tenantId,
 							WSCalculationConstant.nonMeterdConnection, batchOffset, batchsize, fromDate, toDate);
 
 					connections = enrichmentService.filterConnections(connections);
-					String assessmentYear = estimationService.getAssessmentYear();
 					log.info("Size of the connection list for batch : "+ batchOffset + " is " + connections.size());
 
 					if (connections.size() > 0) {
-						List<CalculationCriteria> calculationCriteriaList = new ArrayList<>();
-						for (WaterConnection connection : connections) {
-							CalculationCriteria calculationCriteria = CalculationCriteria.builder().tenantId(tenantId)
-									.assessmentYear(assessmentYear).connectionNo(connection.getConnectionNo())
-									.waterConnection(connection).build();
-							calculationCriteriaList.add(calculationCriteria);
-						}
 						MigrationCount migrationCount = MigrationCount.builder()
 								.tenantid(tenantId)
 								.businessService("WS")
@@ -840,15 +840,11 @@ public class DemandService {
 								.recordCount(Long.valueOf(connections.size()))
 								.build();
 
-						CalculationReq calculationReq = CalculationReq.builder()
-								.calculationCriteria(calculationCriteriaList)
-								.requestInfo(requestInfo)
-								.isconnectionCalculation(true)
-								.migrationCount(migrationCount).build();
+						CalculationReq calculationReq = getBulkCalculationReq(requestInfo, tenantId, connections,
+								migrationCount);
 						
 						wsCalculationProducer.push(configs.getCreateDemand(), calculationReq);
 						log.info("Bulk bill Gen batch info : " + migrationCount);
-						calculationCriteriaList.clear();
 					}
 					batchOffset = batchOffset + batchsize;
 				}
@@ -857,6 +853,31 @@ public class DemandService {
 		}
 	}
 
+	/**
+	 * 
+	 * @param requestInfo Request Info
+	 * @param tenantId Tenant Id
+	 * @param connections Connections of the batch
+	 * @param migrationCount Audit record of the batch
+	 * @return Calculation request of the connections of the batch
+	 */
+	public CalculationReq getBulkCalculationReq(RequestInfo requestInfo, String tenantId,
+			List<WaterConnection> connections, MigrationCount migrationCount) {
+		String assessmentYear = estimationService.getAssessmentYear();
+		List<CalculationCriteria> calculationCriteriaList = new ArrayList<>();
+		for (WaterConnection connection : connections) {
+			CalculationCriteria calculationCriteria = CalculationCriteria.builder().tenantId(tenantId)
+					.assessmentYear(assessmentYear).connectionNo(connection.getConnectionNo())
+					.waterConnection(connection).build();
+			calculationCriteriaList.add(calculationCriteria);
+		}
+		return CalculationReq.builder()
+				.calculationCriteria(calculationCriteriaList)
+				.requestInfo(requestInfo)
+				.isconnectionCalculation(true)
+				.migrationCount(migrationCount).build();
+	}
+
 	/**
 	 * 
 	 * @param billingFrequency Billing Frequency details
@@ -13,6 +13,7 @@ import org.egov.tracer.model.CustomException;
 import org.egov.wscalculation.constants.WSCalculationConstant;
 import org.egov.wscalculation.web.models.*;
 import org.egov.wscalculation.util.CalculatorUtil;
+import org.egov.wscalculation.util.MasterDataSnapshot;
 import org.egov.wscalculation.util.WSCalculationUtil;
 import org.egov.wscalculation.util.WaterCessUtil;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -70,6 +71,18 @@ public class EstimationService {
 					.append(" connection no");
 			throw new CustomException("WATER_CONNECTION_NOT_FOUND", builder.toString());
 		}
+		MasterDataSnapshot snapshot = MasterDataSnapshot.from(masterData);
+		if (snapshot != null) {
+			ArrayList<String> billingSlabIds = new ArrayList<>();
+			BigDecimal taxAmt = getWaterEstimationCharge(criteria.getWaterConnection(), criteria, snapshot,
+					billingSlabIds, requestInfo);
+			List<TaxHeadEstimate> taxHeadEstimates = getEstimatesForTax(taxAmt, criteria.getWaterConnection(),
+					snapshot.getTimeBasedExemptions(), RequestInfoWrapper.builder().requestInfo(requestInfo).build());
+			Map<String, List> estimatesAndBillingSlabs = new HashMap<>();
+			estimatesAndBillingSlabs.put("estimates", taxHeadEstimates);
+			estimatesAndBillingSlabs.put("billingSlabIds", billingSlabIds);
+			return estimatesAndBillingSlabs;
+		}
 		Map<String, JSONArray> billingSlabMaster = new HashMap<>();
 		Map<String, JSONArray> timeBasedExemptionMasterMap = new HashMap<>();
 		ArrayList<String> billingSlabIds = new ArrayList<>();
@@ -115,7 +128,8 @@ public class EstimationService {
 			List<Object> waterCessMasterList = timeBasedExemptionsMasterMap
 					.get(WSCalculationConstant.WC_WATER_CESS_MASTER);
 			BigDecimal waterCess;
-			waterCess = waterCessUtil.getWaterCess(waterCharge, WSCalculationConstant.Assessment_Year, waterCessMasterList);
+			waterCess = waterCessUtil.getWaterCess(waterCharge, WSCalculationConstant.Assessment_Year, connection.getTenantId(),
+					waterCessMasterList);
 			estimates.add(TaxHeadEstimate.builder().taxHeadCode(WSCalculationConstant.WS_WATER_CESS)
 					.estimateAmount(waterCess.setScale(2, 2)).build());
 		}
@@ -129,7 +143,6 @@ public class EstimationService {
 
 	public BigDecimal getWaterEstimationCharge(WaterConnection waterConnection, CalculationCriteria criteria, 
 			Map<String, JSONArray> billingSlabMaster, ArrayList<String> billingSlabIds, RequestInfo requestInfo) {
-		BigDecimal waterCharge = BigDecimal.ZERO;
 		if (billingSlabMaster.get(WSCalculationConstant.WC_BILLING_SLAB_MASTER) == null)
 			throw new CustomException("BILLING_SLAB_NOT_FOUND", "Billing Slab are Empty");
 		List<BillingSlab> mappingBillingSlab;
@@ -144,6 +157,29 @@ public class EstimationService {
 		calculationAttributeMaster.put(WSCalculationConstant.CALCULATION_ATTRIBUTE_CONST, billingSlabMaster.get(WSCalculationConstant.CALCULATION_ATTRIBUTE_CONST));
         String calculationAttribute = getCalculationAttribute(calculationAttributeMaster, waterConnection.getConnectionType());
 		List<BillingSlab> billingSlabs = getSlabsFiltered(waterConnection, mappingBillingSlab, calculationAttribute, requestInfo);
+		return getWaterCharge(waterConnection, criteria, billingSlabs, calculationAttribute, billingSlabIds);
+	}
+
+	/**
+	 * Same as the estimation on the raw masters with the slabs and the calculation attribute looked up on the
+	 * snapshot of the masters
+	 */
+	public BigDecimal getWaterEstimationCharge(WaterConnection waterConnection, CalculationCriteria criteria,
+			MasterDataSnapshot snapshot, ArrayList<String> billingSlabIds, RequestInfo requestInfo) {
+		if (!snapshot.hasBillingSlabs())
+			throw new CustomException("BILLING_SLAB_NOT_FOUND", "Billing Slab are Empty");
+		String calculationAttribute = snapshot.getCalculationAttribute(waterConnection.getConnectionType());
+		if (calculationAttribute == null)
+			throw new CustomException("CALCULATION_ATTRIBUTE_MASTER_NOT_FOUND",
+					"Calculation attribute master not found the connection type :" + waterConnection.getConnectionType());
+		List<BillingSlab> billingSlabs = snapshot.getBillingSlabs(getBuildingType(waterConnection, requestInfo),
+				waterConnection.getConnectionType(), calculationAttribute);
+		return getWaterCharge(waterConnection, criteria, billingSlabs, calculationAttribute, billingSlabIds);
+	}
+
+	private BigDecimal getWaterCharge(WaterConnection waterConnection, CalculationCriteria criteria,
+			List<BillingSlab> billingSlabs, String calculationAttribute, ArrayList<String> billingSlabIds) {
+		BigDecimal waterCharge = BigDecimal.ZERO;
 		if (billingSlabs == null || billingSlabs.isEmpty())
 			throw new CustomException("BILLING_SLAB_NOT_FOUND", "Billing Slab are Empty");
 		if (billingSlabs.size() > 1)
@@ -196,12 +232,9 @@ public class EstimationService {
 	private List<BillingSlab> getSlabsFiltered(WaterConnection waterConnection, List<BillingSlab> billingSlabs,
 			String calculationAttribute, RequestInfo requestInfo) {
 
-		Property property = wSCalculationUtil.getProperty(
-				WaterConnectionRequest.builder().waterConnection(waterConnection).requestInfo(requestInfo).build());
 		// get billing Slab
 		log.debug(" the slabs count : " + billingSlabs.size());
-		final String buildingType = (property.getUsageCategory() != null) ? property.getUsageCategory().split("\\.")[0]
-				: "";
+		final String buildingType = getBuildingType(waterConnection, requestInfo);
 		// final String buildingType = "Domestic";
 		final String connectionType = waterConnection.getConnectionType();
 
@@ -214,6 +247,12 @@ public class EstimationService {
 		}).collect(Collectors.toList());
 	}
 	
+	private String getBuildingType(WaterConnection waterConnection, RequestInfo requestInfo) {
+		Property property = wSCalculationUtil.getProperty(
+				WaterConnectionRequest.builder().waterConnection(waterConnection).requestInfo(requestInfo).build());
+		return (property.getUsageCategory() != null) ? property.getUsageCategory().split("\\.")[0] : "";
+	}
+
 	private String getCalculationAttribute(Map<String, Object> calculationAttributeMap, String connectionType) {
 		if (calculationAttributeMap == null)
 			throw new CustomException("CALCULATION_ATTRIBUTE_MASTER_NOT_FOUND",
@@ -7,6 +7,7 @@ import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import org.egov.wscalculation.constants.WSCalculationConstant;
+import org.egov.wscalculation.util.TimeBasedRules;
 import org.egov.wscalculation.web.models.TaxHeadEstimate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -57,12 +58,13 @@ public class PayService {
 	 * 
 	 * @param waterCharge - Water Charge Amount
 	 * @param assessmentYear - Assessment Year
+	 * @param tenantId - Tenant Id
 	 * @param timeBasedExemptionMasterMap - Time Based Exemption Master Data
 	 * @param billingExpiryDate - Billing Expiry Date
 	 * @return estimation of time based exemption
 	 */
 	public Map<String, BigDecimal> applyPenaltyRebateAndInterest(BigDecimal waterCharge,
-			String assessmentYear, Map<String, JSONArray> timeBasedExemptionMasterMap, Long billingExpiryDate) {
+			String assessmentYear, String tenantId, Map<String, JSONArray> timeBasedExemptionMasterMap, Long billingExpiryDate) {
 
 		if (BigDecimal.ZERO.compareTo(waterCharge) >= 0)
 			return Collections.emptyMap();
@@ -71,8 +73,8 @@ public class PayService {
 		long numberOfDaysInMillis = billingExpiryDate - currentUTC;
 		BigDecimal noOfDays = BigDecimal.valueOf((TimeUnit.MILLISECONDS.toDays(Math.abs(numberOfDaysInMillis))));
 		if(BigDecimal.ONE.compareTo(noOfDays) <= 0) noOfDays = noOfDays.add(BigDecimal.ONE);
-		BigDecimal penalty = getApplicablePenalty(waterCharge, noOfDays, timeBasedExemptionMasterMap.get(WSCalculationConstant.WC_PENANLTY_MASTER));
-		BigDecimal interest = getApplicableInterest(waterCharge, noOfDays, timeBasedExemptionMasterMap.get(WSCalculationConstant.WC_INTEREST_MASTER));
+		BigDecimal penalty = getApplicablePenalty(waterCharge, noOfDays, tenantId, timeBasedExemptionMasterMap.get(WSCalculationConstant.WC_PENANLTY_MASTER));
+		BigDecimal interest = getApplicableInterest(waterCharge, noOfDays, tenantId, timeBasedExemptionMasterMap.get(WSCalculationConstant.WC_INTEREST_MASTER));
 		estimates.put(WSCalculationConstant.WS_TIME_PENALTY, penalty.setScale(2, 2));
 		estimates.put(WSCalculationConstant.WS_TIME_INTEREST, interest.setScale(2, 2));
 		return estimates;
@@ -83,14 +85,17 @@ public class PayService {
 	 * 
 	 * @param taxAmt - Tax Amount
 	 * @param assessmentYear - Assessment Year
+	 * @param tenantId - Tenant Id
 	 * @return applicable penalty for given time
 	 */
-	public BigDecimal getPenalty(BigDecimal taxAmt, String assessmentYear, JSONArray penaltyMasterList, BigDecimal noOfDays) {
+	public BigDecimal getPenalty(BigDecimal taxAmt, String assessmentYear, String tenantId, JSONArray penaltyMasterList,
+			BigDecimal noOfDays) {
 
 		BigDecimal penaltyAmt = BigDecimal.ZERO;
-		Map<String, Object> penalty = mDService.getApplicableMaster(assessmentYear, penaltyMasterList);
+		TimeBasedRules.Rule penalty = mDService.getApplicableRule(tenantId, WSCalculationConstant.WC_PENANLTY_MASTER,
+				assessmentYear, penaltyMasterList);
 		if (null == penalty) return penaltyAmt;
-			penaltyAmt = mDService.calculateApplicable(taxAmt, penalty);
+			penaltyAmt = penalty.calculate(taxAmt);
 		return penaltyAmt;
 	}
 	
@@ -98,13 +103,15 @@ public class PayService {
 	 * 
 	 * @param waterCharge - Water Charge amount
 	 * @param noOfDays - No.Of.Days
+	 * @param tenantId - Tenant Id
 	 * @param config
 	 *            master configuration
 	 * @return applicable penalty
 	 */
-	public BigDecimal getApplicablePenalty(BigDecimal waterCharge, BigDecimal noOfDays, JSONArray config) {
+	public BigDecimal getApplicablePenalty(BigDecimal waterCharge, BigDecimal noOfDays, String tenantId, JSONArray config) {
 		BigDecimal applicablePenalty = BigDecimal.ZERO;
-		Map<String, Object> penaltyMaster = mDService.getApplicableMaster(estimationService.getAssessmentYear(), config);
+		Map<String, Object> penaltyMaster = mDService.getApplicableMaster(tenantId, WSCalculationConstant.WC_PENANLTY_MASTER,
+				estimationService.getAssessmentYear(), config);
 		if (null == penaltyMaster) return applicablePenalty;
 		BigDecimal daysApplicable = null != penaltyMaster.get(WSCalculationConstant.DAYA_APPLICABLE_NAME)
 				? BigDecimal.valueOf(((Number) penaltyMaster.get(WSCalculationConstant.DAYA_APPLICABLE_NAME)).intValue())
@@ -137,13 +144,15 @@ public class PayService {
 	 * 
 	 * @param waterCharge - Water Charge
 	 * @param noOfDays - No.Of Days value
+	 * @param tenantId - Tenant Id
 	 * @param config
 	 *            master configuration
 	 * @return applicable Interest
 	 */
-	public BigDecimal getApplicableInterest(BigDecimal waterCharge, BigDecimal noOfDays, JSONArray config) {
+	public BigDecimal getApplicableInterest(BigDecimal waterCharge, BigDecimal noOfDays, String tenantId, JSONArray config) {
 		BigDecimal applicableInterest = BigDecimal.ZERO;
-		Map<String, Object> interestMaster = mDService.getApplicableMaster(estimationService.getAssessmentYear(), config);
+		Map<String, Object> interestMaster = mDService.getApplicableMaster(tenantId, WSCalculationConstant.WC_INTEREST_MASTER,
+				estimationService.getAssessmentYear(), config);
 		if (null == interestMaster) return applicableInterest;
 		BigDecimal daysApplicable = null != interestMaster.get(WSCalculationConstant.DAYA_APPLICABLE_NAME)
 				? BigDecimal.valueOf(((Number) interestMaster.get(WSCalculationConstant.DAYA_APPLICABLE_NAME)).intValue())
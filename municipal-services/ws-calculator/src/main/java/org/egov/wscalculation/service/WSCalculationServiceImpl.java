@@ -20,6 +20,7 @@ import org.egov.wscalculation.web.models.*;
 import org.egov.wscalculation.repository.ServiceRequestRepository;
 import org.egov.wscalculation.repository.WSCalculationDao;
 import org.egov.wscalculation.util.CalculatorUtil;
+import org.egov.wscalculation.util.MasterDataSnapshot;
 import org.egov.wscalculation.util.WSCalculationUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -154,9 +155,10 @@ public class WSCalculationServiceImpl implements WSCalculationService {
 		List<String> billingSlabIds = estimatesAndBillingSlabs.get("billingSlabIds");
 		WaterConnection waterConnection = criteria.getWaterConnection();
 		
+		MasterDataSnapshot snapshot = MasterDataSnapshot.from(masterMap);
 		@SuppressWarnings("unchecked")
-		Map<String, TaxHeadCategory> taxHeadCategoryMap = ((List<TaxHeadMaster>) masterMap
-				.get(WSCalculationConstant.TAXHEADMASTER_MASTER_KEY)).stream()
+		Map<String, TaxHeadCategory> taxHeadCategoryMap = snapshot != null ? snapshot.getTaxHeadCategories()
+				: ((List<TaxHeadMaster>) masterMap.get(WSCalculationConstant.TAXHEADMASTER_MASTER_KEY)).stream()
 						.collect(Collectors.toMap(TaxHeadMaster::getCode, TaxHeadMaster::getCategory, (OldValue, NewValue) -> NewValue));
 
 		BigDecimal taxAmt = BigDecimal.ZERO;
@@ -197,7 +199,7 @@ public class WSCalculationServiceImpl implements WSCalculationService {
 							criteria.setFrom(toDate);
 
 							//Calculate water cess for disconnection charge
-							BigDecimal waterCess = getWaterCessForDisconnection(masterMap, finalWaterCharge);
+							BigDecimal waterCess = getWaterCessForDisconnection(masterMap, waterConnection.getTenantId(), finalWaterCharge);
 							for (TaxHeadEstimate estimate : estimates) {
 								if (estimate.getTaxHeadCode().equals(WS_WATER_CESS)) {
 									estimates.remove(estimate);
@@ -431,9 +433,10 @@ public class WSCalculationServiceImpl implements WSCalculationService {
 	 * Calculate WaterCess during Disconnection Application final Water charge calculation
 	 *
 	 * @param masterMap
+	 * @param tenantId
 	 * @return waterCess - watercess amount
 	 */
-	private BigDecimal getWaterCessForDisconnection(Map<String, Object> masterMap, BigDecimal finalWaterCharge) {
+	private BigDecimal getWaterCessForDisconnection(Map<String, Object> masterMap, String tenantId, BigDecimal finalWaterCharge) {
 		BigDecimal waterCess = BigDecimal.ZERO;
 		Map<String, JSONArray> timeBasedExemptionMasterMap = new HashMap<>();
 		timeBasedExemptionMasterMap.put(WSCalculationConstant.WC_WATER_CESS_MASTER,
@@ -443,7 +446,8 @@ public class WSCalculationServiceImpl implements WSCalculationService {
 			List<Object> waterCessMasterList = timeBasedExemptionMasterMap
 					.get(WSCalculationConstant.WC_WATER_CESS_MASTER);
 
-			Map<String, Object> CessMap = mDataService.getApplicableMaster(WSCalculationConstant.Assessment_Year, waterCessMasterList);
+			Map<String, Object> CessMap = mDataService.getApplicableMaster(tenantId, WSCalculationConstant.WC_WATER_CESS_MASTER,
+					WSCalculationConstant.Assessment_Year, waterCessMasterList);
 			waterCess = waterCessUtil.calculateWaterCess(finalWaterCharge, CessMap);
 
 		}
@@ -0,0 +1,197 @@
+package org.egov.wscalculation.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.egov.tracer.model.CustomException;
+import org.egov.wscalculation.constants.WSCalculationConstant;
+import org.egov.wscalculation.web.models.BillingSlab;
+import org.egov.wscalculation.web.models.TaxHeadCategory;
+import org.egov.wscalculation.web.models.TaxHeadMaster;
+import org.egov.wscalculation.web.models.TaxPeriod;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import net.minidev.json.JSONArray;
+
+/**
+ * Immutable masters of a tenant as loaded for the calculation and demand generation.
+ *
+ * Besides the raw master map the snapshot holds the billing slabs parsed once and grouped on building type,
+ * connection type and calculation attribute, the calculation attribute of each connection type, the category
+ * of each tax head, the tax periods ordered by start date and the time based exemption masters (rebate,
+ * penalty, interest and water cess).
+ */
+public final class MasterDataSnapshot {
+
+	private static final String KEY_SEPERATOR = "|";
+
+	private static final List<String> TIME_BASED_EXEMPTION_MASTERS = Collections.unmodifiableList(
+			Arrays.asList(WSCalculationConstant.WC_REBATE_MASTER, WSCalculationConstant.WC_PENANLTY_MASTER,
+					WSCalculationConstant.WC_INTEREST_MASTER, WSCalculationConstant.WC_WATER_CESS_MASTER));
+
+	private final String tenantId;
+
+	private final long loadedTime;
+
+	private final Map<String, Object> masters;
+
+	private final Map<String, List<BillingSlab>> billingSlabs;
+
+	private final Map<String, String> calculationAttributes;
+
+	private final Map<String, TaxHeadCategory> taxHeadCategories;
+
+	private final List<TaxPeriod> taxPeriods;
+
+	private final Map<String, JSONArray> timeBasedExemptions;
+
+	private MasterDataSnapshot(String tenantId, Map<String, Object> masters, Map<String, List<BillingSlab>> billingSlabs,
+			Map<String, String> calculationAttributes, Map<String, TaxHeadCategory> taxHeadCategories,
+			List<TaxPeriod> taxPeriods, Map<String, JSONArray> timeBasedExemptions) {
+		this.tenantId = tenantId;
+		this.loadedTime = System.currentTimeMillis();
+		this.masters = masters;
+		this.billingSlabs = billingSlabs;
+		this.calculationAttributes = calculationAttributes;
+		this.taxHeadCategories = taxHeadCategories;
+		this.taxPeriods = taxPeriods;
+		this.timeBasedExemptions = timeBasedExemptions;
+	}
+
+	/**
+	 * Builds the snapshot over the masters loaded for the tenant
+	 *
+	 * @param tenantId Tenant Id
+	 * @param masters Master map as loaded from MDMS and billing service
+	 * @param mapper Mapper used to parse the billing slabs
+	 * @return the snapshot
+	 */
+	@SuppressWarnings("unchecked")
+	public static MasterDataSnapshot build(String tenantId, Map<String, Object> masters, ObjectMapper mapper) {
+
+		Map<String, List<BillingSlab>> billingSlabs = new HashMap<>();
+		JSONArray billingSlabMaster = (JSONArray) masters.get(WSCalculationConstant.WC_BILLING_SLAB_MASTER);
+		if (billingSlabMaster != null) {
+			List<BillingSlab> slabs;
+			try {
+				slabs = mapper.convertValue(billingSlabMaster,
+						mapper.getTypeFactory().constructCollectionType(List.class, BillingSlab.class));
+			} catch (IllegalArgumentException e) {
+				throw new CustomException("PARSING_ERROR", "Billing Slab can not be parsed!");
+			}
+			for (BillingSlab slab : slabs)
+				billingSlabs.computeIfAbsent(getSlabKey(slab.getBuildingType(), slab.getConnectionType(),
+						slab.getCalculationAttribute()), key -> new ArrayList<>(1)).add(slab);
+		}
+
+		// the first attribute configured for a connection type applies, same as the json path filter
+		Map<String, String> calculationAttributes = new HashMap<>();
+		JSONArray calculationAttributeMaster = (JSONArray) masters.get(WSCalculationConstant.CALCULATION_ATTRIBUTE_CONST);
+		if (calculationAttributeMaster != null) {
+			for (Object attribute : calculationAttributeMaster) {
+				Map<String, Object> attributeMap = (Map<String, Object>) attribute;
+				Object name = attributeMap.get("name");
+				Object value = attributeMap.get(WSCalculationConstant.ATTRIBUTE);
+				if (name != null && value != null)
+					calculationAttributes.putIfAbsent(name.toString(), value.toString());
+			}
+		}
+
+		Map<String, TaxHeadCategory> taxHeadCategories = new HashMap<>();
+		List<TaxHeadMaster> taxHeadMasters = (List<TaxHeadMaster>) masters.get(WSCalculationConstant.TAXHEADMASTER_MASTER_KEY);
+		if (taxHeadMasters != null)
+			taxHeadMasters.forEach(taxHead -> taxHeadCategories.put(taxHead.getCode(), taxHead.getCategory()));
+
+		List<TaxPeriod> taxPeriods = new ArrayList<>();
+		List<TaxPeriod> taxPeriodMaster = (List<TaxPeriod>) masters.get(WSCalculationConstant.TAXPERIOD_MASTER_KEY);
+		if (taxPeriodMaster != null)
+			taxPeriods.addAll(taxPeriodMaster);
+		taxPeriods.sort(Comparator.comparing(TaxPeriod::getFromDate, Comparator.nullsFirst(Comparator.naturalOrder())));
+
+		Map<String, JSONArray> timeBasedExemptions = new HashMap<>();
+		for (String master : TIME_BASED_EXEMPTION_MASTERS) {
+			if (masters.get(master) != null)
+				timeBasedExemptions.put(master, (JSONArray) masters.get(master));
+		}
+
+		return new MasterDataSnapshot(tenantId, Collections.unmodifiableMap(new HashMap<>(masters)),
+				billingSlabs, calculationAttributes, Collections.unmodifiableMap(taxHeadCategories),
+				Collections.unmodifiableList(taxPeriods), Collections.unmodifiableMap(timeBasedExemptions));
+	}
+
+	public String getTenantId() {
+		return tenantId;
+	}
+
+	public long getLoadedTime() {
+		return loadedTime;
+	}
+
+	/**
+	 * Master map of the calculation, a copy is returned as the calculation adds the billing period to it
+	 *
+	 * @return the masters with the snapshot under MASTER_DATA_SNAPSHOT_KEY
+	 */
+	public Map<String, Object> getMasterMap() {
+		Map<String, Object> masterMap = new HashMap<>(masters);
+		masterMap.put(WSCalculationConstant.MASTER_DATA_SNAPSHOT_KEY, this);
+		return masterMap;
+	}
+
+	/**
+	 * Returns the billing slabs matching the building type, connection type and calculation attribute
+	 * ignoring case, same as the filtering of the estimation
+	 */
+	public List<BillingSlab> getBillingSlabs(String buildingType, String connectionType, String calculationAttribute) {
+		List<BillingSlab> slabs = billingSlabs.get(getSlabKey(buildingType, connectionType, calculationAttribute));
+		return slabs == null ? Collections.emptyList() : Collections.unmodifiableList(slabs);
+	}
+
+	public boolean hasBillingSlabs() {
+		return masters.get(WSCalculationConstant.WC_BILLING_SLAB_MASTER) != null;
+	}
+
+	/**
+	 * @param connectionType Connection type
+	 * @return calculation attribute of the connection type, null if not configured
+	 */
+	public String getCalculationAttribute(String connectionType) {
+		return calculationAttributes.get(connectionType);
+	}
+
+	public Map<String, TaxHeadCategory> getTaxHeadCategories() {
+		return taxHeadCategories;
+	}
+
+	public List<TaxPeriod> getTaxPeriods() {
+		return taxPeriods;
+	}
+
+	public Map<String, JSONArray> getTimeBasedExemptions() {
+		return timeBasedExemptions;
+	}
+
+	/**
+	 * Returns the snapshot the master map was taken from
+	 *
+	 * @param masterMap Master map of the calculation
+	 * @return the snapshot, null if the masters were not loaded through the snapshot
+	 */
+	public static MasterDataSnapshot from(Map<String, Object> masterMap) {
+		Object snapshot = masterMap == null ? null : masterMap.get(WSCalculationConstant.MASTER_DATA_SNAPSHOT_KEY);
+		return snapshot instanceof MasterDataSnapshot ? (MasterDataSnapshot) snapshot : null;
+	}
+
+	private static String getSlabKey(String buildingType, String connectionType, String calculationAttribute) {
+		return new StringBuilder(String.valueOf(buildingType).toUpperCase()).append(KEY_SEPERATOR)
+				.append(String.valueOf(connectionType).toUpperCase()).append(KEY_SEPERATOR)
+				.append(String.valueOf(calculationAttribute).toUpperCase()).toString();
+	}
+
+}
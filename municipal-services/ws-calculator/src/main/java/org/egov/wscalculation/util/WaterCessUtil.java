@@ -15,11 +15,12 @@ public class WaterCessUtil {
 	@Autowired
 	private MasterDataService mDataService;
 
-	public BigDecimal getWaterCess(BigDecimal waterCharge, String assessmentYear, List<Object> masterList) {
+	public BigDecimal getWaterCess(BigDecimal waterCharge, String assessmentYear, String tenantId, List<Object> masterList) {
 		BigDecimal waterCess = BigDecimal.ZERO;
 		if (waterCharge.doubleValue() == 0.0)
 			return waterCess;
-		Map<String, Object> CessMap = mDataService.getApplicableMaster(assessmentYear, masterList);
+		Map<String, Object> CessMap = mDataService.getApplicableMaster(tenantId, WSCalculationConstant.WC_WATER_CESS_MASTER,
+				assessmentYear, masterList);
 		return calculateWaterCess(waterCharge, CessMap);
 	}
 
@@ -53,6 +53,9 @@ public class CalculatorController {
 	private WSCalculationConfiguration config;
 	@Autowired
 	private DemandNotificationService demandNotificationService;
+
+	@Autowired
+	private BulkBillRangeService bulkBillRangeService;
 	
 	@PostMapping("/_estimate")
 	public ResponseEntity<CalculationRes> getTaxEstimation(@RequestBody @Valid CalculationReq calculationReq) {
@@ -90,6 +93,17 @@ public class CalculatorController {
 		wSCalculationService.generateDemandBasedOnTimePeriod(bulkBillReq.getRequestInfo(), bulkBillReq.getBulkBillCriteria());
 	}
 	
+	@PostMapping("/_bulkBillProgress")
+	public ResponseEntity<BulkBillProgressResponse> bulkBillProgress(@Valid @RequestBody BulkBillReq bulkBillReq) {
+		BulkBillCriteria criteria = bulkBillReq.getBulkBillCriteria();
+		Integer limit = criteria.getLimit() == null ? 10 : Math.toIntExact(criteria.getLimit());
+		List<BulkBillProgress> progress = bulkBillRangeService.getProgress(criteria.getTenantIds(), limit);
+		BulkBillProgressResponse response = BulkBillProgressResponse.builder().bulkBillProgress(progress)
+				.responseInfo(responseInfoFactory.createResponseInfoFromRequestInfo(bulkBillReq.getRequestInfo(), true))
+				.build();
+		return new ResponseEntity<>(response, HttpStatus.OK);
+	}
+	
 	@PostMapping("/_applyAdhocTax")
 	public ResponseEntity<CalculationRes> applyAdhocTax(@Valid @RequestBody AdhocTaxReq adhocTaxReq) {
 		List<Calculation> calculations = wSCalculationServiceImpl.applyAdhocTax(adhocTaxReq);
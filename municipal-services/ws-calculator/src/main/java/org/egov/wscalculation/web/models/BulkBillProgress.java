@@ -0,0 +1,66 @@
+package org.egov.wscalculation.web.models;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Progress of a run of the bulk bill generation of a tenant for a billing period
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class BulkBillProgress {
+
+	@JsonProperty("jobId")
+	private String jobId;
+
+	@JsonProperty("tenantId")
+	private String tenantId;
+
+	@JsonProperty("businessService")
+	private String businessService;
+
+	@JsonProperty("billingPeriodFrom")
+	private Long billingPeriodFrom;
+
+	@JsonProperty("billingPeriodTo")
+	private Long billingPeriodTo;
+
+	@JsonProperty("runNumber")
+	private Integer runNumber;
+
+	@JsonProperty("createdTime")
+	private Long createdTime;
+
+	@JsonProperty("totalRanges")
+	private Integer totalRanges;
+
+	@JsonProperty("pendingRanges")
+	private Integer pendingRanges;
+
+	@JsonProperty("leasedRanges")
+	private Integer leasedRanges;
+
+	@JsonProperty("completedRanges")
+	private Integer completedRanges;
+
+	@JsonProperty("failedRanges")
+	private Integer failedRanges;
+
+	@JsonProperty("recordCount")
+	private Long recordCount;
+
+	@JsonProperty("startTime")
+	private Long startTime;
+
+	@JsonProperty("endTime")
+	private Long endTime;
+
+	@JsonProperty("recordsPerSecond")
+	private Double recordsPerSecond;
+}
@@ -0,0 +1,68 @@
+package org.egov.wscalculation.web.models;
+
+import org.egov.common.contract.request.RequestInfo;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Range of connection numbers of a bulk bill generation job, leased by a worker at a time. The range
+ * covers startConnectionNo till the connection number before endConnectionNo, the last range of a job
+ * has no end.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class BulkBillRange {
+
+	@JsonProperty("id")
+	private String id;
+
+	@JsonProperty("jobId")
+	private String jobId;
+
+	@JsonProperty("rangeIndex")
+	private Integer rangeIndex;
+
+	@JsonProperty("tenantId")
+	private String tenantId;
+
+	@JsonProperty("businessService")
+	private String businessService;
+
+	@JsonProperty("billingPeriodFrom")
+	private Long billingPeriodFrom;
+
+	@JsonProperty("billingPeriodTo")
+	private Long billingPeriodTo;
+
+	@JsonProperty("startConnectionNo")
+	private String startConnectionNo;
+
+	@JsonProperty("endConnectionNo")
+	private String endConnectionNo;
+
+	@JsonProperty("status")
+	private StatusEnum status;
+
+	@JsonProperty("leaseOwner")
+	private String leaseOwner;
+
+	@JsonProperty("attempts")
+	private Integer attempts;
+
+	@JsonProperty("recordCount")
+	private Long recordCount;
+
+	@JsonProperty("requestInfo")
+	private RequestInfo requestInfo;
+
+	public enum StatusEnum {
+		PENDING, LEASED, COMPLETED, FAILED
+	}
+}
@@ -0,0 +1,34 @@
+CREATE TABLE IF NOT EXISTS eg_ws_bulkbill_job (
+  id CHARACTER VARYING (64) NOT NULL,
+  tenantid CHARACTER VARYING (256) NOT NULL,
+  businessservice CHARACTER VARYING (256) NOT NULL,
+  billingperiodfrom bigint NOT NULL,
+  billingperiodto bigint NOT NULL,
+  runnumber integer NOT NULL DEFAULT 1,
+  requestinfo JSONB,
+  createdtime bigint NOT NULL,
+  CONSTRAINT pk_eg_ws_bulkbill_job_id PRIMARY KEY (id),
+  CONSTRAINT uk_eg_ws_bulkbill_job_period UNIQUE (tenantid, businessservice, billingperiodfrom, billingperiodto, runnumber)
+);
+
+CREATE TABLE IF NOT EXISTS eg_ws_bulkbill_range (
+  id CHARACTER VARYING (64) NOT NULL,
+  jobid CHARACTER VARYING (64) NOT NULL,
+  rangeindex integer NOT NULL,
+  startconnectionno CHARACTER VARYING (256) NOT NULL,
+  endconnectionno CHARACTER VARYING (256),
+  status CHARACTER VARYING (64) NOT NULL,
+  leaseowner CHARACTER VARYING (256),
+  leaseexpiry bigint,
+  attempts integer NOT NULL DEFAULT 0,
+  recordcount bigint,
+  message CHARACTER VARYING (2048),
+  starttime bigint,
+  endtime bigint,
+  lastmodifiedtime bigint NOT NULL,
+  CONSTRAINT pk_eg_ws_bulkbill_range_id PRIMARY KEY (id),
+  CONSTRAINT fk_eg_ws_bulkbill_range_jobid FOREIGN KEY (jobid) REFERENCES eg_ws_bulkbill_job (id)
+);
+
+CREATE INDEX IF NOT EXISTS index_eg_ws_bulkbill_range_jobid ON eg_ws_bulkbill_range (jobid, rangeindex);
+CREATE INDEX IF NOT EXISTS index_eg_ws_bulkbill_range_status ON eg_ws_bulkbill_range (status) WHERE status IN ('PENDING', 'LEASED');
@@ -0,0 +1,164 @@
+package org.egov.wscalculation.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.egov.common.contract.request.RequestInfo;
+import org.egov.wscalculation.repository.builder.BulkBillRangeQueryBuilder;
+import org.egov.wscalculation.repository.rowmapper.BulkBillRangeRowMapper;
+import org.egov.wscalculation.web.models.BulkBillRange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class BulkBillRangeRepositoryTest {
+
+	private static final String TENANT_ID = "pb.amritsar";
+
+	private BulkBillRangeQueryBuilder queryBuilder = new BulkBillRangeQueryBuilder();
+
+	private JdbcTemplate jdbcTemplate;
+
+	private BulkBillRangeRepository repository;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	public void setUp() {
+		jdbcTemplate = mock(JdbcTemplate.class);
+		TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+		when(transactionTemplate.execute(any())).thenAnswer(
+				invocation -> ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+
+		repository = new BulkBillRangeRepository();
+		ReflectionTestUtils.setField(repository, "jdbcTemplate", jdbcTemplate);
+		ReflectionTestUtils.setField(repository, "transactionTemplate", transactionTemplate);
+		ReflectionTestUtils.setField(repository, "queryBuilder", queryBuilder);
+		ReflectionTestUtils.setField(repository, "rangeRowMapper", new BulkBillRangeRowMapper());
+		ReflectionTestUtils.setField(repository, "mapper", new ObjectMapper());
+	}
+
+	@Test
+	public void testNewRunIsRefusedWhileRangesAreActive() {
+		latestRun(2, 3);
+
+		Integer runNumber = repository.createJob(TENANT_ID, "WS", 1000L, 2000L, new RequestInfo(), Arrays.asList("WS/1", "WS/5"));
+
+		assertNull(runNumber);
+		verify(jdbcTemplate).queryForObject(queryBuilder.getActiveRangeCountQuery(), new Object[] { "job-2" }, Integer.class);
+		verify(jdbcTemplate, never()).update(eq(queryBuilder.getInsertJobQuery()), (Object[]) any());
+		verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testNewRunFollowsTheFinishedRun() {
+		latestRun(2, 0);
+		when(jdbcTemplate.update(eq(queryBuilder.getInsertJobQuery()), (Object[]) any())).thenReturn(1);
+
+		Integer runNumber = repository.createJob(TENANT_ID, "WS", 1000L, 2000L, new RequestInfo(),
+				Arrays.asList("WS/1", "WS/5", "WS/9"));
+
+		assertEquals(3, (int) runNumber);
+		ArgumentCaptor<List<Object[]>> ranges = ArgumentCaptor.forClass(List.class);
+		verify(jdbcTemplate).batchUpdate(eq(queryBuilder.getInsertRangeQuery()), ranges.capture());
+		assertEquals(3, ranges.getValue().size());
+		// every range ends where the next one starts, the last one is open
+		assertEquals(Arrays.asList(0, "WS/1", "WS/5"), Arrays.asList(ranges.getValue().get(0)).subList(2, 5));
+		assertEquals(Arrays.asList(2, "WS/9", null), Arrays.asList(ranges.getValue().get(2)).subList(2, 5));
+	}
+
+	@Test
+	public void testFirstRunOfThePeriod() {
+		when(jdbcTemplate.queryForList(eq(queryBuilder.getLatestJobQuery()), (Object[]) any()))
+				.thenReturn(Collections.emptyList());
+		when(jdbcTemplate.update(eq(queryBuilder.getInsertJobQuery()), (Object[]) any())).thenReturn(1);
+
+		assertEquals(1, (int) repository.createJob(TENANT_ID, "WS", 1000L, 2000L, new RequestInfo(),
+				Collections.singletonList("WS/1")));
+	}
+
+	@Test
+	public void testRunCreatedConcurrentlyIsNotCreatedAgain() {
+		latestRun(2, 0);
+		when(jdbcTemplate.update(eq(queryBuilder.getInsertJobQuery()), (Object[]) any())).thenReturn(0);
+
+		assertNull(repository.createJob(TENANT_ID, "WS", 1000L, 2000L, new RequestInfo(), Collections.singletonList("WS/1")));
+		verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+	}
+
+	@Test
+	public void testStatementsBindAllPlaceholders() {
+		BulkBillRange range = BulkBillRange.builder().id("range-1").leaseOwner("worker-1").build();
+
+		repository.leaseRange("WS", "worker-1", 60000L, 3);
+		repository.renewLease(range, 60000L);
+		repository.expireLeases("WS", 3);
+		repository.completeRange(range, BulkBillRange.StatusEnum.COMPLETED, 10L, null);
+
+		assertBound(queryBuilder.getLeaseRangeQuery(), captureQueryArgs(queryBuilder.getLeaseRangeQuery()));
+		assertBound(queryBuilder.getRenewLeaseQuery(), captureUpdateArgs(queryBuilder.getRenewLeaseQuery()));
+		assertBound(queryBuilder.getExpireLeasesQuery(), captureUpdateArgs(queryBuilder.getExpireLeasesQuery()));
+		assertBound(queryBuilder.getCompleteRangeQuery(), captureUpdateArgs(queryBuilder.getCompleteRangeQuery()));
+	}
+
+	@Test
+	public void testLostLeaseIsReported() {
+		BulkBillRange range = BulkBillRange.builder().id("range-1").leaseOwner("worker-1").build();
+		when(jdbcTemplate.update(eq(queryBuilder.getRenewLeaseQuery()), (Object[]) any())).thenReturn(0);
+		when(jdbcTemplate.update(eq(queryBuilder.getCompleteRangeQuery()), (Object[]) any())).thenReturn(0);
+
+		assertFalse(repository.renewLease(range, 60000L));
+		assertFalse(repository.completeRange(range, BulkBillRange.StatusEnum.COMPLETED, 10L, null));
+	}
+
+	private void latestRun(int runNumber, int activeRanges) {
+		Map<String, Object> latestJob = new HashMap<>();
+		latestJob.put("id", "job-" + runNumber);
+		latestJob.put("runnumber", runNumber);
+		when(jdbcTemplate.queryForList(eq(queryBuilder.getLatestJobQuery()), (Object[]) any()))
+				.thenReturn(Collections.singletonList(latestJob));
+		when(jdbcTemplate.queryForObject(eq(queryBuilder.getActiveRangeCountQuery()), any(Object[].class), eq(Integer.class)))
+				.thenReturn(activeRanges);
+	}
+
+	private Object[] captureQueryArgs(String query) {
+		ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+		verify(jdbcTemplate).query(eq(query), args.capture(), any(BulkBillRangeRowMapper.class));
+		return args.getValue();
+	}
+
+	private Object[] captureUpdateArgs(String query) {
+		ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+		verify(jdbcTemplate).update(eq(query), args.capture());
+		return args.getAllValues().toArray();
+	}
+
+	private void assertBound(String query, Object[] args) {
+		long placeholders = query.chars().filter(c -> c == '?').count();
+		assertEquals(placeholders, args.length, query);
+		assertTrue(Arrays.stream(args).noneMatch(arg -> arg instanceof Object[]));
+	}
+
+}
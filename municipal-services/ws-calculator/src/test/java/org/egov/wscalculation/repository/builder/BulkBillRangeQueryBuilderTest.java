@@ -0,0 +1,80 @@
+package org.egov.wscalculation.repository.builder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class BulkBillRangeQueryBuilderTest {
+
+	private BulkBillRangeQueryBuilder queryBuilder = new BulkBillRangeQueryBuilder();
+
+	@Test
+	public void testLeaseQueryPicksPendingOrExpiredRanges() {
+		String query = queryBuilder.getLeaseRangeQuery();
+
+		assertTrue(query.contains("leasable.status = 'PENDING' OR (leasable.status = 'LEASED' AND leasable.leaseexpiry < ?)"));
+		assertTrue(query.contains("leasable.attempts < ?"));
+		assertTrue(query.contains("attempts = rng.attempts + 1"));
+		assertTrue(query.contains("FOR UPDATE OF leasable SKIP LOCKED"));
+		assertTrue(query.contains("ORDER BY leasablejob.createdtime, leasable.rangeindex LIMIT 1"));
+		assertEquals(7, placeholders(query));
+	}
+
+	@Test
+	public void testExpireQueryFailsOnlyExpiredLeasesOnTheLastAttempt() {
+		String query = queryBuilder.getExpireLeasesQuery();
+
+		assertTrue(query.contains("SET status = 'FAILED'"));
+		assertTrue(query.contains("rng.status = 'LEASED' AND rng.leaseexpiry < ? AND rng.attempts >= ?"));
+		assertTrue(query.contains("leaseowner = NULL"));
+		assertEquals(6, placeholders(query));
+	}
+
+	@Test
+	public void testRenewAndCompleteQueriesRequireTheLeaseOwner() {
+		String renewQuery = queryBuilder.getRenewLeaseQuery();
+		String completeQuery = queryBuilder.getCompleteRangeQuery();
+
+		assertTrue(renewQuery.endsWith("WHERE id = ? AND leaseowner = ? AND status = 'LEASED'"));
+		assertEquals(4, placeholders(renewQuery));
+		assertTrue(completeQuery.endsWith("WHERE id = ? AND leaseowner = ?"));
+		assertEquals(7, placeholders(completeQuery));
+	}
+
+	@Test
+	public void testActiveRangesArePendingOrLeased() {
+		assertTrue(queryBuilder.getActiveRangeCountQuery().endsWith("status IN ('PENDING', 'LEASED')"));
+	}
+
+	@Test
+	public void testProgressQueryOfTenants() {
+		List<Object> preparedStatement = new ArrayList<>();
+
+		String query = queryBuilder.getProgressQuery("WS", Arrays.asList("pb.amritsar", "pb.jalandhar"), 5, preparedStatement);
+
+		assertTrue(query.contains(" AND job.tenantid IN (?, ?) GROUP BY job.id"));
+		assertEquals(Arrays.asList("WS", "pb.amritsar", "pb.jalandhar", 5), preparedStatement);
+		assertEquals(preparedStatement.size(), placeholders(query));
+	}
+
+	@Test
+	public void testProgressQueryOfAllTenants() {
+		List<Object> preparedStatement = new ArrayList<>();
+
+		String query = queryBuilder.getProgressQuery("WS", Collections.emptyList(), 5, preparedStatement);
+
+		assertTrue(!query.contains("job.tenantid IN"));
+		assertEquals(Arrays.asList("WS", 5), preparedStatement);
+	}
+
+	private long placeholders(String query) {
+		return query.chars().filter(c -> c == '?').count();
+	}
+
+}
@@ -0,0 +1,53 @@
+package org.egov.wscalculation.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.egov.common.contract.request.RequestInfo;
+import org.egov.common.contract.request.User;
+import org.egov.wscalculation.config.WSCalculationConfiguration;
+import org.egov.wscalculation.repository.BulkBillRangeRepository;
+import org.egov.wscalculation.repository.WSCalculationDao;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class BulkBillRangePlannerTest {
+
+	@Test
+	public void testRangesArePlannedWithoutTheCallersToken() {
+		BulkBillRangeRepository bulkBillRangeRepository = mock(BulkBillRangeRepository.class);
+		WSCalculationDao waterCalculatorDao = mock(WSCalculationDao.class);
+		List<String> rangeStarts = Arrays.asList("WS/1", "WS/101");
+		when(waterCalculatorDao.getConnectionRangeStarts("pb.amritsar", 100)).thenReturn(rangeStarts);
+
+		BulkBillRangePlanner planner = new BulkBillRangePlanner();
+		ReflectionTestUtils.setField(planner, "bulkBillRangeRepository", bulkBillRangeRepository);
+		ReflectionTestUtils.setField(planner, "waterCalculatorDao", waterCalculatorDao);
+		ReflectionTestUtils.setField(planner, "configs",
+				WSCalculationConfiguration.builder().bulkbatchSize(100).bulkRangeMaxAttempts(3).build());
+
+		User user = User.builder().uuid("user-1").build();
+		RequestInfo requestInfo = RequestInfo.builder().apiId("Rainmaker").authToken("token-1").userInfo(user).build();
+		planner.schedule(requestInfo, "pb.amritsar", 1000L, 2000L);
+
+		// ranges left on their last attempt are failed before the active ranges are counted
+		InOrder order = inOrder(bulkBillRangeRepository);
+		order.verify(bulkBillRangeRepository).expireLeases("WS", 3);
+		ArgumentCaptor<RequestInfo> jobRequestInfo = ArgumentCaptor.forClass(RequestInfo.class);
+		order.verify(bulkBillRangeRepository).createJob(eq("pb.amritsar"), eq("WS"), eq(1000L), eq(2000L),
+				jobRequestInfo.capture(), eq(rangeStarts));
+		assertNull(jobRequestInfo.getValue().getAuthToken());
+		assertEquals("Rainmaker", jobRequestInfo.getValue().getApiId());
+		assertEquals(user, jobRequestInfo.getValue().getUserInfo());
+	}
+
+}
@@ -0,0 +1,172 @@
+package org.egov.wscalculation.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.egov.common.contract.request.RequestInfo;
+import org.egov.tracer.model.CustomException;
+import org.egov.wscalculation.config.WSCalculationConfiguration;
+import org.egov.wscalculation.producer.WSCalculationProducer;
+import org.egov.wscalculation.repository.BulkBillRangeRepository;
+import org.egov.wscalculation.repository.WSCalculationDao;
+import org.egov.wscalculation.web.models.BulkBillRange;
+import org.egov.wscalculation.web.models.CalculationReq;
+import org.egov.wscalculation.web.models.WaterConnection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class BulkBillRangeServiceTest {
+
+	private static final int MAX_ATTEMPTS = 3;
+
+	private BulkBillRangeRepository bulkBillRangeRepository;
+
+	private WSCalculationDao waterCalculatorDao;
+
+	private BulkDemandAndBillGenService bulkDemandAndBillGenService;
+
+	private WSCalculationConfiguration configs;
+
+	private BulkBillRangeService bulkBillRangeService;
+
+	@BeforeEach
+	public void setUp() {
+		bulkBillRangeRepository = mock(BulkBillRangeRepository.class);
+		waterCalculatorDao = mock(WSCalculationDao.class);
+		bulkDemandAndBillGenService = mock(BulkDemandAndBillGenService.class);
+		EnrichmentService enrichmentService = mock(EnrichmentService.class);
+		DemandService demandService = mock(DemandService.class);
+		when(enrichmentService.filterConnections(any())).thenAnswer(invocation -> invocation.getArgument(0));
+		when(demandService.getBulkCalculationReq(any(), anyString(), any(), any())).thenReturn(new CalculationReq());
+		when(bulkBillRangeRepository.renewLease(any(), anyLong())).thenReturn(true);
+		when(bulkBillRangeRepository.completeRange(any(), any(), any(), any())).thenReturn(true);
+
+		// workers are not started, the ranges are processed on the test thread
+		configs = WSCalculationConfiguration.builder().bulkRangeEnabled(true).bulkRangeWorkerCount(1)
+				.bulkRangePollInterval(3600000L).bulkRangeLeaseTime(60000L).bulkRangeMaxAttempts(MAX_ATTEMPTS)
+				.bulkbatchSize(100).build();
+
+		bulkBillRangeService = new BulkBillRangeService();
+		ReflectionTestUtils.setField(bulkBillRangeService, "bulkBillRangeRepository", bulkBillRangeRepository);
+		ReflectionTestUtils.setField(bulkBillRangeService, "waterCalculatorDao", waterCalculatorDao);
+		ReflectionTestUtils.setField(bulkBillRangeService, "enrichmentService", enrichmentService);
+		ReflectionTestUtils.setField(bulkBillRangeService, "demandService", demandService);
+		ReflectionTestUtils.setField(bulkBillRangeService, "bulkDemandAndBillGenService", bulkDemandAndBillGenService);
+		ReflectionTestUtils.setField(bulkBillRangeService, "producer", mock(WSCalculationProducer.class));
+		ReflectionTestUtils.setField(bulkBillRangeService, "configs", configs);
+		ReflectionTestUtils.setField(bulkBillRangeService, "bulkBillGenAuditTopic", "bulk-bill-generation-audit");
+		bulkBillRangeService.start();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		bulkBillRangeService.stop();
+	}
+
+	@Test
+	public void testProcessedRangeIsCompleted() {
+		BulkBillRange range = leaseRange(1);
+		connectionsInRange(connection("WS/1"), connection("WS/2"));
+
+		processRanges();
+
+		verify(bulkDemandAndBillGenService).bulkDemandGeneration(any());
+		verify(bulkBillRangeRepository).completeRange(range, BulkBillRange.StatusEnum.COMPLETED, 2L, null);
+	}
+
+	@Test
+	public void testFailedRangeIsRetried() {
+		BulkBillRange range = leaseRange(MAX_ATTEMPTS - 1);
+		connectionsInRange(connection("WS/1"));
+		doThrow(new CustomException("EG_WS_DEMAND_ERROR", "demand failed")).when(bulkDemandAndBillGenService)
+				.bulkDemandGeneration(any());
+
+		processRanges();
+
+		verify(bulkBillRangeRepository).completeRange(eq(range), eq(BulkBillRange.StatusEnum.PENDING), isNull(), anyString());
+	}
+
+	@Test
+	public void testRangeFailingOnTheLastAttemptIsFailed() {
+		BulkBillRange range = leaseRange(MAX_ATTEMPTS);
+		connectionsInRange(connection("WS/1"));
+		doThrow(new CustomException("EG_WS_DEMAND_ERROR", "demand failed")).when(bulkDemandAndBillGenService)
+				.bulkDemandGeneration(any());
+
+		processRanges();
+
+		verify(bulkBillRangeRepository).completeRange(eq(range), eq(BulkBillRange.StatusEnum.FAILED), isNull(), anyString());
+	}
+
+	@Test
+	public void testRangeWithLostLeaseIsNotCompleted() {
+		configs.setBulkRangeLeaseTime(30L);
+		leaseRange(1);
+		when(bulkBillRangeRepository.renewLease(any(), anyLong())).thenReturn(false);
+		when(waterCalculatorDao.getConnectionsInRange(anyString(), anyString(), anyString(), any(), anyLong(), anyLong()))
+				.thenAnswer(invocation -> {
+					// outlives the renewals, the first of them reports the lease as lost
+					Thread.sleep(300);
+					return Collections.singletonList(connection("WS/1"));
+				});
+
+		processRanges();
+
+		verify(bulkBillRangeRepository, atLeastOnce()).renewLease(any(), anyLong());
+		verify(bulkDemandAndBillGenService, never()).bulkDemandGeneration(any());
+		verify(bulkBillRangeRepository, never()).completeRange(any(), any(), any(), any());
+	}
+
+	@Test
+	public void testLeasesExpiredOnTheLastAttemptAreFailedFirst() {
+		when(bulkBillRangeRepository.leaseRange(anyString(), anyString(), anyLong(), anyInt())).thenReturn(null);
+
+		processRanges();
+
+		verify(bulkBillRangeRepository).expireLeases("WS", MAX_ATTEMPTS);
+		verify(bulkBillRangeRepository, never()).completeRange(any(), any(), any(), any());
+	}
+
+	private BulkBillRange leaseRange(int attempts) {
+		BulkBillRange range = BulkBillRange.builder().id("range-1").jobId("job-1").rangeIndex(0).tenantId("pb.amritsar")
+				.businessService("WS").billingPeriodFrom(1000L).billingPeriodTo(2000L).startConnectionNo("WS/1")
+				.status(BulkBillRange.StatusEnum.LEASED).leaseOwner("worker-1").attempts(attempts)
+				.requestInfo(new RequestInfo()).build();
+		when(bulkBillRangeRepository.leaseRange(anyString(), anyString(), anyLong(), anyInt())).thenReturn(range, (BulkBillRange) null);
+		return range;
+	}
+
+	private void connectionsInRange(WaterConnection... connections) {
+		List<WaterConnection> connectionList = new ArrayList<>(Arrays.asList(connections));
+		when(waterCalculatorDao.getConnectionsInRange(anyString(), anyString(), anyString(), any(), anyLong(), anyLong()))
+				.thenReturn(connectionList);
+	}
+
+	private WaterConnection connection(String connectionNo) {
+		WaterConnection connection = new WaterConnection();
+		connection.setConnectionNo(connectionNo);
+		return connection;
+	}
+
+	private void processRanges() {
+		ReflectionTestUtils.invokeMethod(bulkBillRangeService, "processRanges");
+	}
+
+}
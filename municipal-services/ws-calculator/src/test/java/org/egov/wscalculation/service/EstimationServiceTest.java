@@ -0,0 +1,173 @@
+package org.egov.wscalculation.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.egov.common.contract.request.RequestInfo;
+import org.egov.tracer.model.CustomException;
+import org.egov.wscalculation.constants.WSCalculationConstant;
+import org.egov.wscalculation.util.MasterDataSnapshot;
+import org.egov.wscalculation.util.WSCalculationUtil;
+import org.egov.wscalculation.web.models.CalculationCriteria;
+import org.egov.wscalculation.web.models.Property;
+import org.egov.wscalculation.web.models.WaterConnection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import net.minidev.json.JSONArray;
+import net.minidev.json.JSONObject;
+
+public class EstimationServiceTest {
+
+	private static final String TENANT_ID = "pb.amritsar";
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	private final Property property = new Property();
+
+	private EstimationService estimationService;
+
+	private Map<String, Object> masters;
+
+	@BeforeEach
+	public void setUp() {
+		WSCalculationUtil wSCalculationUtil = mock(WSCalculationUtil.class);
+		when(wSCalculationUtil.getProperty(any())).thenReturn(property);
+
+		estimationService = new EstimationService();
+		ReflectionTestUtils.setField(estimationService, "mapper", mapper);
+		ReflectionTestUtils.setField(estimationService, "wSCalculationUtil", wSCalculationUtil);
+
+		JSONArray billingSlabs = new JSONArray();
+		billingSlabs.add(billingSlab("WS_1", "RESIDENTIAL", "Metered", "Water consumption", 50,
+				slab(0, 10, 5), slab(10, 1000, 8)));
+		billingSlabs.add(billingSlab("WS_2", "residential", "Non Metered", "No. of taps", 100,
+				slab(0, 5, 20), slab(5, 100, 30)));
+		billingSlabs.add(billingSlab("WS_3", "RESIDENTIAL", "Non Metered", "Flat", 75));
+		billingSlabs.add(billingSlab("WS_4", "COMMERCIAL", "NON METERED", "NO. OF TAPS", 150,
+				slab(0, 100, 40)));
+		billingSlabs.add(billingSlab("WS_5", "MIXED", "Metered", "Water consumption", 60, slab(0, 1000, 9)));
+		billingSlabs.add(billingSlab("WS_6", "MIXED", "Metered", "Water consumption", 60, slab(0, 1000, 10)));
+
+		// the first attribute configured for a connection type applies
+		JSONArray calculationAttributes = new JSONArray();
+		calculationAttributes.add(calculationAttribute("Metered", "Water consumption"));
+		calculationAttributes.add(calculationAttribute("Non Metered", "No. of taps"));
+		calculationAttributes.add(calculationAttribute("Non Metered", "Flat"));
+
+		masters = new HashMap<>();
+		masters.put(WSCalculationConstant.WC_BILLING_SLAB_MASTER, billingSlabs);
+		masters.put(WSCalculationConstant.CALCULATION_ATTRIBUTE_CONST, calculationAttributes);
+	}
+
+	@Test
+	public void testSnapshotSlabsMatchTheFilteredMasters() {
+		MasterDataSnapshot snapshot = MasterDataSnapshot.build(TENANT_ID, masters, mapper);
+		Map<String, JSONArray> billingSlabMaster = new HashMap<>();
+		billingSlabMaster.put(WSCalculationConstant.WC_BILLING_SLAB_MASTER,
+				(JSONArray) masters.get(WSCalculationConstant.WC_BILLING_SLAB_MASTER));
+		billingSlabMaster.put(WSCalculationConstant.CALCULATION_ATTRIBUTE_CONST,
+				(JSONArray) masters.get(WSCalculationConstant.CALCULATION_ATTRIBUTE_CONST));
+
+		List<String> usageCategories = Arrays.asList("RESIDENTIAL.INDEPENDENTPROPERTY", "Residential",
+				"COMMERCIAL.SHOP", "MIXED", "INDUSTRIAL", null);
+		List<String> connectionTypes = Arrays.asList(WSCalculationConstant.meteredConnectionType,
+				WSCalculationConstant.nonMeterdConnection, "Tanker");
+		int compared = 0;
+		for (String usageCategory : usageCategories) {
+			for (String connectionType : connectionTypes) {
+				for (Integer noOfTaps : Arrays.asList(null, 3, 7)) {
+					property.setUsageCategory(usageCategory);
+					WaterConnection connection = new WaterConnection();
+					connection.setConnectionType(connectionType);
+					connection.setNoOfTaps(noOfTaps);
+					CalculationCriteria criteria = CalculationCriteria.builder().lastReading(10.0).currentReading(25.0)
+							.build();
+					String description = usageCategory + ", " + connectionType + ", " + noOfTaps;
+
+					ArrayList<String> masterSlabIds = new ArrayList<>();
+					String fromMasters = estimate(() -> estimationService.getWaterEstimationCharge(connection, criteria,
+							billingSlabMaster, masterSlabIds, new RequestInfo()));
+					ArrayList<String> snapshotSlabIds = new ArrayList<>();
+					String fromSnapshot = estimate(() -> estimationService.getWaterEstimationCharge(connection,
+							criteria, snapshot, snapshotSlabIds, new RequestInfo()));
+
+					assertEquals(fromMasters, fromSnapshot, description);
+					assertEquals(masterSlabIds, snapshotSlabIds, description);
+					compared++;
+				}
+			}
+		}
+		assertEquals(usageCategories.size() * connectionTypes.size() * 3, compared);
+	}
+
+	@Test
+	public void testSnapshotWithoutSlabsFailsAsTheMasters() {
+		masters.remove(WSCalculationConstant.WC_BILLING_SLAB_MASTER);
+		MasterDataSnapshot snapshot = MasterDataSnapshot.build(TENANT_ID, masters, mapper);
+		WaterConnection connection = new WaterConnection();
+		connection.setConnectionType(WSCalculationConstant.meteredConnectionType);
+
+		assertEquals("BILLING_SLAB_NOT_FOUND", estimate(() -> estimationService.getWaterEstimationCharge(connection,
+				new CalculationCriteria(), new HashMap<>(), new ArrayList<>(), new RequestInfo())));
+		assertEquals("BILLING_SLAB_NOT_FOUND", estimate(() -> estimationService.getWaterEstimationCharge(connection,
+				new CalculationCriteria(), snapshot, new ArrayList<>(), new RequestInfo())));
+	}
+
+	/**
+	 * Runs the estimation, returning the charge or the code of the error raised
+	 */
+	private String estimate(Estimation estimation) {
+		try {
+			return estimation.estimate().toPlainString();
+		} catch (CustomException e) {
+			return e.getCode();
+		}
+	}
+
+	private JSONObject billingSlab(String id, String buildingType, String connectionType, String calculationAttribute,
+			double minimumCharge, JSONObject... slabs) {
+		JSONObject billingSlab = new JSONObject();
+		billingSlab.put("id", id);
+		billingSlab.put("buildingType", buildingType);
+		billingSlab.put("connectionType", connectionType);
+		billingSlab.put("calculationAttribute", calculationAttribute);
+		billingSlab.put("minimumCharge", minimumCharge);
+		JSONArray slabList = new JSONArray();
+		slabList.addAll(Arrays.asList(slabs));
+		billingSlab.put("slabs", slabList);
+		return billingSlab;
+	}
+
+	private JSONObject slab(int from, int to, double charge) {
+		JSONObject slab = new JSONObject();
+		slab.put("from", from);
+		slab.put("to", to);
+		slab.put("charge", charge);
+		return slab;
+	}
+
+	private JSONObject calculationAttribute(String name, String attribute) {
+		JSONObject calculationAttribute = new JSONObject();
+		calculationAttribute.put("name", name);
+		calculationAttribute.put(WSCalculationConstant.ATTRIBUTE, attribute);
+		return calculationAttribute;
+	}
+
+	private interface Estimation {
+		BigDecimal estimate();
+	}
+
+}
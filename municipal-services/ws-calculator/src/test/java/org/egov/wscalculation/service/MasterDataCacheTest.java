@@ -0,0 +1,125 @@
+package org.egov.wscalculation.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import org.egov.common.contract.request.RequestInfo;
+import org.egov.tracer.model.CustomException;
+import org.egov.wscalculation.config.WSCalculationConfiguration;
+import org.egov.wscalculation.constants.WSCalculationConstant;
+import org.egov.wscalculation.util.MasterDataSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class MasterDataCacheTest {
+
+	private static final String TENANT_ID = "pb.amritsar";
+
+	private final AtomicInteger loads = new AtomicInteger();
+
+	private MasterDataCache masterDataCache;
+
+	@AfterEach
+	public void tearDown() {
+		masterDataCache.stop();
+	}
+
+	@Test
+	public void testSnapshotIsLoadedOnce() {
+		masterDataCache = masterDataCache(true);
+		BiFunction<RequestInfo, String, Map<String, Object>> loader = (requestInfo, tenantId) -> masters();
+
+		MasterDataSnapshot snapshot = get(loader);
+
+		assertSame(snapshot, get(loader));
+		assertEquals(1, loads.get());
+		assertEquals(TENANT_ID, snapshot.getTenantId());
+	}
+
+	@Test
+	public void testRefreshReplacesTheSnapshot() {
+		masterDataCache = masterDataCache(true);
+		BiFunction<RequestInfo, String, Map<String, Object>> loader = (requestInfo, tenantId) -> masters();
+		MasterDataSnapshot snapshot = get(loader);
+
+		ReflectionTestUtils.invokeMethod(masterDataCache, "refresh");
+
+		assertNotSame(snapshot, get(loader));
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	public void testFailedRefreshKeepsTheSnapshot() {
+		masterDataCache = masterDataCache(true);
+		BiFunction<RequestInfo, String, Map<String, Object>> loader = (requestInfo, tenantId) -> {
+			if (loads.get() > 0) {
+				loads.incrementAndGet();
+				throw new CustomException("EGOV_MDMS_ERROR", "MDMS is down");
+			}
+			return masters();
+		};
+		MasterDataSnapshot snapshot = get(loader);
+
+		ReflectionTestUtils.invokeMethod(masterDataCache, "refresh");
+
+		assertEquals(2, loads.get());
+		assertSame(snapshot, get(loader));
+		assertEquals(Collections.singletonList("2019-20"),
+				snapshot.getMasterMap().get(WSCalculationConstant.Assessment_Year));
+	}
+
+	@Test
+	public void testMastersAreLoadedOnEveryCallWhenDisabled() {
+		masterDataCache = masterDataCache(false);
+		BiFunction<RequestInfo, String, Map<String, Object>> loader = (requestInfo, tenantId) -> masters();
+
+		assertNotSame(get(loader), get(loader));
+		assertEquals(2, loads.get());
+	}
+
+	private MasterDataSnapshot get(BiFunction<RequestInfo, String, Map<String, Object>> loader) {
+		return masterDataCache.get(new RequestInfo(), TENANT_ID, WSCalculationConstant.MDMS_CACHE_KEY, loader);
+	}
+
+	private Map<String, Object> masters() {
+		loads.incrementAndGet();
+		Map<String, Object> masters = new HashMap<>();
+		masters.put(WSCalculationConstant.Assessment_Year, Collections.singletonList("2019-20"));
+		return masters;
+	}
+
+	@SuppressWarnings("unchecked")
+	private MasterDataCache masterDataCache(boolean enabled) {
+		ObjectProvider<MeterRegistry> meterRegistry = mock(ObjectProvider.class);
+		when(meterRegistry.getIfAvailable(any())).thenReturn(new SimpleMeterRegistry());
+
+		// refreshes are run on the test thread
+		WSCalculationConfiguration config = WSCalculationConfiguration.builder().masterDataSnapshotEnabled(enabled)
+				.masterDataSnapshotRefreshInterval(3600000L).build();
+
+		MasterDataCache cache = new MasterDataCache();
+		ReflectionTestUtils.setField(cache, "config", config);
+		ReflectionTestUtils.setField(cache, "mapper", new ObjectMapper());
+		ReflectionTestUtils.setField(cache, "meterRegistry", meterRegistry);
+		cache.start();
+		return cache;
+	}
+
+}